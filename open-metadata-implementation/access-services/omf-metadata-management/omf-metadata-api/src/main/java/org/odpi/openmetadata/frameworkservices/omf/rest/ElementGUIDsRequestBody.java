@@ -0,0 +1,130 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.frameworkservices.omf.rest;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.odpi.openmetadata.commonservices.ffdc.rest.ResultsRequestBody;
+import org.odpi.openmetadata.frameworks.openmetadata.search.QueryOptions;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+
+/**
+ * ElementGUIDsRequestBody is the request body structure used on OMAG REST API calls that retrieve information
+ * about several metadata elements at once.  The query options apply to each element in turn - so the paging
+ * options, for example, control the number of related elements returned for each element.
+ */
+@JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown=true)
+public class ElementGUIDsRequestBody extends ResultsRequestBody
+{
+    private List<String> elementGUIDs = null;
+
+
+    /**
+     * Default constructor
+     */
+    public ElementGUIDsRequestBody()
+    {
+        super();
+    }
+
+
+    /**
+     * Copy/clone constructor
+     *
+     * @param template object to copy
+     */
+    public ElementGUIDsRequestBody(ElementGUIDsRequestBody template)
+    {
+        super(template);
+
+        if (template != null)
+        {
+            elementGUIDs = template.getElementGUIDs();
+        }
+    }
+
+
+    /**
+     * Copy/clone constructor
+     *
+     * @param template object to copy
+     */
+    public ElementGUIDsRequestBody(QueryOptions template)
+    {
+        super(template);
+    }
+
+
+    /**
+     * Return the unique identifiers of the metadata elements.
+     *
+     * @return list of guids
+     */
+    public List<String> getElementGUIDs()
+    {
+        return elementGUIDs;
+    }
+
+
+    /**
+     * Set up the unique identifiers of the metadata elements.
+     *
+     * @param elementGUIDs list of guids
+     */
+    public void setElementGUIDs(List<String> elementGUIDs)
+    {
+        this.elementGUIDs = elementGUIDs;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "ElementGUIDsRequestBody{" +
+                "elementGUIDs=" + elementGUIDs +
+                "} " + super.toString();
+    }
+
+
+    /**
+     * Compare the values of the supplied object with those stored in the current object.
+     *
+     * @param objectToCompare supplied object
+     * @return boolean result of comparison
+     */
+    @Override
+    public boolean equals(Object objectToCompare)
+    {
+        if (this == objectToCompare) return true;
+        if (objectToCompare == null || getClass() != objectToCompare.getClass()) return false;
+        if (!super.equals(objectToCompare)) return false;
+        ElementGUIDsRequestBody that = (ElementGUIDsRequestBody) objectToCompare;
+        return Objects.equals(elementGUIDs, that.elementGUIDs);
+    }
+
+
+    /**
+     * Create a hash code for this element type.
+     *
+     * @return int hash code
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(super.hashCode(), elementGUIDs);
+    }
+}
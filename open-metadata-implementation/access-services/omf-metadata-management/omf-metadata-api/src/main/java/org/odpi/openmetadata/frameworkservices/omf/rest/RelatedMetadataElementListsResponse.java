@@ -0,0 +1,125 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.frameworkservices.omf.rest;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.odpi.openmetadata.frameworks.openmetadata.properties.RelatedMetadataElementList;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+/**
+ * The response object for passing back the related elements for each of a list of starting elements
+ * or an exception if the request failed.
+ */
+@JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown=true)
+public class RelatedMetadataElementListsResponse extends OMAGOMFAPIResponse
+{
+    private List<RelatedMetadataElementList> relatedElementLists = null;
+
+
+    /**
+     * Default constructor
+     */
+    public RelatedMetadataElementListsResponse()
+    {
+    }
+
+
+    /**
+     * Copy/clone constructor
+     *
+     * @param template object to copy
+     */
+    public RelatedMetadataElementListsResponse(RelatedMetadataElementListsResponse template)
+    {
+        super(template);
+
+        if (template != null)
+        {
+            relatedElementLists = template.getRelatedElementLists();
+        }
+    }
+
+
+    /**
+     * Return the related elements for each starting element.
+     *
+     * @return result object
+     */
+    public List<RelatedMetadataElementList> getRelatedElementLists()
+    {
+        return relatedElementLists;
+    }
+
+
+    /**
+     * Set up the related elements for each starting element.
+     *
+     * @param relatedElementLists result object
+     */
+    public void setRelatedElementLists(List<RelatedMetadataElementList> relatedElementLists)
+    {
+        this.relatedElementLists = relatedElementLists;
+    }
+
+
+    /**
+     * JSON-style toString
+     *
+     * @return return string containing the property names and values
+     */
+    @Override
+    public String toString()
+    {
+        return "RelatedMetadataElementListsResponse{" +
+                "relatedElementLists=" + relatedElementLists +
+                "} " + super.toString();
+    }
+
+
+    /**
+     * Return comparison result based on the content of the properties.
+     *
+     * @param objectToCompare test object
+     * @return result of comparison
+     */
+    @Override
+    public boolean equals(Object objectToCompare)
+    {
+        if (this == objectToCompare)
+        {
+            return true;
+        }
+        if (objectToCompare == null || getClass() != objectToCompare.getClass())
+        {
+            return false;
+        }
+        if (!super.equals(objectToCompare))
+        {
+            return false;
+        }
+        RelatedMetadataElementListsResponse that = (RelatedMetadataElementListsResponse) objectToCompare;
+        return Objects.equals(relatedElementLists, that.relatedElementLists);
+    }
+
+
+    /**
+     * Return hash code for this object
+     *
+     * @return int hash code
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(super.hashCode(), relatedElementLists);
+    }
+}
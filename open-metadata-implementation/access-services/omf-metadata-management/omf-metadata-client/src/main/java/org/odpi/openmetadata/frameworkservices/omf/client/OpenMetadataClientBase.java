@@ -565,6 +565,50 @@ public abstract class OpenMetadataClientBase extends OpenMetadataClient
     }
 
 
+    /**
+     * Retrieve several metadata elements using their unique identifiers with a single request.  Identifiers that
+     * do not match a visible element are skipped.
+     *
+     * @param userId caller's userId
+     * @param elementGUIDs unique identifiers for the metadata elements
+     * @param getOptions multiple options to control the query
+     *
+     * @return list of metadata elements in the order of the supplied identifiers, or null if none are found
+     * @throws InvalidParameterException the userId is null
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation
+     * @throws PropertyServerException    a problem accessing the metadata store
+     */
+    @Override
+    public List<OpenMetadataElement> getMetadataElementsByGUIDs(String       userId,
+                                                                List<String> elementGUIDs,
+                                                                GetOptions   getOptions) throws InvalidParameterException,
+                                                                                                UserNotAuthorizedException,
+                                                                                                PropertyServerException
+    {
+        final String methodName  = "getMetadataElementsByGUIDs";
+        final String urlTemplate = serverPlatformURLRoot + "/servers/{0}/open-metadata/access-services/open-metadata-store/users/{1}/metadata-elements/by-guids";
+
+        invalidParameterHandler.validateUserId(userId, methodName);
+
+        if ((elementGUIDs == null) || (elementGUIDs.isEmpty()))
+        {
+            return null;
+        }
+
+        ElementGUIDsRequestBody requestBody = new ElementGUIDsRequestBody(new QueryOptions(getOptions));
+
+        requestBody.setElementGUIDs(elementGUIDs);
+
+        OpenMetadataElementsResponse restResult = restClient.callOpenMetadataElementsPostRESTCall(methodName,
+                                                                                                 urlTemplate,
+                                                                                                 requestBody,
+                                                                                                 serverName,
+                                                                                                 userId);
+
+        return restResult.getElements();
+    }
+
+
     /**
      * Extract the type name from the options
      *
@@ -862,6 +906,73 @@ public abstract class OpenMetadataClientBase extends OpenMetadataClient
     }
 
 
+    /**
+     * Retrieve the metadata elements connected to each of the supplied elements with a single request.  The query
+     * options apply to each starting element in turn, so the paging options control the number of related
+     * elements returned for each one.  Starting elements that are not known are skipped.
+     *
+     * @param userId caller's userId
+     * @param elementGUIDs unique identifiers for the starting metadata elements
+     * @param startingAtEnd indicates which end to retrieve from (0 is "either end"; 1 is end1; 2 is end 2)
+     * @param relationshipTypeName type name of relationships to follow (or null for all)
+     * @param queryOptions multiple options to control the query
+     *
+     * @return list of related elements for each starting element (identified by its starting element), or null
+     * @throws InvalidParameterException the userId is null; the relationship type is invalid
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation
+     * @throws PropertyServerException    a problem accessing the metadata store
+     */
+    @Override
+    public List<RelatedMetadataElementList> getRelatedMetadataElements(String       userId,
+                                                                       List<String> elementGUIDs,
+                                                                       int          startingAtEnd,
+                                                                       String       relationshipTypeName,
+                                                                       QueryOptions queryOptions) throws InvalidParameterException,
+                                                                                                         UserNotAuthorizedException,
+                                                                                                         PropertyServerException
+    {
+        final String methodName = "getRelatedMetadataElements(bulk)";
+
+        final String allURLTemplate = serverPlatformURLRoot + "/servers/{0}/open-metadata/access-services/open-metadata-store/users/{1}/related-elements/by-guids/any-type?startingAtEnd={2}";
+        final String specificURLTemplate = serverPlatformURLRoot + "/servers/{0}/open-metadata/access-services/open-metadata-store/users/{1}/related-elements/by-guids/type/{2}?startingAtEnd={3}";
+
+        invalidParameterHandler.validateUserId(userId, methodName);
+
+        if ((elementGUIDs == null) || (elementGUIDs.isEmpty()))
+        {
+            return null;
+        }
+
+        RelatedMetadataElementListsResponse restResult;
+
+        ElementGUIDsRequestBody requestBody = new ElementGUIDsRequestBody(queryOptions);
+
+        requestBody.setElementGUIDs(elementGUIDs);
+
+        if (relationshipTypeName == null)
+        {
+            restResult = restClient.callRelatedMetadataElementListsPostRESTCall(methodName,
+                                                                                allURLTemplate,
+                                                                                requestBody,
+                                                                                serverName,
+                                                                                userId,
+                                                                                startingAtEnd);
+        }
+        else
+        {
+            restResult = restClient.callRelatedMetadataElementListsPostRESTCall(methodName,
+                                                                                specificURLTemplate,
+                                                                                requestBody,
+                                                                                serverName,
+                                                                                userId,
+                                                                                relationshipTypeName,
+                                                                                startingAtEnd);
+        }
+
+        return restResult.getRelatedElementLists();
+    }
+
+
     /**
      * Return all the elements that are anchored to an asset plus relationships between these elements and to other elements.
      *
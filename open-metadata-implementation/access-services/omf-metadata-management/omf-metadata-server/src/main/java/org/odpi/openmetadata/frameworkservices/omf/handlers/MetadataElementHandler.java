@@ -456,17 +456,106 @@ public class MetadataElementHandler<B> extends ReferenceableHandler<B>
                                                                    String              methodName) throws InvalidParameterException,
                                                                                                           UserNotAuthorizedException,
                                                                                                           PropertyServerException
+    {
+        return this.getRelatedMetadataElements(userId,
+                                               startingEntity,
+                                               startingAtEnd,
+                                               relationshipTypeName,
+                                               attachmentEntityTypeName,
+                                               null,
+                                               null,
+                                               null,
+                                               null,
+                                               limitResultsByStatus,
+                                               asOfTime,
+                                               sequencingProperty,
+                                               sequencingOrder,
+                                               forLineage,
+                                               forDuplicateProcessing,
+                                               effectiveTime,
+                                               startFrom,
+                                               pageSize,
+                                               methodName);
+    }
+
+
+    /**
+     * Retrieve the metadata elements connected to the supplied element, filtering the results by the types of the
+     * relationships and the classifications of the related elements.  The filters are applied before the paging
+     * options, so each page is full (unless there are no more results) however many relationships are filtered out.
+     * If there is only one relationship type to include, it is passed to the repositories in place of the
+     * relationship type name.
+     *
+     * @param userId caller's userId
+     * @param startingEntity the starting metadata element
+     * @param startingAtEnd indicates which end to retrieve from (0 is "either end"; 1 is end1; 2 is end 2)
+     * @param relationshipTypeName type name of relationships to follow (or null for all)
+     * @param attachmentEntityTypeName requested type name for retrieved entities
+     * @param includeOnlyRelationships only return relationships of these types (or their subtypes) - null means all types
+     * @param skipRelationships do not return relationships of these types (or their subtypes) - ignored if includeOnlyRelationships is set
+     * @param includeOnlyClassifiedElements only return related elements with all of these classifications - null means no restriction
+     * @param skipClassifiedElements do not return related elements with any of these classifications - null means no restriction
+     * @param limitResultsByStatus By default, relationships in all statuses (other than DELETE) are returned.  However, it is possible
+     *                             to specify a list of statuses (for example ACTIVE) to restrict the results to.  Null means all status values.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param forLineage the retrieved element is for lineage processing so include archived elements
+     * @param forDuplicateProcessing the retrieved element is for duplicate processing so do not combine results from known duplicates.
+     * @param effectiveTime only return the element if it is effective at this time. Null means anytime. Use "new Date()" for now.
+     * @param startFrom paging start point
+     * @param pageSize maximum results that can be returned
+     * @param methodName calling method
+     *
+     * @return list of related elements
+     *
+     * @throws InvalidParameterException the unique identifier is null or not known; the relationship type is invalid
+     * @throws UserNotAuthorizedException the governance action service is not able to access the elements
+     * @throws PropertyServerException a problem accessing the metadata store
+     */
+    public List<RelatedMetadataElement> getRelatedMetadataElements(String              userId,
+                                                                   EntityDetail        startingEntity,
+                                                                   int                 startingAtEnd,
+                                                                   String              relationshipTypeName,
+                                                                   String              attachmentEntityTypeName,
+                                                                   List<String>        includeOnlyRelationships,
+                                                                   List<String>        skipRelationships,
+                                                                   List<String>        includeOnlyClassifiedElements,
+                                                                   List<String>        skipClassifiedElements,
+                                                                   List<ElementStatus> limitResultsByStatus,
+                                                                   Date                asOfTime,
+                                                                   String              sequencingProperty,
+                                                                   SequencingOrder     sequencingOrder,
+                                                                   boolean             forLineage,
+                                                                   boolean             forDuplicateProcessing,
+                                                                   Date                effectiveTime,
+                                                                   int                 startFrom,
+                                                                   int                 pageSize,
+                                                                   String              methodName) throws InvalidParameterException,
+                                                                                                          UserNotAuthorizedException,
+                                                                                                          PropertyServerException
     {
         final String guidParameterName = "elementGUID";
 
         invalidParameterHandler.validateUserId(userId, methodName);
         invalidParameterHandler.validateObject(startingEntity, guidParameterName, methodName);
 
+        String followedTypeName = relationshipTypeName;
+
+        if ((followedTypeName == null) && (includeOnlyRelationships != null) && (includeOnlyRelationships.size() == 1))
+        {
+            /*
+             * The repositories can do the filtering.
+             */
+            followedTypeName = includeOnlyRelationships.get(0);
+        }
+
         String relationshipTypeGUID = null;
 
-        if (relationshipTypeName != null)
+        if (followedTypeName != null)
         {
-            relationshipTypeGUID = invalidParameterHandler.validateTypeName(relationshipTypeName,
+            relationshipTypeGUID = invalidParameterHandler.validateTypeName(followedTypeName,
                                                                             null,
                                                                             serviceName,
                                                                             methodName,
@@ -484,31 +573,256 @@ public class MetadataElementHandler<B> extends ReferenceableHandler<B>
             selectionEnd = 1;
         }
 
+        if ((includeOnlyRelationships == null) && (skipRelationships == null) &&
+                (includeOnlyClassifiedElements == null) && (skipClassifiedElements == null))
+        {
+            /*
+             * No filtering is needed so the repositories can do the paging.
+             */
+            List<Relationship> relationships = repositoryHandler.getRelationshipsByType(userId,
+                                                                                        startingEntity,
+                                                                                        startingEntity.getType().getTypeDefName(),
+                                                                                        relationshipTypeGUID,
+                                                                                        followedTypeName,
+                                                                                        selectionEnd,
+                                                                                        getInstanceStatuses(limitResultsByStatus),
+                                                                                        asOfTime,
+                                                                                        getSequencingOrder(sequencingOrder),
+                                                                                        sequencingProperty,
+                                                                                        forLineage,
+                                                                                        forDuplicateProcessing,
+                                                                                        startFrom,
+                                                                                        pageSize,
+                                                                                        effectiveTime,
+                                                                                        methodName);
+
+            if (relationships == null)
+            {
+                return null;
+            }
+
+            return this.getRelatedMetadataElements(userId,
+                                                   startingEntity,
+                                                   relationships,
+                                                   attachmentEntityTypeName,
+                                                   null,
+                                                   null,
+                                                   selectionEnd,
+                                                   forLineage,
+                                                   forDuplicateProcessing,
+                                                   effectiveTime,
+                                                   methodName);
+        }
+
         /*
-         * Retrieve the relationships (no security calls)
+         * The relationships are retrieved a page at a time and filtered until there are enough results to
+         * fill the caller's page.  Only the entities for the relevant relationships are retrieved.
          */
-        List<Relationship> relationships = repositoryHandler.getRelationshipsByType(userId,
-                                                                                    startingEntity,
-                                                                                    startingEntity.getType().getTypeDefName(),
-                                                                                    relationshipTypeGUID,
-                                                                                    relationshipTypeName,
-                                                                                    selectionEnd,
-                                                                                    getInstanceStatuses(limitResultsByStatus),
-                                                                                    asOfTime,
-                                                                                    getSequencingOrder(sequencingOrder),
-                                                                                    sequencingProperty,
-                                                                                    forLineage,
-                                                                                    forDuplicateProcessing,
-                                                                                    startFrom,
-                                                                                    pageSize,
-                                                                                    effectiveTime,
-                                                                                    methodName);
-
-        if (relationships == null)
+        List<RelatedMetadataElement> relevantElements    = new ArrayList<>();
+        int                          repositoryStartFrom = 0;
+        boolean                      moreRelationships   = true;
+
+        while (moreRelationships)
+        {
+            List<Relationship> relationships = repositoryHandler.getRelationshipsByType(userId,
+                                                                                        startingEntity,
+                                                                                        startingEntity.getType().getTypeDefName(),
+                                                                                        relationshipTypeGUID,
+                                                                                        followedTypeName,
+                                                                                        selectionEnd,
+                                                                                        getInstanceStatuses(limitResultsByStatus),
+                                                                                        asOfTime,
+                                                                                        getSequencingOrder(sequencingOrder),
+                                                                                        sequencingProperty,
+                                                                                        forLineage,
+                                                                                        forDuplicateProcessing,
+                                                                                        repositoryStartFrom,
+                                                                                        pageSize,
+                                                                                        effectiveTime,
+                                                                                        methodName);
+
+            if ((relationships == null) || (relationships.isEmpty()))
+            {
+                moreRelationships = false;
+            }
+            else
+            {
+                List<Relationship> relevantRelationships = new ArrayList<>();
+
+                for (Relationship relationship : relationships)
+                {
+                    if (this.isRelevantRelationship(relationship, includeOnlyRelationships, skipRelationships))
+                    {
+                        relevantRelationships.add(relationship);
+                    }
+                }
+
+                if (! relevantRelationships.isEmpty())
+                {
+                    List<RelatedMetadataElement> relatedElements = this.getRelatedMetadataElements(userId,
+                                                                                                   startingEntity,
+                                                                                                   relevantRelationships,
+                                                                                                   attachmentEntityTypeName,
+                                                                                                   includeOnlyClassifiedElements,
+                                                                                                   skipClassifiedElements,
+                                                                                                   selectionEnd,
+                                                                                                   forLineage,
+                                                                                                   forDuplicateProcessing,
+                                                                                                   effectiveTime,
+                                                                                                   methodName);
+
+                    relevantElements.addAll(relatedElements);
+                }
+
+                /*
+                 * A page size of zero means the repositories return all the results they are allowed to in one call.
+                 */
+                if ((pageSize <= 0) || (relevantElements.size() >= startFrom + pageSize))
+                {
+                    moreRelationships = false;
+                }
+                else
+                {
+                    repositoryStartFrom = repositoryStartFrom + pageSize;
+                }
+            }
+        }
+
+        if (relevantElements.size() <= startFrom)
         {
             return null;
         }
 
+        int endOfPage = relevantElements.size();
+
+        if ((pageSize > 0) && (startFrom + pageSize < endOfPage))
+        {
+            endOfPage = startFrom + pageSize;
+        }
+
+        return new ArrayList<>(relevantElements.subList(startFrom, endOfPage));
+    }
+
+
+    /**
+     * Return whether a relationship passes the caller's relationship type filters.
+     *
+     * @param relationship retrieved relationship
+     * @param includeOnlyRelationships only return relationships of these types - null means all types
+     * @param skipRelationships do not return relationships of these types - ignored if includeOnlyRelationships is set
+     * @return boolean
+     */
+    private boolean isRelevantRelationship(Relationship relationship,
+                                           List<String> includeOnlyRelationships,
+                                           List<String> skipRelationships)
+    {
+        if ((relationship == null) || (relationship.getType() == null))
+        {
+            return false;
+        }
+
+        String relationshipTypeName = relationship.getType().getTypeDefName();
+
+        if (includeOnlyRelationships != null)
+        {
+            for (String includedTypeName : includeOnlyRelationships)
+            {
+                if (repositoryHelper.isTypeOf(serviceName, relationshipTypeName, includedTypeName))
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        if (skipRelationships != null)
+        {
+            for (String skippedTypeName : skipRelationships)
+            {
+                if (repositoryHelper.isTypeOf(serviceName, relationshipTypeName, skippedTypeName))
+                {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return whether a related entity passes the caller's classification filters.
+     *
+     * @param entity retrieved entity
+     * @param includeOnlyClassifiedElements the entity must have all of these classifications - null means no restriction
+     * @param skipClassifiedElements the entity must have none of these classifications - null means no restriction
+     * @return boolean
+     */
+    private boolean isRelevantEntity(EntityDetail entity,
+                                     List<String> includeOnlyClassifiedElements,
+                                     List<String> skipClassifiedElements)
+    {
+        if ((includeOnlyClassifiedElements == null) && (skipClassifiedElements == null))
+        {
+            return true;
+        }
+
+        Set<String> classificationNames = new HashSet<>();
+
+        if (entity.getClassifications() != null)
+        {
+            for (Classification classification : entity.getClassifications())
+            {
+                if (classification != null)
+                {
+                    classificationNames.add(classification.getName());
+                }
+            }
+        }
+
+        if ((skipClassifiedElements != null) && (! Collections.disjoint(classificationNames, skipClassifiedElements)))
+        {
+            return false;
+        }
+
+        return (includeOnlyClassifiedElements == null) || (classificationNames.containsAll(includeOnlyClassifiedElements));
+    }
+
+
+    /**
+     * Retrieve the entities linked to the supplied relationships and build the related elements.
+     *
+     * @param userId caller's userId
+     * @param startingEntity the starting metadata element
+     * @param relationships relationships retrieved from the repositories
+     * @param attachmentEntityTypeName requested type name for retrieved entities
+     * @param includeOnlyClassifiedElements only return related elements with all of these classifications - null means no restriction
+     * @param skipClassifiedElements do not return related elements with any of these classifications - null means no restriction
+     * @param selectionEnd 0 means either end, 1 means only take from end 1, 2 means only take from end 2
+     * @param forLineage the retrieved element is for lineage processing so include archived elements
+     * @param forDuplicateProcessing the retrieved element is for duplicate processing so do not combine results from known duplicates.
+     * @param effectiveTime only return the element if it is effective at this time. Null means anytime. Use "new Date()" for now.
+     * @param methodName calling method
+     *
+     * @return list of related elements
+     *
+     * @throws InvalidParameterException the attachment entity type is invalid
+     * @throws PropertyServerException a problem converting the related elements
+     */
+    private List<RelatedMetadataElement> getRelatedMetadataElements(String             userId,
+                                                                    EntityDetail       startingEntity,
+                                                                    List<Relationship> relationships,
+                                                                    String             attachmentEntityTypeName,
+                                                                    List<String>       includeOnlyClassifiedElements,
+                                                                    List<String>       skipClassifiedElements,
+                                                                    int                selectionEnd,
+                                                                    boolean            forLineage,
+                                                                    boolean            forDuplicateProcessing,
+                                                                    Date               effectiveTime,
+                                                                    String             methodName) throws InvalidParameterException,
+                                                                                                          PropertyServerException
+    {
         /*
          * Retrieve all the entities linked to the relationships.  This is done as a single retrieve
          * to minimise the calls to the repositories.  It also performs security checks
@@ -548,7 +862,7 @@ public class MetadataElementHandler<B> extends ReferenceableHandler<B>
                          */
                         EntityDetail retrievedEntity = retrievedEntities.get(otherEnd.getGUID());
 
-                        if (retrievedEntity != null)
+                        if ((retrievedEntity != null) && (this.isRelevantEntity(retrievedEntity, includeOnlyClassifiedElements, skipClassifiedElements)))
                         {
                             results.add(relatedElementConverter.getNewBean(RelatedMetadataElement.class,
                                                                            retrievedEntity,
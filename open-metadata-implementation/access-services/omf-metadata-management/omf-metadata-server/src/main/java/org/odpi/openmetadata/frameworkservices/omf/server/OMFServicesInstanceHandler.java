@@ -3,6 +3,7 @@
 package org.odpi.openmetadata.frameworkservices.omf.server;
 
 import org.odpi.openmetadata.adminservices.configuration.registration.AccessServiceDescription;
+import org.odpi.openmetadata.commonservices.ffdc.InvalidParameterHandler;
 import org.odpi.openmetadata.commonservices.multitenant.AccessServerServiceInstanceHandler;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.PropertyServerException;
@@ -54,4 +55,32 @@ public class OMFServicesInstanceHandler extends AccessServerServiceInstanceHandl
 
         return null;
     }
+
+
+    /**
+     * Retrieve the parameter validator for the server, which holds the server's maximum page size.
+     *
+     * @param userId calling user
+     * @param serverName name of the server tied to the request
+     * @param serviceOperationName name of the REST API call (typically the top-level methodName)
+     * @return handler for use by the requested instance
+     * @throws InvalidParameterException no available instance for the requested server
+     * @throws UserNotAuthorizedException user does not have access to the requested server
+     * @throws PropertyServerException the service name is not known - indicating a logic error
+     */
+    InvalidParameterHandler getInvalidParameterHandler(String userId,
+                                                       String serverName,
+                                                       String serviceOperationName) throws InvalidParameterException,
+                                                                                           UserNotAuthorizedException,
+                                                                                           PropertyServerException
+    {
+        OMFServicesInstance instance = (OMFServicesInstance)super.getServerServiceInstance(userId, serverName, serviceOperationName);
+
+        if (instance != null)
+        {
+            return instance.getInvalidParameterHandler();
+        }
+
+        return null;
+    }
 }
@@ -744,6 +744,90 @@ public class OpenMetadataStoreRESTServices
     }
 
 
+    /**
+     * Retrieve several metadata elements using their unique identifiers.  Identifiers that do not match a
+     * visible element are skipped.
+     *
+     * @param serverName     name of server instance to route request to
+     * @param userId caller's userId
+     * @param requestBody unique identifiers for the metadata elements and the options to control the query
+     *
+     * @return list of metadata elements in the order of the supplied identifiers or
+     *  InvalidParameterException the userId is null or there are more identifiers than the server's maximum page size.
+     *  UserNotAuthorizedException the governance action service is not able to access the elements
+     *  PropertyServerException a problem accessing the metadata store
+     */
+    public OpenMetadataElementsResponse getMetadataElementsByGUIDs(String                  serverName,
+                                                                   String                  userId,
+                                                                   ElementGUIDsRequestBody requestBody)
+    {
+        final String methodName = "getMetadataElementsByGUIDs";
+        final String guidParameterName = "elementGUIDs";
+
+        RESTCallToken token = restCallLogger.logRESTCall(serverName, userId, methodName, requestBody);
+
+        AuditLog auditLog = null;
+        OpenMetadataElementsResponse response = new OpenMetadataElementsResponse();
+
+        try
+        {
+            auditLog = instanceHandler.getAuditLog(userId, serverName, methodName);
+
+            MetadataElementHandler<OpenMetadataElement> handler = instanceHandler.getMetadataElementHandler(userId, serverName, methodName);
+
+            if ((requestBody != null) && (requestBody.getElementGUIDs() != null))
+            {
+                instanceHandler.getInvalidParameterHandler(userId, serverName, methodName).validateListSize(requestBody.getElementGUIDs(),
+                                                                                                            guidParameterName,
+                                                                                                            methodName);
+
+                List<OpenMetadataElement> elements = new ArrayList<>();
+
+                for (String elementGUID : requestBody.getElementGUIDs())
+                {
+                    if (elementGUID != null)
+                    {
+                        try
+                        {
+                            OpenMetadataElement element = handler.getMetadataElementByGUID(userId,
+                                                                                           elementGUID,
+                                                                                           requestBody.getMetadataElementTypeName(),
+                                                                                           requestBody.getForLineage(),
+                                                                                           requestBody.getForDuplicateProcessing(),
+                                                                                           requestBody.getAsOfTime(),
+                                                                                           requestBody.getEffectiveTime(),
+                                                                                           methodName);
+
+                            if (element != null)
+                            {
+                                elements.add(element);
+                            }
+                        }
+                        catch (InvalidParameterException notKnown)
+                        {
+                            /*
+                             * The element is not known, or not visible with these options.
+                             */
+                        }
+                    }
+                }
+
+                if (! elements.isEmpty())
+                {
+                    response.setElements(elements);
+                }
+            }
+        }
+        catch (Throwable error)
+        {
+            restExceptionHandler.captureRuntimeExceptions(response, error, methodName, auditLog);
+        }
+
+        restCallLogger.logRESTCallReturn(token, response);
+        return response;
+    }
+
+
     /**
      * Retrieve the metadata element using its unique name (typically the qualified name).
      *
@@ -1810,6 +1894,10 @@ public class OpenMetadataStoreRESTServices
                                                                                          startingAtEnd,
                                                                                          relationshipTypeName,
                                                                                          requestBody.getMetadataElementTypeName(),
+                                                                                         requestBody.getIncludeOnlyRelationships(),
+                                                                                         requestBody.getSkipRelationships(),
+                                                                                         requestBody.getIncludeOnlyClassifiedElements(),
+                                                                                         requestBody.getSkipClassifiedElements(),
                                                                                          requestBody.getLimitResultsByStatus(),
                                                                                          requestBody.getAsOfTime(),
                                                                                          requestBody.getSequencingProperty(),
@@ -1870,6 +1958,123 @@ public class OpenMetadataStoreRESTServices
     }
 
 
+    /**
+     * Retrieve the metadata elements connected to each of the supplied elements.  The query options apply to each
+     * starting element in turn, so the paging options control the number of related elements returned for each one.
+     * Starting elements that are not known are skipped.  Unlike the single element request, no mermaid graph is
+     * built for the results.
+     *
+     * @param serverName     name of server instance to route request to
+     * @param userId caller's userId
+     * @param relationshipTypeName type name of relationships to follow (or null for all)
+     * @param startingAtEnd indicates which end to retrieve from (0 is "either end"; 1 is end1; 2 is end 2)
+     * @param requestBody unique identifiers for the starting metadata elements and the options to control the query
+     *
+     * @return list of related elements for each starting element
+     *  InvalidParameterException the relationship type is invalid or there are more identifiers than the server's maximum page size
+     *  UserNotAuthorizedException the governance action service is not able to access the elements
+     *  PropertyServerException a problem accessing the metadata store
+     */
+    public RelatedMetadataElementListsResponse getRelatedMetadataElements(String                  serverName,
+                                                                          String                  userId,
+                                                                          String                  relationshipTypeName,
+                                                                          int                     startingAtEnd,
+                                                                          ElementGUIDsRequestBody requestBody)
+    {
+        final String methodName = "getRelatedMetadataElements(bulk)";
+        final String guidParameterName = "elementGUIDs";
+
+        RESTCallToken token = restCallLogger.logRESTCall(serverName, userId, methodName, requestBody);
+
+        AuditLog                            auditLog = null;
+        RelatedMetadataElementListsResponse response = new RelatedMetadataElementListsResponse();
+
+        try
+        {
+            auditLog = instanceHandler.getAuditLog(userId, serverName, methodName);
+
+            MetadataElementHandler<OpenMetadataElement> handler = instanceHandler.getMetadataElementHandler(userId, serverName, methodName);
+
+            if ((requestBody != null) && (requestBody.getElementGUIDs() != null))
+            {
+                instanceHandler.getInvalidParameterHandler(userId, serverName, methodName).validateListSize(requestBody.getElementGUIDs(),
+                                                                                                            guidParameterName,
+                                                                                                            methodName);
+
+                List<RelatedMetadataElementList> relatedElementLists = new ArrayList<>();
+
+                for (String elementGUID : requestBody.getElementGUIDs())
+                {
+                    if (elementGUID != null)
+                    {
+                        EntityDetail startingEntity;
+
+                        try
+                        {
+                            startingEntity = handler.getEntityFromRepository(userId,
+                                                                             elementGUID,
+                                                                             guidParameterName,
+                                                                             OpenMetadataType.OPEN_METADATA_ROOT.typeName,
+                                                                             null,
+                                                                             null,
+                                                                             requestBody.getForLineage(),
+                                                                             requestBody.getForDuplicateProcessing(),
+                                                                             requestBody.getEffectiveTime(),
+                                                                             methodName);
+                        }
+                        catch (InvalidParameterException notKnown)
+                        {
+                            /*
+                             * The starting element is not known, or not visible with these options.
+                             */
+                            startingEntity = null;
+                        }
+
+                        if (startingEntity != null)
+                        {
+                            RelatedMetadataElementList relatedElementList = new RelatedMetadataElementList();
+
+                            relatedElementList.setStartingElement(handler.getMetadataElementFromEntity(startingEntity, methodName));
+                            relatedElementList.setElementList(handler.getRelatedMetadataElements(userId,
+                                                                                                 startingEntity,
+                                                                                                 startingAtEnd,
+                                                                                                 relationshipTypeName,
+                                                                                                 requestBody.getMetadataElementTypeName(),
+                                                                                                 requestBody.getIncludeOnlyRelationships(),
+                                                                                                 requestBody.getSkipRelationships(),
+                                                                                                 requestBody.getIncludeOnlyClassifiedElements(),
+                                                                                                 requestBody.getSkipClassifiedElements(),
+                                                                                                 requestBody.getLimitResultsByStatus(),
+                                                                                                 requestBody.getAsOfTime(),
+                                                                                                 requestBody.getSequencingProperty(),
+                                                                                                 requestBody.getSequencingOrder(),
+                                                                                                 requestBody.getForLineage(),
+                                                                                                 requestBody.getForDuplicateProcessing(),
+                                                                                                 requestBody.getEffectiveTime(),
+                                                                                                 requestBody.getStartFrom(),
+                                                                                                 requestBody.getPageSize(),
+                                                                                                 methodName));
+                            relatedElementLists.add(relatedElementList);
+                        }
+                    }
+                }
+
+                if (! relatedElementLists.isEmpty())
+                {
+                    response.setRelatedElementLists(relatedElementLists);
+                }
+            }
+        }
+        catch (Throwable error)
+        {
+            restExceptionHandler.captureRuntimeExceptions(response, error, methodName, auditLog);
+        }
+
+        restCallLogger.logRESTCallReturn(token, response);
+        return response;
+    }
+
+
     /**
      * Retrieve the relationships linking to the supplied elements.
      *
@@ -489,6 +489,35 @@ public class OpenMetadataStoreResource
     }
 
 
+    /**
+     * Retrieve several metadata elements using their unique identifiers.  Identifiers that do not match a
+     * visible element are skipped.
+     *
+     * @param serverName     name of server instance to route request to
+     * @param userId caller's userId
+     * @param requestBody unique identifiers for the metadata elements and the options to control the query
+     *
+     * @return list of metadata elements in the order of the supplied identifiers or
+     *  InvalidParameterException the userId is null.
+     *  UserNotAuthorizedException the governance action service is not able to access the elements
+     *  PropertyServerException a problem accessing the metadata store
+     */
+    @PostMapping(path = "/metadata-elements/by-guids")
+    @SecurityRequirement(name = "BearerAuthorization")
+
+    @Operation(summary="getMetadataElementsByGUIDs",
+            description="Retrieve several metadata elements using their unique identifiers.",
+            externalDocs=@ExternalDocumentation(description="Further Information",
+                    url="https://egeria-project.org/services/omf-metadata-management/"))
+
+    public OpenMetadataElementsResponse getMetadataElementsByGUIDs(@PathVariable String                  serverName,
+                                                                   @PathVariable String                  userId,
+                                                                   @RequestBody  ElementGUIDsRequestBody requestBody)
+    {
+        return restAPI.getMetadataElementsByGUIDs(serverName, userId, requestBody);
+    }
+
+
     /**
      * Retrieve all the versions of an element.
      *
@@ -715,6 +744,80 @@ public class OpenMetadataStoreResource
     }
 
 
+    /**
+     * Retrieve the metadata elements connected to each of the supplied elements.  The paging options apply to
+     * each starting element in turn.
+     *
+     * @param serverName     name of server instance to route request to
+     * @param userId caller's userId
+     * @param startingAtEnd indicates which end to retrieve from (0 is "either end"; 1 is end1; 2 is end 2)
+     * @param requestBody unique identifiers for the starting metadata elements and the options to control the query
+     *
+     * @return list of related elements for each starting element
+     *  InvalidParameterException one of the parameters is invalid
+     *  UserNotAuthorizedException the governance action service is not able to access the elements
+     *  PropertyServerException a problem accessing the metadata store
+     */
+    @PostMapping(path = "/related-elements/by-guids/any-type")
+    @SecurityRequirement(name = "BearerAuthorization")
+
+    @Operation(summary="getAllRelatedMetadataElementsForGUIDs",
+            description="Retrieve the metadata elements connected to each of the supplied elements.",
+            externalDocs=@ExternalDocumentation(description="Further Information",
+                    url="https://egeria-project.org/services/omf-metadata-management/"))
+
+    public RelatedMetadataElementListsResponse getAllRelatedMetadataElementsForGUIDs(@PathVariable String                  serverName,
+                                                                                     @PathVariable String                  userId,
+                                                                                     @RequestParam (required = false, defaultValue = "0")
+                                                                                                   int                     startingAtEnd,
+                                                                                     @RequestBody  ElementGUIDsRequestBody requestBody)
+    {
+        return restAPI.getRelatedMetadataElements(serverName,
+                                                  userId,
+                                                  null,
+                                                  startingAtEnd,
+                                                  requestBody);
+    }
+
+
+    /**
+     * Retrieve the metadata elements connected to each of the supplied elements via a specific relationship type.
+     * The paging options apply to each starting element in turn.
+     *
+     * @param serverName     name of server instance to route request to
+     * @param userId caller's userId
+     * @param relationshipTypeName type name of relationships to follow
+     * @param startingAtEnd indicates which end to retrieve from (0 is "either end"; 1 is end1; 2 is end 2)
+     * @param requestBody unique identifiers for the starting metadata elements and the options to control the query
+     *
+     * @return list of related elements for each starting element
+     *  InvalidParameterException one of the parameters is invalid; the relationship type is invalid
+     *  UserNotAuthorizedException the governance action service is not able to access the elements
+     *  PropertyServerException a problem accessing the metadata store
+     */
+    @PostMapping(path = "/related-elements/by-guids/type/{relationshipTypeName}")
+    @SecurityRequirement(name = "BearerAuthorization")
+
+    @Operation(summary="getRelatedMetadataElementsForGUIDs",
+            description="Retrieve the metadata elements connected to each of the supplied elements via a specific relationship type.",
+            externalDocs=@ExternalDocumentation(description="Further Information",
+                    url="https://egeria-project.org/services/omf-metadata-management/"))
+
+    public RelatedMetadataElementListsResponse getRelatedMetadataElementsForGUIDs(@PathVariable String                  serverName,
+                                                                                  @PathVariable String                  userId,
+                                                                                  @PathVariable String                  relationshipTypeName,
+                                                                                  @RequestParam (required = false, defaultValue = "0")
+                                                                                                int                     startingAtEnd,
+                                                                                  @RequestBody  ElementGUIDsRequestBody requestBody)
+    {
+        return restAPI.getRelatedMetadataElements(serverName,
+                                                  userId,
+                                                  relationshipTypeName,
+                                                  startingAtEnd,
+                                                  requestBody);
+    }
+
+
     /**
      * Retrieve the metadata elements connected to the supplied element via a specific relationship type.
      *
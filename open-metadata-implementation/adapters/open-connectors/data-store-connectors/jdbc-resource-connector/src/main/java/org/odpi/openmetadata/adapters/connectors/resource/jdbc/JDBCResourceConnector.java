@@ -52,6 +52,12 @@ import java.util.Properties;
  * <br><br>
  * A caller that never closes will exhaust the pool.  Set the jdbcConnectionLeakThreshold configuration property to
  * have the pool log a stack trace naming any caller that holds a connection for too long.
+ * <br><br>
+ * Each statement costs a round trip to the database, so callers writing many rows should use
+ * {@link #insertRowsIntoTable}, {@link #insertRowsIntoTables} or {@link #issueSQLCommandBatch} rather than a loop of
+ * single row calls.  Rows and repeated commands are sent as JDBC batches of the same single row statement, in groups
+ * of up to jdbcMaximumBatchSize.  Keeping the statement text fixed lets the driver reuse its prepared statement; for
+ * PostgreSQL the driver is also asked to rewrite each batch of INSERTs into multi-row statements.
  */
 public class JDBCResourceConnector extends ConnectorBase implements AuditLoggingComponent
 {
@@ -60,6 +66,7 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
     private String                          jdbcDatabaseURL    = null;
     private HikariDataSource                jdbcDataSource     = null;
     private final Properties                jdbcConnectionProperties = new Properties();
+    private int                             maximumBatchSize   = 1000;
 
 
     private static final Logger log = LoggerFactory.getLogger(JDBCResourceConnector.class);
@@ -183,6 +190,10 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
                                                                            jdbcConnectionProperties);
         }
 
+        maximumBatchSize = (int) Math.max(1L, this.getLongConfigurationProperty(configurationProperties,
+                                                                               JDBCConfigurationProperty.JDBC_MAXIMUM_BATCH_SIZE.getName(),
+                                                                               1000L));
+
         jdbcDataSource = this.createConnectionPool(configurationProperties);
     }
 
@@ -258,6 +269,7 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
          * operating system's own TCP settings.
          */
         this.addKeepAliveProperty(poolConfig.getDataSourceProperties());
+        this.addBatchRewriteProperty(poolConfig.getDataSourceProperties());
 
         /*
          * Any additional driver properties are passed straight through on every connection the pool opens.
@@ -352,6 +364,22 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
     }
 
 
+    /**
+     * Ask the JDBC driver to rewrite a batch of single row INSERT statements into multi-row INSERT statements, where
+     * the property name for this driver is known.  Without it, the PostgreSQL driver still sends each statement of
+     * a batch separately, albeit without waiting for the previous response.
+     *
+     * @param dataSourceProperties driver properties being assembled for the pool
+     */
+    private void addBatchRewriteProperty(Properties dataSourceProperties)
+    {
+        if ((jdbcDatabaseURL != null) && (jdbcDatabaseURL.startsWith("jdbc:postgresql:")))
+        {
+            dataSourceProperties.setProperty("reWriteBatchedInserts", "true");
+        }
+    }
+
+
     /**
      * Retrieve a numeric configuration property, falling back to the supplied default if it is absent or unreadable.
      *
@@ -451,6 +479,23 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
      */
     public void issueSQLCommand(java.sql.Connection jdbcConnection,
                                 String              sqlCommand) throws PropertyServerException
+    {
+        this.issueSQLCommand(jdbcConnection, sqlCommand, null);
+    }
+
+
+    /**
+     * Issue a SQL command that expects no results.  The command contains "?" placeholders that are bound,
+     * in order, to the supplied parameter values.
+     *
+     * @param jdbcConnection connection to use
+     * @param sqlCommand command to issue
+     * @param parameters values for the placeholders in the command (may be null)
+     * @throws PropertyServerException something went wrong
+     */
+    public void issueSQLCommand(java.sql.Connection jdbcConnection,
+                                String              sqlCommand,
+                                List<JDBCDataValue> parameters) throws PropertyServerException
     {
         final String methodName = "issueSQLCommand";
 
@@ -458,6 +503,8 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
         {
             log.debug(sqlCommand);
 
+            this.bindParameters(preparedStatement, parameters);
+
             preparedStatement.execute();
         }
         catch (SQLException sqlException)
@@ -475,7 +522,71 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
 
 
     /**
-     * Issue a rollback on the connection when a SQL error occurs.
+     * Issue the same SQL command many times, each with its own parameter values.  The commands are sent to the
+     * database as JDBC batches of up to jdbcMaximumBatchSize commands, rather than one round trip per command.
+     *
+     * @param jdbcConnection connection to use
+     * @param sqlCommand command to issue
+     * @param parameterSets values for the placeholders in the command - one list for each time the command is issued
+     * @throws PropertyServerException something went wrong
+     */
+    public void issueSQLCommandBatch(java.sql.Connection       jdbcConnection,
+                                     String                    sqlCommand,
+                                     List<List<JDBCDataValue>> parameterSets) throws PropertyServerException
+    {
+        final String methodName = "issueSQLCommandBatch";
+
+        if ((parameterSets == null) || (parameterSets.isEmpty()))
+        {
+            return;
+        }
+
+        try (PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand))
+        {
+            log.debug(sqlCommand);
+
+            int batchSize = 0;
+
+            for (List<JDBCDataValue> parameters : parameterSets)
+            {
+                this.bindParameters(preparedStatement, parameters);
+                preparedStatement.addBatch();
+                batchSize++;
+
+                if (batchSize == maximumBatchSize)
+                {
+                    preparedStatement.executeBatch();
+                    batchSize = 0;
+                }
+            }
+
+            if (batchSize > 0)
+            {
+                preparedStatement.executeBatch();
+            }
+        }
+        catch (SQLException sqlException)
+        {
+            /*
+             * A BatchUpdateException reports the failing command through its chained exception.
+             */
+            SQLException cause = sqlException.getNextException() == null ? sqlException : sqlException.getNextException();
+
+            this.rollbackAfterException(jdbcConnection, sqlException);
+            throw new PropertyServerException(JDBCErrorCode.UNEXPECTED_SQL_EXCEPTION.getMessageDefinition(jdbcDatabaseName,
+                                                                                                          sqlCommand,
+                                                                                                          methodName,
+                                                                                                          cause.getMessage()),
+                                              this.getClass().getName(),
+                                              methodName,
+                                              sqlException);
+        }
+    }
+
+
+    /**
+     * Issue a rollback on the connection when a SQL error occurs.  There is nothing to roll back if the connection
+     * is in auto-commit mode (for example, while building indexes concurrently).
      *
      * @param jdbcConnection connection with the error
      * @param sqlException original exception
@@ -487,6 +598,11 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
 
         try
         {
+            if (jdbcConnection.getAutoCommit())
+            {
+                return;
+            }
+
             jdbcConnection.rollback();
 
             super.logRecord(methodName,
@@ -579,6 +695,28 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
                                                      String               tableName,
                                                      String               whereClause,
                                                      Map<String, Integer> columnNameTypeMap) throws PropertyServerException
+    {
+        return this.getMatchingRow(jdbcConnection, tableName, whereClause, null, columnNameTypeMap);
+    }
+
+
+    /**
+     * Retrieve the row that matches the where clause.  The where clause contains "?" placeholders that are bound,
+     * in order, to the supplied parameter values.
+     *
+     * @param jdbcConnection connection to use
+     * @param tableName name of the table to query
+     * @param whereClause condition describing how to match the desired columns
+     * @param parameters values for the placeholders in the where clause (may be null)
+     * @param columnNameTypeMap map of resulting column names and values to include in the results
+     * @return row consisting of column names to data values that represent the requested row
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public Map<String, JDBCDataValue> getMatchingRow(java.sql.Connection  jdbcConnection,
+                                                     String               tableName,
+                                                     String               whereClause,
+                                                     List<JDBCDataValue>  parameters,
+                                                     Map<String, Integer> columnNameTypeMap) throws PropertyServerException
     {
         final String methodName = "getMatchingRow";
 
@@ -590,6 +728,8 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
 
             PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand);
 
+            this.bindParameters(preparedStatement, parameters);
+
             ResultSet resultSet = preparedStatement.executeQuery();
 
             Map<String, JDBCDataValue> results = this.getRowFromResultSet(resultSet, columnNameTypeMap);
@@ -627,6 +767,28 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
                                                             String               tableName,
                                                             String               whereClause,
                                                             Map<String, Integer> columnNameTypeMap) throws PropertyServerException
+    {
+        return this.getMatchingRows(jdbcConnection, tableName, whereClause, null, columnNameTypeMap);
+    }
+
+
+    /**
+     * Retrieve the rows that match the where clause.  The where clause contains "?" placeholders that are bound,
+     * in order, to the supplied parameter values.
+     *
+     * @param jdbcConnection connection to use
+     * @param tableName name of the table to query
+     * @param whereClause condition describing how to match the desired columns
+     * @param parameters values for the placeholders in the where clause (may be null)
+     * @param columnNameTypeMap map of resulting column names and values to include in the results
+     * @return list of rows consisting of column names to data values that represent the requested row
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public List<Map<String, JDBCDataValue>> getMatchingRows(java.sql.Connection  jdbcConnection,
+                                                            String               tableName,
+                                                            String               whereClause,
+                                                            List<JDBCDataValue>  parameters,
+                                                            Map<String, Integer> columnNameTypeMap) throws PropertyServerException
     {
         final String methodName = "getMatchingRows";
 
@@ -638,6 +800,8 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
 
             PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand);
 
+            this.bindParameters(preparedStatement, parameters);
+
             ResultSet resultSet = preparedStatement.executeQuery();
 
             List<Map<String, JDBCDataValue>> results = this.getRowsFromResultSet(resultSet, columnNameTypeMap);
@@ -673,6 +837,28 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
     public List<Map<String, JDBCDataValue>> getMatchingRows(java.sql.Connection  jdbcConnection,
                                                             String               sqlCommand,
                                                             Map<String, Integer> columnNameTypeMap) throws PropertyServerException
+    {
+        return this.getMatchingRows(jdbcConnection, sqlCommand, (List<JDBCDataValue>)null, columnNameTypeMap);
+    }
+
+
+    /**
+     * Retrieve the rows returned by the supplied SQL query.  The query contains "?" placeholders that are bound,
+     * in order, to the supplied parameter values.  Keeping the values out of the SQL text means that repeated
+     * queries of the same shape share one statement text, so the driver's statement cache and the database's
+     * saved query plans can be reused.
+     *
+     * @param jdbcConnection connection to use
+     * @param sqlCommand query to issue
+     * @param parameters values for the placeholders in the query (may be null)
+     * @param columnNameTypeMap map of resulting column names and values to include in the results
+     * @return list of rows consisting of column names to data values that represent the requested row
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public List<Map<String, JDBCDataValue>> getMatchingRows(java.sql.Connection  jdbcConnection,
+                                                            String               sqlCommand,
+                                                            List<JDBCDataValue>  parameters,
+                                                            Map<String, Integer> columnNameTypeMap) throws PropertyServerException
     {
         final String methodName = "getMatchingRows";
 
@@ -682,6 +868,8 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
 
             PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand);
 
+            this.bindParameters(preparedStatement, parameters);
+
             ResultSet resultSet = preparedStatement.executeQuery();
 
             List<Map<String, JDBCDataValue>> results = this.getRowsFromResultSet(resultSet, columnNameTypeMap);
@@ -766,6 +954,25 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
      */
     public long countMatchingRows(java.sql.Connection  jdbcConnection,
                                   String               sqlCommand) throws PropertyServerException
+    {
+        return this.countMatchingRows(jdbcConnection, sqlCommand, null);
+    }
+
+
+    /**
+     * Retrieve the number of rows that would be returned by the supplied SQL query (which should be a
+     * "SELECT COUNT(...) FROM ... WHERE ..." style command).  The query contains "?" placeholders that are bound,
+     * in order, to the supplied parameter values.
+     *
+     * @param jdbcConnection connection to use
+     * @param sqlCommand the full "SELECT COUNT(...)" SQL command to execute
+     * @param parameters values for the placeholders in the query (may be null)
+     * @return number of rows matching the supplied SQL command
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public long countMatchingRows(java.sql.Connection  jdbcConnection,
+                                  String               sqlCommand,
+                                  List<JDBCDataValue>  parameters) throws PropertyServerException
     {
         final String methodName = "countMatchingRows";
 
@@ -777,6 +984,8 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
         {
             PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand);
 
+            this.bindParameters(preparedStatement, parameters);
+
             ResultSet resultSet = preparedStatement.executeQuery();
 
             if (resultSet.next())
@@ -986,7 +1195,8 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
                 int sqlType = columnNameTypeMap.get(columnName);
                 switch (sqlType)
                 {
-                    case Types.VARCHAR   -> dataValue = new JDBCDataValue(resultSet.getString(columnName), sqlType);
+                    case Types.VARCHAR,
+                            Types.OTHER  -> dataValue = new JDBCDataValue(resultSet.getString(columnName), sqlType);
                     case Types.ARRAY     -> dataValue = new JDBCDataValue(resultSet.getArray(columnName), sqlType);
                     case Types.BOOLEAN   -> dataValue = new JDBCDataValue(resultSet.getBoolean(columnName), sqlType);
                     case Types.DATE      -> dataValue = new JDBCDataValue(resultSet.getDate(columnName), sqlType);
@@ -1033,7 +1243,8 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
                 int sqlType = columnNameTypeMap.get(columnName);
                 switch (sqlType)
                 {
-                    case Types.VARCHAR   -> dataValue = new JDBCDataValue(resultSet.getString(columnName), sqlType);
+                    case Types.VARCHAR,
+                            Types.OTHER  -> dataValue = new JDBCDataValue(resultSet.getString(columnName), sqlType);
                     case Types.ARRAY     -> dataValue = new JDBCDataValue(resultSet.getArray(columnName), sqlType);
                     case Types.BOOLEAN   -> dataValue = new JDBCDataValue(resultSet.getBoolean(columnName), sqlType);
                     case Types.DATE      -> dataValue = new JDBCDataValue(resultSet.getDate(columnName), sqlType);
@@ -1077,17 +1288,52 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
 
         String sqlCommand = "INSERT INTO " + tableName + this.getInsertColumnList(columnNameValueMap) + " ON CONFLICT DO NOTHING";
 
-        try
+        try (PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand))
         {
             log.debug(sqlCommand);
 
-            PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand);
+            this.bindParameters(preparedStatement, new ArrayList<>(columnNameValueMap.values()));
 
-            int parameterIndex = 1;
-            for (String columnName : columnNameValueMap.keySet())
+            int rowsInserted = preparedStatement.executeUpdate();
+
+            if ((rowsInserted > 1) && (auditLog != null))
             {
-                JDBCDataValue jdbcDataValue = columnNameValueMap.get(columnName);
+                auditLog.logMessage(methodName,
+                                    JDBCAuditCode.UNEXPECTED_ROW_COUNT_FROM_DATABASE.getMessageDefinition(jdbcDatabaseName,
+                                                                                                          Integer.toString(rowsInserted),
+                                                                                                          sqlCommand));
+            }
+        }
+        catch (SQLException sqlException)
+        {
+            this.rollbackAfterException(jdbcConnection, sqlException);
+            throw new PropertyServerException(JDBCErrorCode.UNEXPECTED_SQL_EXCEPTION.getMessageDefinition(jdbcDatabaseName,
+                                                                                                          sqlCommand,
+                                                                                                          methodName,
+                                                                                                          sqlException.getMessage()),
+                                              this.getClass().getName(),
+                                              methodName,
+                                              sqlException);
+        }
+    }
 
+
+    /**
+     * Bind the supplied values to the "?" placeholders of a prepared statement, in order.
+     *
+     * @param preparedStatement statement to bind the values to
+     * @param parameters values for the placeholders (may be null)
+     * @throws SQLException a value could not be bound
+     */
+    private void bindParameters(PreparedStatement   preparedStatement,
+                                List<JDBCDataValue> parameters) throws SQLException
+    {
+        if (parameters != null)
+        {
+            int parameterIndex = 1;
+
+            for (JDBCDataValue jdbcDataValue : parameters)
+            {
                 if (jdbcDataValue.getScaleOrLength() == 0)
                 {
                     preparedStatement.setObject(parameterIndex,
@@ -1104,26 +1350,144 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
 
                 parameterIndex++;
             }
+        }
+    }
 
-            int rowsInserted = preparedStatement.executeUpdate();
 
-            if ((rowsInserted > 1) && (auditLog != null))
+    /**
+     * Insert each of the new rows into a table.  Consecutive rows with the same columns are sent as a JDBC batch of
+     * the same single row INSERT statement that insertRowIntoTable uses (up to jdbcMaximumBatchSize rows at a time),
+     * so the number of round trips to the database depends on the number of rows only in large steps.
+     *
+     * @param jdbcConnection connection to use
+     * @param tableName name of the table where the row is to be added
+     * @param rows list of column names, values and types
+     * @throws PropertyServerException problem executing the command
+     */
+    public void insertRowsIntoTable(java.sql.Connection              jdbcConnection,
+                                    String                           tableName,
+                                    List<Map<String, JDBCDataValue>> rows) throws PropertyServerException
+    {
+        if ((rows == null) || (rows.isEmpty()))
+        {
+            return;
+        }
+
+        if (rows.size() == 1)
+        {
+            this.insertRowIntoTable(jdbcConnection, tableName, rows.get(0));
+            return;
+        }
+
+        List<Map<String, JDBCDataValue>> matchingRows = new ArrayList<>();
+
+        for (Map<String, JDBCDataValue> row : rows)
+        {
+            if ((! matchingRows.isEmpty()) &&
+                    (! matchingRows.get(0).keySet().equals(row.keySet())))
+            {
+                this.insertMatchingRowsIntoTable(jdbcConnection, tableName, matchingRows);
+                matchingRows = new ArrayList<>();
+            }
+
+            matchingRows.add(row);
+        }
+
+        this.insertMatchingRowsIntoTable(jdbcConnection, tableName, matchingRows);
+    }
+
+
+    /**
+     * Insert the new rows for each of the tables.  The tables are written in the order of the map, so rows that
+     * are the target of a foreign key should be placed first.
+     *
+     * @param jdbcConnection connection to use
+     * @param tableRows map of table name to the rows to insert into that table
+     * @throws PropertyServerException problem executing the command
+     */
+    public void insertRowsIntoTables(java.sql.Connection                           jdbcConnection,
+                                     Map<String, List<Map<String, JDBCDataValue>>> tableRows) throws PropertyServerException
+    {
+        if (tableRows != null)
+        {
+            for (Map.Entry<String, List<Map<String, JDBCDataValue>>> tableEntry : tableRows.entrySet())
+            {
+                this.insertRowsIntoTable(jdbcConnection, tableEntry.getKey(), tableEntry.getValue());
+            }
+        }
+    }
+
+
+    /**
+     * Write rows that all have the same columns to a table.  The rows are bound in turn to one single row INSERT
+     * statement and sent as JDBC batches of up to jdbcMaximumBatchSize rows.
+     *
+     * @param jdbcConnection connection to use
+     * @param tableName name of the table where the rows are to be added
+     * @param rows list of column names, values and types
+     * @throws PropertyServerException problem executing the command
+     */
+    private void insertMatchingRowsIntoTable(java.sql.Connection              jdbcConnection,
+                                             String                           tableName,
+                                             List<Map<String, JDBCDataValue>> rows) throws PropertyServerException
+    {
+        final String methodName = "insertRowsIntoTable";
+
+        Map<String, JDBCDataValue> firstRow   = rows.get(0);
+        String                     sqlCommand = "INSERT INTO " + tableName + this.getInsertColumnList(firstRow) + " ON CONFLICT DO NOTHING";
+
+        try (PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand))
+        {
+            log.debug(sqlCommand);
+
+            int batchSize    = 0;
+            int rowsInserted = 0;
+
+            for (Map<String, JDBCDataValue> row : rows)
+            {
+                List<JDBCDataValue> parameters = new ArrayList<>();
+
+                for (String columnName : firstRow.keySet())
+                {
+                    parameters.add(row.get(columnName));
+                }
+
+                this.bindParameters(preparedStatement, parameters);
+                preparedStatement.addBatch();
+                batchSize++;
+
+                if (batchSize == maximumBatchSize)
+                {
+                    rowsInserted += this.getRowsInserted(preparedStatement.executeBatch());
+                    batchSize = 0;
+                }
+            }
+
+            if (batchSize > 0)
+            {
+                rowsInserted += this.getRowsInserted(preparedStatement.executeBatch());
+            }
+
+            if ((rowsInserted > rows.size()) && (auditLog != null))
             {
                 auditLog.logMessage(methodName,
                                     JDBCAuditCode.UNEXPECTED_ROW_COUNT_FROM_DATABASE.getMessageDefinition(jdbcDatabaseName,
                                                                                                           Integer.toString(rowsInserted),
                                                                                                           sqlCommand));
             }
-
-            preparedStatement.close();
         }
         catch (SQLException sqlException)
         {
+            /*
+             * A BatchUpdateException reports the failing command through its chained exception.
+             */
+            SQLException cause = sqlException.getNextException() == null ? sqlException : sqlException.getNextException();
+
             this.rollbackAfterException(jdbcConnection, sqlException);
             throw new PropertyServerException(JDBCErrorCode.UNEXPECTED_SQL_EXCEPTION.getMessageDefinition(jdbcDatabaseName,
                                                                                                           sqlCommand,
                                                                                                           methodName,
-                                                                                                          sqlException.getMessage()),
+                                                                                                          cause.getMessage()),
                                               this.getClass().getName(),
                                               methodName,
                                               sqlException);
@@ -1132,24 +1496,28 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
 
 
     /**
-     * Prepare an INSERT SQL statement with all the columns for each of the new rows filled out.
+     * Add up the row counts returned from a batch.  Drivers that rewrite the batch may report
+     * Statement.SUCCESS_NO_INFO rather than a count, and these are not included.
      *
-     * @param jdbcConnection connection to use
-     * @param tableName name of the table where the row is to be added
-     * @param rows list of column names, values and types
-     * @throws PropertyServerException problem executing the command
+     * @param updateCounts counts returned by executeBatch
+     * @return number of rows reported as changed
      */
-    public void insertRowsIntoTable(java.sql.Connection              jdbcConnection,
-                                    String                           tableName,
-                                    List<Map<String, JDBCDataValue>> rows) throws PropertyServerException
+    private int getRowsInserted(int[] updateCounts)
     {
-        if (rows != null)
+        int rowsInserted = 0;
+
+        if (updateCounts != null)
         {
-            for (Map<String, JDBCDataValue> row : rows)
+            for (int updateCount : updateCounts)
             {
-                insertRowIntoTable(jdbcConnection, tableName, row);
+                if (updateCount > 0)
+                {
+                    rowsInserted += updateCount;
+                }
             }
         }
+
+        return rowsInserted;
     }
 
 
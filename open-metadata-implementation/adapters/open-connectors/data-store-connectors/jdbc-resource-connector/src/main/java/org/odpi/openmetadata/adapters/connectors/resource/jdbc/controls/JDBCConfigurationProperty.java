@@ -107,6 +107,12 @@ public enum JDBCConfigurationProperty
      */
     JDBC_CONNECTION_LEAK_THRESHOLD("jdbcConnectionLeakThreshold", "How long, in milliseconds, a connection may be held by a caller before the connector logs a stack trace of whoever took it out. Zero disables the check. This is a diagnostic aid for finding code that fails to close the connections it obtains; it does not itself reclaim the connection.", DataType.LONG.getDisplayName(), "0"),
 
+    /**
+     * The maximum number of rows or statements sent to the database in one JDBC batch.  Larger values need fewer round trips to the database but hold more
+     * memory in the driver.
+     */
+    JDBC_MAXIMUM_BATCH_SIZE("jdbcMaximumBatchSize", "The maximum number of rows or statements sent to the database in one JDBC batch. Larger values need fewer round trips to the database but hold more memory in the driver.", DataType.INT.getDisplayName(), "1000"),
+
 
     ;
 
@@ -0,0 +1,69 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres;
+
+import java.util.List;
+
+/**
+ * Defines a secondary index on one of the tables in a database schema.
+ */
+public interface PostgreSQLIndex
+{
+    /**
+     * Return the name of the index.
+     *
+     * @return name
+     */
+    String getIndexName();
+
+
+    /**
+     * Return the description of the index.
+     *
+     * @return text
+     */
+    String getIndexDescription();
+
+
+    /**
+     * Return details of the table that the index is defined on.
+     *
+     * @return table
+     */
+    PostgreSQLTable getIndexedTable();
+
+
+    /**
+     * Return the index access method, for example "gin" - null means the default method (btree).
+     *
+     * @return method name or null
+     */
+    String getIndexMethod();
+
+
+    /**
+     * Return the key of the index in order.  Each entry is either a column name or a
+     * parenthesised expression over the table's columns.
+     *
+     * @return list of column names/expressions
+     */
+    List<String> getIndexKeys();
+
+
+    /**
+     * Return the columns that are stored in the index alongside the key, but are not part of it.  A query that
+     * only needs the key and these columns can be answered from the index without reading the table.
+     *
+     * @return list of column names or null
+     */
+    List<String> getIncludedColumns();
+
+
+    /**
+     * Return the predicate that limits the rows included in the index - null means all rows are indexed.
+     *
+     * @return SQL boolean expression or null
+     */
+    String getIndexPredicate();
+}
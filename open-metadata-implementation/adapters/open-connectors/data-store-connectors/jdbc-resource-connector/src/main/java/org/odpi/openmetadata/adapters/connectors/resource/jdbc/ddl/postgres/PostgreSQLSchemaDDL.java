@@ -9,17 +9,36 @@ import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterExcept
 import java.util.*;
 
 /**
- * Builds up the definition of a schema, its tables, columns, primary keys, foreign keys and comments.
+ * Builds up the definition of a schema, its tables, columns, primary keys, foreign keys, secondary indexes and comments.
  */
 public class PostgreSQLSchemaDDL
 {
     private final String                schemaName;
     private final String                schemaDescription;
     private final List<PostgreSQLTable> tables;
+    private final List<PostgreSQLIndex> indexes;
 
     public PostgreSQLSchemaDDL(String                schemaName,
                                String                schemaDescription,
                                List<PostgreSQLTable> tables) throws InvalidParameterException
+    {
+        this(schemaName, schemaDescription, tables, null);
+    }
+
+
+    /**
+     * Define a schema along with the secondary indexes on its tables.
+     *
+     * @param schemaName name of the schema
+     * @param schemaDescription description of the schema
+     * @param tables tables in the schema
+     * @param indexes secondary indexes on the tables (maybe null)
+     * @throws InvalidParameterException the schema name is null
+     */
+    public PostgreSQLSchemaDDL(String                schemaName,
+                               String                schemaDescription,
+                               List<PostgreSQLTable> tables,
+                               List<PostgreSQLIndex> indexes) throws InvalidParameterException
     {
         if (schemaName == null)
         {
@@ -35,6 +54,7 @@ public class PostgreSQLSchemaDDL
         this.schemaName        = schemaName;
         this.schemaDescription = schemaDescription;
         this.tables            = tables;
+        this.indexes           = indexes;
     }
 
 
@@ -44,6 +64,41 @@ public class PostgreSQLSchemaDDL
      * @return list of statements
      */
     public List<String> getDDLStatements()
+    {
+        List<String> ddlStatements = this.getTableDDLStatements();
+
+        /*
+         * The indexes are added once all the tables exist.
+         */
+        if (indexes != null)
+        {
+            for (PostgreSQLIndex index : indexes)
+            {
+                if (index != null)
+                {
+                    ddlStatements.add(this.getCreateIndexDDL(index, false));
+
+                    String commentStatement = this.getIndexCommentDDL(index);
+
+                    if (commentStatement != null)
+                    {
+                        ddlStatements.add(commentStatement);
+                    }
+                }
+            }
+        }
+
+        return ddlStatements;
+    }
+
+
+    /**
+     * Returns the list of DDL statements to define the schema and its tables, but not the secondary indexes.
+     * This is used when the indexes are built separately (see getCreateIndexDDL()).
+     *
+     * @return list of statements
+     */
+    public List<String> getTableDDLStatements()
     {
         List<String> ddlStatements = new ArrayList<>();
 
@@ -102,6 +157,104 @@ public class PostgreSQLSchemaDDL
     }
 
 
+    /**
+     * Return the secondary indexes defined for the schema.
+     *
+     * @return list of indexes (maybe null)
+     */
+    public List<PostgreSQLIndex> getIndexes()
+    {
+        return indexes;
+    }
+
+
+    /**
+     * Return the DDL to create a secondary index if it does not already exist.  An index that is built
+     * concurrently does not block inserts and updates to its table while it is being built, so it can be added to
+     * a repository that is in use.  However, the statement must be issued outside a transaction
+     * (ie on a connection with auto-commit turned on) and, if it fails, it leaves an invalid index behind that
+     * must be dropped (see getDropIndexDDL()) before the index is created again.
+     *
+     * @param index definition of the index
+     * @param concurrently should the index be built without locking out changes to the table
+     * @return statement
+     */
+    public String getCreateIndexDDL(PostgreSQLIndex index,
+                                    boolean         concurrently)
+    {
+        StringBuilder stringBuilder = new StringBuilder("create index ");
+
+        if (concurrently)
+        {
+            stringBuilder.append("concurrently ");
+        }
+
+        stringBuilder.append("if not exists ");
+        stringBuilder.append(index.getIndexName());
+        stringBuilder.append(" on ");
+        stringBuilder.append(index.getIndexedTable().getTableName());
+
+        if (index.getIndexMethod() != null)
+        {
+            stringBuilder.append(" using ");
+            stringBuilder.append(index.getIndexMethod());
+        }
+
+        stringBuilder.append(" (");
+        stringBuilder.append(String.join(", ", index.getIndexKeys()));
+        stringBuilder.append(")");
+
+        if ((index.getIncludedColumns() != null) && (! index.getIncludedColumns().isEmpty()))
+        {
+            stringBuilder.append(" include (");
+            stringBuilder.append(String.join(", ", index.getIncludedColumns()));
+            stringBuilder.append(")");
+        }
+
+        if (index.getIndexPredicate() != null)
+        {
+            stringBuilder.append(" where ");
+            stringBuilder.append(index.getIndexPredicate());
+        }
+
+        stringBuilder.append(";");
+
+        return stringBuilder.toString();
+    }
+
+
+    /**
+     * Return the DDL to drop a secondary index without locking out changes to its table.  Like the concurrent
+     * create, it must be issued outside a transaction.
+     *
+     * @param index definition of the index
+     * @return statement
+     */
+    public String getDropIndexDDL(PostgreSQLIndex index)
+    {
+        return "drop index concurrently if exists " + index.getIndexName() + ";";
+    }
+
+
+    /**
+     * Return the DDL to add the description of a secondary index to the database catalog.
+     *
+     * @param index definition of the index
+     * @return statement or null if the index has no description
+     */
+    public String getIndexCommentDDL(PostgreSQLIndex index)
+    {
+        if (index.getIndexDescription() != null)
+        {
+            return getComment("index",
+                              index.getIndexName(),
+                              index.getIndexDescription());
+        }
+
+        return null;
+    }
+
+
     /**
      * Return the DDL for ALTER TABLE statements to add new columns.
      *
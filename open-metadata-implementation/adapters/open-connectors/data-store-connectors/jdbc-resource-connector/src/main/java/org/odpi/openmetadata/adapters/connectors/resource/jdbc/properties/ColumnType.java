@@ -20,7 +20,12 @@ public enum ColumnType
      * UNIX and Windows introduced a native BOOLEAN column type in 11.1, but SMALLINT (0/1) is used here for the
      * same reason - to keep the generated DDL working against older, still widely deployed Db2 LUW versions.
      */
-    BOOLEAN(Types.BOOLEAN, "boolean", "bit", "NUMBER(1)", "SMALLINT")
+    BOOLEAN(Types.BOOLEAN, "boolean", "bit", "NUMBER(1)", "SMALLINT"),
+    /*
+     * JSON documents are stored in PostgreSQL's binary jsonb type so that they can be indexed with GIN indexes.
+     * The other databases store the document as text.  The value is exchanged with JDBC as a string.
+     */
+    JSON(Types.OTHER, "jsonb", "nvarchar(max)", "CLOB", "CLOB")
     ;
 
 
@@ -5,7 +5,7 @@ package org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties;
 import java.util.Objects;
 
 /**
- * JDBCDataValue is used when inserting new rows into a table.
+ * JDBCDataValue is used when inserting new rows into a table, and when binding values to the placeholders of a query.
  */
 public class JDBCDataValue
 {
@@ -0,0 +1,118 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.PropertyServerException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the rows per second written by a loop of insertRowIntoTable calls with a single insertRowsIntoTable call.
+ * No database is needed: the connection waits for a fixed time on each execute to stand in for the round trip to the
+ * database server, which is the cost that batching removes.  Run it with the main method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class JDBCInsertBenchmark
+{
+    private static final int rowsPerInvocation = 1000;
+
+    /**
+     * Simulated round trip to the database in microseconds.
+     */
+    @Param({"100", "500"})
+    public long roundTripMicros;
+
+    private final JDBCResourceConnector      connector = new JDBCResourceConnector();
+    private Connection                       jdbcConnection;
+    private List<Map<String, JDBCDataValue>> rows;
+
+
+    /**
+     * Build the connection and the rows to insert.
+     */
+    @Setup
+    public void setUp()
+    {
+        jdbcConnection = new RecordingJDBCConnection(TimeUnit.MICROSECONDS.toNanos(roundTripMicros)).getConnection();
+        rows           = new ArrayList<>();
+
+        for (int rowNumber = 0; rowNumber < rowsPerInvocation; rowNumber++)
+        {
+            Map<String, JDBCDataValue> row = new LinkedHashMap<>();
+
+            row.put("instance_guid", new JDBCDataValue("guid-" + rowNumber, Types.VARCHAR));
+            row.put("version", new JDBCDataValue((long) rowNumber, Types.BIGINT));
+            row.put("type_name", new JDBCDataValue("Asset", Types.VARCHAR));
+
+            rows.add(row);
+        }
+    }
+
+
+    /**
+     * Insert the rows with one statement each.
+     *
+     * @throws PropertyServerException problem with the insert
+     */
+    @Benchmark
+    @OperationsPerInvocation(rowsPerInvocation)
+    public void insertRowsOneAtATime() throws PropertyServerException
+    {
+        for (Map<String, JDBCDataValue> row : rows)
+        {
+            connector.insertRowIntoTable(jdbcConnection, "instance_header", row);
+        }
+    }
+
+
+    /**
+     * Insert the rows as a JDBC batch.
+     *
+     * @throws PropertyServerException problem with the insert
+     */
+    @Benchmark
+    @OperationsPerInvocation(rowsPerInvocation)
+    public void insertRowsAsBatch() throws PropertyServerException
+    {
+        connector.insertRowsIntoTable(jdbcConnection, "instance_header", rows);
+    }
+
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args ignored
+     * @throws RunnerException problem running the benchmark
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(JDBCInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+}
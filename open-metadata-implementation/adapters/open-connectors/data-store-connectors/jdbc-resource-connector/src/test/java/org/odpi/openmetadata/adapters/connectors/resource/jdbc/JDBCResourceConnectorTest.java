@@ -3,11 +3,17 @@
 package org.odpi.openmetadata.adapters.connectors.resource.jdbc;
 
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.controls.JDBCConfigurationProperty;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.PropertyServerException;
 import org.testng.annotations.Test;
 
+import java.sql.Types;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -16,7 +22,7 @@ import static org.testng.Assert.assertTrue;
 
 /**
  * Verify how the additionalConnectionProperties configuration property is copied into the Properties object
- * passed to DriverManager.getConnection().
+ * passed to DriverManager.getConnection(), and how rows are batched when they are inserted.
  */
 public class JDBCResourceConnectorTest
 {
@@ -201,4 +207,115 @@ public class JDBCResourceConnectorTest
                      "MyDatabase");
         assertEquals(connector.getConnection().getConfigurationProperties().size(), 2);
     }
+
+
+    /**
+     * Build a row for the test table.
+     *
+     * @param columnNames names of the columns to include
+     * @param rowNumber value to store in each column
+     * @return row
+     */
+    private Map<String, JDBCDataValue> getRow(List<String> columnNames,
+                                              int          rowNumber)
+    {
+        Map<String, JDBCDataValue> row = new LinkedHashMap<>();
+
+        for (String columnName : columnNames)
+        {
+            row.put(columnName, new JDBCDataValue(columnName + rowNumber, Types.VARCHAR));
+        }
+
+        return row;
+    }
+
+
+    /**
+     * Build a list of rows with the same columns.
+     *
+     * @param columnNames names of the columns to include
+     * @param numberOfRows number of rows
+     * @return rows
+     */
+    private List<Map<String, JDBCDataValue>> getRows(List<String> columnNames,
+                                                     int          numberOfRows)
+    {
+        List<Map<String, JDBCDataValue>> rows = new ArrayList<>();
+
+        for (int rowNumber = 0; rowNumber < numberOfRows; rowNumber++)
+        {
+            rows.add(this.getRow(columnNames, rowNumber));
+        }
+
+        return rows;
+    }
+
+
+    /**
+     * Rows with the same columns are sent as one JDBC batch of the single row INSERT statement, so the statement text
+     * does not change with the number of rows.
+     */
+    @Test
+    public void testRowsAreBatchedWithTheSingleRowStatement() throws PropertyServerException
+    {
+        JDBCResourceConnector   connector  = new JDBCResourceConnector();
+        RecordingJDBCConnection singleRow  = new RecordingJDBCConnection();
+        RecordingJDBCConnection manyRows   = new RecordingJDBCConnection();
+
+        connector.insertRowIntoTable(singleRow.getConnection(), "test_table", this.getRow(List.of("a", "b"), 0));
+        connector.insertRowsIntoTable(manyRows.getConnection(), "test_table", this.getRows(List.of("a", "b"), 5));
+
+        String singleRowPrepare = singleRow.getEvents().get(0);
+
+        assertEquals(manyRows.getEvents(), List.of(singleRowPrepare, "executeBatch:5"));
+
+        manyRows.reset();
+        connector.insertRowsIntoTable(manyRows.getConnection(), "test_table", this.getRows(List.of("a", "b"), 7));
+
+        assertEquals(manyRows.getEvents(), List.of(singleRowPrepare, "executeBatch:7"));
+    }
+
+
+    /**
+     * A long list of rows is split into batches of jdbcMaximumBatchSize rows, all using the same prepared statement.
+     */
+    @Test
+    public void testLargeInsertIsSplitIntoBatches() throws PropertyServerException
+    {
+        JDBCResourceConnector   connector = new JDBCResourceConnector();
+        RecordingJDBCConnection database  = new RecordingJDBCConnection();
+
+        connector.insertRowsIntoTable(database.getConnection(), "test_table", this.getRows(List.of("a", "b", "c"), 2500));
+
+        assertEquals(database.getEvents().size(), 4);
+        assertEquals(database.getEvents().get(0), "prepare:INSERT INTO test_table (a, b, c) values (?,?,?) ON CONFLICT DO NOTHING");
+        assertEquals(database.getEvents().subList(1, 4), List.of("executeBatch:1000", "executeBatch:1000", "executeBatch:500"));
+        assertEquals(database.getRoundTrips(), 3);
+    }
+
+
+    /**
+     * A change in the columns of the rows starts a new statement, since the statement text depends on the columns.
+     */
+    @Test
+    public void testRowsWithDifferentColumnsUseSeparateStatements() throws PropertyServerException
+    {
+        JDBCResourceConnector            connector = new JDBCResourceConnector();
+        RecordingJDBCConnection          database  = new RecordingJDBCConnection();
+        List<Map<String, JDBCDataValue>> rows      = new ArrayList<>();
+
+        rows.add(this.getRow(List.of("a", "b"), 1));
+        rows.add(this.getRow(List.of("a", "b"), 2));
+        rows.add(this.getRow(List.of("a"), 3));
+        rows.add(this.getRow(List.of("a", "b"), 4));
+
+        connector.insertRowsIntoTable(database.getConnection(), "test_table", rows);
+
+        assertEquals(database.getEvents(), List.of("prepare:INSERT INTO test_table (a, b) values (?,?) ON CONFLICT DO NOTHING",
+                                                   "executeBatch:2",
+                                                   "prepare:INSERT INTO test_table (a) values (?) ON CONFLICT DO NOTHING",
+                                                   "executeBatch:1",
+                                                   "prepare:INSERT INTO test_table (a, b) values (?,?) ON CONFLICT DO NOTHING",
+                                                   "executeBatch:1"));
+    }
 }
@@ -0,0 +1,220 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * RecordingJDBCConnection supplies a JDBC connection that records the statements prepared on it and the round trips
+ * made to execute them, without a database.  Each round trip can optionally wait for a fixed time to stand in for the
+ * network latency to a database server.
+ */
+class RecordingJDBCConnection
+{
+    private final List<String> events = new ArrayList<>();
+    private final long         roundTripNanos;
+    private int                roundTrips = 0;
+
+
+    /**
+     * Constructor for a connection with no round trip delay.
+     */
+    RecordingJDBCConnection()
+    {
+        this(0L);
+    }
+
+
+    /**
+     * Constructor for a connection that waits on each round trip.
+     *
+     * @param roundTripNanos time to wait for each execute call
+     */
+    RecordingJDBCConnection(long roundTripNanos)
+    {
+        this.roundTripNanos = roundTripNanos;
+    }
+
+
+    /**
+     * Return a JDBC connection that records into this object.
+     *
+     * @return connection
+     */
+    Connection getConnection()
+    {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                   new Class<?>[]{Connection.class},
+                                                   new ConnectionHandler());
+    }
+
+
+    /**
+     * Return the statements prepared and executed, in order.  Each prepare is recorded as "prepare:" followed by
+     * the SQL text, each executeUpdate as "executeUpdate" and each executeBatch as "executeBatch:" followed by the
+     * number of statements in the batch.
+     *
+     * @return list of events
+     */
+    List<String> getEvents()
+    {
+        return events;
+    }
+
+
+    /**
+     * Return the number of times a statement was executed.
+     *
+     * @return count
+     */
+    int getRoundTrips()
+    {
+        return roundTrips;
+    }
+
+
+    /**
+     * Clear the recorded events.
+     */
+    void reset()
+    {
+        events.clear();
+        roundTrips = 0;
+    }
+
+
+    /**
+     * Simulate the round trip to the database.
+     */
+    private void roundTrip()
+    {
+        roundTrips++;
+
+        if (roundTripNanos > 0)
+        {
+            LockSupport.parkNanos(roundTripNanos);
+        }
+    }
+
+
+    /**
+     * Return the default value for a method's return type so that unrecorded calls do nothing.
+     *
+     * @param method method called
+     * @return default value
+     */
+    private static Object getDefaultValue(Method method)
+    {
+        Class<?> returnType = method.getReturnType();
+
+        if (returnType == boolean.class)
+        {
+            return false;
+        }
+        else if (returnType == int.class)
+        {
+            return 0;
+        }
+        else if (returnType == long.class)
+        {
+            return 0L;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Handles calls to the connection.
+     */
+    private class ConnectionHandler implements InvocationHandler
+    {
+        /**
+         * Record prepared statements; ignore everything else.
+         *
+         * @param proxy connection proxy
+         * @param method method called
+         * @param args arguments
+         * @return result
+         */
+        @Override
+        public Object invoke(Object   proxy,
+                             Method   method,
+                             Object[] args)
+        {
+            if ("prepareStatement".equals(method.getName()))
+            {
+                events.add("prepare:" + args[0]);
+
+                return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                                              new Class<?>[]{PreparedStatement.class},
+                                              new StatementHandler());
+            }
+
+            return getDefaultValue(method);
+        }
+    }
+
+
+    /**
+     * Handles calls to a prepared statement.
+     */
+    private class StatementHandler implements InvocationHandler
+    {
+        private int batchSize = 0;
+
+        /**
+         * Record the batches and executes; ignore the binding of values.
+         *
+         * @param proxy statement proxy
+         * @param method method called
+         * @param args arguments
+         * @return result
+         */
+        @Override
+        public Object invoke(Object   proxy,
+                             Method   method,
+                             Object[] args)
+        {
+            switch (method.getName())
+            {
+                case "addBatch" ->
+                {
+                    batchSize++;
+                    return null;
+                }
+                case "executeBatch" ->
+                {
+                    events.add("executeBatch:" + batchSize);
+                    roundTrip();
+
+                    int[] updateCounts = new int[batchSize];
+
+                    Arrays.fill(updateCounts, 1);
+                    batchSize = 0;
+
+                    return updateCounts;
+                }
+                case "executeUpdate" ->
+                {
+                    events.add("executeUpdate");
+                    roundTrip();
+
+                    return 1;
+                }
+                default ->
+                {
+                    return getDefaultValue(method);
+                }
+            }
+        }
+    }
+}
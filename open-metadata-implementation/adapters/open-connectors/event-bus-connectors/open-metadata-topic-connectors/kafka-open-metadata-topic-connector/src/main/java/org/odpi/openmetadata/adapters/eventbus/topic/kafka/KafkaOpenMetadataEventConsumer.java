@@ -2,6 +2,7 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.BlockingDeque;
@@ -14,6 +15,7 @@ import org.apache.kafka.clients.consumer.*;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.WakeupException;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,7 +36,7 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
     private final long pollTimeout;
     private final long maxQueueSize;
 
-    private              KafkaConsumer<String, String>   consumer;
+    private              Consumer<String, byte[]>        consumer;
     private final              String                    topicToSubscribe;
     private final              String                    localServerId;
 
@@ -89,9 +91,33 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                                    KafkaOpenMetadataTopicConnector             connector,
                                    AuditLog                                    auditLog)
     {
+        this(topicName, localServerId, config, kafkaConsumerProperties, new KafkaConsumer<>(kafkaConsumerProperties), connector, auditLog);
+    }
+
+
+    /**
+     * Constructor for the event consumer that supplies the Kafka consumer.  This allows the consumer
+     * to be tested with Kafka's MockConsumer rather than a running broker.
+     *
+     * @param topicName name of the topic to listen on.
+     * @param localServerId identifier to enable receiver to identify that an event came from this server.
+     * @param config additional properties
+     * @param kafkaConsumerProperties properties for the consumer.
+     * @param kafkaConsumer Kafka consumer
+     * @param connector connector holding the inbound listeners.
+     * @param auditLog  audit log for this component.
+     */
+    KafkaOpenMetadataEventConsumer(String                                      topicName,
+                                   String                                      localServerId,
+                                   KafkaOpenMetadataEventConsumerConfiguration config,
+                                   Properties                                  kafkaConsumerProperties,
+                                   Consumer<String, byte[]>                    kafkaConsumer,
+                                   KafkaOpenMetadataTopicConnector             connector,
+                                   AuditLog                                    auditLog)
+    {
 
         this.auditLog = auditLog;
-        this.consumer = new KafkaConsumer<>(kafkaConsumerProperties);
+        this.consumer = kafkaConsumer;
         this.topicToSubscribe = topicName;
         this.consumer.subscribe(Collections.singletonList(topicToSubscribe), new HandleRebalance(auditLog));
         this.connector = connector;
@@ -175,24 +201,27 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
             	updateNextMaxPollTimestamp();
 
                 final Duration pollDuration = Duration.ofMillis(pollTimeout);
-                final ConsumerRecords<String, String> records = consumer.poll(pollDuration);
+                final ConsumerRecords<String, byte[]> records = consumer.poll(pollDuration);
                 
                 log.debug("Found records: {}", records.count());
-                for (ConsumerRecord<String, String> consumerRecord : records)
+                for (ConsumerRecord<String, byte[]> consumerRecord : records)
                 {
-                    String json = consumerRecord.value();
-                    log.debug("Received message: {}" ,json);
+                    final byte[] recordValue = consumerRecord.value();
+                    final boolean isBinaryEvent = (recordValue != null) && (recordValue.length > 0) &&
+                                                  (recordValue[0] == OpenMetadataTopicConnector.BINARY_EVENT_MARKER);
+                    final String json = (isBinaryEvent || (recordValue == null)) ? null : new String(recordValue, StandardCharsets.UTF_8);
+                    log.debug("Received message: {}", isBinaryEvent ? "<binary event>" : json);
                     countReceivedMessages++;
                     log.debug("Metrics: receivedMessages: {}", countReceivedMessages);
-                    final KafkaIncomingEvent event = new KafkaIncomingEvent(json, consumerRecord.offset());
+                    final KafkaIncomingEvent event = isBinaryEvent ? new KafkaIncomingEvent(recordValue, consumerRecord.offset())
+                                                                   : new KafkaIncomingEvent(json, consumerRecord.offset());
                     final String recordKey=consumerRecord.key();
-                    final String recordValue=consumerRecord.value();
                     if (! localServerId.equals(recordKey))
                     {
                         try
                         {
                             addUnprocessedEvent(consumerRecord.partition(), consumerRecord.topic(), event);
-                            connector.distributeToListeners(event);
+                            connector.distributeToListeners(event, recordKey);
                             countMessagesToProcess++;
                             log.debug("Metrics: messagesToProcess: {}", countMessagesToProcess);
                         }
@@ -215,7 +244,7 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                     }
                     else
                     {
-                        log.debug("Ignoring message with key: {} and value: {}",recordKey, recordValue);
+                        log.debug("Ignoring message with key: {} and value: {}",recordKey, json);
                         countIgnoredMessages++;
                         log.debug("Metrics: ignoredMessages: {}", countIgnoredMessages);
                     }
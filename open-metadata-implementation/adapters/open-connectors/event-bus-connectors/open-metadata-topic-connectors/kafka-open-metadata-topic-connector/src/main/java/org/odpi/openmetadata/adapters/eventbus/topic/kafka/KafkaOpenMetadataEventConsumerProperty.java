@@ -54,7 +54,25 @@ public enum KafkaOpenMetadataEventConsumerProperty
      * used if auto commit is disabled in the Kafka consumer. 
      * 
      */
-    COMMIT_CHECK_INTERVAL_MS("commit_check_interval_ms", "5000");
+    COMMIT_CHECK_INTERVAL_MS("commit_check_interval_ms", "5000"),
+
+    /**
+     * The number of worker threads (lanes) that pass incoming events to the
+     * topic listeners.  Events for the same instance are always processed on the same
+     * lane, in the order they were received.  Zero means the events are passed to the
+     * listeners one at a time on the topic connector's listener thread.
+     *
+     * To ensure an offset is only committed once the events before it have
+     * been processed, auto commit should be disabled in the Kafka consumer.
+     */
+    CONSUMER_WORKER_LANES("consumer_worker_lanes", "0"),
+
+    /**
+     * Controls how events are assigned to lanes: instance_guid hashes on the
+     * unique identifier of the instance that the event is about (falling back to the
+     * message key), message_key hashes on the Kafka message key.
+     */
+    CONSUMER_LANE_KEY("consumer_lane_key", KafkaOpenMetadataEventLanes.LANE_KEY_INSTANCE_GUID);
 
 	private final String propertyName;
 	private final String defaultValue;
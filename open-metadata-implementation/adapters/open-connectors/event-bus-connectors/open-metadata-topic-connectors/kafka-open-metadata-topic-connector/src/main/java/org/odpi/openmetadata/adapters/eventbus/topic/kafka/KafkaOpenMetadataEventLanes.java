@@ -0,0 +1,223 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.IncomingEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+
+/**
+ * KafkaOpenMetadataEventLanes passes incoming events to the topic listeners on a fixed number of worker
+ * threads (lanes).  Each event is assigned to a lane by hashing its lane key, so the events for one
+ * instance are always processed in the order they were received, while events for unrelated instances
+ * are processed in parallel.
+ * <p>
+ * The lane key is the unique identifier of the instance that the event is about (the instanceGUID of an
+ * OMRS instance event, or the first guid in any other event) or, if the event does not mention an
+ * instance, the Kafka message key.  Binary events are not searched for an instance guid, so they are always
+ * assigned by the Kafka message key (the sending server).  Events are marked as processed by the topic connector when all
+ * the listeners have seen them, and the consumer only commits the offset of an event once all
+ * the events before it in the partition have been processed.
+ */
+class KafkaOpenMetadataEventLanes
+{
+    private static final Logger log = LoggerFactory.getLogger(KafkaOpenMetadataEventLanes.class);
+
+    static final String LANE_KEY_INSTANCE_GUID = "instance_guid";
+    static final String LANE_KEY_MESSAGE_KEY   = "message_key";
+
+    private static final String instanceGUIDField = "\"instanceGUID\":\"";
+    private static final String guidField         = "\"guid\":\"";
+
+    private final ExecutorService[]        lanes;
+    private final boolean                  useInstanceGUID;
+    private final Consumer<IncomingEvent>  distributor;
+    private final AtomicInteger            pendingEventCount = new AtomicInteger();
+
+
+    /**
+     * Constructor creates the worker threads.
+     *
+     * @param topicName name of the topic (used in the thread names)
+     * @param laneCount number of lanes
+     * @param laneKey instance_guid or message_key
+     * @param distributor passes an event to the topic listeners
+     */
+    KafkaOpenMetadataEventLanes(String                  topicName,
+                                int                     laneCount,
+                                String                  laneKey,
+                                Consumer<IncomingEvent> distributor)
+    {
+        this.lanes           = new ExecutorService[laneCount];
+        this.useInstanceGUID = ! LANE_KEY_MESSAGE_KEY.equalsIgnoreCase(laneKey);
+        this.distributor     = distributor;
+
+        for (int i = 0; i < laneCount; i++)
+        {
+            final String laneThreadName = "Kafka-Lane-" + i + "-" + topicName;
+
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, laneThreadName));
+        }
+
+        log.info("Started {} event lanes for topic {} with lane key {}", laneCount, topicName, laneKey);
+    }
+
+
+    /**
+     * Queue an event on its lane.
+     *
+     * @param event event received from Kafka
+     * @param messageKey key of the Kafka message
+     */
+    void submitEvent(IncomingEvent event,
+                     String        messageKey)
+    {
+        String laneKey = this.getLaneKey(event.getJson(), messageKey);
+        int    lane    = (laneKey == null) ? 0 : Math.floorMod(laneKey.hashCode(), lanes.length);
+
+        pendingEventCount.incrementAndGet();
+
+        try
+        {
+            lanes[lane].execute(() -> this.processEvent(event));
+        }
+        catch (RuntimeException error)
+        {
+            pendingEventCount.decrementAndGet();
+            throw error;
+        }
+    }
+
+
+    /**
+     * Pass an event to the listeners on a lane thread.
+     *
+     * @param event event received from Kafka
+     */
+    private void processEvent(IncomingEvent event)
+    {
+        try
+        {
+            distributor.accept(event);
+        }
+        catch (Exception error)
+        {
+            log.warn("Error distributing inbound event on lane: {}", error.getMessage());
+        }
+        finally
+        {
+            pendingEventCount.decrementAndGet();
+        }
+    }
+
+
+    /**
+     * Work out which key to hash the event on.
+     *
+     * @param json event content
+     * @param messageKey key of the Kafka message
+     * @return lane key
+     */
+    String getLaneKey(String json,
+                      String messageKey)
+    {
+        if (useInstanceGUID && (json != null))
+        {
+            String instanceGUID = this.getFieldValue(json, instanceGUIDField);
+
+            if (instanceGUID == null)
+            {
+                instanceGUID = this.getFieldValue(json, guidField);
+            }
+
+            if (instanceGUID != null)
+            {
+                return instanceGUID;
+            }
+        }
+
+        return messageKey;
+    }
+
+
+    /**
+     * Return the value of the first occurrence of a string field in the event.  This avoids parsing the
+     * whole event just to choose its lane.
+     *
+     * @param json event content
+     * @param fieldPrefix field name, colon and opening quote
+     * @return value or null if the field is not present
+     */
+    private String getFieldValue(String json,
+                                 String fieldPrefix)
+    {
+        int start = json.indexOf(fieldPrefix);
+
+        if (start >= 0)
+        {
+            start = start + fieldPrefix.length();
+
+            int end = json.indexOf('"', start);
+
+            if (end > start)
+            {
+                return json.substring(start, end);
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the number of events that are queued or being processed on the lanes.
+     *
+     * @return int
+     */
+    int getPendingEventCount()
+    {
+        return pendingEventCount.get();
+    }
+
+
+    /**
+     * Stop the lanes once the queued events have been processed (or the timeout has passed).
+     *
+     * @param timeoutMs maximum time to wait for each lane
+     */
+    void shutdown(long timeoutMs)
+    {
+        for (ExecutorService lane : lanes)
+        {
+            lane.shutdown();
+        }
+
+        for (ExecutorService lane : lanes)
+        {
+            try
+            {
+                if (! lane.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS))
+                {
+                    lane.shutdownNow();
+                }
+            }
+            catch (InterruptedException error)
+            {
+                lane.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (pendingEventCount.get() > 0)
+        {
+            log.warn("Event lanes shut down with {} events unprocessed", pendingEventCount.get());
+        }
+    }
+}
@@ -5,6 +5,7 @@ package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.errors.RetriableException;
 import org.apache.kafka.common.errors.WakeupException;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
@@ -12,12 +13,17 @@ import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedExceptio
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * KafkaOpenMetadataEventProducer manages the sending of events on Apache Kafka.  This is done through called to
@@ -26,22 +32,45 @@ import java.util.concurrent.TimeUnit;
  * Kafka is not always running.  When this occurs, the call to publish events hangs and this is disruptive to the
  * rest of the server.  So the role of this class is to manage the sending of events in a separate thread
  * and manage the logging of errors to alert the operations team that Kafka needs restarting.
+ * <p>
+ * Events wait in a bounded send queue.  When the queue is full, the overflow policy decides whether the caller
+ * waits, the oldest waiting event is discarded or the new event is rejected.  The sending thread wakes as soon
+ * as an event arrives, takes up to a batch of waiting events, passes them all to Kafka and then waits for
+ * Kafka to acknowledge them.
  */
 public class KafkaOpenMetadataEventProducer implements Runnable {
     private static final Logger log = LoggerFactory.getLogger(KafkaOpenMetadataEventProducer.class);
-    private final List<String> sendBuffer = Collections.synchronizedList(new ArrayList<>());
+
+    /*
+     * Maximum time that the sending thread waits for a new event before checking whether it should stop.
+     */
+    private static final long sendQueuePollTimeMs = 1000L;
+
+    private final BlockingQueue<QueuedEvent> sendQueue;
+    private final int sendQueueCapacity;
+    private final KafkaOpenMetadataEventProducerOverflowPolicy overflowPolicy;
+    private final long sendQueueBlockTimeout;
+    private final int sendBatchSize;
+    private final Function<Properties, Producer<String, byte[]>> producerFactory;
     private final AuditLog auditLog;
     private final String topicName;
     private final String localServerId;
     private final Properties producerProperties;
     private volatile boolean running = true;
-    private Producer<String, String> producer = null;
+    private volatile boolean sendQueueOverflowing = false;
+    private Producer<String, byte[]> producer = null;
     private long messageSendCount = 0;
     private long kafkaSendAttemptCount = 0;
     private long messagePublishRequestCount = 0;
-    private long inmemoryPutMessageCount = 0;
     private long kafkaSendFailCount = 0;
     private long messageFailedSendCount = 0;
+    private final AtomicLong inmemoryPutMessageCount = new AtomicLong();
+    private final AtomicLong sentEventCount = new AtomicLong();
+    private final AtomicLong droppedEventCount = new AtomicLong();
+    private final AtomicLong rejectedEventCount = new AtomicLong();
+    private final AtomicLong maximumSendQueueDepth = new AtomicLong();
+    private final AtomicLong totalSendLatency = new AtomicLong();
+    private final AtomicLong maximumSendLatency = new AtomicLong();
 
 
     /**
@@ -54,10 +83,52 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
      */
     KafkaOpenMetadataEventProducer(String topicName, String localServerId, Properties producerProperties,
                                    AuditLog auditLog) {
+        this(topicName, localServerId, producerProperties,
+             new KafkaOpenMetadataEventProducerConfiguration(new Properties(), auditLog), auditLog);
+    }
+
+
+    /**
+     * Constructor for the event producer.
+     *
+     * @param topicName          name of the topic to listen on.
+     * @param localServerId      identifier to enable receiver to identify that an event came from this server.
+     * @param producerProperties properties for the consumer.
+     * @param config             configuration of the send queue.
+     * @param auditLog           audit log for this component.
+     */
+    KafkaOpenMetadataEventProducer(String topicName, String localServerId, Properties producerProperties,
+                                   KafkaOpenMetadataEventProducerConfiguration config, AuditLog auditLog) {
+        this(topicName, localServerId, producerProperties, config, KafkaProducer::new, auditLog);
+    }
+
+
+    /**
+     * Constructor for the event producer that supplies the Kafka producer.  This allows the producer to be
+     * tested with Kafka's MockProducer rather than a running broker.
+     *
+     * @param topicName          name of the topic to listen on.
+     * @param localServerId      identifier to enable receiver to identify that an event came from this server.
+     * @param producerProperties properties for the consumer.
+     * @param config             configuration of the send queue.
+     * @param producerFactory    creates a Kafka producer from the producer properties.
+     * @param auditLog           audit log for this component.
+     */
+    KafkaOpenMetadataEventProducer(String topicName, String localServerId, Properties producerProperties,
+                                   KafkaOpenMetadataEventProducerConfiguration config,
+                                   Function<Properties, Producer<String, byte[]>> producerFactory,
+                                   AuditLog auditLog) {
         this.auditLog = auditLog;
         this.topicName = topicName;
         this.localServerId = localServerId;
         this.producerProperties = producerProperties;
+        this.producerFactory = producerFactory;
+
+        this.sendQueueCapacity = Math.max(1, config.getIntProperty(KafkaOpenMetadataEventProducerProperty.SEND_QUEUE_CAPACITY));
+        this.sendQueue = new ArrayBlockingQueue<>(sendQueueCapacity);
+        this.overflowPolicy = config.getOverflowPolicy();
+        this.sendQueueBlockTimeout = config.getLongProperty(KafkaOpenMetadataEventProducerProperty.SEND_QUEUE_BLOCK_TIMEOUT);
+        this.sendBatchSize = Math.max(1, config.getIntProperty(KafkaOpenMetadataEventProducerProperty.SEND_BATCH_SIZE));
 
         final String           actionDescription = "new producer";
 
@@ -71,25 +142,18 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
 
 
     /**
-     * Sends the supplied event to the topic.  It retries if Kafka is not responding.
+     * Create the Kafka producer if it is not already running.
      *
-     * @param event object containing the event properties.
+     * @return Kafka producer
      * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
      */
-    private void publishEvent(String event) throws ConnectorCheckedException {
-        final String methodName = "publishEvent";
-        final String messageFailedCountString = "Metrics: messageFailedSendCount {}";
-
-        boolean eventSent = false;
-        long eventRetryCount = 0;
-
-        messagePublishRequestCount++;
-        log.debug("Metrics: messagePublishRequestCount {}", messagePublishRequestCount);
+    private Producer<String, byte[]> getProducer() throws ConnectorCheckedException {
+        final String methodName = "getProducer";
 
         if (producer == null) {
             try {
                 log.debug("Creating new producer for topic {}", topicName);
-                producer = new KafkaProducer<>(producerProperties);
+                producer = producerFactory.apply(producerProperties);
             } catch (Exception error) {
                 if (auditLog != null) {
                     auditLog.logException(methodName,
@@ -102,23 +166,131 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
                                 error.getMessage()), this.getClass().getName(), methodName, error);
             }
         }
+
+        return producer;
+    }
+
+
+    /**
+     * Sends a batch of events to the topic.  All the events are passed to Kafka before waiting for any
+     * acknowledgements, so Kafka can group them into a few requests.  If an event fails with a retryable error,
+     * it and the rest of the batch are resent one at a time so the events still go out in order.
+     *
+     * @param events events taken from the send queue.
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     */
+    private void publishEvents(List<QueuedEvent> events) throws ConnectorCheckedException {
+        final String methodName = "publishEvents";
+
+        if (events.size() == 1) {
+            this.publishEvent(events.get(0));
+            return;
+        }
+
+        messagePublishRequestCount = messagePublishRequestCount + events.size();
+        log.debug("Metrics: messagePublishRequestCount {}", messagePublishRequestCount);
+
+        List<Future<RecordMetadata>> acknowledgements = new ArrayList<>(events.size());
+
+        try {
+            Producer<String, byte[]> batchProducer = this.getProducer();
+
+            for (QueuedEvent queuedEvent : events) {
+                kafkaSendAttemptCount++;
+                acknowledgements.add(batchProducer.send(new ProducerRecord<>(topicName, localServerId, queuedEvent.event())));
+            }
+            log.debug("Metrics: kafkaSendAttemptCount {}", kafkaSendAttemptCount);
+        } catch (ConnectorCheckedException error) {
+            throw error;
+        } catch (Exception error) {
+            this.closeProducerAfterFailure(error);
+
+            throw new ConnectorCheckedException(
+                    KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT.getMessageDefinition(
+                            error.getClass().getName(), topicName, error.getMessage()), this.getClass().getName(),
+                    methodName, error);
+        }
+
+        for (int i = 0; i < acknowledgements.size(); i++) {
+            QueuedEvent queuedEvent = events.get(i);
+
+            try {
+                acknowledgements.get(i).get();
+                this.recordEventSent(queuedEvent);
+            } catch (ExecutionException error) {
+                kafkaSendFailCount++;
+                log.debug("Metrics: kafkaSendFailCount {}", kafkaSendFailCount);
+
+                if (isExceptionRetryable(error)) {
+                    /*
+                     * The later events in the batch have already been passed to Kafka, so resending just this
+                     * event would put it behind them.  Instead, this event and all the ones after it are resent
+                     * one at a time, in order.  Consumers may see some of the later events twice, but the last
+                     * copy of each event arrives in the order the events were queued.
+                     */
+                    log.debug("Kafka had trouble sending event in batch of {} bytes : Exception  message is {}", queuedEvent.event().length, error.getMessage());
+
+                    for (QueuedEvent remainingEvent : events.subList(i, events.size())) {
+                        this.publishEvent(remainingEvent);
+                    }
+                    return;
+                } else {
+                    log.debug("Exception not retryable, closing producer");
+                    this.closeProducerAfterFailure(error);
+
+                    throw new ConnectorCheckedException(
+                            KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT.getMessageDefinition(
+                                    error.getClass().getName(), topicName, error.getMessage()),
+                            this.getClass().getName(), methodName, error);
+                }
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+                this.closeProducerAfterFailure(error);
+
+                throw new ConnectorCheckedException(
+                        KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT.getMessageDefinition(
+                                error.getClass().getName(), topicName, error.getMessage()), this.getClass().getName(),
+                        methodName, error);
+            }
+        }
+    }
+
+
+    /**
+     * Sends the supplied event to the topic.  It retries if Kafka is not responding.
+     *
+     * @param queuedEvent object containing the event properties.
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     */
+    private void publishEvent(QueuedEvent queuedEvent) throws ConnectorCheckedException {
+        final String methodName = "publishEvent";
+        final String messageFailedCountString = "Metrics: messageFailedSendCount {}";
+
+        byte[] event = queuedEvent.event();
+        boolean eventSent = false;
+        long eventRetryCount = 0;
+
+        messagePublishRequestCount++;
+        log.debug("Metrics: messagePublishRequestCount {}", messagePublishRequestCount);
+
+        this.getProducer();
+
         while (!eventSent) {
             try {
-                log.debug("Sending message try {} [0 based] : {}", eventRetryCount,event);
-                ProducerRecord<String, String> producerRecord = new ProducerRecord<>(topicName, localServerId, event);
+                log.debug("Sending message try {} [0 based] : {} bytes", eventRetryCount, event.length);
+                ProducerRecord<String, byte[]> producerRecord = new ProducerRecord<>(topicName, localServerId, event);
                 kafkaSendAttemptCount++;
                 log.debug("Metrics: kafkaSendAttemptCount {}", kafkaSendAttemptCount);
                 producer.send(producerRecord).get();
                 eventSent = true;
-                messageSendCount++;
-                log.debug("Metrics: messageSendCount {}", messageSendCount);
+                this.recordEventSent(queuedEvent);
             } catch (ExecutionException error) {
                 kafkaSendFailCount++;
                 log.debug("Metrics: kafkaSendFailCount {}", kafkaSendFailCount);
                 /*
                  * This may be a simple timeout or something else more
                  */
-                log.debug("Kafka had trouble sending event: {} : Exception  message is {}", event, error.getMessage());
+                log.debug("Kafka had trouble sending event of {} bytes : Exception  message is {}", event.length, error.getMessage());
 
                 if (!isExceptionRetryable(error)) {
                     /* kafka thinks this isn't a retryable problem */
@@ -160,18 +332,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
             } catch (WakeupException error) {
                 log.warn("Wake up for shut down");
             } catch (Exception error) {
-                if (producer!=null) {
-                    producer.close();
-                    producer = null;
-                }
-                log.warn("Closed producer due to Exception in sendEvent {}",error.getMessage());
-
-                if (error instanceof InterruptedException) {
-                    Thread.currentThread().interrupt();
-                }
-
-                messageFailedSendCount++;
-                log.warn(messageFailedCountString, messageFailedSendCount);
+                this.closeProducerAfterFailure(error);
 
                 throw new ConnectorCheckedException(
                         KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT.getMessageDefinition(
@@ -183,6 +344,44 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
     }
 
 
+    /**
+     * Close the Kafka producer after an unexpected error so that it is recreated for the next event.
+     *
+     * @param error exception from Kafka
+     */
+    private void closeProducerAfterFailure(Exception error) {
+        if (producer!=null) {
+            producer.close();
+            producer = null;
+        }
+        log.warn("Closed producer due to Exception in sendEvent {}",error.getMessage());
+
+        if (error instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+
+        messageFailedSendCount++;
+        log.warn("Metrics: messageFailedSendCount {}", messageFailedSendCount);
+    }
+
+
+    /**
+     * Update the counters once Kafka has acknowledged an event.
+     *
+     * @param queuedEvent event that has been sent
+     */
+    private void recordEventSent(QueuedEvent queuedEvent) {
+        messageSendCount++;
+        log.debug("Metrics: messageSendCount {}", messageSendCount);
+
+        long sendLatency = System.nanoTime() - queuedEvent.queuedTime();
+
+        sentEventCount.incrementAndGet();
+        totalSendLatency.addAndGet(sendLatency);
+        maximumSendLatency.accumulateAndGet(sendLatency, Math::max);
+    }
+
+
     /**
      * This is the method that provides the behaviour of the thread.
      */
@@ -199,34 +398,34 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
         if (auditLog != null) {
             auditLog.logMessage(actionDescription,
                                 KafkaOpenMetadataTopicConnectorAuditCode.KAFKA_PRODUCER_START.getMessageDefinition(
-                                        topicName, String.valueOf(sendBuffer.size())),
+                                        topicName, String.valueOf(sendQueue.size())),
                                 this.producerProperties.toString());
         }
 
         log.info("Main loop started for topic {}", topicName);
-        int sleepTime = 1000;
         while (isRunning()) {
             try {
-                String bufferedEvent = this.getEvent();
-
                 /*
-                 * If there are no events waiting then sleep
+                 * Wait for an event to arrive (or for the time to check whether the thread should stop).
                  */
-                if (bufferedEvent == null) {
-                    TimeUnit.MILLISECONDS.sleep(sleepTime);
-                } else {
+                QueuedEvent bufferedEvent = sendQueue.poll(sendQueuePollTimeMs, TimeUnit.MILLISECONDS);
+
+                if (bufferedEvent != null) {
                     log.debug("Processing buffered events");
                     /*
-                     * Send all waiting events
+                     * Send the waiting events a batch at a time
                      */
-                    while (bufferedEvent != null) {
-                        publishEvent(bufferedEvent);
-                        bufferedEvent = this.getEvent();
-                    }
+                    List<QueuedEvent> batch = new ArrayList<>();
+
+                    batch.add(bufferedEvent);
+                    sendQueue.drainTo(batch, sendBatchSize - 1);
+
+                    publishEvents(batch);
                 }
             } catch (InterruptedException error) {
-                log.debug("Woken up from sleep ");
+                log.debug("Woken up from waiting for events");
                 Thread.currentThread().interrupt();
+                break;
             } catch (Exception error) {
                 log.warn("Bad exception from sending events: {}",error.getMessage());
 
@@ -259,15 +458,84 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
 
 
     /**
-     * Supports putting events to the in memory OMRS Topic
+     * Adds an event to the send queue, applying the overflow policy if the queue is full.
      *
      * @param newEvent event to publish
+     * @throws ConnectorCheckedException the send queue is full and the event is rejected
      */
-    private void putEvent(String newEvent) {
-        inmemoryPutMessageCount++;
-        log.debug("Metrics: inmemoryPutMessageCount {}", inmemoryPutMessageCount);
-        log.debug("Metrics: sendBufferSize {}", sendBuffer.size());
-        sendBuffer.add(newEvent);
+    private void putEvent(byte[] newEvent) throws ConnectorCheckedException {
+        final String methodName = "putEvent";
+
+        QueuedEvent queuedEvent = new QueuedEvent(newEvent, System.nanoTime());
+
+        log.debug("Metrics: inmemoryPutMessageCount {}", inmemoryPutMessageCount.incrementAndGet());
+        log.debug("Metrics: sendBufferSize {}", sendQueue.size());
+
+        if (! sendQueue.offer(queuedEvent)) {
+            this.reportSendQueueFull();
+
+            boolean queued = false;
+
+            if (overflowPolicy == KafkaOpenMetadataEventProducerOverflowPolicy.BLOCK) {
+                try {
+                    if (sendQueueBlockTimeout < 0) {
+                        sendQueue.put(queuedEvent);
+                        queued = true;
+                    } else {
+                        queued = sendQueue.offer(queuedEvent, sendQueueBlockTimeout, TimeUnit.MILLISECONDS);
+                    }
+                } catch (InterruptedException error) {
+                    Thread.currentThread().interrupt();
+                }
+            } else if (overflowPolicy == KafkaOpenMetadataEventProducerOverflowPolicy.DROP_OLDEST) {
+                while (! queued) {
+                    if (sendQueue.poll() != null) {
+                        droppedEventCount.incrementAndGet();
+                    }
+
+                    queued = sendQueue.offer(queuedEvent);
+                }
+            }
+
+            if (! queued) {
+                rejectedEventCount.incrementAndGet();
+
+                throw new ConnectorCheckedException(
+                        KafkaOpenMetadataTopicConnectorErrorCode.SEND_QUEUE_FULL.getMessageDefinition(
+                                topicName, Integer.toString(sendQueueCapacity)),
+                        this.getClass().getName(), methodName);
+            }
+        } else if (sendQueueOverflowing && sendQueue.size() < sendQueueCapacity / 2) {
+            /*
+             * The burst is over - report the next one.
+             */
+            sendQueueOverflowing = false;
+        }
+
+        maximumSendQueueDepth.accumulateAndGet(sendQueue.size(), Math::max);
+    }
+
+
+    /**
+     * Log that the send queue is full.  This is logged once for each burst of events that fills the queue.
+     */
+    private void reportSendQueueFull() {
+        final String methodName = "reportSendQueueFull";
+
+        if (! sendQueueOverflowing) {
+            sendQueueOverflowing = true;
+
+            log.warn("Send queue for topic {} is full ({} events)", topicName, sendQueueCapacity);
+
+            if (auditLog != null) {
+                auditLog.logMessage(methodName,
+                                    KafkaOpenMetadataTopicConnectorAuditCode.SEND_QUEUE_FULL.getMessageDefinition(
+                                            topicName, Integer.toString(sendQueueCapacity),
+                                            overflowPolicy.getPolicyName(),
+                                            Long.toString(droppedEventCount.get()),
+                                            Long.toString(rejectedEventCount.get())));
+            }
+        }
     }
 
 
@@ -277,31 +545,116 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
      * @return int
      */
     private int getSendBufferSize() {
-        return sendBuffer.size();
+        return sendQueue.size();
     }
 
 
     /**
-     * Returns all the events found on the in memory OMRS Topic.
+     * Sends the supplied event to the topic.  The event is sent as its UTF-8 bytes, which is what Kafka's
+     * StringSerializer would send.
      *
-     * @return list of received events.
+     * @param event OMRSEvent object containing the event properties.
+     * @throws ConnectorCheckedException the send queue is full and the event is rejected
      */
-    private String getEvent() {
-        if (sendBuffer.isEmpty()) {
-            return null;
+    public void sendEvent(String event) throws ConnectorCheckedException {
+        this.putEvent(event.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Sends the supplied binary event to the topic.
+     *
+     * @param event bytes of the event.
+     * @throws ConnectorCheckedException the send queue is full and the event is rejected
+     */
+    public void sendEvent(byte[] event) throws ConnectorCheckedException {
+        this.putEvent(event);
+    }
+
+
+    /**
+     * Return the number of events waiting to be sent.
+     *
+     * @return int
+     */
+    public int getSendQueueDepth() {
+        return sendQueue.size();
+    }
+
+
+    /**
+     * Return the maximum number of events that can wait to be sent.
+     *
+     * @return int
+     */
+    public int getSendQueueCapacity() {
+        return sendQueueCapacity;
+    }
+
+
+    /**
+     * Return the largest number of events that have been waiting to be sent at the same time.
+     *
+     * @return long
+     */
+    public long getMaximumSendQueueDepth() {
+        return maximumSendQueueDepth.get();
+    }
+
+
+    /**
+     * Return the number of events that Kafka has acknowledged.
+     *
+     * @return long
+     */
+    public long getSentEventCount() {
+        return sentEventCount.get();
+    }
+
+
+    /**
+     * Return the number of events discarded by the drop_oldest overflow policy.
+     *
+     * @return long
+     */
+    public long getDroppedEventCount() {
+        return droppedEventCount.get();
+    }
+
+
+    /**
+     * Return the number of events rejected because the send queue was full.
+     *
+     * @return long
+     */
+    public long getRejectedEventCount() {
+        return rejectedEventCount.get();
+    }
+
+
+    /**
+     * Return the average time between an event being queued and Kafka acknowledging it.
+     *
+     * @return milliseconds
+     */
+    public long getAverageSendLatency() {
+        long sentEvents = sentEventCount.get();
+
+        if (sentEvents == 0) {
+            return 0L;
         }
 
-        return sendBuffer.remove(0);
+        return TimeUnit.NANOSECONDS.toMillis(totalSendLatency.get() / sentEvents);
     }
 
 
     /**
-     * Sends the supplied event to the topic.
+     * Return the longest time between an event being queued and Kafka acknowledging it.
      *
-     * @param event OMRSEvent object containing the event properties.
+     * @return milliseconds
      */
-    public void sendEvent(String event) {
-        this.putEvent(event);
+    public long getMaximumSendLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maximumSendLatency.get());
     }
 
 
@@ -362,4 +715,14 @@ public class KafkaOpenMetadataEventProducer implements Runnable {
         }
         return false;
     }
+
+
+    /**
+     * An event waiting in the send queue.
+     *
+     * @param event event to send
+     * @param queuedTime time (from System.nanoTime) that the event was queued
+     */
+    private record QueuedEvent(byte[] event, long queuedTime) {
+    }
 }
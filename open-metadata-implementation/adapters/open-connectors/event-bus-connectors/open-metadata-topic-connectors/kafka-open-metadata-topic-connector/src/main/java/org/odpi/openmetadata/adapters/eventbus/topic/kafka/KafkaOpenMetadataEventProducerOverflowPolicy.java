@@ -0,0 +1,67 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+/**
+ * KafkaOpenMetadataEventProducerOverflowPolicy defines what the KafkaOpenMetadataEventProducer does
+ * with a new event when its send queue is full.
+ */
+public enum KafkaOpenMetadataEventProducerOverflowPolicy
+{
+    /**
+     * The caller waits until there is space in the send queue.
+     */
+    BLOCK("block"),
+
+    /**
+     * The oldest waiting event is discarded to make space for the new event.
+     */
+    DROP_OLDEST("drop_oldest"),
+
+    /**
+     * The new event is rejected and the caller receives an exception.
+     */
+    FAIL_FAST("fail_fast");
+
+    private final String policyName;
+
+
+    KafkaOpenMetadataEventProducerOverflowPolicy(String policyName)
+    {
+        this.policyName = policyName;
+    }
+
+
+    /**
+     * Return the name of the policy used in the configuration properties.
+     *
+     * @return string
+     */
+    public String getPolicyName()
+    {
+        return policyName;
+    }
+
+
+    /**
+     * Return the policy with the supplied name.
+     *
+     * @param policyName name from the configuration properties
+     * @return policy (BLOCK if the name is not recognized)
+     */
+    public static KafkaOpenMetadataEventProducerOverflowPolicy getPolicy(String policyName)
+    {
+        if (policyName != null)
+        {
+            for (KafkaOpenMetadataEventProducerOverflowPolicy policy : KafkaOpenMetadataEventProducerOverflowPolicy.values())
+            {
+                if (policy.getPolicyName().equalsIgnoreCase(policyName.trim()))
+                {
+                    return policy;
+                }
+            }
+        }
+
+        return BLOCK;
+    }
+}
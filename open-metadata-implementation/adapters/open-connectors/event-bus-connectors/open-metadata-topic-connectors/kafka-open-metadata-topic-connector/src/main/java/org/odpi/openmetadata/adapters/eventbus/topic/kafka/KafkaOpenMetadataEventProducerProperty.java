@@ -0,0 +1,54 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+/**
+ * Configurable properties for the KafkaOpenMetadataEventProducer
+ *
+ */
+public enum KafkaOpenMetadataEventProducerProperty
+{
+	/*
+	 * Controls the maximum number of events waiting to be sent to Kafka.  When
+	 * this size is reached, the overflow policy decides what happens to the next event.
+	 */
+	SEND_QUEUE_CAPACITY("send_queue_capacity", "10000"),
+
+	/*
+	 * What happens when an event is sent and the send queue is full:
+	 *   block       - the caller waits until there is space in the queue (up to the block timeout)
+	 *   drop_oldest - the oldest waiting event is discarded to make space
+	 *   fail_fast   - the caller receives an exception
+	 */
+	SEND_QUEUE_OVERFLOW_POLICY("send_queue_overflow_policy", "block"),
+
+	/*
+	 * The maximum time (in ms) that a caller waits for space in the send queue when the
+	 * overflow policy is block.  After this time, the caller receives an exception.
+	 * A negative value means wait indefinitely.
+	 */
+	SEND_QUEUE_BLOCK_TIMEOUT("send_queue_block_timeout_ms", "60000"),
+
+	/*
+	 * The maximum number of events taken from the send queue and passed to
+	 * Kafka before waiting for Kafka to acknowledge them.
+	 */
+	SEND_BATCH_SIZE("send_batch_size", "500");
+
+	private final String propertyName;
+	private final String defaultValue;
+
+	KafkaOpenMetadataEventProducerProperty(String name, String defaultValue)
+	{
+		this.propertyName = name;
+		this.defaultValue = defaultValue;
+	}
+
+	public String getPropertyName() {
+		return propertyName;
+	}
+
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+}
@@ -32,10 +32,14 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 {
     static final String ENABLE_AUTO_COMMIT_PROPERTY = "enable.auto.commit";
 
+    private static final String byteArraySerializer   = "org.apache.kafka.common.serialization.ByteArraySerializer";
+    private static final String byteArrayDeserializer = "org.apache.kafka.common.serialization.ByteArrayDeserializer";
+
     private static final Logger       log      = LoggerFactory.getLogger(KafkaOpenMetadataTopicConnector.class);
 
     
     private final Properties producerProperties = new Properties();
+    private final Properties producerEgeriaProperties = new Properties();
     private final Properties consumerEgeriaProperties = new Properties();
     private final Properties consumerProperties = new Properties();
 
@@ -55,6 +59,9 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     /* this buffer is for consumed events */
     private final List<IncomingEvent> incomingEventsList = Collections.synchronizedList(new ArrayList<>());
 
+    /* optional worker threads that pass consumed events to the listeners in parallel */
+    private KafkaOpenMetadataEventLanes eventLanes = null;
+
     private KafkaConsumerExecutor consumerExecutor = null;
     private KafkaProducerExecutor producerExecutor = null;
 
@@ -120,11 +127,17 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         producerProperties.put("bootstrap.servers", "localhost:9092");
         producerProperties.put("acks", "all");
         producerProperties.put("retries", 1);
+        /*
+         * Batches of events are passed to Kafka without waiting for each acknowledgement, so these keep
+         * Kafka's own retries from reordering them.
+         */
+        producerProperties.put("enable.idempotence", "true");
+        producerProperties.put("max.in.flight.requests.per.connection", 5);
         producerProperties.put("batch.size", 16384);
         producerProperties.put("linger.ms", 0);
         producerProperties.put("buffer.memory", 33554432);
         producerProperties.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-        producerProperties.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+        producerProperties.put("value.serializer", byteArraySerializer);
         producerProperties.put("bring.up.retries", "10");
         producerProperties.put("bring.up.minSleepTime", "5000");
 
@@ -135,7 +148,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         consumerProperties.put("session.timeout.ms", "30000");
         consumerProperties.put("max.partition.fetch.bytes",	10485760);
         consumerProperties.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
-        consumerProperties.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+        consumerProperties.put("value.deserializer", byteArrayDeserializer);
         consumerProperties.put("bring.up.retries", "10");
         consumerProperties.put("bring.up.minSleepTime", "5000");
     }
@@ -226,8 +239,19 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
             propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.producerPropertyName);
             copyProperties(propertiesObject, producerProperties);
 
+            propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.egeriaProducerPropertyName);
+            copyProperties(propertiesObject, producerEgeriaProperties);
+
             propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.consumerPropertyName);
             copyProperties(propertiesObject, consumerProperties);
+
+            /*
+             * The connector exchanges byte arrays with Kafka so that binary events can be sent.  Older configurations
+             * name the string (de)serializers.  These are replaced since a string is sent as its UTF-8 bytes,
+             * which is the same on the wire.
+             */
+            producerProperties.put("value.serializer", byteArraySerializer);
+            consumerProperties.put("value.deserializer", byteArrayDeserializer);
             
             propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.egeriaConsumerPropertyName);
             copyProperties(propertiesObject, consumerEgeriaProperties);
@@ -362,6 +386,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 
         if (inboundEventsEnabled)
         {
+            initializeEventLanes();
             initializeConsumerAndConsumerThread();
             consumerExecutor = new KafkaConsumerExecutor();
             consumerExecutor.execute(consumerThread);
@@ -378,6 +403,31 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     }
 
 
+    /**
+     * Start the worker threads that pass consumed events to the listeners if lanes are configured.
+     * Otherwise, the events are passed to the listeners on the topic connector's listener thread.
+     */
+    private void initializeEventLanes()
+    {
+        KafkaOpenMetadataEventConsumerConfiguration consumerConfig = new KafkaOpenMetadataEventConsumerConfiguration(consumerEgeriaProperties, auditLog);
+
+        int laneCount = consumerConfig.getIntProperty(KafkaOpenMetadataEventConsumerProperty.CONSUMER_WORKER_LANES);
+
+        if (laneCount > 0)
+        {
+            if (Boolean.parseBoolean(consumerProperties.getProperty(ENABLE_AUTO_COMMIT_PROPERTY)))
+            {
+                log.warn("Event lanes are configured for topic {} with auto commit enabled; offsets may be committed before events are processed", topicName);
+            }
+
+            eventLanes = new KafkaOpenMetadataEventLanes(topicName,
+                                                         laneCount,
+                                                         consumerConfig.getProperty(KafkaOpenMetadataEventConsumerProperty.CONSUMER_LANE_KEY),
+                                                         this::distributeEvent);
+        }
+    }
+
+
     private void initializeConsumerAndConsumerThread()
     {
         log.info("Initializing the consumer thread");
@@ -390,7 +440,8 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     private void initializeProducerAndProducerThread()
     {
         log.info("Initializing the producer thread");
-        producer = new KafkaOpenMetadataEventProducer(topicName, serverId, producerProperties, auditLog);
+        KafkaOpenMetadataEventProducerConfiguration producerConfig = new KafkaOpenMetadataEventProducerConfiguration(producerEgeriaProperties, auditLog);
+        producer = new KafkaOpenMetadataEventProducer(topicName, serverId, producerProperties, producerConfig, auditLog);
         producerThread = new Thread(producer, threadHeader + "Producer-" + topicName);
     }
 
@@ -412,6 +463,35 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     }
 
 
+    /**
+     * Kafka carries the events as bytes so binary events are supported.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isBinaryEventSupported()
+    {
+        return true;
+    }
+
+
+    /**
+     * Sends the supplied binary event to the topic.
+     *
+     * @param event bytes of the event.
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     */
+    @Override
+    public void sendEvent(byte[] event) throws ConnectorCheckedException
+    {
+        if (producer != null)
+        {
+            log.debug("Sending binary event");
+            producer.sendEvent(event);
+        }
+    }
+
+
     /**
      * Look to see if there is one of more new events to process.
      *
@@ -438,14 +518,26 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     }
 
     /**
-     * Distribute events to other listeners.
+     * Distribute events to other listeners.  If event lanes are configured, the event is queued on its lane.
+     * Otherwise, it is picked up by the topic connector's listener thread.
      *
      * @param event object containing the event properties.
+     * @param messageKey key of the Kafka message
      */
-    void distributeToListeners(IncomingEvent event)
+    void distributeToListeners(IncomingEvent event, String messageKey)
     {
         log.debug("distribute event to listeners" + event);
-        incomingEventsList.add(event);
+
+        KafkaOpenMetadataEventLanes lanes = eventLanes;
+
+        if (lanes != null)
+        {
+            lanes.submitEvent(event, messageKey);
+        }
+        else
+        {
+            incomingEventsList.add(event);
+        }
     }
 
 
@@ -492,6 +584,10 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
                 }
             }
         }
+        if (eventLanes != null) {
+            eventLanes.shutdown(10000L);
+        }
+
         if (producerThread != null) {
             try {
                 producerThread.join();
@@ -523,7 +619,20 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
      * @return int
      */
     int getNumberOfUnprocessedEvents() {
-    	return incomingEventsList.size();
+        KafkaOpenMetadataEventLanes lanes = eventLanes;
+
+    	return incomingEventsList.size() + ((lanes == null) ? 0 : lanes.getPendingEventCount());
+    }
+
+    /**
+     * Gets the number of events waiting to be sent to Kafka.
+     *
+     * @return int
+     */
+    int getNumberOfUnsentEvents() {
+        KafkaOpenMetadataEventProducer currentProducer = producer;
+
+        return (currentProducer == null) ? 0 : currentProducer.getSendQueueDepth();
     }
 
     private class KafkaStatusChecker {
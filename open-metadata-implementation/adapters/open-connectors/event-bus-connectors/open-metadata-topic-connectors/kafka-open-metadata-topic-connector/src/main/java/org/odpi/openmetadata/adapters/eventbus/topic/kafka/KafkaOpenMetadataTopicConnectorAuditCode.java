@@ -140,6 +140,14 @@ public enum KafkaOpenMetadataTopicConnectorAuditCode implements AuditLogMessageS
                                     "Check the  Kafka error logs for related messages that could " +
                                             "indicate the cause of this error.  Work to clear the underlying error.  " +
                                             "Once fixed, it may be necessary to restart the server to cause a reconnect to Kafka."),
+
+    SEND_QUEUE_FULL("OCF-KAFKA-TOPIC-CONNECTOR-0020",
+                    AuditLogRecordSeverityLevel.ERROR,
+                    "The queue of events waiting to be sent to topic {0} is full ({1} events); the {2} overflow policy is being applied.  {3} events have been discarded and {4} events have been rejected so far",
+                    "Events are being produced faster than Apache Kafka is accepting them.  New events are delayed, discarded or rejected according to the overflow policy until there is space in the queue.",
+                    "Review the operational status of Apache Kafka to ensure it is running and keeping up with the load.  " +
+                            "If the load is a temporary burst, consider increasing the send_queue_capacity property in the " +
+                            "egeria_kafka_producer configuration properties of the connection."),
     ;
 
     private final String                      logMessageId;
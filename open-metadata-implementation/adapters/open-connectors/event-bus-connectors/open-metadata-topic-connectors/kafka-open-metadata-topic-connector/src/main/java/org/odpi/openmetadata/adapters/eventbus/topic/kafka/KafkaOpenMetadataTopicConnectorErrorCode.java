@@ -42,6 +42,11 @@ public enum KafkaOpenMetadataTopicConnectorErrorCode implements ExceptionMessage
             "Egeria cannot produce events",
             "Ensure that the Kafka service is available and that the connection properties are valid."),
 
+    SEND_QUEUE_FULL(400, "OCF-KAFKA-TOPIC-CONNECTOR-400-004 ",
+            "The event could not be sent to topic {0} because the queue of {1} events waiting to be sent is full",
+            "The system rejects the event rather than allowing the queue of unsent events to grow without limit.",
+            "Ensure that Apache Kafka is available and keeping up with the load.  Retry the request once the queue has drained."),
+
     ;
 
     private final int    httpErrorCode;
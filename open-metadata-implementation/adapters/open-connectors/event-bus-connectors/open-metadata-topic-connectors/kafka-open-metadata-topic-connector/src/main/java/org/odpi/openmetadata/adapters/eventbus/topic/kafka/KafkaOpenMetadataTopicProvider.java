@@ -27,6 +27,7 @@ public class KafkaOpenMetadataTopicProvider extends OpenMetadataTopicProvider
     public static final String producerPropertyName       = "producer";
     public static final String consumerPropertyName       = "consumer";
     public static final String egeriaConsumerPropertyName = "egeria_kafka_consumer";
+    public static final String egeriaProducerPropertyName = "egeria_kafka_producer";
     public static final String serverIdPropertyName       = "local.server.id";
     public static final String sleepTimeProperty          = "sleepTime";
 
@@ -40,6 +41,7 @@ public class KafkaOpenMetadataTopicProvider extends OpenMetadataTopicProvider
               connectorClassName,
               List.of(producerPropertyName,
                       consumerPropertyName,
+                      egeriaProducerPropertyName,
                       serverIdPropertyName,
                       sleepTimeProperty,
                       OpenMetadataTopicProvider.EVENT_DIRECTION_PROPERTY_NAME),
@@ -0,0 +1,453 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.IncomingEvent;
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the event lanes of KafkaOpenMetadataEventConsumer against Kafka's MockConsumer so no broker is needed.
+ * The events for each instance must reach the listeners in the order they were received, a slow instance must
+ * not hold up the others, and an offset must only be committed once every event before it has been processed.
+ */
+public class KafkaOpenMetadataEventConsumerTest
+{
+    private static final String         topicName      = "testTopic";
+    private static final String         localServerId  = "localServer";
+    private static final String         remoteServerId = "remoteServer";
+    private static final int            laneCount      = 4;
+    private static final long           waitTimeMs     = 20000L;
+    private static final TopicPartition topicPartition = new TopicPartition(topicName, 0);
+
+    private static final Pattern eventPattern = Pattern.compile("\"instanceGUID\":\"([^\"]+)\",\"sequence\":(\\d+)");
+
+    private MockConsumer<String, byte[]>   mockConsumer   = null;
+    private KafkaOpenMetadataEventConsumer eventConsumer  = null;
+    private LaneTopicConnector             topicConnector = null;
+    private Thread                         consumerThread = null;
+
+
+    /**
+     * Stop the consumer and the lanes.
+     *
+     * @throws InterruptedException interrupted while waiting for the consumer to stop
+     */
+    @AfterMethod
+    public void tearDown() throws InterruptedException
+    {
+        if (consumerThread != null)
+        {
+            eventConsumer.safeCloseConsumer();
+            consumerThread.join(waitTimeMs);
+            consumerThread = null;
+        }
+
+        if (topicConnector != null)
+        {
+            topicConnector.eventLanes.shutdown(waitTimeMs);
+            topicConnector = null;
+        }
+    }
+
+
+    /**
+     * The events for each instance reach the listener in the order they were consumed, while the events for
+     * different instances are spread over the lanes.  Once all the events are processed, the offset after the
+     * last one is committed.
+     *
+     * @throws Exception problem processing the events
+     */
+    @Test
+    public void testEventsForEachInstanceStayInOrder() throws Exception
+    {
+        RecordingListener listener   = new RecordingListener(null, null);
+        int               eventCount = 200;
+
+        startConsumer(listener);
+
+        for (int offset = 0; offset < eventCount; offset++)
+        {
+            addRecord(offset, "guid-" + (offset % 10), offset);
+        }
+
+        waitFor(() -> listener.getEventCount() == eventCount);
+
+        for (Map.Entry<String, List<Integer>> instanceEvents : listener.getEventsByInstance().entrySet())
+        {
+            List<Integer> sequences = instanceEvents.getValue();
+
+            assertEquals(sequences.size(), eventCount / 10, instanceEvents.getKey());
+
+            for (int i = 1; i < sequences.size(); i++)
+            {
+                assertTrue(sequences.get(i - 1) < sequences.get(i), instanceEvents.getKey() + ": " + sequences);
+            }
+        }
+
+        assertTrue(listener.getLaneThreadNames().size() > 1, listener.getLaneThreadNames().toString());
+
+        waitFor(() -> getCommittedOffset() == eventCount);
+    }
+
+
+    /**
+     * An instance whose event is slow to process does not hold up the events of instances on other lanes,
+     * but the offset is not committed past the slow event until it completes.
+     *
+     * @throws Exception problem processing the events
+     */
+    @Test
+    public void testSlowEventHoldsBackCommitOnly() throws Exception
+    {
+        String            slowGUID     = "guid-slow";
+        List<String>      otherGUIDs   = getGUIDsOnOtherLanes(slowGUID, 3);
+        CountDownLatch    slowFinished = new CountDownLatch(1);
+        RecordingListener listener     = new RecordingListener(slowGUID, slowFinished);
+
+        startConsumer(listener);
+
+        addRecord(0, slowGUID, 0);
+
+        for (int offset = 1; offset <= 9; offset++)
+        {
+            addRecord(offset, otherGUIDs.get(offset % otherGUIDs.size()), offset);
+        }
+
+        waitFor(() -> listener.getEventCount() == 9);
+
+        /*
+         * Give the consumer time to check for processed events while the first event is still running.
+         */
+        Thread.sleep(2500L);
+        assertEquals(getCommittedOffset(), -1L);
+
+        slowFinished.countDown();
+
+        waitFor(() -> listener.getEventCount() == 10);
+        waitFor(() -> getCommittedOffset() == 10L);
+    }
+
+
+    /**
+     * The lane key is the instance the event is about, then any other guid in the event, and then the
+     * message key.  With the message_key setting, the message key is always used.
+     */
+    @Test
+    public void testLaneKeys()
+    {
+        KafkaOpenMetadataEventLanes instanceLanes = new KafkaOpenMetadataEventLanes(topicName, 1, KafkaOpenMetadataEventLanes.LANE_KEY_INSTANCE_GUID, event -> { });
+        KafkaOpenMetadataEventLanes messageLanes  = new KafkaOpenMetadataEventLanes(topicName, 1, KafkaOpenMetadataEventLanes.LANE_KEY_MESSAGE_KEY, event -> { });
+
+        try
+        {
+            String instanceEvent = "{\"eventCategory\":\"INSTANCE\",\"guid\":\"other-guid\",\"instanceGUID\":\"instance-guid\"}";
+            String guidEvent     = "{\"eventCategory\":\"TYPE\",\"guid\":\"type-guid\"}";
+            String plainEvent    = "{\"eventCategory\":\"REGISTRY\"}";
+
+            assertEquals(instanceLanes.getLaneKey(instanceEvent, remoteServerId), "instance-guid");
+            assertEquals(instanceLanes.getLaneKey(guidEvent, remoteServerId), "type-guid");
+            assertEquals(instanceLanes.getLaneKey(plainEvent, remoteServerId), remoteServerId);
+            assertEquals(instanceLanes.getLaneKey(null, remoteServerId), remoteServerId);
+            assertEquals(messageLanes.getLaneKey(instanceEvent, remoteServerId), remoteServerId);
+        }
+        finally
+        {
+            instanceLanes.shutdown(waitTimeMs);
+            messageLanes.shutdown(waitTimeMs);
+        }
+    }
+
+
+    /**
+     * Create the consumer with a mock Kafka consumer and a topic connector that passes events to the
+     * listener through the lanes, then start the consumer thread.
+     *
+     * @param listener listener for the events
+     */
+    private void startConsumer(RecordingListener listener)
+    {
+        Properties egeriaProperties = new Properties();
+
+        egeriaProperties.setProperty(KafkaOpenMetadataEventConsumerProperty.POLL_TIMEOUT.getPropertyName(), "100");
+        egeriaProperties.setProperty(KafkaOpenMetadataEventConsumerProperty.COMMIT_CHECK_INTERVAL_MS.getPropertyName(), "0");
+        egeriaProperties.setProperty(KafkaOpenMetadataEventConsumerProperty.MAX_QUEUE_SIZE.getPropertyName(), "1000");
+
+        Properties kafkaProperties = new Properties();
+
+        kafkaProperties.setProperty("bootstrap.servers", "localhost:9092");
+        kafkaProperties.setProperty("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+        kafkaProperties.setProperty("value.deserializer", "org.apache.kafka.common.serialization.ByteArrayDeserializer");
+        kafkaProperties.setProperty(KafkaOpenMetadataTopicConnector.ENABLE_AUTO_COMMIT_PROPERTY, "false");
+
+        topicConnector = new LaneTopicConnector();
+        topicConnector.registerListener(listener);
+
+        mockConsumer  = new MockConsumer<>("earliest");
+        eventConsumer = new KafkaOpenMetadataEventConsumer(topicName,
+                                                           localServerId,
+                                                           new KafkaOpenMetadataEventConsumerConfiguration(egeriaProperties, null),
+                                                           kafkaProperties,
+                                                           mockConsumer,
+                                                           topicConnector,
+                                                           null);
+
+        mockConsumer.rebalance(Collections.singletonList(topicPartition));
+        mockConsumer.updateBeginningOffsets(Map.of(topicPartition, 0L));
+
+        consumerThread = new Thread(eventConsumer, "KafkaOpenMetadataEventConsumerTest");
+        consumerThread.setDaemon(true);
+        consumerThread.start();
+    }
+
+
+    /**
+     * Add an instance event to the mock consumer.  MockConsumer is thread safe, so records can be added while
+     * the consumer thread is polling.
+     *
+     * @param offset offset of the record
+     * @param instanceGUID instance that the event is about
+     * @param sequence position of the event in the test
+     */
+    private void addRecord(long   offset,
+                           String instanceGUID,
+                           int    sequence)
+    {
+        String event = "{\"eventCategory\":\"INSTANCE\",\"instanceGUID\":\"" + instanceGUID + "\",\"sequence\":" + sequence + "}";
+
+        mockConsumer.addRecord(new ConsumerRecord<>(topicName, 0, offset, remoteServerId, event.getBytes(StandardCharsets.UTF_8)));
+    }
+
+
+    /**
+     * Return the committed offset for the test partition.
+     *
+     * @return offset or -1 if nothing has been committed
+     */
+    private long getCommittedOffset()
+    {
+        OffsetAndMetadata committed = mockConsumer.committed(Set.of(topicPartition)).get(topicPartition);
+
+        return (committed == null) ? -1L : committed.offset();
+    }
+
+
+    /**
+     * Return guids that are assigned to different lanes from the supplied guid.
+     *
+     * @param guid guid to avoid
+     * @param count number of guids needed
+     * @return list of guids
+     */
+    private List<String> getGUIDsOnOtherLanes(String guid,
+                                              int    count)
+    {
+        List<String> guids = new ArrayList<>();
+        int          lane  = Math.floorMod(guid.hashCode(), laneCount);
+
+        for (int candidate = 0; guids.size() < count; candidate++)
+        {
+            String candidateGUID = "guid-" + candidate;
+
+            if (Math.floorMod(candidateGUID.hashCode(), laneCount) != lane)
+            {
+                guids.add(candidateGUID);
+            }
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Wait for a condition to become true.
+     *
+     * @param condition condition to test
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long endTime = System.currentTimeMillis() + waitTimeMs;
+
+        while (! condition.getAsBoolean())
+        {
+            if (System.currentTimeMillis() > endTime)
+            {
+                fail("Condition not met within " + waitTimeMs + "ms");
+            }
+
+            Thread.sleep(10L);
+        }
+    }
+
+
+    /**
+     * Topic connector that passes the consumed events to the listeners through event lanes, as the Kafka topic
+     * connector does when consumer_worker_lanes is set.  It is created without starting the connector because
+     * the test supplies the Kafka consumer.
+     */
+    private static class LaneTopicConnector extends KafkaOpenMetadataTopicConnector
+    {
+        final KafkaOpenMetadataEventLanes eventLanes = new KafkaOpenMetadataEventLanes(topicName,
+                                                                                       laneCount,
+                                                                                       KafkaOpenMetadataEventLanes.LANE_KEY_INSTANCE_GUID,
+                                                                                       this::distributeEvent);
+
+
+        /**
+         * Queue the event on its lane.
+         *
+         * @param event object containing the event properties.
+         * @param messageKey key of the Kafka message
+         */
+        @Override
+        void distributeToListeners(IncomingEvent event, String messageKey)
+        {
+            eventLanes.submitEvent(event, messageKey);
+        }
+
+
+        /**
+         * Return the number of events queued or running on the lanes.
+         *
+         * @return int
+         */
+        @Override
+        int getNumberOfUnprocessedEvents()
+        {
+            return eventLanes.getPendingEventCount();
+        }
+    }
+
+
+    /**
+     * Listener that records the sequence of the events it receives for each instance and the threads they
+     * arrive on.  Events for the slow instance wait until the latch is released.
+     */
+    private static class RecordingListener implements OpenMetadataTopicListener
+    {
+        private final String                     slowGUID;
+        private final CountDownLatch             slowFinished;
+        private final Map<String, List<Integer>> eventsByInstance = new ConcurrentHashMap<>();
+        private final Set<String>                laneThreadNames  = ConcurrentHashMap.newKeySet();
+
+
+        /**
+         * Constructor.
+         *
+         * @param slowGUID instance whose events wait for the latch (or null)
+         * @param slowFinished latch released when the slow instance's events may complete (or null)
+         */
+        RecordingListener(String         slowGUID,
+                          CountDownLatch slowFinished)
+        {
+            this.slowGUID     = slowGUID;
+            this.slowFinished = slowFinished;
+        }
+
+
+        /**
+         * Record an event.
+         *
+         * @param event inbound event
+         */
+        @Override
+        public void processEvent(String event)
+        {
+            Matcher matcher = eventPattern.matcher(event);
+
+            if (! matcher.find())
+            {
+                return;
+            }
+
+            String instanceGUID = matcher.group(1);
+
+            laneThreadNames.add(Thread.currentThread().getName());
+
+            try
+            {
+                if (instanceGUID.equals(slowGUID))
+                {
+                    slowFinished.await(waitTimeMs, TimeUnit.MILLISECONDS);
+                }
+                else
+                {
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+                }
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            List<Integer> sequences = eventsByInstance.computeIfAbsent(instanceGUID, guid -> Collections.synchronizedList(new ArrayList<>()));
+
+            sequences.add(Integer.parseInt(matcher.group(2)));
+        }
+
+
+        /**
+         * Return the number of events processed.
+         *
+         * @return count
+         */
+        int getEventCount()
+        {
+            int count = 0;
+
+            for (List<Integer> sequences : eventsByInstance.values())
+            {
+                count = count + sequences.size();
+            }
+
+            return count;
+        }
+
+
+        /**
+         * Return the sequences received for each instance.
+         *
+         * @return map of instance guid to sequences
+         */
+        Map<String, List<Integer>> getEventsByInstance()
+        {
+            return eventsByInstance;
+        }
+
+
+        /**
+         * Return the names of the threads that delivered events.
+         *
+         * @return thread names
+         */
+        Set<String> getLaneThreadNames()
+        {
+            return laneThreadNames;
+        }
+    }
+}
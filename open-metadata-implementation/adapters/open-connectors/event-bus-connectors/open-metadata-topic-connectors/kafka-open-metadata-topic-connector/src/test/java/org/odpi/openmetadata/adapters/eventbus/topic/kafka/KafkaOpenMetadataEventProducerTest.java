@@ -0,0 +1,451 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the send queue of KafkaOpenMetadataEventProducer against Kafka's MockProducer so no broker is needed.
+ */
+public class KafkaOpenMetadataEventProducerTest
+{
+    private static final String topicName     = "testTopic";
+    private static final String localServerId = "testServerId";
+    private static final long   waitTimeMs    = 10000L;
+
+    private Thread                         senderThread = null;
+    private KafkaOpenMetadataEventProducer eventProducer = null;
+
+
+    /**
+     * Stop the sending thread if the test started one.
+     *
+     * @throws InterruptedException interrupted while waiting for the thread to stop
+     */
+    @AfterMethod
+    public void tearDown() throws InterruptedException
+    {
+        if (senderThread != null)
+        {
+            eventProducer.safeCloseProducer();
+            senderThread.join(waitTimeMs);
+            senderThread = null;
+        }
+
+        eventProducer = null;
+    }
+
+
+    /**
+     * Events that are waiting when the sending thread starts are sent in order, with the server id as the key.
+     *
+     * @throws Exception problem sending the events
+     */
+    @Test
+    public void testQueuedEventsAreSentInOrder() throws Exception
+    {
+        MockProducer<String, byte[]> mockProducer = getMockProducer(true);
+
+        eventProducer = getEventProducer(mockProducer, 100, "block", 10);
+
+        List<String> events = new ArrayList<>();
+
+        for (int eventNumber = 0; eventNumber < 25; eventNumber++)
+        {
+            events.add("event " + eventNumber);
+            eventProducer.sendEvent(events.get(eventNumber));
+        }
+
+        assertEquals(eventProducer.getSendQueueDepth(), 25);
+
+        startSending();
+        waitFor(() -> eventProducer.getSentEventCount() == 25);
+
+        assertEquals(getSentEvents(mockProducer), events);
+        assertEquals(eventProducer.getSendQueueDepth(), 0);
+        assertEquals(eventProducer.getMaximumSendQueueDepth(), 25L);
+
+        for (ProducerRecord<String, byte[]> producerRecord : mockProducer.history())
+        {
+            assertEquals(producerRecord.topic(), topicName);
+            assertEquals(producerRecord.key(), localServerId);
+        }
+    }
+
+
+    /**
+     * The sending thread wakes as soon as an event arrives rather than on its next poll of the queue.
+     *
+     * @throws Exception problem sending the event
+     */
+    @Test
+    public void testSenderWakesOnArrival() throws Exception
+    {
+        MockProducer<String, byte[]> mockProducer = getMockProducer(true);
+
+        eventProducer = getEventProducer(mockProducer, 100, "block", 10);
+
+        startSending();
+
+        /*
+         * Let the sending thread start waiting on the empty queue.
+         */
+        Thread.sleep(200L);
+
+        long startTime = System.currentTimeMillis();
+
+        eventProducer.sendEvent("wake up");
+        waitFor(() -> eventProducer.getSentEventCount() == 1);
+
+        assertTrue(System.currentTimeMillis() - startTime < 500L);
+        assertEquals(getSentEvents(mockProducer), List.of("wake up"));
+    }
+
+
+    /**
+     * With the fail_fast policy, an event that arrives when the queue is full is rejected.
+     *
+     * @throws Exception problem queuing the events
+     */
+    @Test
+    public void testFailFastRejectsWhenFull() throws Exception
+    {
+        eventProducer = getEventProducer(getMockProducer(true), 2, "fail_fast", 10);
+
+        eventProducer.sendEvent("event 1");
+        eventProducer.sendEvent("event 2");
+
+        try
+        {
+            eventProducer.sendEvent("event 3");
+            fail("Event accepted by full queue");
+        }
+        catch (ConnectorCheckedException error)
+        {
+            assertEquals(error.getReportedErrorMessageId(),
+                         KafkaOpenMetadataTopicConnectorErrorCode.SEND_QUEUE_FULL.getMessageDefinition().getMessageId());
+        }
+
+        assertEquals(eventProducer.getSendQueueDepth(), 2);
+        assertEquals(eventProducer.getRejectedEventCount(), 1L);
+        assertEquals(eventProducer.getDroppedEventCount(), 0L);
+    }
+
+
+    /**
+     * With the drop_oldest policy, the oldest waiting event makes way for the new one.
+     *
+     * @throws Exception problem sending the events
+     */
+    @Test
+    public void testDropOldestDiscardsOldestEvent() throws Exception
+    {
+        MockProducer<String, byte[]> mockProducer = getMockProducer(true);
+
+        eventProducer = getEventProducer(mockProducer, 2, "drop_oldest", 10);
+
+        eventProducer.sendEvent("event 1");
+        eventProducer.sendEvent("event 2");
+        eventProducer.sendEvent("event 3");
+
+        assertEquals(eventProducer.getSendQueueDepth(), 2);
+        assertEquals(eventProducer.getDroppedEventCount(), 1L);
+        assertEquals(eventProducer.getRejectedEventCount(), 0L);
+
+        startSending();
+        waitFor(() -> eventProducer.getSentEventCount() == 2);
+
+        assertEquals(getSentEvents(mockProducer), Arrays.asList("event 2", "event 3"));
+    }
+
+
+    /**
+     * With the block policy, an event is rejected if the queue stays full for longer than the block timeout.
+     *
+     * @throws Exception problem queuing the events
+     */
+    @Test
+    public void testBlockTimesOutWhenQueueStaysFull() throws Exception
+    {
+        eventProducer = getEventProducer(getMockProducer(true), 1, "block", 10, 100L);
+
+        eventProducer.sendEvent("event 1");
+
+        long startTime = System.currentTimeMillis();
+
+        try
+        {
+            eventProducer.sendEvent("event 2");
+            fail("Event accepted by full queue");
+        }
+        catch (ConnectorCheckedException error)
+        {
+            assertEquals(error.getReportedErrorMessageId(),
+                         KafkaOpenMetadataTopicConnectorErrorCode.SEND_QUEUE_FULL.getMessageDefinition().getMessageId());
+        }
+
+        assertTrue(System.currentTimeMillis() - startTime >= 100L);
+        assertEquals(eventProducer.getRejectedEventCount(), 1L);
+    }
+
+
+    /**
+     * With the block policy, callers wait for space while the sending thread drains the queue, so a burst
+     * larger than the queue is sent without loss and the queue never grows past its capacity.
+     *
+     * @throws Exception problem sending the events
+     */
+    @Test
+    public void testBlockAppliesBackpressure() throws Exception
+    {
+        MockProducer<String, byte[]> mockProducer = getMockProducer(true);
+
+        eventProducer = getEventProducer(mockProducer, 5, "block", 2);
+
+        startSending();
+
+        List<String> events = new ArrayList<>();
+
+        for (int eventNumber = 0; eventNumber < 200; eventNumber++)
+        {
+            events.add("event " + eventNumber);
+            eventProducer.sendEvent(events.get(eventNumber));
+        }
+
+        waitFor(() -> eventProducer.getSentEventCount() == 200);
+
+        assertEquals(getSentEvents(mockProducer), events);
+        assertEquals(eventProducer.getRejectedEventCount(), 0L);
+        assertTrue(eventProducer.getMaximumSendQueueDepth() <= 5L);
+    }
+
+
+    /**
+     * An event that fails with a retryable error is sent again, and the send latency covers the time
+     * until Kafka acknowledges it.
+     *
+     * @throws Exception problem sending the event
+     */
+    @Test
+    public void testRetryableErrorResendsEvent() throws Exception
+    {
+        MockProducer<String, byte[]> mockProducer = getMockProducer(false);
+
+        eventProducer = getEventProducer(mockProducer, 10, "block", 10);
+
+        startSending();
+        eventProducer.sendEvent("retried event");
+
+        waitFor(() -> mockProducer.history().size() == 1);
+        assertTrue(mockProducer.errorNext(new TimeoutException("Kafka is slow")));
+
+        waitFor(() -> mockProducer.history().size() == 2);
+        Thread.sleep(100L);
+        assertTrue(mockProducer.completeNext());
+
+        waitFor(() -> eventProducer.getSentEventCount() == 1);
+
+        assertEquals(getSentEvents(mockProducer), Arrays.asList("retried event", "retried event"));
+        assertTrue(eventProducer.getMaximumSendLatency() >= 100L);
+        assertTrue(eventProducer.getAverageSendLatency() >= 100L);
+    }
+
+
+    /**
+     * When an event in a batch fails with a retryable error, it and the events queued after it are resent in
+     * order, so the resent event does not go out behind events that were queued later.
+     *
+     * @throws Exception problem sending the events
+     */
+    @Test
+    public void testRetryableErrorInBatchResendsRemainderInOrder() throws Exception
+    {
+        MockProducer<String, byte[]> mockProducer = getMockProducer(false);
+
+        eventProducer = getEventProducer(mockProducer, 10, "block", 10);
+
+        eventProducer.sendEvent("event 1");
+        eventProducer.sendEvent("event 2");
+        eventProducer.sendEvent("event 3");
+        eventProducer.sendEvent("event 4");
+        startSending();
+
+        waitFor(() -> mockProducer.history().size() == 4);
+        assertTrue(mockProducer.completeNext());
+        assertTrue(mockProducer.errorNext(new TimeoutException("Kafka is slow")));
+
+        /*
+         * The original sends of events 3 and 4 are still outstanding.  Keep acknowledging every outstanding send
+         * while the resends go out one at a time.
+         */
+        waitFor(() ->
+        {
+            while (mockProducer.completeNext())
+            {
+                /* acknowledge everything outstanding */
+            }
+
+            return eventProducer.getSentEventCount() == 4;
+        });
+
+        assertEquals(getSentEvents(mockProducer), Arrays.asList("event 1", "event 2", "event 3", "event 4",
+                                                                "event 2", "event 3", "event 4"));
+    }
+
+
+    /**
+     * Binary events are sent unchanged.
+     *
+     * @throws Exception problem sending the event
+     */
+    @Test
+    public void testBinaryEventIsSentUnchanged() throws Exception
+    {
+        MockProducer<String, byte[]> mockProducer = getMockProducer(true);
+        byte[]                       event        = new byte[]{0x3A, 0x29, 0x0A, 0x00, (byte) 0xFA};
+
+        eventProducer = getEventProducer(mockProducer, 10, "block", 10);
+
+        eventProducer.sendEvent(event);
+        startSending();
+        waitFor(() -> eventProducer.getSentEventCount() == 1);
+
+        assertEquals(mockProducer.history().get(0).value(), event);
+    }
+
+
+    /**
+     * Create a mock producer.
+     *
+     * @param autoComplete should each send be acknowledged immediately
+     * @return mock producer
+     */
+    private MockProducer<String, byte[]> getMockProducer(boolean autoComplete)
+    {
+        return new MockProducer<>(autoComplete, null, new StringSerializer(), new ByteArraySerializer());
+    }
+
+
+    /**
+     * Create an event producer that sends through the mock producer.
+     *
+     * @param mockProducer mock producer
+     * @param sendQueueCapacity capacity of the send queue
+     * @param overflowPolicy name of the overflow policy
+     * @param sendBatchSize largest number of events sent together
+     * @return event producer
+     */
+    private KafkaOpenMetadataEventProducer getEventProducer(MockProducer<String, byte[]> mockProducer,
+                                                            int                          sendQueueCapacity,
+                                                            String                       overflowPolicy,
+                                                            int                          sendBatchSize)
+    {
+        return getEventProducer(mockProducer, sendQueueCapacity, overflowPolicy, sendBatchSize, waitTimeMs);
+    }
+
+
+    /**
+     * Create an event producer that sends through the mock producer.
+     *
+     * @param mockProducer mock producer
+     * @param sendQueueCapacity capacity of the send queue
+     * @param overflowPolicy name of the overflow policy
+     * @param sendBatchSize largest number of events sent together
+     * @param sendQueueBlockTimeout longest time that a caller waits for space in the queue
+     * @return event producer
+     */
+    private KafkaOpenMetadataEventProducer getEventProducer(MockProducer<String, byte[]> mockProducer,
+                                                            int                          sendQueueCapacity,
+                                                            String                       overflowPolicy,
+                                                            int                          sendBatchSize,
+                                                            long                         sendQueueBlockTimeout)
+    {
+        Properties configurationProperties = new Properties();
+
+        configurationProperties.setProperty(KafkaOpenMetadataEventProducerProperty.SEND_QUEUE_CAPACITY.getPropertyName(),
+                                            Integer.toString(sendQueueCapacity));
+        configurationProperties.setProperty(KafkaOpenMetadataEventProducerProperty.SEND_QUEUE_OVERFLOW_POLICY.getPropertyName(),
+                                            overflowPolicy);
+        configurationProperties.setProperty(KafkaOpenMetadataEventProducerProperty.SEND_BATCH_SIZE.getPropertyName(),
+                                            Integer.toString(sendBatchSize));
+        configurationProperties.setProperty(KafkaOpenMetadataEventProducerProperty.SEND_QUEUE_BLOCK_TIMEOUT.getPropertyName(),
+                                            Long.toString(sendQueueBlockTimeout));
+
+        return new KafkaOpenMetadataEventProducer(topicName,
+                                                  localServerId,
+                                                  new Properties(),
+                                                  new KafkaOpenMetadataEventProducerConfiguration(configurationProperties, null),
+                                                  producerProperties -> mockProducer,
+                                                  null);
+    }
+
+
+    /**
+     * Start the sending thread.
+     */
+    private void startSending()
+    {
+        senderThread = new Thread(eventProducer, "KafkaOpenMetadataEventProducerTest");
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+
+    /**
+     * Wait for a condition to become true.
+     *
+     * @param condition condition to test
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException
+    {
+        long endTime = System.currentTimeMillis() + waitTimeMs;
+
+        while (! condition.getAsBoolean())
+        {
+            if (System.currentTimeMillis() > endTime)
+            {
+                fail("Condition not met within " + waitTimeMs + "ms");
+            }
+
+            Thread.sleep(5L);
+        }
+    }
+
+
+    /**
+     * Return the events passed to the mock producer, in order.
+     *
+     * @param mockProducer mock producer
+     * @return list of events
+     */
+    private List<String> getSentEvents(MockProducer<String, byte[]> mockProducer)
+    {
+        List<String> sentEvents = new ArrayList<>();
+
+        for (ProducerRecord<String, byte[]> producerRecord : mockProducer.history())
+        {
+            sentEvents.add(new String(producerRecord.value(), StandardCharsets.UTF_8));
+        }
+
+        return sentEvents;
+    }
+}
@@ -0,0 +1,97 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FileBasedAuditLogLegacyRecordReader reads the log records written by earlier versions of the file based audit log
+ * store, which stored each log record as a JSON file called log-record-{guid}.omalrecord.  The records can then either
+ * be copied into a segment or included ahead of the segments in queries.
+ */
+class FileBasedAuditLogLegacyRecordReader
+{
+    private static final Logger log = LoggerFactory.getLogger(FileBasedAuditLogLegacyRecordReader.class);
+
+    private static final ObjectReader OBJECT_READER = new ObjectMapper().readerFor(AuditLogRecord.class);
+
+    static final String legacyRecordFilePrefix = "log-record-";
+    static final String legacyRecordFileSuffix = ".omalrecord";
+
+    private final File auditLogStoreDirectory;
+
+
+    /**
+     * Constructor supplies the directory of the audit log store.
+     *
+     * @param auditLogStoreDirectory directory holding the log record files
+     */
+    FileBasedAuditLogLegacyRecordReader(File auditLogStoreDirectory)
+    {
+        this.auditLogStoreDirectory = auditLogStoreDirectory;
+    }
+
+
+    /**
+     * Return the log record files in the directory.
+     *
+     * @return list of files (empty if there are none)
+     */
+    List<File> getLegacyRecordFiles()
+    {
+        File[] legacyRecordFiles = auditLogStoreDirectory.listFiles((directory, fileName) -> fileName.startsWith(legacyRecordFilePrefix) &&
+                                                                                             fileName.endsWith(legacyRecordFileSuffix));
+
+        if (legacyRecordFiles == null)
+        {
+            return new ArrayList<>();
+        }
+
+        return List.of(legacyRecordFiles);
+    }
+
+
+    /**
+     * Read the log records from the files in the directory.  Files that can not be parsed are skipped, and left
+     * in place.
+     *
+     * @param legacyRecordFiles files to read
+     * @return map from each file that was read to its log record
+     */
+    Map<File, AuditLogRecord> readLegacyRecords(List<File> legacyRecordFiles)
+    {
+        Map<File, AuditLogRecord> logRecords = new LinkedHashMap<>();
+
+        for (File legacyRecordFile : legacyRecordFiles)
+        {
+            try
+            {
+                AuditLogRecord logRecord = OBJECT_READER.readValue(FileUtils.readFileToString(legacyRecordFile, StandardCharsets.UTF_8));
+
+                if (logRecord != null)
+                {
+                    logRecords.put(legacyRecordFile, logRecord);
+                }
+            }
+            catch (IOException ioException)
+            {
+                log.warn("Skipping unreadable audit log record file " + legacyRecordFile.getName(), ioException);
+            }
+        }
+
+        return logRecords;
+    }
+}
@@ -0,0 +1,587 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+/**
+ * FileBasedAuditLogSegmentIndex is the sparse index kept for each segment file of the file based audit log store.
+ * It records the range of timestamps in the segment, the number of log records for each severity and reporting
+ * component, and a checkpoint every few records that gives the byte offset of the record along with the latest
+ * timestamp of the records before it.  Log records are appended in the order they are received, so their timestamps
+ * are close to, but not strictly in, order.  The checkpoints let a query skip straight to the first part of the segment
+ * that could hold records for its start time.  The index is written alongside the segment when the segment is sealed
+ * and is rebuilt from the segment if it is missing.
+ */
+@JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown=true)
+public class FileBasedAuditLogSegmentIndex
+{
+    private long                   segmentNumber   = 0;
+    private long                   createTime      = 0;
+    private boolean                sealed          = false;
+    private boolean                compressed      = false;
+    private long                   recordCount     = 0;
+    private long                   byteCount       = 0;
+    private long                   minTimeStamp    = Long.MAX_VALUE;
+    private long                   maxTimeStamp    = Long.MIN_VALUE;
+    private Map<String, Long>      severityCounts  = new TreeMap<>();
+    private Map<String, Long>      componentCounts = new TreeMap<>();
+    private List<Checkpoint>       checkpoints     = new ArrayList<>();
+
+
+    /**
+     * Default constructor used when the index is read from its file.
+     */
+    public FileBasedAuditLogSegmentIndex()
+    {
+    }
+
+
+    /**
+     * Constructor used when a new segment is started.
+     *
+     * @param segmentNumber sequence number of the segment
+     * @param createTime time that the segment was started
+     */
+    FileBasedAuditLogSegmentIndex(long segmentNumber,
+                                  long createTime)
+    {
+        this.segmentNumber = segmentNumber;
+        this.createTime    = createTime;
+    }
+
+
+    /**
+     * Add the details of a log record appended to the segment.
+     *
+     * @param timeStamp time of the log record
+     * @param severity severity of the log record
+     * @param componentName name of the component that reported the log record
+     * @param byteOffset position of the log record in the (uncompressed) segment
+     * @param recordBytes length of the log record including its line separator
+     * @param checkpointInterval number of log records between checkpoints
+     */
+    void addRecord(long   timeStamp,
+                   String severity,
+                   String componentName,
+                   long   byteOffset,
+                   long   recordBytes,
+                   int    checkpointInterval)
+    {
+        if ((recordCount > 0) && (recordCount % checkpointInterval == 0))
+        {
+            checkpoints.add(new Checkpoint(recordCount, byteOffset, maxTimeStamp));
+        }
+
+        recordCount++;
+        byteCount = byteOffset + recordBytes;
+
+        if (timeStamp < minTimeStamp)
+        {
+            minTimeStamp = timeStamp;
+        }
+
+        if (timeStamp > maxTimeStamp)
+        {
+            maxTimeStamp = timeStamp;
+        }
+
+        if (severity != null)
+        {
+            severityCounts.merge(severity, 1L, Long::sum);
+        }
+
+        if (componentName != null)
+        {
+            componentCounts.merge(componentName, 1L, Long::sum);
+        }
+    }
+
+
+    /**
+     * Return whether any log record in the segment could fall in the requested time period.
+     *
+     * @param startTime start of the time period (inclusive) or null for no lower limit
+     * @param endTime end of the time period (inclusive) or null for no upper limit
+     * @return boolean
+     */
+    boolean overlaps(Long startTime,
+                     Long endTime)
+    {
+        if (recordCount == 0)
+        {
+            return false;
+        }
+
+        return ((startTime == null) || (maxTimeStamp >= startTime)) && ((endTime == null) || (minTimeStamp <= endTime));
+    }
+
+
+    /**
+     * Return whether every log record in the segment falls in the requested time period.
+     *
+     * @param startTime start of the time period (inclusive) or null for no lower limit
+     * @param endTime end of the time period (inclusive) or null for no upper limit
+     * @return boolean
+     */
+    boolean containedIn(Long startTime,
+                        Long endTime)
+    {
+        return ((startTime == null) || (minTimeStamp >= startTime)) && ((endTime == null) || (maxTimeStamp <= endTime));
+    }
+
+
+    /**
+     * Return the number of log records in the segment that match the severity and component.  The index holds
+     * separate counts for severities and components, so the number is not known if both are supplied.
+     *
+     * @param severity severity to match or null for any severity
+     * @param componentName component to match or null for any component
+     * @return number of matching records or -1 if this is not known
+     */
+    long matchingRecordCount(String severity,
+                             String componentName)
+    {
+        if ((severity != null) && (componentName != null))
+        {
+            if ((! severityCounts.containsKey(severity)) || (! componentCounts.containsKey(componentName)))
+            {
+                return 0;
+            }
+
+            return -1;
+        }
+        else if (severity != null)
+        {
+            return severityCounts.getOrDefault(severity, 0L);
+        }
+        else if (componentName != null)
+        {
+            return componentCounts.getOrDefault(componentName, 0L);
+        }
+
+        return recordCount;
+    }
+
+
+    /**
+     * Return the byte offset to start reading from to find the log records from the start time.  This is the last
+     * checkpoint where all the records before it are earlier than the start time.
+     *
+     * @param startTime start of the time period or null for no lower limit
+     * @return byte offset in the uncompressed segment
+     */
+    long seekOffset(Long startTime)
+    {
+        if ((startTime == null) || (checkpoints.isEmpty()) || (checkpoints.get(0).getMaxTimeStampBefore() >= startTime))
+        {
+            return 0;
+        }
+
+        /*
+         * The maximum timestamp before each checkpoint never decreases so the checkpoints can be binary searched.
+         */
+        int low  = 0;
+        int high = checkpoints.size() - 1;
+
+        while (low < high)
+        {
+            int middle = (low + high + 1) >>> 1;
+
+            if (checkpoints.get(middle).getMaxTimeStampBefore() < startTime)
+            {
+                low = middle;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        return checkpoints.get(low).getByteOffset();
+    }
+
+
+    /**
+     * Return the sequence number of the segment.
+     *
+     * @return long
+     */
+    public long getSegmentNumber()
+    {
+        return segmentNumber;
+    }
+
+
+    /**
+     * Set up the sequence number of the segment.
+     *
+     * @param segmentNumber long
+     */
+    public void setSegmentNumber(long segmentNumber)
+    {
+        this.segmentNumber = segmentNumber;
+    }
+
+
+    /**
+     * Return the time that the segment was started.
+     *
+     * @return milliseconds since the epoch
+     */
+    public long getCreateTime()
+    {
+        return createTime;
+    }
+
+
+    /**
+     * Set up the time that the segment was started.
+     *
+     * @param createTime milliseconds since the epoch
+     */
+    public void setCreateTime(long createTime)
+    {
+        this.createTime = createTime;
+    }
+
+
+    /**
+     * Return whether the segment is sealed and will receive no more log records.
+     *
+     * @return boolean
+     */
+    public boolean getSealed()
+    {
+        return sealed;
+    }
+
+
+    /**
+     * Set up whether the segment is sealed and will receive no more log records.
+     *
+     * @param sealed boolean
+     */
+    public void setSealed(boolean sealed)
+    {
+        this.sealed = sealed;
+    }
+
+
+    /**
+     * Return whether the segment file is gzip compressed.
+     *
+     * @return boolean
+     */
+    public boolean getCompressed()
+    {
+        return compressed;
+    }
+
+
+    /**
+     * Set up whether the segment file is gzip compressed.
+     *
+     * @param compressed boolean
+     */
+    public void setCompressed(boolean compressed)
+    {
+        this.compressed = compressed;
+    }
+
+
+    /**
+     * Return the number of log records in the segment.
+     *
+     * @return long
+     */
+    public long getRecordCount()
+    {
+        return recordCount;
+    }
+
+
+    /**
+     * Set up the number of log records in the segment.
+     *
+     * @param recordCount long
+     */
+    public void setRecordCount(long recordCount)
+    {
+        this.recordCount = recordCount;
+    }
+
+
+    /**
+     * Return the length of the uncompressed segment.
+     *
+     * @return number of bytes
+     */
+    public long getByteCount()
+    {
+        return byteCount;
+    }
+
+
+    /**
+     * Set up the length of the uncompressed segment.
+     *
+     * @param byteCount number of bytes
+     */
+    public void setByteCount(long byteCount)
+    {
+        this.byteCount = byteCount;
+    }
+
+
+    /**
+     * Return the earliest timestamp of the log records in the segment.
+     *
+     * @return milliseconds since the epoch
+     */
+    public long getMinTimeStamp()
+    {
+        return minTimeStamp;
+    }
+
+
+    /**
+     * Set up the earliest timestamp of the log records in the segment.
+     *
+     * @param minTimeStamp milliseconds since the epoch
+     */
+    public void setMinTimeStamp(long minTimeStamp)
+    {
+        this.minTimeStamp = minTimeStamp;
+    }
+
+
+    /**
+     * Return the latest timestamp of the log records in the segment.
+     *
+     * @return milliseconds since the epoch
+     */
+    public long getMaxTimeStamp()
+    {
+        return maxTimeStamp;
+    }
+
+
+    /**
+     * Set up the latest timestamp of the log records in the segment.
+     *
+     * @param maxTimeStamp milliseconds since the epoch
+     */
+    public void setMaxTimeStamp(long maxTimeStamp)
+    {
+        this.maxTimeStamp = maxTimeStamp;
+    }
+
+
+    /**
+     * Return the number of log records in the segment for each severity.
+     *
+     * @return map from severity name to count
+     */
+    public Map<String, Long> getSeverityCounts()
+    {
+        return severityCounts;
+    }
+
+
+    /**
+     * Set up the number of log records in the segment for each severity.
+     *
+     * @param severityCounts map from severity name to count
+     */
+    public void setSeverityCounts(Map<String, Long> severityCounts)
+    {
+        this.severityCounts = (severityCounts == null) ? new TreeMap<>() : new TreeMap<>(severityCounts);
+    }
+
+
+    /**
+     * Return the number of log records in the segment for each reporting component.
+     *
+     * @return map from component name to count
+     */
+    public Map<String, Long> getComponentCounts()
+    {
+        return componentCounts;
+    }
+
+
+    /**
+     * Set up the number of log records in the segment for each reporting component.
+     *
+     * @param componentCounts map from component name to count
+     */
+    public void setComponentCounts(Map<String, Long> componentCounts)
+    {
+        this.componentCounts = (componentCounts == null) ? new TreeMap<>() : new TreeMap<>(componentCounts);
+    }
+
+
+    /**
+     * Return the timestamp checkpoints for the segment.
+     *
+     * @return list of checkpoints in the order of the segment
+     */
+    public List<Checkpoint> getCheckpoints()
+    {
+        return checkpoints;
+    }
+
+
+    /**
+     * Set up the timestamp checkpoints for the segment.
+     *
+     * @param checkpoints list of checkpoints in the order of the segment
+     */
+    public void setCheckpoints(List<Checkpoint> checkpoints)
+    {
+        this.checkpoints = (checkpoints == null) ? new ArrayList<>() : new ArrayList<>(checkpoints);
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "FileBasedAuditLogSegmentIndex{" +
+                       "segmentNumber=" + segmentNumber +
+                       ", createTime=" + createTime +
+                       ", sealed=" + sealed +
+                       ", compressed=" + compressed +
+                       ", recordCount=" + recordCount +
+                       ", byteCount=" + byteCount +
+                       ", minTimeStamp=" + minTimeStamp +
+                       ", maxTimeStamp=" + maxTimeStamp +
+                       ", severityCounts=" + severityCounts +
+                       ", componentCounts=" + componentCounts +
+                       ", checkpoints=" + checkpoints.size() +
+                       '}';
+    }
+
+
+    /**
+     * A checkpoint gives the position of a log record in the segment along with the latest timestamp of the
+     * log records that were written before it.
+     */
+    @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown=true)
+    public static class Checkpoint
+    {
+        private long recordNumber       = 0;
+        private long byteOffset         = 0;
+        private long maxTimeStampBefore = Long.MIN_VALUE;
+
+
+        /**
+         * Default constructor used when the index is read from its file.
+         */
+        public Checkpoint()
+        {
+        }
+
+
+        /**
+         * Constructor supplies all the values.
+         *
+         * @param recordNumber position of the log record in the segment (counting from zero)
+         * @param byteOffset position of the log record in the uncompressed segment
+         * @param maxTimeStampBefore latest timestamp of the log records before this one
+         */
+        Checkpoint(long recordNumber,
+                   long byteOffset,
+                   long maxTimeStampBefore)
+        {
+            this.recordNumber       = recordNumber;
+            this.byteOffset         = byteOffset;
+            this.maxTimeStampBefore = maxTimeStampBefore;
+        }
+
+
+        /**
+         * Return the position of the log record in the segment (counting from zero).
+         *
+         * @return long
+         */
+        public long getRecordNumber()
+        {
+            return recordNumber;
+        }
+
+
+        /**
+         * Set up the position of the log record in the segment (counting from zero).
+         *
+         * @param recordNumber long
+         */
+        public void setRecordNumber(long recordNumber)
+        {
+            this.recordNumber = recordNumber;
+        }
+
+
+        /**
+         * Return the position of the log record in the uncompressed segment.
+         *
+         * @return byte offset
+         */
+        public long getByteOffset()
+        {
+            return byteOffset;
+        }
+
+
+        /**
+         * Set up the position of the log record in the uncompressed segment.
+         *
+         * @param byteOffset byte offset
+         */
+        public void setByteOffset(long byteOffset)
+        {
+            this.byteOffset = byteOffset;
+        }
+
+
+        /**
+         * Return the latest timestamp of the log records before this one.
+         *
+         * @return milliseconds since the epoch
+         */
+        public long getMaxTimeStampBefore()
+        {
+            return maxTimeStampBefore;
+        }
+
+
+        /**
+         * Set up the latest timestamp of the log records before this one.
+         *
+         * @param maxTimeStampBefore milliseconds since the epoch
+         */
+        public void setMaxTimeStampBefore(long maxTimeStampBefore)
+        {
+            this.maxTimeStampBefore = maxTimeStampBefore;
+        }
+    }
+}
@@ -0,0 +1,903 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * FileBasedAuditLogSegmentStore manages the segment files of the file based audit log store.  Log records are
+ * appended as lines of JSON to the active segment.  When the active segment reaches its maximum size or age it is
+ * sealed, optionally compressed with gzip, and a new segment is started on the next log record.  Each segment has a
+ * sparse index (see FileBasedAuditLogSegmentIndex) that lets queries skip the segments that can not hold matching
+ * log records, count past whole segments when paging, and start reading an uncompressed segment part of the way
+ * through.
+ * <br><br>
+ * The index of the active segment is held in memory and written when the segment is sealed.  If the server stops
+ * without sealing the active segment, its index is rebuilt from the segment when the store is next opened.
+ * Log records written by earlier versions of the connector (one file per log record) are either copied into
+ * a sealed segment when the store is opened, or left in place and read ahead of the segments in queries.
+ * <br><br>
+ * All methods are synchronized.  Queries on the audit log are occasional and the index keeps them short, so
+ * they simply hold up the log records being written while they run.
+ */
+class FileBasedAuditLogSegmentStore
+{
+    private static final Logger log = LoggerFactory.getLogger(FileBasedAuditLogSegmentStore.class);
+
+    static final String segmentFilePrefix    = "segment-";
+    static final String segmentFileSuffix    = ".omalsegment";
+    static final String compressedFileSuffix = ".gz";
+    static final String indexFileSuffix      = ".omalindex";
+
+    private static final String temporaryFileSuffix = ".tmp";
+
+    private static final ObjectMapper OBJECT_MAPPER  = new ObjectMapper();
+    private static final ObjectReader RECORD_READER  = OBJECT_MAPPER.readerFor(AuditLogRecord.class);
+    private static final ObjectWriter RECORD_WRITER  = OBJECT_MAPPER.writerFor(AuditLogRecord.class);
+    private static final ObjectReader INDEX_READER   = OBJECT_MAPPER.readerFor(FileBasedAuditLogSegmentIndex.class);
+    private static final ObjectWriter INDEX_WRITER   = OBJECT_MAPPER.writerFor(FileBasedAuditLogSegmentIndex.class);
+
+    private final File    auditLogStoreDirectory;
+    private final long    segmentMaxBytes;
+    private final long    segmentMaxAge;
+    private final boolean compressSealedSegments;
+    private final int     checkpointInterval;
+
+    private final List<FileBasedAuditLogSegmentIndex> sealedSegments = new ArrayList<>();
+
+    private FileBasedAuditLogSegmentIndex activeSegment       = null;
+    private OutputStream                  activeSegmentStream = null;
+    private List<AuditLogRecord>          legacyRecords       = new ArrayList<>();
+    private long                          nextSegmentNumber   = 1;
+
+
+    /**
+     * Constructor supplies the location and layout of the segments.
+     *
+     * @param auditLogStoreDirectory directory holding the segment files
+     * @param segmentMaxBytes size (in bytes) that a segment may grow to before it is sealed
+     * @param segmentMaxAge time (in milliseconds) that a segment may receive log records before it is sealed
+     * @param compressSealedSegments should sealed segments be compressed with gzip?
+     * @param checkpointInterval number of log records between each checkpoint in a segment's index
+     */
+    FileBasedAuditLogSegmentStore(File    auditLogStoreDirectory,
+                                  long    segmentMaxBytes,
+                                  long    segmentMaxAge,
+                                  boolean compressSealedSegments,
+                                  int     checkpointInterval)
+    {
+        this.auditLogStoreDirectory = auditLogStoreDirectory;
+        this.segmentMaxBytes        = segmentMaxBytes;
+        this.segmentMaxAge          = segmentMaxAge;
+        this.compressSealedSegments = compressSealedSegments;
+        this.checkpointInterval     = checkpointInterval;
+    }
+
+
+    /**
+     * Load the indexes of the existing segments, sealing any segment left active by an earlier run, and then
+     * deal with any log records stored one per file.
+     *
+     * @param migrateLegacyRecords should the log records stored one per file be copied into a segment?
+     * @throws IOException the directory is not usable
+     */
+    synchronized void open(boolean migrateLegacyRecords) throws IOException
+    {
+        FileUtils.forceMkdir(auditLogStoreDirectory);
+
+        this.removeIncompleteFiles();
+
+        for (Map.Entry<Long, Boolean> segmentFile : this.getSegmentFiles().entrySet())
+        {
+            FileBasedAuditLogSegmentIndex segmentIndex = this.loadIndex(segmentFile.getKey(), segmentFile.getValue());
+
+            if (! segmentIndex.getSealed())
+            {
+                this.sealSegment(segmentIndex);
+            }
+
+            sealedSegments.add(segmentIndex);
+            nextSegmentNumber = segmentFile.getKey() + 1;
+        }
+
+        FileBasedAuditLogLegacyRecordReader legacyRecordReader = new FileBasedAuditLogLegacyRecordReader(auditLogStoreDirectory);
+        List<File>                          legacyRecordFiles  = legacyRecordReader.getLegacyRecordFiles();
+
+        if (! legacyRecordFiles.isEmpty())
+        {
+            Map<File, AuditLogRecord> legacyRecordsByFile = legacyRecordReader.readLegacyRecords(legacyRecordFiles);
+            List<AuditLogRecord>      logRecords          = new ArrayList<>(legacyRecordsByFile.values());
+
+            logRecords.sort(Comparator.comparingLong(FileBasedAuditLogSegmentStore::getTimeStamp));
+
+            if (migrateLegacyRecords)
+            {
+                for (AuditLogRecord logRecord : logRecords)
+                {
+                    this.appendLogRecord(RECORD_WRITER.writeValueAsString(logRecord), logRecord);
+                }
+
+                if (activeSegment != null)
+                {
+                    this.sealActiveSegment();
+                }
+
+                for (File legacyRecordFile : legacyRecordsByFile.keySet())
+                {
+                    Files.deleteIfExists(legacyRecordFile.toPath());
+                }
+
+                log.info("Migrated " + logRecords.size() + " of " + legacyRecordFiles.size() + " audit log record files into segments");
+            }
+            else
+            {
+                legacyRecords = logRecords;
+            }
+        }
+    }
+
+
+    /**
+     * Append a log record to the active segment, starting a new segment if the active segment is full or too old.
+     *
+     * @param jsonLogRecord log record formatted as a single line of JSON
+     * @param logRecord log record used to update the index
+     * @throws IOException the segment could not be written
+     */
+    synchronized void appendLogRecord(String         jsonLogRecord,
+                                      AuditLogRecord logRecord) throws IOException
+    {
+        byte[] recordBytes = (jsonLogRecord + "\n").getBytes(StandardCharsets.UTF_8);
+        long   now         = System.currentTimeMillis();
+
+        if ((activeSegment != null) && (activeSegment.getRecordCount() > 0))
+        {
+            if ((activeSegment.getByteCount() + recordBytes.length > segmentMaxBytes) ||
+                (now - activeSegment.getCreateTime() >= segmentMaxAge))
+            {
+                this.sealActiveSegment();
+            }
+        }
+
+        if (activeSegment == null)
+        {
+            this.startSegment(now);
+        }
+
+        long byteOffset = activeSegment.getByteCount();
+
+        try
+        {
+            activeSegmentStream.write(recordBytes);
+            activeSegmentStream.flush();
+        }
+        catch (IOException ioException)
+        {
+            this.recoverActiveSegment();
+            throw ioException;
+        }
+
+        activeSegment.addRecord(getTimeStamp(logRecord),
+                                logRecord.getSeverity(),
+                                getComponentName(logRecord),
+                                byteOffset,
+                                recordBytes.length,
+                                checkpointInterval);
+    }
+
+
+    /**
+     * Return the log records that match the filter, in the order they were written.
+     *
+     * @param filter criteria for the log records
+     * @param offset number of matching log records to skip
+     * @param maximumRecords maximum number of log records to return (zero means no limit)
+     * @return list of log records
+     * @throws IOException a segment could not be read
+     */
+    synchronized List<AuditLogRecord> getLogRecords(RecordFilter filter,
+                                                    int          offset,
+                                                    int          maximumRecords) throws IOException
+    {
+        Page page = new Page(offset, maximumRecords);
+
+        for (AuditLogRecord legacyRecord : legacyRecords)
+        {
+            if (page.isFull())
+            {
+                return page.getLogRecords();
+            }
+
+            if (filter.matches(legacyRecord))
+            {
+                page.offer(legacyRecord);
+            }
+        }
+
+        List<FileBasedAuditLogSegmentIndex> segments = new ArrayList<>(sealedSegments);
+
+        if (activeSegment != null)
+        {
+            segments.add(activeSegment);
+        }
+
+        for (FileBasedAuditLogSegmentIndex segment : segments)
+        {
+            if (page.isFull())
+            {
+                break;
+            }
+
+            if (! segment.overlaps(filter.startTime, filter.endTime))
+            {
+                continue;
+            }
+
+            long matchingRecordCount = segment.matchingRecordCount(filter.severity, filter.componentName);
+
+            if (matchingRecordCount == 0)
+            {
+                continue;
+            }
+
+            /*
+             * If every record in the segment is known to match, then a segment that falls entirely within the
+             * records to skip does not need to be read at all.
+             */
+            if ((filter.guid == null) &&
+                (matchingRecordCount > 0) &&
+                (segment.containedIn(filter.startTime, filter.endTime)) &&
+                (page.getRecordsToSkip() >= matchingRecordCount))
+            {
+                page.skip(matchingRecordCount);
+                continue;
+            }
+
+            long startOffset = segment.getCompressed() ? 0 : segment.seekOffset(filter.startTime);
+
+            this.readSegment(segment, startOffset, (byteOffset, recordBytes, line) ->
+            {
+                AuditLogRecord logRecord = parseLogRecord(segment, line);
+
+                if ((logRecord != null) && (filter.matches(logRecord)))
+                {
+                    page.offer(logRecord);
+                }
+
+                return ! page.isFull();
+            });
+        }
+
+        return page.getLogRecords();
+    }
+
+
+    /**
+     * Seal the active segment so that its index is saved.
+     *
+     * @throws IOException the segment or its index could not be written
+     */
+    synchronized void close() throws IOException
+    {
+        if (activeSegment != null)
+        {
+            this.sealActiveSegment();
+        }
+    }
+
+
+    /**
+     * Start a new active segment.
+     *
+     * @param now current time
+     * @throws IOException the segment file could not be created
+     */
+    private void startSegment(long now) throws IOException
+    {
+        FileBasedAuditLogSegmentIndex segmentIndex = new FileBasedAuditLogSegmentIndex(nextSegmentNumber, now);
+
+        activeSegmentStream = new BufferedOutputStream(new FileOutputStream(this.getSegmentFile(nextSegmentNumber, false)));
+        activeSegment       = segmentIndex;
+
+        nextSegmentNumber++;
+    }
+
+
+    /**
+     * Close and seal the active segment.  The next log record starts a new segment.
+     *
+     * @throws IOException the segment or its index could not be written
+     */
+    private void sealActiveSegment() throws IOException
+    {
+        FileBasedAuditLogSegmentIndex segmentIndex = activeSegment;
+
+        activeSegment = null;
+
+        try
+        {
+            activeSegmentStream.close();
+        }
+        finally
+        {
+            activeSegmentStream = null;
+            sealedSegments.add(segmentIndex);
+        }
+
+        this.sealSegment(segmentIndex);
+    }
+
+
+    /**
+     * The active segment could not be written.  Rebuild its index from what reached the file so that the
+     * byte offsets are correct, and seal it.  The next log record starts a new segment.
+     */
+    private void recoverActiveSegment()
+    {
+        FileBasedAuditLogSegmentIndex failedSegment = activeSegment;
+
+        activeSegment = null;
+
+        try
+        {
+            activeSegmentStream.close();
+        }
+        catch (IOException closeException)
+        {
+            log.debug("Ignored exception closing failed segment {}", failedSegment.getSegmentNumber(), closeException);
+        }
+
+        activeSegmentStream = null;
+
+        try
+        {
+            FileBasedAuditLogSegmentIndex segmentIndex = this.rebuildIndex(failedSegment.getSegmentNumber(), false);
+
+            segmentIndex.setCreateTime(failedSegment.getCreateTime());
+            sealedSegments.add(segmentIndex);
+            this.sealSegment(segmentIndex);
+        }
+        catch (IOException ioException)
+        {
+            log.error("Unable to recover audit log segment " + failedSegment.getSegmentNumber(), ioException);
+        }
+    }
+
+
+    /**
+     * Mark a segment as sealed, compressing it if requested, and write its index.  The compressed file is
+     * written under a temporary name and then renamed so that it is only visible once it is complete.
+     *
+     * @param segmentIndex index of the segment
+     * @throws IOException the segment or its index could not be written
+     */
+    private void sealSegment(FileBasedAuditLogSegmentIndex segmentIndex) throws IOException
+    {
+        File uncompressedFile = this.getSegmentFile(segmentIndex.getSegmentNumber(), false);
+
+        if ((compressSealedSegments) && (! segmentIndex.getCompressed()))
+        {
+            File compressedFile = this.getSegmentFile(segmentIndex.getSegmentNumber(), true);
+            File temporaryFile  = new File(auditLogStoreDirectory, compressedFile.getName() + temporaryFileSuffix);
+
+            try (InputStream  inputStream  = new FileInputStream(uncompressedFile);
+                 OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(temporaryFile)))
+            {
+                inputStream.transferTo(outputStream);
+            }
+
+            Files.move(temporaryFile.toPath(), compressedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            segmentIndex.setCompressed(true);
+        }
+
+        segmentIndex.setSealed(true);
+        this.writeIndex(segmentIndex);
+
+        if (segmentIndex.getCompressed())
+        {
+            Files.deleteIfExists(uncompressedFile.toPath());
+        }
+    }
+
+
+    /**
+     * Write the index for a segment.
+     *
+     * @param segmentIndex index of the segment
+     * @throws IOException the index could not be written
+     */
+    private void writeIndex(FileBasedAuditLogSegmentIndex segmentIndex) throws IOException
+    {
+        File indexFile     = this.getIndexFile(segmentIndex.getSegmentNumber());
+        File temporaryFile = new File(auditLogStoreDirectory, indexFile.getName() + temporaryFileSuffix);
+
+        FileUtils.writeStringToFile(temporaryFile, INDEX_WRITER.writeValueAsString(segmentIndex), StandardCharsets.UTF_8, false);
+        Files.move(temporaryFile.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+
+    /**
+     * Return the index for an existing segment.  The saved index is used if it describes the sealed segment
+     * as it is stored, otherwise the index is rebuilt by reading the segment.
+     *
+     * @param segmentNumber sequence number of the segment
+     * @param compressed is the segment file compressed?
+     * @return index
+     * @throws IOException the segment could not be read
+     */
+    private FileBasedAuditLogSegmentIndex loadIndex(long    segmentNumber,
+                                                    boolean compressed) throws IOException
+    {
+        File indexFile = this.getIndexFile(segmentNumber);
+
+        if (indexFile.exists())
+        {
+            try
+            {
+                FileBasedAuditLogSegmentIndex segmentIndex = INDEX_READER.readValue(indexFile);
+
+                if ((segmentIndex != null) &&
+                    (segmentIndex.getSealed()) &&
+                    (segmentIndex.getCompressed() == compressed) &&
+                    (segmentIndex.getSegmentNumber() == segmentNumber))
+                {
+                    return segmentIndex;
+                }
+            }
+            catch (IOException ioException)
+            {
+                log.warn("Rebuilding unreadable index for audit log segment " + segmentNumber, ioException);
+            }
+        }
+
+        return this.rebuildIndex(segmentNumber, compressed);
+    }
+
+
+    /**
+     * Build the index for a segment by reading each log record in the segment.
+     *
+     * @param segmentNumber sequence number of the segment
+     * @param compressed is the segment file compressed?
+     * @return unsealed index
+     * @throws IOException the segment could not be read
+     */
+    private FileBasedAuditLogSegmentIndex rebuildIndex(long    segmentNumber,
+                                                       boolean compressed) throws IOException
+    {
+        File                          segmentFile  = this.getSegmentFile(segmentNumber, compressed);
+        FileBasedAuditLogSegmentIndex segmentIndex = new FileBasedAuditLogSegmentIndex(segmentNumber, segmentFile.lastModified());
+
+        segmentIndex.setCompressed(compressed);
+
+        this.readSegment(segmentIndex, 0, (byteOffset, recordBytes, line) ->
+        {
+            AuditLogRecord logRecord = parseLogRecord(segmentIndex, line);
+
+            if (logRecord != null)
+            {
+                segmentIndex.addRecord(getTimeStamp(logRecord),
+                                       logRecord.getSeverity(),
+                                       getComponentName(logRecord),
+                                       byteOffset,
+                                       recordBytes,
+                                       checkpointInterval);
+            }
+            else
+            {
+                segmentIndex.setByteCount(byteOffset + recordBytes);
+            }
+
+            return true;
+        });
+
+        log.debug("Rebuilt index for audit log segment {}: {}", segmentNumber, segmentIndex);
+
+        return segmentIndex;
+    }
+
+
+    /**
+     * Pass the lines of a segment to the consumer, starting at the requested byte offset.
+     *
+     * @param segmentIndex index of the segment
+     * @param startOffset byte offset of the first line to read (in the uncompressed segment)
+     * @param consumer receives each line
+     * @throws IOException the segment could not be read
+     */
+    private void readSegment(FileBasedAuditLogSegmentIndex segmentIndex,
+                             long                          startOffset,
+                             SegmentLineConsumer           consumer) throws IOException
+    {
+        File segmentFile = this.getSegmentFile(segmentIndex.getSegmentNumber(), segmentIndex.getCompressed());
+
+        try (FileInputStream fileInputStream = new FileInputStream(segmentFile))
+        {
+            InputStream inputStream = fileInputStream;
+
+            if (segmentIndex.getCompressed())
+            {
+                inputStream = new GZIPInputStream(fileInputStream);
+                inputStream.skipNBytes(startOffset);
+            }
+            else
+            {
+                fileInputStream.getChannel().position(startOffset);
+            }
+
+            BufferedReader reader     = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            long           byteOffset = startOffset;
+            String         line;
+
+            while ((line = reader.readLine()) != null)
+            {
+                int recordBytes = line.getBytes(StandardCharsets.UTF_8).length + 1;
+
+                if ((! line.isEmpty()) && (! consumer.accept(byteOffset, recordBytes, line)))
+                {
+                    return;
+                }
+
+                byteOffset = byteOffset + recordBytes;
+            }
+        }
+    }
+
+
+    /**
+     * Convert a line from a segment into a log record.
+     *
+     * @param segmentIndex index of the segment (for diagnostics)
+     * @param line line from the segment
+     * @return log record or null if the line is not a complete log record
+     */
+    private static AuditLogRecord parseLogRecord(FileBasedAuditLogSegmentIndex segmentIndex,
+                                                 String                        line)
+    {
+        try
+        {
+            return RECORD_READER.readValue(line);
+        }
+        catch (IOException ioException)
+        {
+            /*
+             * This is typically the last line of a segment that was being written when the server stopped.
+             */
+            log.debug("Skipping unreadable line in audit log segment {}", segmentIndex.getSegmentNumber(), ioException);
+            return null;
+        }
+    }
+
+
+    /**
+     * Remove the temporary files left by an interrupted seal, and any uncompressed segment that was not removed
+     * after its compressed copy was completed.
+     *
+     * @throws IOException a file could not be removed
+     */
+    private void removeIncompleteFiles() throws IOException
+    {
+        File[] files = auditLogStoreDirectory.listFiles((directory, fileName) -> fileName.startsWith(segmentFilePrefix) &&
+                                                                                 fileName.endsWith(temporaryFileSuffix));
+
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+
+        for (Map.Entry<Long, Boolean> segmentFile : this.getSegmentFiles().entrySet())
+        {
+            if (segmentFile.getValue())
+            {
+                Files.deleteIfExists(this.getSegmentFile(segmentFile.getKey(), false).toPath());
+            }
+        }
+    }
+
+
+    /**
+     * Return the segments in the directory.
+     *
+     * @return map from segment number to whether the segment is compressed, in segment order
+     */
+    private Map<Long, Boolean> getSegmentFiles()
+    {
+        Map<Long, Boolean> segmentFiles = new TreeMap<>();
+        String[]           fileNames    = auditLogStoreDirectory.list();
+
+        if (fileNames != null)
+        {
+            for (String fileName : fileNames)
+            {
+                if (fileName.startsWith(segmentFilePrefix))
+                {
+                    boolean compressed = fileName.endsWith(segmentFileSuffix + compressedFileSuffix);
+
+                    if ((compressed) || (fileName.endsWith(segmentFileSuffix)))
+                    {
+                        String segmentNumber = fileName.substring(segmentFilePrefix.length(), fileName.indexOf(segmentFileSuffix));
+
+                        try
+                        {
+                            segmentFiles.merge(Long.parseLong(segmentNumber), compressed, Boolean::logicalOr);
+                        }
+                        catch (NumberFormatException error)
+                        {
+                            log.debug("Ignoring unrecognized file {} in audit log store", fileName);
+                        }
+                    }
+                }
+            }
+        }
+
+        return segmentFiles;
+    }
+
+
+    /**
+     * Return the file for a segment.
+     *
+     * @param segmentNumber sequence number of the segment
+     * @param compressed is the segment compressed?
+     * @return file
+     */
+    private File getSegmentFile(long    segmentNumber,
+                                boolean compressed)
+    {
+        String fileName = segmentFilePrefix + String.format("%012d", segmentNumber) + segmentFileSuffix;
+
+        if (compressed)
+        {
+            fileName = fileName + compressedFileSuffix;
+        }
+
+        return new File(auditLogStoreDirectory, fileName);
+    }
+
+
+    /**
+     * Return the index file for a segment.
+     *
+     * @param segmentNumber sequence number of the segment
+     * @return file
+     */
+    private File getIndexFile(long segmentNumber)
+    {
+        return new File(auditLogStoreDirectory, segmentFilePrefix + String.format("%012d", segmentNumber) + indexFileSuffix);
+    }
+
+
+    /**
+     * Return the timestamp of a log record.
+     *
+     * @param logRecord log record
+     * @return milliseconds since the epoch (zero if the log record has no timestamp)
+     */
+    static long getTimeStamp(AuditLogRecord logRecord)
+    {
+        if (logRecord.getTimeStamp() != null)
+        {
+            return logRecord.getTimeStamp().getTime();
+        }
+
+        return 0L;
+    }
+
+
+    /**
+     * Return the name of the component that reported a log record.
+     *
+     * @param logRecord log record
+     * @return component name or null
+     */
+    static String getComponentName(AuditLogRecord logRecord)
+    {
+        if (logRecord.getOriginatorComponent() != null)
+        {
+            return logRecord.getOriginatorComponent().getComponentName();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Receives the lines of a segment.
+     */
+    private interface SegmentLineConsumer
+    {
+        /**
+         * Process a line of the segment.
+         *
+         * @param byteOffset position of the line in the uncompressed segment
+         * @param recordBytes length of the line including its line separator
+         * @param line contents of the line
+         * @return true to carry on reading the segment
+         */
+        boolean accept(long   byteOffset,
+                       int    recordBytes,
+                       String line);
+    }
+
+
+    /**
+     * The criteria for the log records returned by a query.  Each criterion is optional.
+     */
+    static class RecordFilter
+    {
+        private final String guid;
+        private final Long   startTime;
+        private final Long   endTime;
+        private final String severity;
+        private final String componentName;
+
+
+        /**
+         * Constructor supplies the criteria.
+         *
+         * @param guid unique identifier of the log record or null for any log record
+         * @param startDate start of the time period (inclusive) or null for no lower limit
+         * @param endDate end of the time period (inclusive) or null for no upper limit
+         * @param severity severity of the log records or null for any severity
+         * @param componentName name of the reporting component or null for any component
+         */
+        RecordFilter(String guid,
+                     Date   startDate,
+                     Date   endDate,
+                     String severity,
+                     String componentName)
+        {
+            this.guid          = guid;
+            this.startTime     = (startDate == null) ? null : startDate.getTime();
+            this.endTime       = (endDate == null) ? null : endDate.getTime();
+            this.severity      = severity;
+            this.componentName = componentName;
+        }
+
+
+        /**
+         * Return whether the log record matches all the criteria.
+         *
+         * @param logRecord log record
+         * @return boolean
+         */
+        boolean matches(AuditLogRecord logRecord)
+        {
+            if ((guid != null) && (! guid.equals(logRecord.getGUID())))
+            {
+                return false;
+            }
+
+            long timeStamp = getTimeStamp(logRecord);
+
+            if (((startTime != null) && (timeStamp < startTime)) || ((endTime != null) && (timeStamp > endTime)))
+            {
+                return false;
+            }
+
+            if ((severity != null) && (! severity.equals(logRecord.getSeverity())))
+            {
+                return false;
+            }
+
+            return (componentName == null) || (componentName.equals(getComponentName(logRecord)));
+        }
+    }
+
+
+    /**
+     * Collects the requested page of matching log records.
+     */
+    private static class Page
+    {
+        private final List<AuditLogRecord> logRecords = new ArrayList<>();
+        private final int                  maximumRecords;
+        private       long                 recordsToSkip;
+
+
+        /**
+         * Constructor supplies the paging parameters.
+         *
+         * @param offset number of matching log records to skip
+         * @param maximumRecords maximum number of log records to return (zero means no limit)
+         */
+        private Page(int offset,
+                     int maximumRecords)
+        {
+            this.recordsToSkip  = offset;
+            this.maximumRecords = maximumRecords;
+        }
+
+
+        /**
+         * Add a matching log record to the page, or count it as skipped.
+         *
+         * @param logRecord matching log record
+         */
+        private void offer(AuditLogRecord logRecord)
+        {
+            if (recordsToSkip > 0)
+            {
+                recordsToSkip--;
+            }
+            else if (! this.isFull())
+            {
+                logRecords.add(logRecord);
+            }
+        }
+
+
+        /**
+         * Count matching log records that have been passed over without being read.
+         *
+         * @param recordCount number of log records
+         */
+        private void skip(long recordCount)
+        {
+            recordsToSkip = recordsToSkip - recordCount;
+        }
+
+
+        /**
+         * Return the number of matching log records still to skip.
+         *
+         * @return long
+         */
+        private long getRecordsToSkip()
+        {
+            return recordsToSkip;
+        }
+
+
+        /**
+         * Return whether the page has all the log records it needs.
+         *
+         * @return boolean
+         */
+        private boolean isFull()
+        {
+            return (maximumRecords > 0) && (logRecords.size() >= maximumRecords);
+        }
+
+
+        /**
+         * Return the log records in the page.
+         *
+         * @return list
+         */
+        private List<AuditLogRecord> getLogRecords()
+        {
+            return logRecords;
+        }
+    }
+}
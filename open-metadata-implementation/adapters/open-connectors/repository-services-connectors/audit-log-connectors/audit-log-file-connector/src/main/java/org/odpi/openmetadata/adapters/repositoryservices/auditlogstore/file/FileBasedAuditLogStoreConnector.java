@@ -2,7 +2,8 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
 
-import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file.controls.FileBasedAuditLogConfigurationProperty;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogRecord;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
@@ -11,26 +12,36 @@ import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterExcept
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreConnectorBase;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * FileBasedAuditLogStoreConnector provides a connector implementation for a file based audit log.
- * The audit log is stored in a directory and each audit log record is stored as a file with a filename build
- * from the record's unique identifier (guid).
+ * The audit log is stored in a directory as a sequence of append-only segment files, each holding one
+ * JSON audit log record per line along with a small index that is used to answer queries without reading every
+ * segment.  Audit log records stored one per file by earlier versions of this connector are copied into a segment
+ * when the connector starts (unless the migrateLegacyRecords configuration property is set to false).
  */
 public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorBase
 {
     private static final String defaultDirectoryTemplate = "omag.server.auditlog";
 
+    private static final long    defaultSegmentMaxBytes         = 64L * 1024L * 1024L;
+    private static final long    defaultSegmentMaxAge           = 24L * 60L * 60L * 1000L;
+    private static final int     defaultIndexCheckpointInterval = 256;
+
     private static final Logger log = LoggerFactory.getLogger(FileBasedAuditLogStoreConnector.class);
 
-    private String logStoreTemplateName = null;
+    private String                        logStoreTemplateName = null;
+    private FileBasedAuditLogSegmentStore segmentStore         = null;
 
 
     /**
@@ -42,7 +53,7 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
 
 
     /**
-     * Set up the name of the file store
+     * Set up the name of the file store and open its segments.
      *
      * @throws ConnectorCheckedException something went wrong
      * @throws UserNotAuthorizedException the connector was disconnected before/during start
@@ -64,11 +75,32 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
             logStoreTemplateName = defaultDirectoryTemplate;
         }
 
+        Map<String, Object> configurationProperties = connectionBean.getConfigurationProperties();
+
+        long segmentMaxBytes = super.getLongConfigurationProperty(FileBasedAuditLogConfigurationProperty.SEGMENT_MAX_BYTES.getName(),
+                                                                  configurationProperties);
+        long segmentMaxAge = super.getLongConfigurationProperty(FileBasedAuditLogConfigurationProperty.SEGMENT_MAX_AGE.getName(),
+                                                                configurationProperties);
+        int  indexCheckpointInterval = super.getIntConfigurationProperty(FileBasedAuditLogConfigurationProperty.INDEX_CHECKPOINT_INTERVAL.getName(),
+                                                                         configurationProperties);
+        boolean compressSealedSegments = this.getBooleanProperty(FileBasedAuditLogConfigurationProperty.COMPRESS_SEALED_SEGMENTS.getName(),
+                                                                 configurationProperties,
+                                                                 false);
+        boolean migrateLegacyRecords = this.getBooleanProperty(FileBasedAuditLogConfigurationProperty.MIGRATE_LEGACY_RECORDS.getName(),
+                                                               configurationProperties,
+                                                               true);
+
+        FileBasedAuditLogSegmentStore newSegmentStore = new FileBasedAuditLogSegmentStore(new File(logStoreTemplateName),
+                                                                                          (segmentMaxBytes > 0) ? segmentMaxBytes : defaultSegmentMaxBytes,
+                                                                                          (segmentMaxAge > 0) ? segmentMaxAge : defaultSegmentMaxAge,
+                                                                                          compressSealedSegments,
+                                                                                          (indexCheckpointInterval > 0) ? indexCheckpointInterval : defaultIndexCheckpointInterval);
+
         try
         {
-            File         auditLogStoreDirectory = new File(logStoreTemplateName);
+            newSegmentStore.open(migrateLegacyRecords);
 
-            FileUtils.forceMkdir(auditLogStoreDirectory);
+            segmentStore = newSegmentStore;
         }
         catch (IOException ioException)
         {
@@ -77,6 +109,27 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     }
 
 
+    /**
+     * Retrieve a boolean configuration property.  The value may be supplied as a JSON boolean or as a string.
+     *
+     * @param propertyName name of property
+     * @param configurationProperties configuration properties
+     * @param defaultValue value to use if the property is not set
+     * @return boolean
+     */
+    private boolean getBooleanProperty(String              propertyName,
+                                       Map<String, Object> configurationProperties,
+                                       boolean             defaultValue)
+    {
+        if ((configurationProperties != null) && (configurationProperties.get(propertyName) != null))
+        {
+            return Boolean.parseBoolean(configurationProperties.get(propertyName).toString().trim());
+        }
+
+        return defaultValue;
+    }
+
+
     /**
      * Store the audit log record in the audit log store.
      *
@@ -91,13 +144,11 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
 
         super.validateLogRecord(logRecord, methodName);
 
-        if (isSupportedSeverity(logRecord))
+        if ((segmentStore != null) && (isSupportedSeverity(logRecord)))
         {
             try
             {
-                File logFileStore = new File(logStoreTemplateName + "/log-record-" + logRecord.getGUID() + ".omalrecord");
-
-                FileUtils.writeStringToFile(logFileStore, super.getJSONLogRecord(logRecord, methodName), (String)null, false);
+                segmentStore.appendLogRecord(super.getJSONLogRecord(logRecord, methodName), logRecord);
             }
             catch (IOException ioException)
             {
@@ -121,9 +172,22 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     public OMRSAuditLogRecord getAuditLogRecord(String logRecordId) throws InvalidParameterException,
                                                                            RepositoryErrorException
     {
-        final String methodName = "getAuditLogRecord";
+        final String methodName    = "getAuditLogRecord";
+        final String parameterName = "logRecordId";
+
+        this.validateQueryParameter(logRecordId, parameterName, methodName);
+
+        List<OMRSAuditLogRecord> logRecords = this.getLogRecords(new FileBasedAuditLogSegmentStore.RecordFilter(logRecordId, null, null, null, null),
+                                                                 0,
+                                                                 1,
+                                                                 methodName);
 
-        return null;
+        if (logRecords.isEmpty())
+        {
+            return null;
+        }
+
+        return logRecords.get(0);
     }
 
 
@@ -150,7 +214,12 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     {
         final String methodName = "getAuditLogRecordsByTimeStamp";
 
-        return null;
+        this.validateQueryRange(startDate, endDate, offset, maximumRecords, methodName);
+
+        return this.getLogRecords(new FileBasedAuditLogSegmentStore.RecordFilter(null, startDate, endDate, null, null),
+                                  offset,
+                                  maximumRecords,
+                                  methodName);
     }
 
 
@@ -177,9 +246,16 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                                             PagingErrorException,
                                                                                             RepositoryErrorException
     {
-        final String methodName = "getAuditLogRecordsBySeverity";
+        final String methodName    = "getAuditLogRecordsBySeverity";
+        final String parameterName = "severity";
+
+        this.validateQueryParameter(severity, parameterName, methodName);
+        this.validateQueryRange(startDate, endDate, offset, maximumRecords, methodName);
 
-        return null;
+        return this.getLogRecords(new FileBasedAuditLogSegmentStore.RecordFilter(null, startDate, endDate, severity, null),
+                                  offset,
+                                  maximumRecords,
+                                  methodName);
     }
 
 
@@ -206,9 +282,139 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                                                 PagingErrorException,
                                                                                                 RepositoryErrorException
     {
-        final String methodName = "getAuditLogRecordsByComponent";
+        final String methodName    = "getAuditLogRecordsByComponent";
+        final String parameterName = "component";
 
-        return null;
+        this.validateQueryParameter(component, parameterName, methodName);
+        this.validateQueryRange(startDate, endDate, offset, maximumRecords, methodName);
+
+        return this.getLogRecords(new FileBasedAuditLogSegmentStore.RecordFilter(null, startDate, endDate, null, component),
+                                  offset,
+                                  maximumRecords,
+                                  methodName);
+    }
+
+
+    /**
+     * Validate that a query parameter has been supplied.
+     *
+     * @param parameterValue value of the parameter
+     * @param parameterName name of the parameter
+     * @param methodName calling method
+     * @throws InvalidParameterException the parameter is null
+     */
+    private void validateQueryParameter(String parameterValue,
+                                        String parameterName,
+                                        String methodName) throws InvalidParameterException
+    {
+        if (parameterValue == null)
+        {
+            throw new InvalidParameterException(OMRSErrorCode.NULL_AUDIT_LOG_QUERY_PARAMETER.getMessageDefinition(parameterName,
+                                                                                                                  methodName,
+                                                                                                                  super.getDestinationName()),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                parameterName);
+        }
+    }
+
+
+    /**
+     * Validate the time period and paging parameters of a query.
+     *
+     * @param startDate start of time period
+     * @param endDate end of time period
+     * @param offset offset of full collection to begin the return results
+     * @param maximumRecords maximum number of log records to return
+     * @param methodName calling method
+     * @throws InvalidParameterException the start date is after the end date
+     * @throws PagingErrorException the offset or maximumRecords parameter is negative
+     */
+    private void validateQueryRange(Date   startDate,
+                                    Date   endDate,
+                                    int    offset,
+                                    int    maximumRecords,
+                                    String methodName) throws InvalidParameterException,
+                                                              PagingErrorException
+    {
+        final String startDateParameterName      = "startDate";
+        final String offsetParameterName         = "offset";
+        final String maximumRecordsParameterName = "maximumRecords";
+
+        if ((startDate != null) && (endDate != null) && (startDate.after(endDate)))
+        {
+            throw new InvalidParameterException(OMRSErrorCode.INVALID_TIME_RANGE.getMessageDefinition(methodName,
+                                                                                                      startDate.toString(),
+                                                                                                      endDate.toString()),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                startDateParameterName);
+        }
+
+        if (offset < 0)
+        {
+            throw new PagingErrorException(OMRSErrorCode.NEGATIVE_AUDIT_LOG_PAGING_VALUE.getMessageDefinition(offsetParameterName,
+                                                                                                              Integer.toString(offset),
+                                                                                                              methodName,
+                                                                                                              super.getDestinationName()),
+                                           this.getClass().getName(),
+                                           methodName);
+        }
+
+        if (maximumRecords < 0)
+        {
+            throw new PagingErrorException(OMRSErrorCode.NEGATIVE_AUDIT_LOG_PAGING_VALUE.getMessageDefinition(maximumRecordsParameterName,
+                                                                                                              Integer.toString(maximumRecords),
+                                                                                                              methodName,
+                                                                                                              super.getDestinationName()),
+                                           this.getClass().getName(),
+                                           methodName);
+        }
+    }
+
+
+    /**
+     * Retrieve the log records that match the filter from the segment store.
+     *
+     * @param filter criteria for the log records
+     * @param offset offset of full collection to begin the return results
+     * @param maximumRecords maximum number of log records to return (zero means no limit)
+     * @param methodName calling method
+     * @return list of log records
+     * @throws RepositoryErrorException the segment store is not available or could not be read
+     */
+    private List<OMRSAuditLogRecord> getLogRecords(FileBasedAuditLogSegmentStore.RecordFilter filter,
+                                                   int                                        offset,
+                                                   int                                        maximumRecords,
+                                                   String                                     methodName) throws RepositoryErrorException
+    {
+        if (segmentStore == null)
+        {
+            throw new RepositoryErrorException(OMRSErrorCode.AUDIT_LOG_STORE_NOT_AVAILABLE.getMessageDefinition(super.getDestinationName(),
+                                                                                                                "the audit log store directory " + logStoreTemplateName + " could not be opened"),
+                                               this.getClass().getName(),
+                                               methodName);
+        }
+
+        try
+        {
+            List<OMRSAuditLogRecord> logRecords = new ArrayList<>();
+
+            for (AuditLogRecord logRecord : segmentStore.getLogRecords(filter, offset, maximumRecords))
+            {
+                logRecords.add(new OMRSAuditLogRecord(logRecord));
+            }
+
+            return logRecords;
+        }
+        catch (IOException ioException)
+        {
+            throw new RepositoryErrorException(OMRSErrorCode.AUDIT_LOG_STORE_NOT_AVAILABLE.getMessageDefinition(super.getDestinationName(),
+                                                                                                                ioException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               ioException);
+        }
     }
 
 
@@ -220,6 +426,20 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     @Override
     public  void disconnect() throws ConnectorCheckedException
     {
+        if (segmentStore != null)
+        {
+            try
+            {
+                segmentStore.close();
+            }
+            catch (IOException ioException)
+            {
+                log.error("Unable to seal the active Server Audit Log Store segment", ioException);
+            }
+
+            segmentStore = null;
+        }
+
         super.disconnect();
     }
 }
@@ -3,10 +3,9 @@
 package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
 
 import org.odpi.openmetadata.adapters.connectors.EgeriaOpenConnectorDefinition;
+import org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file.controls.FileBasedAuditLogConfigurationProperty;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreProviderBase;
 
-import java.util.Collections;
-
 /**
  * FileBasedAuditLogStoreProvider is the OCF connector provider for the file based audit log store.
  */
@@ -26,6 +25,8 @@ public class FileBasedAuditLogStoreProvider extends OMRSAuditLogStoreProviderBas
     {
         super(EgeriaOpenConnectorDefinition.FILE_AUDIT_LOG_DESTINATION_CONNECTOR,
               connectorClassName,
-              Collections.singletonList(supportedSeveritiesProperty));
+              FileBasedAuditLogConfigurationProperty.getRecognizedConfigurationProperties());
+
+        super.supportedConfigurationProperties = FileBasedAuditLogConfigurationProperty.getConfigurationPropertyTypes();
     }
 }
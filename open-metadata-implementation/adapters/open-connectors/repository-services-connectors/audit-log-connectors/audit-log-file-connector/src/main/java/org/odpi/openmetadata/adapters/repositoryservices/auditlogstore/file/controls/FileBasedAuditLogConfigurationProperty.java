@@ -0,0 +1,183 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file.controls;
+
+
+import org.odpi.openmetadata.frameworks.openmetadata.specificationproperties.ConfigurationPropertyType;
+import org.odpi.openmetadata.frameworks.openmetadata.types.DataType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FileBasedAuditLogConfigurationProperty provides the definitions for the configuration properties used to
+ * control how the file based audit log store lays out its segment files.
+ */
+public enum FileBasedAuditLogConfigurationProperty
+{
+    /**
+     * Provide a list of supported severities that should be logged to this destination. An empty list means all severities.
+     */
+    SUPPORTED_SEVERITIES("supportedSeverities", "Provide a list of supported severities that should be logged to this destination. An empty list means all severities.", DataType.ARRAY_STRING.getDisplayName(), "[\"Error\", \"Exception\", \"Activity\", \"Action\", \"Decision\"]"),
+
+    /**
+     * Size (in bytes) that a segment file may grow to before it is sealed and a new segment is started.
+     */
+    SEGMENT_MAX_BYTES("segmentMaxBytes", "Size (in bytes) that a segment file may grow to before it is sealed and a new segment is started.", DataType.LONG.getDisplayName(), "67108864"),
+
+    /**
+     * Time (in milliseconds) that a segment file may receive log records before it is sealed and a new segment is started.
+     */
+    SEGMENT_MAX_AGE("segmentMaxAge", "Time (in milliseconds) that a segment file may receive log records before it is sealed and a new segment is started.", DataType.LONG.getDisplayName(), "86400000"),
+
+    /**
+     * Set to true to gzip each segment file once it is sealed.  Compressed segments can not be positioned using the index checkpoints, so they are read from the start.
+     */
+    COMPRESS_SEALED_SEGMENTS("compressSealedSegments", "Set to true to gzip each segment file once it is sealed.  Compressed segments can not be positioned using the index checkpoints, so they are read from the start.", DataType.BOOLEAN.getDisplayName(), "true"),
+
+    /**
+     * Number of log records between each timestamp checkpoint in a segment's index.
+     */
+    INDEX_CHECKPOINT_INTERVAL("indexCheckpointInterval", "Number of log records between each timestamp checkpoint in a segment's index.", DataType.INT.getDisplayName(), "256"),
+
+    /**
+     * Set to false to leave log records stored one-per-file by earlier versions of the connector in place rather than copying them into a segment when the connector starts.
+     */
+    MIGRATE_LEGACY_RECORDS("migrateLegacyRecords", "Set to false to leave log records stored one-per-file by earlier versions of the connector in place rather than copying them into a segment when the connector starts.", DataType.BOOLEAN.getDisplayName(), "false"),
+
+    ;
+
+    public final String           name;
+    public final String           description;
+    public final String           dataType;
+    public final String           example;
+
+
+    /**
+     * Create a specific Enum constant.
+     *
+     * @param name name of the request parameter
+     * @param description description of the request parameter
+     * @param dataType type of value of the request parameter
+     * @param example example of the request parameter
+     */
+    FileBasedAuditLogConfigurationProperty(String name,
+                                           String description,
+                                           String dataType,
+                                           String example)
+    {
+        this.name        = name;
+        this.description = description;
+        this.dataType    = dataType;
+        this.example     = example;
+    }
+
+
+    /**
+     * Return the name of the request parameter.
+     *
+     * @return string name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+
+    /**
+     * Return the description of the request parameter.
+     *
+     * @return text
+     */
+    public String getDescription()
+    {
+        return description;
+    }
+
+
+    /**
+     * Return the data type for the request parameter.
+     *
+     * @return data type name
+     */
+    public String getDataType()
+    {
+        return dataType;
+    }
+
+
+    /**
+     * Return an example of the request parameter to help users understand how to set it up.
+     *
+     * @return example
+     */
+    public String getExample()
+    {
+        return example;
+    }
+
+
+    /**
+     * Get recognizedConfigurationProperties for the connector.
+     *
+     * @return list of property names
+     */
+    public static List<String> getRecognizedConfigurationProperties()
+    {
+        List<String> recognizedConfigurationProperties = new ArrayList<>();
+
+        for (FileBasedAuditLogConfigurationProperty configurationProperty : FileBasedAuditLogConfigurationProperty.values())
+        {
+            recognizedConfigurationProperties.add(configurationProperty.getName());
+        }
+        return recognizedConfigurationProperties;
+    }
+
+
+    /**
+     * Retrieve all the defined configuration properties
+     *
+     * @return list
+     */
+    public static List<ConfigurationPropertyType> getConfigurationPropertyTypes()
+    {
+        List<ConfigurationPropertyType> configurationPropertyTypes = new ArrayList<>();
+
+        for (FileBasedAuditLogConfigurationProperty configurationProperty : FileBasedAuditLogConfigurationProperty.values())
+        {
+            configurationPropertyTypes.add(configurationProperty.getConfigurationPropertyType());
+        }
+
+        return configurationPropertyTypes;
+    }
+
+
+    /**
+     * Return a summary of this enum to use in a service provider.
+     *
+     * @return request parameter type
+     */
+    public ConfigurationPropertyType getConfigurationPropertyType()
+    {
+        ConfigurationPropertyType requestParameterType = new ConfigurationPropertyType();
+
+        requestParameterType.setName(name);
+        requestParameterType.setDescription(description);
+        requestParameterType.setDataType(dataType);
+        requestParameterType.setExample(example);
+
+        return requestParameterType;
+    }
+
+    /**
+     * Output of this enum class and main value.
+     *
+     * @return string showing enum value
+     */
+    @Override
+    public String toString()
+    {
+        return "FileBasedAuditLogConfigurationProperty{ name=" + name + "}";
+    }
+}
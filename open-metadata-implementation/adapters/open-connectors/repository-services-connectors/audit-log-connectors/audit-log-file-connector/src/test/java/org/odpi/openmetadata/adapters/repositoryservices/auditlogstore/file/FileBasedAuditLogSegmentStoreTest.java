@@ -0,0 +1,514 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogRecord;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogReportingComponent;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that FileBasedAuditLogSegmentStore rolls log records over into new segments, uses the segment indexes to
+ * answer filtered and paged queries with the same results as a scan of every log record, and recovers the segments
+ * left behind when a server stops without closing the store.
+ */
+public class FileBasedAuditLogSegmentStoreTest
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final long     baseTime           = 1_700_000_000_000L;
+    private static final long     segmentMaxBytes    = 2000L;
+    private static final long     segmentMaxAge      = Long.MAX_VALUE;
+    private static final int      checkpointInterval = 3;
+    private static final String[] severities         = { "Information", "Error", "Activity" };
+    private static final String[] componentNames     = { "ComponentA", "ComponentB" };
+
+    private File auditLogStoreDirectory = null;
+
+
+    /**
+     * Create an empty directory for the store.
+     *
+     * @throws IOException the directory could not be created
+     */
+    @BeforeMethod
+    public void createDirectory() throws IOException
+    {
+        auditLogStoreDirectory = Files.createTempDirectory("audit-log-segment-store").toFile();
+    }
+
+
+    /**
+     * Remove the directory and everything in it.
+     *
+     * @throws IOException the directory could not be removed
+     */
+    @AfterMethod
+    public void removeDirectory() throws IOException
+    {
+        FileUtils.deleteDirectory(auditLogStoreDirectory);
+    }
+
+
+    /**
+     * Log records come back in the order they were written, across several segments, and every segment
+     * except the active one is sealed with an index.
+     *
+     * @throws IOException problem with the store
+     */
+    @Test
+    public void testAppendedRecordsSpanSegments() throws IOException
+    {
+        FileBasedAuditLogSegmentStore store      = this.getStore(false);
+        List<AuditLogRecord>          logRecords = this.appendLogRecords(store, 0, 60);
+
+        int segmentCount = this.getFileNames(FileBasedAuditLogSegmentStore.segmentFileSuffix).size();
+
+        assertTrue(segmentCount > 3, "Only " + segmentCount + " segments");
+        assertEquals(this.getFileNames(FileBasedAuditLogSegmentStore.indexFileSuffix).size(), segmentCount - 1);
+
+        for (File segmentFile : this.getFiles(FileBasedAuditLogSegmentStore.segmentFileSuffix))
+        {
+            assertTrue(segmentFile.length() <= segmentMaxBytes, segmentFile.getName() + " is " + segmentFile.length() + " bytes");
+        }
+
+        assertEquals(this.getGUIDs(store.getLogRecords(this.getFilter(null, null, null, null, null), 0, 0)),
+                     this.getGUIDs(logRecords));
+
+        store.close();
+
+        assertEquals(this.getFileNames(FileBasedAuditLogSegmentStore.indexFileSuffix).size(), segmentCount);
+    }
+
+
+    /**
+     * Filtered and paged queries return the same log records as testing every log record in turn, whether the
+     * query is answered by the open store or by a store reopened from the saved indexes.
+     *
+     * @throws IOException problem with the store
+     */
+    @Test
+    public void testFilteredQueriesMatchScan() throws IOException
+    {
+        FileBasedAuditLogSegmentStore store      = this.getStore(false);
+        List<AuditLogRecord>          logRecords = this.appendLogRecords(store, 0, 60);
+
+        this.validateQueries(store, logRecords);
+
+        store.close();
+
+        FileBasedAuditLogSegmentStore reopenedStore = this.getStore(false);
+
+        this.validateQueries(reopenedStore, logRecords);
+
+        reopenedStore.close();
+    }
+
+
+    /**
+     * Sealed segments are replaced by their compressed copies, which are still read by queries.
+     *
+     * @throws IOException problem with the store
+     */
+    @Test
+    public void testCompressedSegments() throws IOException
+    {
+        FileBasedAuditLogSegmentStore store      = this.getStore(true);
+        List<AuditLogRecord>          logRecords = this.appendLogRecords(store, 0, 60);
+
+        store.close();
+
+        assertTrue(this.getFileNames(FileBasedAuditLogSegmentStore.segmentFileSuffix).isEmpty());
+        assertEquals(this.getFileNames(FileBasedAuditLogSegmentStore.segmentFileSuffix + FileBasedAuditLogSegmentStore.compressedFileSuffix).size(),
+                     this.getFileNames(FileBasedAuditLogSegmentStore.indexFileSuffix).size());
+
+        this.validateQueries(store, logRecords);
+
+        FileBasedAuditLogSegmentStore reopenedStore = this.getStore(true);
+
+        this.validateQueries(reopenedStore, logRecords);
+
+        List<AuditLogRecord> moreRecords = this.appendLogRecords(reopenedStore, 60, 10);
+
+        logRecords.addAll(moreRecords);
+
+        assertEquals(this.getGUIDs(reopenedStore.getLogRecords(this.getFilter(null, null, null, null, null), 0, 0)),
+                     this.getGUIDs(logRecords));
+
+        reopenedStore.close();
+    }
+
+
+    /**
+     * A store that was not closed, and whose active segment ends with a partly written log record, is recovered
+     * when it is next opened: the complete log records are kept, the segment is sealed with a new index and the
+     * temporary files of an interrupted seal are removed.
+     *
+     * @throws IOException problem with the store
+     */
+    @Test
+    public void testRecoveryOfUnsealedSegment() throws IOException
+    {
+        FileBasedAuditLogSegmentStore store      = this.getStore(false);
+        List<AuditLogRecord>          logRecords = this.appendLogRecords(store, 0, 25);
+
+        List<File> segmentFiles  = this.getFiles(FileBasedAuditLogSegmentStore.segmentFileSuffix);
+        File       activeSegment = segmentFiles.get(segmentFiles.size() - 1);
+        File       temporaryFile = new File(auditLogStoreDirectory, activeSegment.getName() + FileBasedAuditLogSegmentStore.compressedFileSuffix + ".tmp");
+
+        FileUtils.writeStringToFile(activeSegment, "{\"guid\":\"partial-rec", StandardCharsets.UTF_8, true);
+        FileUtils.writeStringToFile(temporaryFile, "incomplete", StandardCharsets.UTF_8, false);
+
+        assertEquals(this.getFileNames(FileBasedAuditLogSegmentStore.indexFileSuffix).size(), segmentFiles.size() - 1);
+
+        FileBasedAuditLogSegmentStore recoveredStore = this.getStore(false);
+
+        assertFalse(temporaryFile.exists());
+        assertEquals(this.getFileNames(FileBasedAuditLogSegmentStore.indexFileSuffix).size(), segmentFiles.size());
+
+        List<AuditLogRecord> moreRecords = this.appendLogRecords(recoveredStore, 25, 5);
+
+        logRecords.addAll(moreRecords);
+
+        assertEquals(this.getGUIDs(recoveredStore.getLogRecords(this.getFilter(null, null, null, null, null), 0, 0)),
+                     this.getGUIDs(logRecords));
+        this.validateQueries(recoveredStore, logRecords);
+
+        recoveredStore.close();
+    }
+
+
+    /**
+     * An index that can not be read is rebuilt from its segment.
+     *
+     * @throws IOException problem with the store
+     */
+    @Test
+    public void testUnreadableIndexRebuilt() throws IOException
+    {
+        FileBasedAuditLogSegmentStore store      = this.getStore(false);
+        List<AuditLogRecord>          logRecords = this.appendLogRecords(store, 0, 30);
+
+        store.close();
+
+        for (File indexFile : this.getFiles(FileBasedAuditLogSegmentStore.indexFileSuffix))
+        {
+            FileUtils.writeStringToFile(indexFile, "not an index", StandardCharsets.UTF_8, false);
+        }
+
+        FileBasedAuditLogSegmentStore reopenedStore = this.getStore(false);
+
+        this.validateQueries(reopenedStore, logRecords);
+
+        reopenedStore.close();
+    }
+
+
+    /**
+     * Log records stored one per file by earlier versions of the connector are copied into a sealed segment,
+     * in time order, and their files removed.
+     *
+     * @throws IOException problem with the store
+     */
+    @Test
+    public void testLegacyRecordsMigrated() throws IOException
+    {
+        List<AuditLogRecord> legacyRecords = this.writeLegacyRecords(12);
+
+        FileBasedAuditLogSegmentStore store = this.getStore(false);
+
+        assertTrue(this.getFileNames(FileBasedAuditLogLegacyRecordReader.legacyRecordFileSuffix).isEmpty());
+        assertEquals(this.getFileNames(FileBasedAuditLogSegmentStore.indexFileSuffix).size(),
+                     this.getFileNames(FileBasedAuditLogSegmentStore.segmentFileSuffix).size());
+
+        legacyRecords.addAll(this.appendLogRecords(store, 12, 10));
+
+        assertEquals(this.getGUIDs(store.getLogRecords(this.getFilter(null, null, null, null, null), 0, 0)),
+                     this.getGUIDs(legacyRecords));
+        this.validateQueries(store, legacyRecords);
+
+        store.close();
+    }
+
+
+    /**
+     * Log records stored one per file are left in place when migration is turned off, and are returned ahead
+     * of the log records in the segments.
+     *
+     * @throws IOException problem with the store
+     */
+    @Test
+    public void testLegacyRecordsKept() throws IOException
+    {
+        List<AuditLogRecord> legacyRecords = this.writeLegacyRecords(12);
+
+        FileBasedAuditLogSegmentStore store = new FileBasedAuditLogSegmentStore(auditLogStoreDirectory,
+                                                                                segmentMaxBytes,
+                                                                                segmentMaxAge,
+                                                                                false,
+                                                                                checkpointInterval);
+        store.open(false);
+
+        assertEquals(this.getFileNames(FileBasedAuditLogLegacyRecordReader.legacyRecordFileSuffix).size(), 12);
+        assertTrue(this.getFileNames(FileBasedAuditLogSegmentStore.segmentFileSuffix).isEmpty());
+
+        legacyRecords.addAll(this.appendLogRecords(store, 12, 10));
+
+        assertEquals(this.getGUIDs(store.getLogRecords(this.getFilter(null, null, null, null, null), 0, 0)),
+                     this.getGUIDs(legacyRecords));
+        this.validateQueries(store, legacyRecords);
+
+        store.close();
+    }
+
+
+    /**
+     * Run a set of filtered and paged queries against the store and compare the results with a scan of the
+     * log records.
+     *
+     * @param store store to query
+     * @param logRecords every log record in the store, in the order they were written
+     * @throws IOException problem reading the store
+     */
+    private void validateQueries(FileBasedAuditLogSegmentStore store,
+                                 List<AuditLogRecord>          logRecords) throws IOException
+    {
+        List<FileBasedAuditLogSegmentStore.RecordFilter> filters = new ArrayList<>();
+
+        filters.add(this.getFilter(null, null, null, null, null));
+        filters.add(this.getFilter(null, new Date(baseTime + 10_000L), null, null, null));
+        filters.add(this.getFilter(null, null, new Date(baseTime + 20_000L), null, null));
+        filters.add(this.getFilter(null, new Date(baseTime + 17_000L), new Date(baseTime + 41_000L), null, null));
+        filters.add(this.getFilter(null, new Date(baseTime + 500_000L), null, null, null));
+        filters.add(this.getFilter(null, null, null, "Error", null));
+        filters.add(this.getFilter(null, null, null, "Unknown", null));
+        filters.add(this.getFilter(null, null, null, null, "ComponentB"));
+        filters.add(this.getFilter(null, new Date(baseTime + 5_000L), null, "Information", "ComponentA"));
+        filters.add(this.getFilter(logRecords.get(logRecords.size() / 2).getGUID(), null, null, null, null));
+
+        for (FileBasedAuditLogSegmentStore.RecordFilter filter : filters)
+        {
+            List<AuditLogRecord> expectedRecords = new ArrayList<>();
+
+            for (AuditLogRecord logRecord : logRecords)
+            {
+                if (filter.matches(logRecord))
+                {
+                    expectedRecords.add(logRecord);
+                }
+            }
+
+            assertEquals(this.getGUIDs(store.getLogRecords(filter, 0, 0)), this.getGUIDs(expectedRecords));
+
+            for (int offset : new int[]{ 0, 1, 7, 20, 45, 100 })
+            {
+                for (int maximumRecords : new int[]{ 1, 5, 13 })
+                {
+                    List<AuditLogRecord> expectedPage = expectedRecords.subList(Math.min(offset, expectedRecords.size()),
+                                                                                Math.min(offset + maximumRecords, expectedRecords.size()));
+
+                    assertEquals(this.getGUIDs(store.getLogRecords(filter, offset, maximumRecords)),
+                                 this.getGUIDs(expectedPage),
+                                 "offset " + offset + ", maximumRecords " + maximumRecords);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Open a store on the test directory with small segments so that the tests span several of them.
+     *
+     * @param compressSealedSegments should sealed segments be compressed?
+     * @return open store
+     * @throws IOException problem opening the store
+     */
+    private FileBasedAuditLogSegmentStore getStore(boolean compressSealedSegments) throws IOException
+    {
+        FileBasedAuditLogSegmentStore store = new FileBasedAuditLogSegmentStore(auditLogStoreDirectory,
+                                                                                segmentMaxBytes,
+                                                                                segmentMaxAge,
+                                                                                compressSealedSegments,
+                                                                                checkpointInterval);
+        store.open(true);
+
+        return store;
+    }
+
+
+    /**
+     * Return a filter for a query.
+     *
+     * @param guid unique identifier of the log record or null
+     * @param startDate start of the time period or null
+     * @param endDate end of the time period or null
+     * @param severity severity or null
+     * @param componentName reporting component or null
+     * @return filter
+     */
+    private FileBasedAuditLogSegmentStore.RecordFilter getFilter(String guid,
+                                                                 Date   startDate,
+                                                                 Date   endDate,
+                                                                 String severity,
+                                                                 String componentName)
+    {
+        return new FileBasedAuditLogSegmentStore.RecordFilter(guid, startDate, endDate, severity, componentName);
+    }
+
+
+    /**
+     * Append log records to the store.  Record n has a time stamp n seconds after the base time and cycles
+     * through the severities and reporting components.
+     *
+     * @param store store to write to
+     * @param firstRecord number of the first log record
+     * @param recordCount number of log records to append
+     * @return log records in the order they were appended
+     * @throws IOException problem writing to the store
+     */
+    private List<AuditLogRecord> appendLogRecords(FileBasedAuditLogSegmentStore store,
+                                                  int                           firstRecord,
+                                                  int                           recordCount) throws IOException
+    {
+        List<AuditLogRecord> logRecords = new ArrayList<>();
+
+        for (int recordNumber = firstRecord; recordNumber < firstRecord + recordCount; recordNumber++)
+        {
+            AuditLogRecord logRecord = this.getLogRecord("record-" + recordNumber, recordNumber);
+
+            store.appendLogRecord(OBJECT_MAPPER.writeValueAsString(logRecord), logRecord);
+            logRecords.add(logRecord);
+        }
+
+        return logRecords;
+    }
+
+
+    /**
+     * Write log records in the one file per log record format used by earlier versions of the connector.
+     * The files are written in reverse time order to show that migration sorts them.
+     *
+     * @param recordCount number of log records
+     * @return log records in time order
+     * @throws IOException problem writing the files
+     */
+    private List<AuditLogRecord> writeLegacyRecords(int recordCount) throws IOException
+    {
+        List<AuditLogRecord> logRecords = new ArrayList<>();
+
+        for (int recordNumber = 0; recordNumber < recordCount; recordNumber++)
+        {
+            logRecords.add(this.getLogRecord("legacy-" + recordNumber, recordNumber));
+        }
+
+        for (int recordNumber = recordCount - 1; recordNumber >= 0; recordNumber--)
+        {
+            AuditLogRecord logRecord  = logRecords.get(recordNumber);
+            File           recordFile = new File(auditLogStoreDirectory,
+                                                 FileBasedAuditLogLegacyRecordReader.legacyRecordFilePrefix +
+                                                 logRecord.getGUID() +
+                                                 FileBasedAuditLogLegacyRecordReader.legacyRecordFileSuffix);
+
+            FileUtils.writeStringToFile(recordFile, OBJECT_MAPPER.writeValueAsString(logRecord), StandardCharsets.UTF_8, false);
+        }
+
+        return logRecords;
+    }
+
+
+    /**
+     * Return a log record.
+     *
+     * @param guid unique identifier of the log record
+     * @param recordNumber position of the log record in the test data
+     * @return log record
+     */
+    private AuditLogRecord getLogRecord(String guid,
+                                        int    recordNumber)
+    {
+        AuditLogRecord             logRecord = new AuditLogRecord();
+        AuditLogReportingComponent component = new AuditLogReportingComponent();
+
+        component.setComponentName(componentNames[recordNumber % componentNames.length]);
+
+        logRecord.setGUID(guid);
+        logRecord.setTimeStamp(new Date(baseTime + recordNumber * 1000L));
+        logRecord.setOriginatorComponent(component);
+        logRecord.setSeverity(severities[recordNumber % severities.length]);
+        logRecord.setMessageId("TEST-AUDIT-" + recordNumber);
+        logRecord.setMessageText("Test log record " + recordNumber);
+
+        return logRecord;
+    }
+
+
+    /**
+     * Return the unique identifiers of a list of log records.
+     *
+     * @param logRecords log records
+     * @return list of unique identifiers
+     */
+    private List<String> getGUIDs(List<AuditLogRecord> logRecords)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (AuditLogRecord logRecord : logRecords)
+        {
+            guids.add(logRecord.getGUID());
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Return the files in the store directory with a name ending in the suffix, sorted by name.
+     *
+     * @param fileNameSuffix file name suffix
+     * @return list of files
+     */
+    private List<File> getFiles(String fileNameSuffix)
+    {
+        File[] files = auditLogStoreDirectory.listFiles((directory, fileName) -> fileName.endsWith(fileNameSuffix));
+
+        List<File> sortedFiles = new ArrayList<>(List.of(files == null ? new File[0] : files));
+
+        sortedFiles.sort(null);
+
+        return sortedFiles;
+    }
+
+
+    /**
+     * Return the names of the files in the store directory with a name ending in the suffix.
+     *
+     * @param fileNameSuffix file name suffix
+     * @return list of file names
+     */
+    private List<String> getFileNames(String fileNameSuffix)
+    {
+        List<String> fileNames = new ArrayList<>();
+
+        for (File file : this.getFiles(fileNameSuffix))
+        {
+            fileNames.add(file.getName());
+        }
+
+        return fileNames;
+    }
+}
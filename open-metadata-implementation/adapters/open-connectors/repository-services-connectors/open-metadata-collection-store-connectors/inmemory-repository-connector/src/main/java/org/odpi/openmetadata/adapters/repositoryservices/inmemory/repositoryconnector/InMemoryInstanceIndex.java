@@ -0,0 +1,99 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * InMemoryInstanceIndex is a secondary index used by the InMemoryOMRSMetadataStore.  It maps a key, such as a type name,
+ * classification name or entity GUID, to the unique identifiers of the stored instances that currently have that key.
+ * This allows the queries to select their candidate instances without scanning the whole store.
+ * The index may be updated and queried concurrently.  Null keys are ignored.
+ */
+class InMemoryInstanceIndex
+{
+    private final Map<String, Set<String>> index = new ConcurrentHashMap<>();
+
+
+    /**
+     * Move an instance from the keys it is currently indexed under to its new keys.
+     *
+     * @param guid unique identifier of the instance
+     * @param oldKeys keys that the instance is currently indexed under (or null)
+     * @param newKeys keys that the instance should now be indexed under (or null)
+     */
+    void reindex(String      guid,
+                 Set<String> oldKeys,
+                 Set<String> newKeys)
+    {
+        if (guid == null)
+        {
+            return;
+        }
+
+        if (oldKeys != null)
+        {
+            for (String oldKey : oldKeys)
+            {
+                if ((oldKey != null) && ((newKeys == null) || (! newKeys.contains(oldKey))))
+                {
+                    index.computeIfPresent(oldKey, (key, guids) ->
+                    {
+                        guids.remove(guid);
+                        return guids.isEmpty() ? null : guids;
+                    });
+                }
+            }
+        }
+
+        if (newKeys != null)
+        {
+            for (String newKey : newKeys)
+            {
+                if ((newKey != null) && ((oldKeys == null) || (! oldKeys.contains(newKey))))
+                {
+                    index.compute(newKey, (key, guids) ->
+                    {
+                        Set<String> results = guids;
+
+                        if (results == null)
+                        {
+                            results = ConcurrentHashMap.newKeySet();
+                        }
+
+                        results.add(guid);
+                        return results;
+                    });
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the unique identifiers of the instances indexed under any of the supplied keys.
+     *
+     * @param keys list of keys
+     * @return set of unique identifiers (empty if none match)
+     */
+    Set<String> getGUIDs(Collection<String> keys)
+    {
+        Set<String> results = new HashSet<>();
+
+        if (keys != null)
+        {
+            for (String key : keys)
+            {
+                Set<String> guids = (key == null) ? null : index.get(key);
+
+                if (guids != null)
+                {
+                    results.addAll(guids);
+                }
+            }
+        }
+
+        return results;
+    }
+}
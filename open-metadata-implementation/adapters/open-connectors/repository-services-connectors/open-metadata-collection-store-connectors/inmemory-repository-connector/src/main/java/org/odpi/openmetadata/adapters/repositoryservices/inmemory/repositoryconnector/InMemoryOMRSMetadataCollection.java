@@ -4,6 +4,7 @@ package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositorycon
 
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSDynamicTypeMetadataCollectionBase;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.HistorySequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
@@ -217,7 +218,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        EntityDetail  entity = repositoryStore.timeWarpEntityStore(asOfTime).get(guid);
+        EntityDetail  entity = repositoryStore.getEntity(guid, asOfTime);
         if (entity == null)
         {
             EntityProxy  entityProxy = repositoryStore.getEntityProxy(guid);
@@ -306,9 +307,10 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
 
         List<Relationship> entityRelationships = new ArrayList<>();
 
-        Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
-
-        for (Relationship  storedRelationship : relationshipStore.values())
+        /*
+         * The repository store returns only the relationships attached to the entity.
+         */
+        for (Relationship  storedRelationship : repositoryStore.getRelationshipsForEntity(entityGUID, asOfTime))
         {
             if (storedRelationship != null)
             {
@@ -316,18 +318,13 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                 {
                     repositoryValidator.validRelationship(repositoryName, storedRelationship);
 
-                    if (repositoryHelper.relatedEntity(repositoryName,
-                                                       entityGUID,
-                                                       storedRelationship))
+                    if (relationshipTypeGUID == null)
                     {
-                        if (relationshipTypeGUID == null)
-                        {
-                            entityRelationships.add(storedRelationship);
-                        }
-                        else if (relationshipTypeGUID.equals(storedRelationship.getType().getTypeDefGUID()))
-                        {
-                            entityRelationships.add(storedRelationship);
-                        }
+                        entityRelationships.add(storedRelationship);
+                    }
+                    else if (relationshipTypeGUID.equals(storedRelationship.getType().getTypeDefGUID()))
+                    {
+                        entityRelationships.add(storedRelationship);
                     }
                 }
             }
@@ -398,6 +395,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                 PagingErrorException,
                                                                                                 UserNotAuthorizedException
     {
+        final String  methodName = "findEntitiesByProperty";
+
         /*
          * Validate parameters
          */
@@ -416,13 +415,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
+         * The candidate entities are selected from the repository store's indexes and then
+         * each one is checked against the search criteria.
          */
-        List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+        List<EntityDetail>  foundEntities = new ArrayList<>();
+        List<EntityDetail>  candidateEntities = repositoryStore.getCandidateEntities(getTypeNamesForQuery(entityTypeGUID, methodName),
+                                                                                     limitResultsByClassification,
+                                                                                     asOfTime);
 
-        for (EntityDetail  entity : entityStore.values())
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -498,6 +499,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                       PagingErrorException,
                                                                                       UserNotAuthorizedException
     {
+        final String  methodName = "findEntities";
+
         /*
          * Validate parameters
          */
@@ -515,14 +518,145 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
 
         /*
          * Perform operation
-         *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
          */
-        List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+        List<EntityDetail>  foundEntities = this.getMatchingEntities(entityTypeGUID,
+                                                                     entitySubtypeGUIDs,
+                                                                     skipSubtypes,
+                                                                     searchProperties,
+                                                                     limitResultsByStatus,
+                                                                     searchClassifications,
+                                                                     asOfTime,
+                                                                     methodName);
+
+        return repositoryHelper.formatEntityResults(foundEntities, fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
+    /**
+     * Return a list of entities that match the supplied criteria.  The page starts immediately after the entity
+     * recorded in the continuation token.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID String unique identifier for the entity type of interest (null means any entity type).
+     * @param entitySubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the entityTypeGUID to
+     *                           include in (or, if skipSubtypes is true, exclude from) the search results. Null means all subtypes.
+     * @param skipSubtypes if true, entitySubtypeGUIDs is treated as the list of subtypes to exclude from the search
+     *                      results rather than the only subtypes to include.  Ignored if entitySubtypeGUIDs is null.
+     * @param searchProperties Optional list of entity property conditions to match.
+     * @param continuationToken token returned with the previous page of results.  Null means start from the first element.
+     * @param limitResultsByStatus By default, entities in all non-DELETED statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values except DELETED.
+     * @param searchClassifications Optional list of entity classifications to match.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the entity property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result entities that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return a list of entities matching the supplied criteria; null means no matching entities in the metadata
+     * collection.
+     * @throws InvalidParameterException a parameter is invalid or null, or the continuation token is not valid.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  entity.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> findEntities(String                    userId,
+                                           String                    entityTypeGUID,
+                                           List<String>              entitySubtypeGUIDs,
+                                           boolean                   skipSubtypes,
+                                           SearchProperties          searchProperties,
+                                           String                    continuationToken,
+                                           List<InstanceStatus>      limitResultsByStatus,
+                                           SearchClassifications     searchClassifications,
+                                           Date                      asOfTime,
+                                           String                    sequencingProperty,
+                                           SequencingOrder           sequencingOrder,
+                                           int                       pageSize) throws InvalidParameterException,
+                                                                                      RepositoryErrorException,
+                                                                                      TypeErrorException,
+                                                                                      PropertyErrorException,
+                                                                                      PagingErrorException,
+                                                                                      UserNotAuthorizedException
+    {
+        final String  methodName = "findEntities";
+        final String  continuationTokenParameterName = "continuationToken";
+
+        ContinuationToken token = ContinuationToken.getContinuationToken(continuationToken,
+                                                                         continuationTokenParameterName,
+                                                                         methodName);
+
+        /*
+         * Validate parameters
+         */
+        super.findEntitiesParameterValidation(userId,
+                                              entityTypeGUID,
+                                              entitySubtypeGUIDs,
+                                              searchProperties,
+                                              token == null ? 0 : token.getNextElement(),
+                                              limitResultsByStatus,
+                                              searchClassifications,
+                                              asOfTime,
+                                              sequencingProperty,
+                                              sequencingOrder,
+                                              pageSize);
+
+        /*
+         * Perform operation
+         */
+        List<EntityDetail>  foundEntities = this.getMatchingEntities(entityTypeGUID,
+                                                                     entitySubtypeGUIDs,
+                                                                     skipSubtypes,
+                                                                     searchProperties,
+                                                                     limitResultsByStatus,
+                                                                     searchClassifications,
+                                                                     asOfTime,
+                                                                     methodName);
+
+        return repositoryHelper.formatEntityResults(foundEntities, token, sequencingProperty, sequencingOrder, pageSize);
+    }
 
-        for (EntityDetail  entity : entityStore.values())
+
+    /**
+     * Return all the entities that match the supplied criteria.  The candidate entities are selected from the
+     * repository store's type index and then each one is checked against the search criteria.
+     *
+     * @param entityTypeGUID String unique identifier for the entity type of interest (null means any entity type).
+     * @param entitySubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the entityTypeGUID
+     * @param skipSubtypes if true, entitySubtypeGUIDs is treated as the list of subtypes to exclude
+     * @param searchProperties Optional list of entity property conditions to match.
+     * @param limitResultsByStatus list of statuses to restrict the results to.
+     * @param searchClassifications Optional list of entity classifications to match.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param methodName calling method
+     * @return list of matching entities in an arbitrary order
+     * @throws InvalidParameterException the search criteria are invalid.
+     * @throws TypeErrorException the type guid passed on the request is not known by the metadata collection.
+     * @throws RepositoryErrorException problem retrieving the candidate entities.
+     */
+    private List<EntityDetail> getMatchingEntities(String                    entityTypeGUID,
+                                                   List<String>              entitySubtypeGUIDs,
+                                                   boolean                   skipSubtypes,
+                                                   SearchProperties          searchProperties,
+                                                   List<InstanceStatus>      limitResultsByStatus,
+                                                   SearchClassifications     searchClassifications,
+                                                   Date                      asOfTime,
+                                                   String                    methodName) throws InvalidParameterException,
+                                                                                                TypeErrorException,
+                                                                                                RepositoryErrorException
+    {
+        List<EntityDetail>  foundEntities = new ArrayList<>();
+        List<EntityDetail>  candidateEntities = repositoryStore.getCandidateEntities(getTypeNamesForQuery(entityTypeGUID, methodName),
+                                                                                     null,
+                                                                                     asOfTime);
+
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -536,7 +670,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
             }
         }
 
-        return repositoryHelper.formatEntityResults(foundEntities, fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+        return foundEntities;
     }
 
 
@@ -595,6 +729,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                        PagingErrorException,
                                                                                                        UserNotAuthorizedException
     {
+        final String  methodName = "findEntitiesByClassification";
+
         /*
          * Validate parameters
          */
@@ -613,16 +749,19 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
+         * The candidate entities are selected from the repository store's type and classification indexes and then
+         * each one is checked against the search criteria.
          */
-        Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
         List<EntityDetail>          foundEntities = new ArrayList<>();
 
         List<String>                classificationList = new ArrayList<>();
         classificationList.add(classificationName);
 
-        for (EntityDetail  entity : entityStore.values())
+        List<EntityDetail>          candidateEntities = repositoryStore.getCandidateEntities(getTypeNamesForQuery(entityTypeGUID, methodName),
+                                                                                             classificationList,
+                                                                                             asOfTime);
+
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -742,12 +881,15 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Process operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
+         * The candidate entities are selected from the repository store's indexes and then
+         * each one is checked against the search criteria.
          */
         List<EntityDetail>   foundEntities = new ArrayList<>();
+        List<EntityDetail>   candidateEntities = repositoryStore.getCandidateEntities(getTypeNamesForQuery(entityTypeGUID, methodName),
+                                                                                      limitResultsByClassification,
+                                                                                      asOfTime);
 
-        for (EntityDetail  entity : repositoryStore.timeWarpEntityStore(asOfTime).values())
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -872,7 +1014,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        Relationship  relationship = repositoryStore.timeWarpRelationshipStore(asOfTime).get(guid);
+        Relationship  relationship = repositoryStore.getRelationship(guid, asOfTime);
 
         repositoryValidator.validateRelationshipFromStore(repositoryName, guid, relationship, methodName);
         repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, relationship, methodName);
@@ -1019,6 +1161,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                             FunctionNotSupportedException,
                                                                                             UserNotAuthorizedException
     {
+        final String  methodName = "findRelationships";
+
         /*
          * Validate parameters
          */
@@ -1039,14 +1183,169 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
 
         /*
          * Perform operation
-         *
-         * This is a brute force implementation of locating a relationship since it iterates through all
-         * the stored entities.
          */
-        List<Relationship>         foundRelationships = new ArrayList<>();
-        Map<String, Relationship>  relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        List<Relationship>  foundRelationships = this.getMatchingRelationships(relationshipTypeGUID,
+                                                                               relationshipSubtypeGUIDs,
+                                                                               skipSubtypes,
+                                                                               end1EntityGUIDs,
+                                                                               end2EntityGUIDs,
+                                                                               endMatchCriteria,
+                                                                               matchProperties,
+                                                                               limitResultsByStatus,
+                                                                               asOfTime,
+                                                                               methodName);
 
-        for (Relationship  relationship : relationshipStore.values())
+        return repositoryHelper.formatRelationshipResults(foundRelationships,
+                fromRelationshipElement,
+                sequencingProperty,
+                sequencingOrder,
+                pageSize);
+    }
+
+
+    /**
+     * Return a list of relationships that match the requested conditions.  The page starts immediately after the
+     * relationship recorded in the continuation token.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types
+     *                             (but may be slow so not recommended).
+     * @param relationshipSubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the
+     *                                 relationshipTypeGUID to include in (or, if skipSubtypes is true, exclude from) the search results.
+     *                                 Null means all subtypes.
+     * @param skipSubtypes if true, relationshipSubtypeGUIDs is treated as the list of subtypes to exclude from the
+     *                     search results rather than the only subtypes to include.  Ignored if relationshipSubtypeGUIDs is null.
+     * @param end1EntityGUIDs optional list of entity guids used to match end 1 of the relationships.
+     * @param end2EntityGUIDs optional list of entity guids used to match end 2 of the relationships.
+     * @param endMatchCriteria criteria for matching the ends of the relationships.
+     * @param matchProperties Optional list of relationship property conditions to match.
+     * @param continuationToken token returned with the previous page of results.  Null means start from the first element.
+     * @param limitResultsByStatus By default, relationships in all non-DELETED statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values except DELETED.
+     * @param asOfTime Requests a historical query of the relationships for the entity.  Null means return the
+     *                 present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return a list of relationships.  Null means no matching relationships.
+     * @throws InvalidParameterException one of the parameters is invalid or null, or the continuation token is not valid.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  relationships.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support one of the provided parameters.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public  List<Relationship> findRelationships(String                    userId,
+                                                 String                    relationshipTypeGUID,
+                                                 List<String>              relationshipSubtypeGUIDs,
+                                                 boolean                   skipSubtypes,
+                                                 List<String>              end1EntityGUIDs,
+                                                 List<String>              end2EntityGUIDs,
+                                                 EndMatchCriteria          endMatchCriteria,
+                                                 SearchProperties          matchProperties,
+                                                 String                    continuationToken,
+                                                 List<InstanceStatus>      limitResultsByStatus,
+                                                 Date                      asOfTime,
+                                                 String                    sequencingProperty,
+                                                 SequencingOrder           sequencingOrder,
+                                                 int                       pageSize) throws InvalidParameterException,
+                                                                                            TypeErrorException,
+                                                                                            RepositoryErrorException,
+                                                                                            PropertyErrorException,
+                                                                                            PagingErrorException,
+                                                                                            FunctionNotSupportedException,
+                                                                                            UserNotAuthorizedException
+    {
+        final String  methodName = "findRelationships";
+        final String  continuationTokenParameterName = "continuationToken";
+
+        ContinuationToken token = ContinuationToken.getContinuationToken(continuationToken,
+                                                                         continuationTokenParameterName,
+                                                                         methodName);
+
+        /*
+         * Validate parameters
+         */
+        super.findRelationshipsParameterValidation(userId,
+                                                   relationshipTypeGUID,
+                                                   relationshipSubtypeGUIDs,
+                                                   end1EntityGUIDs,
+                                                   end2EntityGUIDs,
+                                                   endMatchCriteria,
+                                                   matchProperties,
+                                                   token == null ? 0 : token.getNextElement(),
+                                                   limitResultsByStatus,
+                                                   asOfTime,
+                                                   sequencingProperty,
+                                                   sequencingOrder,
+                                                   pageSize);
+
+        /*
+         * Perform operation
+         */
+        List<Relationship>  foundRelationships = this.getMatchingRelationships(relationshipTypeGUID,
+                                                                               relationshipSubtypeGUIDs,
+                                                                               skipSubtypes,
+                                                                               end1EntityGUIDs,
+                                                                               end2EntityGUIDs,
+                                                                               endMatchCriteria,
+                                                                               matchProperties,
+                                                                               limitResultsByStatus,
+                                                                               asOfTime,
+                                                                               methodName);
+
+        return repositoryHelper.formatRelationshipResults(foundRelationships, token, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
+    /**
+     * Return all the relationships that match the requested conditions.  The candidate relationships are selected
+     * from the repository store's type and entity indexes and then each one is checked against the search criteria.
+     *
+     * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types.
+     * @param relationshipSubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the relationshipTypeGUID
+     * @param skipSubtypes if true, relationshipSubtypeGUIDs is treated as the list of subtypes to exclude
+     * @param end1EntityGUIDs optional list of entity guids used to match end 1 of the relationships.
+     * @param end2EntityGUIDs optional list of entity guids used to match end 2 of the relationships.
+     * @param endMatchCriteria criteria for matching the ends of the relationships.
+     * @param matchProperties Optional list of relationship property conditions to match.
+     * @param limitResultsByStatus list of statuses to restrict the results to.
+     * @param asOfTime Requests a historical query of the relationships.  Null means return the present values.
+     * @param methodName calling method
+     * @return list of matching relationships in an arbitrary order
+     * @throws InvalidParameterException the search criteria are invalid.
+     * @throws TypeErrorException the type guid passed on the request is not known by the metadata collection.
+     * @throws RepositoryErrorException problem retrieving the candidate relationships.
+     */
+    private List<Relationship> getMatchingRelationships(String                    relationshipTypeGUID,
+                                                        List<String>              relationshipSubtypeGUIDs,
+                                                        boolean                   skipSubtypes,
+                                                        List<String>              end1EntityGUIDs,
+                                                        List<String>              end2EntityGUIDs,
+                                                        EndMatchCriteria          endMatchCriteria,
+                                                        SearchProperties          matchProperties,
+                                                        List<InstanceStatus>      limitResultsByStatus,
+                                                        Date                      asOfTime,
+                                                        String                    methodName) throws InvalidParameterException,
+                                                                                                     TypeErrorException,
+                                                                                                     RepositoryErrorException
+    {
+        List<Relationship>  foundRelationships = new ArrayList<>();
+        List<Relationship>  candidateRelationships = repositoryStore.getCandidateRelationships(getTypeNamesForQuery(relationshipTypeGUID, methodName),
+                                                                                               end1EntityGUIDs,
+                                                                                               end2EntityGUIDs,
+                                                                                               endMatchCriteria,
+                                                                                               asOfTime);
+
+        for (Relationship  relationship : candidateRelationships)
         {
             if (relationship != null)
             {
@@ -1060,11 +1359,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
             }
         }
 
-        return repositoryHelper.formatRelationshipResults(foundRelationships,
-                fromRelationshipElement,
-                sequencingProperty,
-                sequencingOrder,
-                pageSize);
+        return foundRelationships;
     }
 
 
@@ -1121,6 +1416,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                       FunctionNotSupportedException,
                                                                                                       UserNotAuthorizedException
     {
+        final String  methodName = "findRelationshipsByProperty";
+
         /*
          * Validate parameters
          */
@@ -1139,13 +1436,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all
-         * the stored entities.
+         * The candidate relationships are selected from the repository store's type index and then
+         * each one is checked against the search criteria.
          */
-        List<Relationship>         foundRelationships = new ArrayList<>();
-        Map<String, Relationship>  relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        List<Relationship>  foundRelationships = new ArrayList<>();
+        List<Relationship>  candidateRelationships = repositoryStore.getCandidateRelationships(getTypeNamesForQuery(relationshipTypeGUID, methodName),
+                                                                                               null,
+                                                                                               null,
+                                                                                               null,
+                                                                                               asOfTime);
 
-        for (Relationship  relationship : relationshipStore.values())
+        for (Relationship  relationship : candidateRelationships)
         {
             if (relationship != null)
             {
@@ -1242,12 +1543,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all
-         * the stored relationships.
+         * The candidate relationships are selected from the repository store's type index and then
+         * each one is checked against the search criteria.
          */
         List<Relationship>  foundRelationships = new ArrayList<>();
+        List<Relationship>  candidateRelationships = repositoryStore.getCandidateRelationships(getTypeNamesForQuery(relationshipTypeGUID, methodName),
+                                                                                               null,
+                                                                                               null,
+                                                                                               null,
+                                                                                               asOfTime);
 
-        for (Relationship  relationship : repositoryStore.timeWarpRelationshipStore(asOfTime).values())
+        for (Relationship  relationship : candidateRelationships)
         {
             if (relationship != null)
             {
@@ -1271,6 +1577,41 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Return the names of the type identified by the supplied GUID and all of its subtypes.  These are
+     * used to select the candidate instances for a query from the repository store's type indexes.
+     *
+     * @param typeGUID unique identifier of the type (or null for all types)
+     * @param methodName calling method
+     * @return list of type names or null to mean all types
+     * @throws TypeErrorException the type is not known
+     */
+    private List<String> getTypeNamesForQuery(String typeGUID,
+                                              String methodName) throws TypeErrorException
+    {
+        final String  guidParameterName = "typeGUID";
+
+        if (typeGUID == null)
+        {
+            return null;
+        }
+
+        TypeDef      typeDef   = repositoryHelper.getTypeDef(repositoryName, guidParameterName, typeGUID, methodName);
+        List<String> typeNames = new ArrayList<>();
+
+        typeNames.add(typeDef.getName());
+
+        List<String> subTypeNames = repositoryHelper.getSubTypesOf(repositoryName, typeDef.getName());
+
+        if (subTypeNames != null)
+        {
+            typeNames.addAll(subTypeNames);
+        }
+
+        return typeNames;
+    }
+
+
     /* ======================================================
      * Group 4: Maintaining entity and relationship instances
      */
@@ -3908,6 +4249,84 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Save a list of entities as reference copies.  All the entities are validated before any of them
+     * are added to the store.
+     *
+     * @param userId  unique identifier for requesting server.
+     * @param entities  details of the entities to save.
+     * @throws InvalidParameterException one of the entities is invalid.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for an entity's type.
+     * @throws HomeEntityException one of the entities belongs to the local repository so creating a reference
+     *                               copy would be invalid.
+     * @throws EntityConflictException a new entity conflicts with an existing entity.
+     * @throws InvalidEntityException a new entity has invalid contents.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public void saveEntityReferenceCopies(String             userId,
+                                          List<EntityDetail> entities) throws InvalidParameterException,
+                                                                              RepositoryErrorException,
+                                                                              TypeErrorException,
+                                                                              PropertyErrorException,
+                                                                              HomeEntityException,
+                                                                              EntityConflictException,
+                                                                              InvalidEntityException,
+                                                                              UserNotAuthorizedException
+    {
+        final String  methodName = "saveEntityReferenceCopies";
+        final String  instanceParameterName = "entity";
+
+        if ((entities == null) || (entities.isEmpty()))
+        {
+            return;
+        }
+
+        /*
+         * Validate parameters
+         */
+        this.validateRepositoryConnector(methodName);
+        parentConnector.validateRepositoryIsActive(methodName);
+
+        Map<String, TypeDef> typeDefs = new HashMap<>();
+
+        for (EntityDetail entity : entities)
+        {
+            repositoryValidator.validateReferenceInstanceHeader(repositoryName,
+                                                                metadataCollectionId,
+                                                                instanceParameterName,
+                                                                entity,
+                                                                auditLog,
+                                                                methodName);
+
+            String  typeDefGUID = entity.getType().getTypeDefGUID();
+            TypeDef typeDef     = typeDefs.get(typeDefGUID);
+
+            if (typeDef == null)
+            {
+                typeDef = repositoryHelper.getTypeDef(repositoryName, instanceParameterName, typeDefGUID, methodName);
+                typeDefs.put(typeDefGUID, typeDef);
+            }
+
+            repositoryValidator.validatePropertiesForType(repositoryName,
+                                                          instanceParameterName,
+                                                          typeDef,
+                                                          entity.getProperties(),
+                                                          methodName);
+        }
+
+        for (EntityDetail entity : entities)
+        {
+            repositoryStore.addEntityToStore(entity);
+        }
+    }
+
+
     /**
      * Retrieve any locally homed classifications assigned to the requested entity.  This method is implemented by repository connectors that are able
      * to store classifications for entities that are homed in another repository.
@@ -4259,6 +4678,90 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Save a list of relationships as reference copies.  All the relationships are validated before any of them
+     * are added to the store.  As with saveRelationshipReferenceCopy, the entity proxies at both ends of each
+     * relationship are saved so that a later version of a proxy in the list is not lost.
+     *
+     * @param userId unique identifier for requesting server.
+     * @param relationships relationships to save
+     * @throws InvalidParameterException one of the relationships is invalid.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws EntityNotKnownException one of the entities identified by a relationship is not found in the
+     *                                   metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for a relationship's type.
+     * @throws HomeRelationshipException one of the relationships belongs to the local repository so creating a
+     *                                     reference copy would be invalid.
+     * @throws RelationshipConflictException a new relationship conflicts with an existing relationship.
+     * @throws InvalidRelationshipException a new relationship has invalid contents.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public void saveRelationshipReferenceCopies(String             userId,
+                                                List<Relationship> relationships) throws InvalidParameterException,
+                                                                                         RepositoryErrorException,
+                                                                                         TypeErrorException,
+                                                                                         EntityNotKnownException,
+                                                                                         PropertyErrorException,
+                                                                                         HomeRelationshipException,
+                                                                                         RelationshipConflictException,
+                                                                                         InvalidRelationshipException,
+                                                                                         UserNotAuthorizedException
+    {
+        final String  methodName = "saveRelationshipReferenceCopies";
+        final String  instanceParameterName = "relationship";
+
+        if ((relationships == null) || (relationships.isEmpty()))
+        {
+            return;
+        }
+
+        /*
+         * Validate parameters
+         */
+        parentConnector.validateRepositoryIsActive(methodName);
+
+        Map<String, TypeDef> typeDefs = new HashMap<>();
+
+        for (Relationship relationship : relationships)
+        {
+            super.referenceInstanceParameterValidation(userId, relationship, instanceParameterName, methodName);
+
+            String  typeDefGUID = relationship.getType().getTypeDefGUID();
+            TypeDef typeDef     = typeDefs.get(typeDefGUID);
+
+            if (typeDef == null)
+            {
+                typeDef = repositoryHelper.getTypeDef(repositoryName, instanceParameterName, typeDefGUID, methodName);
+                typeDefs.put(typeDefGUID, typeDef);
+            }
+
+            repositoryValidator.validatePropertiesForType(repositoryName,
+                                                          instanceParameterName,
+                                                          typeDef,
+                                                          relationship.getProperties(),
+                                                          methodName);
+        }
+
+        for (Relationship relationship : relationships)
+        {
+            for (EntityProxy entityProxy : new EntityProxy[]{relationship.getEntityOneProxy(), relationship.getEntityTwoProxy()})
+            {
+                if (entityProxy != null)
+                {
+                    repositoryStore.addEntityProxyToStore(entityProxy);
+                }
+            }
+
+            repositoryStore.addRelationshipToStore(relationship);
+        }
+    }
+
+
     /**
      * Remove the reference copy of the relationship from the local repository. This method can be used to
      * remove reference copies from the local cohort, repositories that have left the cohort,
@@ -4,15 +4,21 @@ package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositorycon
 
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.EndMatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * InMemoryOMRSMetadataStore provides the in memory store for the InMemoryRepositoryConnector.
+ * Each instance is held in a StoredEntity or StoredRelationship that manages its chain of versions.
+ * The current version of an instance is replaced (never updated in place) when it changes, so it can be
+ * read without locking.  Updates are serialized by striped locks keyed on the instance's GUID, so
+ * requests for unrelated instances do not block one another.
  */
 class InMemoryOMRSMetadataStore
 {
@@ -20,8 +26,26 @@ class InMemoryOMRSMetadataStore
     private final OMRSRepositoryHelper repositoryHelper;
     private final String               localMetadataCollectionId;
 
-    private volatile Map<String, StoredEntity>       entityStore       = new HashMap<>();
-    private volatile Map<String, StoredRelationship> relationshipStore = new HashMap<>();
+    private final Map<String, StoredEntity>       entityStore       = new ConcurrentHashMap<>();
+    private final Map<String, StoredRelationship> relationshipStore = new ConcurrentHashMap<>();
+
+    /*
+     * Striped locks used to serialize the updates to the instances with the same GUID.  When both are needed,
+     * a relationship lock is always taken before an entity lock.
+     */
+    private static final int LOCK_STRIPE_COUNT = 256;
+
+    private final Object[] entityLocks       = new Object[LOCK_STRIPE_COUNT];
+    private final Object[] relationshipLocks = new Object[LOCK_STRIPE_COUNT];
+
+    /*
+     * Secondary indexes over the current version of each instance.  They are maintained by StoredEntity and
+     * StoredRelationship as new versions are saved and are used to select the candidates for a query.
+     * The relationships attached to each entity are held in the entity's StoredEntity.
+     */
+    private final InMemoryInstanceIndex entityTypeIndex           = new InMemoryInstanceIndex();
+    private final InMemoryInstanceIndex entityClassificationIndex = new InMemoryInstanceIndex();
+    private final InMemoryInstanceIndex relationshipTypeIndex     = new InMemoryInstanceIndex();
 
     private static final Logger log = LoggerFactory.getLogger(InMemoryOMRSMetadataStore.class);
 
@@ -35,11 +59,11 @@ class InMemoryOMRSMetadataStore
      * @param versionEndTime time when this version was superseded
      * @return boolean flag - true means it is valid
      */
-    static synchronized List<Classification> getClassificationsForInclusiveDate(String               classificationName,
-                                                                                Date                 fromTime,
-                                                                                Date                 toTime,
-                                                                                List<Classification> classifications,
-                                                                                Date                 versionEndTime)
+    static List<Classification> getClassificationsForInclusiveDate(String               classificationName,
+                                                                   Date                 fromTime,
+                                                                   Date                 toTime,
+                                                                   List<Classification> classifications,
+                                                                   Date                 versionEndTime)
     {
         if ((classifications != null) && (! classifications.isEmpty()))
         {
@@ -79,10 +103,10 @@ class InMemoryOMRSMetadataStore
      * @param versionEndTime time when this version was superseded
      * @return boolean flag - true means it is valid
      */
-    static synchronized boolean checkInclusiveDate(Date                fromTime,
-                                                   Date                toTime,
-                                                   InstanceAuditHeader instanceHeader,
-                                                   Date                versionEndTime)
+    static boolean checkInclusiveDate(Date                fromTime,
+                                      Date                toTime,
+                                      InstanceAuditHeader instanceHeader,
+                                      Date                versionEndTime)
     {
         Date versionStartTime = instanceHeader.getUpdateTime();
 
@@ -124,6 +148,36 @@ class InMemoryOMRSMetadataStore
         this.repositoryName = repositoryName;
         this.repositoryHelper = repositoryHelper;
         this.localMetadataCollectionId = localMetadataCollectionId;
+
+        for (int i = 0; i < LOCK_STRIPE_COUNT; i++)
+        {
+            entityLocks[i] = new Object();
+            relationshipLocks[i] = new Object();
+        }
+    }
+
+
+    /**
+     * Return the lock that serializes updates to the entity with the supplied GUID.
+     *
+     * @param guid unique identifier of the entity
+     * @return lock object
+     */
+    private Object getEntityLock(String guid)
+    {
+        return entityLocks[Math.floorMod(Objects.hashCode(guid), LOCK_STRIPE_COUNT)];
+    }
+
+
+    /**
+     * Return the lock that serializes updates to the relationship with the supplied GUID.
+     *
+     * @param guid unique identifier of the relationship
+     * @return lock object
+     */
+    private Object getRelationshipLock(String guid)
+    {
+        return relationshipLocks[Math.floorMod(Objects.hashCode(guid), LOCK_STRIPE_COUNT)];
     }
 
 
@@ -133,7 +187,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the entity
      * @return entity object
      */
-    synchronized EntityDetail  getEntity(String guid)
+    EntityDetail  getEntity(String guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -152,15 +206,17 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the entity
      * @return entity object
      */
-    synchronized EntitySummary  getEntitySummary(String guid)
+    EntitySummary  getEntitySummary(String guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
         if (storedEntity != null)
         {
-            if (storedEntity.getEntity() != null)
+            EntityDetail entityDetail = storedEntity.getEntity();
+
+            if (entityDetail != null)
             {
-                return storedEntity.getEntity();
+                return entityDetail;
             }
             else
             {
@@ -178,7 +234,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier
      * @return entity proxy object
      */
-    synchronized EntityProxy  getEntityProxy(String guid)
+    EntityProxy  getEntityProxy(String guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -192,15 +248,91 @@ class InMemoryOMRSMetadataStore
 
 
     /**
-     * Return an entity store that contains entities as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the version of the entity identified by the guid that was active at the time supplied in the
+     * asOfTime parameter.
      *
-     * @param asOfTime - time for the store (or null means now)
-     * @return entity store for the requested time
+     * @param guid - unique identifier for the entity
+     * @param asOfTime - time for the query (or null means now)
+     * @return entity object or null
      */
-    synchronized Map<String, EntityDetail>  timeWarpEntityStore(Date asOfTime)
+    EntityDetail  getEntity(String guid,
+                            Date   asOfTime)
     {
-        Map<String, EntityDetail>  timeWarpedEntityStore = new HashMap<>();
+        StoredEntity storedEntity = entityStore.get(guid);
+
+        if (storedEntity != null)
+        {
+            return storedEntity.getEntity(asOfTime);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the entities that are candidates for a query.  When asOfTime is null, the candidates are selected
+     * from the type and classification indexes rather than by scanning the store.  For a historical query,
+     * the version of each stored entity is resolved in place.  The caller must still verify each candidate
+     * against the query's criteria.
+     *
+     * @param typeNames - names of the types (including subtypes) of entity to return (null means all types)
+     * @param classificationNames - names of classifications that the entities must have at least one of (null means no restriction)
+     * @param asOfTime - time for the query (or null means now)
+     * @return list of candidate entities
+     */
+    List<EntityDetail>  getCandidateEntities(List<String> typeNames,
+                                            List<String> classificationNames,
+                                            Date         asOfTime)
+    {
+        List<EntityDetail> candidates = new ArrayList<>();
+
+        if (asOfTime == null)
+        {
+            Set<String> candidateGUIDs = null;
+
+            if (typeNames != null)
+            {
+                candidateGUIDs = entityTypeIndex.getGUIDs(typeNames);
+            }
+
+            if (classificationNames != null)
+            {
+                /*
+                 * An entity matches if it has any of the classifications (see verifyEntityIsClassified), so the
+                 * classified entities are the union of the index entries for each (non-null) name.
+                 */
+                Set<String> classifiedGUIDs = entityClassificationIndex.getGUIDs(classificationNames);
+
+                if (candidateGUIDs == null)
+                {
+                    candidateGUIDs = classifiedGUIDs;
+                }
+                else
+                {
+                    candidateGUIDs.retainAll(classifiedGUIDs);
+                }
+            }
+
+            if (candidateGUIDs != null)
+            {
+                for (String guid : candidateGUIDs)
+                {
+                    StoredEntity storedEntity = entityStore.get(guid);
+
+                    if (storedEntity != null)
+                    {
+                        EntityDetail entityDetail = storedEntity.getEntity();
+
+                        if (entityDetail != null)
+                        {
+                            candidates.add(entityDetail);
+                        }
+                    }
+                }
+
+                return candidates;
+            }
+        }
 
         for (StoredEntity storedEntity : entityStore.values())
         {
@@ -208,11 +340,11 @@ class InMemoryOMRSMetadataStore
 
             if (entityDetail != null)
             {
-                timeWarpedEntityStore.put(entityDetail.getGUID(), entityDetail);
+                candidates.add(entityDetail);
             }
         }
 
-        return timeWarpedEntityStore;
+        return candidates;
     }
 
 
@@ -222,7 +354,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the relationship
      * @return relationship object
      */
-    synchronized Relationship  getRelationship(String guid)
+    Relationship  getRelationship(String guid)
     {
         StoredRelationship storedRelationship = relationshipStore.get(guid);
 
@@ -236,15 +368,109 @@ class InMemoryOMRSMetadataStore
 
 
     /**
-     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the version of the relationship identified by the guid that was active at the time supplied in the
+     * asOfTime parameter.
+     *
+     * @param guid - unique identifier for the relationship
+     * @param asOfTime - time for the query (or null means now)
+     * @return relationship object or null
+     */
+    Relationship  getRelationship(String guid,
+                                  Date   asOfTime)
+    {
+        StoredRelationship storedRelationship = relationshipStore.get(guid);
+
+        if (storedRelationship != null)
+        {
+            return storedRelationship.getRelationship(asOfTime);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the relationships that are candidates for a query.  When asOfTime is null, the candidates are selected
+     * from the type index and the relationships attached to the requested end entities rather than by scanning the store.
+     * For a historical query, the version of each stored relationship is resolved in place.  The caller must still
+     * verify each candidate against the query's criteria.
      *
-     * @param asOfTime - time for the store (or null means now)
-     * @return relationship store for the requested time
+     * @param typeNames - names of the types (including subtypes) of relationship to return (null means all types)
+     * @param end1EntityGUIDs - unique identifiers of the entities that may be at end 1 (null means no restriction)
+     * @param end2EntityGUIDs - unique identifiers of the entities that may be at end 2 (null means no restriction)
+     * @param endMatchCriteria - criteria for matching the ends of the relationship
+     * @param asOfTime - time for the query (or null means now)
+     * @return list of candidate relationships
      */
-    synchronized Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
+    List<Relationship>  getCandidateRelationships(List<String>     typeNames,
+                                                 List<String>     end1EntityGUIDs,
+                                                 List<String>     end2EntityGUIDs,
+                                                 EndMatchCriteria endMatchCriteria,
+                                                 Date             asOfTime)
     {
-        Map<String, Relationship>  timeWarpedRelationshipStore = new HashMap<>();
+        List<Relationship> candidates = new ArrayList<>();
+
+        if (asOfTime == null)
+        {
+            Set<String> candidateGUIDs = null;
+
+            if (typeNames != null)
+            {
+                candidateGUIDs = relationshipTypeIndex.getGUIDs(typeNames);
+            }
+
+            Set<String> attachedGUIDs = null;
+
+            if (endMatchCriteria == EndMatchCriteria.BOTH)
+            {
+                /*
+                 * Each supplied list of end GUIDs restricts the results.
+                 */
+                if (end1EntityGUIDs != null)
+                {
+                    attachedGUIDs = getAttachedRelationshipGUIDs(end1EntityGUIDs, true, false);
+                }
+
+                if (end2EntityGUIDs != null)
+                {
+                    Set<String> end2AttachedGUIDs = getAttachedRelationshipGUIDs(end2EntityGUIDs, false, true);
+
+                    if (attachedGUIDs == null)
+                    {
+                        attachedGUIDs = end2AttachedGUIDs;
+                    }
+                    else
+                    {
+                        attachedGUIDs.retainAll(end2AttachedGUIDs);
+                    }
+                }
+            }
+            else if ((endMatchCriteria == EndMatchCriteria.ANY) && (end1EntityGUIDs != null) && (end2EntityGUIDs != null))
+            {
+                /*
+                 * A match on either end is sufficient - a missing list of end GUIDs matches everything.
+                 */
+                attachedGUIDs = getAttachedRelationshipGUIDs(end1EntityGUIDs, true, false);
+                attachedGUIDs.addAll(getAttachedRelationshipGUIDs(end2EntityGUIDs, false, true));
+            }
+
+            if (attachedGUIDs != null)
+            {
+                if (candidateGUIDs == null)
+                {
+                    candidateGUIDs = attachedGUIDs;
+                }
+                else
+                {
+                    candidateGUIDs.retainAll(attachedGUIDs);
+                }
+            }
+
+            if (candidateGUIDs != null)
+            {
+                return getCurrentRelationships(candidateGUIDs);
+            }
+        }
 
         for (StoredRelationship storedRelationship : relationshipStore.values())
         {
@@ -252,11 +478,180 @@ class InMemoryOMRSMetadataStore
 
             if (relationship != null)
             {
-                timeWarpedRelationshipStore.put(relationship.getGUID(), relationship);
+                candidates.add(relationship);
             }
         }
 
-        return timeWarpedRelationshipStore;
+        return candidates;
+    }
+
+
+    /**
+     * Return the relationships attached to an entity.  When asOfTime is null, the relationships are located
+     * through the entity's adjacency lists so the cost depends on the number of attached relationships rather than the
+     * size of the store.  For a historical query, the version of each stored relationship is resolved in place.
+     *
+     * @param entityGUID - unique identifier of the entity
+     * @param asOfTime - time for the query (or null means now)
+     * @return list of relationships (empty if none)
+     */
+    List<Relationship>  getRelationshipsForEntity(String entityGUID,
+                                                 Date   asOfTime)
+    {
+        if (asOfTime == null)
+        {
+            List<String> entityGUIDs = Collections.singletonList(entityGUID);
+
+            Set<String> attachedGUIDs = getAttachedRelationshipGUIDs(entityGUIDs, true, true);
+
+            return getCurrentRelationships(attachedGUIDs);
+        }
+
+        List<Relationship> results = new ArrayList<>();
+
+        for (StoredRelationship storedRelationship : relationshipStore.values())
+        {
+            Relationship relationship = storedRelationship.getRelationship(asOfTime);
+
+            if ((relationship != null) &&
+                ((entityGUID.equals(relationship.getEntityOneProxy().getGUID())) ||
+                 (entityGUID.equals(relationship.getEntityTwoProxy().getGUID()))))
+            {
+                results.add(relationship);
+            }
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Return the unique identifiers of the relationships attached to the requested ends of a list of entities.
+     *
+     * @param entityGUIDs - unique identifiers of the entities
+     * @param includeEnd1 - include the relationships where the entity is at end 1
+     * @param includeEnd2 - include the relationships where the entity is at end 2
+     * @return set of relationship GUIDs
+     */
+    private Set<String> getAttachedRelationshipGUIDs(List<String> entityGUIDs,
+                                                     boolean      includeEnd1,
+                                                     boolean      includeEnd2)
+    {
+        Set<String> results = new HashSet<>();
+
+        for (String entityGUID : entityGUIDs)
+        {
+            StoredEntity storedEntity = (entityGUID == null) ? null : entityStore.get(entityGUID);
+
+            if (storedEntity != null)
+            {
+                storedEntity.addAttachedRelationshipGUIDs(includeEnd1, includeEnd2, results);
+            }
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Return the current version of each of the requested relationships.
+     *
+     * @param relationshipGUIDs - unique identifiers of the relationships
+     * @return list of relationships (empty if none)
+     */
+    private List<Relationship> getCurrentRelationships(Set<String> relationshipGUIDs)
+    {
+        List<Relationship> results = new ArrayList<>();
+
+        for (String relationshipGUID : relationshipGUIDs)
+        {
+            StoredRelationship storedRelationship = relationshipStore.get(relationshipGUID);
+
+            if (storedRelationship != null)
+            {
+                Relationship relationship = storedRelationship.getRelationship();
+
+                if (relationship != null)
+                {
+                    results.add(relationship);
+                }
+            }
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Record that a relationship is attached to an end of an entity.  If the entity is not stored yet
+     * (for example, because a relationship is re-pointed before its new entity is saved) a placeholder is
+     * created to hold the entity's adjacency lists.
+     *
+     * @param entityGUID - unique identifier of the entity
+     * @param relationshipGUID - unique identifier of the relationship
+     * @param isEnd1 - true if the entity is at end 1 of the relationship
+     */
+    private void attachRelationshipToEntity(String  entityGUID,
+                                            String  relationshipGUID,
+                                            boolean isEnd1)
+    {
+        synchronized (getEntityLock(entityGUID))
+        {
+            StoredEntity storedEntity = entityStore.get(entityGUID);
+
+            if (storedEntity == null)
+            {
+                storedEntity = new StoredEntity();
+                entityStore.put(entityGUID, storedEntity);
+            }
+
+            storedEntity.attachRelationship(relationshipGUID, isEnd1);
+        }
+    }
+
+
+    /**
+     * Record that a relationship is no longer attached to an end of an entity.  Any placeholder that
+     * is no longer needed is removed from the entity store.
+     *
+     * @param entityGUID - unique identifier of the entity
+     * @param relationshipGUID - unique identifier of the relationship
+     * @param isEnd1 - true if the entity is at end 1 of the relationship
+     */
+    private void detachRelationshipFromEntity(String  entityGUID,
+                                              String  relationshipGUID,
+                                              boolean isEnd1)
+    {
+        synchronized (getEntityLock(entityGUID))
+        {
+            StoredEntity storedEntity = entityStore.get(entityGUID);
+
+            if (storedEntity != null)
+            {
+                storedEntity.detachRelationship(relationshipGUID, isEnd1);
+
+                if ((storedEntity.isPlaceholder()) && (! storedEntity.hasAttachedRelationships()))
+                {
+                    entityStore.remove(entityGUID);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return true if the supplied GUID is used by a stored entity or entity proxy.  Placeholders holding
+     * the adjacency lists of an entity that is not stored do not count.  The caller must hold the entity lock
+     * for the GUID.
+     *
+     * @param guid - unique identifier to test
+     * @return boolean flag
+     */
+    private boolean isEntityGUIDInUse(String guid)
+    {
+        StoredEntity storedEntity = entityStore.get(guid);
+
+        return (storedEntity != null) && (! storedEntity.isPlaceholder());
     }
 
 
@@ -267,27 +662,38 @@ class InMemoryOMRSMetadataStore
      * @return entity with potentially updated GUID
      * @throws RepositoryErrorException problem generating entity proxy - probably bad entity
      */
-    synchronized EntityDetail createEntityInStore(EntityDetail entity) throws RepositoryErrorException
+    EntityDetail createEntityInStore(EntityDetail entity) throws RepositoryErrorException
     {
         entity.setGUID(generateGUID(entity.getType().getTypeDefName(), entity.getGUID()));
 
-        StoredEntity newStoredEntity = new StoredEntity(entity);
-
         /*
          * There is a small chance the randomly generated GUID will clash with an existing entity.
-         * If this happens a new GUID is generated for the entity and the process repeats.
+         * If this happens a new GUID is generated for the entity and the process repeats.  The GUID is
+         * settled before the stored entity is created so that the indexes are not updated for the clashing GUID.
          */
-        StoredEntity existingStoredEntity = entityStore.put(entity.getGUID(), newStoredEntity);
-
-        while (existingStoredEntity != null)
+        while (true)
         {
-            entityStore.put(entity.getGUID(), existingStoredEntity);
+            synchronized (getEntityLock(entity.getGUID()))
+            {
+                if (! isEntityGUIDInUse(entity.getGUID()))
+                {
+                    StoredEntity placeholder = entityStore.get(entity.getGUID());
+
+                    if (placeholder == null)
+                    {
+                        entityStore.put(entity.getGUID(), new StoredEntity(entity));
+                    }
+                    else
+                    {
+                        placeholder.saveEntity(entity);
+                    }
+
+                    return entity;
+                }
+            }
+
             entity.setGUID(generateGUID(entity.getType().getTypeDefName(), UUID.randomUUID().toString()));
-            newStoredEntity = new StoredEntity(entity);
-            existingStoredEntity = entityStore.put(entity.getGUID(), newStoredEntity);
         }
-
-        return entity;
     }
 
 
@@ -311,27 +717,29 @@ class InMemoryOMRSMetadataStore
      * @param relationship - new version of the relationship
      * @return relationship with potentially updated GUID
      */
-    synchronized Relationship createRelationshipInStore(Relationship relationship)
+    Relationship createRelationshipInStore(Relationship relationship)
     {
         relationship.setGUID(generateGUID(relationship.getType().getTypeDefName(), relationship.getGUID()));
 
-        StoredRelationship newStoredRelationship = new StoredRelationship(relationship);
-
         /*
          * There is a small chance the randomly generated GUID will clash with an existing relationship.
-         * If this happens a new GUID is generated for the relationship and the process repeats.
+         * If this happens a new GUID is generated for the relationship and the process repeats.  The GUID is
+         * settled before the stored relationship is created so that the indexes are not updated for the clashing GUID.
          */
-        StoredRelationship existingStoredRelationship = relationshipStore.put(relationship.getGUID(), newStoredRelationship);
-
-        while (existingStoredRelationship != null)
+        while (true)
         {
-            relationshipStore.put(relationship.getGUID(), existingStoredRelationship);
+            synchronized (getRelationshipLock(relationship.getGUID()))
+            {
+                if (! relationshipStore.containsKey(relationship.getGUID()))
+                {
+                    relationshipStore.put(relationship.getGUID(), new StoredRelationship(relationship));
+
+                    return relationship;
+                }
+            }
+
             relationship.setGUID(generateGUID(relationship.getType().getTypeDefName(), UUID.randomUUID().toString()));
-            newStoredRelationship = new StoredRelationship(relationship);
-            existingStoredRelationship = relationshipStore.put(relationship.getGUID(), newStoredRelationship);
         }
-
-        return relationship;
     }
 
 
@@ -341,17 +749,20 @@ class InMemoryOMRSMetadataStore
      * @param entityDetail - entity object to add
      * @throws RepositoryErrorException unable to create proxy
      */
-    synchronized void addEntityToStore(EntityDetail entityDetail) throws RepositoryErrorException
+    void addEntityToStore(EntityDetail entityDetail) throws RepositoryErrorException
     {
-        StoredEntity storedEntity = entityStore.get(entityDetail.getGUID());
-
-        if (storedEntity == null)
-        {
-            entityStore.put(entityDetail.getGUID(), new StoredEntity(entityDetail));
-        }
-        else
+        synchronized (getEntityLock(entityDetail.getGUID()))
         {
-            storedEntity.saveEntity(entityDetail);
+            StoredEntity storedEntity = entityStore.get(entityDetail.getGUID());
+
+            if (storedEntity == null)
+            {
+                entityStore.put(entityDetail.getGUID(), new StoredEntity(entityDetail));
+            }
+            else
+            {
+                storedEntity.saveEntity(entityDetail);
+            }
         }
     }
 
@@ -362,17 +773,20 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityProxy - entity proxy object to add
      */
-    synchronized void addEntityProxyToStore(EntityProxy entityProxy)
+    void addEntityProxyToStore(EntityProxy entityProxy)
     {
-        StoredEntity storedEntity = entityStore.get(entityProxy.getGUID());
-
-        if (storedEntity == null)
+        synchronized (getEntityLock(entityProxy.getGUID()))
         {
-            entityStore.put(entityProxy.getGUID(), new StoredEntity(entityProxy));
-        }
-        else
-        {
-            storedEntity.saveEntityProxy(entityProxy);
+            StoredEntity storedEntity = entityStore.get(entityProxy.getGUID());
+
+            if (storedEntity == null)
+            {
+                entityStore.put(entityProxy.getGUID(), new StoredEntity(entityProxy));
+            }
+            else
+            {
+                storedEntity.saveEntityProxy(entityProxy);
+            }
         }
     }
 
@@ -382,17 +796,20 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - entity proxy object to add
      */
-    synchronized void addRelationshipToStore(Relationship relationship)
+    void addRelationshipToStore(Relationship relationship)
     {
-        StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
-
-        if (storedRelationship == null)
-        {
-            relationshipStore.put(relationship.getGUID(), new StoredRelationship(relationship));
-        }
-        else
+        synchronized (getRelationshipLock(relationship.getGUID()))
         {
-            storedRelationship.saveRelationship(relationship);
+            StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
+
+            if (storedRelationship == null)
+            {
+                relationshipStore.put(relationship.getGUID(), new StoredRelationship(relationship));
+            }
+            else
+            {
+                storedRelationship.saveRelationship(relationship);
+            }
         }
     }
 
@@ -404,17 +821,20 @@ class InMemoryOMRSMetadataStore
      * @param entity - new version of the entity
      * @throws RepositoryErrorException problem generating entity proxy - probably bad entity
      */
-    synchronized void updateEntityInStore(EntityDetail entity) throws RepositoryErrorException
+    void updateEntityInStore(EntityDetail entity) throws RepositoryErrorException
     {
-        StoredEntity storedEntity = entityStore.get(entity.getGUID());
-
-        if (storedEntity == null)
-        {
-            entityStore.put(entity.getGUID(), new StoredEntity(entity));
-        }
-        else
+        synchronized (getEntityLock(entity.getGUID()))
         {
-            storedEntity.saveEntity(entity);
+            StoredEntity storedEntity = entityStore.get(entity.getGUID());
+
+            if (storedEntity == null)
+            {
+                entityStore.put(entity.getGUID(), new StoredEntity(entity));
+            }
+            else
+            {
+                storedEntity.saveEntity(entity);
+            }
         }
     }
 
@@ -425,14 +845,17 @@ class InMemoryOMRSMetadataStore
      * @param entityGUID unique identifier of entity
      * @param classification classification to update
      */
-    synchronized void saveClassification(String          entityGUID,
-                                         Classification  classification)
+    void saveClassification(String          entityGUID,
+                            Classification  classification)
     {
-        StoredEntity storedEntity = entityStore.get(entityGUID);
-
-        if (storedEntity != null)
+        synchronized (getEntityLock(entityGUID))
         {
-           storedEntity.saveClassification(classification);
+            StoredEntity storedEntity = entityStore.get(entityGUID);
+
+            if (storedEntity != null)
+            {
+                storedEntity.saveClassification(classification);
+            }
         }
     }
 
@@ -443,14 +866,17 @@ class InMemoryOMRSMetadataStore
      * @param entityDetail entity
      * @param classificationName name of classification to remove
      */
-    synchronized EntityDetail removeClassificationFromEntity(EntityDetail entityDetail,
-                                                             String       classificationName)
+    EntityDetail removeClassificationFromEntity(EntityDetail entityDetail,
+                                                String       classificationName)
     {
-        StoredEntity storedEntity = entityStore.get(entityDetail.getGUID());
-
-        if (storedEntity != null)
+        synchronized (getEntityLock(entityDetail.getGUID()))
         {
-            return storedEntity.removeClassificationFromEntity(classificationName);
+            StoredEntity storedEntity = entityStore.get(entityDetail.getGUID());
+
+            if (storedEntity != null)
+            {
+                return storedEntity.removeClassificationFromEntity(classificationName);
+            }
         }
 
         return null;
@@ -463,14 +889,17 @@ class InMemoryOMRSMetadataStore
      * @param entityProxy entity
      * @param classificationName name of classification to remove
      */
-    synchronized Classification removeClassificationFromProxy(EntityProxy entityProxy,
-                                                              String      classificationName)
+    Classification removeClassificationFromProxy(EntityProxy entityProxy,
+                                                 String      classificationName)
     {
-        StoredEntity storedEntity = entityStore.get(entityProxy.getGUID());
-
-        if (storedEntity != null)
+        synchronized (getEntityLock(entityProxy.getGUID()))
         {
-            return storedEntity.removeClassificationFromEntityProxy(classificationName);
+            StoredEntity storedEntity = entityStore.get(entityProxy.getGUID());
+
+            if (storedEntity != null)
+            {
+                return storedEntity.removeClassificationFromEntityProxy(classificationName);
+            }
         }
 
         return null;
@@ -483,17 +912,20 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - new version of the relationship
      */
-    synchronized void updateRelationshipInStore(Relationship relationship)
+    void updateRelationshipInStore(Relationship relationship)
     {
-        StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
-
-        if (storedRelationship == null)
+        synchronized (getRelationshipLock(relationship.getGUID()))
         {
-            relationshipStore.put(relationship.getGUID(), new StoredRelationship(relationship));
-        }
-        else
-        {
-            storedRelationship.saveRelationship(relationship);
+            StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
+
+            if (storedRelationship == null)
+            {
+                relationshipStore.put(relationship.getGUID(), new StoredRelationship(relationship));
+            }
+            else
+            {
+                storedRelationship.saveRelationship(relationship);
+            }
         }
     }
 
@@ -505,7 +937,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the required element
      * @return - previous version of this relationship - or null if not found
      */
-    synchronized Relationship retrievePreviousVersionOfRelationship(String   guid)
+    Relationship retrievePreviousVersionOfRelationship(String   guid)
     {
         StoredRelationship storedRelationship = relationshipStore.get(guid);
 
@@ -525,7 +957,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the required element
      * @return - previous version of this Entity - or null if not found
      */
-    synchronized EntityDetail retrievePreviousVersionOfEntity(String   guid)
+    EntityDetail retrievePreviousVersionOfEntity(String   guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -544,7 +976,7 @@ class InMemoryOMRSMetadataStore
      * @param guid unique identifier of the entity
      * @return list of classifications or null
      */
-    synchronized List<Classification> getHomeClassifications(String guid)
+    List<Classification> getHomeClassifications(String guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -566,10 +998,10 @@ class InMemoryOMRSMetadataStore
      * @param oldestFirst ordering
      * @return list of instance versions
      */
-    synchronized List<EntityDetail> getEntityHistory(String  guid,
-                                                     Date    fromTime,
-                                                     Date    toTime,
-                                                     boolean oldestFirst)
+    List<EntityDetail> getEntityHistory(String  guid,
+                                        Date    fromTime,
+                                        Date    toTime,
+                                        boolean oldestFirst)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -592,11 +1024,11 @@ class InMemoryOMRSMetadataStore
      * @param oldestFirst ordering
      * @return list of instance versions
      */
-    synchronized List<Classification> getClassificationHistory(String  guid,
-                                                               String  classificationName,
-                                                               Date    fromTime,
-                                                               Date    toTime,
-                                                               boolean oldestFirst)
+    List<Classification> getClassificationHistory(String  guid,
+                                                  String  classificationName,
+                                                  Date    fromTime,
+                                                  Date    toTime,
+                                                  boolean oldestFirst)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -618,10 +1050,10 @@ class InMemoryOMRSMetadataStore
      * @param oldestFirst ordering
      * @return list of instance versions
      */
-    synchronized  List<Relationship> getRelationshipHistory(String  guid,
-                                                            Date    fromTime,
-                                                            Date    toTime,
-                                                            boolean oldestFirst)
+    List<Relationship> getRelationshipHistory(String  guid,
+                                              Date    fromTime,
+                                              Date    toTime,
+                                              boolean oldestFirst)
     {
         StoredRelationship storedRelationship = relationshipStore.get(guid);
 
@@ -639,13 +1071,24 @@ class InMemoryOMRSMetadataStore
      *
      * @param guid - entity to remove
      */
-    synchronized void purgeEntityFromStore(String guid)
+    void purgeEntityFromStore(String guid)
     {
-        StoredEntity storedEntity = entityStore.get(guid);
-
-        if (storedEntity != null)
+        synchronized (getEntityLock(guid))
         {
-            entityStore.remove(guid);
+            StoredEntity storedEntity = entityStore.get(guid);
+
+            if (storedEntity != null)
+            {
+                storedEntity.purgeEntity();
+
+                /*
+                 * A placeholder is retained if relationships are still attached to the entity.
+                 */
+                if (! storedEntity.hasAttachedRelationships())
+                {
+                    entityStore.remove(guid);
+                }
+            }
         }
     }
 
@@ -656,18 +1099,21 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - relationship to remove
      */
-    synchronized void removeRelationshipFromStore(Relationship     relationship)
+    void removeRelationshipFromStore(Relationship     relationship)
     {
-        StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
-
-        if (storedRelationship == null)
+        synchronized (getRelationshipLock(relationship.getGUID()))
         {
-            storedRelationship = new StoredRelationship(relationship);
+            StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
 
-            relationshipStore.put(relationship.getGUID(), storedRelationship);
-        }
+            if (storedRelationship == null)
+            {
+                storedRelationship = new StoredRelationship(relationship);
+
+                relationshipStore.put(relationship.getGUID(), storedRelationship);
+            }
 
-        storedRelationship.purgeRelationship();
+            storedRelationship.purgeRelationship();
+        }
     }
 
 
@@ -676,13 +1122,16 @@ class InMemoryOMRSMetadataStore
      *
      * @param guid - relationship to remove
      */
-    synchronized void purgeRelationshipFromStore(String guid)
+    void purgeRelationshipFromStore(String guid)
     {
-        StoredRelationship storedRelationship = relationshipStore.get(guid);
-
-        if (storedRelationship != null)
+        synchronized (getRelationshipLock(guid))
         {
-            relationshipStore.remove(guid);
+            StoredRelationship storedRelationship = relationshipStore.remove(guid);
+
+            if (storedRelationship != null)
+            {
+                storedRelationship.removeFromIndexes();
+            }
         }
     }
 
@@ -696,8 +1145,25 @@ class InMemoryOMRSMetadataStore
         private final Map<String, HomeClassification> homeClassifications = new HashMap<>();
         private final List<EntityDetail>              entityHistory       = new ArrayList<>();
 
-        private EntityDetail entity = null;
-        private EntityProxy  entityProxy = null;
+        private volatile EntityDetail entity = null;
+        private volatile EntityProxy  entityProxy = null;
+
+        private Set<String>  indexedTypeNames           = null;
+        private Set<String>  indexedClassificationNames = null;
+
+        /*
+         * Adjacency lists of the relationships attached to each end of the entity.
+         */
+        private final Set<String> end1RelationshipGUIDs = ConcurrentHashMap.newKeySet();
+        private final Set<String> end2RelationshipGUIDs = ConcurrentHashMap.newKeySet();
+
+
+        /**
+         * Constructor for a placeholder that holds the adjacency lists of an entity that is not stored.
+         */
+        StoredEntity()
+        {
+        }
 
         /**
          * Constructor for when the first element stored is an entity
@@ -972,6 +1438,8 @@ class InMemoryOMRSMetadataStore
          */
         synchronized void saveEntity(EntityDetail entity) throws RepositoryErrorException
         {
+            EntityDetail latestEntity = (this.entity == null) ? null : new EntityDetail(this.entity);
+
             saveHomeClassifications(entity);
 
             /*
@@ -985,12 +1453,15 @@ class InMemoryOMRSMetadataStore
                     entityHistory.add(0, this.entity);
                 }
 
-                this.entity = new EntityDetail(entity);
+                latestEntity = new EntityDetail(entity);
             }
 
-            addHomeClassifications(this.entity);
+            addHomeClassifications(latestEntity);
 
-            this.entityProxy = repositoryHelper.getNewEntityProxy(repositoryName, this.entity);
+            this.entity = latestEntity;
+            this.entityProxy = repositoryHelper.getNewEntityProxy(repositoryName, latestEntity);
+
+            refreshIndexes();
         }
 
 
@@ -1008,16 +1479,29 @@ class InMemoryOMRSMetadataStore
              */
             saveHomeClassifications(entityProxy);
 
+            EntityProxy latestEntityProxy;
+
             if ((this.entityProxy == null) || (entityProxy.getVersion() >= this.entityProxy.getVersion()))
             {
-                this.entityProxy = new EntityProxy(entityProxy);
+                latestEntityProxy = new EntityProxy(entityProxy);
             }
+            else
+            {
+                latestEntityProxy = new EntityProxy(this.entityProxy);
+            }
+
+            addHomeClassifications(latestEntityProxy);
 
-            addHomeClassifications(this.entityProxy);
+            this.entityProxy = latestEntityProxy;
 
             if (this.entity != null)
             {
-                addHomeClassifications(this.entity);
+                EntityDetail latestEntity = new EntityDetail(this.entity);
+
+                addHomeClassifications(latestEntity);
+
+                this.entity = latestEntity;
+                refreshIndexes();
             }
         }
 
@@ -1037,13 +1521,171 @@ class InMemoryOMRSMetadataStore
 
                 if (this.entity != null)
                 {
-                    repositoryHelper.addClassificationToEntity(repositoryName, this.entity, new Classification(classification), methodName);
+                    EntityDetail latestEntity = new EntityDetail(this.entity);
+
+                    repositoryHelper.addClassificationToEntity(repositoryName, latestEntity, new Classification(classification), methodName);
+
+                    this.entity = latestEntity;
                 }
 
                 if (this.entityProxy != null)
                 {
-                    repositoryHelper.addClassificationToEntity(repositoryName, this.entityProxy, new Classification(classification), methodName);
+                    EntityProxy latestEntityProxy = new EntityProxy(this.entityProxy);
+
+                    repositoryHelper.addClassificationToEntity(repositoryName, latestEntityProxy, new Classification(classification), methodName);
+
+                    this.entityProxy = latestEntityProxy;
+                }
+
+                refreshIndexes();
+            }
+        }
+
+
+        /**
+         * Update the store's indexes to reflect the type and classifications of the current version of the entity.
+         * Entities that are only known through a proxy are not indexed since they are not returned by queries.
+         */
+        private synchronized void refreshIndexes()
+        {
+            EntityDetail currentEntity = this.entity;
+
+            if (currentEntity != null)
+            {
+                Set<String> typeNames           = null;
+                Set<String> classificationNames = null;
+
+                if (currentEntity.getType() != null)
+                {
+                    typeNames = Collections.singleton(currentEntity.getType().getTypeDefName());
+                }
+
+                if (currentEntity.getClassifications() != null)
+                {
+                    classificationNames = new HashSet<>();
+
+                    for (Classification classification : currentEntity.getClassifications())
+                    {
+                        if (classification != null)
+                        {
+                            classificationNames.add(classification.getName());
+                        }
+                    }
                 }
+
+                entityTypeIndex.reindex(currentEntity.getGUID(), indexedTypeNames, typeNames);
+                entityClassificationIndex.reindex(currentEntity.getGUID(), indexedClassificationNames, classificationNames);
+
+                indexedTypeNames = typeNames;
+                indexedClassificationNames = classificationNames;
+            }
+        }
+
+
+        /**
+         * Remove the entity, its proxy and its history because it is being purged.  The adjacency lists are
+         * retained because they are maintained by the attached relationships.
+         */
+        synchronized void purgeEntity()
+        {
+            if (this.entity != null)
+            {
+                entityTypeIndex.reindex(this.entity.getGUID(), indexedTypeNames, null);
+                entityClassificationIndex.reindex(this.entity.getGUID(), indexedClassificationNames, null);
+            }
+
+            indexedTypeNames = null;
+            indexedClassificationNames = null;
+
+            homeClassifications.clear();
+            entityHistory.clear();
+
+            this.entity = null;
+            this.entityProxy = null;
+        }
+
+
+        /**
+         * Return true if this stored entity only holds the adjacency lists for an entity that is not stored.
+         *
+         * @return boolean flag
+         */
+        synchronized boolean isPlaceholder()
+        {
+            return (this.entity == null) && (this.entityProxy == null) && (homeClassifications.isEmpty());
+        }
+
+
+        /**
+         * Return true if any relationships are attached to the entity.
+         *
+         * @return boolean flag
+         */
+        boolean hasAttachedRelationships()
+        {
+            return (! end1RelationshipGUIDs.isEmpty()) || (! end2RelationshipGUIDs.isEmpty());
+        }
+
+
+        /**
+         * Add a relationship to the adjacency list for one of the entity's ends.
+         *
+         * @param relationshipGUID unique identifier of the relationship
+         * @param isEnd1 true if the entity is at end 1 of the relationship
+         */
+        void attachRelationship(String  relationshipGUID,
+                                boolean isEnd1)
+        {
+            if (isEnd1)
+            {
+                end1RelationshipGUIDs.add(relationshipGUID);
+            }
+            else
+            {
+                end2RelationshipGUIDs.add(relationshipGUID);
+            }
+        }
+
+
+        /**
+         * Remove a relationship from the adjacency list for one of the entity's ends.
+         *
+         * @param relationshipGUID unique identifier of the relationship
+         * @param isEnd1 true if the entity is at end 1 of the relationship
+         */
+        void detachRelationship(String  relationshipGUID,
+                                boolean isEnd1)
+        {
+            if (isEnd1)
+            {
+                end1RelationshipGUIDs.remove(relationshipGUID);
+            }
+            else
+            {
+                end2RelationshipGUIDs.remove(relationshipGUID);
+            }
+        }
+
+
+        /**
+         * Add the unique identifiers of the relationships attached to the requested ends of the entity to the results.
+         *
+         * @param includeEnd1 include the relationships where the entity is at end 1
+         * @param includeEnd2 include the relationships where the entity is at end 2
+         * @param results set to add the relationship GUIDs to
+         */
+        void addAttachedRelationshipGUIDs(boolean     includeEnd1,
+                                          boolean     includeEnd2,
+                                          Set<String> results)
+        {
+            if (includeEnd1)
+            {
+                results.addAll(end1RelationshipGUIDs);
+            }
+
+            if (includeEnd2)
+            {
+                results.addAll(end2RelationshipGUIDs);
             }
         }
 
@@ -1053,7 +1695,7 @@ class InMemoryOMRSMetadataStore
          *
          * @return entity object
          */
-        synchronized EntityDetail  getEntity()
+        EntityDetail  getEntity()
         {
             return entity;
         }
@@ -1064,7 +1706,7 @@ class InMemoryOMRSMetadataStore
          *
          * @return entity proxy object
          */
-        synchronized EntityProxy  getEntityProxy()
+        EntityProxy  getEntityProxy()
         {
             return entityProxy;
         }
@@ -1076,13 +1718,26 @@ class InMemoryOMRSMetadataStore
          * @param asOfTime time to use on the query
          * @return selected instance
          */
-        synchronized EntityDetail getEntity(Date asOfTime)
+        EntityDetail getEntity(Date asOfTime)
         {
             if (asOfTime == null)
             {
                 return getEntity();
             }
 
+            return getHistoricalEntity(asOfTime);
+        }
+
+
+        /**
+         * Retrieve the version that was active in the repository at a particular time from the current version
+         * and the history.
+         *
+         * @param asOfTime time to use on the query
+         * @return selected instance
+         */
+        private synchronized EntityDetail getHistoricalEntity(Date asOfTime)
+        {
             if (this.entity != null)
             {
                 /*
@@ -1421,6 +2076,11 @@ class InMemoryOMRSMetadataStore
         private volatile Relationship relationship         = null;
         private volatile Date         unilateralDeleteTime = null;
 
+        private String      indexedGUID       = null;
+        private Set<String> indexedTypeNames  = null;
+        private String      indexedEnd1GUID   = null;
+        private String      indexedEnd2GUID   = null;
+
 
         /**
          * StoredRelationship is constructed with a valid relationship.  It may not be version 1.
@@ -1446,6 +2106,8 @@ class InMemoryOMRSMetadataStore
             }
 
             this.relationship = refreshRelationshipProxies(relationship);
+
+            refreshIndexes();
         }
 
 
@@ -1461,22 +2123,104 @@ class InMemoryOMRSMetadataStore
             }
 
             this.relationship = null;
+
+            refreshIndexes();
         }
 
 
         /**
-         * Retrieve the current instance.
+         * Update the store's type index and the adjacency lists of the entities at each end to reflect the current
+         * version of the relationship.  A relationship that has been removed from the active store is not indexed.
+         */
+        private synchronized void refreshIndexes()
+        {
+            Set<String> typeNames = null;
+            String      end1GUID  = null;
+            String      end2GUID  = null;
+
+            if (this.relationship != null)
+            {
+                indexedGUID = this.relationship.getGUID();
+
+                if (this.relationship.getType() != null)
+                {
+                    typeNames = Collections.singleton(this.relationship.getType().getTypeDefName());
+                }
+
+                if (this.relationship.getEntityOneProxy() != null)
+                {
+                    end1GUID = this.relationship.getEntityOneProxy().getGUID();
+                }
+
+                if (this.relationship.getEntityTwoProxy() != null)
+                {
+                    end2GUID = this.relationship.getEntityTwoProxy().getGUID();
+                }
+            }
+
+            if (indexedGUID != null)
+            {
+                relationshipTypeIndex.reindex(indexedGUID, indexedTypeNames, typeNames);
+                refreshEnd(indexedEnd1GUID, end1GUID, true);
+                refreshEnd(indexedEnd2GUID, end2GUID, false);
+            }
+
+            indexedTypeNames = typeNames;
+            indexedEnd1GUID = end1GUID;
+            indexedEnd2GUID = end2GUID;
+        }
+
+
+        /**
+         * Move this relationship from the adjacency list of the entity previously at one of its ends to the
+         * entity now at that end.
          *
-         * @return selected instance
+         * @param oldEntityGUID entity previously at the end (or null)
+         * @param newEntityGUID entity now at the end (or null)
+         * @param isEnd1 true for end 1
          */
-        synchronized Relationship getRelationship()
+        private void refreshEnd(String  oldEntityGUID,
+                                String  newEntityGUID,
+                                boolean isEnd1)
         {
-            if (relationship != null)
+            if ((oldEntityGUID != null) && (! oldEntityGUID.equals(newEntityGUID)))
+            {
+                detachRelationshipFromEntity(oldEntityGUID, indexedGUID, isEnd1);
+            }
+
+            if ((newEntityGUID != null) && (! newEntityGUID.equals(oldEntityGUID)))
+            {
+                attachRelationshipToEntity(newEntityGUID, indexedGUID, isEnd1);
+            }
+        }
+
+
+        /**
+         * Remove the relationship from the store's indexes because it is being purged.
+         */
+        synchronized void removeFromIndexes()
+        {
+            if (indexedGUID != null)
             {
-                return refreshRelationshipProxies(this.relationship);
+                relationshipTypeIndex.reindex(indexedGUID, indexedTypeNames, null);
+                refreshEnd(indexedEnd1GUID, null, true);
+                refreshEnd(indexedEnd2GUID, null, false);
             }
 
-            return relationship;
+            indexedTypeNames = null;
+            indexedEnd1GUID = null;
+            indexedEnd2GUID = null;
+        }
+
+
+        /**
+         * Retrieve the current instance.
+         *
+         * @return selected instance
+         */
+        Relationship getRelationship()
+        {
+            return refreshRelationshipProxies(this.relationship);
         }
 
 
@@ -1486,13 +2230,26 @@ class InMemoryOMRSMetadataStore
          * @param asOfTime time to use on the query
          * @return selected instance
          */
-        synchronized Relationship getRelationship(Date asOfTime)
+        Relationship getRelationship(Date asOfTime)
         {
             if (asOfTime == null)
             {
                 return getRelationship();
             }
 
+            return getHistoricalRelationship(asOfTime);
+        }
+
+
+        /**
+         * Retrieve the version that was active in the repository at a particular time from the current version
+         * and the history.
+         *
+         * @param asOfTime time to use on the query
+         * @return selected instance
+         */
+        private synchronized Relationship getHistoricalRelationship(Date asOfTime)
+        {
             if (this.relationship != null)
             {
                 /*
@@ -1658,24 +2415,24 @@ class InMemoryOMRSMetadataStore
          * @param storedRelationship relationship retrieved from one of the relationship stores.
          * @return a cloned relationship with the latest proxies.
          */
-        private synchronized Relationship refreshRelationshipProxies(Relationship storedRelationship)
+        private Relationship refreshRelationshipProxies(Relationship storedRelationship)
         {
             if (storedRelationship != null)
             {
                 Relationship result = new Relationship(storedRelationship);
 
-                StoredEntity storedEntity = entityStore.get(storedRelationship.getEntityOneProxy().getGUID());
+                EntityProxy entityProxy = getStoredEntityProxy(storedRelationship.getEntityOneProxy());
 
-                if (storedEntity != null)
+                if (entityProxy != null)
                 {
-                    result.setEntityOneProxy(storedEntity.getEntityProxy());
+                    result.setEntityOneProxy(entityProxy);
                 }
 
-                storedEntity = entityStore.get(storedRelationship.getEntityTwoProxy().getGUID());
+                entityProxy = getStoredEntityProxy(storedRelationship.getEntityTwoProxy());
 
-                if (storedEntity != null)
+                if (entityProxy != null)
                 {
-                    result.setEntityTwoProxy(storedEntity.getEntityProxy());
+                    result.setEntityTwoProxy(entityProxy);
                 }
 
                 return result;
@@ -1683,5 +2440,27 @@ class InMemoryOMRSMetadataStore
 
             return null;
         }
+
+
+        /**
+         * Return the latest stored proxy for the entity at one end of a relationship.
+         *
+         * @param endProxy proxy from the relationship
+         * @return latest stored proxy or null if the entity is not stored
+         */
+        private EntityProxy getStoredEntityProxy(EntityProxy endProxy)
+        {
+            if ((endProxy != null) && (endProxy.getGUID() != null))
+            {
+                StoredEntity storedEntity = entityStore.get(endProxy.getGUID());
+
+                if (storedEntity != null)
+                {
+                    return storedEntity.getEntityProxy();
+                }
+            }
+
+            return null;
+        }
     }
 }
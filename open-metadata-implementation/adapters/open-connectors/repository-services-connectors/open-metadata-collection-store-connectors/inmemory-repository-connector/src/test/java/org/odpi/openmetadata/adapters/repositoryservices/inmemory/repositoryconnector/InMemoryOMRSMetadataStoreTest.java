@@ -0,0 +1,401 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that concurrent updates through the striped locks of InMemoryOMRSMetadataStore leave every entity at its
+ * latest version, and that the type and classification indexes used by getCandidateEntities return the same
+ * entities as a scan of the store as entities are added, retyped, reclassified and purged.
+ */
+public class InMemoryOMRSMetadataStoreTest
+{
+    /*
+     * Classifications from another metadata collection are not kept as home classifications, so an update that
+     * drops a classification removes it from the entity.
+     */
+    private static final String remoteMetadataCollectionId = "remote-metadata-collection-id";
+
+    private static final int threadCount  = 8;
+    private static final int entityCount  = 1000;
+    private static final int versionCount = 24;
+
+    private final StubRepositoryHelper stubRepositoryHelper = new StubRepositoryHelper();
+
+
+    /**
+     * Many threads add and update the same entities, each thread sending a different share of the versions in a
+     * different order.  No entity is lost, each one ends at its highest version, and the type and classification
+     * indexes match that version.
+     *
+     * @throws Exception problem updating the store
+     */
+    @Test
+    public void testConcurrentAddAndUpdate() throws Exception
+    {
+        InMemoryOMRSMetadataStore metadataStore = stubRepositoryHelper.getMetadataStore();
+        ExecutorService           executor      = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch            startLatch    = new CountDownLatch(1);
+        List<Future<?>>           updates       = new ArrayList<>();
+
+        try
+        {
+            for (int threadNumber = 0; threadNumber < threadCount; threadNumber++)
+            {
+                final int firstEntity  = threadNumber * (entityCount / threadCount);
+                final int firstVersion = threadNumber + 1;
+
+                updates.add(executor.submit(() ->
+                {
+                    startLatch.await();
+
+                    for (int version = firstVersion; version <= versionCount; version = version + threadCount)
+                    {
+                        for (int entityNumber = 0; entityNumber < entityCount; entityNumber++)
+                        {
+                            EntityDetail entity = this.getVersionedEntity((firstEntity + entityNumber) % entityCount, version);
+
+                            if (version == firstVersion)
+                            {
+                                metadataStore.addEntityToStore(entity);
+                            }
+                            else
+                            {
+                                metadataStore.updateEntityInStore(entity);
+                            }
+                        }
+                    }
+
+                    return null;
+                }));
+            }
+
+            startLatch.countDown();
+
+            for (Future<?> update : updates)
+            {
+                update.get(60, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        EntityDetail latestVersion = this.getVersionedEntity(0, versionCount);
+        String       latestType    = latestVersion.getType().getTypeDefName();
+
+        for (int entityNumber = 0; entityNumber < entityCount; entityNumber++)
+        {
+            EntityDetail entity = metadataStore.getEntity(this.getEntityGUID(entityNumber));
+
+            assertNotNull(entity, "Lost entity " + entityNumber);
+            assertEquals(entity.getVersion(), versionCount);
+            assertEquals(entity.getType().getTypeDefName(), latestType);
+        }
+
+        assertEquals(metadataStore.getCandidateEntities(null, null, null).size(), entityCount);
+        assertEquals(this.getGUIDs(metadataStore.getCandidateEntities(List.of(latestType), null, null)).size(), entityCount);
+        assertTrue(metadataStore.getCandidateEntities(List.of(this.getTypeName(versionCount - 1)), null, null).isEmpty());
+        assertEquals(metadataStore.getCandidateEntities(null, List.of(this.getClassificationName(versionCount)), null).size(), entityCount);
+        assertTrue(metadataStore.getCandidateEntities(null, List.of(this.getClassificationName(versionCount - 1)), null).isEmpty());
+    }
+
+
+    /**
+     * Queries by type, by classification (matching any of the classifications) and by both return the same
+     * entities as a scan of the store.
+     *
+     * @throws Exception problem updating the store
+     */
+    @Test
+    public void testCandidateEntitiesFromIndexes() throws Exception
+    {
+        InMemoryOMRSMetadataStore metadataStore = stubRepositoryHelper.getMetadataStore();
+
+        for (int entityNumber = 0; entityNumber < 60; entityNumber++)
+        {
+            String typeName = new String[]{ "Asset", "DataSet", "Process" }[entityNumber % 3];
+
+            if (entityNumber % 2 == 0)
+            {
+                metadataStore.addEntityToStore(this.getEntity(this.getEntityGUID(entityNumber), typeName, 1L, "Confidentiality"));
+            }
+            else if (entityNumber % 5 == 0)
+            {
+                metadataStore.addEntityToStore(this.getEntity(this.getEntityGUID(entityNumber), typeName, 1L, "Confidentiality", "Retention"));
+            }
+            else
+            {
+                metadataStore.addEntityToStore(this.getEntity(this.getEntityGUID(entityNumber), typeName, 1L));
+            }
+        }
+
+        this.validateQueries(metadataStore);
+    }
+
+
+    /**
+     * The indexes follow an entity when an update changes its type or classifications, and forget it when it is
+     * purged.
+     *
+     * @throws Exception problem updating the store
+     */
+    @Test
+    public void testIndexesFollowUpdates() throws Exception
+    {
+        InMemoryOMRSMetadataStore metadataStore = stubRepositoryHelper.getMetadataStore();
+
+        for (int entityNumber = 0; entityNumber < 20; entityNumber++)
+        {
+            metadataStore.addEntityToStore(this.getEntity(this.getEntityGUID(entityNumber), "Asset", 1L, "Confidentiality"));
+        }
+
+        for (int entityNumber = 0; entityNumber < 20; entityNumber = entityNumber + 2)
+        {
+            metadataStore.updateEntityInStore(this.getEntity(this.getEntityGUID(entityNumber), "DataSet", 2L, "Retention"));
+        }
+
+        for (int entityNumber = 1; entityNumber < 20; entityNumber = entityNumber + 4)
+        {
+            metadataStore.updateEntityInStore(this.getEntity(this.getEntityGUID(entityNumber), "Asset", 2L));
+        }
+
+        /*
+         * An out of date version does not replace the stored entity, so it does not change the indexes either.
+         */
+        metadataStore.updateEntityInStore(this.getEntity(this.getEntityGUID(0), "Process", 1L, "Confidentiality"));
+
+        metadataStore.purgeEntityFromStore(this.getEntityGUID(3));
+        metadataStore.purgeEntityFromStore(this.getEntityGUID(4));
+
+        assertEquals(this.getGUIDs(metadataStore.getCandidateEntities(List.of("DataSet"), null, null)).size(), 9);
+        assertTrue(metadataStore.getCandidateEntities(List.of("Process"), null, null).isEmpty());
+        assertEquals(this.getGUIDs(metadataStore.getCandidateEntities(null, List.of("Retention"), null)).size(), 9);
+        assertEquals(this.getGUIDs(metadataStore.getCandidateEntities(null, List.of("Confidentiality"), null)).size(), 4);
+        assertEquals(this.getGUIDs(metadataStore.getCandidateEntities(null, List.of("Confidentiality", "Retention"), null)).size(), 13);
+        assertEquals(this.getGUIDs(metadataStore.getCandidateEntities(null, Arrays.asList(null, "Retention"), null)).size(), 9);
+        assertTrue(metadataStore.getCandidateEntities(null, Collections.singletonList(null), null).isEmpty());
+
+        this.validateQueries(metadataStore);
+    }
+
+
+    /**
+     * Compare the candidates returned from the indexes with a scan of every entity in the store for a set of
+     * type and classification criteria.
+     *
+     * @param metadataStore store to query
+     */
+    private void validateQueries(InMemoryOMRSMetadataStore metadataStore)
+    {
+        List<EntityDetail> allEntities = metadataStore.getCandidateEntities(null, null, null);
+
+        List<List<String>> typeCriteria = Arrays.asList(null,
+                                                        List.of("Asset"),
+                                                        List.of("DataSet", "Process"),
+                                                        List.of("UnknownType"));
+
+        List<List<String>> classificationCriteria = Arrays.asList(null,
+                                                                  List.of("Confidentiality"),
+                                                                  List.of("Confidentiality", "Retention"),
+                                                                  List.of("Retention", "UnknownClassification"),
+                                                                  Arrays.asList(null, "Confidentiality"),
+                                                                  List.of("UnknownClassification"),
+                                                                  List.of());
+
+        for (List<String> typeNames : typeCriteria)
+        {
+            for (List<String> classificationNames : classificationCriteria)
+            {
+                Set<String> expectedGUIDs = new TreeSet<>();
+
+                for (EntityDetail entity : allEntities)
+                {
+                    if (((typeNames == null) || (typeNames.contains(entity.getType().getTypeDefName()))) &&
+                        ((classificationNames == null) || (this.isClassified(entity, classificationNames))))
+                    {
+                        expectedGUIDs.add(entity.getGUID());
+                    }
+                }
+
+                assertEquals(this.getGUIDs(metadataStore.getCandidateEntities(typeNames, classificationNames, null)),
+                             expectedGUIDs,
+                             "types " + typeNames + ", classifications " + classificationNames);
+            }
+        }
+    }
+
+
+    /**
+     * Return a version of one of the entities in the concurrent update test.  The type and classification
+     * change with the version.
+     *
+     * @param entityNumber position of the entity
+     * @param version version
+     * @return entity
+     */
+    private EntityDetail getVersionedEntity(int entityNumber,
+                                            int version)
+    {
+        return this.getEntity(this.getEntityGUID(entityNumber), this.getTypeName(version), version, this.getClassificationName(version));
+    }
+
+
+    /**
+     * Return the type used for a version in the concurrent update test.
+     *
+     * @param version version
+     * @return type name
+     */
+    private String getTypeName(int version)
+    {
+        return (version % 2 == 0) ? "Asset" : "DataSet";
+    }
+
+
+    /**
+     * Return the classification used for a version in the concurrent update test.
+     *
+     * @param version version
+     * @return classification name
+     */
+    private String getClassificationName(int version)
+    {
+        return "Classification" + version;
+    }
+
+
+    /**
+     * Return the unique identifier of a test entity.
+     *
+     * @param entityNumber position of the entity
+     * @return unique identifier
+     */
+    private String getEntityGUID(int entityNumber)
+    {
+        return "entity-" + entityNumber;
+    }
+
+
+    /**
+     * Create an entity with classifications from a remote metadata collection.
+     *
+     * @param guid unique identifier
+     * @param typeName name of the entity's type
+     * @param version version
+     * @param classificationNames names of the classifications
+     * @return entity
+     */
+    private EntityDetail getEntity(String    guid,
+                                   String    typeName,
+                                   long      version,
+                                   String... classificationNames)
+    {
+        EntityDetail         entity          = StubRepositoryHelper.getEntity(guid, typeName, version);
+        List<Classification> classifications = new ArrayList<>();
+
+        for (String classificationName : classificationNames)
+        {
+            Classification classification = new Classification();
+
+            classification.setName(classificationName);
+            classification.setVersion(version);
+            classification.setMetadataCollectionId(remoteMetadataCollectionId);
+
+            classifications.add(classification);
+        }
+
+        if (! classifications.isEmpty())
+        {
+            entity.setClassifications(classifications);
+        }
+
+        return entity;
+    }
+
+
+    /**
+     * Return whether an entity has any of the named classifications, which is how the repository validator's
+     * verifyEntityIsClassified matches classifications.
+     *
+     * @param entity entity
+     * @param classificationNames names of the classifications (null names are ignored)
+     * @return boolean
+     */
+    private boolean isClassified(EntityDetail entity,
+                                 List<String> classificationNames)
+    {
+        Set<String> entityClassificationNames = this.getClassificationNames(entity);
+
+        for (String classificationName : classificationNames)
+        {
+            if ((classificationName != null) && (entityClassificationNames.contains(classificationName)))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Return the names of an entity's classifications.
+     *
+     * @param entity entity
+     * @return set of classification names
+     */
+    private Set<String> getClassificationNames(EntityDetail entity)
+    {
+        Set<String> classificationNames = new TreeSet<>();
+
+        if (entity.getClassifications() != null)
+        {
+            for (Classification classification : entity.getClassifications())
+            {
+                classificationNames.add(classification.getName());
+            }
+        }
+
+        return classificationNames;
+    }
+
+
+    /**
+     * Return the unique identifiers of a list of entities, checking that none is repeated.
+     *
+     * @param entities entities
+     * @return sorted set of unique identifiers
+     */
+    private Set<String> getGUIDs(List<EntityDetail> entities)
+    {
+        Set<String> guids = new TreeSet<>();
+
+        for (EntityDetail entity : entities)
+        {
+            assertTrue(guids.add(entity.getGUID()), "Repeated entity " + entity.getGUID());
+        }
+
+        return guids;
+    }
+}
@@ -0,0 +1,150 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lookups per second of the relationships attached to an entity through the entity's adjacency lists
+ * (getRelationshipsForEntity) with the full scan of the relationship store that getRelationshipsForEntity used to
+ * make.  Each entity has an average of ten relationships whatever the size of the store, so the work done by the
+ * adjacency lookup does not grow with the store while the scan slows down in proportion.  Run it with the main method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RelationshipLookupBenchmark
+{
+    private static final int relationshipsPerEntity = 5;
+
+    /**
+     * Number of relationships in the store.
+     */
+    @Param({"10000", "100000", "1000000"})
+    public int relationshipCount;
+
+    private final StubRepositoryHelper stubRepositoryHelper = new StubRepositoryHelper();
+    private OMRSRepositoryHelper       repositoryHelper;
+    private InMemoryOMRSMetadataStore  metadataStore;
+    private String[]                   entityGUIDs;
+    private int                        nextEntity = 0;
+
+
+    /**
+     * Load the store.  Each relationship links an entity to another entity a fixed distance away so every
+     * entity is at end 1 of some relationships and end 2 of others.
+     *
+     * @throws RepositoryErrorException problem storing an entity
+     */
+    @Setup
+    public void setUp() throws RepositoryErrorException
+    {
+        int entityCount = relationshipCount / relationshipsPerEntity;
+
+        repositoryHelper = stubRepositoryHelper.getRepositoryHelper();
+        metadataStore    = stubRepositoryHelper.getMetadataStore();
+        entityGUIDs      = new String[entityCount];
+
+        for (int entityNumber = 0; entityNumber < entityCount; entityNumber++)
+        {
+            entityGUIDs[entityNumber] = "entity-" + entityNumber;
+
+            metadataStore.addEntityToStore(StubRepositoryHelper.getEntity(entityGUIDs[entityNumber], "Asset", 1L));
+        }
+
+        for (int relationshipNumber = 0; relationshipNumber < relationshipCount; relationshipNumber++)
+        {
+            int end1 = relationshipNumber % entityCount;
+            int end2 = (end1 + 1 + relationshipNumber / entityCount) % entityCount;
+
+            metadataStore.addRelationshipToStore(StubRepositoryHelper.getRelationship("relationship-" + relationshipNumber,
+                                                                                      "AssetLink",
+                                                                                      entityGUIDs[end1],
+                                                                                      entityGUIDs[end2]));
+        }
+    }
+
+
+    /**
+     * Return the next entity to look up so that successive calls visit different parts of the store.
+     *
+     * @return unique identifier of an entity
+     */
+    private String getNextEntityGUID()
+    {
+        nextEntity = (nextEntity + 7919) % entityGUIDs.length;
+
+        return entityGUIDs[nextEntity];
+    }
+
+
+    /**
+     * Look up the relationships through the entity's adjacency lists.
+     *
+     * @return relationships attached to the entity
+     */
+    @Benchmark
+    public List<Relationship> adjacencyLookup()
+    {
+        return metadataStore.getRelationshipsForEntity(getNextEntityGUID(), null);
+    }
+
+
+    /**
+     * Look up the relationships by retrieving every relationship in the store and testing its ends, as
+     * getRelationshipsForEntity did before the adjacency lists.
+     *
+     * @return relationships attached to the entity
+     */
+    @Benchmark
+    public List<Relationship> fullScanLookup()
+    {
+        String             entityGUID = getNextEntityGUID();
+        List<Relationship> results    = new ArrayList<>();
+
+        for (Relationship relationship : metadataStore.getCandidateRelationships(null, null, null, null, null))
+        {
+            if (repositoryHelper.relatedEntity(StubRepositoryHelper.repositoryName, entityGUID, relationship))
+            {
+                results.add(relationship);
+            }
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args ignored
+     * @throws RunnerException problem running the benchmark
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(RelationshipLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,185 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Date;
+
+/**
+ * StubRepositoryHelper supplies the few repository helper methods that the in-memory store calls when entities
+ * and relationships are saved without classification changes, so the store can be exercised without the
+ * repository content manager.  It also builds the instances used by the tests and benchmarks.
+ */
+class StubRepositoryHelper
+{
+    static final String repositoryName       = "StubRepository";
+    static final String metadataCollectionId = "stub-metadata-collection-id";
+
+
+    /**
+     * Return a repository helper that supports getNewEntityProxy and relatedEntity.  Any other call fails.
+     *
+     * @return repository helper
+     */
+    OMRSRepositoryHelper getRepositoryHelper()
+    {
+        return (OMRSRepositoryHelper) Proxy.newProxyInstance(OMRSRepositoryHelper.class.getClassLoader(),
+                                                             new Class<?>[]{OMRSRepositoryHelper.class},
+                                                             new RepositoryHelperHandler());
+    }
+
+
+    /**
+     * Return a new store that uses the stub repository helper.
+     *
+     * @return in-memory store
+     */
+    InMemoryOMRSMetadataStore getMetadataStore()
+    {
+        return new InMemoryOMRSMetadataStore(repositoryName, getRepositoryHelper(), metadataCollectionId);
+    }
+
+
+    /**
+     * Create an entity.
+     *
+     * @param guid unique identifier
+     * @param typeName name of the entity's type
+     * @param version version
+     * @return entity
+     */
+    static EntityDetail getEntity(String guid,
+                                  String typeName,
+                                  long   version)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setType(getType(typeName));
+        entity.setVersion(version);
+        entity.setMetadataCollectionId(metadataCollectionId);
+        entity.setCreateTime(new Date());
+
+        return entity;
+    }
+
+
+    /**
+     * Create a relationship between two entities.
+     *
+     * @param guid unique identifier
+     * @param typeName name of the relationship's type
+     * @param end1GUID unique identifier of the entity at end 1
+     * @param end2GUID unique identifier of the entity at end 2
+     * @return relationship
+     */
+    static Relationship getRelationship(String guid,
+                                        String typeName,
+                                        String end1GUID,
+                                        String end2GUID)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setType(getType(typeName));
+        relationship.setVersion(1L);
+        relationship.setMetadataCollectionId(metadataCollectionId);
+        relationship.setCreateTime(new Date());
+        relationship.setEntityOneProxy(getEntityProxy(end1GUID));
+        relationship.setEntityTwoProxy(getEntityProxy(end2GUID));
+
+        return relationship;
+    }
+
+
+    /**
+     * Create the proxy for one end of a relationship.
+     *
+     * @param guid unique identifier of the entity
+     * @return entity proxy
+     */
+    private static EntityProxy getEntityProxy(String guid)
+    {
+        EntityProxy entityProxy = new EntityProxy();
+
+        entityProxy.setGUID(guid);
+        entityProxy.setVersion(1L);
+        entityProxy.setMetadataCollectionId(metadataCollectionId);
+
+        return entityProxy;
+    }
+
+
+    /**
+     * Create an instance type.  Only the name is used by the store's indexes.
+     *
+     * @param typeName name of the type
+     * @return instance type
+     */
+    private static InstanceType getType(String typeName)
+    {
+        InstanceType instanceType = new InstanceType();
+
+        instanceType.setTypeDefName(typeName);
+        instanceType.setTypeDefGUID(typeName + "-guid");
+
+        return instanceType;
+    }
+
+
+    /**
+     * Implements the supported repository helper methods.
+     */
+    private static class RepositoryHelperHandler implements InvocationHandler
+    {
+        /**
+         * Handle a call to the repository helper.
+         *
+         * @param proxy repository helper proxy
+         * @param method method called
+         * @param args arguments
+         * @return result of the call
+         */
+        @Override
+        public Object invoke(Object   proxy,
+                             Method   method,
+                             Object[] args)
+        {
+            switch (method.getName())
+            {
+                case "getNewEntityProxy":
+                    if (args[1] instanceof EntityDetail entity)
+                    {
+                        return new EntityProxy(entity);
+                    }
+                    break;
+
+                case "relatedEntity":
+                    String       entityGUID   = (String) args[1];
+                    Relationship relationship = (Relationship) args[2];
+
+                    return ((relationship.getEntityOneProxy() != null) && (entityGUID.equals(relationship.getEntityOneProxy().getGUID()))) ||
+                           ((relationship.getEntityTwoProxy() != null) && (entityGUID.equals(relationship.getEntityTwoProxy().getGUID())));
+
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+
+                case "equals":
+                    return proxy == args[0];
+
+                case "toString":
+                    return "StubRepositoryHelper";
+            }
+
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+}
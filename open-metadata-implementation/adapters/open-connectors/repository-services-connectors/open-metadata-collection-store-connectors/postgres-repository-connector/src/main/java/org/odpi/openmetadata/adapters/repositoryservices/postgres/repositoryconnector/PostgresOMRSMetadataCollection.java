@@ -5,6 +5,7 @@ package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositorycon
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSDynamicTypeMetadataCollectionBase;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.HistorySequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
@@ -45,6 +46,8 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
      * @param repositoryValidator class used to validate type definitions and instances.
      * @param isReadOnly should the repository run in readOnly mode?
      * @param defaultAsOfTime what is the default value for asOfTime?
+     * @param textSearchIndexes are the text search indexes available for searches on property values?
+     * @param currentStateTables are the current state tables in use?
      * @param jdbcResourceConnector connector to access the database
      * @param metadataCollectionId unique Identifier of the metadata collection id.
      */
@@ -54,6 +57,8 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                              OMRSRepositoryValidator         repositoryValidator,
                                              boolean                         isReadOnly,
                                              Date                            defaultAsOfTime,
+                                             boolean                         textSearchIndexes,
+                                             boolean                         currentStateTables,
                                              JDBCResourceConnector           jdbcResourceConnector,
                                              String                          metadataCollectionId)
     {
@@ -70,6 +75,8 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                              metadataCollectionId,
                                                              isReadOnly,
                                                              defaultAsOfTime,
+                                                             textSearchIndexes,
+                                                             currentStateTables,
                                                              jdbcResourceConnector);
     }
 
@@ -491,7 +498,91 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        return repositoryStore.findEntities(entityTypeGUID, entitySubtypeGUIDs, skipSubtypes, searchProperties, fromEntityElement, limitResultsByStatus, searchClassifications, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+        return repositoryStore.findEntities(entityTypeGUID, entitySubtypeGUIDs, skipSubtypes, searchProperties, fromEntityElement, null, limitResultsByStatus, searchClassifications, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
+    /**
+     * Return a list of entities that match the supplied criteria.  The page starts immediately after the entity
+     * recorded in the continuation token - the query seeks to it through the sequencing index rather than skipping
+     * over the preceding entities.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID String unique identifier for the entity type of interest (null means any entity type).
+     * @param entitySubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the entityTypeGUID to
+     *                           include in (or, if skipSubtypes is true, exclude from) the search results. Null means all subtypes.
+     * @param skipSubtypes if true, entitySubtypeGUIDs is treated as the list of subtypes to exclude from the search
+     *                     results rather than the only subtypes to include.  Ignored if entitySubtypeGUIDs is null.
+     * @param searchProperties Optional list of entity property conditions to match.
+     * @param continuationToken token returned with the previous page of results.  Null means start from the first element.
+     * @param limitResultsByStatus By default, entities in all non-DELETED statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values except DELETED.
+     * @param searchClassifications Optional list of entity classifications to match.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the entity property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result entities that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return a list of entities matching the supplied criteria; null means no matching entities in the metadata
+     * collection.
+     * @throws InvalidParameterException a parameter is invalid or null, or the continuation token is not valid.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  entity.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> findEntities(String                    userId,
+                                           String                    entityTypeGUID,
+                                           List<String>              entitySubtypeGUIDs,
+                                           boolean                   skipSubtypes,
+                                           SearchProperties          searchProperties,
+                                           String                    continuationToken,
+                                           List<InstanceStatus>      limitResultsByStatus,
+                                           SearchClassifications     searchClassifications,
+                                           Date                      asOfTime,
+                                           String                    sequencingProperty,
+                                           SequencingOrder           sequencingOrder,
+                                           int                       pageSize) throws InvalidParameterException,
+                                                                                      RepositoryErrorException,
+                                                                                      TypeErrorException,
+                                                                                      PropertyErrorException,
+                                                                                      PagingErrorException,
+                                                                                      UserNotAuthorizedException
+    {
+        final String methodName = "findEntities";
+        final String continuationTokenParameterName = "continuationToken";
+
+        ContinuationToken token = ContinuationToken.getContinuationToken(continuationToken,
+                                                                         continuationTokenParameterName,
+                                                                         methodName);
+        int fromEntityElement = token == null ? 0 : token.getNextElement();
+
+        /*
+         * Validate parameters
+         */
+        super.findEntitiesParameterValidation(userId,
+                                              entityTypeGUID,
+                                              entitySubtypeGUIDs,
+                                              searchProperties,
+                                              fromEntityElement,
+                                              limitResultsByStatus,
+                                              searchClassifications,
+                                              asOfTime,
+                                              sequencingProperty,
+                                              sequencingOrder,
+                                              pageSize);
+
+        /*
+         * Perform operation
+         */
+        return repositoryStore.findEntities(entityTypeGUID, entitySubtypeGUIDs, skipSubtypes, searchProperties, fromEntityElement, token, limitResultsByStatus, searchClassifications, asOfTime, sequencingProperty, sequencingOrder, pageSize);
     }
 
 
@@ -996,7 +1087,101 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        return repositoryStore.findRelationships(relationshipTypeGUID, relationshipSubtypeGUIDs, skipSubtypes, end1EntityGUIDs, end2EntityGUIDs, endMatchCriteria, matchProperties, fromRelationshipElement, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+        return repositoryStore.findRelationships(relationshipTypeGUID, relationshipSubtypeGUIDs, skipSubtypes, end1EntityGUIDs, end2EntityGUIDs, endMatchCriteria, matchProperties, fromRelationshipElement, null, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
+    /**
+     * Return a list of relationships that match the requested conditions.  The page starts immediately after the
+     * relationship recorded in the continuation token - the query seeks to it through the sequencing index rather
+     * than skipping over the preceding relationships.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types
+     *                             (but may be slow so not recommended).
+     * @param relationshipSubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the
+     *                                 relationshipTypeGUID to include in (or, if skipSubtypes is true, exclude from) the search results.
+     *                                 Null means all subtypes.
+     * @param skipSubtypes if true, relationshipSubtypeGUIDs is treated as the list of subtypes to exclude from the
+     *                     search results rather than the only subtypes to include.  Ignored if relationshipSubtypeGUIDs is null.
+     * @param end1EntityGUIDs optional list of entity guids used to match end 1 of the relationships.
+     * @param end2EntityGUIDs optional list of entity guids used to match end 2 of the relationships.
+     * @param endMatchCriteria criteria for matching the ends of the relationships.
+     * @param matchProperties Optional list of relationship property conditions to match.
+     * @param continuationToken token returned with the previous page of results.  Null means start from the first element.
+     * @param limitResultsByStatus By default, relationships in all non-DELETED statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values except DELETED.
+     * @param asOfTime Requests a historical query of the relationships for the entity.  Null means return the
+     *                 present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return a list of relationships.  Null means no matching relationships.
+     * @throws InvalidParameterException one of the parameters is invalid or null, or the continuation token is not valid.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  relationships.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support one of the provided parameters.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public  List<Relationship> findRelationships(String                    userId,
+                                                 String                    relationshipTypeGUID,
+                                                 List<String>              relationshipSubtypeGUIDs,
+                                                 boolean                   skipSubtypes,
+                                                 List<String>              end1EntityGUIDs,
+                                                 List<String>              end2EntityGUIDs,
+                                                 EndMatchCriteria          endMatchCriteria,
+                                                 SearchProperties          matchProperties,
+                                                 String                    continuationToken,
+                                                 List<InstanceStatus>      limitResultsByStatus,
+                                                 Date                      asOfTime,
+                                                 String                    sequencingProperty,
+                                                 SequencingOrder           sequencingOrder,
+                                                 int                       pageSize) throws InvalidParameterException,
+                                                                                            TypeErrorException,
+                                                                                            RepositoryErrorException,
+                                                                                            PropertyErrorException,
+                                                                                            PagingErrorException,
+                                                                                            FunctionNotSupportedException,
+                                                                                            UserNotAuthorizedException
+    {
+        final String methodName = "findRelationships";
+        final String continuationTokenParameterName = "continuationToken";
+
+        ContinuationToken token = ContinuationToken.getContinuationToken(continuationToken,
+                                                                         continuationTokenParameterName,
+                                                                         methodName);
+        int fromRelationshipElement = token == null ? 0 : token.getNextElement();
+
+        /*
+         * Validate parameters
+         */
+        super.findRelationshipsParameterValidation(userId,
+                                                   relationshipTypeGUID,
+                                                   relationshipSubtypeGUIDs,
+                                                   end1EntityGUIDs,
+                                                   end2EntityGUIDs,
+                                                   endMatchCriteria,
+                                                   matchProperties,
+                                                   fromRelationshipElement,
+                                                   limitResultsByStatus,
+                                                   asOfTime,
+                                                   sequencingProperty,
+                                                   sequencingOrder,
+                                                   pageSize);
+
+        /*
+         * Perform operation
+         */
+        return repositoryStore.findRelationships(relationshipTypeGUID, relationshipSubtypeGUIDs, skipSubtypes, end1EntityGUIDs, end2EntityGUIDs, endMatchCriteria, matchProperties, fromRelationshipElement, token, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
     }
 
 
@@ -3936,6 +4121,72 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Save a list of entities as reference copies.  All the entities are validated and then saved
+     * in a single database transaction.
+     *
+     * @param userId  unique identifier for requesting server.
+     * @param entities  details of the entities to save.
+     * @throws InvalidParameterException one of the entities is invalid.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for an entity's type.
+     * @throws HomeEntityException one of the entities belongs to the local repository so creating a reference
+     *                               copy would be invalid.
+     * @throws EntityConflictException a new entity conflicts with an existing entity.
+     * @throws InvalidEntityException a new entity has invalid contents.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public void saveEntityReferenceCopies(String             userId,
+                                          List<EntityDetail> entities) throws InvalidParameterException,
+                                                                              RepositoryErrorException,
+                                                                              TypeErrorException,
+                                                                              PropertyErrorException,
+                                                                              HomeEntityException,
+                                                                              EntityConflictException,
+                                                                              InvalidEntityException,
+                                                                              UserNotAuthorizedException
+    {
+        final String  methodName = "saveEntityReferenceCopies";
+        final String  instanceParameterName = "entity";
+
+        if ((entities == null) || (entities.isEmpty()))
+        {
+            return;
+        }
+
+        /*
+         * Validate parameters
+         */
+        this.validateRepositoryConnector(methodName);
+        parentConnector.validateRepositoryIsActive(methodName);
+
+        for (EntityDetail entity : entities)
+        {
+            repositoryValidator.validateReferenceInstanceHeader(repositoryName,
+                                                                metadataCollectionId,
+                                                                instanceParameterName,
+                                                                entity,
+                                                                auditLog,
+                                                                methodName);
+
+            TypeDef  typeDef = repositoryHelper.getTypeDef(repositoryName, instanceParameterName, entity.getType().getTypeDefGUID(), methodName);
+
+            repositoryValidator.validatePropertiesForType(repositoryName,
+                                                          instanceParameterName,
+                                                          typeDef,
+                                                          entity.getProperties(),
+                                                          methodName);
+        }
+
+        repositoryStore.addEntitiesToStore(entities);
+    }
+
+
     /**
      * Retrieve any locally homed classifications assigned to the requested entity.  This method is implemented by repository connectors that are able
      * to store classifications for entities that are homed in another repository.
@@ -4284,6 +4535,69 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Save a list of relationships as reference copies.  All the relationships are validated and then saved,
+     * along with proxies for any unknown entities at their ends, in a single database transaction.
+     *
+     * @param userId unique identifier for requesting server.
+     * @param relationships relationships to save
+     * @throws InvalidParameterException one of the relationships is invalid.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws EntityNotKnownException one of the entities identified by a relationship is not found in the
+     *                                   metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for a relationship's type.
+     * @throws HomeRelationshipException one of the relationships belongs to the local repository so creating a
+     *                                     reference copy would be invalid.
+     * @throws RelationshipConflictException a new relationship conflicts with an existing relationship.
+     * @throws InvalidRelationshipException a new relationship has invalid contents.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public void saveRelationshipReferenceCopies(String             userId,
+                                                List<Relationship> relationships) throws InvalidParameterException,
+                                                                                         RepositoryErrorException,
+                                                                                         TypeErrorException,
+                                                                                         EntityNotKnownException,
+                                                                                         PropertyErrorException,
+                                                                                         HomeRelationshipException,
+                                                                                         RelationshipConflictException,
+                                                                                         InvalidRelationshipException,
+                                                                                         UserNotAuthorizedException
+    {
+        final String  methodName = "saveRelationshipReferenceCopies";
+        final String  instanceParameterName = "relationship";
+
+        if ((relationships == null) || (relationships.isEmpty()))
+        {
+            return;
+        }
+
+        /*
+         * Validate parameters
+         */
+        parentConnector.validateRepositoryIsActive(methodName);
+
+        for (Relationship relationship : relationships)
+        {
+            super.referenceInstanceParameterValidation(userId, relationship, instanceParameterName, methodName);
+
+            TypeDef  typeDef = repositoryHelper.getTypeDef(repositoryName, instanceParameterName, relationship.getType().getTypeDefGUID(), methodName);
+
+            repositoryValidator.validatePropertiesForType(repositoryName,
+                                                          instanceParameterName,
+                                                          typeDef,
+                                                          relationship.getProperties(),
+                                                          methodName);
+        }
+
+        repositoryStore.addRelationshipsToStore(relationships);
+    }
+
+
     /**
      * Remove the reference copy of the relationship from the local repository. This method can be used to
      * remove reference copies from the local cohort, repositories that have left the cohort,
@@ -11,6 +11,7 @@ import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconn
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.EntityMapper;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.RelationshipMapper;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
@@ -33,6 +34,8 @@ class PostgresOMRSMetadataStore
     private final String                localMetadataCollectionId;
     private final boolean               isReadOnly;
     private final Date                  defaultAsOfTime;
+    private final boolean               textSearchIndexes;
+    private final boolean               currentStateTables;
     private final JDBCResourceConnector jdbcResourceConnector;
 
 
@@ -45,6 +48,8 @@ class PostgresOMRSMetadataStore
      * @param localMetadataCollectionId metadata collection Id for this repository
      * @param isReadOnly should the repository run in readOnly mode?
      * @param defaultAsOfTime what is the default value for asOfTime?
+     * @param textSearchIndexes are the text search indexes available for searches on property values?
+     * @param currentStateTables are the current state tables in use?
      * @param jdbcResourceConnector connector to access the database
      */
     PostgresOMRSMetadataStore(String                repositoryName,
@@ -52,6 +57,8 @@ class PostgresOMRSMetadataStore
                               String                localMetadataCollectionId,
                               boolean               isReadOnly,
                               Date                  defaultAsOfTime,
+                              boolean               textSearchIndexes,
+                              boolean               currentStateTables,
                               JDBCResourceConnector jdbcResourceConnector)
     {
         this.repositoryName = repositoryName;
@@ -59,6 +66,8 @@ class PostgresOMRSMetadataStore
         this.localMetadataCollectionId = localMetadataCollectionId;
         this.isReadOnly = isReadOnly;
         this.defaultAsOfTime = defaultAsOfTime;
+        this.textSearchIndexes = textSearchIndexes;
+        this.currentStateTables = currentStateTables;
         this.jdbcResourceConnector = jdbcResourceConnector;
     }
 
@@ -96,7 +105,7 @@ class PostgresOMRSMetadataStore
 
         EntityMapper storedEntity;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             storedEntity = databaseStore.getEntityFromStore(guid, getAsOfTime(asOfTime));
         }
@@ -148,7 +157,7 @@ class PostgresOMRSMetadataStore
     {
         EntityMapper storedEntity;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             storedEntity = databaseStore.getEntityFromStore(guid, getAsOfTime(null));
         }
@@ -180,7 +189,7 @@ class PostgresOMRSMetadataStore
     {
         EntityMapper storedEntity;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             storedEntity = databaseStore.getEntityFromStore(guid, getAsOfTime(asOfTime));
         }
@@ -245,6 +254,7 @@ class PostgresOMRSMetadataStore
 
         entityQueryBuilder.setTypeGUID(entityTypeGUID, entityTypeGUIDParameterName);
         entityQueryBuilder.setSearchString(searchString, startsWith, endsWith, ignoreCase);
+        entityQueryBuilder.setTextSearchIndexes(textSearchIndexes);
         entityQueryBuilder.setLimitResultsByStatus(limitResultsByStatus);
         entityQueryBuilder.setAsOfTime(asOfTime);
         entityQueryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
@@ -265,7 +275,7 @@ class PostgresOMRSMetadataStore
 
         List<EntityMapper> entityMappers;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
                                                                       classificationQueryBuilder,
@@ -343,7 +353,7 @@ class PostgresOMRSMetadataStore
 
         List<EntityMapper> entityMappers;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
                                                                       classificationQueryBuilder,
@@ -366,6 +376,8 @@ class PostgresOMRSMetadataStore
      * @param fromEntityElement the starting element number of the entities to return.
      *                                This is used when retrieving elements
      *                                beyond the first page of results. Zero means start from the first element.
+     * @param continuationToken position after the last element of the previous page - if not null it is used
+     *                          in place of fromEntityElement
      * @param limitResultsByStatus By default, entities in all non-DELETED statuses are returned.  However, it is possible
      *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
      *                             status values except DELETED.
@@ -386,6 +398,7 @@ class PostgresOMRSMetadataStore
                                     boolean                   skipSubtypes,
                                     SearchProperties          matchProperties,
                                     int                       fromEntityElement,
+                                    ContinuationToken         continuationToken,
                                     List<InstanceStatus>      limitResultsByStatus,
                                     SearchClassifications     matchClassifications,
                                     Date                      asOfTime,
@@ -408,6 +421,7 @@ class PostgresOMRSMetadataStore
         entityQueryBuilder.setAsOfTime(asOfTime);
         entityQueryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
         entityQueryBuilder.setPaging(fromEntityElement, pageSize);
+        entityQueryBuilder.setContinuationToken(continuationToken);
 
         if (matchClassifications != null)
         {
@@ -422,7 +436,7 @@ class PostgresOMRSMetadataStore
 
         List<EntityMapper> entityMappers;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
                                                                       classificationQueryBuilder,
@@ -486,7 +500,7 @@ class PostgresOMRSMetadataStore
             classificationQueryBuilder.setAsOfTime(asOfTime);
         }
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             return databaseStore.countEntitiesByProperties(entityQueryBuilder, classificationQueryBuilder, localMetadataCollectionId);
         }
@@ -554,7 +568,7 @@ class PostgresOMRSMetadataStore
 
         List<EntityMapper> entityMappers;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
                                                                       classificationQueryBuilder,
@@ -615,7 +629,7 @@ class PostgresOMRSMetadataStore
     {
         RelationshipMapper storedRelationship;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             storedRelationship = databaseStore.getRelationshipFromStore(guid, getAsOfTime(null));
         }
@@ -642,7 +656,7 @@ class PostgresOMRSMetadataStore
     {
         RelationshipMapper storedRelationship;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             storedRelationship = databaseStore.getRelationshipFromStore(guid, asOfTime);
         }
@@ -703,7 +717,7 @@ class PostgresOMRSMetadataStore
 
         List<RelationshipMapper> storedRelationships;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             storedRelationships = databaseStore.retrieveRelationships(queryBuilder, getAsOfTime(asOfTime));
         }
@@ -761,6 +775,8 @@ class PostgresOMRSMetadataStore
      * @param fromRelationshipElement the starting element number of the entities to return.
      *                                This is used when retrieving elements
      *                                beyond the first page of results. Zero means start from the first element.
+     * @param continuationToken position after the last element of the previous page - if not null it is used
+     *                          in place of fromRelationshipElement
      * @param limitResultsByStatus By default, relationships in all non-DELETED statuses are returned.  However, it is possible
      *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
      *                             status values except DELETED.
@@ -783,6 +799,7 @@ class PostgresOMRSMetadataStore
                                          EndMatchCriteria          endMatchCriteria,
                                          SearchProperties          matchProperties,
                                          int                       fromRelationshipElement,
+                                         ContinuationToken         continuationToken,
                                          List<InstanceStatus>      limitResultsByStatus,
                                          Date                      asOfTime,
                                          String                    sequencingProperty,
@@ -804,10 +821,11 @@ class PostgresOMRSMetadataStore
         queryBuilder.setAsOfTime(asOfTime);
         queryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
         queryBuilder.setPaging(fromRelationshipElement, pageSize);
+        queryBuilder.setContinuationToken(continuationToken);
 
         List<RelationshipMapper> storedRelationships;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             storedRelationships = databaseStore.retrieveRelationshipsByProperties(queryBuilder, asOfTime);
         }
@@ -865,7 +883,7 @@ class PostgresOMRSMetadataStore
         queryBuilder.setLimitResultsByStatus(limitResultsByStatus);
         queryBuilder.setAsOfTime(asOfTime);
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             return databaseStore.countRelationshipsByProperties(queryBuilder, localMetadataCollectionId);
         }
@@ -925,7 +943,7 @@ class PostgresOMRSMetadataStore
 
         List<RelationshipMapper> storedRelationships;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             storedRelationships = databaseStore.retrieveRelationshipsByProperties(queryBuilder, asOfTime);
         }
@@ -983,6 +1001,7 @@ class PostgresOMRSMetadataStore
 
         queryBuilder.setTypeGUID(relationshipTypeGUID, relationshipTypeGUIDParameterName);
         queryBuilder.setSearchString(searchString, startsWith, endsWith, ignoreCase);
+        queryBuilder.setTextSearchIndexes(textSearchIndexes);
         queryBuilder.setLimitResultsByStatus(limitResultsByStatus);
         queryBuilder.setAsOfTime(asOfTime);
         queryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
@@ -990,7 +1009,7 @@ class PostgresOMRSMetadataStore
 
         List<RelationshipMapper> storedRelationships;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             storedRelationships = databaseStore.retrieveRelationshipsByProperties(queryBuilder, asOfTime);
         }
@@ -1014,7 +1033,7 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             EntityMapper storedEntity = databaseStore.getEntityForUpdate(entityDetail.getGUID());
 
@@ -1042,6 +1061,63 @@ class PostgresOMRSMetadataStore
     }
 
 
+    /**
+     * Save a list of entities to the entity store in a single transaction.  If an entity appears more than once,
+     * only its latest version is saved.  As for a single entity, an entity is skipped if the stored copy
+     * is already at the same or a later version.
+     *
+     * @param entities entity objects to add
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    void addEntitiesToStore(List<EntityDetail> entities) throws RepositoryErrorException
+    {
+        final String methodName = "addEntitiesToStore";
+
+        if (isReadOnly)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
+        }
+
+        Map<String, EntityDetail> latestEntities = new LinkedHashMap<>();
+
+        for (EntityDetail entityDetail : entities)
+        {
+            EntityDetail previousEntity = latestEntities.get(entityDetail.getGUID());
+
+            if ((previousEntity == null) || (entityDetail.getVersion() > previousEntity.getVersion()))
+            {
+                latestEntities.put(entityDetail.getGUID(), entityDetail);
+            }
+        }
+
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
+        {
+            List<EntityMapper> newEntities = new ArrayList<>();
+
+            for (EntityDetail entityDetail : latestEntities.values())
+            {
+                EntityMapper storedEntity = databaseStore.getEntityForUpdate(entityDetail.getGUID());
+
+                if (storedEntity == null)
+                {
+                    newEntities.add(new EntityMapper(entityDetail, repositoryHelper, repositoryName));
+                }
+                else if (entityDetail.getVersion() > storedEntity.getEntityDetail().getVersion())
+                {
+                    databaseStore.updatePreviousEntityVersionEndTime(storedEntity, databaseStore.getVersionEndDate(entityDetail.getUpdateTime()));
+                    newEntities.add(new EntityMapper(entityDetail, repositoryHelper, repositoryName));
+                }
+            }
+
+            if (! newEntities.isEmpty())
+            {
+                databaseStore.addEntitiesToStore(newEntities);
+                databaseStore.commit();
+            }
+        }
+    }
+
+
     /**
      * Save an entity proxy to the entity store.
      *
@@ -1057,7 +1133,7 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             databaseStore.addEntityProxyToStore(new EntityMapper(entityProxy, repositoryHelper, repositoryName));
             databaseStore.commit();
@@ -1081,7 +1157,7 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             RelationshipMapper storedRelationship = databaseStore.getRelationshipForUpdate(relationship.getGUID());
 
@@ -1108,6 +1184,64 @@ class PostgresOMRSMetadataStore
     }
 
 
+    /**
+     * Save a list of relationships (and proxies for any unknown entities at their ends) to the relationship
+     * store in a single transaction.  If a relationship appears more than once, only its latest version is saved.
+     * As for a single relationship, a relationship is skipped if the stored copy is already at the same or a
+     * later version.
+     *
+     * @param relationships relationships to add
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    void addRelationshipsToStore(List<Relationship> relationships) throws RepositoryErrorException
+    {
+        final String methodName = "addRelationshipsToStore";
+
+        if (isReadOnly)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
+        }
+
+        Map<String, Relationship> latestRelationships = new LinkedHashMap<>();
+
+        for (Relationship relationship : relationships)
+        {
+            Relationship previousRelationship = latestRelationships.get(relationship.getGUID());
+
+            if ((previousRelationship == null) || (relationship.getVersion() > previousRelationship.getVersion()))
+            {
+                latestRelationships.put(relationship.getGUID(), relationship);
+            }
+        }
+
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
+        {
+            List<RelationshipMapper> newRelationships = new ArrayList<>();
+
+            for (Relationship relationship : latestRelationships.values())
+            {
+                RelationshipMapper storedRelationship = databaseStore.getRelationshipForUpdate(relationship.getGUID());
+
+                if (storedRelationship == null)
+                {
+                    newRelationships.add(new RelationshipMapper(relationship, repositoryHelper, repositoryName));
+                }
+                else if (relationship.getVersion() > storedRelationship.getRelationship().getVersion())
+                {
+                    databaseStore.updatePreviousRelationshipVersionEndTime(storedRelationship, databaseStore.getVersionEndDate(relationship.getUpdateTime()));
+                    newRelationships.add(new RelationshipMapper(relationship, repositoryHelper, repositoryName));
+                }
+            }
+
+            if (! newRelationships.isEmpty())
+            {
+                databaseStore.addRelationshipsToStore(newRelationships);
+                databaseStore.commit();
+            }
+        }
+    }
+
+
     /**
      * Maintain a classification within the entity.
      *
@@ -1125,7 +1259,7 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             ClassificationMapper storedClassification = databaseStore.getClassificationForUpdate(entityGUID, classification.getName());
 
@@ -1193,7 +1327,7 @@ class PostgresOMRSMetadataStore
     {
         List<RelationshipMapper> storedRelationships;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             storedRelationships = databaseStore.getRelationshipHistoryFromStore(currentRelationship.getGUID(), null, null, true);
         }
@@ -1224,7 +1358,7 @@ class PostgresOMRSMetadataStore
     {
         List<EntityMapper> storedEntities;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             storedEntities = databaseStore.getEntityHistoryFromStore(currentEntity.getGUID(),
                                                                     null,
@@ -1267,7 +1401,7 @@ class PostgresOMRSMetadataStore
     {
         List<ClassificationMapper> classificationMappers;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             classificationMappers = databaseStore.getHomeClassifications(guid, localMetadataCollectionId, getAsOfTime(null));
         }
@@ -1308,7 +1442,7 @@ class PostgresOMRSMetadataStore
     {
         List<EntityMapper> entityMappers;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             entityMappers = databaseStore.getEntityHistoryFromStore(guid, fromTime, toTime, oldestFirst);
         }
@@ -1354,7 +1488,7 @@ class PostgresOMRSMetadataStore
     {
         List<ClassificationMapper> classificationMappers;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             classificationMappers = databaseStore.getClassificationHistoryFromStore(guid, classificationName, fromTime, toTime, oldestFirst);
         }
@@ -1395,7 +1529,7 @@ class PostgresOMRSMetadataStore
     {
         List<RelationshipMapper> relationshipMappers;
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             relationshipMappers = databaseStore.getRelationshipHistoryFromStore(guid, fromTime, toTime, oldestFirst);
         }
@@ -1435,7 +1569,7 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             databaseStore.purgeClassification(entityGUID, classificationName);
             databaseStore.commit();
@@ -1458,7 +1592,7 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             databaseStore.purgeEntity(guid);
             databaseStore.commit();
@@ -1481,7 +1615,7 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper, currentStateTables))
         {
             databaseStore.purgeRelationship(guid);
             databaseStore.commit();
@@ -4,21 +4,30 @@ package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositorycon
 
 
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLIndex;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLSchemaDDL;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.controls.PostgresConfigurationProperty;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database.DatabaseStore;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresAuditCode;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresErrorCode;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.ControlMapper;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryIndex;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryIndexUsage;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
 import org.odpi.openmetadata.frameworks.connectors.Connector;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.PropertyServerException;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
+import java.sql.SQLException;
+import java.sql.Types;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -29,7 +38,15 @@ import java.util.UUID;
 public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
 {
     private final static String supportedSchemaVersion = "V1.0";
+
+    /*
+     * Number of instances copied to the current state tables in each transaction when they are reloaded.
+     */
+    private final static int    currentStateChunkSize  = 1000;
+
     private JDBCResourceConnector jdbcResourceConnector = null;
+    private boolean               textSearchIndexes     = false;
+    private boolean               currentStateTables    = false;
 
     /**
      * Default constructor used by the OCF Connector Provider.
@@ -68,11 +85,12 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
                         try
                         {
                             /*
-                             * Pass any pool sizing supplied on this repository's own configuration down to the
-                             * embedded connector.  This must happen before it is started, since that is when the
+                             * Pass any pool and batch sizing supplied on this repository's own configuration down to
+                             * the embedded connector.  This must happen before it is started, since that is when the
                              * pool is built.
                              */
                             this.passThroughConfigurationProperty(PostgresConfigurationProperty.JDBC_MAXIMUM_POOL_SIZE.getName());
+                            this.passThroughConfigurationProperty(PostgresConfigurationProperty.JDBC_MAXIMUM_BATCH_SIZE.getName());
 
                             if (! jdbcResourceConnector.isActive())
                             {
@@ -93,6 +111,8 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
                                                                                           repositoryValidator,
                                                                                           isReadOnly,
                                                                                           defaultAsOfTime,
+                                                                                          textSearchIndexes,
+                                                                                          currentStateTables,
                                                                                           jdbcResourceConnector,
                                                                                           metadataCollectionId);
                             break;
@@ -160,6 +180,13 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
             schemaName = "repository_" + serverName;
         }
 
+        textSearchIndexes = super.getBooleanConfigurationProperty(PostgresConfigurationProperty.TEXT_SEARCH_INDEXES.getName(),
+                                                                  connectionBean.getConfigurationProperties());
+        currentStateTables = super.getBooleanConfigurationProperty(PostgresConfigurationProperty.CURRENT_STATE_TABLES.getName(),
+                                                                   connectionBean.getConfigurationProperties());
+
+        boolean currentStateLoaded;
+
         try
         {
             loadDDL(jdbcResourceConnector, schemaName);
@@ -211,6 +238,23 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
                                                        this.getClass().getName(),
                                                        methodName);
                 }
+
+                currentStateLoaded = controlMapper.isCurrentStateLoaded();
+
+                if ((! currentStateTables) && (currentStateLoaded))
+                {
+                    /*
+                     * The current state tables are not maintained while they are turned off, so they are marked
+                     * as out of step before any change is made.
+                     */
+                    databaseStore.setCurrentStateLoaded(false);
+                    databaseStore.commit();
+                }
+            }
+
+            if ((currentStateTables) && (! currentStateLoaded))
+            {
+                this.loadCurrentStateTables(jdbcResourceConnector, schemaName);
             }
         }
         catch (RepositoryErrorException error)
@@ -258,9 +302,22 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
         {
             PostgreSQLSchemaDDL postgreSQLSchemaDDL = new PostgreSQLSchemaDDL(schemaName,
                                                                               repositoryName,
-                                                                              RepositoryTable.getTables());
-            jdbcResourceConnector.addDatabaseDefinitions(jdbcConnection, postgreSQLSchemaDDL.getDDLStatements());
+                                                                              RepositoryTable.getTables(currentStateTables),
+                                                                              RepositoryIndex.getIndexes(textSearchIndexes));
+            jdbcResourceConnector.addDatabaseDefinitions(jdbcConnection, postgreSQLSchemaDDL.getTableDDLStatements());
+
             jdbcConnection.commit();
+
+            if ((textSearchIndexes) && (! this.isTextSearchExtensionInstalled(jdbcResourceConnector, jdbcConnection, schemaName)))
+            {
+                textSearchIndexes = false;
+                postgreSQLSchemaDDL = new PostgreSQLSchemaDDL(schemaName,
+                                                              repositoryName,
+                                                              RepositoryTable.getTables(currentStateTables),
+                                                              RepositoryIndex.getIndexes(false));
+            }
+
+            this.buildIndexes(jdbcResourceConnector, jdbcConnection, postgreSQLSchemaDDL, schemaName);
         }
         catch (Exception error)
         {
@@ -281,6 +338,319 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
     }
 
 
+    /**
+     * Empty the current state tables and reload them from the history tables.  This is only needed when the
+     * control table shows that they are out of step: that is the first time they are used, after the server has
+     * run without them (since they are not maintained while they are turned off) or after an earlier reload
+     * failed part way through.  The instances are copied in chunks, one transaction per chunk, so the time and
+     * memory needed for each transaction is bounded however large the repository is.  The tables are only
+     * marked as in step once every chunk is loaded.  The repository is not in use until the connector has started,
+     * so the partly loaded tables are never read.
+     *
+     * @param jdbcResourceConnector resource connector for JDBC (started)
+     * @param schemaName name of the schema
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private void loadCurrentStateTables(JDBCResourceConnector jdbcResourceConnector,
+                                        String                schemaName) throws RepositoryErrorException
+    {
+        final String methodName = "loadCurrentStateTables";
+
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector,
+                                                             repositoryName,
+                                                             repositoryHelper))
+        {
+            databaseStore.truncateCurrentStateTables();
+            databaseStore.commit();
+        }
+
+        int entityCount       = this.loadCurrentState(jdbcResourceConnector, true);
+        int relationshipCount = this.loadCurrentState(jdbcResourceConnector, false);
+
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector,
+                                                             repositoryName,
+                                                             repositoryHelper))
+        {
+            databaseStore.setCurrentStateLoaded(true);
+            databaseStore.commit();
+        }
+
+        if ((entityCount > 0) || (relationshipCount > 0))
+        {
+            auditLog.logMessage(methodName,
+                                PostgresAuditCode.CURRENT_STATE_TABLES_LOADED.getMessageDefinition(repositoryName,
+                                                                                                   Integer.toString(entityCount),
+                                                                                                   Integer.toString(relationshipCount),
+                                                                                                   schemaName));
+        }
+    }
+
+
+    /**
+     * Copy the current entities or relationships from the history tables to their current state table, one chunk
+     * per transaction.  The entities must be loaded before the relationships.
+     *
+     * @param jdbcResourceConnector resource connector for JDBC (started)
+     * @param loadEntities true to load the entities, false to load the relationships
+     * @return number of instances loaded
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private int loadCurrentState(JDBCResourceConnector jdbcResourceConnector,
+                                 boolean               loadEntities) throws RepositoryErrorException
+    {
+        int          instanceCount = 0;
+        String       lastGUID      = null;
+        List<String> loadedGUIDs;
+
+        do
+        {
+            try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector,
+                                                                 repositoryName,
+                                                                 repositoryHelper))
+            {
+                if (loadEntities)
+                {
+                    loadedGUIDs = databaseStore.loadCurrentEntities(lastGUID, currentStateChunkSize);
+                }
+                else
+                {
+                    loadedGUIDs = databaseStore.loadCurrentRelationships(lastGUID, currentStateChunkSize);
+                }
+
+                databaseStore.commit();
+            }
+
+            if (! loadedGUIDs.isEmpty())
+            {
+                instanceCount = instanceCount + loadedGUIDs.size();
+                lastGUID      = loadedGUIDs.get(loadedGUIDs.size() - 1);
+            }
+        }
+        while (loadedGUIDs.size() == currentStateChunkSize);
+
+        return instanceCount;
+    }
+
+
+    /**
+     * Check that the pg_trgm extension, which provides the operator class for the trigram indexes, is installed in
+     * the database.  The connector does not install it: installing an extension is a database administration task,
+     * so it is a prerequisite of the textSearchIndexes option.
+     *
+     * @param jdbcResourceConnector resource connector for JDBC (started)
+     * @param jdbcConnection connection to use
+     * @param schemaName name of the schema
+     * @return true if the text search indexes can be used
+     * @throws SQLException problem ending the transaction
+     */
+    private boolean isTextSearchExtensionInstalled(JDBCResourceConnector jdbcResourceConnector,
+                                                   java.sql.Connection   jdbcConnection,
+                                                   String                schemaName) throws SQLException
+    {
+        final String methodName = "isTextSearchExtensionInstalled";
+
+        final String extensionNameColumn = "extname";
+
+        String errorMessage;
+
+        try
+        {
+            List<Map<String, JDBCDataValue>> extensionRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
+                                                                                                   "select " + extensionNameColumn + " from pg_extension where " + extensionNameColumn + " = 'pg_trgm'",
+                                                                                                   Map.of(extensionNameColumn, Types.VARCHAR));
+            jdbcConnection.commit();
+
+            if ((extensionRows != null) && (! extensionRows.isEmpty()))
+            {
+                return true;
+            }
+
+            errorMessage = "the extension is not installed in the database";
+        }
+        catch (PropertyServerException error)
+        {
+            errorMessage = error.getMessage();
+        }
+
+        auditLog.logMessage(methodName,
+                            PostgresAuditCode.TEXT_SEARCH_UNAVAILABLE.getMessageDefinition(repositoryName,
+                                                                                           schemaName,
+                                                                                           errorMessage));
+
+        return false;
+    }
+
+
+    /**
+     * Build the secondary indexes that are missing from the schema, or were left invalid by an earlier build
+     * that did not complete.  The indexes are built concurrently so that adding them to an existing repository
+     * (perhaps shared with other servers that are still running) does not lock out updates to its tables.
+     * A concurrent build can not run inside a transaction, so the connection is switched to auto-commit while
+     * the indexes are built.  An index that fails to build is reported and skipped - the repository works
+     * without it, only more slowly - and the build is tried again the next time the connector starts.
+     *
+     * @param jdbcResourceConnector resource connector for JDBC (started)
+     * @param jdbcConnection connection to use
+     * @param postgreSQLSchemaDDL definition of the schema
+     * @param schemaName name of the schema
+     * @throws SQLException problem switching the connection's commit mode
+     * @throws PropertyServerException problem reading the database catalog
+     */
+    private void buildIndexes(JDBCResourceConnector jdbcResourceConnector,
+                              java.sql.Connection   jdbcConnection,
+                              PostgreSQLSchemaDDL   postgreSQLSchemaDDL,
+                              String                schemaName) throws SQLException, PropertyServerException
+    {
+        final String methodName = "buildIndexes";
+
+        if (postgreSQLSchemaDDL.getIndexes() == null)
+        {
+            return;
+        }
+
+        Map<String, Boolean> existingIndexes = this.getExistingIndexes(jdbcResourceConnector, jdbcConnection);
+
+        jdbcConnection.setAutoCommit(true);
+
+        try
+        {
+            for (PostgreSQLIndex index : postgreSQLSchemaDDL.getIndexes())
+            {
+                if (index != null)
+                {
+                    Boolean isValid = existingIndexes.get(index.getIndexName());
+
+                    try
+                    {
+                        if (isValid == null)
+                        {
+                            auditLog.logMessage(methodName,
+                                                PostgresAuditCode.BUILDING_REPOSITORY_INDEX.getMessageDefinition(repositoryName,
+                                                                                                                 index.getIndexName(),
+                                                                                                                 index.getIndexedTable().getTableName(),
+                                                                                                                 schemaName));
+
+                            jdbcResourceConnector.issueSQLCommand(jdbcConnection, postgreSQLSchemaDDL.getCreateIndexDDL(index, true));
+                        }
+                        else if (! isValid)
+                        {
+                            auditLog.logMessage(methodName,
+                                                PostgresAuditCode.REBUILDING_INVALID_INDEX.getMessageDefinition(repositoryName,
+                                                                                                                index.getIndexName(),
+                                                                                                                schemaName));
+
+                            jdbcResourceConnector.issueSQLCommand(jdbcConnection, postgreSQLSchemaDDL.getDropIndexDDL(index));
+                            jdbcResourceConnector.issueSQLCommand(jdbcConnection, postgreSQLSchemaDDL.getCreateIndexDDL(index, true));
+                        }
+
+                        String commentStatement = postgreSQLSchemaDDL.getIndexCommentDDL(index);
+
+                        if (commentStatement != null)
+                        {
+                            jdbcResourceConnector.issueSQLCommand(jdbcConnection, commentStatement);
+                        }
+                    }
+                    catch (PropertyServerException error)
+                    {
+                        auditLog.logException(methodName,
+                                              PostgresAuditCode.REPOSITORY_INDEX_FAILED.getMessageDefinition(repositoryName,
+                                                                                                             index.getIndexName(),
+                                                                                                             schemaName,
+                                                                                                             error.getClass().getName(),
+                                                                                                             error.getMessage()),
+                                              error);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            jdbcConnection.setAutoCommit(false);
+        }
+    }
+
+
+    /**
+     * Return the indexes that already exist in the current schema, along with whether the database can use them.
+     *
+     * @param jdbcResourceConnector resource connector for JDBC (started)
+     * @param jdbcConnection connection to use
+     * @return map of index name to valid flag
+     * @throws SQLException problem ending the catalog query's transaction
+     * @throws PropertyServerException problem reading the database catalog
+     */
+    private Map<String, Boolean> getExistingIndexes(JDBCResourceConnector jdbcResourceConnector,
+                                                    java.sql.Connection   jdbcConnection) throws SQLException, PropertyServerException
+    {
+        final String indexNameColumn  = "index_name";
+        final String indexValidColumn = "index_valid";
+
+        final String sqlCommand = "select c.relname as " + indexNameColumn + ", i.indisvalid as " + indexValidColumn +
+                " from pg_index i join pg_class c on c.oid = i.indexrelid join pg_namespace n on n.oid = c.relnamespace" +
+                " where n.nspname = current_schema();";
+
+        Map<String, Integer> columnNameTypeMap = new HashMap<>();
+
+        columnNameTypeMap.put(indexNameColumn, Types.VARCHAR);
+        columnNameTypeMap.put(indexValidColumn, Types.BOOLEAN);
+
+        List<Map<String, JDBCDataValue>> indexRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
+                                                                                           sqlCommand,
+                                                                                           columnNameTypeMap);
+        jdbcConnection.commit();
+
+        Map<String, Boolean> existingIndexes = new HashMap<>();
+
+        if (indexRows != null)
+        {
+            for (Map<String, JDBCDataValue> indexRow : indexRows)
+            {
+                JDBCDataValue indexName  = indexRow.get(indexNameColumn);
+                JDBCDataValue indexValid = indexRow.get(indexValidColumn);
+
+                if (indexName != null)
+                {
+                    existingIndexes.put(indexName.getDataValue().toString(),
+                                        (indexValid != null) && (Boolean.TRUE.equals(indexValid.getDataValue())));
+                }
+            }
+        }
+
+        return existingIndexes;
+    }
+
+
+    /**
+     * Return how the secondary indexes in the repository's database schema are being used.  This is a
+     * diagnostic for administrators tuning the repository: it lists every index in the schema with its scan
+     * counts and size, along with any of the connector's own indexes that are missing or invalid.
+     *
+     * @return list of index usage reports
+     * @throws RepositoryErrorException the connector is not started or there is a problem reading the database catalog
+     */
+    public List<RepositoryIndexUsage> getIndexUsage() throws RepositoryErrorException
+    {
+        final String methodName = "getIndexUsage";
+
+        if (jdbcResourceConnector == null)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           IllegalStateException.class.getName(),
+                                                                                                           methodName,
+                                                                                                           "No JDBC resource connector"),
+                                               this.getClass().getName(),
+                                               methodName);
+        }
+
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector,
+                                                             repositoryName,
+                                                             repositoryHelper))
+        {
+            return databaseStore.getIndexUsage(RepositoryIndex.getIndexes(textSearchIndexes));
+        }
+    }
+
+
 
 
     /**
@@ -24,6 +24,9 @@ public enum PostgresConfigurationProperty
     DEFAULT_AS_OF_TIME ("defaultAsOfTime", "Optional value that changes the default value for 'asOfTime'. The 'asOfTime' parameter is used on queries to control which point in time to take the open metadata from.  The standard default is 'null' which means use the current time. If the 'defaultAsOfTime' option is specified then, by default, queries will use the supplied asOfTime value.  This can be overridden on individual requests.  Creates, updates, deletes continue to be appended to the database.  The mode recent data can be retrieved by setting the asOfTime to the current time on queries.", DataType.DATE.getDisplayName(), null),
     REPOSITORY_MODE ("repositoryMode", "Optional value that controls which functions are active in the repository. If it is set to 'readOnly' the repository is switched into read-only mode.  Any other value (or if it is not specified) results in a read-write repository.", DataType.DATE.getDisplayName(), "yyyy/MM/dd HH:mm:ss"),
     JDBC_MAXIMUM_POOL_SIZE ("jdbcMaximumPoolSize", "Optional value that sets the maximum number of database connections this repository will hold open at once.  It is passed straight through to the embedded JDBC resource connector.  This repository's pool is the single route to the database for every metadata request the server handles, so it needs to be sized for the server's concurrency rather than left at the JDBC connector's general default.  This value overrides any setting on the embedded JDBC connection, which acts as the default.", DataType.INT.getDisplayName(), "10"),
+    JDBC_MAXIMUM_BATCH_SIZE ("jdbcMaximumBatchSize", "Optional value that sets the maximum number of rows or statements the repository sends to the database in one batch.  It is passed straight through to the embedded JDBC resource connector and overrides any setting on the embedded JDBC connection.", DataType.INT.getDisplayName(), "1000"),
+    TEXT_SEARCH_INDEXES ("textSearchIndexes", "Optional value that, when set to true, builds trigram and full-text indexes over the property values so that searches on property values (for example, type-ahead searches) do not read every property value.  The trigram indexes need the pg_trgm extension, which a database administrator must install (create extension pg_trgm) before this is turned on; the connector starts without the indexes if it is missing.  The indexes increase the size of the database and the cost of updates, so they are off by default.", DataType.BOOLEAN.getDisplayName(), "false"),
+    CURRENT_STATE_TABLES ("currentStateTables", "Optional value that, when set to true, keeps a copy of the latest version of each entity (with its classifications) and relationship as a JSON document in a current state table.  Requests for the current version of an instance, and the results of searches for current instances, are then read from these tables with one row per instance rather than being assembled from the property tables.  The history tables continue to serve requests for earlier versions.  The tables are ignored while this value is off (the default), and are reloaded from the history tables the next time the server starts with it on, so they are never out of step.", DataType.BOOLEAN.getDisplayName(), "false"),
     ;
 
     public final String           name;
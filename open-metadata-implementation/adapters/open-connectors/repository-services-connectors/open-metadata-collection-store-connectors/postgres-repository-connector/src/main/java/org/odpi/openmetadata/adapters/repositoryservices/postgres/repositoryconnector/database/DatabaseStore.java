@@ -4,18 +4,28 @@
 package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLIndex;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.mappers.BaseMapper;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresErrorCode;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.*;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryColumn;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryIndexUsage;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.PropertyServerException;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.*;
 
 /**
@@ -41,13 +51,21 @@ import java.util.*;
  * <br><br>
  * Note that {@link #close()} deliberately does not close the underlying JDBC connection since it is owned - and
  * reused - by the resource connector.  It only ends the transaction.
+ * <br><br>
+ * When the current state tables are in use, the instances changed by the unit of work are copied from the history
+ * tables into the current state tables by {@link #commit()}, in the same transaction.  Requests for current
+ * instances are served from the current state tables unless the unit of work has made changes that are not yet
+ * copied, in which case they are served from the history tables.
  */
 public class DatabaseStore implements AutoCloseable
 {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
     private final JDBCResourceConnector jdbcResourceConnector;
     private final java.sql.Connection   jdbcConnection;
     private final String                repositoryName;
     private final OMRSRepositoryHelper  repositoryHelper;
+    private final boolean               currentStateTables;
 
     private final BaseMapper baseMapper;
 
@@ -56,6 +74,12 @@ public class DatabaseStore implements AutoCloseable
      */
     private boolean committed = false;
 
+    /*
+     * Instances changed by this unit of work that are still to be copied to the current state tables.
+     */
+    private final Set<String> changedEntityGUIDs       = new LinkedHashSet<>();
+    private final Set<String> changedRelationshipGUIDs = new LinkedHashSet<>();
+
     /**
      * Create access to the entity store.
      *
@@ -66,12 +90,30 @@ public class DatabaseStore implements AutoCloseable
     public DatabaseStore(JDBCResourceConnector jdbcResourceConnector,
                          String                repositoryName,
                          OMRSRepositoryHelper  repositoryHelper) throws RepositoryErrorException
+    {
+        this(jdbcResourceConnector, repositoryName, repositoryHelper, false);
+    }
+
+
+    /**
+     * Create access to the entity store.
+     *
+     * @param jdbcResourceConnector connector to the database
+     * @param repositoryName name of this repository
+     * @param repositoryHelper helper
+     * @param currentStateTables are the current state tables in use
+     */
+    public DatabaseStore(JDBCResourceConnector jdbcResourceConnector,
+                         String                repositoryName,
+                         OMRSRepositoryHelper  repositoryHelper,
+                         boolean               currentStateTables) throws RepositoryErrorException
     {
         final String methodName = "DatabaseStore";
 
         this.jdbcResourceConnector = jdbcResourceConnector;
         this.repositoryName        = repositoryName;
         this.repositoryHelper      = repositoryHelper;
+        this.currentStateTables    = currentStateTables;
 
         this.baseMapper = new BaseMapper(repositoryName);
 
@@ -159,6 +201,147 @@ public class DatabaseStore implements AutoCloseable
     }
 
 
+    /**
+     * Return the usage statistics for the secondary indexes in the repository's database schema.  Indexes that
+     * the connector defines are listed even if they are missing from the schema.
+     *
+     * @param managedIndexList indexes that the connector defines for the schema
+     * @return list of index usage reports
+     * @throws RepositoryErrorException problem connecting to the database
+     */
+    public List<RepositoryIndexUsage> getIndexUsage(List<PostgreSQLIndex> managedIndexList) throws RepositoryErrorException
+    {
+        final String methodName = "getIndexUsage";
+
+        final String indexNameColumn     = "index_name";
+        final String tableNameColumn     = "table_name";
+        final String indexValidColumn    = "index_valid";
+        final String indexScansColumn    = "index_scans";
+        final String tuplesReadColumn    = "tuples_read";
+        final String tuplesFetchedColumn = "tuples_fetched";
+        final String indexSizeColumn     = "index_size";
+
+        final String sqlCommand = "select s.indexrelname as " + indexNameColumn +
+                ", s.relname as " + tableNameColumn +
+                ", i.indisvalid as " + indexValidColumn +
+                ", s.idx_scan as " + indexScansColumn +
+                ", s.idx_tup_read as " + tuplesReadColumn +
+                ", s.idx_tup_fetch as " + tuplesFetchedColumn +
+                ", pg_relation_size(s.indexrelid) as " + indexSizeColumn +
+                " from pg_stat_user_indexes s join pg_index i on i.indexrelid = s.indexrelid" +
+                " where s.schemaname = current_schema()" +
+                " order by s.relname, s.indexrelname;";
+
+        Map<String, Integer> columnNameTypeMap = new HashMap<>();
+
+        columnNameTypeMap.put(indexNameColumn, Types.VARCHAR);
+        columnNameTypeMap.put(tableNameColumn, Types.VARCHAR);
+        columnNameTypeMap.put(indexValidColumn, Types.BOOLEAN);
+        columnNameTypeMap.put(indexScansColumn, Types.BIGINT);
+        columnNameTypeMap.put(tuplesReadColumn, Types.BIGINT);
+        columnNameTypeMap.put(tuplesFetchedColumn, Types.BIGINT);
+        columnNameTypeMap.put(indexSizeColumn, Types.BIGINT);
+
+        try
+        {
+            List<Map<String, JDBCDataValue>> indexRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
+                                                                                               sqlCommand,
+                                                                                               columnNameTypeMap);
+
+            Map<String, PostgreSQLIndex> managedIndexes = new LinkedHashMap<>();
+            List<RepositoryIndexUsage>   results        = new ArrayList<>();
+
+            for (PostgreSQLIndex managedIndex : managedIndexList)
+            {
+                managedIndexes.put(managedIndex.getIndexName(), managedIndex);
+            }
+
+            if (indexRows != null)
+            {
+                for (Map<String, JDBCDataValue> indexRow : indexRows)
+                {
+                    RepositoryIndexUsage indexUsage = new RepositoryIndexUsage();
+
+                    indexUsage.setIndexName(baseMapper.getStringPropertyFromColumn(indexNameColumn, indexRow, true));
+                    indexUsage.setTableName(baseMapper.getStringPropertyFromColumn(tableNameColumn, indexRow, true));
+                    indexUsage.setManaged(managedIndexes.remove(indexUsage.getIndexName()) != null);
+                    indexUsage.setPresent(true);
+                    indexUsage.setValid(this.getBooleanStatistic(indexValidColumn, indexRow));
+                    indexUsage.setIndexScans(this.getLongStatistic(indexScansColumn, indexRow));
+                    indexUsage.setTuplesRead(this.getLongStatistic(tuplesReadColumn, indexRow));
+                    indexUsage.setTuplesFetched(this.getLongStatistic(tuplesFetchedColumn, indexRow));
+                    indexUsage.setIndexSize(this.getLongStatistic(indexSizeColumn, indexRow));
+
+                    results.add(indexUsage);
+                }
+            }
+
+            /*
+             * Any managed indexes left over are missing from the schema.
+             */
+            for (PostgreSQLIndex missingIndex : managedIndexes.values())
+            {
+                RepositoryIndexUsage indexUsage = new RepositoryIndexUsage();
+
+                indexUsage.setIndexName(missingIndex.getIndexName());
+                indexUsage.setTableName(missingIndex.getIndexedTable().getTableName());
+                indexUsage.setManaged(true);
+
+                results.add(indexUsage);
+            }
+
+            return results;
+        }
+        catch (PropertyServerException sqlException)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           sqlException.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           sqlException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               sqlException);
+        }
+    }
+
+
+    /**
+     * Return a numeric statistic from a row returned from the database catalog.
+     *
+     * @param columnName name of the column
+     * @param row row from the catalog
+     * @return value (zero if the statistic is not available)
+     */
+    private long getLongStatistic(String                     columnName,
+                                  Map<String, JDBCDataValue> row)
+    {
+        JDBCDataValue dataValue = row.get(columnName);
+
+        if ((dataValue != null) && (dataValue.getDataValue() instanceof Number number))
+        {
+            return number.longValue();
+        }
+
+        return 0L;
+    }
+
+
+    /**
+     * Return a boolean flag from a row returned from the database catalog.
+     *
+     * @param columnName name of the column
+     * @param row row from the catalog
+     * @return value (false if the flag is not available)
+     */
+    private boolean getBooleanStatistic(String                     columnName,
+                                        Map<String, JDBCDataValue> row)
+    {
+        JDBCDataValue dataValue = row.get(columnName);
+
+        return (dataValue != null) && (Boolean.TRUE.equals(dataValue.getDataValue()));
+    }
+
+
     /**
      * Retrieve details about an entity from the store.  The entity mapper is returned to allow the caller to choose
      * what style of entity to return.
@@ -202,11 +385,17 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
+            List<JDBCDataValue> parameters = new ArrayList<>();
+
+            parameters.add(new JDBCDataValue(entityGUID, Types.VARCHAR));
+            parameters.add(new JDBCDataValue(classificationName, Types.VARCHAR));
+
             Map<String, JDBCDataValue> classificationRow = jdbcResourceConnector.getMatchingRow(jdbcConnection,
                                                                                                 RepositoryTable.CLASSIFICATION.getTableName(),
-                                                                                                RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + entityGUID +
-                                                                                                        "' and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName + "'" +
-                                                                                                        getAsOfTimeClause(null),
+                                                                                                RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " +
+                                                                                                        RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ?" +
+                                                                                                        getAsOfTimeClause(null, parameters),
+                                                                                                parameters,
                                                                                                 RepositoryTable.CLASSIFICATION.getColumnNameTypeMap());
 
             if (classificationRow != null)
@@ -215,14 +404,20 @@ public class DatabaseStore implements AutoCloseable
 
                 long version = baseMapper.getLongPropertyFromColumn(RepositoryColumn.VERSION.getColumnName(), classificationRow, true);
 
-                String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + entityGUID +
-                        "' and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName +
-                        "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + version;
+                List<JDBCDataValue> propertyParameters = new ArrayList<>();
 
+                String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " +
+                        RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ? and " +
+                        RepositoryColumn.VERSION.getColumnName() + " = ?";
+
+                propertyParameters.add(new JDBCDataValue(entityGUID, Types.VARCHAR));
+                propertyParameters.add(new JDBCDataValue(classificationName, Types.VARCHAR));
+                propertyParameters.add(new JDBCDataValue(version, Types.BIGINT));
 
                 List<Map<String, JDBCDataValue>> classificationProperties = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                                   RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
                                                                                                                   whereClause,
+                                                                                                                  propertyParameters,
                                                                                                                   RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getColumnNameTypeMap());
                 return new ClassificationMapper(classificationRow, classificationProperties, repositoryHelper, repositoryName);
             }
@@ -261,11 +456,17 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
-            String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " + RepositoryColumn.METADATA_COLLECTION_GUID.getColumnName() + " = '" + localMetadataCollectionId + "' " + this.getAsOfTimeClause(asOfTime) + ";";
+            List<JDBCDataValue> parameters = new ArrayList<>();
+
+            parameters.add(new JDBCDataValue(guid, Types.VARCHAR));
+            parameters.add(new JDBCDataValue(localMetadataCollectionId, Types.VARCHAR));
+
+            String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.METADATA_COLLECTION_GUID.getColumnName() + " = ? " + this.getAsOfTimeClause(asOfTime, parameters) + ";";
 
             List<Map<String, JDBCDataValue>> classifications = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                      RepositoryTable.CLASSIFICATION.getTableName(),
                                                                                                      whereClause,
+                                                                                                     parameters,
                                                                                                      RepositoryTable.CLASSIFICATION.getColumnNameTypeMap());
 
             List<ClassificationMapper> classificationMappers = null;
@@ -281,11 +482,18 @@ public class DatabaseStore implements AutoCloseable
                         String classificationName = baseMapper.getStringPropertyFromColumn(RepositoryColumn.CLASSIFICATION_NAME.getColumnName(), classificationRow, true);
                         long   version            = baseMapper.getLongPropertyFromColumn(RepositoryColumn.VERSION.getColumnName(), classificationRow, true);
 
-                        String classificationWhereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + version + " and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName + "';";
+                        String classificationWhereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.VERSION.getColumnName() + " = ? and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ?;";
+
+                        List<JDBCDataValue> classificationParameters = new ArrayList<>();
+
+                        classificationParameters.add(new JDBCDataValue(guid, Types.VARCHAR));
+                        classificationParameters.add(new JDBCDataValue(version, Types.BIGINT));
+                        classificationParameters.add(new JDBCDataValue(classificationName, Types.VARCHAR));
 
                         List<Map<String, JDBCDataValue>> classificationProperties = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                                           RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
                                                                                                                           classificationWhereClause,
+                                                                                                                          classificationParameters,
                                                                                                                           RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getColumnNameTypeMap());
 
                         ClassificationMapper classificationMapper = new ClassificationMapper(classificationRow,
@@ -325,13 +533,39 @@ public class DatabaseStore implements AutoCloseable
     public EntityMapper getEntityFromStore(String guid,
                                            Date   asOfTime) throws RepositoryErrorException
     {
-        final String methodName = "getEntityFromStore";
+        if (this.useCurrentStateTables(asOfTime))
+        {
+            return this.getCurrentEntitiesFromStore(List.of(guid)).get(guid);
+        }
+
+        return this.getEntityFromHistoryTables(guid, asOfTime);
+    }
+
+
+    /**
+     * Retrieve the version of an entity from the history tables that was active at the requested time.
+     * Null is returned if there were no active instance.
+     *
+     * @param guid unique identifier of the entity
+     * @param asOfTime requested time for the version
+     * @return entity mapper
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private EntityMapper getEntityFromHistoryTables(String guid,
+                                                    Date   asOfTime) throws RepositoryErrorException
+    {
+        final String methodName = "getEntityFromHistoryTables";
 
         try
         {
+            List<JDBCDataValue> parameters = new ArrayList<>();
+
+            parameters.add(new JDBCDataValue(guid, Types.VARCHAR));
+
             Map<String, JDBCDataValue> entityRow = jdbcResourceConnector.getMatchingRow(jdbcConnection,
                                                                                         RepositoryTable.ENTITY.getTableName(),
-                                                                                        RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "'" + getAsOfTimeClause(asOfTime),
+                                                                                        RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" + getAsOfTimeClause(asOfTime, parameters),
+                                                                                        parameters,
                                                                                         RepositoryTable.ENTITY.getColumnNameTypeMap());
 
             return this.getCompleteEntityFromStore(guid, entityRow, asOfTime);
@@ -361,13 +595,46 @@ public class DatabaseStore implements AutoCloseable
     public RelationshipMapper getRelationshipFromStore(String guid,
                                                        Date   asOfTime) throws RepositoryErrorException
     {
-        final String methodName = "getRelationshipFromStore";
+        if (this.useCurrentStateTables(asOfTime))
+        {
+            List<RelationshipMapper> relationshipMappers = this.getCurrentRelationshipsFromStore(List.of(guid));
+
+            if (relationshipMappers.isEmpty())
+            {
+                return null;
+            }
+
+            return relationshipMappers.get(0);
+        }
+
+        return this.getRelationshipFromHistoryTables(guid, asOfTime);
+    }
+
+
+    /**
+     * Retrieve the version of a relationship from the history tables that was active at the requested time.
+     * Null is returned if there were no active instance.
+     *
+     * @param guid unique identifier of the relationship
+     * @param asOfTime requested time for the version
+     * @return relationship mapper
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private RelationshipMapper getRelationshipFromHistoryTables(String guid,
+                                                                Date   asOfTime) throws RepositoryErrorException
+    {
+        final String methodName = "getRelationshipFromHistoryTables";
 
         try
         {
+            List<JDBCDataValue> parameters = new ArrayList<>();
+
+            parameters.add(new JDBCDataValue(guid, Types.VARCHAR));
+
             Map<String, JDBCDataValue> relationshipRow = jdbcResourceConnector.getMatchingRow(jdbcConnection,
                                                                                               RepositoryTable.RELATIONSHIP.getTableName(),
-                                                                                              RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "'" + getAsOfTimeClause(asOfTime),
+                                                                                              RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" + getAsOfTimeClause(asOfTime, parameters),
+                                                                                              parameters,
                                                                                               RepositoryTable.RELATIONSHIP.getColumnNameTypeMap());
 
             return this.getCompleteRelationshipFromStore(guid, relationshipRow, asOfTime);
@@ -400,12 +667,16 @@ public class DatabaseStore implements AutoCloseable
     {
         final String methodName = "retrieveEntitiesByProperties";
 
-        // No "distinct" - the entity table's primary key is (instance_guid, version) and the where clause built
-        // by getAsOfTimeWhereClause() only ever narrows rows via EXISTS/IN subqueries, never a join, so this
-        // query cannot return duplicate rows on its own. "distinct" is more than redundant here: postgres
-        // rejects "order by <expression not in the select list>" on a "select distinct" query, which would
-        // otherwise block PROPERTY_ASCENDING/PROPERTY_DESCENDING sequencing (see QueryBuilder.getSequencingPropertyOrderClause()).
-        String sqlEntityQuery = "select * from " + RepositoryTable.ENTITY.getTableName() + " where " + entityQueryBuilder.getAsOfTimeWhereClause();
+        // No "distinct" - the entity table's primary key is (instance_guid, version), the where clause built
+        // by getAsOfTimeWhereClause() only ever narrows rows via EXISTS/IN subqueries, and the sequencing join
+        // matches at most one property row per entity, so this query cannot return duplicate rows on its own.
+        // "distinct" is more than redundant here: postgres rejects "order by <expression not in the select list>"
+        // on a "select distinct" query, which would otherwise block PROPERTY_ASCENDING/PROPERTY_DESCENDING
+        // sequencing (see QueryBuilder.getSequencingJoin()).
+        List<JDBCDataValue> parameters     = new ArrayList<>();
+        String              sqlEntityQuery = "select " + RepositoryTable.ENTITY.getTableName() + ".* from " + RepositoryTable.ENTITY.getTableName() +
+                entityQueryBuilder.getSequencingJoin(parameters) +
+                " where " + entityQueryBuilder.getAsOfTimeWhereClause(parameters);
 
         try
         {
@@ -414,21 +685,27 @@ public class DatabaseStore implements AutoCloseable
             if (classificationQueryBuilder == null)
             {
                 entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                   sqlEntityQuery + entityQueryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName()),
+                                                                   sqlEntityQuery + entityQueryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName(), parameters),
+                                                                   parameters,
                                                                    RepositoryTable.ENTITY.getColumnNameTypeMap());
             }
             else
             {
+                /*
+                 * The parameters are bound in the order that their placeholders appear in the SQL, so the
+                 * classification clause must be built after the entity clause and before the paging.
+                 */
                 String sqlClassificationQuery =
                         "select " + RepositoryColumn.INSTANCE_GUID.getColumnName(RepositoryTable.CLASSIFICATION.getTableName()) +
                                 " from " + RepositoryTable.CLASSIFICATION.getTableName() +
-                                " where " + classificationQueryBuilder.getAsOfTimeWhereClause();
+                                " where " + classificationQueryBuilder.getAsOfTimeWhereClause(parameters);
 
                 entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                    sqlEntityQuery + " and " +
                                                                            RepositoryColumn.INSTANCE_GUID.getColumnName(RepositoryTable.ENTITY.getTableName()) +
                                                                            " in (" + sqlClassificationQuery + ")" +
-                                                                           entityQueryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName()),
+                                                                           entityQueryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName(), parameters),
+                                                                   parameters,
                                                                    RepositoryTable.ENTITY.getColumnNameTypeMap());
             }
 
@@ -474,25 +751,27 @@ public class DatabaseStore implements AutoCloseable
     {
         final String methodName = "countEntitiesByProperties";
 
-        String entityGUIDColumn = RepositoryColumn.INSTANCE_GUID.getColumnName(RepositoryTable.ENTITY.getTableName());
-        String sqlEntityQuery = "select count(distinct " + entityGUIDColumn + ") from " + RepositoryTable.ENTITY.getTableName() + " where " +
-                entityQueryBuilder.getAsOfTimeWhereClause() + entityQueryBuilder.getLocalMetadataCollectionClause(localMetadataCollectionId);
+        List<JDBCDataValue> parameters       = new ArrayList<>();
+        String              entityGUIDColumn = RepositoryColumn.INSTANCE_GUID.getColumnName(RepositoryTable.ENTITY.getTableName());
+        String              sqlEntityQuery   = "select count(distinct " + entityGUIDColumn + ") from " + RepositoryTable.ENTITY.getTableName() + " where " +
+                entityQueryBuilder.getAsOfTimeWhereClause(parameters) + entityQueryBuilder.getLocalMetadataCollectionClause(localMetadataCollectionId, parameters);
 
         try
         {
             if (classificationQueryBuilder == null)
             {
-                return jdbcResourceConnector.countMatchingRows(jdbcConnection, sqlEntityQuery);
+                return jdbcResourceConnector.countMatchingRows(jdbcConnection, sqlEntityQuery, parameters);
             }
             else
             {
                 String sqlClassificationQuery =
                         "select " + RepositoryColumn.INSTANCE_GUID.getColumnName(RepositoryTable.CLASSIFICATION.getTableName()) +
                                 " from " + RepositoryTable.CLASSIFICATION.getTableName() +
-                                " where " + classificationQueryBuilder.getAsOfTimeWhereClause();
+                                " where " + classificationQueryBuilder.getAsOfTimeWhereClause(parameters);
 
                 return jdbcResourceConnector.countMatchingRows(jdbcConnection,
-                                                         sqlEntityQuery + " and " + entityGUIDColumn + " in (" + sqlClassificationQuery + ")");
+                                                         sqlEntityQuery + " and " + entityGUIDColumn + " in (" + sqlClassificationQuery + ")",
+                                                         parameters);
             }
         }
         catch (PropertyServerException sqlException)
@@ -522,13 +801,17 @@ public class DatabaseStore implements AutoCloseable
         final String methodName = "retrieveRelationships";
 
         // See the equivalent comment in retrieveEntitiesByProperties() - no "distinct" needed (the where clause
-        // only narrows rows via EXISTS/IN subqueries, never a join), and it would otherwise block
-        // PROPERTY_ASCENDING/PROPERTY_DESCENDING sequencing.
-        String sqQuery = "select * from " + RepositoryTable.RELATIONSHIP.getTableName() + " where " + queryBuilder.getAsOfTimeWhereClause();
+        // only narrows rows via EXISTS/IN subqueries and the sequencing join matches at most one row), and it
+        // would otherwise block PROPERTY_ASCENDING/PROPERTY_DESCENDING sequencing.
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        String              sqQuery    = "select " + RepositoryTable.RELATIONSHIP.getTableName() + ".* from " + RepositoryTable.RELATIONSHIP.getTableName() +
+                queryBuilder.getSequencingJoin(parameters) +
+                " where " + queryBuilder.getAsOfTimeWhereClause(parameters);
         try
         {
             List<Map<String, JDBCDataValue>> relationshipRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                                                      sqQuery + queryBuilder.getSequenceAndPaging(RepositoryTable.RELATIONSHIP.getTableName()),
+                                                                                                      sqQuery + queryBuilder.getSequenceAndPaging(RepositoryTable.RELATIONSHIP.getTableName(), parameters),
+                                                                                                      parameters,
                                                                                                       RepositoryTable.RELATIONSHIP.getColumnNameTypeMap());
 
             if (relationshipRows != null)
@@ -565,14 +848,18 @@ public class DatabaseStore implements AutoCloseable
         final String methodName = "retrieveRelationshipsByProperties";
 
         // See the equivalent comment in retrieveEntitiesByProperties() - no "distinct" needed (the where clause
-        // only narrows rows via EXISTS/IN subqueries, never a join), and it would otherwise block
-        // PROPERTY_ASCENDING/PROPERTY_DESCENDING sequencing.
-        String sqlQuery = "select * from " + RepositoryTable.RELATIONSHIP.getTableName() + " where " + queryBuilder.getAsOfTimeWhereClause() + queryBuilder.getSequenceAndPaging(RepositoryTable.RELATIONSHIP.getTableName());
+        // only narrows rows via EXISTS/IN subqueries and the sequencing join matches at most one row), and it
+        // would otherwise block PROPERTY_ASCENDING/PROPERTY_DESCENDING sequencing.
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        String              sqlQuery   = "select " + RepositoryTable.RELATIONSHIP.getTableName() + ".* from " + RepositoryTable.RELATIONSHIP.getTableName() +
+                queryBuilder.getSequencingJoin(parameters) +
+                " where " + queryBuilder.getAsOfTimeWhereClause(parameters) + queryBuilder.getSequenceAndPaging(RepositoryTable.RELATIONSHIP.getTableName(), parameters);
 
         try
         {
             List<Map<String, JDBCDataValue>> relationshipRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                       sqlQuery,
+                                                                                                      parameters,
                                                                                                       RepositoryTable.RELATIONSHIP.getColumnNameTypeMap());
 
             if (relationshipRows != null)
@@ -615,13 +902,14 @@ public class DatabaseStore implements AutoCloseable
     {
         final String methodName = "countRelationshipsByProperties";
 
-        String relationshipGUIDColumn = RepositoryColumn.INSTANCE_GUID.getColumnName(RepositoryTable.RELATIONSHIP.getTableName());
-        String sqlQuery = "select count(distinct " + relationshipGUIDColumn + ") from " + RepositoryTable.RELATIONSHIP.getTableName() + " where " +
-                queryBuilder.getAsOfTimeWhereClause() + queryBuilder.getLocalMetadataCollectionClause(localMetadataCollectionId);
+        List<JDBCDataValue> parameters             = new ArrayList<>();
+        String              relationshipGUIDColumn = RepositoryColumn.INSTANCE_GUID.getColumnName(RepositoryTable.RELATIONSHIP.getTableName());
+        String              sqlQuery               = "select count(distinct " + relationshipGUIDColumn + ") from " + RepositoryTable.RELATIONSHIP.getTableName() + " where " +
+                queryBuilder.getAsOfTimeWhereClause(parameters) + queryBuilder.getLocalMetadataCollectionClause(localMetadataCollectionId, parameters);
 
         try
         {
-            return jdbcResourceConnector.countMatchingRows(jdbcConnection, sqlQuery);
+            return jdbcResourceConnector.countMatchingRows(jdbcConnection, sqlQuery, parameters);
         }
         catch (PropertyServerException sqlException)
         {
@@ -659,13 +947,20 @@ public class DatabaseStore implements AutoCloseable
 
                 if (versionObject != null)
                 {
-                    String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " +
-                            RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName + "' and " +
-                            RepositoryColumn.VERSION.getColumnName() + " = " + versionObject;
+                    String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " +
+                            RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ? and " +
+                            RepositoryColumn.VERSION.getColumnName() + " = ?";
+
+                    List<JDBCDataValue> parameters = new ArrayList<>();
+
+                    parameters.add(new JDBCDataValue(guid, Types.VARCHAR));
+                    parameters.add(new JDBCDataValue(classificationName, Types.VARCHAR));
+                    parameters.add(new JDBCDataValue(versionObject, Types.BIGINT));
 
                     List<Map<String, JDBCDataValue>> matchingRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                           RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
                                                                                                           whereClause,
+                                                                                                          parameters,
                                                                                                           RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getColumnNameTypeMap());
 
 
@@ -715,14 +1010,25 @@ public class DatabaseStore implements AutoCloseable
 
                 if (versionObject != null)
                 {
-                    String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + versionObject;
+                    String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.VERSION.getColumnName() + " = ?";
+
+                    List<JDBCDataValue> parameters = new ArrayList<>();
+
+                    parameters.add(new JDBCDataValue(guid, Types.VARCHAR));
+                    parameters.add(new JDBCDataValue(versionObject, Types.BIGINT));
 
                     List<Map<String, JDBCDataValue>> entityProperties = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                               RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(),
                                                                                                               whereClause,
+                                                                                                              parameters,
                                                                                                               RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getColumnNameTypeMap());
 
-                    Map<String, List<ClassificationMapper>> classificationMappersForEntityGUIDs = getClassificationMappersForEntityGUIDs(RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "'" + getAsOfTimeClause(asOfTime));
+                    List<JDBCDataValue> classificationParameters = new ArrayList<>();
+
+                    classificationParameters.add(new JDBCDataValue(guid, Types.VARCHAR));
+
+                    Map<String, List<ClassificationMapper>> classificationMappersForEntityGUIDs = getClassificationMappersForEntityGUIDs(RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" + getAsOfTimeClause(asOfTime, classificationParameters),
+                                                                                                                                         classificationParameters);
 
                     return new EntityMapper(entityRow,
                                             entityProperties,
@@ -771,11 +1077,17 @@ public class DatabaseStore implements AutoCloseable
                 String end1GUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.END_1_GUID.getColumnName(), relationshipRow, true);
                 String end2GUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.END_2_GUID.getColumnName(), relationshipRow, true);
 
-                String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + version;
+                String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.VERSION.getColumnName() + " = ?";
+
+                List<JDBCDataValue> parameters = new ArrayList<>();
+
+                parameters.add(new JDBCDataValue(guid, Types.VARCHAR));
+                parameters.add(new JDBCDataValue(version, Types.BIGINT));
 
                 List<Map<String, JDBCDataValue>> relationshipProperties = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                                 RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE.getTableName(),
                                                                                                                 whereClause,
+                                                                                                                parameters,
                                                                                                                 RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE.getColumnNameTypeMap());
 
                 EntityMapper end1Mapper = this.getEntityFromStore(end1GUID, asOfTime);
@@ -829,9 +1141,12 @@ public class DatabaseStore implements AutoCloseable
                 queryBuilder.setGUIDList(entityGUIDs);
                 queryBuilder.setAsOfTime(asOfTime);
 
+                List<JDBCDataValue> parameters = new ArrayList<>();
+
                 List<Map<String, JDBCDataValue>> entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                     RepositoryTable.ENTITY.getTableName(),
-                                                                                                    queryBuilder.getAsOfTimeWhereClause() + queryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName()),
+                                                                                                    queryBuilder.getAsOfTimeWhereClause(parameters) + queryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName(), parameters),
+                                                                                                    parameters,
                                                                                                     RepositoryTable.ENTITY.getColumnNameTypeMap());
 
                 return this.getCompleteEntitiesFromStore(entityRows, asOfTime);
@@ -863,6 +1178,36 @@ public class DatabaseStore implements AutoCloseable
      */
     private Map<String, EntityMapper> getCompleteEntitiesFromStore(List<Map<String, JDBCDataValue>> entityRows,
                                                                    Date                             asOfTime) throws RepositoryErrorException
+    {
+        if ((entityRows != null) && (! entityRows.isEmpty()) && (this.useCurrentStateTables(asOfTime)))
+        {
+            Map<String, EntityMapper> entityMappers = this.getCurrentEntitiesFromStore(this.getInstanceGUIDs(entityRows));
+
+            if (! entityMappers.isEmpty())
+            {
+                return entityMappers;
+            }
+        }
+        else if ((entityRows != null) && (! entityRows.isEmpty()))
+        {
+            return this.getCompleteEntitiesFromHistoryTables(entityRows, asOfTime);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Retrieve the related information for a list of entities from the history tables.
+     * Null is returned if there were no instances returned from the query.
+     *
+     * @param entityRows list of database rows for the matching entities
+     * @param asOfTime time for the database query
+     * @return map of guids to entity mappers
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private Map<String, EntityMapper> getCompleteEntitiesFromHistoryTables(List<Map<String, JDBCDataValue>> entityRows,
+                                                                           Date                             asOfTime) throws RepositoryErrorException
     {
         if ((entityRows != null) && (! entityRows.isEmpty()))
         {
@@ -885,7 +1230,10 @@ public class DatabaseStore implements AutoCloseable
             queryBuilder.setGUIDList(new ArrayList<>(databaseResultRowsMap.keySet()));
             queryBuilder.setAsOfTime(asOfTime);
 
-            Map<String, List<ClassificationMapper>> classificationMappersForEntityGUIDs = getClassificationMappersForEntityGUIDs(queryBuilder.getAsOfTimeWhereClause() + queryBuilder.getSequenceAndPaging(RepositoryTable.CLASSIFICATION.getTableName()));
+            List<JDBCDataValue> parameters = new ArrayList<>();
+
+            Map<String, List<ClassificationMapper>> classificationMappersForEntityGUIDs = getClassificationMappersForEntityGUIDs(queryBuilder.getAsOfTimeWhereClause(parameters) + queryBuilder.getSequenceAndPaging(RepositoryTable.CLASSIFICATION.getTableName(), parameters),
+                                                                                                                                 parameters);
 
             /*
              * All of the information is assembled to build the entity mappers.
@@ -928,6 +1276,36 @@ public class DatabaseStore implements AutoCloseable
      */
     private List<RelationshipMapper> getCompleteRelationshipsFromStore(List<Map<String, JDBCDataValue>> relationshipRows,
                                                                        Date                             asOfTime) throws RepositoryErrorException
+    {
+        if ((relationshipRows != null) && (! relationshipRows.isEmpty()) && (this.useCurrentStateTables(asOfTime)))
+        {
+            List<RelationshipMapper> relationshipMappers = this.getCurrentRelationshipsFromStore(this.getInstanceGUIDs(relationshipRows));
+
+            if (! relationshipMappers.isEmpty())
+            {
+                return relationshipMappers;
+            }
+        }
+        else if ((relationshipRows != null) && (! relationshipRows.isEmpty()))
+        {
+            return this.getCompleteRelationshipsFromHistoryTables(relationshipRows, asOfTime);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Retrieve the related information for a list of relationships from the history tables.
+     * Null is returned if there were no instances returned from the query.
+     *
+     * @param relationshipRows list of the matching relationships
+     * @param asOfTime time for the database query
+     * @return list of relationship mappers
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private List<RelationshipMapper> getCompleteRelationshipsFromHistoryTables(List<Map<String, JDBCDataValue>> relationshipRows,
+                                                                               Date                             asOfTime) throws RepositoryErrorException
     {
         if ((relationshipRows != null) && (! relationshipRows.isEmpty()))
         {
@@ -985,84 +1363,283 @@ public class DatabaseStore implements AutoCloseable
 
 
     /**
-     * Retrieve the attribute rows that match the instance rows returned.
+     * Return whether a request for instances can be served from the current state tables.  This is only possible
+     * for the current versions of instances, and only if this unit of work has not changed any instances that are
+     * still to be copied to the current state tables.
+     *
+     * @param asOfTime time for the database query
+     * @return boolean
+     */
+    private boolean useCurrentStateTables(Date asOfTime)
+    {
+        return (currentStateTables) && (asOfTime == null) && (changedEntityGUIDs.isEmpty()) && (changedRelationshipGUIDs.isEmpty());
+    }
+
+
+    /**
+     * Return the unique identifiers of the instances in a list of rows from an instance table, in the order of the rows.
      *
      * @param instanceRows rows from principle instance table (entity or relationship)
-     * @param principleTable table holding instance header
-     * @param attributesTable the attributes table to retrieve from
-     * @return organised database results
-     * @throws RepositoryErrorException unexpected exception retrieving values from the database
+     * @return list of unique identifiers
+     * @throws RepositoryErrorException a row has no unique identifier
      */
-    private Map<String, DatabaseResultRows> getAttributesDatabaseResults(List<Map<String, JDBCDataValue>> instanceRows,
-                                                                         RepositoryTable                  principleTable,
-                                                                         RepositoryTable                  attributesTable) throws RepositoryErrorException
+    private List<String> getInstanceGUIDs(List<Map<String, JDBCDataValue>> instanceRows) throws RepositoryErrorException
     {
-        final String methodName = "getAttributesDatabaseResults";
+        Set<String> instanceGUIDs = new LinkedHashSet<>();
 
-        try
+        for (Map<String, JDBCDataValue> instanceRow : instanceRows)
         {
-            // LinkedHashMap (not HashMap) so that the row order the originating SQL query's ORDER BY clause
-            // established (instanceRows is iterated below in that order) is preserved when this map's entries
-            // are later iterated by callers such as getCompleteEntitiesFromStore() and
-            // getCompleteRelationshipsFromStore() - HashMap's iteration order bears no relation to insertion
-            // order, so any requested sequencing (GUID, creation date, property value, ...) would otherwise be
-            // silently lost between the database returning correctly-ordered rows and the client receiving them.
-            Map<String, DatabaseResultRows> databaseResultRowsMap = new LinkedHashMap<>();
+            instanceGUIDs.add(baseMapper.getStringPropertyFromColumn(RepositoryColumn.INSTANCE_GUID.getColumnName(), instanceRow, true));
+        }
 
-            QueryBuilder queryBuilder = new QueryBuilder(principleTable.getTableName(),
-                                                         attributesTable.getTableName(),
-                                                         repositoryHelper,
-                                                         repositoryName);
-            List<String> instanceGUIDs  = new ArrayList<>();
+        return new ArrayList<>(instanceGUIDs);
+    }
 
-            StringBuilder instanceWhereClause = new StringBuilder();
-            boolean       firstInstance       = true;
 
-            /*
-             * Step through the results and use the first row returned for each instance GUID.
-             * Build up a composite query that returns all of the attributes for all of
-             * the instances.
-             */
-            for (Map<String, JDBCDataValue> instanceRow : instanceRows)
-            {
-                String instanceGUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.INSTANCE_GUID.getColumnName(), instanceRow, true);
+    /**
+     * Retrieve the current versions of the requested entities from the entity current state table.
+     *
+     * @param entityGUIDs list of GUIDs to retrieve
+     * @return map of guids to entity mappers in the order of the requested GUIDs - entities that are not known are left out
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private Map<String, EntityMapper> getCurrentEntitiesFromStore(List<String> entityGUIDs) throws RepositoryErrorException
+    {
+        final String methodName = "getCurrentEntitiesFromStore";
 
-                if (! instanceGUIDs.contains(instanceGUID))
-                {
-                    /*
-                     * New instance.
-                     */
-                    instanceGUIDs.add(instanceGUID);
+        Map<String, EntityMapper> entityMappers = new LinkedHashMap<>();
 
-                    /*
-                     * The retrieve of the properties is by version for speed.
-                     */
-                    long version = baseMapper.getLongPropertyFromColumn(RepositoryColumn.VERSION.getColumnName(), instanceRow, true);
+        try
+        {
+            List<Map<String, JDBCDataValue>> entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
+                                                                                                RepositoryTable.ENTITY_CURRENT_STATE.getTableName(),
+                                                                                                RepositoryColumn.INSTANCE_GUID.getColumnName() + " = any (?)",
+                                                                                                List.of(new JDBCDataValue(entityGUIDs.toArray(new String[0]), Types.ARRAY)),
+                                                                                                RepositoryTable.ENTITY_CURRENT_STATE.getColumnNameTypeMap());
+
+            Map<String, EntityMapper> foundEntities = new HashMap<>();
+
+            if (entityRows != null)
+            {
+                for (Map<String, JDBCDataValue> entityRow : entityRows)
+                {
+                    String instanceJSON = baseMapper.getStringPropertyFromColumn(RepositoryColumn.INSTANCE_JSON.getColumnName(), entityRow, true);
 
-                    if (firstInstance)
+                    if (baseMapper.getBooleanPropertyFromColumn(RepositoryColumn.IS_PROXY.getColumnName(), entityRow, true))
                     {
-                        firstInstance = false;
+                        EntityProxy entityProxy = objectMapper.readValue(instanceJSON, EntityProxy.class);
+
+                        foundEntities.put(entityProxy.getGUID(), new EntityMapper(entityProxy, repositoryHelper, repositoryName));
                     }
                     else
                     {
-                        instanceWhereClause.append(" or ");
-                    }
+                        EntityDetail entityDetail = objectMapper.readValue(instanceJSON, EntityDetail.class);
 
-                    instanceWhereClause.append(queryBuilder.getPrimaryKeysClause(instanceGUID, version, null));
+                        foundEntities.put(entityDetail.getGUID(), new EntityMapper(entityDetail, repositoryHelper, repositoryName));
+                    }
+                }
+            }
 
-                    DatabaseResultRows databaseResultRows = new DatabaseResultRows();
-                    databaseResultRows.principleTableRow = instanceRow;
+            for (String entityGUID : entityGUIDs)
+            {
+                EntityMapper entityMapper = foundEntities.get(entityGUID);
 
-                    databaseResultRowsMap.put(instanceGUID, databaseResultRows);
+                if (entityMapper != null)
+                {
+                    entityMappers.put(entityGUID, entityMapper);
                 }
             }
-
-            /*
-             * Retrieve the attribute rows and organize them by instance GUID.
-             */
+        }
+        catch (PropertyServerException | JsonProcessingException error)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           error.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           error.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               error);
+        }
+
+        return entityMappers;
+    }
+
+
+    /**
+     * Retrieve the current versions of the requested relationships from the relationship current state table.
+     * The entity proxies for the ends are filled in from the entity current state table.
+     *
+     * @param relationshipGUIDs list of GUIDs to retrieve
+     * @return list of relationship mappers in the order of the requested GUIDs - relationships that are not known are left out
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private List<RelationshipMapper> getCurrentRelationshipsFromStore(List<String> relationshipGUIDs) throws RepositoryErrorException
+    {
+        final String methodName = "getCurrentRelationshipsFromStore";
+
+        List<RelationshipMapper> relationshipMappers = new ArrayList<>();
+
+        try
+        {
+            List<Map<String, JDBCDataValue>> relationshipRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
+                                                                                                      RepositoryTable.RELATIONSHIP_CURRENT_STATE.getTableName(),
+                                                                                                      RepositoryColumn.INSTANCE_GUID.getColumnName() + " = any (?)",
+                                                                                                      List.of(new JDBCDataValue(relationshipGUIDs.toArray(new String[0]), Types.ARRAY)),
+                                                                                                      RepositoryTable.RELATIONSHIP_CURRENT_STATE.getColumnNameTypeMap());
+
+            if (relationshipRows != null)
+            {
+                Map<String, Relationship>               foundRelationships = new HashMap<>();
+                Map<String, Map<String, JDBCDataValue>> foundRows          = new HashMap<>();
+                Set<String>                             entityGUIDs        = new LinkedHashSet<>();
+
+                for (Map<String, JDBCDataValue> relationshipRow : relationshipRows)
+                {
+                    String instanceJSON = baseMapper.getStringPropertyFromColumn(RepositoryColumn.INSTANCE_JSON.getColumnName(), relationshipRow, true);
+
+                    Relationship relationship = objectMapper.readValue(instanceJSON, Relationship.class);
+
+                    foundRelationships.put(relationship.getGUID(), relationship);
+                    foundRows.put(relationship.getGUID(), relationshipRow);
+                    entityGUIDs.add(baseMapper.getStringPropertyFromColumn(RepositoryColumn.END_1_GUID.getColumnName(), relationshipRow, true));
+                    entityGUIDs.add(baseMapper.getStringPropertyFromColumn(RepositoryColumn.END_2_GUID.getColumnName(), relationshipRow, true));
+                }
+
+                Map<String, EntityMapper> entityEnds = this.getCurrentEntitiesFromStore(new ArrayList<>(entityGUIDs));
+
+                for (String relationshipGUID : relationshipGUIDs)
+                {
+                    Relationship relationship = foundRelationships.get(relationshipGUID);
+
+                    if (relationship != null)
+                    {
+                        Map<String, JDBCDataValue> relationshipRow = foundRows.get(relationshipGUID);
+
+                        String end1GUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.END_1_GUID.getColumnName(), relationshipRow, true);
+                        String end2GUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.END_2_GUID.getColumnName(), relationshipRow, true);
+
+                        relationship.setEntityOneProxy(this.getCurrentEntityProxy(end1GUID, entityEnds));
+                        relationship.setEntityTwoProxy(this.getCurrentEntityProxy(end2GUID, entityEnds));
+
+                        relationshipMappers.add(new RelationshipMapper(relationship, repositoryHelper, repositoryName));
+                    }
+                }
+            }
+        }
+        catch (PropertyServerException | JsonProcessingException error)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           error.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           error.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               error);
+        }
+
+        return relationshipMappers;
+    }
+
+
+    /**
+     * Return the entity proxy for the end of a relationship.  The entity comes from the entity current state
+     * table if it is there, otherwise from the history tables.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @param entityEnds entities retrieved from the entity current state table
+     * @return entity proxy or null if the entity is not known
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private EntityProxy getCurrentEntityProxy(String                    entityGUID,
+                                              Map<String, EntityMapper> entityEnds) throws RepositoryErrorException
+    {
+        EntityMapper entityMapper = entityEnds.get(entityGUID);
+
+        if (entityMapper == null)
+        {
+            entityMapper = this.getEntityFromHistoryTables(entityGUID, null);
+        }
+
+        if (entityMapper != null)
+        {
+            return entityMapper.getEntityProxy();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Retrieve the attribute rows that match the instance rows returned.
+     *
+     * @param instanceRows rows from principle instance table (entity or relationship)
+     * @param principleTable table holding instance header
+     * @param attributesTable the attributes table to retrieve from
+     * @return organised database results
+     * @throws RepositoryErrorException unexpected exception retrieving values from the database
+     */
+    private Map<String, DatabaseResultRows> getAttributesDatabaseResults(List<Map<String, JDBCDataValue>> instanceRows,
+                                                                         RepositoryTable                  principleTable,
+                                                                         RepositoryTable                  attributesTable) throws RepositoryErrorException
+    {
+        final String methodName = "getAttributesDatabaseResults";
+
+        try
+        {
+            // LinkedHashMap (not HashMap) so that the row order the originating SQL query's ORDER BY clause
+            // established (instanceRows is iterated below in that order) is preserved when this map's entries
+            // are later iterated by callers such as getCompleteEntitiesFromStore() and
+            // getCompleteRelationshipsFromStore() - HashMap's iteration order bears no relation to insertion
+            // order, so any requested sequencing (GUID, creation date, property value, ...) would otherwise be
+            // silently lost between the database returning correctly-ordered rows and the client receiving them.
+            Map<String, DatabaseResultRows> databaseResultRowsMap = new LinkedHashMap<>();
+
+            QueryBuilder queryBuilder = new QueryBuilder(principleTable.getTableName(),
+                                                         attributesTable.getTableName(),
+                                                         repositoryHelper,
+                                                         repositoryName);
+            List<String> instanceGUIDs    = new ArrayList<>();
+            List<Long>   instanceVersions = new ArrayList<>();
+
+            /*
+             * Step through the results and use the first row returned for each instance GUID.
+             * Build up a composite query that returns all of the attributes for all of
+             * the instances.
+             */
+            for (Map<String, JDBCDataValue> instanceRow : instanceRows)
+            {
+                String instanceGUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.INSTANCE_GUID.getColumnName(), instanceRow, true);
+
+                if (! instanceGUIDs.contains(instanceGUID))
+                {
+                    /*
+                     * New instance.
+                     */
+                    instanceGUIDs.add(instanceGUID);
+
+                    /*
+                     * The retrieve of the properties is by version for speed.
+                     */
+                    long version = baseMapper.getLongPropertyFromColumn(RepositoryColumn.VERSION.getColumnName(), instanceRow, true);
+
+                    instanceVersions.add(version);
+
+                    DatabaseResultRows databaseResultRows = new DatabaseResultRows();
+                    databaseResultRows.principleTableRow = instanceRow;
+
+                    databaseResultRowsMap.put(instanceGUID, databaseResultRows);
+                }
+            }
+
+            /*
+             * Retrieve the attribute rows and organize them by instance GUID.
+             */
+            List<JDBCDataValue> parameters = new ArrayList<>();
+
             List<Map<String, JDBCDataValue>> attributeRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                    attributesTable.getTableName(),
-                                                                                                   instanceWhereClause.toString(),
+                                                                                                   queryBuilder.getPrimaryKeysListClause(instanceGUIDs, instanceVersions, null, parameters),
+                                                                                                   parameters,
                                                                                                    attributesTable.getColumnNameTypeMap());
 
             if (attributeRows != null)
@@ -1101,10 +1678,12 @@ public class DatabaseStore implements AutoCloseable
      * Return the list of classifications for each of the requested entityGUIDs.
      *
      * @param whereClause the lists the required guids and the asOfTime.
+     * @param parameters values for the placeholders in the where clause
      * @return map of guids to lists of associated classification mappers (maybe empty but not null)
      * @throws RepositoryErrorException unexpected problem retrieving related information from the database.
      */
-    private Map<String, List<ClassificationMapper>> getClassificationMappersForEntityGUIDs(String whereClause) throws RepositoryErrorException
+    private Map<String, List<ClassificationMapper>> getClassificationMappersForEntityGUIDs(String              whereClause,
+                                                                                           List<JDBCDataValue> parameters) throws RepositoryErrorException
     {
         final String methodName = "getClassificationMappersForEntityGUIDs";
 
@@ -1118,6 +1697,7 @@ public class DatabaseStore implements AutoCloseable
             List<Map<String, JDBCDataValue>> classifications = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                      RepositoryTable.CLASSIFICATION.getTableName(),
                                                                                                      whereClause,
+                                                                                                     parameters,
                                                                                                      RepositoryTable.CLASSIFICATION.getColumnNameTypeMap());
 
             if (classifications != null)
@@ -1134,9 +1714,9 @@ public class DatabaseStore implements AutoCloseable
                                                                                        repositoryHelper,
                                                                                        repositoryName);
 
-                StringBuilder classificationWhereClause = new StringBuilder();
-
-                boolean       firstClassification       = true;
+                List<String> classificationGUIDs    = new ArrayList<>();
+                List<Long>   classificationVersions = new ArrayList<>();
+                List<String> classificationNames    = new ArrayList<>();
 
                 for (Map<String, JDBCDataValue> classificationRow : classifications)
                 {
@@ -1144,16 +1724,9 @@ public class DatabaseStore implements AutoCloseable
                     String classificationName = baseMapper.getStringPropertyFromColumn(RepositoryColumn.CLASSIFICATION_NAME.getColumnName(), classificationRow, true);
                     long   version            = baseMapper.getLongPropertyFromColumn(RepositoryColumn.VERSION.getColumnName(), classificationRow, true);
 
-                    if (firstClassification)
-                    {
-                        firstClassification = false;
-                    }
-                    else
-                    {
-                        classificationWhereClause.append(" or ");
-                    }
-
-                    classificationWhereClause.append(queryBuilder.getPrimaryKeysClause(instanceGUID, version, classificationName));
+                    classificationGUIDs.add(instanceGUID);
+                    classificationVersions.add(version);
+                    classificationNames.add(classificationName);
 
                     DatabaseResultRows databaseResultRows = mapperResultRowsMap.get(instanceGUID);
 
@@ -1189,9 +1762,15 @@ public class DatabaseStore implements AutoCloseable
                  * Now we know which versions of each classification we need for each entity, we can retrieve all of the attributes for all of these entities.
                  * The returned rows are then organizes with their classification into mapperResultRowsMap.
                  */
+                List<JDBCDataValue> attributeParameters = new ArrayList<>();
+
                 List<Map<String, JDBCDataValue>> classificationAttributes = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                                   RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
-                                                                                                                  classificationWhereClause.toString(),
+                                                                                                                  queryBuilder.getPrimaryKeysListClause(classificationGUIDs,
+                                                                                                                                                        classificationVersions,
+                                                                                                                                                        classificationNames,
+                                                                                                                                                        attributeParameters),
+                                                                                                                  attributeParameters,
                                                                                                                   RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getColumnNameTypeMap());
 
                 if (classificationAttributes != null)
@@ -1300,10 +1879,15 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
+            List<JDBCDataValue> parameters = new ArrayList<>();
+
+            parameters.add(new JDBCDataValue(guid, Types.VARCHAR));
+
             List<Map<String, JDBCDataValue>> entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                 RepositoryTable.ENTITY.getTableName(),
-                                                                                                RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "'" +
-                                                                                                        getDateRangeClause(fromTime, toTime, oldestFirst),
+                                                                                                RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" +
+                                                                                                        getDateRangeClause(fromTime, toTime, oldestFirst, parameters),
+                                                                                                parameters,
                                                                                                 RepositoryTable.ENTITY.getColumnNameTypeMap());
 
             if (entityRows != null)
@@ -1359,11 +1943,17 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
+            List<JDBCDataValue> parameters = new ArrayList<>();
+
+            parameters.add(new JDBCDataValue(guid, Types.VARCHAR));
+            parameters.add(new JDBCDataValue(classificationName, Types.VARCHAR));
+
             List<Map<String, JDBCDataValue>> matchingRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                 RepositoryTable.CLASSIFICATION.getTableName(),
-                                                                                                RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " +
-                                                                                                        RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName + "'" +
-                                                                                                        getDateRangeClause(fromTime, toTime, oldestFirst),
+                                                                                                RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " +
+                                                                                                        RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ?" +
+                                                                                                        getDateRangeClause(fromTime, toTime, oldestFirst, parameters),
+                                                                                                parameters,
                                                                                                 RepositoryTable.CLASSIFICATION.getColumnNameTypeMap());
 
             if (matchingRows != null)
@@ -1415,10 +2005,15 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
+            List<JDBCDataValue> parameters = new ArrayList<>();
+
+            parameters.add(new JDBCDataValue(guid, Types.VARCHAR));
+
             List<Map<String, JDBCDataValue>> relationshipRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                       RepositoryTable.RELATIONSHIP.getTableName(),
-                                                                                                      RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "'" +
-                                                                                                              getDateRangeClause(fromTime, toTime, oldestFirst),
+                                                                                                      RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" +
+                                                                                                              getDateRangeClause(fromTime, toTime, oldestFirst, parameters),
+                                                                                                      parameters,
                                                                                                       RepositoryTable.RELATIONSHIP.getColumnNameTypeMap());
 
             if (relationshipRows != null)
@@ -1454,9 +2049,11 @@ public class DatabaseStore implements AutoCloseable
      * Create the part of the where clause that ensures that the correct version is returned.
      *
      * @param asOfTime database time to issue the query for - null means the latest version
+     * @param parameters values for the placeholders in the query
      * @return fragment of SQL
      */
-    private String getAsOfTimeClause(Date asOfTime)
+    private String getAsOfTimeClause(Date                asOfTime,
+                                     List<JDBCDataValue> parameters)
     {
         if (asOfTime == null)
         {
@@ -1464,13 +2061,12 @@ public class DatabaseStore implements AutoCloseable
         }
         else
         {
-            // java.util.Date's own toString() (what plain string concatenation of a Date would produce here)
-            // has no sub-second precision at all, unlike the millisecond-precision timestamps this same
-            // asOfTime is compared against (version_start_time/version_end_time) - wrapping in
-            // java.sql.Timestamp keeps the millisecond component in the generated SQL literal.
-            String asOfTimeLiteral = new java.sql.Timestamp(asOfTime.getTime()).toString();
+            // Bound as a java.sql.Timestamp (rather than a java.util.Date) so that the millisecond component
+            // is kept when asOfTime is compared against version_start_time/version_end_time.
+            parameters.add(new JDBCDataValue(new Timestamp(asOfTime.getTime()), Types.TIMESTAMP));
+            parameters.add(new JDBCDataValue(new Timestamp(asOfTime.getTime()), Types.TIMESTAMP));
 
-            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " <= '" + asOfTimeLiteral + "' and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > '" + asOfTimeLiteral + "'))";
+            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " <= ? and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > ?))";
         }
     }
 
@@ -1481,11 +2077,13 @@ public class DatabaseStore implements AutoCloseable
      * @param fromTime starting time
      * @param toTime ending time
      * @param oldestFirst ordering
+     * @param parameters values for the placeholders in the query
      * @return fragment of SQL
      */
-    private String getDateRangeClause(Date    fromTime,
-                                      Date    toTime,
-                                      boolean oldestFirst)
+    private String getDateRangeClause(Date                fromTime,
+                                      Date                toTime,
+                                      boolean             oldestFirst,
+                                      List<JDBCDataValue> parameters)
     {
         if ((fromTime == null) && (toTime == null))
         {
@@ -1493,15 +2091,22 @@ public class DatabaseStore implements AutoCloseable
         }
         else if (fromTime == null)
         {
-            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < '" + toTime + "')" + getOrderByDateClause(oldestFirst);
+            parameters.add(new JDBCDataValue(new Timestamp(toTime.getTime()), Types.TIMESTAMP));
+
+            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < ?)" + getOrderByDateClause(oldestFirst);
         }
         else if (toTime == null)
         {
-            return " and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > '" + fromTime + "')" + getOrderByDateClause(oldestFirst);
+            parameters.add(new JDBCDataValue(new Timestamp(fromTime.getTime()), Types.TIMESTAMP));
+
+            return " and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > ?)" + getOrderByDateClause(oldestFirst);
         }
         else
         {
-            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < '" + toTime + "' and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > '" + fromTime + "'))" + getOrderByDateClause(oldestFirst);
+            parameters.add(new JDBCDataValue(new Timestamp(toTime.getTime()), Types.TIMESTAMP));
+            parameters.add(new JDBCDataValue(new Timestamp(fromTime.getTime()), Types.TIMESTAMP));
+
+            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < ? and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > ?))" + getOrderByDateClause(oldestFirst);
         }
     }
 
@@ -1527,7 +2132,8 @@ public class DatabaseStore implements AutoCloseable
 
     /**
      * Add an entity to the database.  Its header information (and effectivity dates) goes into the
-     * entity table. The properties go into the entity attribute values table.
+     * entity table. The properties go into the entity attribute values table.  The rows for the entity and
+     * any new versions of its classifications are written together, with one statement per table.
      *
      * @param entityMapper details about the entity
      * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
@@ -1538,37 +2144,47 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
-            jdbcResourceConnector.insertRowIntoTable(jdbcConnection,
-                                                     RepositoryTable.ENTITY.getTableName(),
-                                                     entityMapper.getEntityTableRow());
+            Map<String, List<Map<String, JDBCDataValue>>> tableRows = new LinkedHashMap<>();
 
-            jdbcResourceConnector.insertRowsIntoTable(jdbcConnection,
-                                                      RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(),
-                                                      entityMapper.getEntityPropertiesTableRows());
+            this.addEntityRows(tableRows, entityMapper);
 
-            /*
-             * Classifications are updated independently of entities.  Therefore, we only update them if the version of
-             * the classification supplied by the caller is new or has a version later than the stored value.
-             */
-            List<ClassificationMapper> classificationMappers = entityMapper.getClassificationMappers();
+            jdbcResourceConnector.insertRowsIntoTables(jdbcConnection, tableRows);
+        }
+        catch (PropertyServerException sqlException)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           sqlException.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           sqlException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               sqlException);
+        }
+    }
 
-            if (classificationMappers != null)
-            {
-                for (ClassificationMapper classificationMapper : classificationMappers)
-                {
-                    ClassificationMapper storedClassification = this.getClassificationForUpdate(classificationMapper.getEntityGUID(), classificationMapper.getClassification().getName());
 
-                    if (storedClassification == null)
-                    {
-                        this.saveClassification(classificationMapper);
-                    }
-                    else if (classificationMapper.getClassification().getVersion() > storedClassification.getClassification().getVersion())
-                    {
-                        this.updatePreviousClassificationVersionEndTime(storedClassification, this.getVersionEndDate(classificationMapper.getClassification().getUpdateTime()));
-                        this.saveClassification(classificationMapper);
-                    }
-                }
+    /**
+     * Add a list of entities to the database.  The rows for all the entities (and any new versions of their
+     * classifications) are written together, with one statement per table.  Each entity must only appear once
+     * in the list.
+     *
+     * @param entityMappers details about the entities
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    public void addEntitiesToStore(List<EntityMapper> entityMappers) throws RepositoryErrorException
+    {
+        final String methodName = "addEntitiesToStore";
+
+        try
+        {
+            Map<String, List<Map<String, JDBCDataValue>>> tableRows = new LinkedHashMap<>();
+
+            for (EntityMapper entityMapper : entityMappers)
+            {
+                this.addEntityRows(tableRows, entityMapper);
             }
+
+            jdbcResourceConnector.insertRowsIntoTables(jdbcConnection, tableRows);
         }
         catch (PropertyServerException sqlException)
         {
@@ -1583,6 +2199,47 @@ public class DatabaseStore implements AutoCloseable
     }
 
 
+    /**
+     * Add the rows for an entity (and any new versions of its classifications) to the rows waiting to be written.
+     *
+     * @param tableRows rows to write, mapped from table name
+     * @param entityMapper details about the entity
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private void addEntityRows(Map<String, List<Map<String, JDBCDataValue>>> tableRows,
+                               EntityMapper                                  entityMapper) throws RepositoryErrorException
+    {
+        this.addTableRows(tableRows, RepositoryTable.ENTITY, List.of(entityMapper.getEntityTableRow()));
+        this.addTableRows(tableRows, RepositoryTable.ENTITY_ATTRIBUTE_VALUE, entityMapper.getEntityPropertiesTableRows());
+
+        changedEntityGUIDs.add(entityMapper.getEntityDetail().getGUID());
+
+        /*
+         * Classifications are updated independently of entities.  Therefore, we only update them if the version of
+         * the classification supplied by the caller is new or has a version later than the stored value.
+         */
+        List<ClassificationMapper> classificationMappers = entityMapper.getClassificationMappers();
+
+        if (classificationMappers != null)
+        {
+            for (ClassificationMapper classificationMapper : classificationMappers)
+            {
+                ClassificationMapper storedClassification = this.getClassificationForUpdate(classificationMapper.getEntityGUID(), classificationMapper.getClassification().getName());
+
+                if (storedClassification == null)
+                {
+                    this.addClassificationRows(tableRows, classificationMapper);
+                }
+                else if (classificationMapper.getClassification().getVersion() > storedClassification.getClassification().getVersion())
+                {
+                    this.updatePreviousClassificationVersionEndTime(storedClassification, this.getVersionEndDate(classificationMapper.getClassification().getUpdateTime()));
+                    this.addClassificationRows(tableRows, classificationMapper);
+                }
+            }
+        }
+    }
+
+
     /**
      * Determine the end time for the previous version of an entity, relationship or classification.
      *
@@ -1622,23 +2279,11 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
-            EntityMapper existingEntity = this.getEntityForUpdate(entityMapper.getEntityProxy().getGUID());
-
-            if (existingEntity == null)
-            {
-                /*
-                 * The entity proxy is only added if there is no known entity.
-                 */
-                jdbcResourceConnector.insertRowIntoTable(jdbcConnection,
-                                                         RepositoryTable.ENTITY.getTableName(),
-                                                         entityMapper.getEntityTableRow());
+            Map<String, List<Map<String, JDBCDataValue>>> tableRows = new LinkedHashMap<>();
 
-                jdbcResourceConnector.insertRowsIntoTable(jdbcConnection,
-                                                          RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(),
-                                                          entityMapper.getUniquePropertiesTableRows());
+            this.addEntityProxyRows(tableRows, entityMapper);
 
-                saveClassifications(entityMapper.getClassificationMappers());
-            }
+            jdbcResourceConnector.insertRowsIntoTables(jdbcConnection, tableRows);
         }
         catch (PropertyServerException sqlException)
         {
@@ -1654,19 +2299,76 @@ public class DatabaseStore implements AutoCloseable
 
 
     /**
-     * Save a list of classifications into the database.
+     * Add the rows for an entity proxy (and its classifications) to the rows waiting to be written, but only if
+     * the entity is not known.
      *
-     * @param classificationMappers classification mappers
-     * @throws RepositoryErrorException problem communicating with the database
+     * @param tableRows rows to write, mapped from table name
+     * @param entityMapper details about the entity
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
      */
-    private void saveClassifications(List<ClassificationMapper> classificationMappers) throws RepositoryErrorException
+    private void addEntityProxyRows(Map<String, List<Map<String, JDBCDataValue>>> tableRows,
+                                    EntityMapper                                  entityMapper) throws RepositoryErrorException
     {
-        if (classificationMappers != null)
+        EntityMapper existingEntity = this.getEntityForUpdate(entityMapper.getEntityProxy().getGUID());
+
+        if (existingEntity == null)
         {
-            for (ClassificationMapper classificationMapper : classificationMappers)
+            /*
+             * The entity proxy is only added if there is no known entity.
+             */
+            this.addTableRows(tableRows, RepositoryTable.ENTITY, List.of(entityMapper.getEntityTableRow()));
+            this.addTableRows(tableRows, RepositoryTable.ENTITY_ATTRIBUTE_VALUE, entityMapper.getUniquePropertiesTableRows());
+
+            List<ClassificationMapper> classificationMappers = entityMapper.getClassificationMappers();
+
+            if (classificationMappers != null)
             {
-                saveClassification(classificationMapper);
+                for (ClassificationMapper classificationMapper : classificationMappers)
+                {
+                    this.addClassificationRows(tableRows, classificationMapper);
+                }
             }
+
+            changedEntityGUIDs.add(entityMapper.getEntityProxy().getGUID());
+        }
+    }
+
+
+    /**
+     * Add the rows for a classification to the rows waiting to be written.
+     *
+     * @param tableRows rows to write, mapped from table name
+     * @param classificationMapper classification to save
+     * @throws RepositoryErrorException problem mapping the values
+     */
+    private void addClassificationRows(Map<String, List<Map<String, JDBCDataValue>>> tableRows,
+                                       ClassificationMapper                          classificationMapper) throws RepositoryErrorException
+    {
+        if (classificationMapper != null)
+        {
+            this.addTableRows(tableRows, RepositoryTable.CLASSIFICATION, List.of(classificationMapper.getClassificationTableRow()));
+            this.addTableRows(tableRows, RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE, classificationMapper.getClassificationPropertiesTableRows());
+
+            changedEntityGUIDs.add(classificationMapper.getEntityGUID());
+        }
+    }
+
+
+    /**
+     * Add rows to those waiting to be written to a table.  The tables are written in the order that they are first
+     * added, so header rows must be added before the attribute rows that refer to them.
+     *
+     * @param tableRows rows to write, mapped from table name
+     * @param table table for the rows
+     * @param rows rows to add (may be null)
+     */
+    private void addTableRows(Map<String, List<Map<String, JDBCDataValue>>> tableRows,
+                              RepositoryTable                               table,
+                              List<Map<String, JDBCDataValue>>              rows)
+    {
+        if ((rows != null) && (! rows.isEmpty()))
+        {
+            tableRows.computeIfAbsent(table.getTableName(), k -> new ArrayList<>()).addAll(rows);
         }
     }
 
@@ -1685,13 +2387,11 @@ public class DatabaseStore implements AutoCloseable
         {
             try
             {
-                jdbcResourceConnector.insertRowIntoTable(jdbcConnection,
-                                                         RepositoryTable.CLASSIFICATION.getTableName(),
-                                                         classificationMapper.getClassificationTableRow());
+                Map<String, List<Map<String, JDBCDataValue>>> tableRows = new LinkedHashMap<>();
 
-                jdbcResourceConnector.insertRowsIntoTable(jdbcConnection,
-                                                          RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
-                                                          classificationMapper.getClassificationPropertiesTableRows());
+                this.addClassificationRows(tableRows, classificationMapper);
+
+                jdbcResourceConnector.insertRowsIntoTables(jdbcConnection, tableRows);
             }
             catch (PropertyServerException sqlException)
             {
@@ -1709,7 +2409,8 @@ public class DatabaseStore implements AutoCloseable
 
     /**
      * Add a relationship to the database.  Its header information (and effectivity dates) goes into the
-     * relationship table. The properties go into the relationship attribute values table.
+     * relationship table. The properties go into the relationship attribute values table.  The rows for the
+     * relationship and any new entity proxies are written together, with one statement per table.
      *
      * @param relationshipMapper details about the relationship
      * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
@@ -1720,19 +2421,11 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
-            /*
-             * The entity proxies are only added if the entity is unknown.
-             */
-            this.addEntityProxyToStore(relationshipMapper.getEnd1Mapper());
-            this.addEntityProxyToStore(relationshipMapper.getEnd2Mapper());
+            Map<String, List<Map<String, JDBCDataValue>>> tableRows = new LinkedHashMap<>();
 
-            jdbcResourceConnector.insertRowIntoTable(jdbcConnection,
-                                                     RepositoryTable.RELATIONSHIP.getTableName(),
-                                                     relationshipMapper.getRelationshipTableRow());
+            this.addRelationshipRows(tableRows, relationshipMapper, new HashSet<>());
 
-            jdbcResourceConnector.insertRowsIntoTable(jdbcConnection,
-                                                      RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE.getTableName(),
-                                                      relationshipMapper.getRelationshipPropertiesTableRows());
+            jdbcResourceConnector.insertRowsIntoTables(jdbcConnection, tableRows);
         }
         catch (PropertyServerException sqlException)
         {
@@ -1748,10 +2441,81 @@ public class DatabaseStore implements AutoCloseable
 
 
     /**
-     * Update the version end date in an entity to the database.
+     * Add a list of relationships to the database.  The rows for all the relationships and any new entity
+     * proxies are written together, with one statement per table.  Each relationship must only appear once
+     * in the list.
      *
-     * @param entityMapper details about the entity
-     * @param versionEndTime time that the previous version ended
+     * @param relationshipMappers details about the relationships
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    public void addRelationshipsToStore(List<RelationshipMapper> relationshipMappers) throws RepositoryErrorException
+    {
+        final String methodName = "addRelationshipsToStore";
+
+        try
+        {
+            Map<String, List<Map<String, JDBCDataValue>>> tableRows     = new LinkedHashMap<>();
+            Set<String>                                   checkedProxies = new HashSet<>();
+
+            for (RelationshipMapper relationshipMapper : relationshipMappers)
+            {
+                this.addRelationshipRows(tableRows, relationshipMapper, checkedProxies);
+            }
+
+            jdbcResourceConnector.insertRowsIntoTables(jdbcConnection, tableRows);
+        }
+        catch (PropertyServerException sqlException)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           sqlException.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           sqlException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               sqlException);
+        }
+    }
+
+
+    /**
+     * Add the rows for a relationship (and any new entity proxies) to the rows waiting to be written.
+     *
+     * @param tableRows rows to write, mapped from table name
+     * @param relationshipMapper details about the relationship
+     * @param checkedProxies unique identifiers of the entities already checked for a proxy in this set of rows
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private void addRelationshipRows(Map<String, List<Map<String, JDBCDataValue>>> tableRows,
+                                     RelationshipMapper                            relationshipMapper,
+                                     Set<String>                                   checkedProxies) throws RepositoryErrorException
+    {
+        /*
+         * The entity proxies are only added if the entity is unknown.  The proxy rows are not written until the
+         * end, so each entity is only checked once - this covers a relationship that connects an entity to itself,
+         * and entities that are linked to more than one of the relationships being written.
+         */
+        if (checkedProxies.add(relationshipMapper.getEnd1Mapper().getEntityProxy().getGUID()))
+        {
+            this.addEntityProxyRows(tableRows, relationshipMapper.getEnd1Mapper());
+        }
+
+        if (checkedProxies.add(relationshipMapper.getEnd2Mapper().getEntityProxy().getGUID()))
+        {
+            this.addEntityProxyRows(tableRows, relationshipMapper.getEnd2Mapper());
+        }
+
+        this.addTableRows(tableRows, RepositoryTable.RELATIONSHIP, List.of(relationshipMapper.getRelationshipTableRow()));
+        this.addTableRows(tableRows, RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE, relationshipMapper.getRelationshipPropertiesTableRows());
+
+        changedRelationshipGUIDs.add(relationshipMapper.getRelationship().getGUID());
+    }
+
+
+    /**
+     * Update the version end date in an entity to the database.
+     *
+     * @param entityMapper details about the entity
+     * @param versionEndTime time that the previous version ended
      * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
      */
     public void updatePreviousEntityVersionEndTime(EntityMapper entityMapper,
@@ -1761,17 +2525,19 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
-            // java.util.Date's own toString() (what plain string concatenation of versionEndTime would produce
-            // here) has no sub-second precision, unlike version_start_time/create_time/update_time which are
-            // all bound as proper JDBC parameters elsewhere and so keep their millisecond component - that
-            // mismatch left a gap immediately after every update/delete where asOfTime queries landing in it
-            // found no matching version at all. java.sql.Timestamp's toString() keeps the milliseconds.
-            String versionEndTimeLiteral = new java.sql.Timestamp(versionEndTime.getTime()).toString();
-
+            // versionEndTime is bound as a java.sql.Timestamp, like version_start_time/create_time/update_time,
+            // so that it keeps its millisecond component.  java.util.Date's own toString() has no sub-second
+            // precision and would leave a gap immediately after every update/delete where asOfTime queries
+            // landing in it found no matching version at all.
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "update " + RepositoryTable.ENTITY.getTableName() +
-                                                          " set " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " = '" + versionEndTimeLiteral +
-                                                          "' where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + entityMapper.getEntityDetail().getGUID() + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + entityMapper.getEntityDetail().getVersion() + ";");
+                                                          " set " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " = ?" +
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.VERSION.getColumnName() + " = ?;",
+                                                  List.of(new JDBCDataValue(new Timestamp(versionEndTime.getTime()), Types.TIMESTAMP),
+                                                          new JDBCDataValue(entityMapper.getEntityDetail().getGUID(), Types.VARCHAR),
+                                                          new JDBCDataValue(entityMapper.getEntityDetail().getVersion(), Types.BIGINT)));
+
+            changedEntityGUIDs.add(entityMapper.getEntityDetail().getGUID());
         }
         catch (PropertyServerException sqlException)
         {
@@ -1800,16 +2566,20 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
-            // See the equivalent comment in updatePreviousEntityVersionEndTime() - java.sql.Timestamp's
-            // toString() is used instead of versionEndTime's own toString() to keep millisecond precision.
-            String versionEndTimeLiteral = new java.sql.Timestamp(versionEndTime.getTime()).toString();
-
+            // See the equivalent comment in updatePreviousEntityVersionEndTime() - versionEndTime is bound as a
+            // java.sql.Timestamp to keep millisecond precision.
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "update " + RepositoryTable.CLASSIFICATION.getTableName() +
-                                                          " set " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " = '" + versionEndTimeLiteral +
-                                                          "' where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + classificationMapper.getEntityGUID() +
-                                                          "' and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationMapper.getClassification().getName() +
-                                                          "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + classificationMapper.getClassification().getVersion() + ";");
+                                                          " set " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " = ?" +
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" +
+                                                          " and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ?" +
+                                                          " and " + RepositoryColumn.VERSION.getColumnName() + " = ?;",
+                                                  List.of(new JDBCDataValue(new Timestamp(versionEndTime.getTime()), Types.TIMESTAMP),
+                                                          new JDBCDataValue(classificationMapper.getEntityGUID(), Types.VARCHAR),
+                                                          new JDBCDataValue(classificationMapper.getClassification().getName(), Types.VARCHAR),
+                                                          new JDBCDataValue(classificationMapper.getClassification().getVersion(), Types.BIGINT)));
+
+            changedEntityGUIDs.add(classificationMapper.getEntityGUID());
         }
         catch (PropertyServerException sqlException)
         {
@@ -1838,14 +2608,17 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
-            // See the equivalent comment in updatePreviousEntityVersionEndTime() - java.sql.Timestamp's
-            // toString() is used instead of versionEndTime's own toString() to keep millisecond precision.
-            String versionEndTimeLiteral = new java.sql.Timestamp(versionEndTime.getTime()).toString();
-
+            // See the equivalent comment in updatePreviousEntityVersionEndTime() - versionEndTime is bound as a
+            // java.sql.Timestamp to keep millisecond precision.
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "update " + RepositoryTable.RELATIONSHIP.getTableName() +
-                                                          " set " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " = '" + versionEndTimeLiteral +
-                                                          "' where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + relationshipMapper.getRelationship().getGUID() + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + relationshipMapper.getRelationship().getVersion() + ";");
+                                                          " set " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " = ?" +
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.VERSION.getColumnName() + " = ?;",
+                                                  List.of(new JDBCDataValue(new Timestamp(versionEndTime.getTime()), Types.TIMESTAMP),
+                                                          new JDBCDataValue(relationshipMapper.getRelationship().getGUID(), Types.VARCHAR),
+                                                          new JDBCDataValue(relationshipMapper.getRelationship().getVersion(), Types.BIGINT)));
+
+            changedRelationshipGUIDs.add(relationshipMapper.getRelationship().getGUID());
         }
         catch (PropertyServerException sqlException)
         {
@@ -1876,7 +2649,11 @@ public class DatabaseStore implements AutoCloseable
         {
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.CLASSIFICATION.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + entityGUID + "' and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ?;",
+                                                  List.of(new JDBCDataValue(entityGUID, Types.VARCHAR),
+                                                          new JDBCDataValue(classificationName, Types.VARCHAR)));
+
+            changedEntityGUIDs.add(entityGUID);
         }
         catch (PropertyServerException sqlException)
         {
@@ -1906,10 +2683,14 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
+            List<JDBCDataValue> guidParameters = List.of(new JDBCDataValue(guid, Types.VARCHAR));
+
             List<Map<String, JDBCDataValue>> relationshipRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                       RepositoryTable.RELATIONSHIP.getTableName(),
-                                                                                                      "(" + RepositoryColumn.END_1_GUID.getColumnName() + " = '" + guid +
-                                                                                                      "' or " + RepositoryColumn.END_2_GUID.getColumnName() + " = '" + guid + "')",
+                                                                                                      "(" + RepositoryColumn.END_1_GUID.getColumnName() + " = ? or " +
+                                                                                                              RepositoryColumn.END_2_GUID.getColumnName() + " = ?)",
+                                                                                                      List.of(new JDBCDataValue(guid, Types.VARCHAR),
+                                                                                                              new JDBCDataValue(guid, Types.VARCHAR)),
                                                                                                       RepositoryTable.RELATIONSHIP.getColumnNameTypeMap());
 
             if (relationshipRows != null)
@@ -1924,16 +2705,22 @@ public class DatabaseStore implements AutoCloseable
 
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.ENTITY.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?;",
+                                                  guidParameters);
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?;",
+                                                  guidParameters);
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.CLASSIFICATION.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?;",
+                                                  guidParameters);
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?;",
+                                                  guidParameters);
+
+            changedEntityGUIDs.add(guid);
         }
         catch (PropertyServerException sqlException)
         {
@@ -1962,12 +2749,484 @@ public class DatabaseStore implements AutoCloseable
 
         try
         {
+            List<JDBCDataValue> guidParameters = List.of(new JDBCDataValue(guid, Types.VARCHAR));
+
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.RELATIONSHIP.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?;",
+                                                  guidParameters);
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?;",
+                                                  guidParameters);
+
+            changedRelationshipGUIDs.add(guid);
+        }
+        catch (PropertyServerException sqlException)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           sqlException.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           sqlException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               sqlException);
+        }
+    }
+
+
+    /**
+     * Record whether the current state tables are in step with the history tables.  This is cleared whenever the
+     * server starts without the current state tables, since they are not maintained while they are turned off,
+     * and set once they have been reloaded.
+     *
+     * @param currentStateLoaded are the current state tables in step with the history tables
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    public void setCurrentStateLoaded(boolean currentStateLoaded) throws RepositoryErrorException
+    {
+        final String methodName = "setCurrentStateLoaded";
+
+        try
+        {
+            jdbcResourceConnector.issueSQLCommand(jdbcConnection,
+                                                  "update " + RepositoryTable.CONTROL.getTableName() +
+                                                          " set " + RepositoryColumn.CURRENT_STATE_LOADED.getColumnName() + " = ?;",
+                                                  List.of(new JDBCDataValue(currentStateLoaded, Types.BOOLEAN)));
+        }
+        catch (PropertyServerException sqlException)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           sqlException.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           sqlException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               sqlException);
+        }
+    }
+
+
+    /**
+     * Empty both current state tables ready for them to be reloaded from the history tables.
+     *
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    public void truncateCurrentStateTables() throws RepositoryErrorException
+    {
+        final String methodName = "truncateCurrentStateTables";
+
+        try
+        {
+            jdbcResourceConnector.issueSQLCommand(jdbcConnection,
+                                                  "truncate table " + RepositoryTable.ENTITY_CURRENT_STATE.getTableName() +
+                                                          ", " + RepositoryTable.RELATIONSHIP_CURRENT_STATE.getTableName() + ";");
+        }
+        catch (PropertyServerException sqlException)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           sqlException.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           sqlException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               sqlException);
+        }
+    }
+
+
+    /**
+     * Copy the next chunk of current entities, in GUID order, from the history tables to the entity current
+     * state table.  The caller commits each chunk and passes the last GUID returned to fetch the next one, so
+     * a repository of any size is loaded with bounded memory and transaction size.
+     *
+     * @param lastGUID last GUID loaded by the previous chunk, or null to start at the beginning
+     * @param chunkSize maximum number of entities to load
+     * @return GUIDs of the entities loaded, in order - fewer than chunkSize means there are no more
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    public List<String> loadCurrentEntities(String lastGUID,
+                                            int    chunkSize) throws RepositoryErrorException
+    {
+        List<Map<String, JDBCDataValue>> entityRows    = this.getNextCurrentRows(RepositoryTable.ENTITY, lastGUID, chunkSize);
+        Map<String, EntityMapper>        entityMappers = this.getCompleteEntitiesFromHistoryTables(entityRows, null);
+        List<Map<String, JDBCDataValue>> currentRows   = new ArrayList<>();
+
+        if (entityMappers != null)
+        {
+            for (EntityMapper entityMapper : entityMappers.values())
+            {
+                currentRows.add(this.getCurrentEntityRow(entityMapper));
+            }
+        }
+
+        this.saveCurrentState(RepositoryTable.ENTITY_CURRENT_STATE, currentRows);
+
+        return this.getInstanceGUIDs(entityRows);
+    }
+
+
+    /**
+     * Copy the next chunk of current relationships, in GUID order, from the history tables to the relationship
+     * current state table.  This works in the same way as loadCurrentEntities.
+     *
+     * @param lastGUID last GUID loaded by the previous chunk, or null to start at the beginning
+     * @param chunkSize maximum number of relationships to load
+     * @return GUIDs of the relationships loaded, in order - fewer than chunkSize means there are no more
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    public List<String> loadCurrentRelationships(String lastGUID,
+                                                 int    chunkSize) throws RepositoryErrorException
+    {
+        List<Map<String, JDBCDataValue>> relationshipRows    = this.getNextCurrentRows(RepositoryTable.RELATIONSHIP, lastGUID, chunkSize);
+        List<RelationshipMapper>         relationshipMappers = this.getCompleteRelationshipsFromHistoryTables(relationshipRows, null);
+        List<Map<String, JDBCDataValue>> currentRows         = new ArrayList<>();
+
+        if (relationshipMappers != null)
+        {
+            for (RelationshipMapper relationshipMapper : relationshipMappers)
+            {
+                currentRows.add(this.getCurrentRelationshipRow(relationshipMapper));
+            }
+        }
+
+        this.saveCurrentState(RepositoryTable.RELATIONSHIP_CURRENT_STATE, currentRows);
+
+        return this.getInstanceGUIDs(relationshipRows);
+    }
+
+
+    /**
+     * Retrieve the rows for the current versions of the instances that follow a GUID, in GUID order.  The seek on
+     * the GUID is served by the primary key, so each chunk costs the same however far into the table it is.
+     *
+     * @param historyTable table holding every version of the instances
+     * @param lastGUID GUID to start after, or null to start at the beginning
+     * @param chunkSize maximum number of rows to return
+     * @return list of rows (empty if there are no more)
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    private List<Map<String, JDBCDataValue>> getNextCurrentRows(RepositoryTable historyTable,
+                                                                String          lastGUID,
+                                                                int             chunkSize) throws RepositoryErrorException
+    {
+        final String methodName = "getNextCurrentRows";
+
+        List<JDBCDataValue> parameters  = new ArrayList<>();
+        StringBuilder       whereClause = new StringBuilder();
+
+        whereClause.append(RepositoryColumn.VERSION_END_TIME.getColumnName()).append(" is null");
+
+        if (lastGUID != null)
+        {
+            whereClause.append(" and ").append(RepositoryColumn.INSTANCE_GUID.getColumnName()).append(" > ?");
+            parameters.add(new JDBCDataValue(lastGUID, Types.VARCHAR));
+        }
+
+        whereClause.append(" order by ").append(RepositoryColumn.INSTANCE_GUID.getColumnName()).append(" limit ?");
+        parameters.add(new JDBCDataValue(chunkSize, Types.INTEGER));
+
+        try
+        {
+            List<Map<String, JDBCDataValue>> rows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
+                                                                                          historyTable.getTableName(),
+                                                                                          whereClause.toString(),
+                                                                                          parameters,
+                                                                                          historyTable.getColumnNameTypeMap());
+
+            if (rows == null)
+            {
+                return new ArrayList<>();
+            }
+
+            return rows;
+        }
+        catch (PropertyServerException sqlException)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           sqlException.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           sqlException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               sqlException);
+        }
+    }
+
+
+    /**
+     * Copy the latest version of each of the instances from the history tables to a current state table.  Instances
+     * that have been purged are removed from the current state table.  The rows are written as a single batch.
+     *
+     * @param currentStateTable table to update
+     * @param instanceGUIDs unique identifiers of the instances
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private void refreshCurrentState(RepositoryTable    currentStateTable,
+                                     Collection<String> instanceGUIDs) throws RepositoryErrorException
+    {
+        List<Map<String, JDBCDataValue>> currentRows = new ArrayList<>();
+        List<String>                     purgedGUIDs = new ArrayList<>();
+
+        for (String instanceGUID : instanceGUIDs)
+        {
+            Map<String, JDBCDataValue> currentRow;
+
+            if (currentStateTable == RepositoryTable.ENTITY_CURRENT_STATE)
+            {
+                currentRow = this.getCurrentEntityRow(instanceGUID);
+            }
+            else
+            {
+                currentRow = this.getCurrentRelationshipRow(instanceGUID);
+            }
+
+            if (currentRow == null)
+            {
+                purgedGUIDs.add(instanceGUID);
+            }
+            else
+            {
+                currentRows.add(currentRow);
+            }
+        }
+
+        this.saveCurrentState(currentStateTable, currentRows);
+        this.deleteCurrentState(currentStateTable, purgedGUIDs);
+    }
+
+
+    /**
+     * Build the current state row for the latest version of an entity, with its classifications, from the
+     * history tables.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return column names, values and types for the row, or null if the entity has been purged
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private Map<String, JDBCDataValue> getCurrentEntityRow(String entityGUID) throws RepositoryErrorException
+    {
+        EntityMapper entityMapper = this.getEntityFromHistoryTables(entityGUID, null);
+
+        if (entityMapper == null)
+        {
+            return null;
+        }
+
+        return this.getCurrentEntityRow(entityMapper);
+    }
+
+
+    /**
+     * Build the current state row for an entity.
+     *
+     * @param entityMapper latest version of the entity, with its classifications
+     * @return column names, values and types for the row
+     * @throws RepositoryErrorException problem mapping the values
+     */
+    private Map<String, JDBCDataValue> getCurrentEntityRow(EntityMapper entityMapper) throws RepositoryErrorException
+    {
+        final String methodName = "getCurrentEntityRow";
+
+        Map<String, JDBCDataValue> entityRow = entityMapper.getEntityTableRow();
+        InstanceHeader             entity;
+
+        if (entityMapper.isProxy())
+        {
+            entity = entityMapper.getEntityProxy();
+        }
+        else
+        {
+            entity = entityMapper.getEntityDetail();
+        }
+
+        Map<String, JDBCDataValue> currentRow = new LinkedHashMap<>();
+
+        currentRow.put(RepositoryColumn.INSTANCE_GUID.getColumnName(), new JDBCDataValue(entity.getGUID(), Types.VARCHAR));
+        currentRow.put(RepositoryColumn.VERSION.getColumnName(), entityRow.get(RepositoryColumn.VERSION.getColumnName()));
+        currentRow.put(RepositoryColumn.IS_PROXY.getColumnName(), entityRow.get(RepositoryColumn.IS_PROXY.getColumnName()));
+        currentRow.put(RepositoryColumn.TYPE_NAME.getColumnName(), entityRow.get(RepositoryColumn.TYPE_NAME.getColumnName()));
+        currentRow.put(RepositoryColumn.CURRENT_STATUS.getColumnName(), entityRow.get(RepositoryColumn.CURRENT_STATUS.getColumnName()));
+        currentRow.put(RepositoryColumn.INSTANCE_JSON.getColumnName(), new JDBCDataValue(this.getInstanceJSON(entity, methodName), Types.OTHER));
+
+        return currentRow;
+    }
+
+
+    /**
+     * Build the current state row for the latest version of a relationship from the history tables.
+     *
+     * @param relationshipGUID unique identifier of the relationship
+     * @return column names, values and types for the row, or null if the relationship has been purged
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    private Map<String, JDBCDataValue> getCurrentRelationshipRow(String relationshipGUID) throws RepositoryErrorException
+    {
+        RelationshipMapper relationshipMapper = this.getRelationshipFromHistoryTables(relationshipGUID, null);
+
+        if (relationshipMapper == null)
+        {
+            return null;
+        }
+
+        return this.getCurrentRelationshipRow(relationshipMapper);
+    }
+
+
+    /**
+     * Build the current state row for a relationship.  The entity proxies for the ends are not stored because
+     * they change when the entities change.
+     *
+     * @param relationshipMapper latest version of the relationship
+     * @return column names, values and types for the row
+     * @throws RepositoryErrorException problem mapping the values
+     */
+    private Map<String, JDBCDataValue> getCurrentRelationshipRow(RelationshipMapper relationshipMapper) throws RepositoryErrorException
+    {
+        final String methodName = "getCurrentRelationshipRow";
+
+        Map<String, JDBCDataValue> relationshipRow = relationshipMapper.getRelationshipTableRow();
+        Relationship               relationship    = new Relationship(relationshipMapper.getRelationship());
+
+        relationship.setEntityOneProxy(null);
+        relationship.setEntityTwoProxy(null);
+
+        Map<String, JDBCDataValue> currentRow = new LinkedHashMap<>();
+
+        currentRow.put(RepositoryColumn.INSTANCE_GUID.getColumnName(), new JDBCDataValue(relationship.getGUID(), Types.VARCHAR));
+        currentRow.put(RepositoryColumn.VERSION.getColumnName(), relationshipRow.get(RepositoryColumn.VERSION.getColumnName()));
+        currentRow.put(RepositoryColumn.TYPE_NAME.getColumnName(), relationshipRow.get(RepositoryColumn.TYPE_NAME.getColumnName()));
+        currentRow.put(RepositoryColumn.END_1_GUID.getColumnName(), relationshipRow.get(RepositoryColumn.END_1_GUID.getColumnName()));
+        currentRow.put(RepositoryColumn.END_2_GUID.getColumnName(), relationshipRow.get(RepositoryColumn.END_2_GUID.getColumnName()));
+        currentRow.put(RepositoryColumn.CURRENT_STATUS.getColumnName(), relationshipRow.get(RepositoryColumn.CURRENT_STATUS.getColumnName()));
+        currentRow.put(RepositoryColumn.INSTANCE_JSON.getColumnName(), new JDBCDataValue(this.getInstanceJSON(relationship, methodName), Types.OTHER));
+
+        return currentRow;
+    }
+
+
+    /**
+     * Convert an instance to the JSON document stored in a current state table.
+     *
+     * @param instance entity or relationship
+     * @param methodName calling method
+     * @return JSON document
+     * @throws RepositoryErrorException the instance could not be converted
+     */
+    private String getInstanceJSON(InstanceHeader instance,
+                                   String         methodName) throws RepositoryErrorException
+    {
+        try
+        {
+            return objectMapper.writeValueAsString(instance);
+        }
+        catch (JsonProcessingException error)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           error.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           error.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               error);
+        }
+    }
+
+
+    /**
+     * Insert or replace the rows for instances in a current state table.  The rows all have the same columns
+     * and are sent as one batch.
+     *
+     * @param currentStateTable table to update
+     * @param currentRows column names, values and types for each row
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    private void saveCurrentState(RepositoryTable                  currentStateTable,
+                                  List<Map<String, JDBCDataValue>> currentRows) throws RepositoryErrorException
+    {
+        final String methodName = "saveCurrentState";
+
+        if (currentRows.isEmpty())
+        {
+            return;
+        }
+
+        Map<String, JDBCDataValue> currentRow    = currentRows.get(0);
+        List<List<JDBCDataValue>>  parameterSets = new ArrayList<>();
+        StringBuilder              columnNames   = new StringBuilder();
+        StringBuilder              placeholders  = new StringBuilder();
+        StringBuilder              updates       = new StringBuilder();
+
+        for (String columnName : currentRow.keySet())
+        {
+            if (! columnNames.isEmpty())
+            {
+                columnNames.append(", ");
+                placeholders.append(", ");
+            }
+
+            columnNames.append(columnName);
+            placeholders.append("?");
+
+            if (! RepositoryColumn.INSTANCE_GUID.getColumnName().equals(columnName))
+            {
+                if (! updates.isEmpty())
+                {
+                    updates.append(", ");
+                }
+
+                updates.append(columnName).append(" = excluded.").append(columnName);
+            }
+        }
+
+        for (Map<String, JDBCDataValue> row : currentRows)
+        {
+            parameterSets.add(new ArrayList<>(row.values()));
+        }
+
+        try
+        {
+            jdbcResourceConnector.issueSQLCommandBatch(jdbcConnection,
+                                                       "insert into " + currentStateTable.getTableName() + " (" + columnNames + ") values (" + placeholders + ")" +
+                                                               " on conflict (" + RepositoryColumn.INSTANCE_GUID.getColumnName() + ") do update set " + updates + ";",
+                                                       parameterSets);
+        }
+        catch (PropertyServerException sqlException)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           sqlException.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           sqlException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               sqlException);
+        }
+    }
+
+
+    /**
+     * Remove the rows for instances from a current state table.
+     *
+     * @param currentStateTable table to update
+     * @param instanceGUIDs unique identifiers of the instances
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    private void deleteCurrentState(RepositoryTable currentStateTable,
+                                    List<String>    instanceGUIDs) throws RepositoryErrorException
+    {
+        final String methodName = "deleteCurrentState";
+
+        if (instanceGUIDs.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            jdbcResourceConnector.issueSQLCommand(jdbcConnection,
+                                                  "delete from " + currentStateTable.getTableName() +
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = any (?);",
+                                                  List.of(new JDBCDataValue(instanceGUIDs.toArray(new String[0]), Types.ARRAY)));
         }
         catch (PropertyServerException sqlException)
         {
@@ -1985,7 +3244,7 @@ public class DatabaseStore implements AutoCloseable
     /**
      * Commit the changes made by this unit of work.  This must be called as the last action of any unit of work
      * that has made changes; otherwise {@link #close()} discards them.  Units of work that only read do not need
-     * to call this method.
+     * to call this method.  If the current state tables are in use, the changed instances are copied to them first.
      *
      * @throws RepositoryErrorException problem committing the transaction
      */
@@ -1993,6 +3252,15 @@ public class DatabaseStore implements AutoCloseable
     {
         final String methodName = "commit";
 
+        if (currentStateTables)
+        {
+            this.refreshCurrentState(RepositoryTable.ENTITY_CURRENT_STATE, changedEntityGUIDs);
+            this.refreshCurrentState(RepositoryTable.RELATIONSHIP_CURRENT_STATE, changedRelationshipGUIDs);
+        }
+
+        changedEntityGUIDs.clear();
+        changedRelationshipGUIDs.clear();
+
         try
         {
             jdbcConnection.commit();
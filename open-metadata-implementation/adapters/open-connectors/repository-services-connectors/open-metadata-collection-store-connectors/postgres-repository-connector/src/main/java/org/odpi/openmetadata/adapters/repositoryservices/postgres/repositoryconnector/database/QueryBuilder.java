@@ -3,9 +3,12 @@
 
 package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
 
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresErrorCode;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryColumn;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryIndex;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.frameworks.openmetadata.types.OpenMetadataProperty;
 import org.odpi.openmetadata.frameworks.openmetadata.types.OpenMetadataType;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
@@ -23,11 +26,24 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorExceptio
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.*;
 
 /**
  * Translates open metadata query requests into SQL fragments that can be assembled before issuing
  * then to the database.
+ * <br><br>
+ * Values supplied by the caller (guids, type names, property values, times, paging) never appear in the SQL text.
+ * Each fragment uses a "?" placeholder instead and appends the matching value to the parameter list passed in by
+ * the caller.  The fragments must therefore be concatenated in the same order that they are requested, and the
+ * resulting list is bound to the statement by the JDBCResourceConnector.  Since queries of the same shape produce
+ * the same SQL text, the JDBC driver can reuse its prepared statements and the database can reuse its query plans.
+ * <br><br>
+ * Results are always returned in a total order - the requested sequencing key followed by the instance GUID.  This
+ * means a caller that remembers the key and GUID of the last row it received can ask for the next page with
+ * setSeekStart() and the query seeks straight to it through the matching RepositoryIndex rather than reading and
+ * discarding all the earlier rows as an OFFSET does.
  */
 public class QueryBuilder
 {
@@ -45,6 +61,7 @@ public class QueryBuilder
     private boolean               startsWith                   = false;
     private boolean               endsWith                     = false;
     private boolean               ignoreCase                   = true;
+    private boolean               textSearchIndexes            = false;
 
     private SearchProperties      searchProperties             = null;
     private String                principleTableName           = null;
@@ -63,6 +80,20 @@ public class QueryBuilder
     private SequencingOrder       sequencingOrder              = null;
     private int                   fromElement                  = 0;
     private int                   pageSize                     = 0;
+    private Object                seekSequencingValue          = null;
+    private String                seekGUID                     = null;
+
+    /*
+     * Name of the lateral sub-select (and its column) that supplies the property value when sequencing by property.
+     */
+    private static final String SEQUENCING_ALIAS  = "sequencing";
+    private static final String SEQUENCING_COLUMN = "sequencing_value";
+
+    /*
+     * Longest word that is used to pre-filter a search string through the word index.  PostgreSQL does not index
+     * words longer than 2047 bytes, so a longer word would filter out values that contain it.
+     */
+    private static final int MAX_SEARCH_WORD_LENGTH = 255;
 
 
     private static final Logger log = LoggerFactory.getLogger(QueryBuilder.class);
@@ -102,14 +133,15 @@ public class QueryBuilder
     /**
      * Derive the SQL fragment that
      *
+     * @param parameters values for the placeholders in the query
      * @return fragment of SQL
      */
-    private String getRelationshipEndGUIDClause()
+    private String getRelationshipEndGUIDClause(List<JDBCDataValue> parameters)
     {
         if (relationshipEndGUID != null)
         {
-            return " and (" + RepositoryColumn.END_1_GUID.getColumnName() + " = '" + escapePropertyValue(relationshipEndGUID) +
-                    "' or " + RepositoryColumn.END_2_GUID.getColumnName() + " = '" + escapePropertyValue(relationshipEndGUID) + "')";
+            return " and (" + RepositoryColumn.END_1_GUID.getColumnName() + " = " + getStringParameter(relationshipEndGUID, parameters) +
+                    " or " + RepositoryColumn.END_2_GUID.getColumnName() + " = " + getStringParameter(relationshipEndGUID, parameters) + ")";
         }
 
         return " ";
@@ -129,14 +161,16 @@ public class QueryBuilder
      * matching instance, including replicas, for federation to deduplicate by GUID.
      *
      * @param localMetadataCollectionId unique identifier of the repository issuing the count query
+     * @param parameters values for the placeholders in the query
      * @return fragment of SQL
      */
-    public String getLocalMetadataCollectionClause(String localMetadataCollectionId)
+    public String getLocalMetadataCollectionClause(String              localMetadataCollectionId,
+                                                   List<JDBCDataValue> parameters)
     {
         if (localMetadataCollectionId != null)
         {
-            return " and (" + RepositoryColumn.METADATA_COLLECTION_GUID.getColumnName() + " = '" + escapePropertyValue(localMetadataCollectionId) +
-                    "' or " + RepositoryColumn.REPLICATED_BY.getColumnName() + " = '" + escapePropertyValue(localMetadataCollectionId) + "')";
+            return " and (" + RepositoryColumn.METADATA_COLLECTION_GUID.getColumnName() + " = " + getStringParameter(localMetadataCollectionId, parameters) +
+                    " or " + RepositoryColumn.REPLICATED_BY.getColumnName() + " = " + getStringParameter(localMetadataCollectionId, parameters) + ")";
         }
 
         return " ";
@@ -164,11 +198,26 @@ public class QueryBuilder
 
 
     /**
-     * Return the SQL search string that needs to appear in the SQL query.
+     * Set up whether the repository's text search indexes (see RepositoryIndex) are available.  When they are,
+     * a search string that contains whole words is also matched against the word index, which narrows the
+     * property values that need to be compared with the search string's pattern.
      *
+     * @param textSearchIndexes are the text search indexes available
+     */
+    public void setTextSearchIndexes(boolean textSearchIndexes)
+    {
+        this.textSearchIndexes = textSearchIndexes;
+    }
+
+
+    /**
+     * Return the SQL search string that needs to appear in the SQL query.  The like/ilike pattern is served by
+     * the trigram indexes when they are present.
+     *
+     * @param parameters values for the placeholders in the query
      * @return fragment of SQL
      */
-    private String getSearchStringClause()
+    private String getSearchStringClause(List<JDBCDataValue> parameters)
     {
         if (searchString != null)
         {
@@ -195,14 +244,67 @@ public class QueryBuilder
                                                   null,
                                                   searchOperand,
                                                   searchStringBuilder.toString(),
+                                                  this.getSearchWords(),
                                                   principleTableName,
-                                                  propertyTableName);
+                                                  propertyTableName,
+                                                  parameters);
         }
 
         return " ";
     }
 
 
+    /**
+     * Return the words that any property value matching the search string must contain as whole words, formatted
+     * as a text search query, or null if the word index can not be used.  A word in the search string is only
+     * whole in the matching value if there is a space (or the start/end of the value) on both sides of it.  For
+     * example, when searching for values containing "new customer accounts", the value must contain the word
+     * "customer" but it may contain "renew" rather than "new".  Only words made of ASCII letters are used since
+     * these are split out of the value in the same way by the database's text parser.
+     *
+     * @return words separated by " &amp; " or null
+     */
+    private String getSearchWords()
+    {
+        if ((! textSearchIndexes) || (searchString == null))
+        {
+            return null;
+        }
+
+        String[]     searchTokens = searchString.split(" ", -1);
+        List<String> searchWords  = new ArrayList<>();
+
+        for (int tokenIndex = 0; tokenIndex < searchTokens.length; tokenIndex++)
+        {
+            String searchToken = searchTokens[tokenIndex];
+
+            boolean isWholeWord = ((tokenIndex > 0) || (startsWith)) &&
+                                  ((tokenIndex < searchTokens.length - 1) || (endsWith)) &&
+                                  (! searchToken.isEmpty()) &&
+                                  (searchToken.length() <= MAX_SEARCH_WORD_LENGTH);
+
+            for (int charIndex = 0; (isWholeWord) && (charIndex < searchToken.length()); charIndex++)
+            {
+                char tokenChar = searchToken.charAt(charIndex);
+
+                isWholeWord = ((tokenChar >= 'a') && (tokenChar <= 'z')) || ((tokenChar >= 'A') && (tokenChar <= 'Z'));
+            }
+
+            if (isWholeWord)
+            {
+                searchWords.add(searchToken.toLowerCase());
+            }
+        }
+
+        if (searchWords.isEmpty())
+        {
+            return null;
+        }
+
+        return String.join(" & ", searchWords);
+    }
+
+
     /**
      * Creates a sub-select statement that returns a list of guids that have properties matching the desired property value
      * Property name or property value can be null but not both.  The operator is required if property value is not null.
@@ -211,17 +313,21 @@ public class QueryBuilder
      * @param propertyName name of the property to test (or null for any property)
      * @param propertyColumn is the property name an attribute name or a nested property name?
      * @param operator operator to compare the property value
-     * @param propertyValue property value to look for (already validated and escaped).
+     * @param propertyValue property value to look for (already validated).
+     * @param propertyWords text search query for the whole words that the property value must contain (or null)
      * @param principleTableName name of header table
      * @param propertyTableName name of attribute table
+     * @param parameters values for the placeholders in the query
      * @return sub select statement
      */
-    private String getPropertySubSelect(String propertyName,
-                                        String propertyColumn,
-                                        String operator,
-                                        String propertyValue,
-                                        String principleTableName,
-                                        String propertyTableName)
+    private String getPropertySubSelect(String              propertyName,
+                                        String              propertyColumn,
+                                        String              operator,
+                                        String              propertyValue,
+                                        String              propertyWords,
+                                        String              principleTableName,
+                                        String              propertyTableName,
+                                        List<JDBCDataValue> parameters)
     {
         String subSelect  = " (" + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) +
                                    " in (select " + RepositoryColumn.INSTANCE_GUID.getColumnName(propertyTableName) + " from " + propertyTableName +
@@ -229,7 +335,7 @@ public class QueryBuilder
 
         if (propertyName != null)
         {
-            subSelect = subSelect + propertyColumn + "='" + escapePropertyValue(propertyName) + "'";
+            subSelect = subSelect + propertyColumn + " = " + getStringParameter(propertyName, parameters);
 
             if (propertyValue != null)
             {
@@ -239,7 +345,17 @@ public class QueryBuilder
 
         if (propertyValue != null)
         {
-            subSelect = subSelect + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " " + operator + "  '" + escapePropertyValue(propertyValue) + "'";
+            subSelect = subSelect + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " " + operator + " " + getStringParameter(propertyValue, parameters);
+
+            if (propertyWords != null)
+            {
+                /*
+                 * Values too long for all their words to be indexed are matched on the pattern alone.
+                 */
+                subSelect = subSelect + " and (" + RepositoryIndex.getTextSearchWords() + " @@ " +
+                        RepositoryIndex.getTextSearchQuery(getStringParameter(propertyWords, parameters)) +
+                        " or " + RepositoryIndex.getLongTextValuePredicate() + ")";
+            }
         }
 
         return subSelect + "))) ";
@@ -247,19 +363,94 @@ public class QueryBuilder
 
 
     /**
-     * Ensure any single quote in a property value is escaped.
+     * Add a string value to the parameters of the query and return its placeholder.
      *
-     * @param propertyValue supplied property value
-     * @return escaped property value
+     * @param value value to bind
+     * @param parameters values for the placeholders in the query
+     * @return placeholder for the SQL fragment
      */
-    private String escapePropertyValue(Object propertyValue)
+    private String getStringParameter(Object              value,
+                                      List<JDBCDataValue> parameters)
     {
-        if (propertyValue != null)
+        parameters.add(new JDBCDataValue(value == null ? null : value.toString(), Types.VARCHAR));
+
+        return "?";
+    }
+
+
+    /**
+     * Add a list of string values to the parameters of the query as a single array value and return its
+     * placeholder.  This is used with the "= any (?)" and "like any (?)" operators so that the SQL text
+     * is the same however many values are in the list.
+     *
+     * @param values values to bind
+     * @param parameters values for the placeholders in the query
+     * @return placeholder for the SQL fragment
+     */
+    private String getStringArrayParameter(List<String>        values,
+                                           List<JDBCDataValue> parameters)
+    {
+        parameters.add(new JDBCDataValue(values.toArray(new String[0]), Types.ARRAY));
+
+        return "?";
+    }
+
+
+    /**
+     * Add a long value to the parameters of the query and return its placeholder.
+     *
+     * @param value value to bind
+     * @param parameters values for the placeholders in the query
+     * @return placeholder for the SQL fragment
+     */
+    private String getLongParameter(long                value,
+                                    List<JDBCDataValue> parameters)
+    {
+        parameters.add(new JDBCDataValue(value, Types.BIGINT));
+
+        return "?";
+    }
+
+
+    /**
+     * Add an array of long values to the parameters of the query as a single array value and return its
+     * placeholder.
+     *
+     * @param values values to bind
+     * @param parameters values for the placeholders in the query
+     * @return placeholder for the SQL fragment
+     */
+    private String getLongArrayParameter(long[]              values,
+                                         List<JDBCDataValue> parameters)
+    {
+        parameters.add(new JDBCDataValue(values, Types.ARRAY));
+
+        return "?";
+    }
+
+
+    /**
+     * Add a value that is compared with one of the header columns to the parameters of the query and return its
+     * placeholder.  Dates are bound as timestamps.  Other values are bound as text with no declared type so that
+     * the database converts them to the type of the column, just as it would for a quoted literal.
+     *
+     * @param value value to bind
+     * @param parameters values for the placeholders in the query
+     * @return placeholder for the SQL fragment
+     */
+    private String getColumnParameter(Object              value,
+                                      List<JDBCDataValue> parameters)
+    {
+        if (value instanceof Date dateValue)
         {
-            return propertyValue.toString().replaceAll("'", "''");
+            parameters.add(new JDBCDataValue(new Timestamp(dateValue.getTime()), Types.TIMESTAMP));
+        }
+        else
+        {
+            parameters.add(new JDBCDataValue(String.valueOf(value), Types.OTHER));
         }
 
-        return null;
+        return "?";
     }
 
 
@@ -273,9 +464,8 @@ public class QueryBuilder
      * ends in a backslash leaves the pattern ending in a lone escape character, which PostgreSQL rejects
      * outright ("LIKE pattern must not end with escape character") rather than simply not matching.
      * <br><br>
-     * This is independent of {@link #escapePropertyValue(Object)}, which handles the separate job of
-     * making a value safe to embed in a SQL string literal: neither escaper introduces characters the
-     * other one acts on, so a value needing both can have them applied in either order.
+     * The escaped pattern is passed to the database as a bound parameter rather than as a SQL literal,
+     * so no further quoting is needed.
      *
      * @param suppliedSearchString the string to escape so that it is matched literally
      * @return string that is safe to use as (part of) a LIKE pattern
@@ -418,6 +608,7 @@ public class QueryBuilder
      * @param matchOperand how to combine the results from different properties
      * @param principleTableName name of header table
      * @param propertyTableName name of attribute table
+     * @param parameters values for the placeholders in the query
      * @return sql fragment wrapped in parentheses.  Forms part of a where clause
      */
     private String getPropertyComparisonFromInstanceProperties(InstanceProperties         instanceProperties,
@@ -426,7 +617,8 @@ public class QueryBuilder
                                                                PropertyComparisonOperator numericPropertyOperator,
                                                                String                     matchOperand,
                                                                String                     principleTableName,
-                                                               String                     propertyTableName) throws RepositoryErrorException
+                                                               String                     propertyTableName,
+                                                               List<JDBCDataValue>        parameters) throws RepositoryErrorException
     {
         if ((instanceProperties != null) && (instanceProperties.getPropertyCount() > 0))
         {
@@ -460,9 +652,10 @@ public class QueryBuilder
                         stringBuilder.append(this.getNestedPropertyComparisonClause(topLevelPropertyName,
                                                                                     leafPropertyName,
                                                                                     stringPropertyOperator,
-                                                                                    this.escapePropertyValue(primitivePropertyValue.getPrimitiveValue()),
+                                                                                    primitivePropertyValue.getPrimitiveValue(),
                                                                                     principleTableName,
-                                                                                    propertyTableName));
+                                                                                    propertyTableName,
+                                                                                    parameters));
                     }
                     else
                     {
@@ -471,7 +664,8 @@ public class QueryBuilder
                                                                                     numericPropertyOperator,
                                                                                     primitivePropertyValue.getPrimitiveValue(),
                                                                                     principleTableName,
-                                                                                    propertyTableName));
+                                                                                    propertyTableName,
+                                                                                    parameters));
                     }
                 }
                 else if (instancePropertyValue instanceof EnumPropertyValue enumPropertyValue)
@@ -479,9 +673,10 @@ public class QueryBuilder
                     stringBuilder.append(this.getNestedPropertyComparisonClause(topLevelPropertyName,
                                                                                 leafPropertyName,
                                                                                 stringPropertyOperator,
-                                                                                this.escapePropertyValue(enumPropertyValue.getSymbolicName()),
+                                                                                enumPropertyValue.getSymbolicName(),
                                                                                 principleTableName,
-                                                                                propertyTableName));
+                                                                                propertyTableName,
+                                                                                parameters));
                 }
                 else if (instancePropertyValue instanceof MapPropertyValue mapPropertyValue)
                 {
@@ -491,7 +686,8 @@ public class QueryBuilder
                                                                                      numericPropertyOperator,
                                                                                      matchOperand,
                                                                                      principleTableName,
-                                                                                     propertyTableName));
+                                                                                     propertyTableName,
+                                                                                     parameters));
                 }
                 else if (instancePropertyValue instanceof ArrayPropertyValue arrayPropertyValue)
                 {
@@ -501,7 +697,8 @@ public class QueryBuilder
                                                                                      numericPropertyOperator,
                                                                                      matchOperand,
                                                                                      principleTableName,
-                                                                                     propertyTableName));
+                                                                                     propertyTableName,
+                                                                                     parameters));
                 }
                 else if (instancePropertyValue instanceof StructPropertyValue structPropertyValue)
                 {
@@ -511,7 +708,8 @@ public class QueryBuilder
                                                                                      numericPropertyOperator,
                                                                                      matchOperand,
                                                                                      principleTableName,
-                                                                                     propertyTableName));
+                                                                                     propertyTableName,
+                                                                                     parameters));
                 }
             }
 
@@ -533,6 +731,7 @@ public class QueryBuilder
      * @param propertyValue value to look for
      * @param principleTableName name of header table
      * @param propertyTableName name of attribute table
+     * @param parameters values for the placeholders in the query
      * @return sql fragment
      * @throws RepositoryErrorException the property does not make sense with the operator
      */
@@ -541,7 +740,8 @@ public class QueryBuilder
                                                      PropertyComparisonOperator operator,
                                                      Object                     propertyValue,
                                                      String                     principleTableName,
-                                                     String                     propertyTableName) throws RepositoryErrorException
+                                                     String                     propertyTableName,
+                                                     List<JDBCDataValue>        parameters) throws RepositoryErrorException
     {
         final String methodName = "getNestedPropertyComparisonClause";
 
@@ -551,7 +751,8 @@ public class QueryBuilder
         {
             String propertyNameMatchClause = this.getPropertyNameMatchClause(propertyTableName,
                                                                              topLevelPropertyName,
-                                                                             leafPropertyName);
+                                                                             leafPropertyName,
+                                                                             parameters);
             String rowMatchClause = "select 1 from " + propertyTableName +
                     " where " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) + " = " + RepositoryColumn.INSTANCE_GUID.getColumnName(propertyTableName) +
                     " and " + RepositoryColumn.VERSION.getColumnName(principleTableName) + " = " + RepositoryColumn.VERSION.getColumnName(propertyTableName);
@@ -587,63 +788,73 @@ public class QueryBuilder
                 {
                     case EQ ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " = '" + propertyValue + "') ";
+                        if (propertyValue != null)
+                        {
+                            /*
+                             * Repeating the match on the leading characters of the value lets the database find
+                             * the matching rows through the property name/value (sequencing) index.
+                             */
+                            sqlClause = sqlClause + " and " + RepositoryIndex.getTextSequencingValue() + " = " +
+                                    getStringParameter(RepositoryIndex.getTextSequencingValue(propertyValue.toString()), parameters);
+                        }
+
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " = " + getStringParameter(propertyValue, parameters) + ") ";
                     }
                     case NEQ ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " != '" + propertyValue + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " != " + getStringParameter(propertyValue, parameters) + ") ";
                     }
                     case LT ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " < '" + propertyValue + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " < " + getStringParameter(propertyValue, parameters) + ") ";
                     }
                     case LTE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " <= '" + propertyValue + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " <= " + getStringParameter(propertyValue, parameters) + ") ";
                     }
                     case GT ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " > '" + propertyValue + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " > " + getStringParameter(propertyValue, parameters) + ") ";
                     }
                     case GTE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " >= '" + propertyValue + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " >= " + getStringParameter(propertyValue, parameters) + ") ";
                     }
                     case LIKE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like '%" + this.getSafeLikePattern(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like " + getStringParameter("%" + this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                     }
                     case NOT_LIKE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " not like '%" + this.getSafeLikePattern(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " not like " + getStringParameter("%" + this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                     }
                     case CASE_INSENSITIVE_LIKE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike '%" + this.getSafeLikePattern(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike " + getStringParameter("%" + this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                     }
                     case CASE_INSENSITIVE_NOT_LIKE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " not ilike '%" + this.getSafeLikePattern(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " not ilike " + getStringParameter("%" + this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                     }
                     case STARTS_WITH ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like '" + this.getSafeLikePattern(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like " + getStringParameter(this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                     }
                     case ENDS_WITH ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like '%" + this.getSafeLikePattern(propertyValue) + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like " + getStringParameter("%" + this.getSafeLikePattern(propertyValue), parameters) + ") ";
                     }
                     case CASE_INSENSITIVE_STARTS_WITH ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike '" + this.getSafeLikePattern(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike " + getStringParameter(this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                     }
                     case CASE_INSENSITIVE_ENDS_WITH ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike '%" + this.getSafeLikePattern(propertyValue) + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike " + getStringParameter("%" + this.getSafeLikePattern(propertyValue), parameters) + ") ";
                     }
                     case CASE_INSENSITIVE_EQ ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike '" + this.getSafeLikePattern(propertyValue) + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike " + getStringParameter(this.getSafeLikePattern(propertyValue), parameters) + ") ";
                     }
                     case NOT_NULL ->
                     {
@@ -658,27 +869,27 @@ public class QueryBuilder
             {
                 case EQ ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " = '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " = " + getColumnParameter(propertyValue, parameters) + ") ";
                 }
                 case NEQ ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " != '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " != " + getColumnParameter(propertyValue, parameters) + ") ";
                 }
                 case LT ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " < '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " < " + getColumnParameter(propertyValue, parameters) + ") ";
                 }
                 case LTE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " <= '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " <= " + getColumnParameter(propertyValue, parameters) + ") ";
                 }
                 case GT ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " > '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " > " + getColumnParameter(propertyValue, parameters) + ") ";
                 }
                 case GTE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " >= '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " >= " + getColumnParameter(propertyValue, parameters) + ") ";
                 }
                 case IS_NULL ->
                 {
@@ -690,39 +901,39 @@ public class QueryBuilder
                 }
                 case LIKE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " like '%" + this.getSafeLikePattern(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " like " + getColumnParameter("%" + this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                 }
                 case NOT_LIKE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " not like '%" + this.getSafeLikePattern(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " not like " + getColumnParameter("%" + this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                 }
                 case CASE_INSENSITIVE_LIKE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " ilike '%" + this.getSafeLikePattern(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " ilike " + getColumnParameter("%" + this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                 }
                 case CASE_INSENSITIVE_NOT_LIKE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " not ilike '%" + this.getSafeLikePattern(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " not ilike " + getColumnParameter("%" + this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                 }
                 case STARTS_WITH ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " like '" + this.getSafeLikePattern(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " like " + getColumnParameter(this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                 }
                 case ENDS_WITH ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " like '%" + this.getSafeLikePattern(propertyValue) + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " like " + getColumnParameter("%" + this.getSafeLikePattern(propertyValue), parameters) + ") ";
                 }
                 case CASE_INSENSITIVE_STARTS_WITH ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " ilike '" + this.getSafeLikePattern(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " ilike " + getColumnParameter(this.getSafeLikePattern(propertyValue) + "%", parameters) + ") ";
                 }
                 case CASE_INSENSITIVE_ENDS_WITH ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " ilike '%" + this.getSafeLikePattern(propertyValue) + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " ilike " + getColumnParameter("%" + this.getSafeLikePattern(propertyValue), parameters) + ") ";
                 }
                 case CASE_INSENSITIVE_EQ ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " ilike '" + this.getSafeLikePattern(propertyValue) + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " ilike " + getColumnParameter(this.getSafeLikePattern(propertyValue), parameters) + ") ";
                 }
             }
         }
@@ -742,11 +953,13 @@ public class QueryBuilder
      * @param propertyTableName table to search
      * @param topLevelPropertyName name of the top-level attribute or null
      * @param leafPropertyName name of the requested property
+     * @param parameters values for the placeholders in the query
      * @return SQL fragment
      */
-    private String getPropertyNameMatchClause(String propertyTableName,
-                                              String topLevelPropertyName,
-                                              String leafPropertyName)
+    private String getPropertyNameMatchClause(String              propertyTableName,
+                                              String              topLevelPropertyName,
+                                              String              leafPropertyName,
+                                              List<JDBCDataValue> parameters)
     {
         if (topLevelPropertyName == null)
         {
@@ -756,13 +969,13 @@ public class QueryBuilder
             }
             else
             {
-                return RepositoryColumn.ATTRIBUTE_NAME.getColumnName(propertyTableName) + " = '" + escapePropertyValue(leafPropertyName) + "'";
+                return RepositoryColumn.ATTRIBUTE_NAME.getColumnName(propertyTableName) + " = " + getStringParameter(leafPropertyName, parameters);
             }
         }
         else
         {
-            return RepositoryColumn.ATTRIBUTE_NAME.getColumnName(propertyTableName) + " = '" + escapePropertyValue(topLevelPropertyName) + "' and " +
-                   RepositoryColumn.PROPERTY_NAME.getColumnName(propertyTableName) + " like '%:" + escapePropertyValue(getSafeLikePattern(leafPropertyName)) + "'";
+            return RepositoryColumn.ATTRIBUTE_NAME.getColumnName(propertyTableName) + " = " + getStringParameter(topLevelPropertyName, parameters) + " and " +
+                   RepositoryColumn.PROPERTY_NAME.getColumnName(propertyTableName) + " like " + getStringParameter("%:" + getSafeLikePattern(leafPropertyName), parameters);
         }
     }
 
@@ -785,17 +998,18 @@ public class QueryBuilder
 
 
     /**
-     * Derive the SQL fragment to describe the relationship end criteria.
+     * Derive the SQL fragment to describe the relationship end criteria.  Each list of guids is passed as a
+     * single array parameter so that the SQL is the same whatever the number of guids.
      *
+     * @param parameters values for the placeholders in the query
      * @return SQL fragment or null if no criteria
      */
-    private String getRelationshipEndCriteriaClause()
+    private String getRelationshipEndCriteriaClause(List<JDBCDataValue> parameters)
     {
         if (endMatchCriteria != null)
         {
             String endMatchOperand = " and ";
-            String guidMatchOperand = " or ";
-            String matchComparison = " = ";
+            String matchComparison = " = any ";
 
             if (endMatchCriteria == EndMatchCriteria.ANY)
             {
@@ -803,8 +1017,7 @@ public class QueryBuilder
             }
             else if (endMatchCriteria == EndMatchCriteria.NONE)
             {
-                matchComparison = " != ";
-                guidMatchOperand = " and ";
+                matchComparison = " != all ";
             }
 
             StringBuilder stringBuilder = new StringBuilder();
@@ -812,28 +1025,11 @@ public class QueryBuilder
             if (end1EntityGUIDs != null)
             {
                 stringBuilder.append(" (");
-
-                boolean firstEnd1GUID = true;
-
-                for (String end1EntityGUID : end1EntityGUIDs)
-                {
-                    if (firstEnd1GUID)
-                    {
-                        firstEnd1GUID = false;
-                    }
-                    else
-                    {
-                        stringBuilder.append(guidMatchOperand);
-                    }
-
-                    stringBuilder.append(RepositoryColumn.END_1_GUID.getColumnName());
-                    stringBuilder.append(matchComparison);
-                    stringBuilder.append("'");
-                    stringBuilder.append(end1EntityGUID);
-                    stringBuilder.append("'");
-                }
-
-                stringBuilder.append(") ");
+                stringBuilder.append(RepositoryColumn.END_1_GUID.getColumnName());
+                stringBuilder.append(matchComparison);
+                stringBuilder.append("(");
+                stringBuilder.append(getStringArrayParameter(end1EntityGUIDs, parameters));
+                stringBuilder.append(")) ");
 
                 if (end2EntityGUIDs != null)
                 {
@@ -844,28 +1040,11 @@ public class QueryBuilder
             if (end2EntityGUIDs != null)
             {
                 stringBuilder.append(" (");
-
-                boolean firstEnd2GUID = true;
-
-                for (String end2EntityGUID : end2EntityGUIDs)
-                {
-                    if (firstEnd2GUID)
-                    {
-                        firstEnd2GUID = false;
-                    }
-                    else
-                    {
-                        stringBuilder.append(guidMatchOperand);
-                    }
-
-                    stringBuilder.append(RepositoryColumn.END_2_GUID.getColumnName());
-                    stringBuilder.append(matchComparison);
-                    stringBuilder.append("'");
-                    stringBuilder.append(end2EntityGUID);
-                    stringBuilder.append("'");
-                }
-
-                stringBuilder.append(") ");
+                stringBuilder.append(RepositoryColumn.END_2_GUID.getColumnName());
+                stringBuilder.append(matchComparison);
+                stringBuilder.append("(");
+                stringBuilder.append(getStringArrayParameter(end2EntityGUIDs, parameters));
+                stringBuilder.append(")) ");
             }
 
             if (! stringBuilder.isEmpty())
@@ -898,18 +1077,21 @@ public class QueryBuilder
      * @param principleTableName name of table holding the header
      * @param propertyTableName name of table holding the properties
      * @param searchProperties properties to search for
+     * @param parameters values for the placeholders in the query
      * @return fragment of SQL
      */
-    private String getSearchPropertiesClause(String           principleTableName,
-                                             String           propertyTableName,
-                                             SearchProperties searchProperties) throws RepositoryErrorException
+    private String getSearchPropertiesClause(String              principleTableName,
+                                             String              propertyTableName,
+                                             SearchProperties    searchProperties,
+                                             List<JDBCDataValue> parameters) throws RepositoryErrorException
     {
         if (searchProperties != null)
         {
             String searchPropertiesClause = this.getPropertyComparisonFromPropertyConditions(searchProperties,
                                                                                              principleTableName,
                                                                                              propertyTableName,
-                                                                                             null);
+                                                                                             null,
+                                                                                             parameters);
 
             if (searchPropertiesClause.contains("("))
             {
@@ -929,12 +1111,14 @@ public class QueryBuilder
      * @param principleTableName name of table holding the header
      * @param propertyTableName name of table holding the properties
      * @param topLevelPropertyName parent attribute name - not null when dealing with nested properties
+     * @param parameters values for the placeholders in the query
      * @return sql fragment wrapped in parentheses.  Forms part of a where clause
      */
-    private String getPropertyComparisonFromPropertyConditions(SearchProperties searchProperties,
-                                                               String           principleTableName,
-                                                               String           propertyTableName,
-                                                               String           topLevelPropertyName) throws RepositoryErrorException
+    private String getPropertyComparisonFromPropertyConditions(SearchProperties    searchProperties,
+                                                               String              principleTableName,
+                                                               String              propertyTableName,
+                                                               String              topLevelPropertyName,
+                                                               List<JDBCDataValue> parameters) throws RepositoryErrorException
     {
         if ((searchProperties != null) && (searchProperties.getConditions() != null) && (! searchProperties.getConditions().isEmpty()))
         {
@@ -965,7 +1149,8 @@ public class QueryBuilder
                     stringBuilder.append(this.getPropertyComparisonFromPropertyConditions(propertyCondition.getNestedConditions(),
                                                                                           principleTableName,
                                                                                           propertyTableName,
-                                                                                          topLevelPropertyName));
+                                                                                          topLevelPropertyName,
+                                                                                          parameters));
                 }
                 else
                 {
@@ -990,9 +1175,10 @@ public class QueryBuilder
                             stringBuilder.append(this.getNestedPropertyComparisonClause(topLevelPropertyName,
                                                                                         leafPropertyName,
                                                                                         propertyCondition.getOperator(),
-                                                                                        this.escapePropertyValue(primitivePropertyValue.getPrimitiveValue()),
+                                                                                        primitivePropertyValue.getPrimitiveValue(),
                                                                                         principleTableName,
-                                                                                        propertyTableName));
+                                                                                        propertyTableName,
+                                                                                        parameters));
                         }
                         else
                         {
@@ -1001,7 +1187,8 @@ public class QueryBuilder
                                                                                         propertyCondition.getOperator(),
                                                                                         primitivePropertyValue.getPrimitiveValue(),
                                                                                         principleTableName,
-                                                                                        propertyTableName));
+                                                                                        propertyTableName,
+                                                                                        parameters));
                         }
                     }
                     else if (instancePropertyValue instanceof EnumPropertyValue enumPropertyValue)
@@ -1009,9 +1196,10 @@ public class QueryBuilder
                         stringBuilder.append(this.getNestedPropertyComparisonClause(topLevelPropertyName,
                                                                                     leafPropertyName,
                                                                                     propertyCondition.getOperator(),
-                                                                                    this.escapePropertyValue(enumPropertyValue.getSymbolicName()),
+                                                                                    enumPropertyValue.getSymbolicName(),
                                                                                     principleTableName,
-                                                                                    propertyTableName));
+                                                                                    propertyTableName,
+                                                                                    parameters));
                     }
                     else if (instancePropertyValue instanceof MapPropertyValue mapPropertyValue)
                     {
@@ -1021,7 +1209,8 @@ public class QueryBuilder
                                                                                          propertyCondition.getOperator(),
                                                                                          matchOperand,
                                                                                          principleTableName,
-                                                                                         propertyTableName));
+                                                                                         propertyTableName,
+                                                                                         parameters));
                     }
                     else if (instancePropertyValue instanceof ArrayPropertyValue arrayPropertyValue)
                     {
@@ -1031,7 +1220,8 @@ public class QueryBuilder
                                                                                          propertyCondition.getOperator(),
                                                                                          matchOperand,
                                                                                          principleTableName,
-                                                                                         propertyTableName));
+                                                                                         propertyTableName,
+                                                                                         parameters));
                     }
                     else if (instancePropertyValue instanceof StructPropertyValue structPropertyValue)
                     {
@@ -1041,7 +1231,8 @@ public class QueryBuilder
                                                                                          propertyCondition.getOperator(),
                                                                                          matchOperand,
                                                                                          principleTableName,
-                                                                                         propertyTableName));
+                                                                                         propertyTableName,
+                                                                                         parameters));
                     }
                     else // null property value
                     {
@@ -1050,7 +1241,8 @@ public class QueryBuilder
                                                                                     propertyCondition.getOperator(),
                                                                                     null,
                                                                                     principleTableName,
-                                                                                    propertyTableName));
+                                                                                    propertyTableName,
+                                                                                    parameters));
                     }
                 }
             }
@@ -1078,9 +1270,10 @@ public class QueryBuilder
     /**
      * Derive the SQL fragment to describe the search classifications.
      *
+     * @param parameters values for the placeholders in the query
      * @return fragment of SQL
      */
-    private String getSearchClassificationsClause() throws RepositoryErrorException
+    private String getSearchClassificationsClause(List<JDBCDataValue> parameters) throws RepositoryErrorException
     {
         if ((matchClassifications != null) && (matchClassifications.getConditions() != null))
         {
@@ -1124,23 +1317,24 @@ public class QueryBuilder
 
                     conditionsBuilder.append("(");
                     conditionsBuilder.append(RepositoryColumn.TYPE_NAME.getColumnName(RepositoryTable.CLASSIFICATION.getTableName()));
-                    conditionsBuilder.append(" like '%:");
+                    conditionsBuilder.append(" like ");
 
                     if (classificationCondition.getName() != null)
                     {
-                        conditionsBuilder.append(classificationCondition.getName());
+                        conditionsBuilder.append(getStringParameter("%:" + classificationCondition.getName() + ":%", parameters));
                     }
                     else
                     {
-                        conditionsBuilder.append("%");
+                        conditionsBuilder.append(getStringParameter("%:%:%", parameters));
                     }
-                    conditionsBuilder.append(":%' ");
+                    conditionsBuilder.append(" ");
 
                     if (classificationCondition.getMatchProperties() != null)
                     {
                         conditionsBuilder.append(this.getSearchPropertiesClause(RepositoryTable.CLASSIFICATION.getTableName(),
                                                                                 RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
-                                                                                classificationCondition.getMatchProperties()));
+                                                                                classificationCondition.getMatchProperties(),
+                                                                                parameters));
                     }
 
                     conditionsBuilder.append(") ");
@@ -1180,35 +1374,22 @@ public class QueryBuilder
     /**
      * Convert the list of classifications that must be present on all returned entities into a SQL fragment.
      *
+     * @param parameters values for the placeholders in the query
      * @return fragment of SQL
      */
-    private String getLimitResultsByClassificationClaus()
+    private String getLimitResultsByClassificationClaus(List<JDBCDataValue> parameters)
     {
         if ((limitResultsByClassification != null) && (! limitResultsByClassification.isEmpty()))
         {
-            StringBuilder stringBuilder = new StringBuilder(" and (");
-            boolean       firstClassification = true;
+            List<String> classificationPatterns = new ArrayList<>();
 
             for (String classificationName : limitResultsByClassification)
             {
-                if (firstClassification)
-                {
-                    firstClassification = false;
-                }
-                else
-                {
-                    stringBuilder.append(" or ");
-                }
-
-                stringBuilder.append(RepositoryColumn.TYPE_NAME.getColumnName(RepositoryTable.CLASSIFICATION.getTableName()));
-                stringBuilder.append(" like '%:");
-                stringBuilder.append(escapePropertyValue(getSafeLikePattern(classificationName)));
-                stringBuilder.append(":%'");
+                classificationPatterns.add("%:" + getSafeLikePattern(classificationName) + ":%");
             }
 
-            stringBuilder.append(")");
-
-            return stringBuilder.toString();
+            return " and (" + RepositoryColumn.TYPE_NAME.getColumnName(RepositoryTable.CLASSIFICATION.getTableName()) +
+                    " like any (" + getStringArrayParameter(classificationPatterns, parameters) + "))";
         }
 
 
@@ -1275,10 +1456,11 @@ public class QueryBuilder
     /**
      * Return the SQL fragment that describes the type(s) to search for.
      *
+     * @param parameters values for the placeholders in the query
      * @return fragment of SQL
      * @throws RepositoryErrorException invalid type
      */
-    private String getTypeClause() throws RepositoryErrorException
+    private String getTypeClause(List<JDBCDataValue> parameters) throws RepositoryErrorException
     {
         if ((subtypeGUIDs != null) && (! subtypeGUIDs.isEmpty()))
         {
@@ -1290,9 +1472,9 @@ public class QueryBuilder
                 {
                     stringBuffer.append(" and (");
                     stringBuffer.append(RepositoryColumn.TYPE_NAME.getColumnName());
-                    stringBuffer.append(" like '%:");
-                    stringBuffer.append(this.lookUpTypeName(typeGUID, typeGUIDParameterName));
-                    stringBuffer.append(":%')");
+                    stringBuffer.append(" like ");
+                    stringBuffer.append(getStringParameter("%:" + this.lookUpTypeName(typeGUID, typeGUIDParameterName) + ":%", parameters));
+                    stringBuffer.append(")");
                 }
 
                 stringBuffer.append(" and not (");
@@ -1302,31 +1484,23 @@ public class QueryBuilder
                 stringBuffer.append(" and (");
             }
 
-            boolean firstType = true;
+            List<String> typeNamePatterns = new ArrayList<>();
 
             for (String subTypeGUID: subtypeGUIDs)
             {
-                if (firstType)
-                {
-                    firstType = false;
-                }
-                else
-                {
-                    stringBuffer.append(" or ");
-                }
-
-                stringBuffer.append(RepositoryColumn.TYPE_NAME.getColumnName());
-                stringBuffer.append(" like '%:");
-                stringBuffer.append(this.lookUpTypeName(subTypeGUID, subTypeGUIDsParameterName));
-                stringBuffer.append(":%' ");
+                typeNamePatterns.add("%:" + this.lookUpTypeName(subTypeGUID, subTypeGUIDsParameterName) + ":%");
             }
-            stringBuffer.append(")");
+
+            stringBuffer.append(RepositoryColumn.TYPE_NAME.getColumnName());
+            stringBuffer.append(" like any (");
+            stringBuffer.append(getStringArrayParameter(typeNamePatterns, parameters));
+            stringBuffer.append("))");
 
             return stringBuffer.toString();
         }
         else if (typeGUID != null)
         {
-            return " and (" + RepositoryColumn.TYPE_NAME.getColumnName() + " like '%:" + this.lookUpTypeName(typeGUID, typeGUIDParameterName) + ":%')";
+            return " and (" + RepositoryColumn.TYPE_NAME.getColumnName() + " like " + getStringParameter("%:" + this.lookUpTypeName(typeGUID, typeGUIDParameterName) + ":%", parameters) + ")";
         }
 
         return " ";
@@ -1389,13 +1563,14 @@ public class QueryBuilder
     /**
      * Determine the sql needed to limit the return results.
      *
+     * @param parameters values for the placeholders in the query
      * @return fragment of SQL
      */
-    private String getLimitResultsByStatusClause()
+    private String getLimitResultsByStatusClause(List<JDBCDataValue> parameters)
     {
         if (limitResultsByStatus == null)
         {
-            return " and (" + RepositoryColumn.CURRENT_STATUS.getColumnName() + " != '" + InstanceStatus.DELETED.getName() + "') ";
+            return " and (" + RepositoryColumn.CURRENT_STATUS.getColumnName() + " != " + getStringParameter(InstanceStatus.DELETED.getName(), parameters) + ") ";
         }
         else if (limitResultsByStatus.isEmpty())
         {
@@ -1403,32 +1578,17 @@ public class QueryBuilder
         }
         else
         {
-            StringBuilder sqlClause = new StringBuilder(" and (");
-            boolean firstStatus = true;
+            List<String> statusNames = new ArrayList<>();
 
             for (InstanceStatus instanceStatus : limitResultsByStatus)
             {
                 if (instanceStatus != null)
                 {
-                    if (firstStatus)
-                    {
-                        firstStatus = false;
-                    }
-                    else
-                    {
-                        sqlClause.append(" or ");
-                    }
-
-                    sqlClause.append(RepositoryColumn.CURRENT_STATUS.getColumnName());
-                    sqlClause.append(" = '");
-                    sqlClause.append(instanceStatus.getName());
-                    sqlClause.append("'");
+                    statusNames.add(instanceStatus.getName());
                 }
             }
 
-            sqlClause.append(")");
-
-            return sqlClause.toString();
+            return " and (" + RepositoryColumn.CURRENT_STATUS.getColumnName() + " = any (" + getStringArrayParameter(statusNames, parameters) + "))";
         }
     }
 
@@ -1447,9 +1607,10 @@ public class QueryBuilder
     /**
      * Create the part of the where clause that ensures that the correct version is returned.
      *
+     * @param parameters values for the placeholders in the query
      * @return fragment of SQL
      */
-    private String getAsOfTimeClause()
+    private String getAsOfTimeClause(List<JDBCDataValue> parameters)
     {
         if (asOfTime == null)
         {
@@ -1457,13 +1618,10 @@ public class QueryBuilder
         }
         else
         {
-            // java.util.Date's own toString() (what plain string concatenation of a Date would produce here)
-            // has no sub-second precision at all, unlike the millisecond-precision timestamps this same
-            // asOfTime is compared against (version_start_time/version_end_time) - wrapping in
-            // java.sql.Timestamp keeps the millisecond component in the generated SQL literal.
-            String asOfTimeLiteral = new java.sql.Timestamp(asOfTime.getTime()).toString();
-
-            return " (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < '" + asOfTimeLiteral + "' and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > '" + asOfTimeLiteral + "')) ";
+            // Bound as a java.sql.Timestamp (rather than a java.util.Date) so that the millisecond component
+            // is kept when asOfTime is compared against version_start_time/version_end_time.
+            return " (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < " + getColumnParameter(asOfTime, parameters) +
+                    " and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > " + getColumnParameter(asOfTime, parameters) + ")) ";
         }
     }
 
@@ -1483,103 +1641,292 @@ public class QueryBuilder
 
 
     /**
-     * Return the ORDER BY fragment.  Notice that ordering by property is currently ignored
+     * Set up the position to continue from when retrieving the next page of results.  The values come from the
+     * last row of the previous page.  When set, the query seeks past that row rather than skipping fromElement rows.
      *
-     * @return sequencing
+     * @param lastSequencingValue value of the sequencing key in the last row returned - eg the createTime, updateTime
+     *                            or the value of the sequencing property (may be null if the row had no value)
+     * @param lastGUID unique identifier of the last row returned
      */
-    private String getSequencingOrder(String principleTableName)
+    public void setSeekStart(Object lastSequencingValue,
+                             String lastGUID)
     {
-        if (sequencingOrder != null)
+        this.seekSequencingValue = lastSequencingValue;
+        this.seekGUID = lastGUID;
+    }
+
+
+    /**
+     * Set up the position to continue from using the continuation token returned with the previous page of results.
+     * The token's sequencing value is converted to the type of the sequencing key.  If the query can not seek on its
+     * sequencing key, it skips to the token's element number instead.  This must be called after setTypeGUID(),
+     * setSequencingOrder() and setPaging().
+     *
+     * @param continuationToken decoded token (null means start from fromElement)
+     */
+    public void setContinuationToken(ContinuationToken continuationToken)
+    {
+        if (continuationToken != null)
         {
-            switch (sequencingOrder)
+            if ((continuationToken.getLastGUID() != null) && (this.isSeekSupported()))
             {
-                case ANY, CREATION_DATE_RECENT ->
-                {
-                    return " order by " + RepositoryColumn.CREATE_TIME.getColumnName(principleTableName) + " desc ";
-                }
-                case CREATION_DATE_OLDEST ->
-                {
-                    return " order by " + RepositoryColumn.CREATE_TIME.getColumnName(principleTableName) + " asc ";
-                }
-                case LAST_UPDATE_RECENT ->
+                String lastSequencingValue = continuationToken.getLastSequencingValue();
+
+                if (lastSequencingValue == null)
                 {
-                    return " order by " + RepositoryColumn.UPDATE_TIME.getColumnName(principleTableName) + " desc ";
+                    this.setSeekStart(null, continuationToken.getLastGUID());
+                    return;
                 }
-                case LAST_UPDATE_OLDEST ->
+                else if (this.isSequencingByAttributeValue())
                 {
-                    return " order by " + RepositoryColumn.UPDATE_TIME.getColumnName(principleTableName) + " asc ";
+                    if (this.isNumericProperty(sequencingProperty))
+                    {
+                        this.setSeekStart(lastSequencingValue, continuationToken.getLastGUID());
+                    }
+                    else
+                    {
+                        this.setSeekStart(RepositoryIndex.getTextSequencingValue(lastSequencingValue), continuationToken.getLastGUID());
+                    }
+                    return;
                 }
-                case GUID ->
+                else
                 {
-                    return " order by " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) + " asc ";
+                    try
+                    {
+                        this.setSeekStart(new Date(Long.parseLong(lastSequencingValue)), continuationToken.getLastGUID());
+                        return;
+                    }
+                    catch (NumberFormatException notTime)
+                    {
+                        // Not a token produced for this sequencing order - fall back to the element number.
+                    }
                 }
-                case PROPERTY_DESCENDING ->
+            }
+
+            this.fromElement = continuationToken.getNextElement();
+        }
+    }
+
+
+    /**
+     * Can the query seek directly to the position recorded in a continuation token?  This is possible for all
+     * sequencing orders except sequencing by a property that is stored in a header column other than the guid, since
+     * the value of these properties are not recorded in continuation tokens.
+     *
+     * @return boolean
+     */
+    private boolean isSeekSupported()
+    {
+        if ((sequencingProperty != null) &&
+                ((sequencingOrder == SequencingOrder.PROPERTY_ASCENDING) || (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING)))
+        {
+            String columnName = this.mapPropertyNameToColumn(sequencingProperty, null);
+
+            return (RepositoryColumn.ATTRIBUTE_NAME.getColumnName().equals(columnName) && (propertyTableName != null)) ||
+                    (RepositoryColumn.INSTANCE_GUID.getColumnName().equals(columnName));
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Is sequencing requested on a property that is stored in the property table rather than a header column?
+     *
+     * @return boolean
+     */
+    private boolean isSequencingByAttributeValue()
+    {
+        if ((sequencingProperty != null) && (propertyTableName != null) &&
+                    ((sequencingOrder == SequencingOrder.PROPERTY_ASCENDING) || (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING)))
+        {
+            return RepositoryColumn.ATTRIBUTE_NAME.getColumnName().equals(this.mapPropertyNameToColumn(sequencingProperty, null));
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Return the join that supplies the value of the sequencing property for each row of the principle table.  This
+     * must be placed between the from and where parts of the query.  It is a left join so that instances without a
+     * value for the property are still returned (they are sorted as nulls).
+     * <br><br>
+     * The property is matched on property_name, which is the primary key of the property table along with the
+     * instance's guid and version, so at most one row joins to each instance.  For a single-valued property,
+     * property_name is the same as its attribute_name.  Array, map and struct properties are stored as several rows with
+     * qualified property names, so they have no matching row and sort as null.
+     * <br><br>
+     * property_value is stored as text regardless of the property's real type.  If sequencingProperty is declared
+     * with a numeric type, the value is cast to numeric so that "10" sorts after "9".  The join then also repeats the
+     * property_category predicate from the partial numeric index, so the cast only runs on rows that hold numbers and
+     * the index can be used.  Text values are sorted on the same leading-character prefix that is indexed.
+     *
+     * @param parameters values for the placeholders in the query
+     * @return SQL fragment (empty if no join is needed)
+     */
+    public String getSequencingJoin(List<JDBCDataValue> parameters)
+    {
+        if (this.isSequencingByAttributeValue())
+        {
+            String sequencingValue = RepositoryIndex.getTextSequencingValue();
+            String categoryClause  = "";
+
+            if (this.isNumericProperty(sequencingProperty))
+            {
+                sequencingValue = RepositoryIndex.getNumericSequencingValue();
+                categoryClause  = " and " + RepositoryIndex.getNumericPropertyPredicate();
+            }
+
+            return " left join lateral (select " + sequencingValue + " as " + SEQUENCING_COLUMN + " from " + propertyTableName +
+                    " where " + RepositoryColumn.INSTANCE_GUID.getColumnName(propertyTableName) + " = " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) +
+                    " and " + RepositoryColumn.VERSION.getColumnName(propertyTableName) + " = " + RepositoryColumn.VERSION.getColumnName(principleTableName) +
+                    " and " + RepositoryColumn.PROPERTY_NAME.getColumnName(propertyTableName) + " = " + getStringParameter(sequencingProperty, parameters) +
+                    categoryClause + ") " + SEQUENCING_ALIAS + " on true";
+        }
+
+        return "";
+    }
+
+
+    /**
+     * Return the expression that results are sequenced on (before the GUID that breaks ties).
+     * For sequencing by property, this is either a dedicated header column (for the small set of properties that
+     * map onto one, eg guid, metadataCollectionId - see mapPropertyNameToColumn()) or the value supplied by
+     * getSequencingJoin().  This mirrors the "property in a dedicated column" vs "EAV property" split that
+     * getNestedPropertyComparisonClause() uses for property comparisons in the WHERE clause.
+     *
+     * @param principleTableName main table that the ordering will occur on
+     * @return SQL expression
+     */
+    private String getSequencingKey(String principleTableName)
+    {
+        switch (sequencingOrder)
+        {
+            case LAST_UPDATE_RECENT, LAST_UPDATE_OLDEST ->
+            {
+                return RepositoryColumn.UPDATE_TIME.getColumnName(principleTableName);
+            }
+            case GUID ->
+            {
+                return RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName);
+            }
+            case PROPERTY_ASCENDING, PROPERTY_DESCENDING ->
+            {
+                if (this.isSequencingByAttributeValue())
                 {
-                    return " order by " + this.getSequencingPropertyOrderClause(principleTableName) + " desc ";
+                    return SEQUENCING_ALIAS + "." + SEQUENCING_COLUMN;
                 }
-                case PROPERTY_ASCENDING ->
+                else if (sequencingProperty != null)
                 {
-                    return " order by " + this.getSequencingPropertyOrderClause(principleTableName) + " asc ";
+                    return principleTableName + "." + this.mapPropertyNameToColumn(sequencingProperty, null);
                 }
             }
         }
 
+        /*
+         * ANY, CREATION_DATE_RECENT, CREATION_DATE_OLDEST or no property named to sort by.
+         */
+        return RepositoryColumn.CREATE_TIME.getColumnName(principleTableName);
+    }
+
+
+    /**
+     * Is the sequencing order descending?
+     *
+     * @return boolean
+     */
+    private boolean isDescendingSequence()
+    {
+        return switch (sequencingOrder)
+        {
+            case ANY, CREATION_DATE_RECENT, LAST_UPDATE_RECENT, PROPERTY_DESCENDING -> true;
+            default -> false;
+        };
+    }
+
+
+    /**
+     * Return the ORDER BY fragment.  Rows with the same sequencing key are ordered by GUID, in the same direction, so
+     * the order is total and matches the key of the RepositoryIndex sequencing indexes.  Nulls take the PostgreSQL
+     * default position (last when ascending, first when descending) so that the indexes can be scanned in either
+     * direction.
+     *
+     * @param principleTableName main table that the ordering will occur on
+     * @return sequencing
+     */
+    private String getSequencingOrder(String principleTableName)
+    {
+        if (sequencingOrder != null)
+        {
+            String sequencingKey = this.getSequencingKey(principleTableName);
+            String guidColumn    = RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName);
+            String direction     = this.isDescendingSequence() ? " desc" : " asc";
+
+            if (sequencingKey.equals(guidColumn))
+            {
+                return " order by " + guidColumn + direction + " ";
+            }
+
+            return " order by " + sequencingKey + direction + ", " + guidColumn + direction + " ";
+        }
+
         return " ";
     }
 
 
     /**
-     * Return the SQL fragment to sort by for PROPERTY_ASCENDING/PROPERTY_DESCENDING sequencing - either a
-     * dedicated header column (for the small set of properties that map onto one, eg guid, metadataCollectionId -
-     * see mapPropertyNameToColumn()) or a correlated subquery that looks up the requested property's value from
-     * this query's property table (eg entity_attribute_value) for the current row's instance/version. This
-     * mirrors the "property in a dedicated column" vs "EAV property" split that getNestedPropertyComparisonClause()
-     * already uses for property comparisons in the WHERE clause - the same sequencingProperty name has to resolve
-     * to the same place it would be compared against.
-     * <br><br>
-     * The subquery is capped with "limit 1": sequencingProperty is expected to name a single-valued property
-     * (its EAV row's attribute_name and property_name coincide), but an array/map/struct property would have
-     * several property_table rows sharing that attribute_name, and a scalar subquery that could return more than
-     * one row would fail the whole query at execution time rather than degrade gracefully.
-     * <br><br>
-     * property_value is stored as text regardless of the property's real type (the same is true of every other
-     * property comparison in this class, eg the LT/GT operators in getNestedPropertyComparisonClause()). Left
-     * alone this would sort a numeric or date property lexicographically rather than by numeric/chronological
-     * value (eg "10" sorting before "9"), so the subquery result is cast to numeric whenever sequencingProperty's
-     * declared type is one of the numeric primitives - see isNumericProperty().
+     * Return the predicate that positions the query just after the row set up by setSeekStart().  The sequencing key
+     * and GUID are compared as a row value so the predicate is a single range condition on the sequencing index.
+     * The create time and GUID are never null, but other keys may be, and the null rows sort after all the others
+     * when ascending and before them when descending.
      *
      * @param principleTableName main table that the ordering will occur on
-     * @return SQL fragment naming or computing the value to sort on - does not include "order by" or asc/desc
+     * @param parameters values for the placeholders in the query
+     * @return SQL fragment (empty if no seek is requested)
      */
-    private String getSequencingPropertyOrderClause(String principleTableName)
+    private String getSeekClause(String              principleTableName,
+                                 List<JDBCDataValue> parameters)
     {
-        if (sequencingProperty == null)
+        if ((seekGUID == null) || (sequencingOrder == null))
         {
-            /*
-             * No property named to sort by - fall back to creation date rather than producing invalid SQL.
-             */
-            return RepositoryColumn.CREATE_TIME.getColumnName(principleTableName);
+            return "";
         }
 
-        String propertyColumn = this.mapPropertyNameToColumn(sequencingProperty, null);
+        String sequencingKey = this.getSequencingKey(principleTableName);
+        String guidColumn    = RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName);
+        String comparator    = this.isDescendingSequence() ? " < " : " > ";
 
-        if (RepositoryColumn.ATTRIBUTE_NAME.getColumnName().equals(propertyColumn))
+        if (sequencingKey.equals(guidColumn))
         {
-            String subSelect = "(select " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " from " + propertyTableName +
-                    " where " + RepositoryColumn.INSTANCE_GUID.getColumnName(propertyTableName) + " = " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) +
-                    " and " + RepositoryColumn.VERSION.getColumnName(propertyTableName) + " = " + RepositoryColumn.VERSION.getColumnName(principleTableName) +
-                    " and " + RepositoryColumn.ATTRIBUTE_NAME.getColumnName(propertyTableName) + " = '" + escapePropertyValue(sequencingProperty) + "'" +
-                    " limit 1)";
+            return " and " + guidColumn + comparator + getStringParameter(seekGUID, parameters);
+        }
 
-            if (this.isNumericProperty(sequencingProperty))
+        boolean nullableKey = ! sequencingKey.equals(RepositoryColumn.CREATE_TIME.getColumnName(principleTableName));
+
+        if (seekSequencingValue == null)
+        {
+            /*
+             * The previous page ended in the null rows.
+             */
+            if (this.isDescendingSequence())
             {
-                return "cast(" + subSelect + " as numeric)";
+                return " and ((" + sequencingKey + " is null and " + guidColumn + comparator + getStringParameter(seekGUID, parameters) + ") or " +
+                        sequencingKey + " is not null)";
             }
 
-            return subSelect;
+            return " and (" + sequencingKey + " is null and " + guidColumn + comparator + getStringParameter(seekGUID, parameters) + ")";
         }
 
-        return principleTableName + "." + propertyColumn;
+        String rowComparison = "(" + sequencingKey + ", " + guidColumn + ")" + comparator +
+                "(" + getColumnParameter(seekSequencingValue, parameters) + ", " + getStringParameter(seekGUID, parameters) + ")";
+
+        if (nullableKey && (! this.isDescendingSequence()))
+        {
+            return " and (" + rowComparison + " or " + sequencingKey + " is null)";
+        }
+
+        return " and " + rowComparison;
     }
 
 
@@ -1731,31 +2078,30 @@ public class QueryBuilder
 
 
     /**
-     * Return the paging requirements for the query.
+     * Return the paging requirements for the query.  When the query seeks to the start of the page (see
+     * setSeekStart()) there is nothing to skip, so fromElement is not used.
      *
-     * @param principleTableName main table for ordering
+     * @param parameters values for the placeholders in the query
      * @return paging
      */
-    private String getPaging(String principleTableName)
+    private String getPaging(List<JDBCDataValue> parameters)
     {
         if (pageSize == 0)
         {
             return " ";
         }
-        else
+        else if (seekGUID != null)
         {
-            String sqlClause = "";
+            parameters.add(new JDBCDataValue(pageSize, Types.INTEGER));
 
-            /*
-             * It is not valid to add paging if ordering is not specified.
-             */
-            if (sequencingOrder == null)
-            {
-                sequencingOrder = SequencingOrder.CREATION_DATE_RECENT;
-                sqlClause = this.getSequencingOrder(principleTableName);
-            }
+            return " limit ?";
+        }
+        else
+        {
+            parameters.add(new JDBCDataValue(pageSize, Types.INTEGER));
+            parameters.add(new JDBCDataValue(fromElement, Types.INTEGER));
 
-            return sqlClause + " limit " + pageSize +  " offset " + fromElement;
+            return " limit ? offset ?";
         }
     }
 
@@ -1774,35 +2120,14 @@ public class QueryBuilder
     /**
      * Derive the SQL clause that searches for a list of guids.
      *
+     * @param parameters values for the placeholders in the query
      * @return SQL command fragment
      */
-    private String getGUIDListClause()
+    private String getGUIDListClause(List<JDBCDataValue> parameters)
     {
         if ((guidList != null) && (! guidList.isEmpty()))
         {
-            StringBuilder stringBuilder = new StringBuilder(" and (");
-            boolean       firstGUID = true;
-
-            for (String guid : guidList)
-            {
-                if (firstGUID)
-                {
-                    firstGUID = false;
-                }
-                else
-                {
-                    stringBuilder.append(" or ");
-                }
-
-                stringBuilder.append(RepositoryColumn.INSTANCE_GUID.getColumnName());
-                stringBuilder.append(" = '");
-                stringBuilder.append(escapePropertyValue(guid));
-                stringBuilder.append("' ");
-            }
-
-            stringBuilder.append(") ");
-
-            return stringBuilder.toString();
+            return " and (" + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = any (" + getStringArrayParameter(guidList, parameters) + ")) ";
         }
 
         return " ";
@@ -1815,19 +2140,22 @@ public class QueryBuilder
      * @param instanceGUID unique identifier of the associated entity or relationship
      * @param version the version of the instance
      * @param classificationName optional classification name
+     * @param parameters values for the placeholders in the query
      * @return where clause
      */
-    public String getPrimaryKeysClause(String instanceGUID,
-                                       long   version,
-                                       String classificationName)
+    public String getPrimaryKeysClause(String              instanceGUID,
+                                       long                version,
+                                       String              classificationName,
+                                       List<JDBCDataValue> parameters)
     {
         if ((instanceGUID != null) && (version != 0L))
         {
-            String sqlFragment = "(" + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + instanceGUID + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + version;
+            String sqlFragment = "(" + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = " + getStringParameter(instanceGUID, parameters) +
+                    " and " + RepositoryColumn.VERSION.getColumnName() + " = " + getLongParameter(version, parameters);
 
             if (classificationName != null)
             {
-                sqlFragment = sqlFragment + " and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() +  " = '" + classificationName + "' ";
+                sqlFragment = sqlFragment + " and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() +  " = " + getStringParameter(classificationName, parameters) + " ";
             }
 
             return sqlFragment + ")";
@@ -1837,6 +2165,43 @@ public class QueryBuilder
     }
 
 
+    /**
+     * Return the where clause that matches a list of primary keys of entities, relationships or classifications.
+     * The keys are passed as parallel arrays and expanded with unnest() so that the SQL is the same whatever
+     * the number of keys.
+     *
+     * @param instanceGUIDs unique identifiers of the associated entities or relationships
+     * @param versions the version of each instance
+     * @param classificationNames classification name for each instance, or null if not looking for classifications
+     * @param parameters values for the placeholders in the query
+     * @return where clause
+     */
+    public String getPrimaryKeysListClause(List<String>        instanceGUIDs,
+                                           List<Long>          versions,
+                                           List<String>        classificationNames,
+                                           List<JDBCDataValue> parameters)
+    {
+        long[] versionArray = new long[versions.size()];
+
+        for (int i = 0; i < versionArray.length; i++)
+        {
+            versionArray[i] = versions.get(i);
+        }
+
+        if (classificationNames == null)
+        {
+            return "(" + RepositoryColumn.INSTANCE_GUID.getColumnName() + ", " + RepositoryColumn.VERSION.getColumnName() +
+                    ") in (select * from unnest(" + getStringArrayParameter(instanceGUIDs, parameters) + ", " +
+                    getLongArrayParameter(versionArray, parameters) + "))";
+        }
+
+        return "(" + RepositoryColumn.INSTANCE_GUID.getColumnName() + ", " + RepositoryColumn.VERSION.getColumnName() + ", " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() +
+                ") in (select * from unnest(" + getStringArrayParameter(instanceGUIDs, parameters) + ", " +
+                getLongArrayParameter(versionArray, parameters) + ", " +
+                getStringArrayParameter(classificationNames, parameters) + "))";
+    }
+
+
     /**
      * Join the principle table with its associated attributes table.
      *
@@ -1908,23 +2273,25 @@ public class QueryBuilder
 
 
     /**
-     * Return the where clause built up from the query parameters supplied.
+     * Return the where clause built up from the query parameters supplied.  The values for its placeholders
+     * are added to the end of the supplied parameter list.
      *
+     * @param parameters values for the placeholders in the query
      * @return SQL command fragment
      */
-    public String getAsOfTimeWhereClause() throws RepositoryErrorException
+    public String getAsOfTimeWhereClause(List<JDBCDataValue> parameters) throws RepositoryErrorException
     {
         String whereClause =
-                getAsOfTimeClause() +
-                getRelationshipEndGUIDClause() +
-                getRelationshipEndCriteriaClause() +
-                getGUIDListClause() +
-                getSearchStringClause() +
-                getSearchPropertiesClause(principleTableName, propertyTableName, searchProperties) +
-                getSearchClassificationsClause() +
-                getTypeClause() +
-                getLimitResultsByClassificationClaus() +
-                getLimitResultsByStatusClause();
+                getAsOfTimeClause(parameters) +
+                getRelationshipEndGUIDClause(parameters) +
+                getRelationshipEndCriteriaClause(parameters) +
+                getGUIDListClause(parameters) +
+                getSearchStringClause(parameters) +
+                getSearchPropertiesClause(principleTableName, propertyTableName, searchProperties, parameters) +
+                getSearchClassificationsClause(parameters) +
+                getTypeClause(parameters) +
+                getLimitResultsByClassificationClaus(parameters) +
+                getLimitResultsByStatusClause(parameters);
 
         if (log.isDebugEnabled())
         {
@@ -1938,15 +2305,26 @@ public class QueryBuilder
 
 
     /**
-     * The sequencing (order by) and paging (limit/offset) can only be added at the end and may only include
+     * The seek predicate, sequencing (order by) and paging (limit/offset) can only be added at the end of the where clause.
      *
      * @param principleTableName main table that the ordering will occur on
+     * @param parameters values for the placeholders in the query
      * @return sql fragment
      */
-    public String getSequenceAndPaging(String principleTableName)
+    public String getSequenceAndPaging(String              principleTableName,
+                                       List<JDBCDataValue> parameters)
     {
-        String clause = getSequencingOrder(principleTableName) +
-                        getPaging(principleTableName);
+        /*
+         * It is not valid to add paging if ordering is not specified.
+         */
+        if ((sequencingOrder == null) && ((pageSize != 0) || (seekGUID != null)))
+        {
+            sequencingOrder = SequencingOrder.CREATION_DATE_RECENT;
+        }
+
+        String clause = getSeekClause(principleTableName, parameters) +
+                        getSequencingOrder(principleTableName) +
+                        getPaging(parameters);
 
         if (log.isDebugEnabled())
         {
@@ -1983,6 +2361,8 @@ public class QueryBuilder
                 ", sequencingOrder=" + sequencingOrder +
                 ", fromElement=" + fromElement +
                 ", pageSize=" + pageSize +
+                ", seekSequencingValue=" + seekSequencingValue +
+                ", seekGUID='" + seekGUID + '\'' +
                 '}';
     }
 }
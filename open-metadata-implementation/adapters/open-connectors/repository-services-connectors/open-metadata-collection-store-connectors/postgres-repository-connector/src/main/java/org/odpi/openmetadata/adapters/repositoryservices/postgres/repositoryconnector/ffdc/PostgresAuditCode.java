@@ -94,6 +94,51 @@ public enum PostgresAuditCode implements AuditLogMessageSet
                        "The repository mode is used to switch the repository into a read-only mode.  The default mode is read-write.  This value is changed using the 'repositoryMode' configuration property.  If it is set to 'readOnly' then repositoryMode=read-only; if it is set to anything else (or not set) then repositoryMode=read-write.",
                        "Check that this is the intended value.  Typically it is only changed from its default value of read-write for situations where you do not want any changes to be made to the metadata in the repository."),
 
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0009 - The PostgreSQL repository connector {0} is building index {1} on table {2} in database schema {3}
+     */
+    BUILDING_REPOSITORY_INDEX("POSTGRES-REPOSITORY-CONNECTOR-0009",
+                              AuditLogRecordSeverityLevel.STARTUP,
+                              "The PostgreSQL repository connector {0} is building index {1} on table {2} in database schema {3}",
+                              "The index is missing from the database schema, typically because the repository was created by an earlier version of the connector.  The index is built concurrently, so the table can be updated while it is being built.",
+                              "No action is required.  Building an index on a large table can take some time; the connector starts once all the missing indexes are built."),
+
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0010 - The PostgreSQL repository connector {0} has found that index {1} in database schema {2} is invalid and is rebuilding it
+     */
+    REBUILDING_INVALID_INDEX("POSTGRES-REPOSITORY-CONNECTOR-0010",
+                             AuditLogRecordSeverityLevel.STARTUP,
+                             "The PostgreSQL repository connector {0} has found that index {1} in database schema {2} is invalid and is rebuilding it",
+                             "An earlier attempt to build the index did not complete, so the database is maintaining the index but not using it in queries.  The index is dropped and built again.",
+                             "No action is required.  If this message appears each time the server starts, look in the audit log for the error that stops the index from being built."),
+
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0011 - The PostgreSQL repository connector {0} was unable to build index {1} in database schema {2} due to a {3} exception; the error message was: {4}
+     */
+    REPOSITORY_INDEX_FAILED("POSTGRES-REPOSITORY-CONNECTOR-0011",
+                            AuditLogRecordSeverityLevel.EXCEPTION,
+                            "The PostgreSQL repository connector {0} was unable to build index {1} in database schema {2} due to a {3} exception; the error message was: {4}",
+                            "The repository starts without the index.  Queries that would use it read the table instead and may be slow.  The connector tries to build the index again the next time it starts.",
+                            "Use the details from the error message to determine the cause of the error, and restart the server once it is resolved."),
+
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0012 - The PostgreSQL repository connector {0} is not able to use text search indexes in database schema {1} because the pg_trgm extension could not be installed; the error message was: {2}
+     */
+    TEXT_SEARCH_UNAVAILABLE("POSTGRES-REPOSITORY-CONNECTOR-0012",
+                            AuditLogRecordSeverityLevel.ERROR,
+                            "The PostgreSQL repository connector {0} is not able to use text search indexes in database schema {1} because the pg_trgm extension is not available: {2}",
+                            "The repository starts without the text search indexes.  Searches on property values read every property value of the requested type.",
+                            "Ask the database administrator to install the pg_trgm extension with 'create extension pg_trgm' (into the repository's schema or a schema on its search path) and restart the server, or remove the textSearchIndexes configuration property."),
+
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0013 - The PostgreSQL repository connector {0} has loaded {1} entities and {2} relationships into the current state tables in database schema {3}
+     */
+    CURRENT_STATE_TABLES_LOADED("POSTGRES-REPOSITORY-CONNECTOR-0013",
+                                AuditLogRecordSeverityLevel.STARTUP,
+                                "The PostgreSQL repository connector {0} has loaded {1} entities and {2} relationships into the current state tables in database schema {3}",
+                                "The current state tables are not maintained while they are turned off, so they are reloaded from the history tables the first time the connector starts with them turned on after running without them.  The tables are kept up to date from now on.",
+                                "No action is required.  Loading the current state tables for a large repository can take some time; the connector starts once they are loaded."),
+
     ;
 
     private final String                      logMessageId;
@@ -14,9 +14,10 @@ import java.util.Map;
 
 public class ControlMapper extends BaseMapper
 {
-    private String serverName                  = null;
-    private String localMetadataCollectionGUID = null;
-    private String schemaVersion               = null;
+    private String  serverName                  = null;
+    private String  localMetadataCollectionGUID = null;
+    private String  schemaVersion               = null;
+    private boolean currentStateLoaded          = false;
 
 
     /**
@@ -63,6 +64,9 @@ public class ControlMapper extends BaseMapper
             schemaVersion = super.getStringPropertyFromColumn(RepositoryColumn.SCHEMA_VERSION.getColumnName(),
                                                               controlTable.get(0),
                                                               true);
+            currentStateLoaded = super.getBooleanPropertyFromColumn(RepositoryColumn.CURRENT_STATE_LOADED.getColumnName(),
+                                                                    controlTable.get(0),
+                                                                    false);
         }
     }
 
@@ -100,6 +104,18 @@ public class ControlMapper extends BaseMapper
     }
 
 
+    /**
+     * Return whether the current state tables are in step with the history tables.  This is false for a
+     * repository that has never used them, or that has been started without them since they were last loaded.
+     *
+     * @return boolean
+     */
+    public boolean isCurrentStateLoaded()
+    {
+        return currentStateLoaded;
+    }
+
+
     /**
      * Return the formatted roe for the control table.
      *
@@ -118,7 +118,7 @@ public class EntityMapper extends RepositoryMapper
     /**
      * Construct an entity detail object using the values from the database.
      *
-     * @return full entity description or null if the entity is not available
+     * @return full entity description or null if only the entity proxy is available
      * @throws RepositoryErrorException problem mapping the properties
      */
     public EntityDetail getEntityDetail() throws RepositoryErrorException
@@ -127,7 +127,11 @@ public class EntityMapper extends RepositoryMapper
 
         if (entityDetail == null)
         {
-            if (entityTableRow != null)
+            if (entityProxy != null)
+            {
+                return null;
+            }
+            else if (entityTableRow != null)
             {
                 EntityDetail entity = new EntityDetail();
 
@@ -163,7 +167,11 @@ public class EntityMapper extends RepositoryMapper
 
         if (entityProxy == null)
         {
-            if (entityTableRow != null)
+            if (entityDetail != null)
+            {
+                entityProxy = repositoryHelper.getNewEntityProxy(repositoryName, entityDetail);
+            }
+            else if (entityTableRow != null)
             {
                 EntityProxy entity = new EntityProxy();
 
@@ -16,6 +16,7 @@ public enum RepositoryColumn implements PostgreSQLColumn
     LOCAL_METADATA_COLLECTION_GUID("local_metadata_collection_guid", ColumnType.STRING, "Unique identifier of the local repository's metadata collection.", true),
     SERVER_NAME("server_name", ColumnType.STRING, "Unique name of the server that is hosting this repository.", true),
     SCHEMA_VERSION("schema_version", ColumnType.STRING, "Version of this database schema to manage schema migration.", true),
+    CURRENT_STATE_LOADED("current_state_loaded", ColumnType.BOOLEAN, "Are the current state tables in step with the history tables?  This is cleared when the server starts without them, since they are not maintained while they are turned off.", false),
 
     TYPE_GUID("type_guid", ColumnType.STRING, "Unique identifier of an open metadata type.", true),
     TYPE_NAME("type_name", ColumnType.STRING, "Fully qualified name of an open metadata type.", true),
@@ -70,6 +71,8 @@ public enum RepositoryColumn implements PostgreSQLColumn
     EFFECTIVE_FROM_TIME("effective_from_time", ColumnType.DATE, "Time when this property group begins to be effective.", false),
     EFFECTIVE_TO_TIME("effective_to_time", ColumnType.DATE, "Time when this property group stops being effective.", false),
 
+    INSTANCE_JSON("instance_json", ColumnType.JSON, "Latest version of the instance (including an entity's classifications) as a JSON document.", true),
+
 
     ;
 
@@ -0,0 +1,647 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLIndex;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Defines the secondary indexes used in a repository database schema.  The sequencing indexes match the
+ * ORDER BY keys and seek predicates built by the QueryBuilder so that a page of results, however deep, is read
+ * with a single index range scan.
+ * <br><br>
+ * Most queries only look at the current version of each instance (version_end_time is null), so the lookup
+ * indexes are partial indexes over the current rows.  This keeps them small however much history the repository
+ * holds.  The GUID+version indexes cover the time-based predicates used to find the version of an instance
+ * that was current at a point in time.  The primary keys are on the same columns but they can not carry
+ * the extra columns.
+ * <br><br>
+ * The text search indexes are only built when the repository is configured to use them (see the
+ * textSearchIndexes configuration property).  The trigram indexes need the pg_trgm extension and serve the
+ * like/ilike patterns of searches on property values.  The word indexes serve the full-text pre-filter that the
+ * QueryBuilder adds to a search string that contains whole words.
+ */
+public enum RepositoryIndex implements PostgreSQLIndex
+{
+    /**
+     * Current entities in creation order.
+     */
+    ENTITY_CURRENT_CREATE_TIME("entity_current_create_time_idx",
+                               "Current entities in creation order.",
+                               RepositoryTable.ENTITY,
+                               new String[]{
+                                       RepositoryColumn.CREATE_TIME.getColumnName(),
+                                       RepositoryColumn.INSTANCE_GUID.getColumnName()},
+                               RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null"),
+
+    /**
+     * Current entities in last update order.
+     */
+    ENTITY_CURRENT_UPDATE_TIME("entity_current_update_time_idx",
+                               "Current entities in last update order.",
+                               RepositoryTable.ENTITY,
+                               new String[]{
+                                       RepositoryColumn.UPDATE_TIME.getColumnName(),
+                                       RepositoryColumn.INSTANCE_GUID.getColumnName()},
+                               RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null"),
+
+    /**
+     * Current relationships in creation order.
+     */
+    RELATIONSHIP_CURRENT_CREATE_TIME("relationship_current_create_time_idx",
+                                     "Current relationships in creation order.",
+                                     RepositoryTable.RELATIONSHIP,
+                                     new String[]{
+                                             RepositoryColumn.CREATE_TIME.getColumnName(),
+                                             RepositoryColumn.INSTANCE_GUID.getColumnName()},
+                                     RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null"),
+
+    /**
+     * Current relationships in last update order.
+     */
+    RELATIONSHIP_CURRENT_UPDATE_TIME("relationship_current_update_time_idx",
+                                     "Current relationships in last update order.",
+                                     RepositoryTable.RELATIONSHIP,
+                                     new String[]{
+                                             RepositoryColumn.UPDATE_TIME.getColumnName(),
+                                             RepositoryColumn.INSTANCE_GUID.getColumnName()},
+                                     RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null"),
+
+    /**
+     * Versions of each entity with the time period that they were current.
+     */
+    ENTITY_GUID_VERSION("entity_guid_version_idx",
+                        "Versions of each entity with the time period that they were current.",
+                        RepositoryTable.ENTITY,
+                        new String[]{
+                                RepositoryColumn.INSTANCE_GUID.getColumnName(),
+                                RepositoryColumn.VERSION.getColumnName()},
+                        new String[]{
+                                RepositoryColumn.VERSION_START_TIME.getColumnName(),
+                                RepositoryColumn.VERSION_END_TIME.getColumnName()},
+                        null),
+
+    /**
+     * Versions of each relationship with the time period that they were current.
+     */
+    RELATIONSHIP_GUID_VERSION("relationship_guid_version_idx",
+                              "Versions of each relationship with the time period that they were current.",
+                              RepositoryTable.RELATIONSHIP,
+                              new String[]{
+                                      RepositoryColumn.INSTANCE_GUID.getColumnName(),
+                                      RepositoryColumn.VERSION.getColumnName()},
+                              new String[]{
+                                      RepositoryColumn.VERSION_START_TIME.getColumnName(),
+                                      RepositoryColumn.VERSION_END_TIME.getColumnName()},
+                              null),
+
+    /**
+     * Versions of each classification with the time period that they were current.
+     */
+    CLASSIFICATION_GUID_VERSION("classification_guid_version_idx",
+                                "Versions of each classification with the time period that they were current.",
+                                RepositoryTable.CLASSIFICATION,
+                                new String[]{
+                                        RepositoryColumn.INSTANCE_GUID.getColumnName(),
+                                        RepositoryColumn.CLASSIFICATION_NAME.getColumnName(),
+                                        RepositoryColumn.VERSION.getColumnName()},
+                                new String[]{
+                                        RepositoryColumn.VERSION_START_TIME.getColumnName(),
+                                        RepositoryColumn.VERSION_END_TIME.getColumnName()},
+                                null),
+
+    /**
+     * Current entities by home metadata collection.
+     */
+    ENTITY_CURRENT_METADATA_COLLECTION("entity_current_metadata_collection_idx",
+                                       "Current entities by home metadata collection.",
+                                       RepositoryTable.ENTITY,
+                                       new String[]{
+                                               RepositoryColumn.METADATA_COLLECTION_GUID.getColumnName(),
+                                               RepositoryColumn.INSTANCE_GUID.getColumnName()},
+                                       RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null"),
+
+    /**
+     * Current relationships by home metadata collection.
+     */
+    RELATIONSHIP_CURRENT_METADATA_COLLECTION("relationship_current_metadata_collection_idx",
+                                             "Current relationships by home metadata collection.",
+                                             RepositoryTable.RELATIONSHIP,
+                                             new String[]{
+                                                     RepositoryColumn.METADATA_COLLECTION_GUID.getColumnName(),
+                                                     RepositoryColumn.INSTANCE_GUID.getColumnName()},
+                                             RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null"),
+
+    /**
+     * Current relationships by the entity at end 1.
+     */
+    RELATIONSHIP_CURRENT_END_1("relationship_current_end_1_idx",
+                               "Current relationships by the entity at end 1.",
+                               RepositoryTable.RELATIONSHIP,
+                               new String[]{
+                                       RepositoryColumn.END_1_GUID.getColumnName(),
+                                       RepositoryColumn.INSTANCE_GUID.getColumnName()},
+                               RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null"),
+
+    /**
+     * Current relationships by the entity at end 2.
+     */
+    RELATIONSHIP_CURRENT_END_2("relationship_current_end_2_idx",
+                               "Current relationships by the entity at end 2.",
+                               RepositoryTable.RELATIONSHIP,
+                               new String[]{
+                                       RepositoryColumn.END_2_GUID.getColumnName(),
+                                       RepositoryColumn.INSTANCE_GUID.getColumnName()},
+                               RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null"),
+
+    /**
+     * Current classifications by classification name.
+     */
+    CLASSIFICATION_CURRENT_NAME("classification_current_name_idx",
+                                "Current classifications by classification name.",
+                                RepositoryTable.CLASSIFICATION,
+                                new String[]{
+                                        RepositoryColumn.CLASSIFICATION_NAME.getColumnName(),
+                                        RepositoryColumn.INSTANCE_GUID.getColumnName()},
+                                RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null"),
+
+    /**
+     * Entity property values for sequencing by a named property.
+     */
+    ENTITY_ATTRIBUTE_SEQUENCING("entity_attribute_sequencing_idx",
+                                "Entity property values for sequencing by a named property.",
+                                RepositoryTable.ENTITY_ATTRIBUTE_VALUE,
+                                new String[]{
+                                        RepositoryColumn.PROPERTY_NAME.getColumnName(),
+                                        "(" + RepositoryIndex.getTextSequencingValue() + ")",
+                                        RepositoryColumn.INSTANCE_GUID.getColumnName(),
+                                        RepositoryColumn.VERSION.getColumnName()},
+                                null),
+
+    /**
+     * Numeric entity property values for sequencing by a named property.
+     */
+    ENTITY_ATTRIBUTE_NUMERIC_SEQUENCING("entity_attribute_numeric_sequencing_idx",
+                                        "Numeric entity property values for sequencing by a named property.",
+                                        RepositoryTable.ENTITY_ATTRIBUTE_VALUE,
+                                        new String[]{
+                                                RepositoryColumn.PROPERTY_NAME.getColumnName(),
+                                                "(" + RepositoryIndex.getNumericSequencingValue() + ")",
+                                                RepositoryColumn.INSTANCE_GUID.getColumnName(),
+                                                RepositoryColumn.VERSION.getColumnName()},
+                                        RepositoryIndex.getNumericPropertyPredicate()),
+
+    /**
+     * Relationship property values for sequencing by a named property.
+     */
+    RELATIONSHIP_ATTRIBUTE_SEQUENCING("relationship_attribute_sequencing_idx",
+                                      "Relationship property values for sequencing by a named property.",
+                                      RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE,
+                                      new String[]{
+                                              RepositoryColumn.PROPERTY_NAME.getColumnName(),
+                                              "(" + RepositoryIndex.getTextSequencingValue() + ")",
+                                              RepositoryColumn.INSTANCE_GUID.getColumnName(),
+                                              RepositoryColumn.VERSION.getColumnName()},
+                                      null),
+
+    /**
+     * Numeric relationship property values for sequencing by a named property.
+     */
+    RELATIONSHIP_ATTRIBUTE_NUMERIC_SEQUENCING("relationship_attribute_numeric_sequencing_idx",
+                                              "Numeric relationship property values for sequencing by a named property.",
+                                              RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE,
+                                              new String[]{
+                                                      RepositoryColumn.PROPERTY_NAME.getColumnName(),
+                                                      "(" + RepositoryIndex.getNumericSequencingValue() + ")",
+                                                      RepositoryColumn.INSTANCE_GUID.getColumnName(),
+                                                      RepositoryColumn.VERSION.getColumnName()},
+                                              RepositoryIndex.getNumericPropertyPredicate()),
+
+    /**
+     * Classification property values for matching and sequencing by a named property.
+     */
+    CLASSIFICATION_ATTRIBUTE_SEQUENCING("classification_attribute_sequencing_idx",
+                                        "Classification property values for matching and sequencing by a named property.",
+                                        RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE,
+                                        new String[]{
+                                                RepositoryColumn.PROPERTY_NAME.getColumnName(),
+                                                "(" + RepositoryIndex.getTextSequencingValue() + ")",
+                                                RepositoryColumn.INSTANCE_GUID.getColumnName(),
+                                                RepositoryColumn.CLASSIFICATION_NAME.getColumnName(),
+                                                RepositoryColumn.VERSION.getColumnName()},
+                                        null),
+
+    /**
+     * Trigrams of entity property values for contains, starts with and ends with searches.
+     */
+    ENTITY_ATTRIBUTE_TRIGRAM("entity_attribute_trigram_idx",
+                             "Trigrams of entity property values for contains, starts with and ends with searches.",
+                             RepositoryTable.ENTITY_ATTRIBUTE_VALUE,
+                             RepositoryIndex.GIN_INDEX_METHOD,
+                             new String[]{
+                                     RepositoryColumn.PROPERTY_VALUE.getColumnName() + " gin_trgm_ops"},
+                             null,
+                             true),
+
+    /**
+     * Words in entity property values for full-text search.
+     */
+    ENTITY_ATTRIBUTE_WORDS("entity_attribute_words_idx",
+                           "Words in entity property values for full-text search.",
+                           RepositoryTable.ENTITY_ATTRIBUTE_VALUE,
+                           RepositoryIndex.GIN_INDEX_METHOD,
+                           new String[]{
+                                   "(" + RepositoryIndex.getTextSearchWords() + ")"},
+                           null,
+                           true),
+
+    /**
+     * Entity property values that are too long for all their words to be in the word index.
+     */
+    ENTITY_ATTRIBUTE_LONG_VALUE("entity_attribute_long_value_idx",
+                                "Entity property values that are too long for all their words to be in the word index.",
+                                RepositoryTable.ENTITY_ATTRIBUTE_VALUE,
+                                null,
+                                new String[]{
+                                        RepositoryColumn.INSTANCE_GUID.getColumnName()},
+                                RepositoryIndex.getLongTextValuePredicate(),
+                                true),
+
+    /**
+     * Trigrams of relationship property values for contains, starts with and ends with searches.
+     */
+    RELATIONSHIP_ATTRIBUTE_TRIGRAM("relationship_attribute_trigram_idx",
+                                   "Trigrams of relationship property values for contains, starts with and ends with searches.",
+                                   RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE,
+                                   RepositoryIndex.GIN_INDEX_METHOD,
+                                   new String[]{
+                                           RepositoryColumn.PROPERTY_VALUE.getColumnName() + " gin_trgm_ops"},
+                                   null,
+                                   true),
+
+    /**
+     * Words in relationship property values for full-text search.
+     */
+    RELATIONSHIP_ATTRIBUTE_WORDS("relationship_attribute_words_idx",
+                                 "Words in relationship property values for full-text search.",
+                                 RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE,
+                                 RepositoryIndex.GIN_INDEX_METHOD,
+                                 new String[]{
+                                         "(" + RepositoryIndex.getTextSearchWords() + ")"},
+                                 null,
+                                 true),
+
+    /**
+     * Relationship property values that are too long for all their words to be in the word index.
+     */
+    RELATIONSHIP_ATTRIBUTE_LONG_VALUE("relationship_attribute_long_value_idx",
+                                      "Relationship property values that are too long for all their words to be in the word index.",
+                                      RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE,
+                                      null,
+                                      new String[]{
+                                              RepositoryColumn.INSTANCE_GUID.getColumnName()},
+                                      RepositoryIndex.getLongTextValuePredicate(),
+                                      true),
+
+    ;
+
+    /**
+     * Number of leading characters of a text property value that are used for sequencing.  A btree index entry
+     * must fit in roughly a third of a page, so indexing whole property values (eg long descriptions) would
+     * cause inserts to fail.  512 characters is at most 2048 bytes in UTF-8.  Values sharing the same prefix are
+     * ordered by GUID.
+     */
+    private static final int SEQUENCING_PREFIX_LENGTH = 512;
+
+    /**
+     * Number of leading characters of a property value whose words are indexed for full-text search.  A tsvector
+     * is limited to 1MB, so indexing whole values could cause inserts of very long values to fail.  Longer values
+     * are found through the long value indexes instead.
+     */
+    private static final int WORD_SEARCH_PREFIX_LENGTH = 65536;
+
+    /**
+     * PostgreSQL's text search configuration that splits text into lower-case words with no stemming or
+     * stop words.
+     */
+    private static final String TEXT_SEARCH_CONFIGURATION = "simple";
+
+    private static final String GIN_INDEX_METHOD = "gin";
+
+    private final String          indexName;
+    private final String          indexDescription;
+    private final RepositoryTable indexedTable;
+    private final String          indexMethod;
+    private final String[]        indexKeys;
+    private final String[]        includedColumns;
+    private final String          indexPredicate;
+    private final boolean         textSearchIndex;
+
+
+    /**
+     * Define a repository index.
+     *
+     * @param indexName name of the index
+     * @param indexDescription description of the index
+     * @param indexedTable table that the index is defined on
+     * @param indexKeys column names or parenthesised expressions that make up the key of the index
+     * @param indexPredicate predicate for a partial index, or null
+     */
+    RepositoryIndex(String          indexName,
+                    String          indexDescription,
+                    RepositoryTable indexedTable,
+                    String[]        indexKeys,
+                    String          indexPredicate)
+    {
+        this(indexName, indexDescription, indexedTable, indexKeys, null, indexPredicate);
+    }
+
+
+    /**
+     * Define a repository index that carries extra columns so that it covers the queries that use it.
+     *
+     * @param indexName name of the index
+     * @param indexDescription description of the index
+     * @param indexedTable table that the index is defined on
+     * @param indexKeys column names or parenthesised expressions that make up the key of the index
+     * @param includedColumns column names stored in the index but not part of its key, or null
+     * @param indexPredicate predicate for a partial index, or null
+     */
+    RepositoryIndex(String          indexName,
+                    String          indexDescription,
+                    RepositoryTable indexedTable,
+                    String[]        indexKeys,
+                    String[]        includedColumns,
+                    String          indexPredicate)
+    {
+        this.indexName        = indexName;
+        this.indexDescription = indexDescription;
+        this.indexedTable     = indexedTable;
+        this.indexMethod      = null;
+        this.indexKeys        = indexKeys;
+        this.includedColumns  = includedColumns;
+        this.indexPredicate   = indexPredicate;
+        this.textSearchIndex  = false;
+    }
+
+
+    /**
+     * Define a repository index that is only built when the text search indexes are in use.
+     *
+     * @param indexName name of the index
+     * @param indexDescription description of the index
+     * @param indexedTable table that the index is defined on
+     * @param indexMethod index access method, or null for btree
+     * @param indexKeys column names (with optional operator class) or parenthesised expressions that make up the key of the index
+     * @param indexPredicate predicate for a partial index, or null
+     * @param textSearchIndex is this one of the text search indexes
+     */
+    RepositoryIndex(String          indexName,
+                    String          indexDescription,
+                    RepositoryTable indexedTable,
+                    String          indexMethod,
+                    String[]        indexKeys,
+                    String          indexPredicate,
+                    boolean         textSearchIndex)
+    {
+        this.indexName        = indexName;
+        this.indexDescription = indexDescription;
+        this.indexedTable     = indexedTable;
+        this.indexMethod      = indexMethod;
+        this.indexKeys        = indexKeys;
+        this.includedColumns  = null;
+        this.indexPredicate   = indexPredicate;
+        this.textSearchIndex  = textSearchIndex;
+    }
+
+
+    /**
+     * Return the expression over an attribute value table row that is used to sequence by a text property.
+     *
+     * @return SQL expression
+     */
+    public static String getTextSequencingValue()
+    {
+        return "left(" + RepositoryColumn.PROPERTY_VALUE.getColumnName() + ", " + SEQUENCING_PREFIX_LENGTH + ")";
+    }
+
+
+    /**
+     * Return the part of a text property value that is compared when sequencing - this matches the result of
+     * getTextSequencingValue().
+     *
+     * @param propertyValue full value
+     * @return leading characters of the value
+     */
+    public static String getTextSequencingValue(String propertyValue)
+    {
+        if ((propertyValue != null) && (propertyValue.length() > SEQUENCING_PREFIX_LENGTH))
+        {
+            return propertyValue.substring(0, SEQUENCING_PREFIX_LENGTH);
+        }
+
+        return propertyValue;
+    }
+
+
+    /**
+     * Return the expression over an attribute value table row that is used to sequence by a numeric property.
+     * It is only valid on rows that satisfy getNumericPropertyPredicate().
+     *
+     * @return SQL expression
+     */
+    public static String getNumericSequencingValue()
+    {
+        return "cast(" + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " as numeric)";
+    }
+
+
+    /**
+     * Return the predicate that selects the attribute value table rows holding numeric primitives (including dates,
+     * which are stored as epoch milliseconds).  A query must repeat this predicate for the partial numeric
+     * sequencing indexes to be used.
+     *
+     * @return SQL boolean expression
+     */
+    public static String getNumericPropertyPredicate()
+    {
+        return RepositoryColumn.PROPERTY_CATEGORY.getColumnName() +
+                " in ('byte', 'short', 'int', 'long', 'float', 'double', 'biginteger', 'bigdecimal', 'date')";
+    }
+
+
+    /**
+     * Return the expression over an attribute value table row that gives the words of the property value for
+     * full-text search.
+     *
+     * @return SQL expression
+     */
+    public static String getTextSearchWords()
+    {
+        return "to_tsvector('" + TEXT_SEARCH_CONFIGURATION + "', left(" + RepositoryColumn.PROPERTY_VALUE.getColumnName() + ", " + WORD_SEARCH_PREFIX_LENGTH + "))";
+    }
+
+
+    /**
+     * Return the expression that converts a bound parameter holding words separated by " &amp; " into a query
+     * that matches getTextSearchWords().
+     *
+     * @param parameterMarker placeholder for the parameter
+     * @return SQL expression
+     */
+    public static String getTextSearchQuery(String parameterMarker)
+    {
+        return "to_tsquery('" + TEXT_SEARCH_CONFIGURATION + "', " + parameterMarker + ")";
+    }
+
+
+    /**
+     * Return the predicate that selects the attribute value table rows whose words are not all included in
+     * getTextSearchWords().
+     *
+     * @return SQL boolean expression
+     */
+    public static String getLongTextValuePredicate()
+    {
+        return "length(" + RepositoryColumn.PROPERTY_VALUE.getColumnName() + ") > " + WORD_SEARCH_PREFIX_LENGTH;
+    }
+
+
+    /**
+     * Return the name of the index.
+     *
+     * @return name
+     */
+    @Override
+    public String getIndexName()
+    {
+        return indexName;
+    }
+
+
+    /**
+     * Return the description of the index.
+     *
+     * @return text
+     */
+    @Override
+    public String getIndexDescription()
+    {
+        return indexDescription;
+    }
+
+
+    /**
+     * Return details of the table that the index is defined on.
+     *
+     * @return table
+     */
+    @Override
+    public PostgreSQLTable getIndexedTable()
+    {
+        return indexedTable;
+    }
+
+
+    /**
+     * Return the index access method - null means btree.
+     *
+     * @return method name or null
+     */
+    @Override
+    public String getIndexMethod()
+    {
+        return indexMethod;
+    }
+
+
+    /**
+     * Return whether this index is only built when the text search indexes are in use.
+     *
+     * @return boolean
+     */
+    public boolean isTextSearchIndex()
+    {
+        return textSearchIndex;
+    }
+
+
+    /**
+     * Return the key of the index in order.
+     *
+     * @return list of column names/expressions
+     */
+    @Override
+    public List<String> getIndexKeys()
+    {
+        return Arrays.asList(indexKeys);
+    }
+
+
+    /**
+     * Return the columns stored in the index that are not part of its key.
+     *
+     * @return list of column names or null
+     */
+    @Override
+    public List<String> getIncludedColumns()
+    {
+        if (includedColumns == null)
+        {
+            return null;
+        }
+
+        return Arrays.asList(includedColumns);
+    }
+
+
+    /**
+     * Return the predicate that limits the rows included in the index - null means all rows are indexed.
+     *
+     * @return SQL boolean expression or null
+     */
+    @Override
+    public String getIndexPredicate()
+    {
+        return indexPredicate;
+    }
+
+
+    /**
+     * Return the indexes for schema building.
+     *
+     * @param textSearchIndexes should the text search indexes be included
+     * @return list of indexes
+     */
+    public static List<PostgreSQLIndex> getIndexes(boolean textSearchIndexes)
+    {
+        List<PostgreSQLIndex> indexes = new ArrayList<>();
+
+        for (RepositoryIndex repositoryIndex : RepositoryIndex.values())
+        {
+            if ((textSearchIndexes) || (! repositoryIndex.isTextSearchIndex()))
+            {
+                indexes.add(repositoryIndex);
+            }
+        }
+
+        return indexes;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return JSON style description of variables.
+     */
+    @Override
+    public String toString()
+    {
+        return "RepositoryIndex{" + indexName + "}";
+    }
+}
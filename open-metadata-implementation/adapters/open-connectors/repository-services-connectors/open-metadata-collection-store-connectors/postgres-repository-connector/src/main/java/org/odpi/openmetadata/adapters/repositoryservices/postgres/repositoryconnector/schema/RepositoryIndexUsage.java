@@ -0,0 +1,291 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema;
+
+import java.util.Objects;
+
+/**
+ * RepositoryIndexUsage reports how one of the secondary indexes in a repository's database schema is being used.
+ * The counts come from the database's statistics collector, so they are cumulative since the statistics were
+ * last reset and are not transactional.  An index with no scans after a representative workload is
+ * a candidate for removal, since it slows down every insert and update to its table.
+ */
+public class RepositoryIndexUsage
+{
+    private String  indexName     = null;
+    private String  tableName     = null;
+    private boolean managed       = false;
+    private boolean present       = false;
+    private boolean valid         = false;
+    private long    indexScans    = 0L;
+    private long    tuplesRead    = 0L;
+    private long    tuplesFetched = 0L;
+    private long    indexSize     = 0L;
+
+
+    /**
+     * Default constructor
+     */
+    public RepositoryIndexUsage()
+    {
+    }
+
+
+    /**
+     * Return the name of the index.
+     *
+     * @return name
+     */
+    public String getIndexName()
+    {
+        return indexName;
+    }
+
+
+    /**
+     * Set up the name of the index.
+     *
+     * @param indexName name
+     */
+    public void setIndexName(String indexName)
+    {
+        this.indexName = indexName;
+    }
+
+
+    /**
+     * Return the name of the table that the index is defined on.
+     *
+     * @return name
+     */
+    public String getTableName()
+    {
+        return tableName;
+    }
+
+
+    /**
+     * Set up the name of the table that the index is defined on.
+     *
+     * @param tableName name
+     */
+    public void setTableName(String tableName)
+    {
+        this.tableName = tableName;
+    }
+
+
+    /**
+     * Return whether the index is one that the connector defines (see RepositoryIndex).  Other indexes were added
+     * to the schema by the database (for example, for primary keys) or by an administrator.
+     *
+     * @return boolean
+     */
+    public boolean isManaged()
+    {
+        return managed;
+    }
+
+
+    /**
+     * Set up whether the index is one that the connector defines.
+     *
+     * @param managed boolean
+     */
+    public void setManaged(boolean managed)
+    {
+        this.managed = managed;
+    }
+
+
+    /**
+     * Return whether the index exists in the database schema.  A managed index may be missing if it could not be
+     * built when the connector started.
+     *
+     * @return boolean
+     */
+    public boolean isPresent()
+    {
+        return present;
+    }
+
+
+    /**
+     * Set up whether the index exists in the database schema.
+     *
+     * @param present boolean
+     */
+    public void setPresent(boolean present)
+    {
+        this.present = present;
+    }
+
+
+    /**
+     * Return whether the index can be used by queries.  An index is invalid if a concurrent build did not complete.
+     *
+     * @return boolean
+     */
+    public boolean isValid()
+    {
+        return valid;
+    }
+
+
+    /**
+     * Set up whether the index can be used by queries.
+     *
+     * @param valid boolean
+     */
+    public void setValid(boolean valid)
+    {
+        this.valid = valid;
+    }
+
+
+    /**
+     * Return the number of index scans that have used the index.
+     *
+     * @return count
+     */
+    public long getIndexScans()
+    {
+        return indexScans;
+    }
+
+
+    /**
+     * Set up the number of index scans that have used the index.
+     *
+     * @param indexScans count
+     */
+    public void setIndexScans(long indexScans)
+    {
+        this.indexScans = indexScans;
+    }
+
+
+    /**
+     * Return the number of index entries returned by scans of the index.
+     *
+     * @return count
+     */
+    public long getTuplesRead()
+    {
+        return tuplesRead;
+    }
+
+
+    /**
+     * Set up the number of index entries returned by scans of the index.
+     *
+     * @param tuplesRead count
+     */
+    public void setTuplesRead(long tuplesRead)
+    {
+        this.tuplesRead = tuplesRead;
+    }
+
+
+    /**
+     * Return the number of table rows fetched by simple scans of the index.
+     *
+     * @return count
+     */
+    public long getTuplesFetched()
+    {
+        return tuplesFetched;
+    }
+
+
+    /**
+     * Set up the number of table rows fetched by simple scans of the index.
+     *
+     * @param tuplesFetched count
+     */
+    public void setTuplesFetched(long tuplesFetched)
+    {
+        this.tuplesFetched = tuplesFetched;
+    }
+
+
+    /**
+     * Return the size of the index in bytes.
+     *
+     * @return size
+     */
+    public long getIndexSize()
+    {
+        return indexSize;
+    }
+
+
+    /**
+     * Set up the size of the index in bytes.
+     *
+     * @param indexSize size
+     */
+    public void setIndexSize(long indexSize)
+    {
+        this.indexSize = indexSize;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return JSON style description of variables.
+     */
+    @Override
+    public String toString()
+    {
+        return "RepositoryIndexUsage{" +
+                "indexName='" + indexName + '\'' +
+                ", tableName='" + tableName + '\'' +
+                ", managed=" + managed +
+                ", present=" + present +
+                ", valid=" + valid +
+                ", indexScans=" + indexScans +
+                ", tuplesRead=" + tuplesRead +
+                ", tuplesFetched=" + tuplesFetched +
+                ", indexSize=" + indexSize +
+                '}';
+    }
+
+
+    /**
+     * Compare the values of the supplied object with those stored in the current object.
+     *
+     * @param objectToCompare supplied object
+     * @return boolean result of comparison
+     */
+    @Override
+    public boolean equals(Object objectToCompare)
+    {
+        if (this == objectToCompare) return true;
+        if (objectToCompare == null || getClass() != objectToCompare.getClass()) return false;
+        RepositoryIndexUsage that = (RepositoryIndexUsage) objectToCompare;
+        return managed == that.managed &&
+                present == that.present &&
+                valid == that.valid &&
+                indexScans == that.indexScans &&
+                tuplesRead == that.tuplesRead &&
+                tuplesFetched == that.tuplesFetched &&
+                indexSize == that.indexSize &&
+                Objects.equals(indexName, that.indexName) &&
+                Objects.equals(tableName, that.tableName);
+    }
+
+
+    /**
+     * Create a hash code for this element type.
+     *
+     * @return int hash code
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(indexName, tableName, managed, present, valid, indexScans, tuplesRead, tuplesFetched, indexSize);
+    }
+}
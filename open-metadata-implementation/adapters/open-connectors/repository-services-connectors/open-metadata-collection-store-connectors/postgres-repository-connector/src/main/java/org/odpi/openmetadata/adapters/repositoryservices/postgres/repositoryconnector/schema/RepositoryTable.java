@@ -24,7 +24,8 @@ public enum RepositoryTable implements PostgreSQLTable
                        RepositoryColumn.SERVER_NAME,
                        RepositoryColumn.LOCAL_METADATA_COLLECTION_GUID,
                        RepositoryColumn.SCHEMA_VERSION},
-            null
+            new RepositoryColumn[]{
+                       RepositoryColumn.CURRENT_STATE_LOADED}
     ),
 
 
@@ -185,6 +186,43 @@ public enum RepositoryTable implements PostgreSQLTable
                                  null
     ),
 
+    /**
+     * Latest version of each entity, with its properties and classifications, maintained alongside the history
+     * in the entity tables.
+     */
+    ENTITY_CURRENT_STATE("entity_current_state",
+                         "Latest version of each entity, with its properties and classifications, maintained alongside the history in the entity tables.",
+                         new RepositoryColumn[]{
+                                 RepositoryColumn.INSTANCE_GUID},
+                         new RepositoryColumn[]{
+                                 RepositoryColumn.VERSION,
+                                 RepositoryColumn.IS_PROXY,
+                                 RepositoryColumn.TYPE_NAME,
+                                 RepositoryColumn.CURRENT_STATUS,
+                                 RepositoryColumn.INSTANCE_JSON},
+                         null,
+                         true
+    ),
+
+    /**
+     * Latest version of each relationship, with its properties, maintained alongside the history in the
+     * relationship tables.  The entity proxies for the ends are not stored since they change with the entities.
+     */
+    RELATIONSHIP_CURRENT_STATE("relationship_current_state",
+                               "Latest version of each relationship, with its properties, maintained alongside the history in the relationship tables.",
+                               new RepositoryColumn[]{
+                                       RepositoryColumn.INSTANCE_GUID},
+                               new RepositoryColumn[]{
+                                       RepositoryColumn.VERSION,
+                                       RepositoryColumn.TYPE_NAME,
+                                       RepositoryColumn.END_1_GUID,
+                                       RepositoryColumn.END_2_GUID,
+                                       RepositoryColumn.CURRENT_STATUS,
+                                       RepositoryColumn.INSTANCE_JSON},
+                               null,
+                               true
+    ),
+
     ;
 
     private final String                 tableName;
@@ -192,6 +230,7 @@ public enum RepositoryTable implements PostgreSQLTable
     private final RepositoryColumn[]     primaryKeys;
     private final RepositoryColumn[]     dataColumns;
     private final RepositoryColumn[]     newColumns;
+    private final boolean                currentStateTable;
 
 
     /**
@@ -209,11 +248,33 @@ public enum RepositoryTable implements PostgreSQLTable
                     RepositoryColumn[]     dataColumns,
                     RepositoryColumn[]     newColumns)
     {
-        this.tableName        = tableName;
-        this.tableDescription = tableDescription;
-        this.primaryKeys      = primaryKeys;
-        this.dataColumns      = dataColumns;
-        this.newColumns       = newColumns;
+        this(tableName, tableDescription, primaryKeys, dataColumns, newColumns, false);
+    }
+
+
+    /**
+     * Define a repository table that may only be present when the current state tables are in use.
+     *
+     * @param tableName name of the table
+     * @param tableDescription description of the table
+     * @param primaryKeys list of primary keys
+     * @param dataColumns list of additional columns
+     * @param newColumns list of columns added as an extension using ALTER TABLE
+     * @param currentStateTable is this one of the current state tables
+     */
+    RepositoryTable(String                 tableName,
+                    String                 tableDescription,
+                    RepositoryColumn[]     primaryKeys,
+                    RepositoryColumn[]     dataColumns,
+                    RepositoryColumn[]     newColumns,
+                    boolean                currentStateTable)
+    {
+        this.tableName         = tableName;
+        this.tableDescription  = tableDescription;
+        this.primaryKeys       = primaryKeys;
+        this.dataColumns       = dataColumns;
+        this.newColumns        = newColumns;
+        this.currentStateTable = currentStateTable;
     }
 
 
@@ -396,14 +457,36 @@ public enum RepositoryTable implements PostgreSQLTable
     }
 
 
+    /**
+     * Return whether this table is only present when the current state tables are in use.
+     *
+     * @return boolean
+     */
+    public boolean isCurrentStateTable()
+    {
+        return currentStateTable;
+    }
+
+
     /**
      * Return the tables for schema building.
      *
+     * @param currentStateTables should the current state tables be included
      * @return list of tables
      */
-    public static List<PostgreSQLTable> getTables()
+    public static List<PostgreSQLTable> getTables(boolean currentStateTables)
     {
-        return new ArrayList<>(Arrays.asList(RepositoryTable.values()));
+        List<PostgreSQLTable> tables = new ArrayList<>();
+
+        for (RepositoryTable repositoryTable : RepositoryTable.values())
+        {
+            if ((currentStateTables) || (! repositoryTable.isCurrentStateTable()))
+            {
+                tables.add(repositoryTable);
+            }
+        }
+
+        return tables;
     }
 
 
@@ -0,0 +1,316 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLSchemaDDL;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryColumn;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryIndex;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Checks the query plans and results of searchString queries against an embedded PostgreSQL server loaded with
+ * the repository schema and its text search indexes.  The tests are skipped if the server can not be started or
+ * the pg_trgm extension is not available in it.
+ */
+public class TextSearchPlanTest
+{
+    private static final String schemaName     = "text_search_plan_test";
+    private static final String repositoryName = "TextSearchPlanTest";
+    private static final int    entityCount    = 100000;
+    private static final int    matchInterval  = 1000;
+    private static final String searchString   = "new customer accounts";
+
+    private EmbeddedPostgres embeddedPostgres = null;
+    private Connection       jdbcConnection   = null;
+
+
+    /**
+     * Start the server, create the schema and load the entities.
+     *
+     * @throws Exception problem loading the database
+     */
+    @BeforeClass
+    public void setUp() throws Exception
+    {
+        try
+        {
+            embeddedPostgres = EmbeddedPostgres.start();
+            jdbcConnection   = embeddedPostgres.getPostgresDatabase().getConnection();
+        }
+        catch (Exception error)
+        {
+            throw new SkipException("Embedded PostgreSQL server is not available: " + error.getMessage());
+        }
+
+        try (Statement statement = jdbcConnection.createStatement())
+        {
+            /*
+             * The extension is installed by a DBA before the connector starts.
+             */
+            try
+            {
+                statement.execute("create extension if not exists pg_trgm");
+            }
+            catch (Exception error)
+            {
+                throw new SkipException("The pg_trgm extension is not available: " + error.getMessage());
+            }
+
+            PostgreSQLSchemaDDL schemaDDL = new PostgreSQLSchemaDDL(schemaName,
+                                                                    repositoryName,
+                                                                    RepositoryTable.getTables(false),
+                                                                    RepositoryIndex.getIndexes(true));
+
+            statement.execute("create schema if not exists " + schemaName);
+            statement.execute("set search_path to " + schemaName + ", public");
+
+            for (String ddlStatement : schemaDDL.getDDLStatements())
+            {
+                statement.execute(ddlStatement);
+            }
+
+            statement.execute(getInsertStatement(RepositoryTable.ENTITY,
+                                                 Map.of(RepositoryColumn.VERSION_END_TIME.getColumnName(), "null")));
+
+            /*
+             * Every thousandth entity has a value that matches the search string.  The first entity has a value that
+             * is longer than the indexed prefix with the match beyond the prefix so it is only found through the
+             * long value index.
+             */
+            String propertyValue = "case when g = 1 then repeat('lorem ipsum ', 6000) || 'Renew customer accounts' " +
+                                   "when g % " + matchInterval + " = 0 then 'Renew customer accounts ' || g " +
+                                   "else 'Asset number ' || g || ' for the customer data lake' end";
+
+            statement.execute(getInsertStatement(RepositoryTable.ENTITY_ATTRIBUTE_VALUE,
+                                                 Map.of(RepositoryColumn.PROPERTY_NAME.getColumnName(), "'qualifiedName'",
+                                                        RepositoryColumn.PROPERTY_VALUE.getColumnName(), propertyValue)));
+
+            statement.execute("analyze");
+        }
+    }
+
+
+    /**
+     * Stop the server.
+     *
+     * @throws Exception problem closing the server
+     */
+    @AfterClass
+    public void tearDown() throws Exception
+    {
+        if (jdbcConnection != null)
+        {
+            jdbcConnection.close();
+        }
+
+        if (embeddedPostgres != null)
+        {
+            embeddedPostgres.close();
+        }
+    }
+
+
+    /**
+     * The search is served by the text search indexes rather than a scan of all the property values.
+     *
+     * @throws Exception problem with the query
+     */
+    @Test
+    public void testSearchStringUsesTextSearchIndexes() throws Exception
+    {
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        String              plan       = getQueryPlan(getSearchStringQuery(true, parameters), parameters);
+
+        assertFalse(plan.contains("Seq Scan on " + RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName()), plan);
+        assertTrue(plan.contains(RepositoryIndex.ENTITY_ATTRIBUTE_TRIGRAM.getIndexName()) ||
+                   plan.contains(RepositoryIndex.ENTITY_ATTRIBUTE_WORDS.getIndexName()), plan);
+    }
+
+
+    /**
+     * The word index narrows the values that are compared with the pattern without losing any matches,
+     * including the value that is too long for all its words to be indexed.
+     *
+     * @throws Exception problem with the query
+     */
+    @Test
+    public void testSearchStringResultsMatchWithoutTextSearchIndexes() throws Exception
+    {
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        int                 withIndexes = getResultCount(getSearchStringQuery(true, parameters), parameters);
+
+        parameters = new ArrayList<>();
+        int withoutIndexes = getResultCount(getSearchStringQuery(false, parameters), parameters);
+
+        assertEquals(withIndexes, entityCount / matchInterval + 1);
+        assertEquals(withoutIndexes, withIndexes);
+    }
+
+
+    /**
+     * Return the query that the repository issues for a findEntitiesByPropertyValue search.
+     *
+     * @param textSearchIndexes are the text search indexes available
+     * @param parameters values for the placeholders in the query
+     * @return SQL query
+     * @throws Exception problem building the query
+     */
+    private String getSearchStringQuery(boolean             textSearchIndexes,
+                                        List<JDBCDataValue> parameters) throws Exception
+    {
+        QueryBuilder queryBuilder = new QueryBuilder(RepositoryTable.ENTITY.getTableName(),
+                                                     RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(),
+                                                     null,
+                                                     repositoryName);
+
+        queryBuilder.setSearchString(searchString, false, false, true);
+        queryBuilder.setTextSearchIndexes(textSearchIndexes);
+
+        return "select " + RepositoryTable.ENTITY.getTableName() + ".* from " + RepositoryTable.ENTITY.getTableName() +
+                " where " + queryBuilder.getAsOfTimeWhereClause(parameters);
+    }
+
+
+    /**
+     * Return the plan the server chooses for a query.
+     *
+     * @param query SQL query
+     * @param parameters values for the placeholders in the query
+     * @return plan as text
+     * @throws Exception problem with the query
+     */
+    private String getQueryPlan(String              query,
+                                List<JDBCDataValue> parameters) throws Exception
+    {
+        StringBuilder plan = new StringBuilder();
+
+        try (PreparedStatement preparedStatement = getPreparedStatement("explain " + query, parameters);
+             ResultSet         resultSet         = preparedStatement.executeQuery())
+        {
+            while (resultSet.next())
+            {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+
+        return plan.toString();
+    }
+
+
+    /**
+     * Return the number of rows returned by a query.
+     *
+     * @param query SQL query
+     * @param parameters values for the placeholders in the query
+     * @return count
+     * @throws Exception problem with the query
+     */
+    private int getResultCount(String              query,
+                               List<JDBCDataValue> parameters) throws Exception
+    {
+        int count = 0;
+
+        try (PreparedStatement preparedStatement = getPreparedStatement(query, parameters);
+             ResultSet         resultSet         = preparedStatement.executeQuery())
+        {
+            while (resultSet.next())
+            {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Prepare a query and bind its parameters.
+     *
+     * @param query SQL query
+     * @param parameters values for the placeholders in the query
+     * @return statement
+     * @throws Exception problem preparing the statement
+     */
+    private PreparedStatement getPreparedStatement(String              query,
+                                                   List<JDBCDataValue> parameters) throws Exception
+    {
+        PreparedStatement preparedStatement = jdbcConnection.prepareStatement(query);
+
+        for (int parameterIndex = 0; parameterIndex < parameters.size(); parameterIndex++)
+        {
+            JDBCDataValue parameter = parameters.get(parameterIndex);
+
+            preparedStatement.setObject(parameterIndex + 1, parameter.getDataValue(), parameter.getTargetSQLType());
+        }
+
+        return preparedStatement;
+    }
+
+
+    /**
+     * Return a statement that fills a table with one row for each entity.  Each column is given a value of
+     * the right type unless an expression is supplied for it.
+     *
+     * @param table table to fill
+     * @param columnExpressions expressions for specific columns over the series value g
+     * @return SQL statement
+     */
+    private String getInsertStatement(RepositoryTable     table,
+                                      Map<String, String> columnExpressions)
+    {
+        List<String> columnNames  = new ArrayList<>();
+        List<String> columnValues = new ArrayList<>();
+
+        for (Map.Entry<String, Integer> column : table.getColumnNameTypeMap().entrySet())
+        {
+            String columnName = column.getKey();
+            String columnValue;
+
+            if (columnExpressions.containsKey(columnName))
+            {
+                columnValue = columnExpressions.get(columnName);
+            }
+            else if (RepositoryColumn.INSTANCE_GUID.getColumnName().equals(columnName))
+            {
+                columnValue = "'guid-' || g";
+            }
+            else
+            {
+                columnValue = switch (column.getValue())
+                {
+                    case Types.VARCHAR   -> "'" + columnName + "-' || g";
+                    case Types.BIGINT,
+                         Types.INTEGER   -> "1";
+                    case Types.BOOLEAN   -> "false";
+                    case Types.TIMESTAMP -> "now()";
+                    default              -> "null";
+                };
+            }
+
+            columnNames.add(columnName);
+            columnValues.add(columnValue);
+        }
+
+        return "insert into " + table.getTableName() + " (" + String.join(", ", columnNames) + ") select " +
+                String.join(", ", columnValues) + " from generate_series(1, " + entityCount + ") as g";
+    }
+}
@@ -372,6 +372,34 @@ public class InvalidParameterHandler
     }
 
 
+    /**
+     * Throw an exception if the supplied list has more entries than the maximum page size for this server.
+     * This bounds the work done by a request that supplies a list of identifiers to process.  A null list is
+     * not checked.
+     *
+     * @param list  list to validate
+     * @param parameterName  name of the parameter that passed the list.
+     * @param methodName  name of the method making the call.
+     *
+     * @throws InvalidParameterException the list is too long
+     */
+    public void validateListSize(List<?> list,
+                                 String  parameterName,
+                                 String  methodName) throws InvalidParameterException
+    {
+        if ((list != null) && (maxPagingSize != 0) && (list.size() > maxPagingSize))
+        {
+            throw new InvalidParameterException(OMAGCommonErrorCode.MAX_PAGE_SIZE.getMessageDefinition(Integer.toString(list.size()),
+                                                                                                       parameterName,
+                                                                                                       methodName,
+                                                                                                       Integer.toString(maxPagingSize)),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                parameterName);
+        }
+    }
+
+
     /**
      * Throw an exception if the supplied array is null or empty
      *
@@ -23,6 +23,8 @@ public class AssetLineageGraphRequestBody extends QueryOptions
     private String       limitToISCQualifiedName   = null;
     private String       highlightISCQualifiedName = null;
     private boolean      allAnchors                = false;
+    private int          maxLineageDepth           = 0;
+    private int          maxLineageNodes           = 0;
 
 
     /**
@@ -47,6 +49,8 @@ public class AssetLineageGraphRequestBody extends QueryOptions
             this.limitToISCQualifiedName   = template.getLimitToISCQualifiedName();
             this.highlightISCQualifiedName = template.getHighlightISCQualifiedName();
             this.allAnchors                = template.getAllAnchors();
+            this.maxLineageDepth           = template.getMaxLineageDepth();
+            this.maxLineageNodes           = template.getMaxLineageNodes();
         }
     }
 
@@ -119,6 +123,50 @@ public class AssetLineageGraphRequestBody extends QueryOptions
     }
 
 
+    /**
+     * Return the maximum number of hops from the starting asset to include in the graph.  Zero means no limit.
+     *
+     * @return int
+     */
+    public int getMaxLineageDepth()
+    {
+        return maxLineageDepth;
+    }
+
+
+    /**
+     * Set up the maximum number of hops from the starting asset to include in the graph.  Zero means no limit.
+     *
+     * @param maxLineageDepth int
+     */
+    public void setMaxLineageDepth(int maxLineageDepth)
+    {
+        this.maxLineageDepth = maxLineageDepth;
+    }
+
+
+    /**
+     * Return the maximum number of assets to include in the graph.  Zero means no limit.
+     *
+     * @return int
+     */
+    public int getMaxLineageNodes()
+    {
+        return maxLineageNodes;
+    }
+
+
+    /**
+     * Set up the maximum number of assets to include in the graph.  Zero means no limit.
+     *
+     * @param maxLineageNodes int
+     */
+    public void setMaxLineageNodes(int maxLineageNodes)
+    {
+        this.maxLineageNodes = maxLineageNodes;
+    }
+
+
     /**
      * JSON-style toString.
      *
@@ -131,6 +179,8 @@ public class AssetLineageGraphRequestBody extends QueryOptions
                 "limitToISCQualifiedName='" + limitToISCQualifiedName + '\'' +
                 ", highlightISCQualifiedName='" + highlightISCQualifiedName + '\'' +
                 ", allAnchors=" + allAnchors +
+                ", maxLineageDepth=" + maxLineageDepth +
+                ", maxLineageNodes=" + maxLineageNodes +
                 "} " + super.toString();
     }
 
@@ -158,6 +208,8 @@ public class AssetLineageGraphRequestBody extends QueryOptions
         }
         AssetLineageGraphRequestBody that = (AssetLineageGraphRequestBody) objectToCompare;
         return  allAnchors == that.allAnchors &&
+                maxLineageDepth == that.maxLineageDepth &&
+                maxLineageNodes == that.maxLineageNodes &&
                 Objects.equals(limitToISCQualifiedName, that.limitToISCQualifiedName) &&
                 Objects.equals(highlightISCQualifiedName, that.highlightISCQualifiedName);
     }
@@ -171,6 +223,6 @@ public class AssetLineageGraphRequestBody extends QueryOptions
     @Override
     public int hashCode()
     {
-        return Objects.hash(super.hashCode(), allAnchors, limitToISCQualifiedName, highlightISCQualifiedName);
+        return Objects.hash(super.hashCode(), allAnchors, maxLineageDepth, maxLineageNodes, limitToISCQualifiedName, highlightISCQualifiedName);
     }
 }
@@ -13,19 +13,23 @@ import org.odpi.openmetadata.metadatasecurity.server.OpenMetadataServerSecurityV
 import org.odpi.openmetadata.serveroperations.properties.OMAGServerInstanceHistory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * OMAGServerInstance represents an instance of a service in an OMAG Server.
  * It is also responsible for registering itself in the instance map.
+ * <br><br>
+ * The lookup of a service (getRegisteredService) happens on every request to the server so it does not lock.
+ * The services are held in a concurrent map and the security verifier is fixed for the life of the instance.
  */
 class OMAGServerInstance
 {
-    private final String                             serverName;
-    private String                                   serverType;
-    private final List<OMAGServerInstanceHistory>    serverHistory      = new ArrayList<>();
-    private Map<String, OMAGServerServiceInstance>   serviceInstanceMap = new HashMap<>();
-    private Date                                     serverStartTime    = new Date();
-    private final OpenMetadataServerSecurityVerifier securityVerifier   = new OpenMetadataServerSecurityVerifier();
+    private final String                                 serverName;
+    private volatile String                              serverType;
+    private final List<OMAGServerInstanceHistory>        serverHistory      = new ArrayList<>();
+    private final Map<String, OMAGServerServiceInstance> serviceInstanceMap = new ConcurrentHashMap<>();
+    private Date                                         serverStartTime    = new Date();
+    private final OpenMetadataServerSecurityVerifier     securityVerifier   = new OpenMetadataServerSecurityVerifier();
 
 
     /**
@@ -75,7 +79,7 @@ class OMAGServerInstance
     /**
      * Prepare to start a new instance
      */
-    void initialize()
+    synchronized void initialize()
     {
         serverStartTime    = new Date();
     }
@@ -175,7 +179,7 @@ class OMAGServerInstance
      *
      * @return connector
      */
-    synchronized OpenMetadataServerSecurityVerifier  getSecurityVerifier()
+    OpenMetadataServerSecurityVerifier  getSecurityVerifier()
     {
         return securityVerifier;
     }
@@ -187,8 +191,8 @@ class OMAGServerInstance
      * @param serviceName name of service
      * @param serviceInstance properties used to run the service
      */
-    synchronized  void registerService(String                    serviceName,
-                                       OMAGServerServiceInstance serviceInstance)
+    void registerService(String                    serviceName,
+                         OMAGServerServiceInstance serviceInstance)
     {
         if (serviceInstance != null)
         {
@@ -211,12 +215,12 @@ class OMAGServerInstance
      * @throws InvalidParameterException the services are invisible to the calling user
      * @throws PropertyServerException service is not running in this server
      */
-    synchronized OMAGServerServiceInstance getRegisteredService(String userId,
-                                                                String delegatingUserId,
-                                                                String serviceName,
-                                                                String serviceOperationName) throws UserNotAuthorizedException,
-                                                                                                    InvalidParameterException,
-                                                                                                    PropertyServerException
+    OMAGServerServiceInstance getRegisteredService(String userId,
+                                                   String delegatingUserId,
+                                                   String serviceName,
+                                                   String serviceOperationName) throws UserNotAuthorizedException,
+                                                                                       InvalidParameterException,
+                                                                                       PropertyServerException
     {
         securityVerifier.validateUserForService(userId, serviceName);
         securityVerifier.validateUserForServiceOperation(userId, serviceName, serviceOperationName);
@@ -247,7 +251,7 @@ class OMAGServerInstance
      *
      * @param serviceName name of service to unregister
      */
-    synchronized  void unRegisterService(String   serviceName)
+    void unRegisterService(String   serviceName)
     {
         serviceInstanceMap.remove(serviceName);
     }
@@ -266,9 +270,11 @@ class OMAGServerInstance
 
         if (!serviceInstanceMap.isEmpty())
         {
-            this.serviceInstanceMap = new HashMap<>();
+            String residualServices = serviceInstanceMap.keySet().toString();
+
+            this.serviceInstanceMap.clear();
             throw new PropertyServerException(OMAGServerInstanceErrorCode.SERVICES_NOT_SHUTDOWN.getMessageDefinition(serverName,
-                                                                                                                     serviceInstanceMap.keySet().toString()),
+                                                                                                                     residualServices),
                                               this.getClass().getName(),
                                               methodName);
         }
@@ -26,12 +26,18 @@ import java.util.*;
  * service instances for the requested server.  It manages the server name to server instance mapping.
  * The map is maintained in a static, so it is scoped to the class loader.
  * <br><br>
- * Instances of this class call the synchronized static methods to work with the map.
+ * Instances of this class call the static methods to work with the map.  Every inbound request looks up its
+ * server, so the map is held as an immutable snapshot that is read without locking.  Starting and stopping a
+ * server are rare by comparison - they build and publish a new snapshot.
  */
 public class OMAGServerPlatformInstanceMap
 {
-    private static final Map<String, OMAGServerInstance> activeServerInstanceMap   = new HashMap<>();
-    private static final Map<String, OMAGServerInstance> inActiveServerInstanceMap = new HashMap<>();
+    /*
+     * Changes to the snapshot are made while holding registryLock so that concurrent server starts and stops
+     * do not lose one another's updates.
+     */
+    private static final    Object          registryLock    = new Object();
+    private static volatile PlatformServers platformServers = new PlatformServers(new HashMap<>(), new HashMap<>());
 
     private static final String   implementationOrigin = "Egeria OMAG Server Platform (version 6.2-SNAPSHOT)";
     private final static Date   platformStartTime = new Date();
@@ -85,7 +91,7 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException    unable to retrieve necessary information to make the decision.
      */
-    public static synchronized void  validateUserAsOperatorForPlatform(String   userId) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
+    public static void  validateUserAsOperatorForPlatform(String   userId) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
     {
         OpenMetadataPlatformSecurityVerifier.validateUserAsOperatorForPlatform(userId);
     }
@@ -484,35 +490,44 @@ public class OMAGServerPlatformInstanceMap
      * @param serverName name of the server
      * @return active OMAGServerInstance object
      */
-    private static synchronized OMAGServerInstance getActiveServerInstance(String serverName)
+    private static OMAGServerInstance getActiveServerInstance(String serverName)
     {
         /*
          * Is this a server that is currently running?
          */
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        OMAGServerInstance  serverInstance = platformServers.getActiveServers().get(serverName);
 
         if (serverInstance == null)
         {
-            /*
-             * Is this a known server that is currently inactive?
-             */
-            serverInstance = inActiveServerInstanceMap.get(serverName);
-
-            if (serverInstance == null)
-            {
-                /*
-                 * New server for this platform
-                 */
-                serverInstance = new OMAGServerInstance(serverName);
-                activeServerInstanceMap.put(serverName, serverInstance);
-            }
-            else
+            synchronized (registryLock)
             {
+                PlatformServers servers = platformServers;
+
                 /*
-                 * Move the inactive server to active
+                 * Another thread may have activated the server while this thread waited for the lock.
                  */
-                activeServerInstanceMap.put(serverName, serverInstance);
-                inActiveServerInstanceMap.remove(serverName);
+                serverInstance = servers.getActiveServers().get(serverName);
+
+                if (serverInstance == null)
+                {
+                    /*
+                     * Is this a known server that is currently inactive?
+                     */
+                    serverInstance = servers.getInActiveServers().get(serverName);
+
+                    if (serverInstance == null)
+                    {
+                        /*
+                         * New server for this platform
+                         */
+                        serverInstance = new OMAGServerInstance(serverName);
+                    }
+
+                    /*
+                     * Move the server to active (this removes it from the inactive servers if it was there).
+                     */
+                    platformServers = servers.withActiveServer(serverInstance);
+                }
             }
         }
 
@@ -528,10 +543,10 @@ public class OMAGServerPlatformInstanceMap
      * @param serviceName name of the service running on the server
      * @param instance instance object
      */
-    private static synchronized void  setInstanceForPlatform(String                    serverName,
-                                                             String                    serverType,
-                                                             String                    serviceName,
-                                                             OMAGServerServiceInstance instance)
+    private static void  setInstanceForPlatform(String                    serverName,
+                                                String                    serverType,
+                                                String                    serviceName,
+                                                OMAGServerServiceInstance instance)
     {
         OMAGServerInstance  serverInstance = getActiveServerInstance(serverName);
 
@@ -553,10 +568,10 @@ public class OMAGServerPlatformInstanceMap
      * @return OpenMetadataServerSecurityVerifier object
      * @throws InvalidParameterException the connector is not valid.
      */
-    private static synchronized OpenMetadataServerSecurityVerifier setServerActiveWithSecurity(String       localServerUserId,
-                                                                                               String       serverName,
-                                                                                               AuditLog     auditLog,
-                                                                                               Connection   connection) throws InvalidParameterException
+    private static OpenMetadataServerSecurityVerifier setServerActiveWithSecurity(String       localServerUserId,
+                                                                                  String       serverName,
+                                                                                  AuditLog     auditLog,
+                                                                                  Connection   connection) throws InvalidParameterException
     {
         OMAGServerInstance  serverInstance = getActiveServerInstance(serverName);
 
@@ -577,15 +592,17 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException    unable to retrieve necessary information to make the decision.
      */
-    private static synchronized String getServerInstanceType(String  userId,
-                                                             String  serverName,
-                                                             String  serviceOperationName) throws InvalidParameterException,
-                                                                                                  UserNotAuthorizedException,
-                                                                                                  PropertyServerException
+    private static String getServerInstanceType(String  userId,
+                                                String  serverName,
+                                                String  serviceOperationName) throws InvalidParameterException,
+                                                                                     UserNotAuthorizedException,
+                                                                                     PropertyServerException
     {
+        PlatformServers servers = platformServers;
+
         validateUserAsInvestigatorForPlatform(userId);
 
-        OMAGServerInstance serverInstance = activeServerInstanceMap.get(serverName);
+        OMAGServerInstance serverInstance = servers.getActiveServers().get(serverName);
 
         if (serverInstance != null)
         {
@@ -616,25 +633,27 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException    unable to retrieve necessary information to make the decision.
      */
-    private static synchronized ServerStatus getServerInstanceStatus(String  userId,
-                                                                     String  delegatingUserId,
-                                                                     String  serverName,
-                                                                     String  serviceOperationName) throws InvalidParameterException,
-                                                                                                          UserNotAuthorizedException,
-                                                                                                          PropertyServerException
+    private static ServerStatus getServerInstanceStatus(String  userId,
+                                                        String  delegatingUserId,
+                                                        String  serverName,
+                                                        String  serviceOperationName) throws InvalidParameterException,
+                                                                                             UserNotAuthorizedException,
+                                                                                             PropertyServerException
     {
+        PlatformServers servers = platformServers;
+
         validateUserAsInvestigatorForPlatform(userId);
         if (delegatingUserId != null)
         {
             validateUserAsInvestigatorForPlatform(delegatingUserId);
         }
 
-        OMAGServerInstance serverInstance = activeServerInstanceMap.get(serverName);
+        OMAGServerInstance serverInstance = servers.getActiveServers().get(serverName);
         boolean            isActive = true;
 
         if (serverInstance == null)
         {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
+            serverInstance = servers.getInActiveServers().get(serverName);
             isActive = false;
         }
 
@@ -676,17 +695,19 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException    unable to retrieve necessary information to make the decision.
      */
-    private static synchronized boolean isServerInstanceActive(String  userId,
-                                                               String  delegatingUserId,
-                                                               String  serverName) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
+    private static boolean isServerInstanceActive(String  userId,
+                                                  String  delegatingUserId,
+                                                  String  serverName) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
     {
+        PlatformServers servers = platformServers;
+
         validateUserAsInvestigatorForPlatform(userId);
         if (delegatingUserId != null)
         {
             validateUserAsInvestigatorForPlatform(delegatingUserId);
         }
 
-        return (activeServerInstanceMap.get(serverName) != null);
+        return (servers.getActiveServers().get(serverName) != null);
     }
 
 
@@ -704,18 +725,20 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException    unable to retrieve necessary information to make the decision.
      */
-    private static synchronized boolean isServerInstanceKnown(String  userId,
-                                                              String  delegatingUserId,
-                                                              String  serverName) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
+    private static boolean isServerInstanceKnown(String  userId,
+                                                 String  delegatingUserId,
+                                                 String  serverName) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
     {
+        PlatformServers servers = platformServers;
+
         validateUserAsInvestigatorForPlatform(userId);
         if (delegatingUserId != null)
         {
             validateUserAsInvestigatorForPlatform(delegatingUserId);
         }
 
-        return ((activeServerInstanceMap.get(serverName) != null) ||
-                (inActiveServerInstanceMap.get(serverName) != null));
+        return ((servers.getActiveServers().get(serverName) != null) ||
+                (servers.getInActiveServers().get(serverName) != null));
     }
 
 
@@ -733,15 +756,17 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      * @throws PropertyServerException the service name is not know - indicating a logic error
      */
-    private static synchronized OMAGServerServiceInstance getInstanceForPlatform(String  userId,
-                                                                                 String  delegatingUserId,
-                                                                                 String  serverName,
-                                                                                 String  serviceName,
-                                                                                 String  serviceOperationName) throws InvalidParameterException,
-                                                                                                                      UserNotAuthorizedException,
-                                                                                                                      PropertyServerException
+    private static OMAGServerServiceInstance getInstanceForPlatform(String  userId,
+                                                                    String  delegatingUserId,
+                                                                    String  serverName,
+                                                                    String  serviceName,
+                                                                    String  serviceOperationName) throws InvalidParameterException,
+                                                                                                         UserNotAuthorizedException,
+                                                                                                         PropertyServerException
     {
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        PlatformServers servers = platformServers;
+
+        OMAGServerInstance  serverInstance = servers.getActiveServers().get(serverName);
 
         if (serverInstance != null)
         {
@@ -782,16 +807,18 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException    unable to retrieve necessary information to make the decision.
      */
-    private static synchronized List<String> getActiveServerListForPlatform(String userId,
-                                                                            String delegatingUserId) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
+    private static List<String> getActiveServerListForPlatform(String userId,
+                                                               String delegatingUserId) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
     {
+        PlatformServers servers = platformServers;
+
         OpenMetadataPlatformSecurityVerifier.validateUserAsInvestigatorForPlatform(userId);
         if (delegatingUserId != null)
         {
             OpenMetadataPlatformSecurityVerifier.validateUserAsInvestigatorForPlatform(delegatingUserId);
         }
 
-        Set<String>  activeServerSet = activeServerInstanceMap.keySet();
+        Set<String>  activeServerSet = servers.getActiveServers().keySet();
 
         if (activeServerSet.isEmpty())
         {
@@ -814,16 +841,19 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException    unable to retrieve necessary information to make the decision.
      */
-    private static synchronized List<String> getShutdownServerListForPlatform(String userId,
-                                                                              String delegatingUserId) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
+    private static List<String> getShutdownServerListForPlatform(String userId,
+                                                                 String delegatingUserId) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
     {
+        PlatformServers servers = platformServers;
+
         OpenMetadataPlatformSecurityVerifier.validateUserAsInvestigatorForPlatform(userId);
         if (delegatingUserId != null)
         {
             OpenMetadataPlatformSecurityVerifier.validateUserAsInvestigatorForPlatform(delegatingUserId);
         }
 
-        Set<String>  activeServerSet = activeServerInstanceMap.keySet();
+        Map<String, OMAGServerInstance> activeServers   = servers.getActiveServers();
+        Set<String>                     activeServerSet = activeServers.keySet();
 
         if (activeServerSet.isEmpty())
         {
@@ -835,7 +865,7 @@ public class OMAGServerPlatformInstanceMap
 
             for (String activeServerName : activeServerSet)
             {
-                if (activeServerInstanceMap.get(activeServerName).getServerType().equals(ServerTypeClassification.VIEW_SERVER.getServerTypeName()))
+                if (activeServers.get(activeServerName).getServerType().equals(ServerTypeClassification.VIEW_SERVER.getServerTypeName()))
                 {
                     shutdownServerList.add(activeServerName);
                 }
@@ -843,7 +873,7 @@ public class OMAGServerPlatformInstanceMap
 
             for (String activeServerName : activeServerSet)
             {
-                if (activeServerInstanceMap.get(activeServerName).getServerType().equals(ServerTypeClassification.ENGINE_HOST.getServerTypeName()))
+                if (activeServers.get(activeServerName).getServerType().equals(ServerTypeClassification.ENGINE_HOST.getServerTypeName()))
                 {
                     shutdownServerList.add(activeServerName);
                 }
@@ -851,7 +881,7 @@ public class OMAGServerPlatformInstanceMap
 
             for (String activeServerName : activeServerSet)
             {
-                if (activeServerInstanceMap.get(activeServerName).getServerType().equals(ServerTypeClassification.INTEGRATION_DAEMON.getServerTypeName()))
+                if (activeServers.get(activeServerName).getServerType().equals(ServerTypeClassification.INTEGRATION_DAEMON.getServerTypeName()))
                 {
                     shutdownServerList.add(activeServerName);
                 }
@@ -880,17 +910,19 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException    unable to retrieve necessary information to make the decision.
      */
-    private static synchronized List<String> getKnownServerListForPlatform(String userId,
-                                                                           String delegatingUserId) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
+    private static List<String> getKnownServerListForPlatform(String userId,
+                                                              String delegatingUserId) throws UserNotAuthorizedException, InvalidParameterException, PropertyServerException
     {
+        PlatformServers servers = platformServers;
+
         OpenMetadataPlatformSecurityVerifier.validateUserAsInvestigatorForPlatform(userId);
         if (delegatingUserId != null)
         {
             OpenMetadataPlatformSecurityVerifier.validateUserAsInvestigatorForPlatform(userId);
         }
 
-        List<String> knownServerList = new ArrayList<>(activeServerInstanceMap.keySet());
-        knownServerList.addAll(inActiveServerInstanceMap.keySet());
+        List<String> knownServerList = new ArrayList<>(servers.getActiveServers().keySet());
+        knownServerList.addAll(servers.getInActiveServers().keySet());
 
         if (knownServerList.isEmpty())
         {
@@ -912,10 +944,10 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException    unable to retrieve necessary information to make the decision.
      */
-    private static synchronized void validateUserAsServerInvestigator(String userId,
-                                                                      OMAGServerInstance serverInstance) throws UserNotAuthorizedException,
-                                                                                                                PropertyServerException,
-                                                                                                                InvalidParameterException
+    private static void validateUserAsServerInvestigator(String userId,
+                                                         OMAGServerInstance serverInstance) throws UserNotAuthorizedException,
+                                                                                                   PropertyServerException,
+                                                                                                   InvalidParameterException
     {
         if (serverInstance != null)
         {
@@ -962,19 +994,21 @@ public class OMAGServerPlatformInstanceMap
      * @throws PropertyServerException unable to retrieve necessary information to make the decision.
 
      */
-    private static synchronized  Date getServerStartTimeFromPlatform(String  userId,
-                                                                     String  delegatingUserId,
-                                                                     String  serverName) throws InvalidParameterException,
-                                                                                                UserNotAuthorizedException,
-                                                                                                PropertyServerException
+    private static Date getServerStartTimeFromPlatform(String  userId,
+                                                       String  delegatingUserId,
+                                                       String  serverName) throws InvalidParameterException,
+                                                                                  UserNotAuthorizedException,
+                                                                                  PropertyServerException
     {
         final String  methodName = "getServerStartTimeFromPlatform";
 
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        PlatformServers servers = platformServers;
+
+        OMAGServerInstance  serverInstance = servers.getActiveServers().get(serverName);
 
         if (serverInstance == null)
         {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
+            serverInstance = servers.getInActiveServers().get(serverName);
         }
 
         if (serverInstance != null)
@@ -1007,19 +1041,21 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException    unable to retrieve necessary information to make the decision.
      */
-    private static synchronized Date getServerEndTimeFromPlatform(String userId,
-                                                                  String delegatingUserId,
-                                                                  String serverName) throws InvalidParameterException,
-                                                                                            UserNotAuthorizedException,
-                                                                                            PropertyServerException
+    private static Date getServerEndTimeFromPlatform(String userId,
+                                                     String delegatingUserId,
+                                                     String serverName) throws InvalidParameterException,
+                                                                               UserNotAuthorizedException,
+                                                                               PropertyServerException
     {
         final String methodName = "getServerEndTimeFromPlatform";
 
-        OMAGServerInstance serverInstance = activeServerInstanceMap.get(serverName);
+        PlatformServers servers = platformServers;
+
+        OMAGServerInstance serverInstance = servers.getActiveServers().get(serverName);
 
         if (serverInstance == null)
         {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
+            serverInstance = servers.getInActiveServers().get(serverName);
         }
 
         if (serverInstance != null)
@@ -1052,19 +1088,21 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException    unable to retrieve necessary information to make the decision.
      */
-    private static synchronized List<OMAGServerInstanceHistory> getServerHistoryFromPlatform(String userId,
-                                                                                             String delegatingUserId,
-                                                                                             String serverName) throws InvalidParameterException,
-                                                                                                                       UserNotAuthorizedException,
-                                                                                                                       PropertyServerException
+    private static List<OMAGServerInstanceHistory> getServerHistoryFromPlatform(String userId,
+                                                                                String delegatingUserId,
+                                                                                String serverName) throws InvalidParameterException,
+                                                                                                          UserNotAuthorizedException,
+                                                                                                          PropertyServerException
     {
         final String methodName = "getServerHistoryFromPlatform";
 
-        OMAGServerInstance serverInstance = activeServerInstanceMap.get(serverName);
+        PlatformServers servers = platformServers;
+
+        OMAGServerInstance serverInstance = servers.getActiveServers().get(serverName);
 
         if (serverInstance == null)
         {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
+            serverInstance = servers.getInActiveServers().get(serverName);
         }
 
         if (serverInstance != null)
@@ -1096,15 +1134,17 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
      * @throws PropertyServerException unable to retrieve necessary information to make the decision.
      */
-    private static synchronized List<String> getActiveServicesForServerOnPlatform(String userId,
-                                                                                  String delegatingUserId,
-                                                                                  String serverName) throws InvalidParameterException,
-                                                                                                            UserNotAuthorizedException,
-                                                                                                            PropertyServerException
+    private static List<String> getActiveServicesForServerOnPlatform(String userId,
+                                                                     String delegatingUserId,
+                                                                     String serverName) throws InvalidParameterException,
+                                                                                               UserNotAuthorizedException,
+                                                                                               PropertyServerException
     {
         final String  methodName = "getActiveServicesForServerOnPlatform";
 
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        PlatformServers servers = platformServers;
+
+        OMAGServerInstance  serverInstance = servers.getActiveServers().get(serverName);
 
         if (serverInstance != null)
         {
@@ -1118,7 +1158,7 @@ public class OMAGServerPlatformInstanceMap
         }
         else /* server is not active */
         {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
+            serverInstance = servers.getInActiveServers().get(serverName);
 
             if (serverInstance != null)
             {
@@ -1140,10 +1180,12 @@ public class OMAGServerPlatformInstanceMap
      * @param serverName name of the server
      * @param serviceName name of the service running on the server
      */
-    private static synchronized void removeInstanceForPlatform(String   serverName,
-                                                               String   serviceName)
+    private static void removeInstanceForPlatform(String   serverName,
+                                                  String   serviceName)
     {
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        PlatformServers servers = platformServers;
+
+        OMAGServerInstance  serverInstance = servers.getActiveServers().get(serverName);
 
         if (serverInstance != null)
         {
@@ -1161,30 +1203,29 @@ public class OMAGServerPlatformInstanceMap
      * @throws InvalidParameterException server name is not known
      * @throws PropertyServerException server still has active services - logic error
      */
-    private static synchronized void setServerInActive(String   userId,
-                                                       String   serverName,
-                                                       String   methodName) throws InvalidParameterException,
-                                                                                   PropertyServerException
+    private static void setServerInActive(String   userId,
+                                          String   serverName,
+                                          String   methodName) throws InvalidParameterException,
+                                                                      PropertyServerException
     {
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
-
-        if (serverInstance == null)
+        synchronized (registryLock)
         {
-            handleBadServerName(userId, serverName, methodName);
-        }
-        else
-        {
-            try
+            OMAGServerInstance  serverInstance = platformServers.getActiveServers().get(serverName);
+
+            if (serverInstance == null)
             {
-                serverInstance.shutdown(methodName);
-                inActiveServerInstanceMap.put(serverName, serverInstance);
-                activeServerInstanceMap.remove(serverName);
+                handleBadServerName(userId, serverName, methodName);
             }
-            catch (Exception error)
+            else
             {
-                inActiveServerInstanceMap.put(serverName, serverInstance);
-                activeServerInstanceMap.remove(serverName);
-                throw error;
+                try
+                {
+                    serverInstance.shutdown(methodName);
+                }
+                finally
+                {
+                    platformServers = platformServers.withInActiveServer(serverInstance);
+                }
             }
         }
     }
@@ -1199,12 +1240,14 @@ public class OMAGServerPlatformInstanceMap
      * @return OpenMetadataServerSecurityVerifier object - never null
      * @throws InvalidParameterException the server name is not known
      */
-    private static synchronized OpenMetadataServerSecurityVerifier getServerSecurityVerifierForPlatform(String    userId,
-                                                                                                        String    serverName) throws InvalidParameterException
+    private static OpenMetadataServerSecurityVerifier getServerSecurityVerifierForPlatform(String    userId,
+                                                                                           String    serverName) throws InvalidParameterException
     {
         final String  methodName = "getServerSecurityVerifierForPlatform";
 
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        PlatformServers servers = platformServers;
+
+        OMAGServerInstance  serverInstance = servers.getActiveServers().get(serverName);
 
         if (serverInstance != null)
         {
@@ -1245,6 +1288,88 @@ public class OMAGServerPlatformInstanceMap
     }
 
 
+    /**
+     * PlatformServers is an immutable snapshot of the servers known to the platform, split into those that are
+     * running and those that have been shutdown.  A new snapshot is built when a server changes state.
+     */
+    private static class PlatformServers
+    {
+        private final Map<String, OMAGServerInstance> activeServers;
+        private final Map<String, OMAGServerInstance> inActiveServers;
+
+
+        /**
+         * Create a snapshot.  The maps are not copied so must not be changed after this call.
+         *
+         * @param activeServers servers that are running, mapped from server name
+         * @param inActiveServers servers that have been shutdown, mapped from server name
+         */
+        PlatformServers(Map<String, OMAGServerInstance> activeServers,
+                        Map<String, OMAGServerInstance> inActiveServers)
+        {
+            this.activeServers   = Collections.unmodifiableMap(activeServers);
+            this.inActiveServers = Collections.unmodifiableMap(inActiveServers);
+        }
+
+
+        /**
+         * Return the servers that are running.
+         *
+         * @return map of server name to server instance
+         */
+        Map<String, OMAGServerInstance> getActiveServers()
+        {
+            return activeServers;
+        }
+
+
+        /**
+         * Return the servers that have been shutdown.
+         *
+         * @return map of server name to server instance
+         */
+        Map<String, OMAGServerInstance> getInActiveServers()
+        {
+            return inActiveServers;
+        }
+
+
+        /**
+         * Return a new snapshot with the server moved to (or added to) the running servers.
+         *
+         * @param serverInstance server that is starting
+         * @return new snapshot
+         */
+        PlatformServers withActiveServer(OMAGServerInstance serverInstance)
+        {
+            Map<String, OMAGServerInstance> newActiveServers   = new HashMap<>(activeServers);
+            Map<String, OMAGServerInstance> newInActiveServers = new HashMap<>(inActiveServers);
+
+            newActiveServers.put(serverInstance.getServerName(), serverInstance);
+            newInActiveServers.remove(serverInstance.getServerName());
+
+            return new PlatformServers(newActiveServers, newInActiveServers);
+        }
+
+
+        /**
+         * Return a new snapshot with the server moved to the servers that have been shutdown.
+         *
+         * @param serverInstance server that has stopped
+         * @return new snapshot
+         */
+        PlatformServers withInActiveServer(OMAGServerInstance serverInstance)
+        {
+            Map<String, OMAGServerInstance> newActiveServers   = new HashMap<>(activeServers);
+            Map<String, OMAGServerInstance> newInActiveServers = new HashMap<>(inActiveServers);
+
+            newInActiveServers.put(serverInstance.getServerName(), serverInstance);
+            newActiveServers.remove(serverInstance.getServerName());
+
+            return new PlatformServers(newActiveServers, newInActiveServers);
+        }
+    }
+
 
     /**
      * Constructor for instances - used by service instances to get access to the platform map
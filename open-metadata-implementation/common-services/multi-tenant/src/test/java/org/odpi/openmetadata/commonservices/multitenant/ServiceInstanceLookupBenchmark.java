@@ -0,0 +1,150 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.multitenant;
+
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.PropertyServerException;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the service instance lookups per second that OMAGServerPlatformInstanceMap supports as the number of
+ * request threads grows.  Each lookup is the one made at the start of every REST request: find the active server,
+ * check the caller with its security verifier and return the registered service instance.  The lockedLookup
+ * benchmark makes the same call while holding the class lock to stand in for the static synchronized methods
+ * that the lookups used to go through, so the two show how far each one scales with the cores.  Run it with the
+ * main method, which repeats the benchmarks for each thread count from one up to the number of processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ServiceInstanceLookupBenchmark
+{
+    private static final int    serverCount   = 8;
+    private static final String userId        = "benchmarkUser";
+    private static final String serviceName   = "Benchmark Service";
+    private static final String operationName = "lookup";
+
+    private final OMAGServerPlatformInstanceMap platformInstanceMap = new OMAGServerPlatformInstanceMap();
+    private final String[]                      serverNames         = new String[serverCount];
+
+
+    /**
+     * The server that each thread looks up next.  Threads start at different servers.
+     */
+    @State(Scope.Thread)
+    public static class LookupPosition
+    {
+        private int nextServer = ThreadLocalRandom.current().nextInt(serverCount);
+
+
+        /**
+         * Return the position of the server to look up and move on to the next one.
+         *
+         * @return index into the server names
+         */
+        int getNextServer()
+        {
+            nextServer = (nextServer + 1) % serverCount;
+
+            return nextServer;
+        }
+    }
+
+
+    /**
+     * Start the servers and register the service on each of them.
+     *
+     * @throws InvalidParameterException problem starting a server
+     */
+    @Setup
+    public void setUp() throws InvalidParameterException
+    {
+        for (int serverNumber = 0; serverNumber < serverCount; serverNumber++)
+        {
+            serverNames[serverNumber] = "benchmarkServer" + serverNumber;
+
+            platformInstanceMap.startUpServerInstance(userId, serverNames[serverNumber], null, null);
+            new OMAGServerServiceInstance(serverNames[serverNumber], serviceName, 100)
+            {
+            };
+        }
+    }
+
+
+    /**
+     * Look up a service instance through the platform instance map.
+     *
+     * @param lookupPosition calling thread's position in the server list
+     * @return service instance
+     * @throws InvalidParameterException server not known
+     * @throws UserNotAuthorizedException user not authorized
+     * @throws PropertyServerException service not registered
+     */
+    @Benchmark
+    public OMAGServerServiceInstance concurrentLookup(LookupPosition lookupPosition) throws InvalidParameterException,
+                                                                                              UserNotAuthorizedException,
+                                                                                              PropertyServerException
+    {
+        return platformInstanceMap.getServiceInstance(userId, serverNames[lookupPosition.getNextServer()], serviceName, operationName);
+    }
+
+
+    /**
+     * Look up a service instance while holding the class lock, as every lookup did when the platform instance
+     * map's methods were static synchronized.
+     *
+     * @param lookupPosition calling thread's position in the server list
+     * @return service instance
+     * @throws InvalidParameterException server not known
+     * @throws UserNotAuthorizedException user not authorized
+     * @throws PropertyServerException service not registered
+     */
+    @Benchmark
+    public OMAGServerServiceInstance lockedLookup(LookupPosition lookupPosition) throws InvalidParameterException,
+                                                                                          UserNotAuthorizedException,
+                                                                                          PropertyServerException
+    {
+        synchronized (OMAGServerPlatformInstanceMap.class)
+        {
+            return platformInstanceMap.getServiceInstance(userId, serverNames[lookupPosition.getNextServer()], serviceName, operationName);
+        }
+    }
+
+
+    /**
+     * Run the benchmark with one thread, then double the threads until all the processors are in use.
+     *
+     * @param args ignored
+     * @throws RunnerException problem running the benchmark
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        int processorCount = Runtime.getRuntime().availableProcessors();
+
+        for (int threadCount = 1; threadCount < processorCount * 2; threadCount = threadCount * 2)
+        {
+            new Runner(new OptionsBuilder().include(ServiceInstanceLookupBenchmark.class.getSimpleName())
+                                           .threads(Math.min(threadCount, processorCount))
+                                           .build()).run();
+        }
+    }
+}
@@ -335,6 +335,64 @@ public abstract class OpenMetadataClient implements OpenMetadataTypesInterface,
                                                                                                PropertyServerException;
 
 
+    /**
+     * Retrieve several metadata elements using their unique identifiers.  Identifiers that do not match a visible
+     * element are skipped.  This implementation retrieves the elements one at a time; a client that is able to
+     * retrieve them with a single request should override it.
+     *
+     * @param userId caller's userId
+     * @param elementGUIDs unique identifiers for the metadata elements
+     * @param getOptions multiple options to control the query
+     *
+     * @return list of metadata elements in the order of the supplied identifiers, or null if none are found
+     * @throws InvalidParameterException the userId is null
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     * @throws PropertyServerException a problem accessing the metadata store
+     */
+    public List<OpenMetadataElement> getMetadataElementsByGUIDs(String       userId,
+                                                                List<String> elementGUIDs,
+                                                                GetOptions   getOptions) throws InvalidParameterException,
+                                                                                                UserNotAuthorizedException,
+                                                                                                PropertyServerException
+    {
+        if (elementGUIDs == null)
+        {
+            return null;
+        }
+
+        List<OpenMetadataElement> results = new ArrayList<>();
+
+        for (String elementGUID : elementGUIDs)
+        {
+            if (elementGUID != null)
+            {
+                try
+                {
+                    OpenMetadataElement element = this.getMetadataElementByGUID(userId, elementGUID, getOptions);
+
+                    if (element != null)
+                    {
+                        results.add(element);
+                    }
+                }
+                catch (InvalidParameterException notKnown)
+                {
+                    /*
+                     * The element is not known, or not visible with these options.
+                     */
+                }
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
     /**
      * Retrieve the metadata element using its unique name (typically the qualified name).
      *
@@ -1119,6 +1177,74 @@ public abstract class OpenMetadataClient implements OpenMetadataTypesInterface,
                                                                                                             PropertyServerException;
 
 
+    /**
+     * Retrieve the metadata elements connected to each of the supplied elements.  The query options apply to each
+     * starting element in turn, so the paging options control the number of related elements returned for each
+     * one.  Starting elements that are not known are skipped.  This implementation retrieves the related elements
+     * for one starting element at a time; a client that is able to retrieve them with a single request should
+     * override it.
+     *
+     * @param userId caller's userId
+     * @param elementGUIDs unique identifiers for the starting metadata elements
+     * @param startingAtEnd indicates which end to retrieve from (0 is "either end"; 1 is end1; 2 is end 2)
+     * @param relationshipTypeName type name of relationships to follow (or null for all)
+     * @param queryOptions multiple options to control the query
+     *
+     * @return list of related elements for each starting element (identified by its starting element), or null
+     * @throws InvalidParameterException the relationship type is invalid
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     * @throws PropertyServerException a problem accessing the metadata store
+     */
+    public List<RelatedMetadataElementList> getRelatedMetadataElements(String       userId,
+                                                                       List<String> elementGUIDs,
+                                                                       int          startingAtEnd,
+                                                                       String       relationshipTypeName,
+                                                                       QueryOptions queryOptions) throws InvalidParameterException,
+                                                                                                         UserNotAuthorizedException,
+                                                                                                         PropertyServerException
+    {
+        if (elementGUIDs == null)
+        {
+            return null;
+        }
+
+        List<RelatedMetadataElementList> results = new ArrayList<>();
+
+        for (String elementGUID : elementGUIDs)
+        {
+            if (elementGUID != null)
+            {
+                try
+                {
+                    RelatedMetadataElementList relatedElements = this.getRelatedMetadataElements(userId,
+                                                                                                 elementGUID,
+                                                                                                 startingAtEnd,
+                                                                                                 relationshipTypeName,
+                                                                                                 queryOptions);
+
+                    if (relatedElements != null)
+                    {
+                        results.add(relatedElements);
+                    }
+                }
+                catch (InvalidParameterException notKnown)
+                {
+                    /*
+                     * The starting element is not known, or not visible with these options.
+                     */
+                }
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
     /**
      * Return all the elements that are anchored to an asset plus relationships between these elements and to other elements.
      *
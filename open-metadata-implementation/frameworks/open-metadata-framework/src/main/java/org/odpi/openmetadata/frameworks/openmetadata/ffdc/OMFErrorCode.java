@@ -210,6 +210,22 @@ public enum OMFErrorCode implements ExceptionMessageSet
                           "The system cannot process the request with this search string.",
                           "Correct the code in the caller to provide a valid regular expression search string."),
 
+    /**
+     * OPEN-METADATA-400-029 - The continuation token {0} passed on the {1} parameter of the {2} operation is not valid
+     */
+    INVALID_CONTINUATION_TOKEN(400, "OPEN-METADATA-400-029",
+                               "The continuation token {0} passed on the {1} parameter of the {2} operation is not valid",
+                               "The system cannot process the request because it is unable to decode the continuation token.",
+                               "A continuation token is returned by the server alongside a page of results and must be passed back unchanged to retrieve the next page.  Correct the code in the caller to pass the token returned with the previous page, or restart the query without a token."),
+
+    /**
+     * OPEN-METADATA-400-030 - The mermaid diagram kind {0} passed on the {1} parameter of the {2} operation is not recognized; the supported values are {3}
+     */
+    UNKNOWN_MERMAID_DIAGRAM_KIND(400, "OPEN-METADATA-400-030",
+                                 "The mermaid diagram kind {0} passed on the {1} parameter of the {2} operation is not recognized; the supported values are {3}",
+                                 "The system cannot process the request because it does not know which diagram to render.",
+                                 "Correct the code in the caller to request one of the supported diagram kinds."),
+
     /**
      * OPEN-METADATA-404-002 - Multiple {0} elements where found with a name of {1}: the identifiers of the returned elements are {2}; the calling method is {3}, the name parameter is {4} and the server is {5}
      */
@@ -48,6 +48,10 @@ import org.odpi.openmetadata.frameworks.openmetadata.types.OpenMetadataProperty;
 import org.odpi.openmetadata.frameworks.openmetadata.types.OpenMetadataType;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.odpi.openmetadata.frameworks.openmetadata.properties.assets.topics.AssociatedLogProperties;
 import org.odpi.openmetadata.frameworks.openmetadata.properties.assets.processes.ProcessPortProperties;
 import org.odpi.openmetadata.frameworks.openmetadata.properties.assets.filesandfolders.ArchiveContentsProperties;
@@ -80,6 +84,8 @@ public class AssetHandler extends OpenMetadataHandlerBase
     private final SchemaTypeHandler      schemaTypeHandler;
     private final SchemaAttributeHandler schemaAttributeHandler;
 
+    private volatile AssetLineageCache   lineageCache = null;
+
     private final static String folderDivider = "/";
     private final static String fileSystemDivider    = "://";
     private final static String fileExtensionDivider = "\\.";
@@ -153,6 +159,34 @@ public class AssetHandler extends OpenMetadataHandlerBase
         endpointHandler        = new EndpointHandler(localServerName, auditLog, localServiceName, openMetadataClient);
         schemaTypeHandler      = new SchemaTypeHandler(localServerName, auditLog, localServiceName, openMetadataClient);
         schemaAttributeHandler = new SchemaAttributeHandler(localServerName, auditLog, localServiceName, openMetadataClient);
+
+        if (template != null)
+        {
+            lineageCache = template.lineageCache;
+        }
+    }
+
+
+    /**
+     * Set up the cache used to answer lineage graph requests.  The cache should be registered as a listener
+     * with the metadata server's out topic so that it is told when the metadata changes.
+     *
+     * @param lineageCache cache or null to retrieve every lineage graph from the metadata server
+     */
+    public void setLineageCache(AssetLineageCache lineageCache)
+    {
+        this.lineageCache = lineageCache;
+    }
+
+
+    /**
+     * Return the cache used to answer lineage graph requests.
+     *
+     * @return cache or null
+     */
+    public AssetLineageCache getLineageCache()
+    {
+        return lineageCache;
     }
 
 
@@ -3526,6 +3560,50 @@ public class AssetHandler extends OpenMetadataHandlerBase
                                                   QueryOptions suppliedQueryOptions) throws InvalidParameterException,
                                                                                             PropertyServerException,
                                                                                             UserNotAuthorizedException
+    {
+        return this.getAssetLineageGraph(userId,
+                                         assetGUID,
+                                         limitToISCQualifiedName,
+                                         highlightISCQualifiedName,
+                                         allAnchors,
+                                         null,
+                                         suppliedQueryOptions);
+    }
+
+
+    /**
+     * Return all the elements that are linked to an asset using lineage relationships.  The relationships are
+     * retrieved both from the asset, and the anchored schema elements.  The graph is retrieved one level at a
+     * time, working out from the asset.  The assets in each level are retrieved together, and their lineage
+     * relationships are retrieved in batches.  The traversal control sets the limits on the size of the graph,
+     * whether the batches are retrieved in parallel and the listener that is passed each level as it is retrieved.
+     * If the graph is cut short by the limits, or the traversal is cancelled, the graph retrieved so far is returned.
+     * Each asset in the graph carries its own mermaid diagrams.  Callers that only display the lineage graphs can
+     * set skipListMermaidDiagrams in the query options to leave them out, which reduces the cost of large graphs.
+     *
+     * @param userId the userId of the requesting user
+     * @param assetGUID  unique identifier for the asset
+     * @param limitToISCQualifiedName  Return whether the returned results should just show a particular information supply chain.
+     * This supply chain has to be connected to the starting asset to show.
+     * @param highlightISCQualifiedName Return whether a particular information supply chain should be highlighted.
+     * @param allAnchors Return whether all anchored elements should be returned, or just the ones that are connected to the asset.
+     * @param suppliedTraversalControl limits and options for the traversal (null for no limits)
+     * @param suppliedQueryOptions various other options to control the query
+     *
+     * @return graph of elements or
+     * @throws InvalidParameterException - one of the parameters is null or invalid or
+     * @throws PropertyServerException - a problem retrieving the connected asset properties from the property server or
+     * @throws UserNotAuthorizedException - the requesting user is not authorized to issue this request.
+     */
+    public AssetLineageGraph getAssetLineageGraph(String                       userId,
+                                                  String                       assetGUID,
+                                                  String                       limitToISCQualifiedName,
+                                                  String                       highlightISCQualifiedName,
+                                                  boolean                      allAnchors,
+                                                  AssetLineageTraversalControl suppliedTraversalControl,
+                                                  QueryOptions                 suppliedQueryOptions) throws InvalidParameterException,
+                                                                                                            PropertyServerException,
+                                                                                                            UserNotAuthorizedException
     {
         final String methodName    = "getAssetLineageGraph";
         final String guidParameter = "assetGUID";
@@ -3533,34 +3611,164 @@ public class AssetHandler extends OpenMetadataHandlerBase
         propertyHelper.validateUserId(userId, methodName);
         propertyHelper.validateGUID(assetGUID, guidParameter, methodName);
 
-        List<AssetLineageGraphNode>         linkedAssets              = new ArrayList<>();
+        AssetLineageTraversalControl traversalControl = suppliedTraversalControl;
+
+        if (traversalControl == null)
+        {
+            traversalControl = new AssetLineageTraversalControl();
+        }
+
+        Map<String, AssetLineageGraphNode>  linkedAssets              = new LinkedHashMap<>();
         List<AssetLineageGraphRelationship> lineageRelationships      = new ArrayList<>();
         Set<String>                         upstreamProcessedAssets   = new HashSet<>();
         Set<String>                         downstreamProcessedAssets = new HashSet<>();
+        boolean                             completeGraph             = true;
 
         QueryOptions queryOptions = new QueryOptions(suppliedQueryOptions);
 
         queryOptions.setIncludeOnlyRelationships(getLineageRelationshipTypeNames(queryOptions.getIncludeOnlyRelationships()));
 
-        this.getAssetLineageGraphNodes(userId,
-                                       assetGUID,
-                                       allAnchors,
-                                       0,
-                                       queryOptions.getIncludeOnlyRelationships(),
-                                       limitToISCQualifiedName,
-                                       queryOptions,
-                                       linkedAssets,
-                                       lineageRelationships,
-                                       upstreamProcessedAssets,
-                                       downstreamProcessedAssets);
+        String cacheScope = this.getLineageCacheScope(userId, allAnchors, limitToISCQualifiedName, queryOptions);
+
+        /*
+         * The starting asset is followed in both directions.  After that, upstream assets are only followed
+         * upstream, and downstream assets are only followed downstream.
+         */
+        List<LineageFrontierEntry> frontier = new ArrayList<>();
+
+        frontier.add(new LineageFrontierEntry(assetGUID, 0));
+        upstreamProcessedAssets.add(assetGUID);
+        downstreamProcessedAssets.add(assetGUID);
+
+        int depth = 0;
+
+        while (! frontier.isEmpty())
+        {
+            Map<LineageFrontierEntry, LineageVisit> visits = this.getLineageLevel(userId,
+                                                                                  frontier,
+                                                                                  allAnchors,
+                                                                                  queryOptions.getIncludeOnlyRelationships(),
+                                                                                  limitToISCQualifiedName,
+                                                                                  queryOptions,
+                                                                                  traversalControl,
+                                                                                  cacheScope,
+                                                                                  methodName);
+
+            if (visits == null)
+            {
+                /*
+                 * The traversal was cancelled part way through the level.
+                 */
+                completeGraph = false;
+                break;
+            }
+
+            boolean                             expandFrontier     = ((traversalControl.getMaxDepth() <= 0) || (depth < traversalControl.getMaxDepth()));
+            Map<String, AssetLineageGraphNode>  levelAssets        = new LinkedHashMap<>();
+            List<AssetLineageGraphRelationship> levelRelationships = new ArrayList<>();
+            List<LineageFrontierEntry>          nextFrontier       = new ArrayList<>();
+
+            for (LineageFrontierEntry frontierEntry : frontier)
+            {
+                LineageVisit visit = visits.get(frontierEntry);
+
+                if (visit != null)
+                {
+                    AssetLineageGraphNode asset = this.addLineageGraphNode(linkedAssets, visit.asset(), traversalControl.getMaxNodes());
+
+                    if (asset == null)
+                    {
+                        completeGraph = false;
+                        continue;
+                    }
+
+                    String currentAssetGUID = asset.getElementHeader().getGUID();
+
+                    levelAssets.put(currentAssetGUID, asset);
+
+                    /*
+                     * Process upstream assets
+                     */
+                    for (String linkedAssetGUID : visit.upstreamAssets().keySet())
+                    {
+                        levelRelationships.add(this.getLineageGraphRelationship(linkedAssetGUID,
+                                                                                currentAssetGUID,
+                                                                                visit.upstreamAssets().get(linkedAssetGUID)));
+
+                        if (! upstreamProcessedAssets.contains(linkedAssetGUID))
+                        {
+                            if (expandFrontier)
+                            {
+                                upstreamProcessedAssets.add(linkedAssetGUID);
+                                nextFrontier.add(new LineageFrontierEntry(linkedAssetGUID, 2));
+                            }
+                            else
+                            {
+                                completeGraph = false;
+                            }
+                        }
+                    }
+
+                    /*
+                     * Process downstream assets
+                     */
+                    for (String linkedAssetGUID : visit.downstreamAssets().keySet())
+                    {
+                        levelRelationships.add(this.getLineageGraphRelationship(currentAssetGUID,
+                                                                                linkedAssetGUID,
+                                                                                visit.downstreamAssets().get(linkedAssetGUID)));
+
+                        if (! downstreamProcessedAssets.contains(linkedAssetGUID))
+                        {
+                            if (expandFrontier)
+                            {
+                                downstreamProcessedAssets.add(linkedAssetGUID);
+                                nextFrontier.add(new LineageFrontierEntry(linkedAssetGUID, 1));
+                            }
+                            else
+                            {
+                                completeGraph = false;
+                            }
+                        }
+                    }
+                }
+            }
+
+            lineageRelationships.addAll(levelRelationships);
+
+            if ((traversalControl.getListener() != null) && ((! levelAssets.isEmpty()) || (! levelRelationships.isEmpty())))
+            {
+                traversalControl.getListener().processLineageLevel(depth, new ArrayList<>(levelAssets.values()), levelRelationships);
+            }
+
+            frontier = this.limitLineageFrontier(nextFrontier, linkedAssets, traversalControl.getMaxNodes());
+
+            if (frontier.size() < nextFrontier.size())
+            {
+                completeGraph = false;
+            }
+
+            depth ++;
+        }
 
         if (! linkedAssets.isEmpty())
         {
-            AssetLineageGraph assetLineageGraph = new AssetLineageGraph(linkedAssets.get(0));
+            List<AssetLineageGraphNode> assetNodes        = new ArrayList<>(linkedAssets.values());
+            AssetLineageGraph           assetLineageGraph = new AssetLineageGraph(assetNodes.get(0));
 
-            if (linkedAssets.size() > 1)
+            if (assetNodes.size() > 1)
             {
-                assetLineageGraph.setLinkedAssets(new ArrayList<>(linkedAssets.subList(1, linkedAssets.size())));
+                assetLineageGraph.setLinkedAssets(new ArrayList<>(assetNodes.subList(1, assetNodes.size())));
+            }
+
+            /*
+             * If the graph was cut short, the relationships to assets that were not retrieved are left out.
+             * They are still listed in the upstream and downstream relationships of the asset at the other end.
+             */
+            if (! completeGraph)
+            {
+                lineageRelationships.removeIf(lineageRelationship -> (! linkedAssets.containsKey(lineageRelationship.getEnd1AssetGUID())) ||
+                                                                     (! linkedAssets.containsKey(lineageRelationship.getEnd2AssetGUID())));
             }
 
             assetLineageGraph.setLineageRelationships(this.deDupLineageRelationships(lineageRelationships));
@@ -3643,236 +3851,652 @@ public class AssetHandler extends OpenMetadataHandlerBase
 
 
     /**
-     * Retrieve the asset and its lineage relationships.
+     * An asset waiting to be retrieved in the next level of the lineage graph.
+     *
+     * @param assetGUID unique identifier of the asset
+     * @param direction is this asset upstream (2) or downstream (1) of the starting asset (or either direction, 0, to start)
+     */
+    record LineageFrontierEntry(String assetGUID,
+                                int    direction)
+    {}
+
+
+    /**
+     * An asset retrieved in a level of the lineage graph, along with the assets it is linked to.
+     *
+     * @param asset asset lineage node
+     * @param upstreamAssets assets that are upstream of this asset
+     * @param downstreamAssets assets that are downstream of this asset
+     */
+    record LineageVisit(AssetLineageGraphNode    asset,
+                        Map<String, LineageLink> upstreamAssets,
+                        Map<String, LineageLink> downstreamAssets)
+    {}
+
+
+    /**
+     * A retrieval step for a level of the lineage graph.  The steps for a level are independent of one another
+     * and store their results in concurrent maps, so they can be run in parallel.
+     */
+    @FunctionalInterface
+    private interface LineageFetch
+    {
+        /**
+         * Retrieve the information and store it.
+         *
+         * @throws InvalidParameterException invalid parameter - not expected
+         * @throws PropertyServerException problem accessing the repository
+         * @throws UserNotAuthorizedException security problem
+         */
+        void fetch() throws InvalidParameterException,
+                            PropertyServerException,
+                            UserNotAuthorizedException;
+    }
+
+
+    /**
+     * Return the description of the calling user and the options that affect the content of the lineage cache.
      *
      * @param userId calling user
-     * @param elementGUID unique identifier of the asset
      * @param allAnchors should anchored elements be included
-     * @param direction is this asset upstream or downstream of the asset (or either direction, 0, to start)
+     * @param limitToInformationSupplyChain qualified name to control retrieval
+     * @param queryOptions options for the query
+     * @return cache scope
+     */
+    private String getLineageCacheScope(String       userId,
+                                        boolean      allAnchors,
+                                        String       limitToInformationSupplyChain,
+                                        QueryOptions queryOptions)
+    {
+        return userId + ":" +
+                allAnchors + ":" +
+                limitToInformationSupplyChain + ":" +
+                queryOptions.getIncludeOnlyRelationships() + ":" +
+                queryOptions.getMetadataElementTypeName() + ":" +
+                queryOptions.getGraphQueryDepth() + ":" +
+                queryOptions.getRelationshipsPageSize() + ":" +
+                queryOptions.getPageSize() + ":" +
+                queryOptions.getSkipRelationships() + ":" +
+                queryOptions.getLimitResultsByStatus() + ":" +
+                queryOptions.getSkipClassifiedElements() + ":" +
+                queryOptions.getIncludeOnlyClassifiedElements() + ":" +
+                (queryOptions.getAsOfTime() == null ? null : queryOptions.getAsOfTime().getTime()) + ":" +
+                queryOptions.getForLineage() + ":" +
+                queryOptions.getForDuplicateProcessing();
+    }
+
+
+    /**
+     * Return the assets in a level of the lineage graph along with the assets they are linked to.  The assets
+     * held in the lineage cache (if there is one) are taken from the cache.  The rest are retrieved from the
+     * metadata server and added to the cache.
+     *
+     * @param userId calling user
+     * @param frontier assets to retrieve
+     * @param allAnchors should anchored elements be included
      * @param lineageRelationshipTypeNames list of requested type names
      * @param limitToInformationSupplyChain qualified name to control retrieval
      * @param queryOptions options for the query
-     * @param linkedAssets set of assets that are upstream of this asset
-     * @param lineageRelationships relationships that link the assets together in the lineage graph
-     * @param upstreamProcessedAssets list of assets covered so far upstream of the asset
-     * @param downstreamProcessedAssets list of assets covered so far downstream of the asset
+     * @param traversalControl limits and options for the traversal
+     * @param cacheScope description of the calling user and the options that affect the content of the lineage cache
+     * @param methodName calling method
+     * @return map of frontier entry to the retrieved asset and the assets it is linked to, or null if the traversal is cancelled
      * @throws InvalidParameterException invalid parameter - not expected
      * @throws PropertyServerException problem accessing the repository
      * @throws UserNotAuthorizedException security problem
      */
-    void getAssetLineageGraphNodes(String                                                userId,
-                                   String                                                elementGUID,
-                                   boolean                                               allAnchors,
-                                   int                                                   direction,
-                                   List<String>                                          lineageRelationshipTypeNames,
-                                   String                                                limitToInformationSupplyChain,
-                                   QueryOptions                                          queryOptions,
-                                   List<AssetLineageGraphNode>                           linkedAssets,
-                                   List<AssetLineageGraphRelationship>                   lineageRelationships,
-                                   Set<String>                                           upstreamProcessedAssets,
-                                   Set<String>                                           downstreamProcessedAssets) throws InvalidParameterException,
-                                                                                                                           PropertyServerException,
-                                                                                                                           UserNotAuthorizedException
-    {
-        Map<String, LineageLink> upstreamAssets   = new HashMap<>();
-        Map<String, LineageLink> downstreamAssets = new HashMap<>();
-
-        AssetLineageGraphNode asset = this.getAssetLineageGraphNode(userId,
-                                                                    elementGUID,
-                                                                    allAnchors,
-                                                                    direction,
-                                                                    lineageRelationshipTypeNames,
-                                                                    limitToInformationSupplyChain,
-                                                                    queryOptions,
-                                                                    upstreamAssets,
-                                                                    downstreamAssets);
+    private Map<LineageFrontierEntry, LineageVisit> getLineageLevel(String                       userId,
+                                                                    List<LineageFrontierEntry>   frontier,
+                                                                    boolean                      allAnchors,
+                                                                    List<String>                 lineageRelationshipTypeNames,
+                                                                    String                       limitToInformationSupplyChain,
+                                                                    QueryOptions                 queryOptions,
+                                                                    AssetLineageTraversalControl traversalControl,
+                                                                    String                       cacheScope,
+                                                                    String                       methodName) throws InvalidParameterException,
+                                                                                                                    PropertyServerException,
+                                                                                                                    UserNotAuthorizedException
+    {
+        AssetLineageCache currentLineageCache = this.lineageCache;
+
+        if (currentLineageCache == null)
+        {
+            return this.retrieveLineageLevel(userId,
+                                             frontier,
+                                             allAnchors,
+                                             lineageRelationshipTypeNames,
+                                             limitToInformationSupplyChain,
+                                             queryOptions,
+                                             traversalControl,
+                                             methodName);
+        }
 
-        if (asset != null)
+        Map<LineageFrontierEntry, LineageVisit> visits           = new HashMap<>();
+        List<LineageFrontierEntry>              uncachedFrontier = new ArrayList<>();
+
+        for (LineageFrontierEntry frontierEntry : frontier)
+        {
+            LineageVisit visit = currentLineageCache.getLineageVisit(cacheScope,
+                                                                     queryOptions.getEffectiveTime(),
+                                                                     frontierEntry.assetGUID(),
+                                                                     frontierEntry.direction());
+
+            if (visit != null)
+            {
+                visits.put(frontierEntry, visit);
+            }
+            else
+            {
+                uncachedFrontier.add(frontierEntry);
+            }
+        }
+
+        if (! uncachedFrontier.isEmpty())
         {
-            if ((direction == 0) || (direction == 1))
+            Map<LineageFrontierEntry, LineageVisit> retrievedVisits = this.retrieveLineageLevel(userId,
+                                                                                                uncachedFrontier,
+                                                                                                allAnchors,
+                                                                                                lineageRelationshipTypeNames,
+                                                                                                limitToInformationSupplyChain,
+                                                                                                queryOptions,
+                                                                                                traversalControl,
+                                                                                                methodName);
+
+            if (retrievedVisits == null)
             {
-                downstreamProcessedAssets.add(asset.getElementHeader().getGUID());
+                return null;
             }
-            if ((direction == 0) || (direction == 2))
+
+            for (LineageFrontierEntry frontierEntry : retrievedVisits.keySet())
             {
-                upstreamProcessedAssets.add(asset.getElementHeader().getGUID());
+                LineageVisit visit = retrievedVisits.get(frontierEntry);
+
+                currentLineageCache.putLineageVisit(cacheScope, queryOptions.getEffectiveTime(), frontierEntry.direction(), visit);
+                visits.put(frontierEntry, visit);
             }
+        }
+
+        return visits;
+    }
+
+
+    /**
+     * Retrieve the assets in a level of the lineage graph along with their lineage relationships.  The assets
+     * are retrieved in batches, and the lineage relationships are retrieved in batches for each direction.  If
+     * the relationships of the anchored schema elements are requested, the schema elements are found for each
+     * asset, and then their lineage relationships are retrieved in batches.
+     *
+     * @param userId calling user
+     * @param frontier assets to retrieve
+     * @param allAnchors should anchored elements be included
+     * @param lineageRelationshipTypeNames list of requested type names
+     * @param limitToInformationSupplyChain qualified name to control retrieval
+     * @param queryOptions options for the query
+     * @param traversalControl limits and options for the traversal
+     * @param methodName calling method
+     * @return map of frontier entry to the retrieved asset and the assets it is linked to, or null if the traversal is cancelled
+     * @throws InvalidParameterException invalid parameter - not expected
+     * @throws PropertyServerException problem accessing the repository
+     * @throws UserNotAuthorizedException security problem
+     */
+    private Map<LineageFrontierEntry, LineageVisit> retrieveLineageLevel(String                       userId,
+                                                                         List<LineageFrontierEntry>   frontier,
+                                                                         boolean                      allAnchors,
+                                                                         List<String>                 lineageRelationshipTypeNames,
+                                                                         String                       limitToInformationSupplyChain,
+                                                                         QueryOptions                 queryOptions,
+                                                                         AssetLineageTraversalControl traversalControl,
+                                                                         String                       methodName) throws InvalidParameterException,
+                                                                                                                         PropertyServerException,
+                                                                                                                         UserNotAuthorizedException
+    {
+        Set<String>                                             assetGUIDs           = new LinkedHashSet<>();
+        Map<Integer, List<String>>                              directionAssetGUIDs  = new HashMap<>();
+        Map<String, OpenMetadataRootElement>                    assets               = new ConcurrentHashMap<>();
+        Map<LineageFrontierEntry, List<RelatedMetadataElement>> relationships        = new ConcurrentHashMap<>();
+        Map<String, List<String>>                               anchoredElementGUIDs = new ConcurrentHashMap<>();
+        List<LineageFetch>                                      fetches              = new ArrayList<>();
+
+        for (LineageFrontierEntry frontierEntry : frontier)
+        {
+            assetGUIDs.add(frontierEntry.assetGUID());
+            directionAssetGUIDs.computeIfAbsent(frontierEntry.direction(), k -> new ArrayList<>()).add(frontierEntry.assetGUID());
+        }
 
-            linkedAssets.add(asset);
+        /*
+         * The assets, their lineage relationships and their anchored schema elements are independent of one another.
+         */
+        for (List<String> assetGUIDBatch : this.getLineageBatches(new ArrayList<>(assetGUIDs), traversalControl.getBatchSize()))
+        {
+            fetches.add(() -> this.getLineageAssets(userId, assetGUIDBatch, queryOptions, assets, methodName));
+        }
 
+        for (Integer direction : directionAssetGUIDs.keySet())
+        {
+            for (List<String> assetGUIDBatch : this.getLineageBatches(directionAssetGUIDs.get(direction), traversalControl.getBatchSize()))
+            {
+                fetches.add(() -> this.getLineageRelationships(userId,
+                                                               assetGUIDBatch,
+                                                               direction,
+                                                               lineageRelationshipTypeNames,
+                                                               limitToInformationSupplyChain,
+                                                               queryOptions,
+                                                               relationships,
+                                                               methodName));
+            }
+        }
+
+        if (allAnchors)
+        {
+            for (String assetGUID : assetGUIDs)
+            {
+                fetches.add(() -> this.getLineageAnchoredElements(userId, assetGUID, queryOptions, anchoredElementGUIDs));
+            }
+        }
+
+        if (! this.runLineageFetches(fetches, traversalControl, methodName))
+        {
+            return null;
+        }
+
+        if (allAnchors)
+        {
             /*
-             * Process upstream assets
+             * The lineage relationships of the anchored schema elements are retrieved once the schema elements
+             * are known, and are then added to the relationships of their asset.
              */
-            for (String linkedAssetGUID : upstreamAssets.keySet())
-            {
-                AssetLineageGraphRelationship assetLineageGraphRelationship = new AssetLineageGraphRelationship();
+            Map<LineageFrontierEntry, List<RelatedMetadataElement>> anchoredRelationships = new ConcurrentHashMap<>();
+
+            fetches = new ArrayList<>();
 
-                LineageLink lineageLink = upstreamAssets.get(linkedAssetGUID);
+            for (Integer direction : directionAssetGUIDs.keySet())
+            {
+                List<String> schemaElementGUIDs = new ArrayList<>();
 
-                if (lineageLink != null)
+                for (String assetGUID : directionAssetGUIDs.get(direction))
                 {
-                    if (lineageLink.relationshipTypes != null)
+                    if (anchoredElementGUIDs.get(assetGUID) != null)
                     {
-                        assetLineageGraphRelationship.setRelationshipTypes(new ArrayList<>(lineageLink.relationshipTypes));
-                    }
-                    if (lineageLink.informationSupplyChains != null)
-                    {
-                        assetLineageGraphRelationship.setInformationSupplyChains(new ArrayList<>(lineageLink.informationSupplyChains));
+                        schemaElementGUIDs.addAll(anchoredElementGUIDs.get(assetGUID));
                     }
                 }
 
-                assetLineageGraphRelationship.setEnd1AssetGUID(linkedAssetGUID);
-                assetLineageGraphRelationship.setEnd2AssetGUID(asset.getElementHeader().getGUID());
-
-                lineageRelationships.add(assetLineageGraphRelationship);
-
-                if (! upstreamProcessedAssets.contains(linkedAssetGUID))
+                for (List<String> schemaElementGUIDBatch : this.getLineageBatches(schemaElementGUIDs, traversalControl.getBatchSize()))
                 {
-                    this.getAssetLineageGraphNodes(userId,
-                                                   linkedAssetGUID,
-                                                   allAnchors,
-                                                   2,
-                                                   lineageRelationshipTypeNames,
-                                                   limitToInformationSupplyChain,
-                                                   queryOptions,
-                                                   linkedAssets,
-                                                   lineageRelationships,
-                                                   upstreamProcessedAssets,
-                                                   downstreamProcessedAssets);
+                    fetches.add(() -> this.getLineageRelationships(userId,
+                                                                   schemaElementGUIDBatch,
+                                                                   direction,
+                                                                   lineageRelationshipTypeNames,
+                                                                   limitToInformationSupplyChain,
+                                                                   queryOptions,
+                                                                   anchoredRelationships,
+                                                                   methodName));
                 }
             }
 
-            /*
-             * Process downstream assets
-             */
-            for (String linkedAssetGUID : downstreamAssets.keySet())
+            if (! this.runLineageFetches(fetches, traversalControl, methodName))
             {
-                AssetLineageGraphRelationship assetLineageGraphRelationship = new AssetLineageGraphRelationship();
+                return null;
+            }
 
-                LineageLink lineageLink = downstreamAssets.get(linkedAssetGUID);
+            for (LineageFrontierEntry frontierEntry : frontier)
+            {
+                List<String> schemaElementGUIDs = anchoredElementGUIDs.get(frontierEntry.assetGUID());
 
-                if (lineageLink != null)
+                if (schemaElementGUIDs != null)
                 {
-                    if (lineageLink.relationshipTypes != null)
+                    for (String schemaElementGUID : schemaElementGUIDs)
                     {
-                        assetLineageGraphRelationship.setRelationshipTypes(new ArrayList<>(lineageLink.relationshipTypes));
-                    }
-                    if (lineageLink.informationSupplyChains != null)
-                    {
-                        assetLineageGraphRelationship.setInformationSupplyChains(new ArrayList<>(lineageLink.informationSupplyChains));
+                        List<RelatedMetadataElement> schemaRelationships = anchoredRelationships.get(new LineageFrontierEntry(schemaElementGUID,
+                                                                                                                              frontierEntry.direction()));
+
+                        if (schemaRelationships != null)
+                        {
+                            relationships.computeIfAbsent(frontierEntry, k -> new ArrayList<>()).addAll(schemaRelationships);
+                        }
                     }
                 }
+            }
+        }
 
-                assetLineageGraphRelationship.setEnd1AssetGUID(asset.getElementHeader().getGUID());
-                assetLineageGraphRelationship.setEnd2AssetGUID(linkedAssetGUID);
+        Map<LineageFrontierEntry, LineageVisit> visits = new HashMap<>();
 
-                lineageRelationships.add(assetLineageGraphRelationship);
+        for (LineageFrontierEntry frontierEntry : frontier)
+        {
+            OpenMetadataRootElement asset = assets.get(frontierEntry.assetGUID());
 
-                if (! downstreamProcessedAssets.contains(linkedAssetGUID))
-                {
-                    this.getAssetLineageGraphNodes(userId,
-                                                   linkedAssetGUID,
-                                                   allAnchors,
-                                                   1,
-                                                   lineageRelationshipTypeNames,
-                                                   limitToInformationSupplyChain,
-                                                   queryOptions,
-                                                   linkedAssets,
-                                                   lineageRelationships,
-                                                   upstreamProcessedAssets,
-                                                   downstreamProcessedAssets);
-                }
+            if (asset != null)
+            {
+                visits.put(frontierEntry, this.getLineageVisit(asset,
+                                                               relationships.get(frontierEntry),
+                                                               lineageRelationshipTypeNames));
             }
         }
-    }
 
+        return visits;
+    }
 
 
     /**
-     * Retrieve the asset and its lineage relationships.
+     * Run the retrieval steps for a level of the lineage graph.  If the traversal control has an executor, the
+     * steps are run in parallel, otherwise they are run one after another on the calling thread.  The
+     * traversal control is checked for cancellation between the steps.
      *
-     * @param userId calling user
-     * @param assetGUID unique identifier of the asset
-     * @param allAnchors
-     * @param direction is this asset upstream or downstream of the asset (or either direction, 0, to start)
-     * @param lineageRelationshipTypeNames list of requested type names
-     * @param limitToInformationSupplyChain qualified name to control retrieval
-     * @param queryOptions options for query
-     * @param upstreamAssets set of assets that are upstream of this asset
-     * @param downstreamAssets set of assets that are downstream of this asset
-     * @return asset lineage node
+     * @param fetches retrieval steps
+     * @param traversalControl limits and options for the traversal
+     * @param methodName calling method
+     * @return false if the traversal has been cancelled
      * @throws InvalidParameterException invalid parameter - not expected
      * @throws PropertyServerException problem accessing the repository
      * @throws UserNotAuthorizedException security problem
      */
-    AssetLineageGraphNode getAssetLineageGraphNode(String                    userId,
-                                                   String                    assetGUID,
-                                                   boolean                   allAnchors,
-                                                   int                       direction,
-                                                   List<String>              lineageRelationshipTypeNames,
-                                                   String                    limitToInformationSupplyChain,
-                                                   QueryOptions              queryOptions,
-                                                   Map<String, LineageLink>  upstreamAssets,
-                                                   Map<String, LineageLink>  downstreamAssets) throws InvalidParameterException,
-                                                                                                      PropertyServerException,
-                                                                                                      UserNotAuthorizedException
+    private boolean runLineageFetches(List<LineageFetch>           fetches,
+                                      AssetLineageTraversalControl traversalControl,
+                                      String                       methodName) throws InvalidParameterException,
+                                                                                      PropertyServerException,
+                                                                                      UserNotAuthorizedException
     {
-        OpenMetadataRootElement asset = this.getAssetByGUID(userId, assetGUID, queryOptions);
+        ExecutorService executorService = traversalControl.getFetchExecutor();
 
-        if (asset != null)
+        if ((executorService == null) || (fetches.size() < 2))
         {
-            AssetLineageGraphNode assetLineageGraphNode = new AssetLineageGraphNode(asset);
+            for (LineageFetch fetch : fetches)
+            {
+                if (traversalControl.isCancelled())
+                {
+                    return false;
+                }
 
-            /*
-             * Retrieve all the lineage relationships for the asset.
-             */
-            List<RelatedMetadataNodeSummary> relationships = this.getAssetLineageRelationships(userId,
-                                                                                               asset.getElementHeader().getGUID(),
-                                                                                               allAnchors,
-                                                                                               direction,
-                                                                                               lineageRelationshipTypeNames,
-                                                                                               limitToInformationSupplyChain,
-                                                                                               queryOptions);
-
-            if (relationships != null)
+                fetch.fetch();
+            }
+
+            return ! traversalControl.isCancelled();
+        }
+
+        List<Future<Void>> futures = new ArrayList<>();
+
+        try
+        {
+            for (LineageFetch fetch : fetches)
             {
-                List<RelatedMetadataNodeSummary> upstreamRelationships   = new ArrayList<>();
-                List<RelatedMetadataNodeSummary> downstreamRelationships = new ArrayList<>();
-                List<RelatedMetadataNodeSummary> internalRelationship    = new ArrayList<>();
+                futures.add(executorService.submit(() ->
+                                                   {
+                                                       fetch.fetch();
+                                                       return null;
+                                                   }));
+            }
 
-                for (RelatedMetadataNodeSummary relationship : relationships)
+            for (Future<Void> future : futures)
+            {
+                if (traversalControl.isCancelled())
                 {
-                    if (relationship != null)
+                    break;
+                }
+
+                future.get();
+            }
+        }
+        catch (InterruptedException interrupted)
+        {
+            Thread.currentThread().interrupt();
+            traversalControl.cancel();
+        }
+        catch (ExecutionException error)
+        {
+            Throwable cause = error.getCause();
+
+            if (cause instanceof InvalidParameterException invalidParameterException)
+            {
+                throw invalidParameterException;
+            }
+            if (cause instanceof PropertyServerException propertyServerException)
+            {
+                throw propertyServerException;
+            }
+            if (cause instanceof UserNotAuthorizedException userNotAuthorizedException)
+            {
+                throw userNotAuthorizedException;
+            }
+            if (cause instanceof Exception exception)
+            {
+                throw new PropertyServerException(OMFErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(exception.getClass().getName(),
+                                                                                                         localServiceName,
+                                                                                                         methodName,
+                                                                                                         exception.getMessage()),
+                                                  this.getClass().getName(),
+                                                  methodName,
+                                                  exception);
+            }
+
+            throw (Error) cause;
+        }
+        finally
+        {
+            for (Future<Void> future : futures)
+            {
+                future.cancel(true);
+            }
+        }
+
+        return ! traversalControl.isCancelled();
+    }
+
+
+    /**
+     * Split a list of unique identifiers into batches.
+     *
+     * @param guids unique identifiers
+     * @param batchSize maximum number of identifiers in a batch
+     * @return list of batches
+     */
+    private List<List<String>> getLineageBatches(List<String> guids,
+                                                 int          batchSize)
+    {
+        List<List<String>> batches = new ArrayList<>();
+
+        for (int startFrom = 0; startFrom < guids.size(); startFrom = startFrom + batchSize)
+        {
+            batches.add(new ArrayList<>(guids.subList(startFrom, Math.min(startFrom + batchSize, guids.size()))));
+        }
+
+        return batches;
+    }
+
+
+    /**
+     * Add an asset to the lineage graph.  An asset that is both upstream and downstream of the starting asset
+     * is retrieved twice, once in each direction, and the relationships from the second retrieval are added to
+     * the asset already in the graph.
+     *
+     * @param linkedAssets assets in the graph so far, mapped from their unique identifier
+     * @param asset asset lineage node
+     * @param maxNodes maximum number of assets in the graph (0 for no limit)
+     * @return the asset in the graph or null if the graph is full
+     */
+    private AssetLineageGraphNode addLineageGraphNode(Map<String, AssetLineageGraphNode> linkedAssets,
+                                                      AssetLineageGraphNode              asset,
+                                                      int                                maxNodes)
+    {
+        String                assetGUID     = asset.getElementHeader().getGUID();
+        AssetLineageGraphNode existingAsset = linkedAssets.get(assetGUID);
+
+        if (existingAsset == null)
+        {
+            if ((maxNodes > 0) && (linkedAssets.size() >= maxNodes))
+            {
+                return null;
+            }
+
+            linkedAssets.put(assetGUID, asset);
+
+            return asset;
+        }
+
+        existingAsset.setUpstreamRelationships(this.mergeLineageRelationships(existingAsset.getUpstreamRelationships(),
+                                                                              asset.getUpstreamRelationships()));
+        existingAsset.setDownstreamRelationships(this.mergeLineageRelationships(existingAsset.getDownstreamRelationships(),
+                                                                                asset.getDownstreamRelationships()));
+        existingAsset.setInternalRelationships(this.mergeLineageRelationships(existingAsset.getInternalRelationships(),
+                                                                              asset.getInternalRelationships()));
+
+        return existingAsset;
+    }
+
+
+    /**
+     * Combine two lists of relationships for the same asset.
+     *
+     * @param currentRelationships relationships already recorded
+     * @param newRelationships relationships from a later retrieval
+     * @return combined list (or null if both are null)
+     */
+    private List<RelatedMetadataNodeSummary> mergeLineageRelationships(List<RelatedMetadataNodeSummary> currentRelationships,
+                                                                       List<RelatedMetadataNodeSummary> newRelationships)
+    {
+        if (newRelationships == null)
+        {
+            return currentRelationships;
+        }
+        if (currentRelationships == null)
+        {
+            return newRelationships;
+        }
+
+        List<RelatedMetadataNodeSummary> mergedRelationships = new ArrayList<>(currentRelationships);
+
+        mergedRelationships.addAll(newRelationships);
+
+        return mergedRelationships;
+    }
+
+
+    /**
+     * Create the relationship between two assets in the lineage graph.
+     *
+     * @param end1AssetGUID upstream asset
+     * @param end2AssetGUID downstream asset
+     * @param lineageLink relationship types and information supply chains linking the assets
+     * @return lineage graph relationship
+     */
+    private AssetLineageGraphRelationship getLineageGraphRelationship(String      end1AssetGUID,
+                                                                      String      end2AssetGUID,
+                                                                      LineageLink lineageLink)
+    {
+        AssetLineageGraphRelationship assetLineageGraphRelationship = new AssetLineageGraphRelationship();
+
+        if (lineageLink != null)
+        {
+            if (lineageLink.relationshipTypes != null)
+            {
+                assetLineageGraphRelationship.setRelationshipTypes(new ArrayList<>(lineageLink.relationshipTypes));
+            }
+            if (lineageLink.informationSupplyChains != null)
+            {
+                assetLineageGraphRelationship.setInformationSupplyChains(new ArrayList<>(lineageLink.informationSupplyChains));
+            }
+        }
+
+        assetLineageGraphRelationship.setEnd1AssetGUID(end1AssetGUID);
+        assetLineageGraphRelationship.setEnd2AssetGUID(end2AssetGUID);
+
+        return assetLineageGraphRelationship;
+    }
+
+
+    /**
+     * Remove the entries from the next level of the lineage graph that would take the graph over its maximum
+     * number of assets.  Entries for assets that are already in the graph are kept since they only add
+     * relationships.
+     *
+     * @param nextFrontier assets found in the current level
+     * @param linkedAssets assets in the graph so far, mapped from their unique identifier
+     * @param maxNodes maximum number of assets in the graph (0 for no limit)
+     * @return assets to retrieve in the next level
+     */
+    private List<LineageFrontierEntry> limitLineageFrontier(List<LineageFrontierEntry>         nextFrontier,
+                                                            Map<String, AssetLineageGraphNode> linkedAssets,
+                                                            int                                maxNodes)
+    {
+        if (maxNodes <= 0)
+        {
+            return nextFrontier;
+        }
+
+        List<LineageFrontierEntry> frontier      = new ArrayList<>();
+        Set<String>                newAssetGUIDs = new HashSet<>();
+
+        for (LineageFrontierEntry frontierEntry : nextFrontier)
+        {
+            if ((linkedAssets.containsKey(frontierEntry.assetGUID())) ||
+                    (newAssetGUIDs.contains(frontierEntry.assetGUID())) ||
+                    (linkedAssets.size() + newAssetGUIDs.size() < maxNodes))
+            {
+                if (! linkedAssets.containsKey(frontierEntry.assetGUID()))
+                {
+                    newAssetGUIDs.add(frontierEntry.assetGUID());
+                }
+
+                frontier.add(frontierEntry);
+            }
+        }
+
+        return frontier;
+    }
+
+
+    /**
+     * Build the lineage node for an asset from its lineage relationships.
+     *
+     * @param asset retrieved asset
+     * @param relationships lineage relationships retrieved for the asset and its anchored schema elements (may be null)
+     * @param lineageRelationshipTypeNames list of requested type names
+     * @return asset lineage node and the assets it is linked to
+     */
+    private LineageVisit getLineageVisit(OpenMetadataRootElement      asset,
+                                         List<RelatedMetadataElement> relationships,
+                                         List<String>                 lineageRelationshipTypeNames)
+    {
+        String                   assetGUID             = asset.getElementHeader().getGUID();
+        AssetLineageGraphNode    assetLineageGraphNode = new AssetLineageGraphNode(asset);
+        Map<String, LineageLink> upstreamAssets        = new HashMap<>();
+        Map<String, LineageLink> downstreamAssets      = new HashMap<>();
+
+        if ((relationships != null) && (! relationships.isEmpty()))
+        {
+            List<RelatedMetadataNodeSummary> upstreamRelationships   = new ArrayList<>();
+            List<RelatedMetadataNodeSummary> downstreamRelationships = new ArrayList<>();
+            List<RelatedMetadataNodeSummary> internalRelationship    = new ArrayList<>();
+
+            for (RelatedMetadataNodeSummary relationship : propertyHelper.getRelatedNodeSummaries(assetGUID, relationships))
+            {
+                if (relationship != null)
+                {
+                    if (lineageRelationshipTypeNames.contains(relationship.getRelationshipHeader().getType().getTypeName()))
                     {
-                        if (lineageRelationshipTypeNames.contains(relationship.getRelationshipHeader().getType().getTypeName()))
+                        if (! assetGUID.equals(relationship.getStartingElementGUID()))
                         {
-                            if (! assetGUID.equals(relationship.getStartingElementGUID()))
-                            {
-                                internalRelationship.add(relationship);
-                            }
-                            else if (relationship.getRelatedElementAtEnd1())
-                            {
-                                // Upstream asset
-                                setupLineageAsset(relationship, upstreamAssets, upstreamRelationships);
-                            }
-                            else
-                            {
-                                // Downstream asset
-                                setupLineageAsset(relationship, downstreamAssets, downstreamRelationships);
-                            }
+                            internalRelationship.add(relationship);
+                        }
+                        else if (relationship.getRelatedElementAtEnd1())
+                        {
+                            // Upstream asset
+                            setupLineageAsset(relationship, upstreamAssets, upstreamRelationships);
+                        }
+                        else
+                        {
+                            // Downstream asset
+                            setupLineageAsset(relationship, downstreamAssets, downstreamRelationships);
                         }
                     }
                 }
-
-                assetLineageGraphNode.setUpstreamRelationships(upstreamRelationships);
-                assetLineageGraphNode.setDownstreamRelationships(downstreamRelationships);
-                assetLineageGraphNode.setInternalRelationships(internalRelationship);
             }
 
-            return assetLineageGraphNode;
+            assetLineageGraphNode.setUpstreamRelationships(upstreamRelationships);
+            assetLineageGraphNode.setDownstreamRelationships(downstreamRelationships);
+            assetLineageGraphNode.setInternalRelationships(internalRelationship);
         }
 
-        return null;
+        return new LineageVisit(assetLineageGraphNode, upstreamAssets, downstreamAssets);
     }
 
 
@@ -3961,157 +4585,183 @@ public class AssetHandler extends OpenMetadataHandlerBase
 
 
     /**
-     * Retrieve all the relevant lineage relationships for an asset.  This considers relationships from the
-     * asst itself and any of its schema elements.
+     * Retrieve a batch of assets for the lineage graph.  Each asset carries its mermaid diagrams, as it did when
+     * the assets were retrieved one at a time, unless the caller has set skipListMermaidDiagrams.
      *
      * @param userId calling user
-     * @param assetGUID unique identifier of the asset
-     * @param direction is this asset upstream or downstream of the asset (or either direction, 0, to start)
-     * @param allAnchors Return whether all anchored elements should be returned, or just the ones that are connected to the asset.
-     * @param lineageRelationshipTypeNames list of requested type names
-     * @param limitToInformationSupplyChain qualified name to control retrieval
+     * @param assetGUIDs unique identifiers of the assets
      * @param queryOptions options for the query
-     * @return list for relationships - may be empty
+     * @param assets map to store the retrieved assets, mapped from their unique identifier
+     * @param methodName calling method
      * @throws InvalidParameterException invalid parameter - not expected
      * @throws PropertyServerException problem accessing the repository
      * @throws UserNotAuthorizedException security problem
      */
-    private List<RelatedMetadataNodeSummary> getAssetLineageRelationships(String       userId,
-                                                                          String       assetGUID,
-                                                                          boolean      allAnchors,
-                                                                          int          direction,
-                                                                          List<String> lineageRelationshipTypeNames,
-                                                                          String       limitToInformationSupplyChain,
-                                                                          QueryOptions queryOptions) throws InvalidParameterException,
-                                                                                                            PropertyServerException,
-                                                                                                            UserNotAuthorizedException
+    private void getLineageAssets(String                               userId,
+                                  List<String>                         assetGUIDs,
+                                  QueryOptions                         queryOptions,
+                                  Map<String, OpenMetadataRootElement> assets,
+                                  String                               methodName) throws InvalidParameterException,
+                                                                                          PropertyServerException,
+                                                                                          UserNotAuthorizedException
     {
-        List<RelatedMetadataNodeSummary> lineageRelationships = new ArrayList<>();
+        List<OpenMetadataRootElement> retrievedAssets = super.getRootElementsByGUIDs(userId, assetGUIDs, queryOptions, methodName);
 
-       /*
-        * Begin by retrieving all the relationships for the asset and filtering out the lineage relationships.
-        */
-        List<RelatedMetadataElement> assetRelationships = this.getLineageRelationshipsForElement(userId,
-                                                                                                 assetGUID,
-                                                                                                 direction,
-                                                                                                 lineageRelationshipTypeNames,
-                                                                                                 limitToInformationSupplyChain,
-                                                                                                 queryOptions);
-
-        if (assetRelationships != null)
+        if (retrievedAssets != null)
         {
-            lineageRelationships.addAll(propertyHelper.getRelatedNodeSummaries(assetGUID, assetRelationships));
+            for (OpenMetadataRootElement asset : retrievedAssets)
+            {
+                if ((asset != null) && (asset.getElementHeader() != null))
+                {
+                    assets.put(asset.getElementHeader().getGUID(), asset);
+                }
+            }
         }
+    }
 
-        if (allAnchors)
-        {
-            /*
-             * Now find the SchemaElements that belong to the asset.
-             */
-            SearchClassifications         searchClassifications    = new SearchClassifications();
-            List<ClassificationCondition> classificationConditions = new ArrayList<>();
-            ClassificationCondition       classificationCondition  = new ClassificationCondition();
-            SearchProperties              searchProperties         = new SearchProperties();
-            List<PropertyCondition>       propertyConditions       = new ArrayList<>();
-            PropertyCondition             propertyCondition        = new PropertyCondition();
-            PrimitiveTypePropertyValue    primitivePropertyValue   = new PrimitiveTypePropertyValue();
-
-            primitivePropertyValue.setPrimitiveTypeCategory(PrimitiveTypeCategory.OM_PRIMITIVE_TYPE_STRING);
-            primitivePropertyValue.setPrimitiveValue(assetGUID);
-            primitivePropertyValue.setTypeName(PrimitiveTypeCategory.OM_PRIMITIVE_TYPE_STRING.getDisplayName());
-
-            propertyCondition.setProperty(OpenMetadataProperty.ANCHOR_GUID.name);
-            propertyCondition.setOperator(PropertyComparisonOperator.EQ);
-            propertyCondition.setValue(primitivePropertyValue);
-            propertyConditions.add(propertyCondition);
-            searchProperties.setMatchCriteria(MatchCriteria.ALL);
-            searchProperties.setConditions(propertyConditions);
-
-            classificationCondition.setName(OpenMetadataType.ANCHORS_CLASSIFICATION.typeName);
-            classificationCondition.setSearchProperties(searchProperties);
-            classificationConditions.add(classificationCondition);
-            searchClassifications.setMatchCriteria(MatchCriteria.ALL);
-            searchClassifications.setConditions(classificationConditions);
-
-            QueryOptions schemaQueryOptions = new QueryOptions(queryOptions);
-
-            schemaQueryOptions.setMetadataElementTypeName(OpenMetadataType.SCHEMA_ELEMENT.typeName);
-
-            List<OpenMetadataElement> anchoredElements = openMetadataClient.findMetadataElements(userId,
-                                                                                                 null,
-                                                                                                 searchClassifications,
-                                                                                                 schemaQueryOptions);
 
-            /*
-             * For each schema element in the asset, retrieve its lineage relationships
-             */
-            if (anchoredElements != null)
+    /**
+     * Retrieve the lineage relationships for a batch of elements with a single request.
+     *
+     * @param userId calling user
+     * @param elementGUIDs starting elements
+     * @param direction is this asset upstream or downstream of the asset (or either direction, 0, to start)
+     * @param lineageRelationshipTypeNames list of requested type names
+     * @param limitToInformationSupplyChain qualified name to control retrieval
+     * @param queryOptions options for the query
+     * @param lineageRelationships map to store the relationships, mapped from the starting element and direction
+     * @param methodName calling method
+     * @throws InvalidParameterException invalid parameter - not expected
+     * @throws PropertyServerException problem accessing the repository
+     * @throws UserNotAuthorizedException security problem
+     */
+    private void getLineageRelationships(String                                                  userId,
+                                         List<String>                                            elementGUIDs,
+                                         int                                                     direction,
+                                         List<String>                                            lineageRelationshipTypeNames,
+                                         String                                                  limitToInformationSupplyChain,
+                                         QueryOptions                                            queryOptions,
+                                         Map<LineageFrontierEntry, List<RelatedMetadataElement>> lineageRelationships,
+                                         String                                                  methodName) throws InvalidParameterException,
+                                                                                                                    PropertyServerException,
+                                                                                                                    UserNotAuthorizedException
+    {
+        List<RelatedMetadataElementList> relatedMetadataElementLists = openMetadataClient.getRelatedMetadataElements(userId,
+                                                                                                                     elementGUIDs,
+                                                                                                                     direction,
+                                                                                                                     null,
+                                                                                                                     queryOptions);
+
+        if (relatedMetadataElementLists != null)
+        {
+            for (RelatedMetadataElementList relatedMetadataElementList : relatedMetadataElementLists)
             {
-                for (OpenMetadataElement anchoredElement : anchoredElements)
+                if ((relatedMetadataElementList != null) && (relatedMetadataElementList.getStartingElement() != null))
                 {
-                    List<RelatedMetadataElement> schemaRelationships = this.getLineageRelationshipsForElement(userId,
-                                                                                                              anchoredElement.getElementGUID(),
-                                                                                                              direction,
-                                                                                                              lineageRelationshipTypeNames,
-                                                                                                              limitToInformationSupplyChain,
-                                                                                                              queryOptions);
-
-                    if (schemaRelationships != null)
+                    List<RelatedMetadataElement> relationships = this.filterLineageRelationships(relatedMetadataElementList.getElementList(),
+                                                                                                 lineageRelationshipTypeNames,
+                                                                                                 limitToInformationSupplyChain,
+                                                                                                 methodName);
+
+                    if (! relationships.isEmpty())
                     {
-                        lineageRelationships.addAll(propertyHelper.getRelatedNodeSummaries(assetGUID, schemaRelationships));
+                        lineageRelationships.put(new LineageFrontierEntry(relatedMetadataElementList.getStartingElement().getElementGUID(), direction),
+                                                 relationships);
                     }
                 }
             }
         }
-
-        if (! lineageRelationships.isEmpty())
-        {
-            return lineageRelationships;
-        }
-
-        return null;
     }
 
 
     /**
-     * Return the lineage relationships for a particular element.
+     * Find the schema elements that are anchored to an asset.
      *
      * @param userId calling user
-     * @param elementGUID starting element
-     * @param direction is this asset upstream or downstream of the asset (or either direction, 0, to start)
-     * @param lineageRelationshipTypeNames list of requested type names
-     * @param limitToInformationSupplyChain qualified name to control retrieval
+     * @param assetGUID unique identifier of the asset
      * @param queryOptions options for the query
-     * @return list for relationships - may be empty
+     * @param anchoredElementGUIDs map to store the unique identifiers of the schema elements, mapped from the asset
      * @throws InvalidParameterException invalid parameter - not expected
      * @throws PropertyServerException problem accessing the repository
      * @throws UserNotAuthorizedException security problem
      */
-    List<RelatedMetadataElement> getLineageRelationshipsForElement(String       userId,
-                                                                   String       elementGUID,
-                                                                   int          direction,
-                                                                   List<String> lineageRelationshipTypeNames,
-                                                                   String       limitToInformationSupplyChain,
-                                                                   QueryOptions queryOptions) throws InvalidParameterException,
-                                                                                                         PropertyServerException,
-                                                                                                         UserNotAuthorizedException
+    private void getLineageAnchoredElements(String                    userId,
+                                            String                    assetGUID,
+                                            QueryOptions              queryOptions,
+                                            Map<String, List<String>> anchoredElementGUIDs) throws InvalidParameterException,
+                                                                                                   PropertyServerException,
+                                                                                                   UserNotAuthorizedException
     {
-        final String methodName = "getLineageRelationshipsForElement";
+        SearchClassifications         searchClassifications    = new SearchClassifications();
+        List<ClassificationCondition> classificationConditions = new ArrayList<>();
+        ClassificationCondition       classificationCondition  = new ClassificationCondition();
+        SearchProperties              searchProperties         = new SearchProperties();
+        List<PropertyCondition>       propertyConditions       = new ArrayList<>();
+        PropertyCondition             propertyCondition        = new PropertyCondition();
+        PrimitiveTypePropertyValue    primitivePropertyValue   = new PrimitiveTypePropertyValue();
+
+        primitivePropertyValue.setPrimitiveTypeCategory(PrimitiveTypeCategory.OM_PRIMITIVE_TYPE_STRING);
+        primitivePropertyValue.setPrimitiveValue(assetGUID);
+        primitivePropertyValue.setTypeName(PrimitiveTypeCategory.OM_PRIMITIVE_TYPE_STRING.getDisplayName());
+
+        propertyCondition.setProperty(OpenMetadataProperty.ANCHOR_GUID.name);
+        propertyCondition.setOperator(PropertyComparisonOperator.EQ);
+        propertyCondition.setValue(primitivePropertyValue);
+        propertyConditions.add(propertyCondition);
+        searchProperties.setMatchCriteria(MatchCriteria.ALL);
+        searchProperties.setConditions(propertyConditions);
+
+        classificationCondition.setName(OpenMetadataType.ANCHORS_CLASSIFICATION.typeName);
+        classificationCondition.setSearchProperties(searchProperties);
+        classificationConditions.add(classificationCondition);
+        searchClassifications.setMatchCriteria(MatchCriteria.ALL);
+        searchClassifications.setConditions(classificationConditions);
+
+        QueryOptions schemaQueryOptions = new QueryOptions(queryOptions);
+
+        schemaQueryOptions.setMetadataElementTypeName(OpenMetadataType.SCHEMA_ELEMENT.typeName);
+
+        List<OpenMetadataElement> anchoredElements = openMetadataClient.findMetadataElements(userId,
+                                                                                             null,
+                                                                                             searchClassifications,
+                                                                                             schemaQueryOptions);
+
+        if (anchoredElements != null)
+        {
+            List<String> schemaElementGUIDs = new ArrayList<>();
 
-        List<RelatedMetadataElement> lineageRelationships = new ArrayList<>();
+            for (OpenMetadataElement anchoredElement : anchoredElements)
+            {
+                if (anchoredElement != null)
+                {
+                    schemaElementGUIDs.add(anchoredElement.getElementGUID());
+                }
+            }
 
-        /*
-         * Begin by retrieving all the relationships for the asset and filtering out the lineage relationships.
-         */
-        RelatedMetadataElementList relationships = openMetadataClient.getRelatedMetadataElements(userId,
-                                                                                                 elementGUID,
-                                                                                                 direction,
-                                                                                                 null,
-                                                                                                 queryOptions);
+            anchoredElementGUIDs.put(assetGUID, schemaElementGUIDs);
+        }
+    }
+
+
+    /**
+     * Select the lineage relationships from the relationships retrieved for an element.
+     *
+     * @param relationships relationships retrieved for the element (may be null)
+     * @param lineageRelationshipTypeNames list of requested type names
+     * @param limitToInformationSupplyChain qualified name to control retrieval
+     * @param methodName calling method
+     * @return list for relationships - may be empty
+     */
+    private List<RelatedMetadataElement> filterLineageRelationships(List<RelatedMetadataElement> relationships,
+                                                                    List<String>                 lineageRelationshipTypeNames,
+                                                                    String                       limitToInformationSupplyChain,
+                                                                    String                       methodName)
+    {
+        List<RelatedMetadataElement> lineageRelationships = new ArrayList<>();
 
-        if ((relationships != null) && (relationships.getElementList() != null))
+        if (relationships != null)
         {
-            for (RelatedMetadataElement relationship : relationships.getElementList())
+            for (RelatedMetadataElement relationship : relationships)
             {
                 if ((relationship != null) &&
                         (lineageRelationshipTypeNames.contains(relationship.getType().getTypeName())))
@@ -0,0 +1,421 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.frameworks.openmetadata.handlers;
+
+import org.odpi.openmetadata.frameworks.openmetadata.events.OpenMetadataEventListener;
+import org.odpi.openmetadata.frameworks.openmetadata.events.OpenMetadataOutTopicEvent;
+import org.odpi.openmetadata.frameworks.openmetadata.metadataelements.AssetLineageGraphNode;
+import org.odpi.openmetadata.frameworks.openmetadata.metadataelements.ElementHeader;
+import org.odpi.openmetadata.frameworks.openmetadata.search.PropertyHelper;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * AssetLineageCache holds the lineage adjacency of the assets retrieved by AssetHandler.getAssetLineageGraph.
+ * Each entry is one asset in one direction (upstream, downstream or both): the asset, its lineage relationships
+ * and the assets at the other end of these relationships.  A lineage graph that has been retrieved before can
+ * then be rebuilt from the cache without calling the metadata server.
+ * <br><br>
+ * An entry is stored under the asset's unique identifier, the direction, an effective time bucket and the calling
+ * user and query options.  The effective time is rounded down to the bucket width, so requests for the current
+ * time share entries until the bucket changes.
+ * <br><br>
+ * The cache is an OpenMetadataEventListener.  When it is registered with the out topic of the metadata server,
+ * each change to an element removes the entries for that element and for its anchor.  Each change to a
+ * relationship removes the entries for the elements at either end (and their anchors).  Entries that mention
+ * one of these elements as a linked asset are removed too.  Entries also expire after a time-to-live, so
+ * changes that are missed (or do not produce an event, such as a relationship becoming effective) are
+ * picked up eventually.
+ * <br><br>
+ * The size of the cache is measured in relationships, as a proxy for the memory used.  Each entry weighs one
+ * plus the number of lineage relationships it holds.  When the cache is over its maximum weight, the least
+ * recently used entries are discarded.
+ */
+public class AssetLineageCache implements OpenMetadataEventListener
+{
+    /**
+     * Default maximum weight (number of entries plus the number of relationships they hold).
+     */
+    public static final long DEFAULT_MAXIMUM_WEIGHT        = 200000L;
+
+    /**
+     * Default time in milliseconds that an entry is kept in the cache.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE          = 600000L;
+
+    /**
+     * Default width in milliseconds of an effective time bucket.
+     */
+    public static final long DEFAULT_EFFECTIVE_TIME_BUCKET = 60000L;
+
+    private final long                         maximumWeight;
+    private final long                         timeToLive;
+    private final long                         effectiveTimeBucket;
+    private final Map<String, CachedVisit>     visits         = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Set<String>>     elementIndex   = new HashMap<>();
+    private final PropertyHelper               propertyHelper = new PropertyHelper();
+    private long                               totalWeight    = 0L;
+    private long                               hitCount       = 0L;
+    private long                               missCount      = 0L;
+
+
+    /**
+     * Create a cache with the default settings.
+     */
+    public AssetLineageCache()
+    {
+        this(DEFAULT_MAXIMUM_WEIGHT, DEFAULT_TIME_TO_LIVE, DEFAULT_EFFECTIVE_TIME_BUCKET);
+    }
+
+
+    /**
+     * Create a cache.
+     *
+     * @param maximumWeight maximum number of entries plus the number of relationships they hold
+     * @param timeToLive time in milliseconds that an entry is kept in the cache
+     * @param effectiveTimeBucket width in milliseconds of an effective time bucket
+     */
+    public AssetLineageCache(long maximumWeight,
+                             long timeToLive,
+                             long effectiveTimeBucket)
+    {
+        this.maximumWeight       = maximumWeight;
+        this.timeToLive          = timeToLive;
+        this.effectiveTimeBucket = (effectiveTimeBucket < 1) ? DEFAULT_EFFECTIVE_TIME_BUCKET : effectiveTimeBucket;
+    }
+
+
+    /**
+     * Return the cached lineage adjacency for an asset.  The caller receives its own copy of the asset node.
+     *
+     * @param scope description of the calling user and the options that affect the content of the entry
+     * @param effectiveTime effective time of the request (null for now)
+     * @param assetGUID unique identifier of the asset
+     * @param direction direction of the traversal (0 for both, 1 for downstream, 2 for upstream)
+     * @return lineage visit or null if the asset is not cached (or the entry has expired)
+     */
+    synchronized AssetHandler.LineageVisit getLineageVisit(String scope,
+                                                           Date   effectiveTime,
+                                                           String assetGUID,
+                                                           int    direction)
+    {
+        String      visitKey    = this.getVisitKey(scope, effectiveTime, assetGUID, direction);
+        CachedVisit cachedVisit = visits.get(visitKey);
+
+        if (cachedVisit != null)
+        {
+            if (cachedVisit.expiryTime() > System.currentTimeMillis())
+            {
+                hitCount ++;
+
+                AssetHandler.LineageVisit visit = cachedVisit.visit();
+
+                return new AssetHandler.LineageVisit(new AssetLineageGraphNode(visit.asset()),
+                                                     visit.upstreamAssets(),
+                                                     visit.downstreamAssets());
+            }
+
+            this.removeVisit(visitKey);
+        }
+
+        missCount ++;
+
+        return null;
+    }
+
+
+    /**
+     * Save the lineage adjacency for an asset.
+     *
+     * @param scope description of the calling user and the options that affect the content of the entry
+     * @param effectiveTime effective time of the request (null for now)
+     * @param direction direction of the traversal (0 for both, 1 for downstream, 2 for upstream)
+     * @param visit asset lineage node and the assets it is linked to
+     */
+    synchronized void putLineageVisit(String                    scope,
+                                      Date                      effectiveTime,
+                                      int                       direction,
+                                      AssetHandler.LineageVisit visit)
+    {
+        if ((visit == null) || (visit.asset() == null) || (visit.asset().getElementHeader() == null))
+        {
+            return;
+        }
+
+        String      assetGUID = visit.asset().getElementHeader().getGUID();
+        String      visitKey  = this.getVisitKey(scope, effectiveTime, assetGUID, direction);
+        Set<String> elements  = new HashSet<>();
+
+        elements.add(assetGUID);
+        elements.addAll(visit.upstreamAssets().keySet());
+        elements.addAll(visit.downstreamAssets().keySet());
+
+        this.removeVisit(visitKey);
+
+        /*
+         * The stored node is a copy so the caller can go on updating its own node.
+         */
+        CachedVisit cachedVisit = new CachedVisit(new AssetHandler.LineageVisit(new AssetLineageGraphNode(visit.asset()),
+                                                                                visit.upstreamAssets(),
+                                                                                visit.downstreamAssets()),
+                                                  elements,
+                                                  this.getWeight(visit.asset()),
+                                                  System.currentTimeMillis() + timeToLive);
+
+        visits.put(visitKey, cachedVisit);
+        totalWeight = totalWeight + cachedVisit.weight();
+
+        for (String elementGUID : elements)
+        {
+            elementIndex.computeIfAbsent(elementGUID, k -> new HashSet<>()).add(visitKey);
+        }
+
+        /*
+         * Discard the least recently used entries until the cache is back within its weight.
+         */
+        Iterator<Map.Entry<String, CachedVisit>> eldestVisits = visits.entrySet().iterator();
+
+        while ((totalWeight > maximumWeight) && (eldestVisits.hasNext()))
+        {
+            Map.Entry<String, CachedVisit> eldestVisit = eldestVisits.next();
+            String                         eldestKey   = eldestVisit.getKey();
+            CachedVisit                    eldestValue = eldestVisit.getValue();
+
+            eldestVisits.remove();
+            this.unindexVisit(eldestKey, eldestValue);
+        }
+    }
+
+
+    /**
+     * Remove all the entries that mention an element - either as the cached asset or as one of its linked assets.
+     *
+     * @param elementGUID unique identifier of the element
+     */
+    public synchronized void invalidate(String elementGUID)
+    {
+        if (elementGUID != null)
+        {
+            Set<String> visitKeys = elementIndex.remove(elementGUID);
+
+            if (visitKeys != null)
+            {
+                for (String visitKey : visitKeys)
+                {
+                    this.removeVisit(visitKey);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Discard all the entries.
+     */
+    public synchronized void clear()
+    {
+        visits.clear();
+        elementIndex.clear();
+        totalWeight = 0L;
+    }
+
+
+    /**
+     * Return the number of entries in the cache.
+     *
+     * @return count
+     */
+    public synchronized int getEntryCount()
+    {
+        return visits.size();
+    }
+
+
+    /**
+     * Return the current weight of the cache.
+     *
+     * @return number of entries plus the number of relationships they hold
+     */
+    public synchronized long getTotalWeight()
+    {
+        return totalWeight;
+    }
+
+
+    /**
+     * Return the number of elements in the index.  Each one is mentioned by at least one entry in the cache.
+     *
+     * @return count
+     */
+    synchronized int getIndexedElementCount()
+    {
+        return elementIndex.size();
+    }
+
+
+    /**
+     * Return the number of requests that were answered from the cache.
+     *
+     * @return count
+     */
+    public synchronized long getHitCount()
+    {
+        return hitCount;
+    }
+
+
+    /**
+     * Return the number of requests that were not in the cache.
+     *
+     * @return count
+     */
+    public synchronized long getMissCount()
+    {
+        return missCount;
+    }
+
+
+    /**
+     * Remove the entries affected by a change to open metadata.
+     *
+     * @param event event object - call getEventType to find out what type of event.
+     */
+    @Override
+    public void processEvent(OpenMetadataOutTopicEvent event)
+    {
+        if (event != null)
+        {
+            this.invalidate(event.getElementHeader());
+            this.invalidate(event.getPreviousElementHeader());
+            this.invalidate(event.getEndOneElementHeader());
+            this.invalidate(event.getEndTwoElementHeader());
+        }
+    }
+
+
+    /**
+     * Remove the entries for an element and its anchor.
+     *
+     * @param elementHeader header of the element (may be null)
+     */
+    private void invalidate(ElementHeader elementHeader)
+    {
+        if (elementHeader != null)
+        {
+            this.invalidate(elementHeader.getGUID());
+            this.invalidate(propertyHelper.getAnchorGUID(elementHeader));
+        }
+    }
+
+
+    /**
+     * Build the key for an entry.
+     *
+     * @param scope description of the calling user and the options that affect the content of the entry
+     * @param effectiveTime effective time of the request (null for now)
+     * @param assetGUID unique identifier of the asset
+     * @param direction direction of the traversal
+     * @return key
+     */
+    private String getVisitKey(String scope,
+                               Date   effectiveTime,
+                               String assetGUID,
+                               int    direction)
+    {
+        long effectiveTimeMillis = (effectiveTime == null) ? System.currentTimeMillis() : effectiveTime.getTime();
+
+        return assetGUID + ":" + direction + ":" + (effectiveTimeMillis / effectiveTimeBucket) + ":" + scope;
+    }
+
+
+    /**
+     * Work out the weight of an entry.
+     *
+     * @param asset asset lineage node
+     * @return one plus the number of relationships in the node
+     */
+    private long getWeight(AssetLineageGraphNode asset)
+    {
+        long weight = 1L;
+
+        if (asset.getUpstreamRelationships() != null)
+        {
+            weight = weight + asset.getUpstreamRelationships().size();
+        }
+        if (asset.getDownstreamRelationships() != null)
+        {
+            weight = weight + asset.getDownstreamRelationships().size();
+        }
+        if (asset.getInternalRelationships() != null)
+        {
+            weight = weight + asset.getInternalRelationships().size();
+        }
+
+        return weight;
+    }
+
+
+    /**
+     * Remove an entry and its index entries.
+     *
+     * @param visitKey key of the entry
+     */
+    private void removeVisit(String visitKey)
+    {
+        if (visits.containsKey(visitKey))
+        {
+            this.unindexVisit(visitKey, visits.remove(visitKey));
+        }
+    }
+
+
+    /**
+     * Remove the index entries for an entry.
+     *
+     * @param visitKey key of the entry
+     * @param cachedVisit removed entry
+     */
+    private void unindexVisit(String      visitKey,
+                              CachedVisit cachedVisit)
+    {
+        totalWeight = totalWeight - cachedVisit.weight();
+
+        for (String elementGUID : cachedVisit.elements())
+        {
+            Set<String> visitKeys = elementIndex.get(elementGUID);
+
+            if (visitKeys != null)
+            {
+                visitKeys.remove(visitKey);
+
+                if (visitKeys.isEmpty())
+                {
+                    elementIndex.remove(elementGUID);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * A cached lineage adjacency.
+     *
+     * @param visit asset lineage node and the assets it is linked to
+     * @param elements unique identifiers of the asset and its linked assets
+     * @param weight one plus the number of relationships in the node
+     * @param expiryTime time in milliseconds after which the entry is not returned
+     */
+    private record CachedVisit(AssetHandler.LineageVisit visit,
+                               Set<String>               elements,
+                               long                      weight,
+                               long                      expiryTime)
+    {
+    }
+}
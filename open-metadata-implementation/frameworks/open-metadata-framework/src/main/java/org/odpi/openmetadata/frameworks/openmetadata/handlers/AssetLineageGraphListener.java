@@ -0,0 +1,31 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.frameworks.openmetadata.handlers;
+
+import org.odpi.openmetadata.frameworks.openmetadata.metadataelements.AssetLineageGraphNode;
+import org.odpi.openmetadata.frameworks.openmetadata.metadataelements.AssetLineageGraphRelationship;
+
+import java.util.List;
+
+/**
+ * AssetLineageGraphListener is implemented by a caller that wants to see the lineage graph as it is built.
+ * The lineage graph is retrieved one level at a time, working out from the starting asset.  The listener is
+ * called at the end of each level with the assets and relationships that were added in that level, so the
+ * graph can be displayed before the whole graph has been retrieved.
+ */
+public interface AssetLineageGraphListener
+{
+    /**
+     * A level of the lineage graph has been retrieved.  The lists only contain the assets and relationships that
+     * are new in this level.  An asset that was already in the graph (because it is both upstream and
+     * downstream of the starting asset) is passed again with the additional relationships it has gained.
+     *
+     * @param depth number of hops from the starting asset (0 is the starting asset)
+     * @param linkedAssets assets retrieved in this level
+     * @param lineageRelationships relationships retrieved in this level
+     */
+    void processLineageLevel(int                                 depth,
+                             List<AssetLineageGraphNode>         linkedAssets,
+                             List<AssetLineageGraphRelationship> lineageRelationships);
+}
@@ -0,0 +1,209 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.frameworks.openmetadata.handlers;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * AssetLineageTraversalControl controls how the lineage graph for an asset is retrieved.  The graph is
+ * retrieved one level at a time, working out from the starting asset.  The assets in a level (the frontier)
+ * are retrieved together, and their lineage relationships are retrieved with one request for each batch
+ * of assets.
+ * <ul>
+ *     <li>The maximum depth limits the number of hops from the starting asset.  Zero means no limit.</li>
+ *     <li>The maximum nodes limits the number of assets in the graph.  Zero means no limit.</li>
+ *     <li>The batch size is the number of assets whose relationships are retrieved in a single request.</li>
+ *     <li>If an executor is supplied, the batches in a level are retrieved in parallel.  Otherwise they are
+ *     retrieved one after another on the calling thread.</li>
+ *     <li>If a listener is supplied, it is passed the new part of the graph at the end of each level.</li>
+ * </ul>
+ * The traversal can be cancelled from another thread.  It stops at the end of the current batch and the
+ * graph retrieved so far is returned.  The control object should be used for one traversal at a time.
+ */
+public class AssetLineageTraversalControl
+{
+    /**
+     * Default number of assets whose relationships are retrieved in a single request.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private int                       maxDepth      = 0;
+    private int                       maxNodes      = 0;
+    private int                       batchSize     = DEFAULT_BATCH_SIZE;
+    private ExecutorService           fetchExecutor = null;
+    private AssetLineageGraphListener listener      = null;
+    private volatile boolean          cancelled     = false;
+
+
+    /**
+     * Default constructor - no limits, retrieval on the calling thread.
+     */
+    public AssetLineageTraversalControl()
+    {
+    }
+
+
+    /**
+     * Constructor for a traversal with limits.
+     *
+     * @param maxDepth maximum number of hops from the starting asset (0 for no limit)
+     * @param maxNodes maximum number of assets in the graph (0 for no limit)
+     */
+    public AssetLineageTraversalControl(int maxDepth,
+                                        int maxNodes)
+    {
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+    }
+
+
+    /**
+     * Return the maximum number of hops from the starting asset.
+     *
+     * @return int (0 for no limit)
+     */
+    public int getMaxDepth()
+    {
+        return maxDepth;
+    }
+
+
+    /**
+     * Set up the maximum number of hops from the starting asset.
+     *
+     * @param maxDepth int (0 for no limit)
+     */
+    public void setMaxDepth(int maxDepth)
+    {
+        this.maxDepth = maxDepth;
+    }
+
+
+    /**
+     * Return the maximum number of assets in the graph.
+     *
+     * @return int (0 for no limit)
+     */
+    public int getMaxNodes()
+    {
+        return maxNodes;
+    }
+
+
+    /**
+     * Set up the maximum number of assets in the graph.
+     *
+     * @param maxNodes int (0 for no limit)
+     */
+    public void setMaxNodes(int maxNodes)
+    {
+        this.maxNodes = maxNodes;
+    }
+
+
+    /**
+     * Return the number of assets whose relationships are retrieved in a single request.
+     *
+     * @return int
+     */
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+
+    /**
+     * Set up the number of assets whose relationships are retrieved in a single request.  Values less than
+     * one are replaced by the default.
+     *
+     * @param batchSize int
+     */
+    public void setBatchSize(int batchSize)
+    {
+        this.batchSize = (batchSize < 1) ? DEFAULT_BATCH_SIZE : batchSize;
+    }
+
+
+    /**
+     * Return the executor used to retrieve the batches in a level in parallel.
+     *
+     * @return executor service or null for retrieval on the calling thread
+     */
+    public ExecutorService getFetchExecutor()
+    {
+        return fetchExecutor;
+    }
+
+
+    /**
+     * Set up the executor used to retrieve the batches in a level in parallel.  The executor belongs to the
+     * caller, and is not shut down by the traversal.
+     *
+     * @param fetchExecutor executor service or null for retrieval on the calling thread
+     */
+    public void setFetchExecutor(ExecutorService fetchExecutor)
+    {
+        this.fetchExecutor = fetchExecutor;
+    }
+
+
+    /**
+     * Return the listener that is passed each level of the graph as it is retrieved.
+     *
+     * @return listener or null
+     */
+    public AssetLineageGraphListener getListener()
+    {
+        return listener;
+    }
+
+
+    /**
+     * Set up the listener that is passed each level of the graph as it is retrieved.
+     *
+     * @param listener listener or null
+     */
+    public void setListener(AssetLineageGraphListener listener)
+    {
+        this.listener = listener;
+    }
+
+
+    /**
+     * Request that the traversal stops.  The graph retrieved so far is returned to the caller.
+     */
+    public void cancel()
+    {
+        this.cancelled = true;
+    }
+
+
+    /**
+     * Return whether the traversal has been cancelled.
+     *
+     * @return boolean
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+
+    /**
+     * JSON-style toString
+     *
+     * @return return string containing the property names and values
+     */
+    @Override
+    public String toString()
+    {
+        return "AssetLineageTraversalControl{" +
+                "maxDepth=" + maxDepth +
+                ", maxNodes=" + maxNodes +
+                ", batchSize=" + batchSize +
+                ", parallel=" + (fetchExecutor != null) +
+                ", cancelled=" + cancelled +
+                '}';
+    }
+}
@@ -46,6 +46,8 @@ public class OpenMetadataHandlerBase
 
     protected final String metadataElementTypeName;
 
+    protected final MermaidDiagramCache mermaidDiagramCache;
+
 
     /**
      * Create a new handler.
@@ -67,6 +69,7 @@ public class OpenMetadataHandlerBase
         this.localServerName         = localServerName;
         this.localServiceName        = localServiceName;
         this.metadataElementTypeName = metadataElementTypeName;
+        this.mermaidDiagramCache     = new MermaidDiagramCache();
     }
 
 
@@ -86,6 +89,7 @@ public class OpenMetadataHandlerBase
         this.localServerName         = template.localServerName;
         this.localServiceName        = template.localServiceName;
         this.metadataElementTypeName = metadataElementTypeName;
+        this.mermaidDiagramCache     = template.mermaidDiagramCache;
     }
 
 
@@ -103,6 +107,7 @@ public class OpenMetadataHandlerBase
         this.localServerName         = template.localServerName;
         this.localServiceName        = template.localServiceName;
         this.metadataElementTypeName = template.metadataElementTypeName;
+        this.mermaidDiagramCache     = template.mermaidDiagramCache;
     }
 
 
@@ -387,13 +392,9 @@ public class OpenMetadataHandlerBase
     {
         List<RelatedMetadataElement> relatedMetadataElements = new ArrayList<>();
 
-        QueryOptions workingQueryOptions = new QueryOptions(queryOptions);
-        workingQueryOptions.setMetadataElementTypeName(OpenMetadataType.OPEN_METADATA_ROOT.typeName); // All types of entities
-
         if (queryOptions.getGraphQueryDepth() > 0)
         {
-            workingQueryOptions.setStartFrom(0);
-            workingQueryOptions.setPageSize(queryOptions.getRelationshipsPageSize());
+            QueryOptions workingQueryOptions = this.getRelationshipQueryOptions(queryOptions);
 
             RelatedMetadataElementList relatedMetadataElementList = openMetadataClient.getRelatedMetadataElements(userId,
                                                                                                                   openMetadataElement.getElementGUID(),
@@ -413,7 +414,163 @@ public class OpenMetadataHandlerBase
 
 
     /**
-     * Remove any relationships that should not be included.
+     * Return the related elements for an item, using the supplied map if they have already been retrieved.
+     *
+     * @param userId                   calling user
+     * @param openMetadataElement      element extracted from the repository
+     * @param relatedMetadataElements  related elements already retrieved, mapped from element GUID (may be null)
+     * @param queryOptions             multiple options to control the query
+     * @return list of all the relevant related elements of the open metadata element
+     * @throws InvalidParameterException  one of the parameters is invalid.
+     * @throws PropertyServerException    a problem retrieving information from the property server(s).
+     * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
+     */
+    private List<RelatedMetadataElement> getElementRelatedElements(String                                    userId,
+                                                                   OpenMetadataElement                       openMetadataElement,
+                                                                   Map<String, List<RelatedMetadataElement>> relatedMetadataElements,
+                                                                   QueryOptions                              queryOptions) throws InvalidParameterException,
+                                                                                                                                  PropertyServerException,
+                                                                                                                                  UserNotAuthorizedException
+    {
+        if ((relatedMetadataElements != null) && (relatedMetadataElements.containsKey(openMetadataElement.getElementGUID())))
+        {
+            return relatedMetadataElements.get(openMetadataElement.getElementGUID());
+        }
+
+        return this.getElementRelatedElements(userId, openMetadataElement, queryOptions);
+    }
+
+
+    /**
+     * Retrieve the related elements for the elements about to be converted, reporting any error as a conversion
+     * problem.
+     *
+     * @param userId                   calling user
+     * @param openMetadataElements     elements to convert
+     * @param queryOptions             multiple options to control the query
+     * @param methodName               calling method
+     * @return map of element GUID to the relevant related elements of that element, or null if relationships are not needed
+     * @throws PropertyServerException problem with the conversion process
+     */
+    private Map<String, List<RelatedMetadataElement>> getRelatedElementsForConversion(String                    userId,
+                                                                                      List<OpenMetadataElement> openMetadataElements,
+                                                                                      QueryOptions              queryOptions,
+                                                                                      String                    methodName) throws PropertyServerException
+    {
+        try
+        {
+            return this.getElementsRelatedElements(userId, openMetadataElements, new QueryOptions(queryOptions));
+        }
+        catch (Exception error)
+        {
+            if (auditLog != null)
+            {
+                auditLog.logException(methodName,
+                                      OMFAuditCode.UNEXPECTED_CONVERTER_EXCEPTION.getMessageDefinition(error.getClass().getName(),
+                                                                                                       methodName,
+                                                                                                       localServiceName,
+                                                                                                       error.getMessage()),
+                                      error);
+            }
+
+            throw new PropertyServerException(OMFErrorCode.UNEXPECTED_CONVERTER_EXCEPTION.getMessageDefinition(error.getClass().getName(),
+                                                                                                               methodName,
+                                                                                                               localServiceName,
+                                                                                                               error.getMessage()),
+                                              error.getClass().getName(),
+                                              methodName,
+                                              error);
+        }
+    }
+
+
+    /**
+     * Retrieve the related elements for a list of elements with a single request and filter for relevant
+     * relationships.  If graphQueryDepth is zero or less, do not retrieve relationships.
+     *
+     * @param userId                   calling user
+     * @param openMetadataElements     elements extracted from the repository
+     * @param queryOptions             multiple options to control the query
+     * @return map of element GUID to the relevant related elements of that element, or null if relationships are not needed
+     * @throws InvalidParameterException  one of the parameters is invalid.
+     * @throws PropertyServerException    a problem retrieving information from the property server(s).
+     * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
+     */
+    protected Map<String, List<RelatedMetadataElement>> getElementsRelatedElements(String                    userId,
+                                                                                   List<OpenMetadataElement> openMetadataElements,
+                                                                                   QueryOptions              queryOptions) throws InvalidParameterException,
+                                                                                                                                  PropertyServerException,
+                                                                                                                                  UserNotAuthorizedException
+    {
+        if ((queryOptions.getGraphQueryDepth() > 0) && (! openMetadataElements.isEmpty()))
+        {
+            Map<String, List<RelatedMetadataElement>> relatedMetadataElements = new HashMap<>();
+            List<String>                              elementGUIDs            = new ArrayList<>();
+
+            for (OpenMetadataElement openMetadataElement : openMetadataElements)
+            {
+                elementGUIDs.add(openMetadataElement.getElementGUID());
+                relatedMetadataElements.put(openMetadataElement.getElementGUID(), new ArrayList<>());
+            }
+
+            QueryOptions workingQueryOptions = this.getRelationshipQueryOptions(queryOptions);
+
+            List<RelatedMetadataElementList> relatedMetadataElementLists = openMetadataClient.getRelatedMetadataElements(userId,
+                                                                                                                         elementGUIDs,
+                                                                                                                         0,
+                                                                                                                         null,
+                                                                                                                         workingQueryOptions);
+            if (relatedMetadataElementLists != null)
+            {
+                for (RelatedMetadataElementList relatedMetadataElementList : relatedMetadataElementLists)
+                {
+                    if ((relatedMetadataElementList != null) &&
+                            (relatedMetadataElementList.getStartingElement() != null) &&
+                            (relatedMetadataElementList.getElementList() != null))
+                    {
+                        List<RelatedMetadataElement> elementRelatedElements = relatedMetadataElements.get(relatedMetadataElementList.getStartingElement().getElementGUID());
+
+                        if (elementRelatedElements != null)
+                        {
+                            elementRelatedElements.addAll(this.getRelevantRelationships(relatedMetadataElementList.getElementList(), queryOptions));
+                        }
+                    }
+                }
+            }
+
+            return relatedMetadataElements;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the options for retrieving the relationships of an element in a graph query.  The relationship type
+     * filters are passed to the metadata server so only the relevant relationships are returned, and the
+     * paging applies after the filtering.  The classification filters describe the root elements rather
+     * than the elements linked to them, so they are removed.
+     *
+     * @param queryOptions             multiple options to control the query
+     * @return options for the relationship query
+     */
+    private QueryOptions getRelationshipQueryOptions(QueryOptions queryOptions)
+    {
+        QueryOptions workingQueryOptions = new QueryOptions(queryOptions);
+
+        workingQueryOptions.setMetadataElementTypeName(OpenMetadataType.OPEN_METADATA_ROOT.typeName); // All types of entities
+        workingQueryOptions.setStartFrom(0);
+        workingQueryOptions.setPageSize(queryOptions.getRelationshipsPageSize());
+        workingQueryOptions.setSkipClassifiedElements(null);
+        workingQueryOptions.setIncludeOnlyClassifiedElements(null);
+
+        return workingQueryOptions;
+    }
+
+
+    /**
+     * Remove any relationships that should not be included.  The metadata server applies the same filters,
+     * so this is only removing relationships when the server does not support them.
      *
      * @param retrievedRelationships   list of retrieved
      * @return relevant relationships
@@ -558,7 +715,9 @@ public class OpenMetadataHandlerBase
 
 
     /**
-     * Convert the open metadata elements retrieve into root elements.
+     * Convert the open metadata elements retrieve into root elements.  The mermaid diagrams for each element
+     * are left out if the caller has set skipListMermaidDiagrams - they can then be requested for individual
+     * elements with getMermaidDiagram().
      *
      * @param userId                   calling user
      * @param openMetadataElements     elements extracted from the repository
@@ -575,19 +734,38 @@ public class OpenMetadataHandlerBase
         if (openMetadataElements != null)
         {
             List<OpenMetadataRootElement> openMetadataRootElements = new ArrayList<>();
+            List<OpenMetadataElement>     selectedElements         = new ArrayList<>();
 
             for (OpenMetadataElement openMetadataElement : openMetadataElements)
             {
-                if (openMetadataElement != null)
+                if ((openMetadataElement != null) &&
+                        filterBySubtypes(openMetadataElement, new QueryOptions(queryOptions)) &&
+                        filterByClassifications(userId, openMetadataElement, new QueryOptions(queryOptions)))
                 {
-                    OpenMetadataRootElement openMetadataRootElement = convertRootElement(userId,
-                                                                                         openMetadataElement,
-                                                                                         queryOptions,
-                                                                                         methodName);
-                    if (openMetadataRootElement != null)
-                    {
-                        openMetadataRootElements.add(openMetadataRootElement);
-                    }
+                    selectedElements.add(openMetadataElement);
+                }
+            }
+
+            /*
+             * The related elements for all the selected elements are retrieved together.
+             */
+            Map<String, List<RelatedMetadataElement>> relatedMetadataElements = this.getRelatedElementsForConversion(userId,
+                                                                                                                     selectedElements,
+                                                                                                                     queryOptions,
+                                                                                                                     methodName);
+
+            QueryOptions listQueryOptions = this.getListQueryOptions(queryOptions);
+
+            for (OpenMetadataElement openMetadataElement : selectedElements)
+            {
+                OpenMetadataRootElement openMetadataRootElement = convertRootElement(userId,
+                                                                                     openMetadataElement,
+                                                                                     relatedMetadataElements,
+                                                                                     listQueryOptions,
+                                                                                     methodName);
+                if (openMetadataRootElement != null)
+                {
+                    openMetadataRootElements.add(openMetadataRootElement);
                 }
             }
 
@@ -639,7 +817,28 @@ public class OpenMetadataHandlerBase
     {
         if (relatedMetadataElements != null)
         {
-            List<OpenMetadataRootElement> rootElements = new ArrayList<>();
+            List<OpenMetadataRootElement> rootElements     = new ArrayList<>();
+            List<OpenMetadataElement>     selectedElements = new ArrayList<>();
+
+            for (RelatedMetadataElement relatedMetadataElement : relatedMetadataElements)
+            {
+                if ((relatedMetadataElement != null) &&
+                        (relatedMetadataElement.getElement() != null) &&
+                        filterByClassifications(userId, relatedMetadataElement.getElement(), queryOptions))
+                {
+                    selectedElements.add(relatedMetadataElement.getElement());
+                }
+            }
+
+            /*
+             * The related elements for all the selected elements are retrieved together.
+             */
+            Map<String, List<RelatedMetadataElement>> elementRelatedElements = this.getRelatedElementsForConversion(userId,
+                                                                                                                    selectedElements,
+                                                                                                                    queryOptions,
+                                                                                                                    methodName);
+
+            QueryOptions listQueryOptions = this.getListQueryOptions(queryOptions);
 
             for (RelatedMetadataElement relatedMetadataElement : relatedMetadataElements)
             {
@@ -647,7 +846,8 @@ public class OpenMetadataHandlerBase
                 {
                     OpenMetadataRootElement rootElement = convertRootElement(userId,
                                                                              relatedMetadataElement,
-                                                                             queryOptions,
+                                                                             elementRelatedElements,
+                                                                             listQueryOptions,
                                                                              methodName);
                     if (rootElement != null)
                     {
@@ -680,6 +880,28 @@ public class OpenMetadataHandlerBase
                                                          OpenMetadataElement openMetadataElement,
                                                          QueryOptions        suppliedQueryOptions,
                                                          String              methodName) throws PropertyServerException
+    {
+        return this.convertRootElement(userId, openMetadataElement, null, suppliedQueryOptions, methodName);
+    }
+
+
+    /**
+     * Return the generic element extracted from the open metadata element plus linked elements.  The linked
+     * elements are taken from the supplied map if they have already been retrieved.
+     *
+     * @param userId                   calling user
+     * @param openMetadataElement      element extracted from the repository
+     * @param relatedMetadataElements  related elements already retrieved, mapped from element GUID (may be null)
+     * @param suppliedQueryOptions     multiple options to control the query
+     * @param methodName               calling method
+     * @return bean or null
+     * @throws PropertyServerException problem with the conversion process
+     */
+    private OpenMetadataRootElement convertRootElement(String                                    userId,
+                                                       OpenMetadataElement                       openMetadataElement,
+                                                       Map<String, List<RelatedMetadataElement>> relatedMetadataElements,
+                                                       QueryOptions                              suppliedQueryOptions,
+                                                       String                                    methodName) throws PropertyServerException
     {
         QueryOptions queryOptions = new QueryOptions(suppliedQueryOptions);
 
@@ -692,7 +914,7 @@ public class OpenMetadataHandlerBase
 
                 OpenMetadataRootElement rootElement = converter.getNewComplexBean(OpenMetadataRootElement.class,
                                                                                   openMetadataElement,
-                                                                                  this.getElementRelatedElements(userId, openMetadataElement, queryOptions),
+                                                                                  this.getElementRelatedElements(userId, openMetadataElement, relatedMetadataElements, queryOptions),
                                                                                   methodName);
 
                 return populateRootElement(userId, rootElement, queryOptions);
@@ -1004,6 +1226,28 @@ public class OpenMetadataHandlerBase
                                                          RelatedMetadataElement relatedMetadataElement,
                                                          QueryOptions           queryOptions,
                                                          String                 methodName) throws PropertyServerException
+    {
+        return this.convertRootElement(userId, relatedMetadataElement, null, queryOptions, methodName);
+    }
+
+
+    /**
+     * Return the generic element extracted from the open metadata element plus linked elements.  The linked
+     * elements are taken from the supplied map if they have already been retrieved.
+     *
+     * @param userId                   calling user
+     * @param relatedMetadataElement   element extracted from the repository
+     * @param relatedMetadataElements  related elements already retrieved, mapped from element GUID (may be null)
+     * @param queryOptions             multiple options to control the query
+     * @param methodName               calling method
+     * @return bean or null
+     * @throws PropertyServerException problem with the conversion process
+     */
+    private OpenMetadataRootElement convertRootElement(String                                    userId,
+                                                       RelatedMetadataElement                    relatedMetadataElement,
+                                                       Map<String, List<RelatedMetadataElement>> relatedMetadataElements,
+                                                       QueryOptions                              queryOptions,
+                                                       String                                    methodName) throws PropertyServerException
     {
         if (filterByClassifications(userId, relatedMetadataElement.getElement(), queryOptions))
         {
@@ -1013,7 +1257,7 @@ public class OpenMetadataHandlerBase
 
                 OpenMetadataRootElement rootElement = converter.getNewComplexBean(OpenMetadataRootElement.class,
                                                                                   relatedMetadataElement,
-                                                                                  this.getElementRelatedElements(userId, relatedMetadataElement.getElement(), queryOptions),
+                                                                                  this.getElementRelatedElements(userId, relatedMetadataElement.getElement(), relatedMetadataElements, queryOptions),
                                                                                   methodName);
 
                 return populateRootElement(userId, rootElement, queryOptions);
@@ -1480,65 +1724,314 @@ public class OpenMetadataHandlerBase
     {
         if ((rootElement != null) && (queryOptions.getMaxMermaidNodeCount() > 0))
         {
-            OpenMetadataRootMermaidGraphBuilder graphBuilder = new OpenMetadataRootMermaidGraphBuilder(rootElement, queryOptions.getMaxMermaidNodeCount());
+            for (MermaidDiagramKind diagramKind : MermaidDiagramKind.values())
+            {
+                this.setMermaidDiagram(rootElement,
+                                       diagramKind,
+                                       this.getMermaidDiagram(rootElement, diagramKind, queryOptions.getMaxMermaidNodeCount()));
+            }
+        }
 
-            rootElement.setMermaidGraph(graphBuilder.getMermaidGraph());
+        return rootElement;
+    }
 
-            if (rootElement.getSpecificationProperties() != null)
-            {
-                SpecificationMermaidGraphBuilder specificationMermaidGraphBuilder = new SpecificationMermaidGraphBuilder(rootElement);
 
-                rootElement.setSpecificationMermaidGraph(specificationMermaidGraphBuilder.getMermaidGraph());
+    /**
+     * Render one of the mermaid diagrams for a root element.
+     *
+     * @param rootElement root element
+     * @param diagramKind diagram to render
+     * @param maxMermaidNodeCount maximum nodes linked by a particular relationship to an element to include in the graph
+     * @return mermaid markdown or null if the diagram does not apply to this element
+     */
+    protected String getMermaidDiagram(OpenMetadataRootElement rootElement,
+                                       MermaidDiagramKind      diagramKind,
+                                       int                     maxMermaidNodeCount)
+    {
+        switch (diagramKind)
+        {
+            case ROOT_GRAPH ->
+            {
+                return new OpenMetadataRootMermaidGraphBuilder(rootElement, maxMermaidNodeCount).getMermaidGraph();
             }
-
-            if ((propertyHelper.isTypeOf(rootElement.getElementHeader(), OpenMetadataType.SOLUTION_BLUEPRINT.typeName)) && (rootElement.getCollectionMembers() != null))
+            case SPECIFICATION ->
             {
-                SolutionBlueprintMermaidGraphBuilder solutionBlueprintMermaidGraphBuilder = new SolutionBlueprintMermaidGraphBuilder(rootElement);
-
-                rootElement.setSolutionBlueprintMermaidGraph(solutionBlueprintMermaidGraphBuilder.getMermaidGraph());
+                if (rootElement.getSpecificationProperties() != null)
+                {
+                    return new SpecificationMermaidGraphBuilder(rootElement).getMermaidGraph();
+                }
             }
-
-            if ((propertyHelper.isTypeOf(rootElement.getElementHeader(), OpenMetadataType.SOLUTION_COMPONENT.typeName)) && (rootElement.getNestedSolutionComponents() != null))
+            case SOLUTION_BLUEPRINT ->
             {
-                SolutionComponentMermaidGraphBuilder solutionComponentMermaidGraphBuilder = new SolutionComponentMermaidGraphBuilder(rootElement);
-
-                rootElement.setSolutionSubcomponentMermaidGraph(solutionComponentMermaidGraphBuilder.getMermaidGraph());
+                if ((propertyHelper.isTypeOf(rootElement.getElementHeader(), OpenMetadataType.SOLUTION_BLUEPRINT.typeName)) && (rootElement.getCollectionMembers() != null))
+                {
+                    return new SolutionBlueprintMermaidGraphBuilder(rootElement).getMermaidGraph();
+                }
             }
-            if ((propertyHelper.isTypeOf(rootElement.getElementHeader(), OpenMetadataType.TEAM.typeName)) && (rootElement.getSubTeams() != null))
+            case SOLUTION_SUBCOMPONENT ->
             {
-                OrganizationTreeMermaidGraphBuilder organizationTreeMermaidGraphBuilder = new OrganizationTreeMermaidGraphBuilder(rootElement);
-
-                rootElement.setOrganizationTreeMermaidGraph(organizationTreeMermaidGraphBuilder.getMermaidGraph());
+                if ((propertyHelper.isTypeOf(rootElement.getElementHeader(), OpenMetadataType.SOLUTION_COMPONENT.typeName)) && (rootElement.getNestedSolutionComponents() != null))
+                {
+                    return new SolutionComponentMermaidGraphBuilder(rootElement).getMermaidGraph();
+                }
             }
-
-            if ((propertyHelper.isTypeOf(rootElement.getElementHeader(), OpenMetadataType.COLLECTION.typeName)) && (rootElement.getCollectionMembers() != null))
+            case ORGANIZATION_TREE ->
             {
-                CollectionMermaidMindMapBuilder collectionMermaidMindMapBuilder = new CollectionMermaidMindMapBuilder(rootElement);
-                rootElement.setCollectionMermaidMindMap(collectionMermaidMindMapBuilder.getMermaidMindMap());
+                if ((propertyHelper.isTypeOf(rootElement.getElementHeader(), OpenMetadataType.TEAM.typeName)) && (rootElement.getSubTeams() != null))
+                {
+                    return new OrganizationTreeMermaidGraphBuilder(rootElement).getMermaidGraph();
+                }
             }
-
-            if (rootElement.getElementHeader().getZoneMembershipProfile() != null)
+            case COLLECTION_MIND_MAP ->
+            {
+                if ((propertyHelper.isTypeOf(rootElement.getElementHeader(), OpenMetadataType.COLLECTION.typeName)) && (rootElement.getCollectionMembers() != null))
+                {
+                    return new CollectionMermaidMindMapBuilder(rootElement).getMermaidMindMap();
+                }
+            }
+            case ZONE_PROFILE ->
+            {
+                if (rootElement.getElementHeader().getZoneMembershipProfile() != null)
+                {
+                    return new ZoneProfileMermaidPieChartBuilder(rootElement).getMermaidPieChart();
+                }
+            }
+            case ZONE_PROFILE_ANCHORED ->
+            {
+                if (rootElement.getElementHeader().getZoneMembershipProfile() != null)
+                {
+                    return new ZoneProfileAnchoredMermaidPieChartBuilder(rootElement).getMermaidPieChart();
+                }
+            }
+            case ZONE_PROFILE_ALL ->
             {
-                ZoneProfileMermaidPieChartBuilder         pieChartBuilder         = new ZoneProfileMermaidPieChartBuilder(rootElement);
-                ZoneProfileAnchoredMermaidPieChartBuilder anchoredPieChartBuilder = new ZoneProfileAnchoredMermaidPieChartBuilder(rootElement);
-                ZoneProfileAllMermaidPieChartBuilder      allPieChartBuilder      = new ZoneProfileAllMermaidPieChartBuilder(rootElement);
+                if (rootElement.getElementHeader().getZoneMembershipProfile() != null)
+                {
+                    return new ZoneProfileAllMermaidPieChartBuilder(rootElement).getMermaidPieChart();
+                }
+            }
+            case USER_ACCOUNT_STATUS_PROFILE ->
+            {
+                if (rootElement.getElementHeader().getUserAccountProfile() != null)
+                {
+                    return new UserAccountStatusProfileMermaidPieChartBuilder(rootElement).getMermaidPieChart();
+                }
+            }
+            case USER_ACCOUNT_TYPE_PROFILE ->
+            {
+                if (rootElement.getElementHeader().getUserAccountProfile() != null)
+                {
+                    return new UserAccountTypeProfileMermaidPieChartBuilder(rootElement).getMermaidPieChart();
+                }
+            }
+        }
+
+        return null;
+    }
+
 
-                rootElement.setZoneProfileMermaidPieChart(pieChartBuilder.getMermaidPieChart());
-                rootElement.setZoneProfileAnchoredMermaidPieChart(anchoredPieChartBuilder.getMermaidPieChart());
-                rootElement.setZoneProfileAllMermaidPieChart(allPieChartBuilder.getMermaidPieChart());
+    /**
+     * Store a mermaid diagram in the matching property of the root element.
+     *
+     * @param rootElement root element
+     * @param diagramKind diagram that was rendered
+     * @param mermaidDiagram mermaid markdown (may be null)
+     */
+    private void setMermaidDiagram(OpenMetadataRootElement rootElement,
+                                   MermaidDiagramKind      diagramKind,
+                                   String                  mermaidDiagram)
+    {
+        switch (diagramKind)
+        {
+            case ROOT_GRAPH                  -> rootElement.setMermaidGraph(mermaidDiagram);
+            case SPECIFICATION               -> rootElement.setSpecificationMermaidGraph(mermaidDiagram);
+            case SOLUTION_BLUEPRINT          -> rootElement.setSolutionBlueprintMermaidGraph(mermaidDiagram);
+            case SOLUTION_SUBCOMPONENT       -> rootElement.setSolutionSubcomponentMermaidGraph(mermaidDiagram);
+            case ORGANIZATION_TREE           -> rootElement.setOrganizationTreeMermaidGraph(mermaidDiagram);
+            case COLLECTION_MIND_MAP         -> rootElement.setCollectionMermaidMindMap(mermaidDiagram);
+            case ZONE_PROFILE                -> rootElement.setZoneProfileMermaidPieChart(mermaidDiagram);
+            case ZONE_PROFILE_ANCHORED       -> rootElement.setZoneProfileAnchoredMermaidPieChart(mermaidDiagram);
+            case ZONE_PROFILE_ALL            -> rootElement.setZoneProfileAllMermaidPieChart(mermaidDiagram);
+            case USER_ACCOUNT_STATUS_PROFILE -> rootElement.setUserAccountStatusProfileMermaidPieChart(mermaidDiagram);
+            case USER_ACCOUNT_TYPE_PROFILE   -> rootElement.setUserAccountTypeProfileMermaidPieChart(mermaidDiagram);
+        }
+    }
+
+
+    /**
+     * Return the options for converting a list of elements.  The mermaid diagrams for the individual elements
+     * are rendered unless the caller has set skipListMermaidDiagrams.  They can then be requested for an
+     * individual element through getMermaidDiagram().
+     *
+     * @param queryOptions options from the caller
+     * @return options for converting each element in the list
+     */
+    private QueryOptions getListQueryOptions(QueryOptions queryOptions)
+    {
+        QueryOptions listQueryOptions = new QueryOptions(queryOptions);
+
+        if (listQueryOptions.getSkipListMermaidDiagrams())
+        {
+            listQueryOptions.setMaxMermaidNodeCount(0);
+        }
+
+        return listQueryOptions;
+    }
+
+
+    /**
+     * Return the description of the options that affect the content of a mermaid diagram.  It includes the
+     * calling user since the elements linked to the root element depend on the user's security access.
+     *
+     * @param userId calling user
+     * @param queryOptions options from the caller
+     * @return string used in the cache key
+     */
+    private String getMermaidOptionsKey(String       userId,
+                                        QueryOptions queryOptions)
+    {
+        return userId + ":" +
+                queryOptions.getMaxMermaidNodeCount() + ":" +
+                queryOptions.getGraphQueryDepth() + ":" +
+                queryOptions.getRelationshipsPageSize() + ":" +
+                queryOptions.getSkipRelationships() + ":" +
+                queryOptions.getIncludeOnlyRelationships() + ":" +
+                queryOptions.getLimitResultsByStatus() + ":" +
+                (queryOptions.getAsOfTime() == null ? null : queryOptions.getAsOfTime().getTime()) + ":" +
+                queryOptions.getForLineage() + ":" +
+                queryOptions.getForDuplicateProcessing();
+    }
+
+
+    /**
+     * Return a single mermaid diagram for an element, identifying the diagram by name.
+     *
+     * @param userId calling user
+     * @param elementGUID unique identifier of the element
+     * @param diagramName name of the diagram to render (see MermaidDiagramKind)
+     * @param suppliedQueryOptions multiple options to control the query
+     * @param methodName calling method
+     * @return mermaid markdown or null if the diagram does not apply to this element
+     * @throws InvalidParameterException  one of the parameters is null or invalid.
+     * @throws PropertyServerException    a problem retrieving information from the property server(s).
+     * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
+     */
+    public String getMermaidDiagram(String       userId,
+                                    String       elementGUID,
+                                    String       diagramName,
+                                    QueryOptions suppliedQueryOptions,
+                                    String       methodName) throws InvalidParameterException,
+                                                                    PropertyServerException,
+                                                                    UserNotAuthorizedException
+    {
+        final String diagramNameParameterName = "diagramName";
+
+        MermaidDiagramKind diagramKind = MermaidDiagramKind.getDiagramKind(diagramName);
+
+        if (diagramKind == null)
+        {
+            List<String> diagramNames = new ArrayList<>();
+
+            for (MermaidDiagramKind supportedDiagramKind : MermaidDiagramKind.values())
+            {
+                diagramNames.add(supportedDiagramKind.getDiagramName());
             }
 
-            if (rootElement.getElementHeader().getUserAccountProfile() != null)
+            throw new InvalidParameterException(OMFErrorCode.UNKNOWN_MERMAID_DIAGRAM_KIND.getMessageDefinition(diagramName,
+                                                                                                               diagramNameParameterName,
+                                                                                                               methodName,
+                                                                                                               diagramNames.toString()),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                diagramNameParameterName);
+        }
+
+        return this.getMermaidDiagram(userId, elementGUID, diagramKind, suppliedQueryOptions, methodName);
+    }
+
+
+    /**
+     * Return a single mermaid diagram for an element.  This supports displays that list elements without their
+     * diagrams and then request the diagram for an element when it is opened.  Rendered diagrams are cached,
+     * keyed by the element's unique identifier and version, the kind of diagram and the options that affect
+     * its content.
+     *
+     * @param userId calling user
+     * @param elementGUID unique identifier of the element
+     * @param diagramKind diagram to render
+     * @param suppliedQueryOptions multiple options to control the query
+     * @param methodName calling method
+     * @return mermaid markdown or null if the diagram does not apply to this element
+     * @throws InvalidParameterException  one of the parameters is null or invalid.
+     * @throws PropertyServerException    a problem retrieving information from the property server(s).
+     * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
+     */
+    public String getMermaidDiagram(String             userId,
+                                    String             elementGUID,
+                                    MermaidDiagramKind diagramKind,
+                                    QueryOptions       suppliedQueryOptions,
+                                    String             methodName) throws InvalidParameterException,
+                                                                          PropertyServerException,
+                                                                          UserNotAuthorizedException
+    {
+        final String guidParameterName        = "elementGUID";
+        final String diagramKindParameterName = "diagramKind";
+
+        propertyHelper.validateUserId(userId, methodName);
+        propertyHelper.validateGUID(elementGUID, guidParameterName, methodName);
+        propertyHelper.validateObject(diagramKind, diagramKindParameterName, methodName);
+
+        QueryOptions queryOptions = new QueryOptions(suppliedQueryOptions);
+
+        if (queryOptions.getMaxMermaidNodeCount() <= 0)
+        {
+            return null;
+        }
+
+        OpenMetadataElement openMetadataElement = openMetadataClient.getMetadataElementByGUID(userId, elementGUID, queryOptions);
+
+        if (openMetadataElement == null)
+        {
+            return null;
+        }
+
+        long elementVersion = 0L;
+
+        if (openMetadataElement.getVersions() != null)
+        {
+            elementVersion = openMetadataElement.getVersions().getVersion();
+        }
+
+        String diagramKey = MermaidDiagramCache.getDiagramKey(elementGUID,
+                                                              elementVersion,
+                                                              diagramKind,
+                                                              this.getMermaidOptionsKey(userId, queryOptions));
+
+        String mermaidDiagram = mermaidDiagramCache.getDiagram(diagramKey);
+
+        if (mermaidDiagram == null)
+        {
+            /*
+             * The element is converted without its diagrams, then just the requested diagram is rendered.
+             */
+            QueryOptions conversionQueryOptions = new QueryOptions(queryOptions);
+
+            conversionQueryOptions.setMaxMermaidNodeCount(0);
+
+            OpenMetadataRootElement rootElement = this.convertRootElement(userId,
+                                                                          openMetadataElement,
+                                                                          conversionQueryOptions,
+                                                                          methodName);
+
+            if (rootElement != null)
             {
-                UserAccountStatusProfileMermaidPieChartBuilder statusPieChartBuilder = new UserAccountStatusProfileMermaidPieChartBuilder(rootElement);
-                UserAccountTypeProfileMermaidPieChartBuilder   typePieChartBuilder   = new UserAccountTypeProfileMermaidPieChartBuilder(rootElement);
+                mermaidDiagram = this.getMermaidDiagram(rootElement, diagramKind, queryOptions.getMaxMermaidNodeCount());
 
-                rootElement.setUserAccountStatusProfileMermaidPieChart(statusPieChartBuilder.getMermaidPieChart());
-                rootElement.setUserAccountTypeProfileMermaidPieChart(typePieChartBuilder.getMermaidPieChart());
+                mermaidDiagramCache.putDiagram(diagramKey, mermaidDiagram);
             }
         }
 
-        return rootElement;
+        return mermaidDiagram;
     }
 
 
@@ -1779,10 +2272,7 @@ public class OpenMetadataHandlerBase
         {
             if (queryOptions.getGraphQueryDepth() > currentDepth)
             {
-                QueryOptions workingQueryOptions = new QueryOptions(queryOptions);
-                workingQueryOptions.setStartFrom(0);
-                workingQueryOptions.setPageSize(queryOptions.getRelationshipsPageSize());
-                workingQueryOptions.setMetadataElementTypeName(OpenMetadataType.OPEN_METADATA_ROOT.typeName); // want all types of elements back
+                QueryOptions workingQueryOptions = this.getRelationshipQueryOptions(queryOptions);
 
                 /*
                  * If there are no side relationships, then we can optimize and only receive the main hierarchical relationship.
@@ -2214,6 +2704,68 @@ public class OpenMetadataHandlerBase
     }
 
 
+    /**
+     * Return the properties of several elements.  The elements and their related elements are retrieved with
+     * one request each.  The mermaid diagrams for each element are rendered unless skipListMermaidDiagrams is
+     * set in the options.  Identifiers that do not match a visible element are skipped.
+     *
+     * @param userId      userId of the user making the request
+     * @param elementGUIDs unique identifiers of the required elements
+     * @param suppliedGetOptions  multiple options to control the query
+     * @param methodName calling method
+     * @return retrieved elements in the order of the supplied identifiers, or null if none are found
+     * @throws InvalidParameterException  one of the parameters is null or invalid.
+     * @throws PropertyServerException    a problem retrieving information from the property server(s).
+     * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
+     */
+    public List<OpenMetadataRootElement> getRootElementsByGUIDs(String       userId,
+                                                                List<String> elementGUIDs,
+                                                                GetOptions   suppliedGetOptions,
+                                                                String       methodName) throws InvalidParameterException,
+                                                                                                PropertyServerException,
+                                                                                                UserNotAuthorizedException
+    {
+        GetOptions getOptions = new GetOptions(suppliedGetOptions);
+
+        if (getOptions.getMetadataElementTypeName() == null)
+        {
+            getOptions.setMetadataElementTypeName(metadataElementTypeName);
+        }
+
+        propertyHelper.validateUserId(userId, methodName);
+
+        List<OpenMetadataElement> openMetadataElements = openMetadataClient.getMetadataElementsByGUIDs(userId, elementGUIDs, getOptions);
+
+        if (openMetadataElements != null)
+        {
+            for (OpenMetadataElement openMetadataElement : openMetadataElements)
+            {
+                if ((openMetadataElement != null) && (! propertyHelper.isTypeOf(openMetadataElement, getOptions.getMetadataElementTypeName())))
+                {
+                    throw new InvalidParameterException(OMFErrorCode.WRONG_TYPE_FOR_ELEMENT.getMessageDefinition(openMetadataElement.getElementGUID(),
+                                                                                                                 openMetadataElement.getType().getTypeName(),
+                                                                                                                 getOptions.getMetadataElementTypeName()),
+                                                        this.getClass().getName(),
+                                                        methodName,
+                                                        OpenMetadataProperty.OPEN_METADATA_TYPE_NAME.name);
+                }
+            }
+
+            List<OpenMetadataRootElement> rootElements = this.convertRootElements(userId,
+                                                                                  openMetadataElements,
+                                                                                  new QueryOptions(getOptions),
+                                                                                  methodName);
+
+            if ((rootElements != null) && (! rootElements.isEmpty()))
+            {
+                return rootElements;
+            }
+        }
+
+        return null;
+    }
+
+
     /**
      * Return the properties of a specific governance definition.
      *
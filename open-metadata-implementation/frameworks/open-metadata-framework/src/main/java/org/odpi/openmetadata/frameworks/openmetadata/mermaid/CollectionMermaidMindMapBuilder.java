@@ -16,7 +16,7 @@ import org.odpi.openmetadata.frameworks.openmetadata.types.OpenMetadataType;
  */
 public class CollectionMermaidMindMapBuilder
 {
-    private       StringBuilder  mermaidMindMap = new StringBuilder();
+    private       StringBuilder  mermaidMindMap = new StringBuilder(MermaidGraphBuilderBase.INITIAL_GRAPH_CAPACITY);
     private final PropertyHelper propertyHelper = new PropertyHelper();
 
     /**
@@ -135,10 +135,10 @@ public class CollectionMermaidMindMapBuilder
     {
         if (displayName != null)
         {
-            String quotesGone = displayName.replaceAll("\"", "'");
-            String doubleSlashGone = quotesGone.replaceAll("//", "/ /");
-            String placeholderStartGone = doubleSlashGone.replaceAll("~\\{", " *");
-            return placeholderStartGone.replaceAll("}~", "* ");
+            String quotesGone = displayName.replace("\"", "'");
+            String doubleSlashGone = quotesGone.replace("//", "/ /");
+            String placeholderStartGone = doubleSlashGone.replace("~{", " *");
+            return placeholderStartGone.replace("}~", "* ");
         }
 
         return null;
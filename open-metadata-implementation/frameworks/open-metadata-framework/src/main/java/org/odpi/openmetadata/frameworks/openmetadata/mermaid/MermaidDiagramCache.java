@@ -0,0 +1,140 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.frameworks.openmetadata.mermaid;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MermaidDiagramCache holds mermaid diagrams that have been rendered on demand.  A diagram is stored under the
+ * unique identifier and version of the element it describes, the kind of diagram and the options that affect
+ * its content, so a change to the element means its old diagrams are no longer found.  The diagram also shows
+ * the elements linked to the element, which may change without the element's version changing, so entries
+ * expire after a short time.
+ * <br><br>
+ * The cache holds a fixed number of diagrams.  When it is full, the least recently used diagram is discarded.
+ */
+public class MermaidDiagramCache
+{
+    /**
+     * Default number of diagrams held in the cache.
+     */
+    public static final int  DEFAULT_MAXIMUM_ENTRIES = 500;
+
+    /**
+     * Default time in milliseconds that a diagram is kept in the cache.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE    = 60000L;
+
+    private final long                           timeToLive;
+    private final Map<String, CachedDiagram>     diagrams;
+
+
+    /**
+     * Create a cache with the default settings.
+     */
+    public MermaidDiagramCache()
+    {
+        this(DEFAULT_MAXIMUM_ENTRIES, DEFAULT_TIME_TO_LIVE);
+    }
+
+
+    /**
+     * Create a cache.
+     *
+     * @param maximumEntries maximum number of diagrams held in the cache
+     * @param timeToLive time in milliseconds that a diagram is kept in the cache
+     */
+    public MermaidDiagramCache(int  maximumEntries,
+                               long timeToLive)
+    {
+        this.timeToLive = timeToLive;
+        this.diagrams   = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedDiagram> eldest)
+            {
+                return size() > maximumEntries;
+            }
+        };
+    }
+
+
+    /**
+     * Build the key for a diagram.
+     *
+     * @param elementGUID unique identifier of the element the diagram describes
+     * @param elementVersion version of the element
+     * @param diagramKind kind of diagram
+     * @param optionsKey description of the options that affect the content of the diagram
+     * @return cache key
+     */
+    public static String getDiagramKey(String             elementGUID,
+                                       long               elementVersion,
+                                       MermaidDiagramKind diagramKind,
+                                       String             optionsKey)
+    {
+        return elementGUID + ":" + elementVersion + ":" + diagramKind.getDiagramName() + ":" + optionsKey;
+    }
+
+
+    /**
+     * Return the cached diagram for the key.
+     *
+     * @param diagramKey key from getDiagramKey
+     * @return mermaid markdown or null if the diagram is not cached (or has expired)
+     */
+    public synchronized String getDiagram(String diagramKey)
+    {
+        CachedDiagram cachedDiagram = diagrams.get(diagramKey);
+
+        if (cachedDiagram != null)
+        {
+            if (cachedDiagram.expiryTime() > System.currentTimeMillis())
+            {
+                return cachedDiagram.mermaidDiagram();
+            }
+
+            diagrams.remove(diagramKey);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Save a rendered diagram.  Diagrams that could not be rendered (null) are not cached.
+     *
+     * @param diagramKey key from getDiagramKey
+     * @param mermaidDiagram mermaid markdown
+     */
+    public synchronized void putDiagram(String diagramKey,
+                                        String mermaidDiagram)
+    {
+        if ((diagramKey != null) && (mermaidDiagram != null))
+        {
+            diagrams.put(diagramKey, new CachedDiagram(mermaidDiagram, System.currentTimeMillis() + timeToLive));
+        }
+    }
+
+
+    /**
+     * Discard all the cached diagrams.
+     */
+    public synchronized void clear()
+    {
+        diagrams.clear();
+    }
+
+
+    /**
+     * A rendered diagram and the time it expires.
+     *
+     * @param mermaidDiagram mermaid markdown
+     * @param expiryTime time in milliseconds after which the diagram is not returned
+     */
+    private record CachedDiagram(String mermaidDiagram, long expiryTime)
+    {
+    }
+}
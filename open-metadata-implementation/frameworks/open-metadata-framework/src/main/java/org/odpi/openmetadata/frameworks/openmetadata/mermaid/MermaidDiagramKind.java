@@ -0,0 +1,145 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.frameworks.openmetadata.mermaid;
+
+
+/**
+ * Defines the different mermaid diagrams that can be rendered for a root element.  The diagram name is used
+ * to request a diagram for an element on demand.
+ */
+public enum MermaidDiagramKind
+{
+    /**
+     * The element and the elements linked to it.
+     */
+    ROOT_GRAPH("root-graph", "The element and the elements linked to it."),
+
+    /**
+     * The specification properties attached to the element.
+     */
+    SPECIFICATION("specification", "The specification properties attached to the element."),
+
+    /**
+     * The solution components in a solution blueprint.
+     */
+    SOLUTION_BLUEPRINT("solution-blueprint", "The solution components in a solution blueprint."),
+
+    /**
+     * The subcomponents of a solution component.
+     */
+    SOLUTION_SUBCOMPONENT("solution-subcomponent", "The subcomponents of a solution component."),
+
+    /**
+     * The sub-teams of a team.
+     */
+    ORGANIZATION_TREE("organization-tree", "The sub-teams of a team."),
+
+    /**
+     * The nested collections of a collection.
+     */
+    COLLECTION_MIND_MAP("collection-mind-map", "The nested collections of a collection."),
+
+    /**
+     * Pie chart of the elements in a governance zone, by type.
+     */
+    ZONE_PROFILE("zone-profile", "Pie chart of the elements in a governance zone, by type."),
+
+    /**
+     * Pie chart of the anchored elements in a governance zone, by type.
+     */
+    ZONE_PROFILE_ANCHORED("zone-profile-anchored", "Pie chart of the anchored elements in a governance zone, by type."),
+
+    /**
+     * Pie chart of all the elements in a governance zone, by type.
+     */
+    ZONE_PROFILE_ALL("zone-profile-all", "Pie chart of all the elements in a governance zone, by type."),
+
+    /**
+     * Pie chart of the user accounts for an actor, by status.
+     */
+    USER_ACCOUNT_STATUS_PROFILE("user-account-status-profile", "Pie chart of the user accounts for an actor, by status."),
+
+    /**
+     * Pie chart of the user accounts for an actor, by type.
+     */
+    USER_ACCOUNT_TYPE_PROFILE("user-account-type-profile", "Pie chart of the user accounts for an actor, by type.");
+
+
+    private final String diagramName;
+    private final String description;
+
+
+    /**
+     * Constructor for enum.
+     *
+     * @param diagramName name used to request the diagram
+     * @param description description of the diagram
+     */
+    MermaidDiagramKind(String diagramName,
+                       String description)
+    {
+        this.diagramName = diagramName;
+        this.description = description;
+    }
+
+
+    /**
+     * Return the name used to request the diagram.
+     *
+     * @return string
+     */
+    public String getDiagramName()
+    {
+        return diagramName;
+    }
+
+
+    /**
+     * Return the description of the diagram.
+     *
+     * @return string
+     */
+    public String getDescription()
+    {
+        return description;
+    }
+
+
+    /**
+     * Return the diagram kind for the supplied name.  Either the diagram name or the enum name may be used.
+     *
+     * @param diagramName name of the diagram
+     * @return diagram kind or null if the name is not recognized
+     */
+    public static MermaidDiagramKind getDiagramKind(String diagramName)
+    {
+        if (diagramName != null)
+        {
+            for (MermaidDiagramKind diagramKind : MermaidDiagramKind.values())
+            {
+                if ((diagramKind.getDiagramName().equals(diagramName)) || (diagramKind.name().equals(diagramName)))
+                {
+                    return diagramKind;
+                }
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * JSON-style toString
+     *
+     * @return string of property names and values for this enum
+     */
+    @Override
+    public String toString()
+    {
+        return "MermaidDiagramKind{" +
+                "diagramName='" + diagramName + '\'' +
+                ", description='" + description + '\'' +
+                '}';
+    }
+}
@@ -30,13 +30,23 @@ import org.odpi.openmetadata.frameworks.openmetadata.types.OpenMetadataProperty;
 import org.odpi.openmetadata.frameworks.openmetadata.types.OpenMetadataType;
 
 import java.util.*;
+import java.util.regex.Pattern;
 
 /**
  * Provides the basic functions for building flowchart based graph visualizations.
  */
 public class MermaidGraphBuilderBase
 {
-    protected StringBuilder                  mermaidGraph      = new StringBuilder();
+    /**
+     * Initial size of the graph buffer.  Graphs are typically a few kilobytes so starting at this size avoids
+     * repeatedly copying the buffer as it grows.
+     */
+    protected static final int INITIAL_GRAPH_CAPACITY = 8192;
+
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+    private static final Pattern BRACKETS_PATTERN   = Pattern.compile("[\\[\\](){}]");
+
+    protected StringBuilder                  mermaidGraph      = new StringBuilder(INITIAL_GRAPH_CAPACITY);
 
     private final   Set<String>              usedNodeNames     = new HashSet<>();
     private final   Set<String>              usedLinkNames     = new HashSet<>();
@@ -1342,11 +1352,11 @@ public class MermaidGraphBuilderBase
     {
         if (displayName != null)
         {
-            String quotesGone = displayName.replaceAll("\"", "'");
-            String doubleSlashGone = quotesGone.replaceAll("//", "/ /");
-            String placeholderStartGone = doubleSlashGone.replaceAll("~\\{", " *");
-            String placeholderEndGone =  placeholderStartGone.replaceAll("}~", "* ");
-            return placeholderEndGone.replaceAll(": ", " - ");
+            String quotesGone = displayName.replace("\"", "'");
+            String doubleSlashGone = quotesGone.replace("//", "/ /");
+            String placeholderStartGone = doubleSlashGone.replace("~{", " *");
+            String placeholderEndGone =  placeholderStartGone.replace("}~", "* ");
+            return placeholderEndGone.replace(": ", " - ");
         }
 
         return null;
@@ -1367,8 +1377,8 @@ public class MermaidGraphBuilderBase
     {
         if (displayName != null)
         {
-            String quotesGone = displayName.replaceAll("\"", "'");
-            return quotesGone.replaceAll(": ", " - ");
+            String quotesGone = displayName.replace("\"", "'");
+            return quotesGone.replace(": ", " - ");
         }
 
         return null;
@@ -1691,8 +1701,8 @@ public class MermaidGraphBuilderBase
     {
         if (currentNodeName != null)
         {
-            String noSpaces = currentNodeName.replaceAll("\\s+", "");
-            return noSpaces.replaceAll("[\\[\\](){}]", "");
+            String noSpaces = WHITESPACE_PATTERN.matcher(currentNodeName).replaceAll("");
+            return BRACKETS_PATTERN.matcher(noSpaces).replaceAll("");
         }
 
         return null;
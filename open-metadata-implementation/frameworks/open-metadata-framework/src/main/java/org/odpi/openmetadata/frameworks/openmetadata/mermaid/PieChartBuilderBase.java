@@ -14,7 +14,10 @@ import java.util.Map;
  */
 public class PieChartBuilderBase
 {
-    private StringBuilder mermaidPieChart = new StringBuilder();
+    /*
+     * A pie chart has at most 16 segments so it fits in a small buffer.
+     */
+    private StringBuilder mermaidPieChart = new StringBuilder(1024);
 
 
     /**
@@ -0,0 +1,202 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.frameworks.openmetadata.search;
+
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.OMFErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * ContinuationToken describes where the next page of a query's results starts.  It is passed to callers as an
+ * opaque string (see getToken()) that they hand back unchanged to retrieve the next page.
+ * <br><br>
+ * The token records the sequencing key and unique identifier (guid) of the last element on the previous page.
+ * Results are sequenced by the sequencing key and then by guid, so a repository that can seek can start the next
+ * page immediately after that element rather than reading and discarding all the earlier elements as it must for
+ * startFrom.  This also means that elements added or removed ahead of the last element do not cause elements to
+ * be skipped or repeated.  Repositories that can not seek use the element number that is also recorded in the
+ * token to decide how many of their results to read before skipping those at or before the position.
+ */
+public class ContinuationToken
+{
+    /*
+     * The token format is versioned so that its content can evolve without breaking long-running harvests.
+     */
+    private static final String TOKEN_VERSION   = "1";
+    private static final String FIELD_SEPARATOR = "\n";
+    private static final String VALUE_MARKER    = "=";
+
+    private final int    nextElement;
+    private final String lastGUID;
+    private final String lastSequencingValue;
+
+
+    /**
+     * Create a continuation token.
+     *
+     * @param nextElement element number of the first element of the next page - used by repositories that can not seek
+     * @param lastGUID unique identifier of the last element on the previous page
+     * @param lastSequencingValue value of the sequencing key of the last element on the previous page, formatted as a
+     *                            string (dates are formatted as milliseconds since the epoch) - null means the
+     *                            element had no value, or the results are sequenced by guid
+     */
+    public ContinuationToken(int    nextElement,
+                             String lastGUID,
+                             String lastSequencingValue)
+    {
+        this.nextElement         = nextElement;
+        this.lastGUID            = lastGUID;
+        this.lastSequencingValue = lastSequencingValue;
+    }
+
+
+    /**
+     * Return the element number of the first element of the next page.
+     *
+     * @return int
+     */
+    public int getNextElement()
+    {
+        return nextElement;
+    }
+
+
+    /**
+     * Return the unique identifier of the last element on the previous page.
+     *
+     * @return guid
+     */
+    public String getLastGUID()
+    {
+        return lastGUID;
+    }
+
+
+    /**
+     * Return the value of the sequencing key of the last element on the previous page.
+     *
+     * @return string formatted value or null
+     */
+    public String getLastSequencingValue()
+    {
+        return lastSequencingValue;
+    }
+
+
+    /**
+     * Return the opaque string form of this token that is passed to the caller.
+     *
+     * @return token string
+     */
+    public String getToken()
+    {
+        String tokenContent = TOKEN_VERSION + FIELD_SEPARATOR +
+                nextElement + FIELD_SEPARATOR +
+                (lastGUID == null ? "" : lastGUID) + FIELD_SEPARATOR +
+                (lastSequencingValue == null ? "" : VALUE_MARKER + lastSequencingValue);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(tokenContent.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Decode the string form of a continuation token supplied by a caller.
+     *
+     * @param token token string returned with the previous page of results
+     * @param parameterName name of the parameter that supplied the token
+     * @param methodName calling method
+     * @return decoded token or null if the token is null (which means start from the first element)
+     * @throws InvalidParameterException the token is not a valid continuation token
+     */
+    public static ContinuationToken getContinuationToken(String token,
+                                                         String parameterName,
+                                                         String methodName) throws InvalidParameterException
+    {
+        if (token == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            String   tokenContent = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] fields       = tokenContent.split(FIELD_SEPARATOR, 4);
+
+            /*
+             * A sequencing value is only meaningful alongside the guid of the element it came from.
+             */
+            if ((fields.length == 4) && (TOKEN_VERSION.equals(fields[0])) &&
+                        ((fields[3].isEmpty()) || ((fields[3].startsWith(VALUE_MARKER)) && (! fields[2].isEmpty()))))
+            {
+                int nextElement = Integer.parseInt(fields[1]);
+
+                if (nextElement >= 0)
+                {
+                    return new ContinuationToken(nextElement,
+                                                 fields[2].isEmpty() ? null : fields[2],
+                                                 fields[3].isEmpty() ? null : fields[3].substring(VALUE_MARKER.length()));
+                }
+            }
+        }
+        catch (IllegalArgumentException error)
+        {
+            // drop through to the exception below (NumberFormatException is also an IllegalArgumentException)
+        }
+
+        throw new InvalidParameterException(OMFErrorCode.INVALID_CONTINUATION_TOKEN.getMessageDefinition(token,
+                                                                                                        parameterName,
+                                                                                                        methodName),
+                                            ContinuationToken.class.getName(),
+                                            methodName,
+                                            parameterName);
+    }
+
+
+    /**
+     * JSON-style toString
+     *
+     * @return return string containing the property names and values
+     */
+    @Override
+    public String toString()
+    {
+        return "ContinuationToken{" +
+                "nextElement=" + nextElement +
+                ", lastGUID='" + lastGUID + '\'' +
+                ", lastSequencingValue='" + lastSequencingValue + '\'' +
+                '}';
+    }
+
+
+    /**
+     * Return comparison result based on the content of the properties.
+     *
+     * @param objectToCompare test object
+     * @return result of comparison
+     */
+    @Override
+    public boolean equals(Object objectToCompare)
+    {
+        if (this == objectToCompare) return true;
+        if (objectToCompare == null || getClass() != objectToCompare.getClass()) return false;
+        ContinuationToken that = (ContinuationToken) objectToCompare;
+        return nextElement == that.nextElement &&
+                Objects.equals(lastGUID, that.lastGUID) &&
+                Objects.equals(lastSequencingValue, that.lastSequencingValue);
+    }
+
+
+    /**
+     * Return hash code for this object
+     *
+     * @return int hash code
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(nextElement, lastGUID, lastSequencingValue);
+    }
+}
@@ -28,6 +28,7 @@ public class GetOptions extends BasicOptions
     private int          relationshipsPageSize         = 0;
     private int          graphQueryDepth               = 5;
     private int          maxMermaidNodeCount           = 5;
+    private boolean      skipListMermaidDiagrams       = false;
 
     /**
      * Default constructor
@@ -56,6 +57,7 @@ public class GetOptions extends BasicOptions
             relationshipsPageSize         = template.getRelationshipsPageSize();
             graphQueryDepth               = template.getGraphQueryDepth();
             maxMermaidNodeCount           = template.getMaxMermaidNodeCount();
+            skipListMermaidDiagrams       = template.getSkipListMermaidDiagrams();
         }
     }
 
@@ -234,6 +236,30 @@ public class GetOptions extends BasicOptions
     }
 
 
+    /**
+     * Return whether the mermaid diagrams of each element are left out of a list of results (this includes the
+     * nodes of a lineage graph).  The diagrams for an individual element can be requested separately.
+     *
+     * @return boolean (default is false)
+     */
+    public boolean getSkipListMermaidDiagrams()
+    {
+        return skipListMermaidDiagrams;
+    }
+
+
+    /**
+     * Set up whether the mermaid diagrams of each element are left out of a list of results (this includes the
+     * nodes of a lineage graph).  The diagrams for an individual element can be requested separately.
+     *
+     * @param skipListMermaidDiagrams boolean (default is false)
+     */
+    public void setSkipListMermaidDiagrams(boolean skipListMermaidDiagrams)
+    {
+        this.skipListMermaidDiagrams = skipListMermaidDiagrams;
+    }
+
+
     /**
      * JSON-style toString
      *
@@ -250,6 +276,7 @@ public class GetOptions extends BasicOptions
                 ", relationshipsPageSize=" + relationshipsPageSize +
                 ", graphQueryDepth=" + graphQueryDepth +
                 ", maxMermaidNodeCount=" + maxMermaidNodeCount +
+                ", skipListMermaidDiagrams=" + skipListMermaidDiagrams +
                 "} " + super.toString();
     }
 
@@ -270,6 +297,7 @@ public class GetOptions extends BasicOptions
         GetOptions that = (GetOptions) objectToCompare;
         return graphQueryDepth == that.graphQueryDepth &&
                 maxMermaidNodeCount == that.maxMermaidNodeCount &&
+                skipListMermaidDiagrams == that.skipListMermaidDiagrams &&
                 Objects.equals(asOfTime, that.asOfTime) &&
                 Objects.equals(metadataElementTypeName, that.metadataElementTypeName) &&
                 Objects.equals(skipRelationships, that.skipRelationships) &&
@@ -287,6 +315,6 @@ public class GetOptions extends BasicOptions
     {
         return Objects.hash(super.hashCode(), asOfTime, metadataElementTypeName,
                             skipRelationships, includeOnlyRelationships, relationshipsPageSize,
-                            graphQueryDepth, maxMermaidNodeCount);
+                            graphQueryDepth, maxMermaidNodeCount, skipListMermaidDiagrams);
     }
 }
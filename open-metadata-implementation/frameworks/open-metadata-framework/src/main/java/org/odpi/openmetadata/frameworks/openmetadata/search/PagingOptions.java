@@ -19,8 +19,9 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
 @JsonIgnoreProperties(ignoreUnknown=true)
 public class PagingOptions extends GetOptions
 {
-    private int startFrom = 0;
-    private int pageSize  = 0;
+    private int    startFrom         = 0;
+    private int    pageSize          = 0;
+    private String continuationToken = null;
 
 
     /**
@@ -43,8 +44,9 @@ public class PagingOptions extends GetOptions
 
         if (template != null)
         {
-            startFrom = template.getStartFrom();
-            pageSize  = template.getPageSize();
+            startFrom         = template.getStartFrom();
+            pageSize          = template.getPageSize();
+            continuationToken = template.getContinuationToken();
         }
     }
 
@@ -117,6 +119,33 @@ public class PagingOptions extends GetOptions
     }
 
 
+    /**
+     * Return the continuation token returned with the previous page of results.  When it is set, the next page
+     * starts immediately after the last element of the previous page and startFrom is ignored.  This is more
+     * efficient than startFrom when retrieving many pages and is not disturbed by elements being added or removed
+     * ahead of the current page.  Null means start from startFrom.
+     *
+     * @return opaque token string or null
+     */
+    public String getContinuationToken()
+    {
+        return continuationToken;
+    }
+
+
+    /**
+     * Set up the continuation token returned with the previous page of results.  When it is set, the next page
+     * starts immediately after the last element of the previous page and startFrom is ignored.  Null means
+     * start from startFrom.
+     *
+     * @param continuationToken opaque token string or null
+     */
+    public void setContinuationToken(String continuationToken)
+    {
+        this.continuationToken = continuationToken;
+    }
+
+
     /**
      * JSON-style toString
      *
@@ -128,6 +157,7 @@ public class PagingOptions extends GetOptions
         return "PagingOptions{" +
                 "startFrom=" + startFrom +
                 ", pageSize=" + pageSize +
+                ", continuationToken='" + continuationToken + '\'' +
                 "} " + super.toString();
     }
 
@@ -146,7 +176,8 @@ public class PagingOptions extends GetOptions
         if (!super.equals(objectToCompare)) return false;
         PagingOptions that = (PagingOptions) objectToCompare;
         return startFrom == that.startFrom &&
-                pageSize == that.pageSize ;
+                pageSize == that.pageSize &&
+                Objects.equals(continuationToken, that.continuationToken);
     }
 
     /**
@@ -157,6 +188,6 @@ public class PagingOptions extends GetOptions
     @Override
     public int hashCode()
     {
-        return Objects.hash(super.hashCode(), startFrom, pageSize);
+        return Objects.hash(super.hashCode(), startFrom, pageSize, continuationToken);
     }
 }
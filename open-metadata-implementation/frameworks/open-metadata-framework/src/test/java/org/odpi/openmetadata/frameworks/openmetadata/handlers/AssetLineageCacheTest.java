@@ -0,0 +1,259 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.frameworks.openmetadata.handlers;
+
+import org.odpi.openmetadata.frameworks.openmetadata.events.OpenMetadataOutTopicEvent;
+import org.odpi.openmetadata.frameworks.openmetadata.metadataelements.AssetLineageGraphNode;
+import org.odpi.openmetadata.frameworks.openmetadata.metadataelements.ElementClassification;
+import org.odpi.openmetadata.frameworks.openmetadata.metadataelements.ElementHeader;
+import org.odpi.openmetadata.frameworks.openmetadata.metadataelements.RelatedMetadataNodeSummary;
+import org.odpi.openmetadata.frameworks.openmetadata.properties.AnchorsProperties;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Verify that AssetLineageCache keeps its weight and element index in step with its entries as entries are
+ * replaced, evicted, invalidated and expired.
+ */
+public class AssetLineageCacheTest
+{
+    private static final String scope         = "testUser";
+    private static final Date   effectiveTime = new Date(1735689600000L);
+    private static final long   longTimeToLive = 600000L;
+
+
+    /**
+     * When the cache goes over its maximum weight, the least recently used entries are discarded.
+     */
+    @Test
+    public void testEvictionOverMaximumWeight()
+    {
+        AssetLineageCache cache = new AssetLineageCache(10L, longTimeToLive, AssetLineageCache.DEFAULT_EFFECTIVE_TIME_BUCKET);
+
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetA", 3, "linkA"));
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetB", 3, "linkB"));
+
+        assertEquals(cache.getTotalWeight(), 8L);
+
+        /*
+         * Using assetA makes assetB the least recently used entry.
+         */
+        assertNotNull(cache.getLineageVisit(scope, effectiveTime, "assetA", 0));
+
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetC", 3, "linkC"));
+
+        assertEquals(cache.getEntryCount(), 2);
+        assertEquals(cache.getTotalWeight(), 8L);
+        assertEquals(cache.getIndexedElementCount(), 4);
+        assertNull(cache.getLineageVisit(scope, effectiveTime, "assetB", 0));
+        assertNotNull(cache.getLineageVisit(scope, effectiveTime, "assetA", 0));
+        assertNotNull(cache.getLineageVisit(scope, effectiveTime, "assetC", 0));
+
+        /*
+         * An entry that is heavier than the whole cache pushes everything out, including itself.
+         */
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetD", 20, "linkD"));
+
+        assertEquals(cache.getEntryCount(), 0);
+        assertEquals(cache.getTotalWeight(), 0L);
+        assertEquals(cache.getIndexedElementCount(), 0);
+    }
+
+
+    /**
+     * Replacing an entry removes the index entries that only it held, while the elements mentioned by other
+     * entries stay indexed.  Evicting and invalidating entries do the same.
+     */
+    @Test
+    public void testWeightAndIndexAfterRemoval()
+    {
+        AssetLineageCache cache = new AssetLineageCache(11L, longTimeToLive, AssetLineageCache.DEFAULT_EFFECTIVE_TIME_BUCKET);
+
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetA", 2, "linkX", "linkY"));
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetB", 2, "linkY", "linkZ"));
+
+        assertEquals(cache.getTotalWeight(), 6L);
+        assertEquals(cache.getIndexedElementCount(), 5);
+
+        /*
+         * Replace assetA's entry with one that no longer links to linkY - linkY is still held by assetB.
+         */
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetA", 1, "linkX"));
+
+        assertEquals(cache.getEntryCount(), 2);
+        assertEquals(cache.getTotalWeight(), 5L);
+        assertEquals(cache.getIndexedElementCount(), 5);
+
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetA", 0));
+
+        assertEquals(cache.getTotalWeight(), 4L);
+        assertEquals(cache.getIndexedElementCount(), 4);
+
+        /*
+         * Replacing assetA made assetB the least recently used entry, so it is evicted.  linkZ leaves the index
+         * but linkY is still held by assetC.
+         */
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetC", 7, "linkY"));
+
+        assertEquals(cache.getEntryCount(), 2);
+        assertEquals(cache.getTotalWeight(), 9L);
+        assertEquals(cache.getIndexedElementCount(), 3);
+        assertNull(cache.getLineageVisit(scope, effectiveTime, "assetB", 0));
+
+        /*
+         * linkY is now only mentioned by assetC's entry.
+         */
+        cache.invalidate("linkY");
+
+        assertEquals(cache.getEntryCount(), 1);
+        assertEquals(cache.getTotalWeight(), 1L);
+        assertEquals(cache.getIndexedElementCount(), 1);
+        assertNotNull(cache.getLineageVisit(scope, effectiveTime, "assetA", 0));
+    }
+
+
+    /**
+     * Events remove the entries for the elements they describe, for the anchors of these elements and for the
+     * elements at the ends of a relationship.
+     */
+    @Test
+    public void testInvalidationFromEvents()
+    {
+        AssetLineageCache cache = new AssetLineageCache();
+
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetA", 1, "linkA"));
+        cache.putLineageVisit(scope, effectiveTime, 1, this.getVisit("assetA", 1, "linkA"));
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetB", 1, "linkB"));
+
+        OpenMetadataOutTopicEvent unrelatedEvent = new OpenMetadataOutTopicEvent();
+
+        unrelatedEvent.setElementHeader(this.getElementHeader("otherElement", "otherAnchor"));
+        cache.processEvent(unrelatedEvent);
+
+        assertEquals(cache.getEntryCount(), 3);
+
+        /*
+         * A relationship whose end one is a schema attribute anchored to assetA - both of assetA's entries go.
+         */
+        OpenMetadataOutTopicEvent relationshipEvent = new OpenMetadataOutTopicEvent();
+
+        relationshipEvent.setElementHeader(this.getElementHeader("relationship", null));
+        relationshipEvent.setEndOneElementHeader(this.getElementHeader("schemaAttribute", "assetA"));
+        relationshipEvent.setEndTwoElementHeader(this.getElementHeader("otherElement", null));
+        cache.processEvent(relationshipEvent);
+
+        assertEquals(cache.getEntryCount(), 1);
+        assertEquals(cache.getTotalWeight(), 2L);
+        assertEquals(cache.getIndexedElementCount(), 2);
+        assertNull(cache.getLineageVisit(scope, effectiveTime, "assetA", 0));
+        assertNull(cache.getLineageVisit(scope, effectiveTime, "assetA", 1));
+
+        /*
+         * A change to an asset linked to assetB removes assetB's entry.
+         */
+        OpenMetadataOutTopicEvent linkedAssetEvent = new OpenMetadataOutTopicEvent();
+
+        linkedAssetEvent.setElementHeader(this.getElementHeader("linkB", null));
+        cache.processEvent(linkedAssetEvent);
+
+        assertEquals(cache.getEntryCount(), 0);
+        assertEquals(cache.getTotalWeight(), 0L);
+        assertEquals(cache.getIndexedElementCount(), 0);
+    }
+
+
+    /**
+     * An entry is not returned once its time-to-live has passed, and the expired entry is removed.
+     *
+     * @throws InterruptedException interrupted while waiting for the entry to expire
+     */
+    @Test
+    public void testTimeToLiveExpiry() throws InterruptedException
+    {
+        AssetLineageCache cache = new AssetLineageCache(AssetLineageCache.DEFAULT_MAXIMUM_WEIGHT, 100L, AssetLineageCache.DEFAULT_EFFECTIVE_TIME_BUCKET);
+
+        cache.putLineageVisit(scope, effectiveTime, 0, this.getVisit("assetA", 2, "linkA"));
+
+        assertNotNull(cache.getLineageVisit(scope, effectiveTime, "assetA", 0));
+        assertEquals(cache.getHitCount(), 1L);
+
+        Thread.sleep(200L);
+
+        assertNull(cache.getLineageVisit(scope, effectiveTime, "assetA", 0));
+        assertEquals(cache.getMissCount(), 1L);
+        assertEquals(cache.getEntryCount(), 0);
+        assertEquals(cache.getTotalWeight(), 0L);
+        assertEquals(cache.getIndexedElementCount(), 0);
+    }
+
+
+    /**
+     * Build the lineage adjacency for an asset.  Each linked asset is downstream of the asset.
+     *
+     * @param assetGUID unique identifier of the asset
+     * @param relationshipCount number of lineage relationships in the node (sets the entry's weight)
+     * @param linkedAssetGUIDs unique identifiers of the linked assets
+     * @return lineage visit
+     */
+    private AssetHandler.LineageVisit getVisit(String    assetGUID,
+                                               int       relationshipCount,
+                                               String... linkedAssetGUIDs)
+    {
+        AssetLineageGraphNode            asset         = new AssetLineageGraphNode();
+        List<RelatedMetadataNodeSummary> relationships = new ArrayList<>();
+        Map<String, AssetHandler.LineageLink> downstreamAssets = new HashMap<>();
+
+        for (int relationshipNumber = 0; relationshipNumber < relationshipCount; relationshipNumber++)
+        {
+            relationships.add(new RelatedMetadataNodeSummary());
+        }
+
+        for (String linkedAssetGUID : linkedAssetGUIDs)
+        {
+            downstreamAssets.put(linkedAssetGUID, new AssetHandler.LineageLink(Set.of("DataFlow"), Set.of()));
+        }
+
+        asset.setElementHeader(this.getElementHeader(assetGUID, null));
+        asset.setDownstreamRelationships(relationships);
+
+        return new AssetHandler.LineageVisit(asset, new HashMap<>(), downstreamAssets);
+    }
+
+
+    /**
+     * Build an element header.
+     *
+     * @param guid unique identifier of the element
+     * @param anchorGUID unique identifier of the element's anchor (or null)
+     * @return element header
+     */
+    private ElementHeader getElementHeader(String guid,
+                                           String anchorGUID)
+    {
+        ElementHeader elementHeader = new ElementHeader();
+
+        elementHeader.setGUID(guid);
+
+        if (anchorGUID != null)
+        {
+            ElementClassification anchor           = new ElementClassification();
+            AnchorsProperties     anchorProperties = new AnchorsProperties();
+
+            anchorProperties.setAnchorGUID(anchorGUID);
+            anchor.setClassificationProperties(anchorProperties);
+            elementHeader.setAnchor(anchor);
+        }
+
+        return elementHeader;
+    }
+}
@@ -0,0 +1,175 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.frameworks.openmetadata.search;
+
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.OMFErrorCode;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that continuation tokens survive the round trip through their string form and that tokens that have
+ * been altered or corrupted by the caller are rejected.
+ */
+public class ContinuationTokenTest
+{
+    private static final String parameterName = "continuationToken";
+    private static final String methodName    = "testMethod";
+
+
+    /**
+     * A token with a sequencing value decodes to the same token.
+     *
+     * @throws InvalidParameterException the token is rejected
+     */
+    @Test
+    public void testRoundTrip() throws InvalidParameterException
+    {
+        ContinuationToken token = new ContinuationToken(200, "a5f4b2c8-guid", "1735689600000");
+
+        ContinuationToken decodedToken = ContinuationToken.getContinuationToken(token.getToken(), parameterName, methodName);
+
+        assertEquals(decodedToken, token);
+        assertEquals(decodedToken.getNextElement(), 200);
+        assertEquals(decodedToken.getLastGUID(), "a5f4b2c8-guid");
+        assertEquals(decodedToken.getLastSequencingValue(), "1735689600000");
+    }
+
+
+    /**
+     * A token without a sequencing value (results sequenced by guid, or an element with no value) keeps the
+     * difference between no value and an empty value.
+     *
+     * @throws InvalidParameterException the token is rejected
+     */
+    @Test
+    public void testRoundTripWithoutSequencingValue() throws InvalidParameterException
+    {
+        ContinuationToken noValue    = new ContinuationToken(50, "guid-1", null);
+        ContinuationToken emptyValue = new ContinuationToken(50, "guid-1", "");
+
+        assertEquals(ContinuationToken.getContinuationToken(noValue.getToken(), parameterName, methodName), noValue);
+        assertEquals(ContinuationToken.getContinuationToken(emptyValue.getToken(), parameterName, methodName), emptyValue);
+        assertNotEquals(noValue.getToken(), emptyValue.getToken());
+    }
+
+
+    /**
+     * A token without a position pages by element number only.
+     *
+     * @throws InvalidParameterException the token is rejected
+     */
+    @Test
+    public void testRoundTripWithoutPosition() throws InvalidParameterException
+    {
+        ContinuationToken token = new ContinuationToken(0, null, null);
+
+        ContinuationToken decodedToken = ContinuationToken.getContinuationToken(token.getToken(), parameterName, methodName);
+
+        assertEquals(decodedToken, token);
+        assertNull(decodedToken.getLastGUID());
+        assertNull(decodedToken.getLastSequencingValue());
+    }
+
+
+    /**
+     * Property values may contain the characters used to format the token.
+     *
+     * @throws InvalidParameterException the token is rejected
+     */
+    @Test
+    public void testRoundTripWithSeparatorsInValue() throws InvalidParameterException
+    {
+        ContinuationToken token = new ContinuationToken(3, "guid-2", "first line\n=second line\n");
+
+        assertEquals(ContinuationToken.getContinuationToken(token.getToken(), parameterName, methodName), token);
+    }
+
+
+    /**
+     * The token string is safe to pass as a URL query parameter.
+     */
+    @Test
+    public void testTokenIsURLSafe()
+    {
+        String token = new ContinuationToken(Integer.MAX_VALUE, "guid-3", "??>>~~ value with / and + characters").getToken();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+
+    /**
+     * No token means start from the first element.
+     *
+     * @throws InvalidParameterException the token is rejected
+     */
+    @Test
+    public void testNullToken() throws InvalidParameterException
+    {
+        assertNull(ContinuationToken.getContinuationToken(null, parameterName, methodName));
+    }
+
+
+    /**
+     * Tokens that have been altered or corrupted are rejected.
+     */
+    @Test
+    public void testTamperedTokens()
+    {
+        String validToken = new ContinuationToken(10, "guid-4", "42").getToken();
+
+        validateRejected("");
+        validateRejected("not a token!");
+        validateRejected(validToken + "*");
+        validateRejected(validToken.substring(0, validToken.length() / 2) + "=" + validToken.substring(validToken.length() / 2));
+        validateRejected(encode("2\n10\nguid-4\n=42"));
+        validateRejected(encode("\n10\nguid-4\n=42"));
+        validateRejected(encode("1\n-10\nguid-4\n=42"));
+        validateRejected(encode("1\nten\nguid-4\n=42"));
+        validateRejected(encode("1\n99999999999\nguid-4\n=42"));
+        validateRejected(encode("1\n10\n\n=42"));
+        validateRejected(encode("1\n10\nguid-4\n42"));
+        validateRejected(encode("1\n10\nguid-4"));
+        validateRejected(encode("1\n10"));
+    }
+
+
+    /**
+     * Check that the token is rejected with the invalid continuation token error.
+     *
+     * @param token token to test
+     */
+    private void validateRejected(String token)
+    {
+        try
+        {
+            ContinuationToken.getContinuationToken(token, parameterName, methodName);
+            fail("Token accepted: " + token);
+        }
+        catch (InvalidParameterException error)
+        {
+            assertEquals(error.getReportedErrorMessageId(), OMFErrorCode.INVALID_CONTINUATION_TOKEN.getMessageDefinition().getMessageId());
+            assertEquals(error.getParameterName(), parameterName);
+        }
+    }
+
+
+    /**
+     * Format content as a token without the checks in the constructor.
+     *
+     * @param tokenContent content of the token
+     * @return token string
+     */
+    private String encode(String tokenContent)
+    {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(tokenContent.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,217 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
+import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * OMRSEventEncoding defines how an OMRS event is encoded on the event bus.  A binary event is sent as bytes
+ * that start with OpenMetadataTopicConnector.BINARY_EVENT_MARKER followed by a byte identifying the encoding.
+ * A JSON event always starts with an opening brace, so a received event can be decoded without knowing which
+ * encoding the sender was configured with.  This allows servers in the same cohort to use different encodings,
+ * provided they all understand the binary encodings.  Binary events can only be sent through event bus
+ * connectors that support them (see OpenMetadataTopicConnector.isBinaryEventSupported()).
+ */
+public enum OMRSEventEncoding
+{
+    /**
+     * Jackson JSON text - understood by every version of the OMRS.
+     */
+    JSON(OMRSTopicProvider.EVENT_ENCODING_JSON, ' ', false),
+
+    /**
+     * Jackson Smile binary JSON - the same structure as the JSON encoding but with binary field values and
+     * back-references for repeated field names.
+     */
+    SMILE(OMRSTopicProvider.EVENT_ENCODING_SMILE, 'S', false),
+
+    /**
+     * Jackson Smile binary JSON, compressed with deflate.
+     */
+    SMILE_DEFLATE(OMRSTopicProvider.EVENT_ENCODING_SMILE_DEFLATE, 'D', true);
+
+    private static final ObjectMapper JSON_MAPPER  = new ObjectMapper();
+    private static final ObjectReader JSON_READER  = JSON_MAPPER.reader();
+    private static final ObjectWriter JSON_WRITER  = JSON_MAPPER.writer();
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
+    private static final ObjectReader SMILE_READER = SMILE_MAPPER.reader();
+    private static final ObjectWriter SMILE_WRITER = SMILE_MAPPER.writer();
+
+    private final String  encodingName;
+    private final byte    encodingMarker;
+    private final boolean compressed;
+
+
+    /**
+     * Constructor for the enum.
+     *
+     * @param encodingName name used in the eventEncoding configuration property
+     * @param encodingMarker byte following the binary event marker
+     * @param compressed is the binary content compressed?
+     */
+    OMRSEventEncoding(String  encodingName,
+                      char    encodingMarker,
+                      boolean compressed)
+    {
+        this.encodingName   = encodingName;
+        this.encodingMarker = (byte) encodingMarker;
+        this.compressed     = compressed;
+    }
+
+
+    /**
+     * Return the name used in the eventEncoding configuration property.
+     *
+     * @return string
+     */
+    public String getEncodingName()
+    {
+        return encodingName;
+    }
+
+
+    /**
+     * Return the encoding with the supplied name.
+     *
+     * @param encodingName name from the eventEncoding configuration property
+     * @return encoding or null if the name is not recognized
+     */
+    public static OMRSEventEncoding getEncoding(String encodingName)
+    {
+        if (encodingName != null)
+        {
+            for (OMRSEventEncoding encoding : OMRSEventEncoding.values())
+            {
+                if (encoding.getEncodingName().equalsIgnoreCase(encodingName.trim()))
+                {
+                    return encoding;
+                }
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return whether this is one of the binary encodings.
+     *
+     * @return boolean
+     */
+    public boolean isBinary()
+    {
+        return this != JSON;
+    }
+
+
+    /**
+     * Encode an event as JSON text.
+     *
+     * @param event event bean
+     * @return JSON event
+     * @throws IOException the event could not be serialized
+     */
+    public static String encodeJSON(OMRSEventBean event) throws IOException
+    {
+        return JSON_WRITER.writeValueAsString(event);
+    }
+
+
+    /**
+     * Encode an event for the event bus.  A JSON event is returned as its UTF-8 bytes.
+     *
+     * @param event event bean
+     * @return encoded event
+     * @throws IOException the event could not be serialized
+     */
+    public byte[] encode(OMRSEventBean event) throws IOException
+    {
+        if (this == JSON)
+        {
+            return JSON_WRITER.writeValueAsBytes(event);
+        }
+
+        ByteArrayOutputStream eventBytes = new ByteArrayOutputStream(1024);
+
+        eventBytes.write(OpenMetadataTopicConnector.BINARY_EVENT_MARKER);
+        eventBytes.write(encodingMarker);
+
+        if (compressed)
+        {
+            try (DeflaterOutputStream deflaterStream = new DeflaterOutputStream(eventBytes, new Deflater(Deflater.BEST_SPEED)))
+            {
+                SMILE_WRITER.writeValue(deflaterStream, event);
+            }
+        }
+        else
+        {
+            SMILE_WRITER.writeValue(eventBytes, event);
+        }
+
+        return eventBytes.toByteArray();
+    }
+
+
+    /**
+     * Decode a JSON event received from the event bus.
+     *
+     * @param event JSON event
+     * @return event bean
+     * @throws IOException the event could not be parsed
+     */
+    public static OMRSEventBean decode(String event) throws IOException
+    {
+        return JSON_READER.readValue(event, OMRSEventBean.class);
+    }
+
+
+    /**
+     * Decode an event received from the event bus.  The encoding is detected from the start of the event.
+     *
+     * @param event encoded event
+     * @return event bean
+     * @throws IOException the event could not be parsed
+     */
+    public static OMRSEventBean decode(byte[] event) throws IOException
+    {
+        if ((event.length < 2) || (event[0] != OpenMetadataTopicConnector.BINARY_EVENT_MARKER))
+        {
+            return JSON_READER.readValue(event, OMRSEventBean.class);
+        }
+
+        OMRSEventEncoding encoding = null;
+
+        for (OMRSEventEncoding candidate : OMRSEventEncoding.values())
+        {
+            if ((candidate.isBinary()) && (candidate.encodingMarker == event[1]))
+            {
+                encoding = candidate;
+            }
+        }
+
+        if (encoding == null)
+        {
+            throw new IOException("Unrecognized event encoding marker: " + (char) event[1]);
+        }
+
+        InputStream binaryStream = new ByteArrayInputStream(event, 2, event.length - 2);
+
+        try (InputStream eventStream = (encoding.compressed) ? new InflaterInputStream(binaryStream) : binaryStream)
+        {
+            return SMILE_READER.readValue(eventStream, OMRSEventBean.class);
+        }
+    }
+}
@@ -2,9 +2,6 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLoggingComponent;
 import org.odpi.openmetadata.frameworks.auditlog.ComponentDescription;
@@ -30,6 +27,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
@@ -44,6 +42,17 @@ import java.util.concurrent.CompletionException;
  *     internal open metadata components that expect to receive OMRS Events.
  * </p>
  * <p>
+ *     Outbound events are sent as JSON unless the eventEncoding configuration property selects one of the
+ *     binary encodings defined in OMRSEventEncoding.  Binary events are only sent through the event bus
+ *     connectors that can carry bytes; the others are still sent JSON.  Inbound events may use any of these encodings.
+ * </p>
+ * <p>
+ *     Inbound events are passed to each listener in turn on the thread that received them unless the
+ *     listenerDispatchThreads configuration property is set.  Then each listener has its own queue of
+ *     events that is processed by a pool of dispatch threads (see OMRSTopicListenerDispatcher) so a slow
+ *     listener does not delay the others.
+ * </p>
+ * <p>
  *     OMRSTopicConnector implements 3 interfaces:
  * </p>
  * <ul>
@@ -67,18 +76,20 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 {
     private static final Logger       log      = LoggerFactory.getLogger(OMRSTopicConnector.class);
 
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-    private static final ObjectReader OBJECT_READER = OBJECT_MAPPER.reader();
-    private static final ObjectWriter OBJECT_WRITER = OBJECT_MAPPER.writer();
-
     private static final String unknownTopicName = "<Unknown>";
 
+    private static final int  defaultListenerQueueDepth       = 1000;
+    private static final int  defaultSlowListenerThreshold    = 30000;
+    private static final long listenerDispatchShutdownTimeout = 10000;
+
     private final List<OMRSTopicListener>          internalTopicListeners = new ArrayList<>();
     private final List<OpenMetadataTopicConnector> eventBusConnectors     = new ArrayList<>();
 
-    private String                    connectionName       = OMRSAuditingComponent.OMRS_TOPIC_CONNECTOR.getComponentName();
-    private String                    topicName = unknownTopicName;
-    private OMRSEventProtocolVersion  eventProtocolVersion = OMRSEventProtocolVersion.V2;
+    private String                      connectionName       = OMRSAuditingComponent.OMRS_TOPIC_CONNECTOR.getComponentName();
+    private String                      topicName = unknownTopicName;
+    private OMRSEventProtocolVersion    eventProtocolVersion = OMRSEventProtocolVersion.V2;
+    private OMRSEventEncoding           eventEncoding        = OMRSEventEncoding.JSON;
+    private OMRSTopicListenerDispatcher listenerDispatcher   = null;
 
     protected AuditLog auditLog = null;
 
@@ -269,6 +280,9 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
         }
         else
         {
+            this.setUpEventEncoding(methodName);
+            this.setUpListenerDispatcher(methodName);
+
             for (OpenMetadataTopicConnector eventBusConnector : eventBusConnectors)
             {
                 eventBusConnector.start();
@@ -284,6 +298,154 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     }
 
 
+    /**
+     * Select the encoding for outbound events from the eventEncoding configuration property.
+     *
+     * @param methodName calling method
+     */
+    private void setUpEventEncoding(String methodName)
+    {
+        if (connectionBean != null)
+        {
+            Map<String, Object> configurationProperties = connectionBean.getConfigurationProperties();
+
+            if ((configurationProperties != null) && (configurationProperties.get(OMRSTopicProvider.EVENT_ENCODING_PROPERTY_NAME) != null))
+            {
+                String            encodingName = configurationProperties.get(OMRSTopicProvider.EVENT_ENCODING_PROPERTY_NAME).toString();
+                OMRSEventEncoding encoding     = OMRSEventEncoding.getEncoding(encodingName);
+
+                if (encoding == null)
+                {
+                    if (auditLog != null)
+                    {
+                        auditLog.logMessage(methodName,
+                                            OMRSAuditCode.OMRS_TOPIC_UNKNOWN_EVENT_ENCODING.getMessageDefinition(topicName, encodingName));
+                    }
+                }
+                else
+                {
+                    eventEncoding = encoding;
+
+                    if ((auditLog != null) && (encoding != OMRSEventEncoding.JSON))
+                    {
+                        auditLog.logMessage(methodName,
+                                            OMRSAuditCode.OMRS_TOPIC_EVENT_ENCODING.getMessageDefinition(topicName, encoding.getEncodingName()));
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Create the dispatcher that passes inbound events to the listeners on separate threads if the
+     * listenerDispatchThreads configuration property is greater than zero.
+     *
+     * @param methodName calling method
+     */
+    private void setUpListenerDispatcher(String methodName)
+    {
+        if (connectionBean != null)
+        {
+            Map<String, Object> configurationProperties = connectionBean.getConfigurationProperties();
+
+            int threadCount = this.getIntegerProperty(configurationProperties, OMRSTopicProvider.LISTENER_DISPATCH_THREADS_PROPERTY_NAME, 0);
+
+            if (threadCount > 0)
+            {
+                int    queueDepth     = this.getIntegerProperty(configurationProperties,
+                                                                OMRSTopicProvider.LISTENER_QUEUE_DEPTH_PROPERTY_NAME,
+                                                                defaultListenerQueueDepth);
+                long   slowThreshold  = this.getIntegerProperty(configurationProperties,
+                                                                OMRSTopicProvider.SLOW_LISTENER_THRESHOLD_PROPERTY_NAME,
+                                                                defaultSlowListenerThreshold);
+                String overflowPolicy = OMRSTopicProvider.LISTENER_OVERFLOW_BLOCK;
+
+                if ((configurationProperties.get(OMRSTopicProvider.LISTENER_OVERFLOW_POLICY_PROPERTY_NAME) != null) &&
+                    (OMRSTopicProvider.LISTENER_OVERFLOW_ISOLATE.equalsIgnoreCase(configurationProperties.get(OMRSTopicProvider.LISTENER_OVERFLOW_POLICY_PROPERTY_NAME).toString().trim())))
+                {
+                    overflowPolicy = OMRSTopicProvider.LISTENER_OVERFLOW_ISOLATE;
+                }
+
+                if (queueDepth <= 0)
+                {
+                    queueDepth = defaultListenerQueueDepth;
+                }
+
+                listenerDispatcher = new OMRSTopicListenerDispatcher(topicName,
+                                                                     threadCount,
+                                                                     queueDepth,
+                                                                     OMRSTopicProvider.LISTENER_OVERFLOW_ISOLATE.equals(overflowPolicy),
+                                                                     slowThreshold,
+                                                                     auditLog);
+
+                if (auditLog != null)
+                {
+                    auditLog.logMessage(methodName,
+                                        OMRSAuditCode.OMRS_TOPIC_LISTENER_DISPATCH.getMessageDefinition(topicName,
+                                                                                                        Integer.toString(threadCount),
+                                                                                                        Integer.toString(queueDepth),
+                                                                                                        overflowPolicy));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the value of an integer configuration property.
+     *
+     * @param configurationProperties properties from the connection
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is missing or not a number
+     * @return int
+     */
+    private int getIntegerProperty(Map<String, Object> configurationProperties,
+                                   String              propertyName,
+                                   int                 defaultValue)
+    {
+        if ((configurationProperties != null) && (configurationProperties.get(propertyName) != null))
+        {
+            try
+            {
+                return Integer.parseInt(configurationProperties.get(propertyName).toString().trim());
+            }
+            catch (NumberFormatException error)
+            {
+                log.debug("Ignoring invalid value for " + propertyName + ": " + configurationProperties.get(propertyName));
+            }
+        }
+
+        return defaultValue;
+    }
+
+
+    /**
+     * Return the metrics for each listener when the listeners are receiving events on dispatch threads.
+     *
+     * @return list of metrics (empty if the events are passed to the listeners on the topic thread)
+     */
+    public List<OMRSTopicListenerMetrics> getListenerMetrics()
+    {
+        List<OMRSTopicListenerMetrics> listenerMetrics = new ArrayList<>();
+
+        if (listenerDispatcher != null)
+        {
+            for (OMRSTopicListener topicListener : internalTopicListeners)
+            {
+                OMRSTopicListenerMetrics metrics = listenerDispatcher.getMetrics(topicListener);
+
+                if (metrics != null)
+                {
+                    listenerMetrics.add(metrics);
+                }
+            }
+        }
+
+        return listenerMetrics;
+    }
+
+
     /**
      * Log that this connector does not support the requested event protocol.
      * This protocol level is requested in the configuration.
@@ -412,23 +574,44 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
         try
         {
-            String eventString = OBJECT_WRITER.writeValueAsString(event);
-
-            if ((auditLog != null) && logEvent)
-            {
-                auditLog.logMessage(methodName,
-                                    OMRSAuditCode.OUTBOUND_TOPIC_EVENT.getMessageDefinition(event.getEventCategory().getName(),
-                                                                                            topicName),
-                                    eventString);
-            }
+            String eventString = null;
+            byte[] eventBytes  = null;
 
+            /*
+             * Event bus connectors that only exchange strings are sent JSON whatever the configured encoding.
+             */
             for (OpenMetadataTopicConnector eventBusConnector : eventBusConnectors)
             {
                 if (eventBusConnector != null)
                 {
-                    eventBusConnector.sendEvent(eventString);
+                    if ((eventEncoding.isBinary()) && (eventBusConnector.isBinaryEventSupported()))
+                    {
+                        if (eventBytes == null)
+                        {
+                            eventBytes = eventEncoding.encode(event);
+                        }
+
+                        eventBusConnector.sendEvent(eventBytes);
+                    }
+                    else
+                    {
+                        if (eventString == null)
+                        {
+                            eventString = OMRSEventEncoding.encodeJSON(event);
+                        }
+
+                        eventBusConnector.sendEvent(eventString);
+                    }
                 }
             }
+
+            if ((auditLog != null) && logEvent)
+            {
+                auditLog.logMessage(methodName,
+                                    OMRSAuditCode.OUTBOUND_TOPIC_EVENT.getMessageDefinition(event.getEventCategory().getName(),
+                                                                                            topicName),
+                                    (eventString != null) ? eventString : event.toString());
+            }
         }
         catch (ConnectorCheckedException exc)
         {
@@ -446,7 +629,7 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
 
     /**
-     * Receives events from the real topic, parses them into event objects and passes them on to
+     * Receives JSON events from the real topic, parses them into event objects and passes them on to
      * the OMRSTopicListeners registered with this connector.
      *
      * @param event inbound event
@@ -455,7 +638,6 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     public void processEvent(String event)
     {
         final String actionDescription = "Process an OMRS Event";
-        final String methodName = "processEvent";
 
         if (event != null)
         {
@@ -466,7 +648,7 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
              */
             try
             {
-                eventBean = OBJECT_READER.readValue(event, OMRSEventBean.class);
+                eventBean = OMRSEventEncoding.decode(event);
             }
             catch (Exception   exception)
             {
@@ -478,44 +660,144 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
                 }
             }
 
+            this.distributeEventBean(event, eventBean);
+        }
+        else
+        {
+            this.logNullEvent(actionDescription);
+        }
+    }
+
+
+    /**
+     * Receives events in any of the encodings from the real topic, parses them into event objects and passes
+     * them on to the OMRSTopicListeners registered with this connector.
+     *
+     * @param event inbound event
+     */
+    @Override
+    public void processEvent(byte[] event)
+    {
+        final String actionDescription = "Process an OMRS Event";
+
+        if (event != null)
+        {
+            OMRSEventBean   eventBean = null;
 
             /*
-             * If the event bean is successfully created then pass it on to the registered listeners.
+             * Parse the event (JSON or one of the binary encodings) into a bean.
              */
-            if (eventBean instanceof OMRSEventV2 finalEventBean)
+            try
+            {
+                eventBean = OMRSEventEncoding.decode(event);
+            }
+            catch (Exception   exception)
             {
-                //internalTopicListeners.parallelStream().forEach((topicListener) ->
-                for (OMRSTopicListener topicListener : internalTopicListeners)
+                if (auditLog != null)
                 {
-                    try
-                    {
-                        this.processOMRSEvent(finalEventBean, topicListener);
-                    }
-                    catch (Exception  error)
-                    {
-                        log.debug("Unable to pass event to one of the topic listeners");
+                    auditLog.logException(actionDescription,
+                                          OMRSAuditCode.EVENT_PARSING_ERROR.getMessageDefinition("<binary event of " + event.length + " bytes>",
+                                                                                                 exception.toString()),
+                                          exception);
+                }
+            }
 
-                        if (auditLog != null)
-                        {
-                            auditLog.logException(methodName,
-                                                  OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event,
-                                                                                                            error.toString(),
-                                                                                                            topicListener.toString()),
-                                                  event,
-                                                  error);
-                        }
-                    }
-                } //);
+            if (eventBean != null)
+            {
+                this.distributeEventBean(eventBean.toString(), eventBean);
             }
         }
         else
         {
-            log.debug("Unable to process null events");
+            this.logNullEvent(actionDescription);
+        }
+    }
+
+
+    /**
+     * If the event bean was successfully created then pass it on to the registered listeners -
+     * either directly or through their queues on the dispatcher.
+     *
+     * @param event inbound event as text (for messages)
+     * @param eventBean parsed event (or null if the event could not be parsed)
+     */
+    private void distributeEventBean(String        event,
+                                     OMRSEventBean eventBean)
+    {
+        if (eventBean instanceof OMRSEventV2 finalEventBean)
+        {
+            OMRSTopicListenerDispatcher dispatcher = listenerDispatcher;
+
+            for (OMRSTopicListener topicListener : internalTopicListeners)
+            {
+                if (dispatcher == null)
+                {
+                    this.passEventToListener(event, finalEventBean, topicListener);
+                }
+                else
+                {
+                    String listenerName = (topicListener instanceof OMRSTopicListenerWrapper wrapper) ? wrapper.getServiceName() : topicListener.toString();
+
+                    dispatcher.dispatch(topicListener,
+                                        listenerName,
+                                        () -> this.passEventToListener(event, finalEventBean, topicListener));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Log that a null event has been received.
+     *
+     * @param actionDescription calling activity
+     */
+    private void logNullEvent(String actionDescription)
+    {
+        log.debug("Unable to process null events");
+
+        if (auditLog != null)
+        {
+            auditLog.logMessage(actionDescription, OMRSAuditCode.NULL_EVENT_TO_PROCESS.getMessageDefinition(connectionName));
+        }
+    }
+
+
+    /**
+     * Pass an event to one listener, logging any exception it returns.
+     *
+     * @param event inbound event as received (for messages)
+     * @param eventBean parsed event
+     * @param topicListener listener that will receive the event
+     * @return true if the listener processed the event without an exception
+     */
+    private boolean passEventToListener(String            event,
+                                        OMRSEventV2       eventBean,
+                                        OMRSTopicListener topicListener)
+    {
+        final String methodName = "processEvent";
+
+        try
+        {
+            this.processOMRSEvent(eventBean, topicListener);
+
+            return true;
+        }
+        catch (Exception  error)
+        {
+            log.debug("Unable to pass event to one of the topic listeners");
 
             if (auditLog != null)
             {
-                auditLog.logMessage(actionDescription, OMRSAuditCode.NULL_EVENT_TO_PROCESS.getMessageDefinition(connectionName));
+                auditLog.logException(methodName,
+                                      OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event,
+                                                                                                error.toString(),
+                                                                                                topicListener.toString()),
+                                      event,
+                                      error);
             }
+
+            return false;
         }
     }
 
@@ -589,6 +871,11 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
         final String actionDescription = "Disconnect OMRS Topic Connector";
 
+        if (listenerDispatcher != null)
+        {
+            listenerDispatcher.shutdown(listenerDispatchShutdownTimeout);
+        }
+
         if ((auditLog != null) && (! unknownTopicName.equals(topicName)))
         {
             auditLog.logMessage(actionDescription,
@@ -0,0 +1,435 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.events.future.CompletedFuture;
+import org.odpi.openmetadata.repositoryservices.events.future.DelegatableFuture;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+
+/**
+ * OMRSTopicListenerDispatcher passes the events received by an OMRS Topic Connector to its listeners on a
+ * bounded pool of threads.  Each listener has its own queue of events that is drained by one thread at a
+ * time, so a listener sees the events in the order they arrived on the topic while different listeners
+ * process events at the same time.
+ * <p>
+ * When a listener's queue is full, the overflow policy decides what happens.  With the block policy the
+ * topic thread waits for space in the queue, which slows down all the listeners to the pace of the slowest.
+ * With the isolate policy the event is skipped for that listener only.  A listener that never returns holds
+ * on to one of the dispatch threads, so there should be more threads than listeners that may stall.
+ * <p>
+ * The asynchronous processing result of each event is passed back through the
+ * InternalOMRSEventProcessingContext of the topic thread, so an event bus connector that waits for an event to
+ * be processed (for example, before committing its offset) still waits for every listener.
+ */
+class OMRSTopicListenerDispatcher
+{
+    private static final Logger log = LoggerFactory.getLogger(OMRSTopicListenerDispatcher.class);
+
+    /*
+     * Number of events a thread takes from one listener's queue before giving other listeners a turn.
+     */
+    private static final int  eventsPerTurn     = 64;
+    private static final long offerWaitInterval = 1000;
+
+    private final String                                  topicName;
+    private final int                                     queueDepth;
+    private final boolean                                 isolateListeners;
+    private final long                                    slowListenerThreshold;
+    private final AuditLog                                auditLog;
+    private final ExecutorService                         executor;
+    private final Map<OMRSTopicListener, ListenerQueue>   listenerQueues = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+
+
+    /**
+     * Constructor creates the dispatch threads.
+     *
+     * @param topicName name of the topic (used in messages and thread names)
+     * @param threadCount number of dispatch threads
+     * @param queueDepth maximum number of events waiting for each listener
+     * @param isolateListeners skip events for a listener with a full queue rather than wait
+     * @param slowListenerThreshold number of milliseconds an event may wait before the listener is reported as slow
+     * @param auditLog logging destination
+     */
+    OMRSTopicListenerDispatcher(String   topicName,
+                                int      threadCount,
+                                int      queueDepth,
+                                boolean  isolateListeners,
+                                long     slowListenerThreshold,
+                                AuditLog auditLog)
+    {
+        final AtomicInteger threadNumber = new AtomicInteger();
+
+        this.topicName             = topicName;
+        this.queueDepth            = queueDepth;
+        this.isolateListeners      = isolateListeners;
+        this.slowListenerThreshold = slowListenerThreshold;
+        this.auditLog              = auditLog;
+        this.executor              = Executors.newFixedThreadPool(threadCount, runnable ->
+        {
+            Thread thread = new Thread(runnable, "OMRS-Listener-Dispatch-" + threadNumber.getAndIncrement() + "-" + topicName);
+
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Queue an event for a listener.  This is called on the topic thread.
+     *
+     * @param listener listener that will receive the event
+     * @param listenerName name used for the listener in messages and metrics
+     * @param task passes the event to the listener and returns whether it was processed without error
+     */
+    void dispatch(OMRSTopicListener listener,
+                  String            listenerName,
+                  BooleanSupplier   task)
+    {
+        final String methodName = "dispatch";
+
+        ListenerQueue                      listenerQueue = listenerQueues.computeIfAbsent(listener, key -> new ListenerQueue(listenerName));
+        InternalOMRSEventProcessingContext context       = InternalOMRSEventProcessingContext.getInstance();
+        QueuedEvent                        queuedEvent   = new QueuedEvent(task, context.getCurrentMessageId());
+
+        context.addAsyncProcessingResult(queuedEvent.processingResult);
+
+        if (listenerQueue.offer(queuedEvent))
+        {
+            listenerQueue.schedule();
+        }
+        else
+        {
+            long skippedCount = listenerQueue.skippedEventCount.incrementAndGet();
+
+            queuedEvent.processingResult.setDelegate(CompletedFuture.INSTANCE);
+
+            if (isolateListeners && (auditLog != null) && listenerQueue.skipping.compareAndSet(false, true))
+            {
+                auditLog.logMessage(methodName,
+                                    OMRSAuditCode.OMRS_TOPIC_LISTENER_EVENTS_SKIPPED.getMessageDefinition(listenerName,
+                                                                                                          topicName,
+                                                                                                          Integer.toString(queueDepth),
+                                                                                                          Long.toString(skippedCount)));
+            }
+        }
+    }
+
+
+    /**
+     * Return the metrics for a listener.
+     *
+     * @param listener listener
+     * @return metrics or null if no events have been dispatched to the listener
+     */
+    OMRSTopicListenerMetrics getMetrics(OMRSTopicListener listener)
+    {
+        ListenerQueue listenerQueue = listenerQueues.get(listener);
+
+        if (listenerQueue != null)
+        {
+            return listenerQueue.getMetrics();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Stop accepting events and wait for the queued events to be processed (or the timeout to pass).
+     *
+     * @param timeoutMs maximum time to wait
+     */
+    void shutdown(long timeoutMs)
+    {
+        running = false;
+        executor.shutdown();
+
+        try
+        {
+            if (! executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS))
+            {
+                executor.shutdownNow();
+            }
+        }
+        catch (InterruptedException error)
+        {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * An event waiting for a listener.
+     */
+    private static class QueuedEvent
+    {
+        private final BooleanSupplier   task;
+        private final String            messageId;
+        private final long              queuedTime       = System.currentTimeMillis();
+        private final DelegatableFuture processingResult = new DelegatableFuture();
+
+        QueuedEvent(BooleanSupplier task,
+                    String          messageId)
+        {
+            this.task      = task;
+            this.messageId = messageId;
+        }
+    }
+
+
+    /**
+     * The queue of events for one listener.  The scheduled flag ensures only one thread drains the queue at
+     * a time, which keeps the events in order.
+     */
+    private class ListenerQueue
+    {
+        private final String                     listenerName;
+        private final BlockingQueue<QueuedEvent> queue                 = new LinkedBlockingQueue<>(queueDepth);
+        private final AtomicBoolean              scheduled             = new AtomicBoolean(false);
+        private final AtomicBoolean              skipping              = new AtomicBoolean(false);
+        private final AtomicBoolean              slow                  = new AtomicBoolean(false);
+        private final AtomicInteger              maximumQueueDepth     = new AtomicInteger();
+        private final AtomicLong                 processedEventCount   = new AtomicLong();
+        private final AtomicLong                 failedEventCount      = new AtomicLong();
+        private final AtomicLong                 skippedEventCount     = new AtomicLong();
+        private final AtomicLong                 totalProcessingTime   = new AtomicLong();
+        private final AtomicLong                 maximumProcessingTime = new AtomicLong();
+        private final AtomicLong                 totalWaitTime         = new AtomicLong();
+        private final AtomicLong                 maximumWaitTime       = new AtomicLong();
+
+        ListenerQueue(String listenerName)
+        {
+            this.listenerName = listenerName;
+        }
+
+
+        /**
+         * Add an event to the queue, applying the overflow policy if it is full.
+         *
+         * @param queuedEvent event
+         * @return true if queued, false if skipped
+         */
+        boolean offer(QueuedEvent queuedEvent)
+        {
+            boolean queued = queue.offer(queuedEvent);
+
+            if ((! queued) && (! isolateListeners))
+            {
+                try
+                {
+                    while ((! queued) && running)
+                    {
+                        queued = queue.offer(queuedEvent, offerWaitInterval, TimeUnit.MILLISECONDS);
+                    }
+                }
+                catch (InterruptedException error)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (queued)
+            {
+                skipping.set(false);
+                maximumQueueDepth.accumulateAndGet(queue.size(), Math::max);
+            }
+
+            return queued;
+        }
+
+
+        /**
+         * Make sure a thread is draining the queue.
+         */
+        void schedule()
+        {
+            if (scheduled.compareAndSet(false, true) && (! this.submit()))
+            {
+                /*
+                 * The dispatcher is shutting down so the topic thread delivers the events itself.
+                 */
+                this.drain();
+            }
+        }
+
+
+        /**
+         * Pass the queue to a dispatch thread.
+         *
+         * @return false if the dispatcher is no longer accepting work
+         */
+        private boolean submit()
+        {
+            try
+            {
+                executor.execute(this::drain);
+                return true;
+            }
+            catch (RejectedExecutionException error)
+            {
+                return false;
+            }
+        }
+
+
+        /**
+         * Pass queued events to the listener.  After a number of events the queue is handed back to the
+         * executor so listeners with busy queues do not starve the others.
+         */
+        private void drain()
+        {
+            int eventCount = 0;
+
+            while (true)
+            {
+                QueuedEvent queuedEvent = queue.poll();
+
+                if (queuedEvent == null)
+                {
+                    scheduled.set(false);
+
+                    /*
+                     * An event may have arrived after the poll and before the flag was cleared.
+                     */
+                    if (queue.isEmpty() || (! scheduled.compareAndSet(false, true)))
+                    {
+                        return;
+                    }
+                }
+                else
+                {
+                    this.process(queuedEvent);
+
+                    eventCount++;
+
+                    if ((eventCount >= eventsPerTurn) && (! queue.isEmpty()))
+                    {
+                        if (this.submit())
+                        {
+                            return;
+                        }
+
+                        eventCount = 0;
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * Pass one event to the listener with a fresh event processing context that carries the message
+         * identifier from the topic thread.
+         *
+         * @param queuedEvent event
+         */
+        private void process(QueuedEvent queuedEvent)
+        {
+            final String methodName = "process";
+
+            long startTime = System.currentTimeMillis();
+            long waitTime  = startTime - queuedEvent.queuedTime;
+
+            this.checkForSlowListener(methodName, waitTime);
+
+            try
+            {
+                InternalOMRSEventProcessingContext.clear();
+                InternalOMRSEventProcessingContext.getInstance().setCurrentMessageId(queuedEvent.messageId);
+
+                if (! queuedEvent.task.getAsBoolean())
+                {
+                    failedEventCount.incrementAndGet();
+                }
+            }
+            catch (Exception error)
+            {
+                failedEventCount.incrementAndGet();
+                log.debug("Unexpected error passing event to listener " + listenerName + ": " + error.getMessage());
+            }
+            finally
+            {
+                queuedEvent.processingResult.setDelegate(InternalOMRSEventProcessingContext.getInstance().getOverallAsyncProcessingResult());
+                InternalOMRSEventProcessingContext.clear();
+
+                long processingTime = System.currentTimeMillis() - startTime;
+
+                processedEventCount.incrementAndGet();
+                totalProcessingTime.addAndGet(processingTime);
+                maximumProcessingTime.accumulateAndGet(processingTime, Math::max);
+                totalWaitTime.addAndGet(waitTime);
+                maximumWaitTime.accumulateAndGet(waitTime, Math::max);
+            }
+        }
+
+
+        /**
+         * Report the listener as slow when an event has waited longer than the threshold.  The message is
+         * logged once each time the listener falls behind.
+         *
+         * @param methodName calling method
+         * @param waitTime time the current event waited in the queue
+         */
+        private void checkForSlowListener(String methodName,
+                                          long   waitTime)
+        {
+            if (waitTime > slowListenerThreshold)
+            {
+                if (slow.compareAndSet(false, true) && (auditLog != null))
+                {
+                    auditLog.logMessage(methodName,
+                                        OMRSAuditCode.SLOW_OMRS_TOPIC_LISTENER.getMessageDefinition(listenerName,
+                                                                                                    topicName,
+                                                                                                    Integer.toString(queue.size()),
+                                                                                                    Long.toString(waitTime)));
+                }
+            }
+            else
+            {
+                slow.set(false);
+            }
+        }
+
+
+        /**
+         * Return a snapshot of the metrics for this listener.
+         *
+         * @return metrics bean
+         */
+        OMRSTopicListenerMetrics getMetrics()
+        {
+            long processed = processedEventCount.get();
+
+            return new OMRSTopicListenerMetrics(listenerName,
+                                                queue.size(),
+                                                maximumQueueDepth.get(),
+                                                processed,
+                                                failedEventCount.get(),
+                                                skippedEventCount.get(),
+                                                (processed == 0) ? 0 : totalProcessingTime.get() / processed,
+                                                maximumProcessingTime.get(),
+                                                (processed == 0) ? 0 : totalWaitTime.get() / processed,
+                                                maximumWaitTime.get(),
+                                                slow.get());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+/**
+ * OMRSTopicListenerMetrics describes how one listener of an OMRS Topic Connector is keeping up with the
+ * events on the topic.  It is only available when the connector passes events to its listeners on
+ * dispatch threads.  Times are in milliseconds.
+ */
+public class OMRSTopicListenerMetrics
+{
+    private final String  listenerName;
+    private final int     queueDepth;
+    private final int     maximumQueueDepth;
+    private final long    processedEventCount;
+    private final long    failedEventCount;
+    private final long    skippedEventCount;
+    private final long    averageProcessingTime;
+    private final long    maximumProcessingTime;
+    private final long    averageWaitTime;
+    private final long    maximumWaitTime;
+    private final boolean slow;
+
+
+    /**
+     * Constructor sets all the values.
+     *
+     * @param listenerName name of the service that owns the listener
+     * @param queueDepth number of events waiting for the listener
+     * @param maximumQueueDepth largest number of events that have been waiting at the same time
+     * @param processedEventCount number of events passed to the listener
+     * @param failedEventCount number of events where the listener returned an exception
+     * @param skippedEventCount number of events skipped because the listener's queue was full
+     * @param averageProcessingTime average time the listener took to process an event
+     * @param maximumProcessingTime longest time the listener took to process an event
+     * @param averageWaitTime average time an event waited in the listener's queue
+     * @param maximumWaitTime longest time an event waited in the listener's queue
+     * @param slow is the listener currently behind the slow listener threshold?
+     */
+    public OMRSTopicListenerMetrics(String  listenerName,
+                                    int     queueDepth,
+                                    int     maximumQueueDepth,
+                                    long    processedEventCount,
+                                    long    failedEventCount,
+                                    long    skippedEventCount,
+                                    long    averageProcessingTime,
+                                    long    maximumProcessingTime,
+                                    long    averageWaitTime,
+                                    long    maximumWaitTime,
+                                    boolean slow)
+    {
+        this.listenerName          = listenerName;
+        this.queueDepth            = queueDepth;
+        this.maximumQueueDepth     = maximumQueueDepth;
+        this.processedEventCount   = processedEventCount;
+        this.failedEventCount      = failedEventCount;
+        this.skippedEventCount     = skippedEventCount;
+        this.averageProcessingTime = averageProcessingTime;
+        this.maximumProcessingTime = maximumProcessingTime;
+        this.averageWaitTime       = averageWaitTime;
+        this.maximumWaitTime       = maximumWaitTime;
+        this.slow                  = slow;
+    }
+
+
+    /**
+     * Return the name of the service that owns the listener.
+     *
+     * @return string
+     */
+    public String getListenerName()
+    {
+        return listenerName;
+    }
+
+
+    /**
+     * Return the number of events waiting for the listener.
+     *
+     * @return int
+     */
+    public int getQueueDepth()
+    {
+        return queueDepth;
+    }
+
+
+    /**
+     * Return the largest number of events that have been waiting for the listener at the same time.
+     *
+     * @return int
+     */
+    public int getMaximumQueueDepth()
+    {
+        return maximumQueueDepth;
+    }
+
+
+    /**
+     * Return the number of events passed to the listener.
+     *
+     * @return long
+     */
+    public long getProcessedEventCount()
+    {
+        return processedEventCount;
+    }
+
+
+    /**
+     * Return the number of events where the listener returned an exception.
+     *
+     * @return long
+     */
+    public long getFailedEventCount()
+    {
+        return failedEventCount;
+    }
+
+
+    /**
+     * Return the number of events skipped because the listener's queue was full.
+     *
+     * @return long
+     */
+    public long getSkippedEventCount()
+    {
+        return skippedEventCount;
+    }
+
+
+    /**
+     * Return the average time the listener took to process an event.
+     *
+     * @return milliseconds
+     */
+    public long getAverageProcessingTime()
+    {
+        return averageProcessingTime;
+    }
+
+
+    /**
+     * Return the longest time the listener took to process an event.
+     *
+     * @return milliseconds
+     */
+    public long getMaximumProcessingTime()
+    {
+        return maximumProcessingTime;
+    }
+
+
+    /**
+     * Return the average time an event waited in the listener's queue.
+     *
+     * @return milliseconds
+     */
+    public long getAverageWaitTime()
+    {
+        return averageWaitTime;
+    }
+
+
+    /**
+     * Return the longest time an event waited in the listener's queue.
+     *
+     * @return milliseconds
+     */
+    public long getMaximumWaitTime()
+    {
+        return maximumWaitTime;
+    }
+
+
+    /**
+     * Return whether the listener is currently behind the slow listener threshold.
+     *
+     * @return boolean
+     */
+    public boolean isSlow()
+    {
+        return slow;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "OMRSTopicListenerMetrics{" +
+                "listenerName='" + listenerName + '\'' +
+                ", queueDepth=" + queueDepth +
+                ", maximumQueueDepth=" + maximumQueueDepth +
+                ", processedEventCount=" + processedEventCount +
+                ", failedEventCount=" + failedEventCount +
+                ", skippedEventCount=" + skippedEventCount +
+                ", averageProcessingTime=" + averageProcessingTime +
+                ", maximumProcessingTime=" + maximumProcessingTime +
+                ", averageWaitTime=" + averageWaitTime +
+                ", maximumWaitTime=" + maximumWaitTime +
+                ", slow=" + slow +
+                '}';
+    }
+}
@@ -14,6 +14,18 @@ import java.util.List;
  */
 public class OMRSTopicProvider extends OpenConnectorProviderBase
 {
+    public static final String EVENT_ENCODING_PROPERTY_NAME = "eventEncoding";
+    public static final String EVENT_ENCODING_JSON          = "json";
+    public static final String EVENT_ENCODING_SMILE         = "smile";
+    public static final String EVENT_ENCODING_SMILE_DEFLATE = "smileDeflate";
+
+    public static final String LISTENER_DISPATCH_THREADS_PROPERTY_NAME = "listenerDispatchThreads";
+    public static final String LISTENER_QUEUE_DEPTH_PROPERTY_NAME      = "listenerQueueDepth";
+    public static final String LISTENER_OVERFLOW_POLICY_PROPERTY_NAME  = "listenerOverflowPolicy";
+    public static final String LISTENER_OVERFLOW_BLOCK                 = "block";
+    public static final String LISTENER_OVERFLOW_ISOLATE               = "isolate";
+    public static final String SLOW_LISTENER_THRESHOLD_PROPERTY_NAME   = "slowListenerThresholdMs";
+
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
      * OMRS Connector implementation.
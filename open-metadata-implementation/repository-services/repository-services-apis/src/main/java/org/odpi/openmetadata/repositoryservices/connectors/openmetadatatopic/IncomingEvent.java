@@ -24,6 +24,7 @@ public class IncomingEvent
     private volatile IncomingEventState currentState = IncomingEventState.CREATED;
     
     private final String json;
+    private final byte[] payload;
     private final List<OMRSFuture> asyncProcessingResults = Collections.synchronizedList(new ArrayList<>()); 
     
     /**
@@ -35,19 +36,45 @@ public class IncomingEvent
     public IncomingEvent(String json, String messageId)
     {
         this.json = json;
+        this.payload = null;
         this.messageId = messageId;
     }
-    
+
+
+    /**
+     * Constructor for an event received in a binary encoding (see OpenMetadataTopicConnector.BINARY_EVENT_MARKER).
+     *
+     * @param payload the bytes of the event
+     * @param messageId identifier
+     */
+    public IncomingEvent(byte[] payload, String messageId)
+    {
+        this.json = null;
+        this.payload = payload;
+        this.messageId = messageId;
+    }
+
+
     /**
      * Gets the json for the event
      * 
-     * @return Json String
+     * @return Json String or null if the event is binary
      */
     public String getJson() {
         return json;
     }
 
 
+    /**
+     * Gets the bytes of an event received in a binary encoding.
+     *
+     * @return bytes or null if the event is JSON
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+
+
     /**
      * Adds a {@link Future} for the processing of this event by some
      * {@link OMRSInstanceEventProcessor}
@@ -30,7 +30,8 @@ import org.slf4j.LoggerFactory;
  *         For inbound events it should call the protected distributeEvents() method.
  *     </li>
  *     <li>
- *         For outbound events, callers will invoke the sendEvent() method.
+ *         For outbound events, callers will invoke the sendEvent() method.  An implementation that can carry
+ *         binary events overrides isBinaryEventSupported() and sendEvent(byte[]).
  *     </li>
  *     <li>
  *         When the server no longer needs the topic, it will call disconnect().
@@ -43,6 +44,12 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
 {
     private static final Logger       log      = LoggerFactory.getLogger(OpenMetadataTopicConnector.class);
 
+    /**
+     * First byte of an event that uses a binary encoding.  JSON events always start with an opening brace,
+     * so the two kinds of event can be told apart on a topic that carries both.
+     */
+    public static final byte BINARY_EVENT_MARKER = '~';
+
     private static final String       defaultThreadName = "OpenMetadataTopicListener";
     private static final String       defaultTopicName  = "OpenMetadataTopic";
 
@@ -148,11 +155,14 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
 
 
     /**
-     * Pass an event that has been received on the topic to each of the registered listeners.
+     * Pass an event that has been received on the topic to each of the registered listeners.  This is normally
+     * called on the listener thread for the events returned by checkForIncomingEvents().  An implementation
+     * may call it from its own threads instead, provided events that must stay in order are passed
+     * to it on the same thread.
      *
      * @param event OMRSEvent to distribute
      */
-    private void distributeEvent(IncomingEvent event)
+    protected void distributeEvent(IncomingEvent event)
     {
         //Initially clear the async event processing context to ensure that it will only
         //have results from processing this event
@@ -162,7 +172,14 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
         {
             try
             {
-                topicListener.processEvent(event.getJson());
+                if (event.getPayload() != null)
+                {
+                    topicListener.processEvent(event.getPayload());
+                }
+                else
+                {
+                    topicListener.processEvent(event.getJson());
+                }
             }
             catch (Exception  error)
             {
@@ -170,9 +187,16 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
 
                 if (auditLog != null)
                 {
+                    String eventText = event.getJson();
+
+                    if (event.getPayload() != null)
+                    {
+                        eventText = "<binary event of " + event.getPayload().length + " bytes>";
+                    }
+
                     auditLog.logException(actionDescription,
-                                          OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event.getJson(), error.toString()),
-                                          event.getJson(),
+                                          OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(eventText, error.toString()),
+                                          eventText,
                                           error);
                 }
             }
@@ -253,6 +277,35 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     }
 
 
+    /**
+     * Return whether this connector can send events in a binary encoding with sendEvent(byte[]).
+     * Connectors that exchange strings with the event bus return false.
+     *
+     * @return boolean
+     */
+    public boolean isBinaryEventSupported()
+    {
+        return false;
+    }
+
+
+    /**
+     * Sends the supplied binary event to the topic.  The event must start with BINARY_EVENT_MARKER.
+     * This is only called if isBinaryEventSupported() returns true.
+     *
+     * @param event bytes of the event
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     */
+    public void sendEvent(byte[] event) throws ConnectorCheckedException
+    {
+        final String methodName = "sendEvent";
+
+        throw new OMRSLogicErrorException(OMRSErrorCode.BINARY_EVENT_NOT_SUPPORTED.getMessageDefinition(listenerThreadName, topicName),
+                                          this.getClass().getName(),
+                                          methodName);
+    }
+
+
     /**
      * Indicates that the connector is completely configured and can begin processing.
      *
@@ -2,6 +2,9 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
 
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
+
 
 /**
  * OpenMetadataTopicListener defines the interface that a listener must implement in order to receive events
@@ -15,4 +18,20 @@ public interface OpenMetadataTopicListener
      * @param event inbound event
      */
     void processEvent(String event);
+
+
+    /**
+     * Method to pass an event received on the topic in a binary encoding.  Only listeners that understand
+     * the binary encodings (such as the OMRS topic connector) override this method.
+     *
+     * @param event inbound event
+     */
+    default void processEvent(byte[] event)
+    {
+        final String methodName = "processEvent";
+
+        throw new OMRSLogicErrorException(OMRSErrorCode.BINARY_EVENT_NOT_UNDERSTOOD.getMessageDefinition(this.getClass().getName()),
+                                          this.getClass().getName(),
+                                          methodName);
+    }
 }
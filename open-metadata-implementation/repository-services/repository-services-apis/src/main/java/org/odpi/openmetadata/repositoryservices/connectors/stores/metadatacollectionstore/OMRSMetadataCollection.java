@@ -2,6 +2,7 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.Future;
@@ -9,6 +10,7 @@ import java.util.concurrent.Future;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLoggingComponent;
 import org.odpi.openmetadata.frameworks.auditlog.ComponentDescription;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.HistorySequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.EndMatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
@@ -1066,6 +1068,101 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
                                                                                                 UserNotAuthorizedException;
 
 
+    /**
+     * Return a list of entities that match the supplied criteria.  The results are returned a page at a time
+     * using continuation tokens rather than element numbers.  The token for the next page is calculated from the last
+     * entity of this page using repositoryHelper.getNextContinuationToken() and the next page starts immediately
+     * after that entity.  This means the cost of retrieving a page does not grow with the number of pages already
+     * retrieved, and entities added or removed ahead of the current page do not cause entities to be skipped or
+     * repeated.
+     * <br><br>
+     * Repositories that can seek straight to the position in the token override this method.  The default
+     * implementation retrieves the entities up to the end of the next page with findEntities() and skips those
+     * at or before the token's position (see getContinuationWindowSize()).
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID String unique identifier for the entity type of interest (null means any entity type).
+     * @param entitySubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the entityTypeGUID to
+     *                           include in (or, if skipSubtypes is true, exclude from) the search results. Null means all subtypes.
+     * @param skipSubtypes if true, entitySubtypeGUIDs is treated as the list of subtypes to exclude from the search
+     *                      results rather than the only subtypes to include.  Ignored if entitySubtypeGUIDs is null.
+     * @param searchProperties Optional list of entity property conditions to match.
+     * @param continuationToken token returned with the previous page of results.  Null means start from the first element.
+     * @param limitResultsByStatus By default, entities in all non-DELETED statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values except DELETED.
+     * @param searchClassifications Optional list of entity classifications to match.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the entity property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result entities that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return a list of entities matching the supplied criteria; null means no matching entities in the metadata
+     * collection.
+     * @throws InvalidParameterException a parameter is invalid or null, or the continuation token is not valid.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  entity.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support this optional method.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<EntityDetail> findEntities(String                    userId,
+                                           String                    entityTypeGUID,
+                                           List<String>              entitySubtypeGUIDs,
+                                           boolean                   skipSubtypes,
+                                           SearchProperties          searchProperties,
+                                           String                    continuationToken,
+                                           List<InstanceStatus>      limitResultsByStatus,
+                                           SearchClassifications     searchClassifications,
+                                           Date                      asOfTime,
+                                           String                    sequencingProperty,
+                                           SequencingOrder           sequencingOrder,
+                                           int                       pageSize) throws InvalidParameterException,
+                                                                                      RepositoryErrorException,
+                                                                                      TypeErrorException,
+                                                                                      PropertyErrorException,
+                                                                                      PagingErrorException,
+                                                                                      FunctionNotSupportedException,
+                                                                                      UserNotAuthorizedException
+    {
+        final String methodName = "findEntities";
+        final String continuationTokenParameterName = "continuationToken";
+
+        ContinuationToken token = ContinuationToken.getContinuationToken(continuationToken,
+                                                                         continuationTokenParameterName,
+                                                                         methodName);
+
+        List<EntityDetail> results = this.findEntities(userId,
+                                                       entityTypeGUID,
+                                                       entitySubtypeGUIDs,
+                                                       skipSubtypes,
+                                                       searchProperties,
+                                                       getContinuationFromElement(token),
+                                                       limitResultsByStatus,
+                                                       searchClassifications,
+                                                       asOfTime,
+                                                       sequencingProperty,
+                                                       getContinuationSequencingOrder(sequencingOrder),
+                                                       getContinuationWindowSize(token, pageSize));
+
+        if ((results == null) || (repositoryHelper == null))
+        {
+            return results;
+        }
+
+        return repositoryHelper.formatEntityResults(new ArrayList<>(results),
+                                                    token,
+                                                    sequencingProperty,
+                                                    sequencingOrder,
+                                                    pageSize);
+    }
+
+
     /**
      * Return a count of the entities that match the supplied criteria.  This has the same search semantics as
      * findEntities(), but returns the number of entities that would be returned rather than the entities
@@ -1592,6 +1689,168 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
                                                                                                      UserNotAuthorizedException;
 
 
+    /**
+     * Return a list of relationships that match the requested conditions.  The results are returned a page at a time
+     * using continuation tokens rather than element numbers.  The token for the next page is calculated from the last
+     * relationship of this page using repositoryHelper.getNextContinuationToken() and the next page starts immediately
+     * after that relationship.
+     * <br><br>
+     * Repositories that can seek straight to the position in the token override this method.  The default
+     * implementation retrieves the relationships up to the end of the next page with findRelationships() and skips
+     * those at or before the token's position (see getContinuationWindowSize()).
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types
+     *                             (but may be slow so not recommended).
+     * @param relationshipSubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the
+     *                                 relationshipTypeGUID to include in (or, if skipSubtypes is true, exclude from) the search results.
+     *                                 Null means all subtypes.
+     * @param skipSubtypes if true, relationshipSubtypeGUIDs is treated as the list of subtypes to exclude from the
+     *                     search results rather than the only subtypes to include.  Ignored if relationshipSubtypeGUIDs is null.
+     * @param end1EntityGUIDs optional list of entity guids used to match end 1 of the relationships.
+     * @param end2EntityGUIDs optional list of entity guids used to match end 2 of the relationships.
+     * @param endMatchCriteria criteria for matching the ends of the relationships.
+     * @param matchProperties Optional list of relationship property conditions to match.
+     * @param continuationToken token returned with the previous page of results.  Null means start from the first element.
+     * @param limitResultsByStatus By default, relationships in all non-DELETED statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values except DELETED.
+     * @param asOfTime Requests a historical query of the relationships for the entity.  Null means return the
+     *                 present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return a list of relationships.  Null means no matching relationships.
+     * @throws InvalidParameterException one of the parameters is invalid or null, or the continuation token is not valid.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  relationships.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support one of the provided parameters.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<Relationship> findRelationships(String                    userId,
+                                                String                    relationshipTypeGUID,
+                                                List<String>              relationshipSubtypeGUIDs,
+                                                boolean                   skipSubtypes,
+                                                List<String>              end1EntityGUIDs,
+                                                List<String>              end2EntityGUIDs,
+                                                EndMatchCriteria          endMatchCriteria,
+                                                SearchProperties          matchProperties,
+                                                String                    continuationToken,
+                                                List<InstanceStatus>      limitResultsByStatus,
+                                                Date                      asOfTime,
+                                                String                    sequencingProperty,
+                                                SequencingOrder           sequencingOrder,
+                                                int                       pageSize) throws InvalidParameterException,
+                                                                                           TypeErrorException,
+                                                                                           RepositoryErrorException,
+                                                                                           PropertyErrorException,
+                                                                                           PagingErrorException,
+                                                                                           FunctionNotSupportedException,
+                                                                                           UserNotAuthorizedException
+    {
+        final String methodName = "findRelationships";
+        final String continuationTokenParameterName = "continuationToken";
+
+        ContinuationToken token = ContinuationToken.getContinuationToken(continuationToken,
+                                                                         continuationTokenParameterName,
+                                                                         methodName);
+
+        List<Relationship> results = this.findRelationships(userId,
+                                                            relationshipTypeGUID,
+                                                            relationshipSubtypeGUIDs,
+                                                            skipSubtypes,
+                                                            end1EntityGUIDs,
+                                                            end2EntityGUIDs,
+                                                            endMatchCriteria,
+                                                            matchProperties,
+                                                            getContinuationFromElement(token),
+                                                            limitResultsByStatus,
+                                                            asOfTime,
+                                                            sequencingProperty,
+                                                            getContinuationSequencingOrder(sequencingOrder),
+                                                            getContinuationWindowSize(token, pageSize));
+
+        if ((results == null) || (repositoryHelper == null))
+        {
+            return results;
+        }
+
+        return repositoryHelper.formatRelationshipResults(new ArrayList<>(results),
+                                                          token,
+                                                          sequencingProperty,
+                                                          sequencingOrder,
+                                                          pageSize);
+    }
+
+
+    /**
+     * Return the element number to retrieve from when a repository that can not seek is paging with a continuation
+     * token.  A token that records a position is handled by retrieving from the first element and skipping the
+     * elements at or before the position.  A token without a position only has the element number.
+     *
+     * @param continuationToken decoded token or null
+     * @return element number
+     */
+    private static int getContinuationFromElement(ContinuationToken continuationToken)
+    {
+        if ((continuationToken == null) || (continuationToken.getLastGUID() != null))
+        {
+            return 0;
+        }
+
+        return continuationToken.getNextElement();
+    }
+
+
+    /**
+     * Return the number of elements to retrieve when a repository that can not seek is paging with a continuation
+     * token.  The element number in the token counts the elements on all the earlier pages, so it is never less
+     * than the number of this repository's elements that come before the token's position.  This is still true
+     * when the token came from the enterprise connector and some of the earlier elements came from other members
+     * of the cohort, which is why the position is used to skip elements rather than the element number.
+     *
+     * @param continuationToken decoded token or null
+     * @param pageSize requested page size - zero means unrestricted
+     * @return page size to request from the repository
+     */
+    private static int getContinuationWindowSize(ContinuationToken continuationToken,
+                                                 int               pageSize)
+    {
+        if ((pageSize <= 0) || (continuationToken == null) || (continuationToken.getLastGUID() == null))
+        {
+            return pageSize;
+        }
+
+        return (int) Math.min((long) continuationToken.getNextElement() + pageSize, Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * Return the sequencing order used for continuation - ANY is replaced by CREATION_DATE_RECENT since paging
+     * with continuation tokens needs the same order on every page.  This matches the order used by
+     * repositoryHelper.formatEntityResults() and formatRelationshipResults().
+     *
+     * @param sequencingOrder requested order
+     * @return order to request from the repository
+     */
+    private static SequencingOrder getContinuationSequencingOrder(SequencingOrder sequencingOrder)
+    {
+        if ((sequencingOrder == null) || (sequencingOrder == SequencingOrder.ANY))
+        {
+            return SequencingOrder.CREATION_DATE_RECENT;
+        }
+
+        return sequencingOrder;
+    }
+
+
     /**
      * Return a count of the relationships that match the requested conditions.  This has the same search semantics
      * as findRelationships(), but returns the number of relationships that would be returned rather than the
@@ -2837,6 +3096,51 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
                                                                                UserNotAuthorizedException;
 
 
+    /**
+     * Save a list of entities as reference copies.  The id of the home metadata collection is already set up in
+     * each entity.  The default implementation saves the entities one at a time.  Repository connectors that can
+     * store many instances in a single request (or transaction) should override this method.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entities details of the entities to save.
+     * @throws InvalidParameterException one of the entities is invalid.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for an entity's type.
+     * @throws HomeEntityException one of the entities belongs to the local repository so creating a reference
+     *                               copy would be invalid.
+     * @throws EntityConflictException a new entity conflicts with an existing entity.
+     * @throws InvalidEntityException a new entity has invalid contents.
+     * @throws FunctionNotSupportedException the repository does not support reference copies of instances.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public void saveEntityReferenceCopies(String             userId,
+                                          List<EntityDetail> entities) throws InvalidParameterException,
+                                                                              RepositoryErrorException,
+                                                                              TypeErrorException,
+                                                                              PropertyErrorException,
+                                                                              HomeEntityException,
+                                                                              EntityConflictException,
+                                                                              InvalidEntityException,
+                                                                              FunctionNotSupportedException,
+                                                                              UserNotAuthorizedException
+    {
+        if (entities != null)
+        {
+            for (EntityDetail entity : entities)
+            {
+                if (entity != null)
+                {
+                    this.saveEntityReferenceCopy(userId, entity);
+                }
+            }
+        }
+    }
+
+
     /**
      * Retrieve any locally homed classifications assigned to the requested entity.  This method is implemented by repository connectors that are able
      * to store classifications for entities that are homed in another repository.
@@ -3297,6 +3601,55 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
                                                                                            UserNotAuthorizedException;
 
 
+    /**
+     * Save a list of relationships as reference copies.  The id of the home metadata collection is already set up
+     * in each relationship.  The default implementation saves the relationships one at a time.  Repository
+     * connectors that can store many instances in a single request (or transaction) should override this method.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationships relationships to save.
+     *
+     * @throws InvalidParameterException one of the relationships is invalid.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws EntityNotKnownException one of the entities identified by a relationship is not found in the
+     *                                   metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for a relationship's type.
+     * @throws HomeRelationshipException one of the relationships belongs to the local repository so creating a
+     *                                     reference copy would be invalid.
+     * @throws RelationshipConflictException a new relationship conflicts with an existing relationship.
+     * @throws InvalidRelationshipException a new relationship has invalid contents.
+     * @throws FunctionNotSupportedException the repository does not support reference copies of instances.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public void saveRelationshipReferenceCopies(String             userId,
+                                                List<Relationship> relationships) throws InvalidParameterException,
+                                                                                         RepositoryErrorException,
+                                                                                         TypeErrorException,
+                                                                                         EntityNotKnownException,
+                                                                                         PropertyErrorException,
+                                                                                         HomeRelationshipException,
+                                                                                         RelationshipConflictException,
+                                                                                         InvalidRelationshipException,
+                                                                                         FunctionNotSupportedException,
+                                                                                         UserNotAuthorizedException
+    {
+        if (relationships != null)
+        {
+            for (Relationship relationship : relationships)
+            {
+                if (relationship != null)
+                {
+                    this.saveRelationshipReferenceCopy(userId, relationship);
+                }
+            }
+        }
+    }
+
+
     /**
      * Remove the reference copy of the relationship from the local repository. This method can be used to
      * remove reference copies from the local cohort, repositories that have left the cohort,
@@ -3512,7 +3865,7 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
         final String methodName = "saveInstanceReferenceCopies";
 
         /*
-         * Work through the entities and then the relationships, skipping any instance that has the
+         * Save the entities and then the relationships, skipping any instance that has the
          * local home metadata collection id.
          */
         if (instances != null)
@@ -3521,24 +3874,32 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
             {
                 if (instances.getEntities() != null)
                 {
+                    List<EntityDetail> entities = new ArrayList<>();
+
                     for (EntityDetail entity : instances.getEntities())
                     {
                         if ((entity != null) && (! metadataCollectionId.equals(entity.getMetadataCollectionId())))
                         {
-                            saveEntityReferenceCopy(userId, entity);
+                            entities.add(entity);
                         }
                     }
+
+                    saveEntityReferenceCopies(userId, entities);
                 }
 
                 if (instances.getRelationships() != null)
                 {
+                    List<Relationship> relationships = new ArrayList<>();
+
                     for (Relationship relationship : instances.getRelationships())
                     {
                         if ((relationship != null) && (! metadataCollectionId.equals(relationship.getMetadataCollectionId())))
                         {
-                            saveRelationshipReferenceCopy(userId, relationship);
+                            relationships.add(relationship);
                         }
                     }
+
+                    saveRelationshipReferenceCopies(userId, relationships);
                 }
             }
             catch (HomeEntityException exception)
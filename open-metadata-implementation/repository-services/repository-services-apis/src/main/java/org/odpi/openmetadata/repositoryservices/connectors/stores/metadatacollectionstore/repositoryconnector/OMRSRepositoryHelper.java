@@ -5,6 +5,7 @@ package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacolle
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
@@ -12,6 +13,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSRepositoryPropertiesHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 
@@ -904,6 +906,98 @@ public interface OMRSRepositoryHelper extends OMRSRepositoryPropertiesHelper
                                                                                        PropertyErrorException;
 
 
+    /**
+     * Use the sequencing parameters and continuation token to format the results for a repository call that returns
+     * a list of entity instances.  The results are sorted into the order of the sequencing key followed by the guid,
+     * and the page starts with the first entity that sorts after the position recorded in the continuation token.
+     * (Sequencing order ANY is treated as CREATION_DATE_RECENT so that the order is stable from page to page.)
+     *
+     * @param fullResults - the full list of results in an arbitrary order
+     * @param continuationToken - decoded token returned with the previous page.  Null means start from the first element.
+     * @param sequencingProperty - String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder - Enum defining how the results should be ordered.
+     * @param pageSize - the maximum number of result entities that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return results array as requested
+     */
+    List<EntityDetail>  formatEntityResults(List<EntityDetail> fullResults,
+                                            ContinuationToken  continuationToken,
+                                            String             sequencingProperty,
+                                            SequencingOrder    sequencingOrder,
+                                            int                pageSize);
+
+
+    /**
+     * Use the sequencing parameters and continuation token to format the results for a repository call that returns
+     * a list of relationship instances.  The results are sorted into the order of the sequencing key followed by the
+     * guid, and the page starts with the first relationship that sorts after the position recorded in the continuation
+     * token.  (Sequencing order ANY is treated as CREATION_DATE_RECENT so that the order is stable from page to page.)
+     *
+     * @param fullResults - the full list of results in an arbitrary order
+     * @param continuationToken - decoded token returned with the previous page.  Null means start from the first element.
+     * @param sequencingProperty - String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder - Enum defining how the results should be ordered.
+     * @param pageSize - the maximum number of result relationships that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return results array as requested
+     */
+    List<Relationship>  formatRelationshipResults(List<Relationship> fullResults,
+                                                  ContinuationToken  continuationToken,
+                                                  String             sequencingProperty,
+                                                  SequencingOrder    sequencingOrder,
+                                                  int                pageSize);
+
+
+    /**
+     * Return the continuation token that retrieves the page of results that follows the supplied page.  The token
+     * records the sequencing key and guid of the last instance in the page along with the element number of the
+     * next page (for repositories that can not seek).
+     *
+     * @param continuationToken token that was used to retrieve the supplied page - null for the first page
+     * @param page instances returned for the page in the order they were returned
+     * @param sequencingProperty String name of the property that the results are sequenced on
+     * @param sequencingOrder Enum defining how the results are ordered
+     * @param pageSize the maximum number of instances that could be returned in the page
+     * @return token string or null if there are no more results
+     * @throws InvalidParameterException the supplied continuation token is not valid
+     */
+    String getNextContinuationToken(String                         continuationToken,
+                                    List<? extends InstanceHeader> page,
+                                    String                         sequencingProperty,
+                                    SequencingOrder                sequencingOrder,
+                                    int                            pageSize) throws InvalidParameterException;
+
+
+    /**
+     * Return a comparator that orders instances in continuation order - that is the requested sequencing order
+     * followed by guid.  This is the order that pages retrieved with continuation tokens are returned in.
+     *
+     * @param sequencingProperty String name of the property that the results are sequenced on
+     * @param sequencingOrder Enum defining how the results are ordered
+     * @return comparator
+     */
+    Comparator<InstanceHeader> getContinuationComparator(String          sequencingProperty,
+                                                         SequencingOrder sequencingOrder);
+
+
+    /**
+     * Return whether an instance comes after the position recorded in a continuation token, and so belongs on
+     * the page that the token retrieves.
+     *
+     * @param instance instance to test
+     * @param continuationToken decoded token - null means the first page so every instance is after it
+     * @param sequencingProperty String name of the property that the results are sequenced on
+     * @param sequencingOrder Enum defining how the results are ordered
+     * @return boolean
+     */
+    boolean isAfterContinuationPosition(InstanceHeader    instance,
+                                        ContinuationToken continuationToken,
+                                        String            sequencingProperty,
+                                        SequencingOrder   sequencingOrder);
+
+
     /**
      * Compare the properties of two instances and determine the sort order based on the nominated property value and
      * sort order.
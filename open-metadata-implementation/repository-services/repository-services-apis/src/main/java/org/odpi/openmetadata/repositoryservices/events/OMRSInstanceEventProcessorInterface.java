@@ -771,5 +771,16 @@ public interface OMRSInstanceEventProcessorInterface
                                      String         targetInstanceGUID,
                                      TypeDefSummary otherTypeDef,
                                      String         errorMessage);
+
+
+    /**
+     * Complete the processing of any instances from earlier events that the processor is holding back, for example
+     * to save them in a batch.  This is called by components that pass a series of events to the processor directly
+     * and need the instances saved before they move on.  Processors that save each instance as its event arrives
+     * have nothing to do.
+     */
+    default void flushReferenceCopies()
+    {
+    }
 }
 
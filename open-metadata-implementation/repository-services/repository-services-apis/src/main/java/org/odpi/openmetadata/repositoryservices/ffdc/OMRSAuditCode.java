@@ -671,6 +671,76 @@ public enum OMRSAuditCode implements AuditLogMessageSet
                          "The local server has started up the logging destinations defined in the configuration document.",
                          "Validate that all the logging destinations are working."),
 
+    /**
+     * OMRS-AUDIT-0065 - The OMRS Topic Connector for topic {0} is sending events using the {1} encoding
+     */
+    OMRS_TOPIC_EVENT_ENCODING("OMRS-AUDIT-0065",
+                              AuditLogRecordSeverityLevel.STARTUP,
+                              "The OMRS Topic Connector for topic {0} is sending events using the {1} encoding",
+                              "Outbound events are encoded in the binary format named in the configuration and sent as bytes through the event bus " +
+                                      "connectors that support binary events.  Other event bus connectors are still sent JSON.  Inbound events are decoded " +
+                                      "according to their leading marker, so events sent as JSON by other members of the cohort are still accepted.",
+                              "Check that every member of the cohort is able to decode this encoding.  A server that only understands " +
+                                      "JSON events will log parsing errors for the events sent by this server."),
+
+    /**
+     * OMRS-AUDIT-0066 - The OMRS Topic Connector for topic {0} has been configured with an unrecognized event encoding of {1}; events are sent as JSON
+     */
+    OMRS_TOPIC_UNKNOWN_EVENT_ENCODING("OMRS-AUDIT-0066",
+                                      AuditLogRecordSeverityLevel.ERROR,
+                                      "The OMRS Topic Connector for topic {0} has been configured with an unrecognized event encoding of {1}; events are sent as JSON",
+                                      "The eventEncoding configuration property of the OMRS Topic Connector is not one of the supported values.  " +
+                                              "The connector continues with the default JSON encoding.",
+                                      "Correct the eventEncoding configuration property.  The supported values are json, smile and smileDeflate."),
+
+    /**
+     * OMRS-AUDIT-0067 - The OMRS Topic Connector for topic {0} is passing events to its listeners on {1} threads with a queue of {2} events for each listener and the {3} overflow policy
+     */
+    OMRS_TOPIC_LISTENER_DISPATCH("OMRS-AUDIT-0067",
+                                 AuditLogRecordSeverityLevel.STARTUP,
+                                 "The OMRS Topic Connector for topic {0} is passing events to its listeners on {1} threads with a queue of {2} events for each listener and the {3} overflow policy",
+                                 "Each listener receives the events in the order they arrived on the topic, but different listeners process events at the same time.",
+                                 "No action is required.  This is part of the normal operation of the server."),
+
+    /**
+     * OMRS-AUDIT-0068 - The {0} listener for topic {1} is falling behind: {2} events are waiting and the latest event waited {3} milliseconds to be processed
+     */
+    SLOW_OMRS_TOPIC_LISTENER("OMRS-AUDIT-0068",
+                             AuditLogRecordSeverityLevel.ERROR,
+                             "The {0} listener for topic {1} is falling behind: {2} events are waiting and the latest event waited {3} milliseconds to be processed",
+                             "The listener is processing events more slowly than they are arriving.  The other listeners on the topic are not affected " +
+                                     "unless the listener's queue fills up and the overflow policy is block.",
+                             "Review the audit log for errors from the named service and check the performance of the repositories it calls."),
+
+    /**
+     * OMRS-AUDIT-0069 - The {0} listener for topic {1} has a full queue of {2} events; events are being skipped for this listener.  {3} events have been skipped so far
+     */
+    OMRS_TOPIC_LISTENER_EVENTS_SKIPPED("OMRS-AUDIT-0069",
+                                       AuditLogRecordSeverityLevel.ERROR,
+                                       "The {0} listener for topic {1} has a full queue of {2} events; events are being skipped for this listener.  {3} events have been skipped so far",
+                                       "The listenerOverflowPolicy of the OMRS Topic Connector is isolate, so a listener that cannot keep up misses events rather than delaying the other listeners.",
+                                       "Find out why the listener is not keeping up.  The metadata that this listener maintains may need to be refreshed once the problem is fixed."),
+
+    /**
+     * OMRS-AUDIT-0070 - The local repository is saving reference copies from incoming instance events in batches of up to {0} instances, waiting no more than {1} milliseconds
+     */
+    REFERENCE_COPY_BATCHING("OMRS-AUDIT-0070",
+                            AuditLogRecordSeverityLevel.STARTUP,
+                            "The local repository is saving reference copies from incoming instance events in batches of up to {0} instances, waiting no more than {1} milliseconds",
+                            "When a newer version of an instance arrives before its batch is saved, only the newer version is saved.  The events are not marked as " +
+                                    "processed until their batch is saved.",
+                            "No action is required.  This is part of the normal operation of the server.  Set the referenceCopyBatchSize configuration property " +
+                                    "of the local repository's connection to 1 to save each reference copy as its event arrives."),
+
+    /**
+     * OMRS-AUDIT-0071 - The local repository could not save a batch of {0} entities and {1} relationships due to exception {2} with message {3}; the instances are being saved one at a time
+     */
+    REFERENCE_COPY_BATCH_FAILED("OMRS-AUDIT-0071",
+                                AuditLogRecordSeverityLevel.ERROR,
+                                "The local repository could not save a batch of {0} entities and {1} relationships due to exception {2} with message {3}; the instances are being saved one at a time",
+                                "Each instance in the batch is saved on its own so that the error can be reported against the event that supplied the instance.",
+                                "Review the errors that follow for the instances that could not be saved."),
+
     /**
      * OMRS-AUDIT-0100 - Unable parse an incoming event {0} due to exception {1}
      */
@@ -1380,6 +1450,15 @@ public enum OMRSAuditCode implements AuditLogMessageSet
                                        "The local server is processing a federated query to all members of the connected cohorts.  However one of the members is not responding correctly and so it has been skipped from the call. The remote server is probably not running, or has been incorrectly configured.",
                                        "Validate the availability and configuration of the remote server.  It may be a temporary failure due to an outage in the network or the server itself.  However, if the remote server is not configured correctly, or has changed its metadata collection id, then this wil lbe a permanent error and this server will not be included in the federated query until it is fixed."),
 
+    /**
+     * OMRS-AUDIT-0402 - Repository {0} did not respond to the federated {1} request within {2} milliseconds and has been skipped
+     */
+    FEDERATED_REQUEST_TIMED_OUT("OMRS-AUDIT-0402",
+                                AuditLogRecordSeverityLevel.ACTION,
+                                "Repository {0} did not respond to the federated {1} request within {2} milliseconds and has been skipped",
+                                "The local server is processing a federated query to all members of the connected cohorts.  One of the members has not responded in time and so the results returned to the caller do not include any metadata from this member.",
+                                "Validate the availability and performance of the remote server.  It may be a temporary failure due to an outage in the network or heavy load on the remote server.  If the problem persists, check the remote server's audit log for errors."),
+
     /**
      * OMRS-AUDIT-8001 - Received unknown event: {0}
      */
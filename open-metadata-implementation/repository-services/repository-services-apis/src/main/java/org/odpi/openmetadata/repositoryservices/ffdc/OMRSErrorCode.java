@@ -1112,6 +1112,22 @@ public enum OMRSErrorCode implements ExceptionMessageSet
                                       "The system cannot load an open metadata archive because the archive manager is not active in this server.",
                                       "Redirect the load request to a metadata access store."),
 
+    /**
+     * OMRS-AUDIT-LOG-400-010 - A negative {0} value of {1} has been passed on the {2} request to the audit log destination {3}
+     */
+    NEGATIVE_AUDIT_LOG_PAGING_VALUE(400, "OMRS-AUDIT-LOG-400-010",
+            "A negative {0} value of {1} has been passed on the {2} request to the audit log destination {3}",
+            "The system cannot process the query request because the paging parameters are invalid.",
+            "The offset and maximumRecords parameters are supplied by the caller.  Correct the calling code and retry the request."),
+
+    /**
+     * OMRS-AUDIT-LOG-400-011 - A null {0} parameter has been passed on the {1} request to the audit log destination {2}
+     */
+    NULL_AUDIT_LOG_QUERY_PARAMETER(400, "OMRS-AUDIT-LOG-400-011",
+            "A null {0} parameter has been passed on the {1} request to the audit log destination {2}",
+            "The system cannot process the query request because it does not know which log records to return.",
+            "Correct the calling code to supply a value for the parameter and retry the request."),
+
     /**
      * OMRS-REPOSITORY-404-001 - The open metadata repository connector for server {0} is not active and cannot service the {1} request
      */
@@ -1604,6 +1620,22 @@ public enum OMRSErrorCode implements ExceptionMessageSet
             "There is an internal error in the open metadata repository.",
             "Report this to the Egeria team via a GitHub issue so that it can be investigated."),
 
+    /**
+     * OMRS-METADATA-TOPIC-CONNECTOR-500-002 - The {0} open metadata topic connector {1} is not able to send binary events
+     */
+    BINARY_EVENT_NOT_SUPPORTED(500, "OMRS-METADATA-TOPIC-CONNECTOR-500-002",
+            "The {0} open metadata topic connector {1} is not able to send binary events",
+            "The event is not sent.  The caller should check isBinaryEventSupported() before sending a binary event.",
+            "This is a logic error in the caller.  Report this to the Egeria team via a GitHub issue so that the caller can be corrected."),
+
+    /**
+     * OMRS-METADATA-TOPIC-CONNECTOR-500-003 - The topic listener {0} is not able to process binary events
+     */
+    BINARY_EVENT_NOT_UNDERSTOOD(500, "OMRS-METADATA-TOPIC-CONNECTOR-500-003",
+            "The topic listener {0} is not able to process binary events",
+            "The event is ignored by this listener.  Binary events are only sent by OMRS topic connectors that are configured with a binary eventEncoding.",
+            "Check that the topic is only shared by OMRS topic connectors, or configure the senders to use the json eventEncoding."),
+
     /**
      * OMRS-TOPIC-CONNECTOR-500-001 - A null topic listener has been specified to the open metadata topic connector {0}
      */
@@ -0,0 +1,129 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProvenanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.beans.v2.OMRSEventV2;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * OMRSEventCorpus builds the instance events that the encoding test and benchmark both measure, so the sizes
+ * checked by the test and the times reported by the benchmark describe the same events.
+ */
+class OMRSEventCorpus
+{
+    /**
+     * Number of events in the corpus used for measurements.
+     */
+    static final int corpusSize = 500;
+
+
+    /**
+     * Build a corpus of instance events with a realistic number of properties.
+     *
+     * @param size number of events
+     * @return list of events
+     */
+    static List<OMRSEventV2> getCorpus(int size)
+    {
+        List<OMRSEventV2>   corpus     = new ArrayList<>(size);
+        OMRSEventOriginator originator = new OMRSEventOriginator();
+
+        originator.setMetadataCollectionId(UUID.randomUUID().toString());
+        originator.setServerName("cocoMDS1");
+        originator.setServerType("Metadata Access Store");
+        originator.setOrganizationName("Coco Pharmaceuticals");
+
+        for (int i = 0; i < size; i++)
+        {
+            EntityDetail       entity     = new EntityDetail();
+            InstanceProperties properties = new InstanceProperties();
+
+            entity.setGUID(UUID.randomUUID().toString());
+            entity.setType(new InstanceType(TypeDefCategory.ENTITY_DEF, "1449911c-4f44-4c22-abc0-7540154feefb", "DataFile", 1L));
+            entity.setInstanceProvenanceType(InstanceProvenanceType.LOCAL_COHORT);
+            entity.setMetadataCollectionId(originator.getMetadataCollectionId());
+            entity.setMetadataCollectionName(originator.getServerName());
+            entity.setStatus(InstanceStatus.ACTIVE);
+            entity.setCreatedBy("erinoverview");
+            entity.setCreateTime(new Date());
+            entity.setVersion(i + 1L);
+
+            addStringProperty(properties, "qualifiedName", "DataFile:/data/landing/week" + i + "/measurements.csv");
+            addStringProperty(properties, "name", "measurements.csv");
+            addStringProperty(properties, "description", "Weekly clinical trial measurements supplied by hospital " + (i % 7));
+            addStringProperty(properties, "pathName", "/data/landing/week" + i + "/measurements.csv");
+            addStringProperty(properties, "fileType", "csv");
+            addStringProperty(properties, "encoding", "UTF-8");
+            addStringProperty(properties, "deployedImplementationType", "CSV Data File");
+            addStringProperty(properties, "versionIdentifier", "V" + i);
+            entity.setProperties(properties);
+
+            OMRSInstanceEvent instanceEvent = new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, entity);
+
+            instanceEvent.setEventOriginator(originator);
+            corpus.add(instanceEvent.getOMRSEventV1());
+        }
+
+        return corpus;
+    }
+
+
+    /**
+     * Return the total number of bytes sent for the corpus in an encoding.
+     *
+     * @param encoding encoding to use
+     * @param corpus events to encode
+     * @return number of bytes
+     * @throws IOException problem encoding an event
+     */
+    static long getEncodedSize(OMRSEventEncoding encoding,
+                               List<OMRSEventV2> corpus) throws IOException
+    {
+        long totalBytes = 0;
+
+        for (OMRSEventV2 event : corpus)
+        {
+            totalBytes = totalBytes + encoding.encode(event).length;
+        }
+
+        return totalBytes;
+    }
+
+
+    /**
+     * Add a string property to the instance properties.
+     *
+     * @param properties instance properties
+     * @param propertyName name of the property
+     * @param propertyValue value of the property
+     */
+    private static void addStringProperty(InstanceProperties properties,
+                                          String             propertyName,
+                                          String             propertyValue)
+    {
+        PrimitivePropertyValue primitivePropertyValue = new PrimitivePropertyValue();
+
+        primitivePropertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        primitivePropertyValue.setPrimitiveValue(propertyValue);
+        primitivePropertyValue.setTypeName(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING.getName());
+        primitivePropertyValue.setTypeGUID(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING.getGUID());
+
+        properties.setProperty(propertyName, primitivePropertyValue);
+    }
+}
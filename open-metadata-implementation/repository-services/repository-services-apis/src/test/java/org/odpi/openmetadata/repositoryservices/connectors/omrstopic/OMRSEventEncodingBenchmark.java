@@ -0,0 +1,126 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
+import org.odpi.openmetadata.repositoryservices.events.beans.v2.OMRSEventV2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to encode and decode an OMRS event in each OMRSEventEncoding, using the corpus of instance
+ * events that OMRSEventEncodingTest checks the sizes of.  The scores are the average time per event.  The main
+ * method prints the bytes per event for each encoding before it runs the benchmarks, so the size saved by each
+ * encoding can be set against the processor time it costs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class OMRSEventEncodingBenchmark
+{
+    /**
+     * Encoding to measure.
+     */
+    @Param({"JSON", "SMILE", "SMILE_DEFLATE"})
+    public OMRSEventEncoding encoding;
+
+    private List<OMRSEventV2> corpus;
+    private byte[][]          encodedCorpus;
+
+
+    /**
+     * Build the corpus and encode it for the decode benchmark.
+     *
+     * @throws IOException problem encoding an event
+     */
+    @Setup
+    public void setUp() throws IOException
+    {
+        corpus        = OMRSEventCorpus.getCorpus(OMRSEventCorpus.corpusSize);
+        encodedCorpus = new byte[corpus.size()][];
+
+        for (int eventNumber = 0; eventNumber < corpus.size(); eventNumber++)
+        {
+            encodedCorpus[eventNumber] = encoding.encode(corpus.get(eventNumber));
+        }
+    }
+
+
+    /**
+     * Encode each event in the corpus, as the OMRS topic connector does before sending it.
+     *
+     * @param blackhole consumes the encoded events
+     * @throws IOException problem encoding an event
+     */
+    @Benchmark
+    @OperationsPerInvocation(OMRSEventCorpus.corpusSize)
+    public void encode(Blackhole blackhole) throws IOException
+    {
+        for (OMRSEventV2 event : corpus)
+        {
+            blackhole.consume(encoding.encode(event));
+        }
+    }
+
+
+    /**
+     * Decode each event in the corpus, as the OMRS topic connector does when it receives it.
+     *
+     * @param blackhole consumes the decoded events
+     * @throws IOException problem decoding an event
+     */
+    @Benchmark
+    @OperationsPerInvocation(OMRSEventCorpus.corpusSize)
+    public void decode(Blackhole blackhole) throws IOException
+    {
+        for (byte[] encodedEvent : encodedCorpus)
+        {
+            OMRSEventBean event = OMRSEventEncoding.decode(encodedEvent);
+
+            blackhole.consume(event);
+        }
+    }
+
+
+    /**
+     * Print the bytes per event for each encoding and then run the benchmark.
+     *
+     * @param args ignored
+     * @throws IOException problem encoding an event
+     * @throws RunnerException problem running the benchmark
+     */
+    public static void main(String[] args) throws IOException, RunnerException
+    {
+        List<OMRSEventV2> corpus = OMRSEventCorpus.getCorpus(OMRSEventCorpus.corpusSize);
+
+        for (OMRSEventEncoding encoding : OMRSEventEncoding.values())
+        {
+            long encodedBytes = OMRSEventCorpus.getEncodedSize(encoding, corpus);
+
+            System.out.printf("%-14s %8.1f bytes per event%n", encoding.getEncodingName(), (double) encodedBytes / corpus.size());
+        }
+
+        new Runner(new OptionsBuilder().include(OMRSEventEncodingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
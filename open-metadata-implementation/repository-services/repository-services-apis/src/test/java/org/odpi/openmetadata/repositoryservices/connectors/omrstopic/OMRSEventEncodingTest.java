@@ -0,0 +1,86 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
+import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
+import org.odpi.openmetadata.repositoryservices.events.beans.v2.OMRSEventV2;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Tests for {@link OMRSEventEncoding}.  The size test encodes the same corpus of instance events in each
+ * encoding and checks that the binary encodings are smaller than JSON.  OMRSEventEncodingBenchmark reports the
+ * bytes per event and the encode and decode times for the same corpus.
+ */
+public class OMRSEventEncodingTest
+{
+    @Test
+    public void testEncodingsRoundTrip() throws Exception
+    {
+        OMRSEventV2 event    = OMRSEventCorpus.getCorpus(1).get(0);
+        String      expected = OMRSEventEncoding.encodeJSON(event);
+
+        for (OMRSEventEncoding encoding : OMRSEventEncoding.values())
+        {
+            byte[]        encodedEvent = encoding.encode(event);
+            OMRSEventBean decodedEvent = OMRSEventEncoding.decode(encodedEvent);
+
+            Assert.assertTrue(decodedEvent instanceof OMRSEventV2, encoding.getEncodingName());
+            Assert.assertEquals(OMRSEventEncoding.encodeJSON(decodedEvent), expected, encoding.getEncodingName());
+
+            if (encoding.isBinary())
+            {
+                Assert.assertEquals(encodedEvent[0], OpenMetadataTopicConnector.BINARY_EVENT_MARKER);
+            }
+            else
+            {
+                Assert.assertEquals(new String(encodedEvent, StandardCharsets.UTF_8), expected);
+            }
+        }
+    }
+
+
+    @Test
+    public void testJSONTextRoundTrip() throws Exception
+    {
+        OMRSEventV2 event    = OMRSEventCorpus.getCorpus(1).get(0);
+        String      expected = OMRSEventEncoding.encodeJSON(event);
+
+        Assert.assertEquals(OMRSEventEncoding.encodeJSON(OMRSEventEncoding.decode(expected)), expected);
+    }
+
+
+    @Test
+    public void testGetEncoding()
+    {
+        Assert.assertEquals(OMRSEventEncoding.getEncoding("smile"), OMRSEventEncoding.SMILE);
+        Assert.assertEquals(OMRSEventEncoding.getEncoding("SmileDeflate"), OMRSEventEncoding.SMILE_DEFLATE);
+        Assert.assertEquals(OMRSEventEncoding.getEncoding(" json "), OMRSEventEncoding.JSON);
+        Assert.assertNull(OMRSEventEncoding.getEncoding("cbor"));
+        Assert.assertNull(OMRSEventEncoding.getEncoding(null));
+    }
+
+
+    @Test(expectedExceptions = java.io.IOException.class)
+    public void testUnknownBinaryMarker() throws Exception
+    {
+        OMRSEventEncoding.decode(new byte[]{OpenMetadataTopicConnector.BINARY_EVENT_MARKER, 'X', 'a', 'b'});
+    }
+
+
+    @Test
+    public void testBinaryEventsSmallerThanJSON() throws Exception
+    {
+        List<OMRSEventV2> corpus       = OMRSEventCorpus.getCorpus(OMRSEventCorpus.corpusSize);
+        long              jsonBytes    = OMRSEventCorpus.getEncodedSize(OMRSEventEncoding.JSON, corpus);
+        long              smileBytes   = OMRSEventCorpus.getEncodedSize(OMRSEventEncoding.SMILE, corpus);
+        long              deflateBytes = OMRSEventCorpus.getEncodedSize(OMRSEventEncoding.SMILE_DEFLATE, corpus);
+
+        Assert.assertTrue(smileBytes < jsonBytes, "Smile " + smileBytes + " bytes, JSON " + jsonBytes + " bytes");
+        Assert.assertTrue(deflateBytes < smileBytes, "Compressed Smile " + deflateBytes + " bytes, Smile " + smileBytes + " bytes");
+    }
+}
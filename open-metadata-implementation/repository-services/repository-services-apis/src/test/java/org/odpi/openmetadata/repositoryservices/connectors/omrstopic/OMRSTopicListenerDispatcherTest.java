@@ -0,0 +1,156 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEvent;
+import org.odpi.openmetadata.repositoryservices.events.future.OMRSFuture;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link OMRSTopicListenerDispatcher}.
+ */
+public class OMRSTopicListenerDispatcherTest
+{
+    private static final int eventCount = 500;
+
+
+    @Test
+    public void testEventsStayInOrderForEachListener() throws Exception
+    {
+        OMRSTopicListenerDispatcher dispatcher = new OMRSTopicListenerDispatcher("testTopic", 4, eventCount, false, 30000, null);
+        List<List<Integer>>         received   = new ArrayList<>();
+        List<OMRSTopicListener>     listeners  = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++)
+        {
+            received.add(Collections.synchronizedList(new ArrayList<>()));
+            listeners.add(new TestListener());
+        }
+
+        for (int event = 0; event < eventCount; event++)
+        {
+            final int eventNumber = event;
+
+            for (int i = 0; i < listeners.size(); i++)
+            {
+                final List<Integer> listenerEvents = received.get(i);
+
+                dispatcher.dispatch(listeners.get(i), "listener" + i, () -> listenerEvents.add(eventNumber));
+            }
+        }
+
+        dispatcher.shutdown(10000);
+
+        for (int i = 0; i < listeners.size(); i++)
+        {
+            Assert.assertEquals(received.get(i).size(), eventCount);
+
+            for (int event = 0; event < eventCount; event++)
+            {
+                Assert.assertEquals(received.get(i).get(event).intValue(), event);
+            }
+
+            Assert.assertEquals(dispatcher.getMetrics(listeners.get(i)).getProcessedEventCount(), eventCount);
+        }
+    }
+
+
+    @Test
+    public void testBlockedListenerIsIsolated() throws Exception
+    {
+        OMRSTopicListenerDispatcher dispatcher    = new OMRSTopicListenerDispatcher("testTopic", 2, 5, true, 30000, null);
+        OMRSTopicListener           slowListener  = new TestListener();
+        OMRSTopicListener           fastListener  = new TestListener();
+        CountDownLatch              release       = new CountDownLatch(1);
+        List<OMRSFuture>            results       = new ArrayList<>();
+
+        for (int event = 0; event < eventCount; event++)
+        {
+            InternalOMRSEventProcessingContext.clear();
+            InternalOMRSEventProcessingContext.getInstance().setCurrentMessageId(Integer.toString(event));
+
+            dispatcher.dispatch(slowListener, "slowListener", () -> this.await(release));
+            dispatcher.dispatch(fastListener, "fastListener", () -> true);
+
+            results.add(InternalOMRSEventProcessingContext.getInstance().getOverallAsyncProcessingResult());
+        }
+
+        InternalOMRSEventProcessingContext.clear();
+
+        /*
+         * The fast listener keeps processing events while the slow listener is stuck on its first event.
+         */
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while ((dispatcher.getMetrics(fastListener).getQueueDepth() > 0) && (System.currentTimeMillis() < deadline))
+        {
+            Thread.sleep(10);
+        }
+
+        OMRSTopicListenerMetrics fastMetrics = dispatcher.getMetrics(fastListener);
+        OMRSTopicListenerMetrics slowMetrics = dispatcher.getMetrics(slowListener);
+
+        Assert.assertEquals(fastMetrics.getQueueDepth(), 0);
+        Assert.assertTrue(fastMetrics.getProcessedEventCount() > slowMetrics.getProcessedEventCount(), "Fast listener was held up by the slow listener");
+        Assert.assertTrue(slowMetrics.getSkippedEventCount() >= eventCount - 6, "Slow listener should skip the events that do not fit in its queue");
+        Assert.assertFalse(results.get(0).isDone(), "First event should wait for the slow listener");
+
+        release.countDown();
+        dispatcher.shutdown(10000);
+
+        for (OMRSFuture result : results)
+        {
+            Assert.assertTrue(result.isDone());
+        }
+    }
+
+
+    /**
+     * Wait for the latch to be released.
+     *
+     * @param latch latch
+     * @return true if released
+     */
+    private boolean await(CountDownLatch latch)
+    {
+        try
+        {
+            return latch.await(30, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException error)
+        {
+            return false;
+        }
+    }
+
+
+    /**
+     * Listener that is only used as a key for its queue.
+     */
+    private static class TestListener implements OMRSTopicListener
+    {
+        @Override
+        public void processRegistryEvent(OMRSRegistryEvent event)
+        {
+        }
+
+        @Override
+        public void processTypeDefEvent(OMRSTypeDefEvent event)
+        {
+        }
+
+        @Override
+        public void processInstanceEvent(OMRSInstanceEvent event)
+        {
+        }
+    }
+}
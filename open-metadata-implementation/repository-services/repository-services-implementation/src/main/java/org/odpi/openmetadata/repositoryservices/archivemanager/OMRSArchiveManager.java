@@ -482,6 +482,12 @@ public class OMRSArchiveManager
                 }
             }
 
+            /*
+             * The instance processor may be saving the entities and relationships in batches.
+             * They are saved before the classifications are applied to the entities.
+             */
+            instanceProcessor.flushReferenceCopies();
+
             if (instanceProcessor instanceof OMRSInstanceEventProcessorClassificationExtension classificationInstanceProcessor)
             {
                 if (classifications != null)
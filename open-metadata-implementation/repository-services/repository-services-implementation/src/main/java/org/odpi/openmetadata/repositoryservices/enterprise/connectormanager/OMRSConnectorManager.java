@@ -2,6 +2,7 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.enterprise.connectormanager;
 
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationThreadPool;
 
 /**
  * OMRSConnectorManager provides the methods for connector consumers to register with the connector manager.
@@ -30,4 +31,13 @@ public interface OMRSConnectorManager
      *                             registerConnectorConsumer.
      */
     void unregisterConnectorConsumer(String   connectorConsumerId);
+
+
+    /**
+     * Return the worker threads that the connector consumers use to call the repositories in the cohort
+     * in parallel.  There is one pool for the server so the number of outstanding calls is bounded.
+     *
+     * @return thread pool or null if federated calls are made one after another
+     */
+    FederationThreadPool getFederationThreadPool();
 }
@@ -13,6 +13,7 @@ import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedExceptio
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationThreadPool;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector.LocalOMRSRepositoryConnector;
@@ -85,6 +86,7 @@ public class OMRSEnterpriseConnectorManager implements OMRSConnectionConsumer, O
     private final String                            localServerSecretStoreCollection; /* Initialized in constructor */
     private String                                  localMetadataCollectionId    = null;
     private LocalOMRSRepositoryConnector            localRepositoryConnector     = null;
+    private final FederationThreadPool              federationThreadPool         = new FederationThreadPool();
 
     /**
      * Constructor for the enterprise connector manager.
@@ -170,6 +172,21 @@ public class OMRSEnterpriseConnectorManager implements OMRSConnectionConsumer, O
         {
             registeredConnectorConsumer.getConnectorConsumer().disconnectAllConnectors();
         }
+
+        federationThreadPool.shutdown();
+    }
+
+
+    /**
+     * Return the worker threads that the connector consumers use to call the repositories in the cohort
+     * in parallel.
+     *
+     * @return thread pool
+     */
+    @Override
+    public FederationThreadPool getFederationThreadPool()
+    {
+        return federationThreadPool;
     }
 
 
@@ -5,6 +5,7 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollectionBase;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.HistorySequencingOrder;
@@ -137,7 +138,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetAllTypesExecutor executor = new GetAllTypesExecutor(userId,
                                                                methodName,
                                                                localMetadataCollectionId,
@@ -897,7 +898,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetEntityDetailExecutor executor          = new GetEntityDetailExecutor(userId, guid, auditLog, methodName);
 
         /*
@@ -946,7 +947,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl        federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl        federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetEntitySummaryExecutor executor          = new GetEntitySummaryExecutor(userId, guid, auditLog, methodName);
 
         /*
@@ -996,7 +997,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetEntityDetailExecutor executor          = new GetEntityDetailExecutor(userId, guid, auditLog, methodName);
 
         federationControl.executeCommand(executor);
@@ -1046,7 +1047,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetEntityDetailExecutor executor          = new GetEntityDetailExecutor(userId, guid, asOfTime, auditLog, methodName);
 
         /*
@@ -1068,7 +1069,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
             {
                 cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-                federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+                federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
                 executor          = new GetEntityDetailExecutor(userId, guid, asOfTime, auditLog, methodName);
 
                 retryCount ++;
@@ -1133,7 +1134,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetEntityDetailHistoryExecutor executor          = new GetEntityDetailHistoryExecutor(userId,
                                                                                               guid,
                                                                                               fromTime,
@@ -1208,7 +1209,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetClassificationHistoryExecutor executor          = new GetClassificationHistoryExecutor(userId,
                                                                                                   guid,
                                                                                                   classificationName,
@@ -1305,7 +1306,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                 federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                 federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetRelationshipsForEntityExecutor executor          = new GetRelationshipsForEntityExecutor(userId,
                                                                                                     entityGUID,
                                                                                                     relationshipTypeGUID,
@@ -1424,7 +1425,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         FindEntitiesByPropertyExecutor executor          = new FindEntitiesByPropertyExecutor(userId,
                                                                                               entityTypeGUID,
                                                                                               matchProperties,
@@ -1454,6 +1455,11 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
 
     /**
      * Return a list of entities that match the supplied criteria.  The results can be returned over many pages.
+     * <br><br>
+     * Every repository in the cohort is passed the same fromEntityElement and pageSize, and the results they return
+     * are combined without being cut to the page size.  Each repository must read past fromEntityElement of its own
+     * results to reach the page, so the cost of a page grows with its depth in every repository.  Callers that page
+     * through large result sets should use the continuation token version of this method instead.
      *
      * @param userId unique identifier for requesting user.
      * @param entityTypeGUID String unique identifier for the entity type of interest (null means any entity type).
@@ -1533,13 +1539,14 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl    federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl    federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         FindEntitiesExecutor executor          = new FindEntitiesExecutor(userId,
                                                                           entityTypeGUID,
                                                                           entitySubtypeGUIDs,
                                                                           skipSubtypes,
                                                                           searchProperties,
                                                                           fromEntityElement,
+                                                                          null,
                                                                           limitResultsByStatus,
                                                                           searchClassifications,
                                                                           asOfTime,
@@ -1562,6 +1569,116 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return a list of entities that match the supplied conditions.  The results can be returned over many pages
+     * using the continuation token.  The same token is passed to every repository in the cohort and the pages
+     * they return are merged in sequencing order until the page is full.
+     * <br><br>
+     * Repositories that can not seek to the token's position return their results up to the element number in the
+     * token plus the page size, and skip those at or before the position.  The element number counts the elements
+     * returned by the whole cohort, so it covers all of a repository's own elements on the earlier pages and
+     * none are lost.  The cost of a page for these repositories grows with its depth, as it does for startFrom.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID optional type guid to restrict the search.
+     * @param entitySubtypeGUIDs optional list of type GUIDs to restrict the search.
+     * @param skipSubtypes should the search skip subtypes of the entityTypeGUID.
+     * @param searchProperties Optional list of entity property conditions to match.
+     * @param continuationToken token returned with the previous page of results, or null for the first page.
+     * @param limitResultsByStatus By default, entities in all statuses (other than DELETE) are returned.
+     * @param searchClassifications Optional list of entity classifications to match.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the entity property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result entities that can be returned on this request.
+     * @return a list of entities matching the supplied criteria; null means no matching entities in the metadata
+     * collection.
+     * @throws InvalidParameterException a parameter is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  entity.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support this optional method.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> findEntities(String                userId,
+                                           String                entityTypeGUID,
+                                           List<String>          entitySubtypeGUIDs,
+                                           boolean               skipSubtypes,
+                                           SearchProperties      searchProperties,
+                                           String                continuationToken,
+                                           List<InstanceStatus>  limitResultsByStatus,
+                                           SearchClassifications searchClassifications,
+                                           Date                  asOfTime,
+                                           String                sequencingProperty,
+                                           SequencingOrder       sequencingOrder,
+                                           int                   pageSize) throws InvalidParameterException,
+                                                                                  RepositoryErrorException,
+                                                                                  TypeErrorException,
+                                                                                  PropertyErrorException,
+                                                                                  PagingErrorException,
+                                                                                  FunctionNotSupportedException,
+                                                                                  UserNotAuthorizedException
+    {
+        final String  methodName = "findEntities";
+        final String  tokenParameterName = "continuationToken";
+
+        ContinuationToken token = ContinuationToken.getContinuationToken(continuationToken, tokenParameterName, methodName);
+
+        /*
+         * Validate parameters
+         */
+        super.findEntitiesParameterValidation(userId,
+                                              entityTypeGUID,
+                                              entitySubtypeGUIDs,
+                                              searchProperties,
+                                              token == null ? 0 : token.getNextElement(),
+                                              limitResultsByStatus,
+                                              searchClassifications,
+                                              asOfTime,
+                                              sequencingProperty,
+                                              sequencingOrder,
+                                              pageSize);
+
+        /*
+         * Validation complete, ok to continue with request
+         */
+        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+
+        FederationControl    federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
+        FindEntitiesExecutor executor          = new FindEntitiesExecutor(userId,
+                                                                          entityTypeGUID,
+                                                                          entitySubtypeGUIDs,
+                                                                          skipSubtypes,
+                                                                          searchProperties,
+                                                                          0,
+                                                                          continuationToken,
+                                                                          limitResultsByStatus,
+                                                                          searchClassifications,
+                                                                          asOfTime,
+                                                                          sequencingProperty,
+                                                                          sequencingOrder,
+                                                                          pageSize,
+                                                                          localMetadataCollectionId,
+                                                                          auditLog,
+                                                                          repositoryValidator,
+                                                                          methodName);
+
+        federationControl.executeCommand(executor);
+
+        /*
+         * Each repository returns up to a page of results after the token's position.  Merging them in
+         * sequencing order and stopping when the page is full gives the same page as a single repository
+         * holding all the instances.
+         */
+        return executor.getPagedResults(enterpriseParentConnector, repositoryHelper);
+    }
+
+
     /**
      * Return a count of the entities that match the supplied criteria.  This has the same search semantics as
      * findEntities(), fanning the request out to every repository in the cohort and summing the counts returned.
@@ -1643,7 +1760,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl     federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl     federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         CountEntitiesExecutor executor          = new CountEntitiesExecutor(userId,
                                                                              entityTypeGUID,
                                                                              entitySubtypeGUIDs,
@@ -1754,7 +1871,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                    federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                    federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         FindEntitiesByClassificationExecutor executor          = new FindEntitiesByClassificationExecutor(userId,
                                                                                                           entityTypeGUID,
                                                                                                           classificationName,
@@ -1868,7 +1985,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         FindEntitiesByPropertyValueExecutor executor          = new FindEntitiesByPropertyValueExecutor(userId,
                                                                                                         entityTypeGUID,
                                                                                                         searchString,
@@ -1931,7 +2048,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetRelationshipExecutor executor          = new GetRelationshipExecutor(userId, guid, auditLog, methodName);
 
         /*
@@ -1980,7 +2097,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetRelationshipExecutor executor          = new GetRelationshipExecutor(userId, guid, auditLog, methodName);
 
         /*
@@ -2033,7 +2150,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetRelationshipExecutor executor          = new GetRelationshipExecutor(userId, guid, asOfTime, auditLog, methodName);
 
         /*
@@ -2097,7 +2214,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         GetRelationshipHistoryExecutor executor          = new GetRelationshipHistoryExecutor(userId,
                                                                                               guid,
                                                                                               fromTime,
@@ -2124,6 +2241,11 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
     /**
      * Return a list of relationships that match the requested conditions.  The results can be received as a series of
      * pages.
+     * <br><br>
+     * Every repository in the cohort is passed the same fromRelationshipElement and pageSize, and the results they
+     * return are combined without being cut to the page size.  Each repository must read past fromRelationshipElement
+     * of its own results to reach the page, so the cost of a page grows with its depth in every repository.  Callers
+     * that page through large result sets should use the continuation token version of this method instead.
      *
      * @param userId unique identifier for requesting user.
      * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types
@@ -2212,7 +2334,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl         federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl         federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         FindRelationshipsExecutor executor          = new FindRelationshipsExecutor(userId,
                                                                                     relationshipTypeGUID,
                                                                                     relationshipSubtypeGUIDs,
@@ -2222,6 +2344,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                     endMatchCriteria,
                                                                                     matchProperties,
                                                                                     fromRelationshipElement,
+                                                                                    null,
                                                                                     limitResultsByStatus,
                                                                                     asOfTime,
                                                                                     sequencingProperty,
@@ -2243,6 +2366,124 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return a list of relationships that match the requested conditions.  The results can be returned over many
+     * pages using the continuation token.  The same token is passed to every repository in the cohort and the
+     * pages they return are merged in sequencing order until the page is full.
+     * <br><br>
+     * Repositories that can not seek to the token's position return their results up to the element number in the
+     * token plus the page size, and skip those at or before the position.  The element number counts the elements
+     * returned by the whole cohort, so it covers all of a repository's own elements on the earlier pages and
+     * none are lost.  The cost of a page for these repositories grows with its depth, as it does for startFrom.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types
+     *                             (but may be slow so not recommended).
+     * @param relationshipSubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the
+     *                                 relationshipTypeGUID to include in the search results.
+     * @param skipSubtypes should the search skip subtypes of the relationshipTypeGUID.
+     * @param end1EntityGUIDs optional list of the entities at end 1 of the relationship.
+     * @param end2EntityGUIDs optional list of the entities at end 2 of the relationship.
+     * @param endMatchCriteria how the end entities are matched.
+     * @param matchProperties Optional list of relationship property conditions to match.
+     * @param continuationToken token returned with the previous page of results, or null for the first page.
+     * @param limitResultsByStatus By default, relationships in all statuses (other than DELETE) are returned.
+     * @param asOfTime Requests a historical query of the relationships for the entity.  Null means return the
+     *                 present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.
+     * @return a list of relationships.  Null means no matching relationships.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  relationships.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support one of the provided parameters.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public  List<Relationship> findRelationships(String               userId,
+                                                 String               relationshipTypeGUID,
+                                                 List<String>         relationshipSubtypeGUIDs,
+                                                 boolean              skipSubtypes,
+                                                 List<String>         end1EntityGUIDs,
+                                                 List<String>         end2EntityGUIDs,
+                                                 EndMatchCriteria     endMatchCriteria,
+                                                 SearchProperties     matchProperties,
+                                                 String               continuationToken,
+                                                 List<InstanceStatus> limitResultsByStatus,
+                                                 Date                 asOfTime,
+                                                 String               sequencingProperty,
+                                                 SequencingOrder      sequencingOrder,
+                                                 int                  pageSize) throws InvalidParameterException,
+                                                                                       TypeErrorException,
+                                                                                       RepositoryErrorException,
+                                                                                       PropertyErrorException,
+                                                                                       PagingErrorException,
+                                                                                       FunctionNotSupportedException,
+                                                                                       UserNotAuthorizedException
+    {
+        final String  methodName = "findRelationships";
+        final String  tokenParameterName = "continuationToken";
+
+        ContinuationToken token = ContinuationToken.getContinuationToken(continuationToken, tokenParameterName, methodName);
+
+        /*
+         * Validate parameters
+         */
+        super.findRelationshipsParameterValidation(userId,
+                                                   relationshipTypeGUID,
+                                                   relationshipSubtypeGUIDs,
+                                                   end1EntityGUIDs,
+                                                   end2EntityGUIDs,
+                                                   endMatchCriteria,
+                                                   matchProperties,
+                                                   token == null ? 0 : token.getNextElement(),
+                                                   limitResultsByStatus,
+                                                   asOfTime,
+                                                   sequencingProperty,
+                                                   sequencingOrder,
+                                                   pageSize);
+
+        /*
+         * Validation complete, ok to continue with request
+         */
+        List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
+
+        FederationControl         federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
+        FindRelationshipsExecutor executor          = new FindRelationshipsExecutor(userId,
+                                                                                    relationshipTypeGUID,
+                                                                                    relationshipSubtypeGUIDs,
+                                                                                    skipSubtypes,
+                                                                                    end1EntityGUIDs,
+                                                                                    end2EntityGUIDs,
+                                                                                    endMatchCriteria,
+                                                                                    matchProperties,
+                                                                                    0,
+                                                                                    continuationToken,
+                                                                                    limitResultsByStatus,
+                                                                                    asOfTime,
+                                                                                    sequencingProperty,
+                                                                                    sequencingOrder,
+                                                                                    pageSize,
+                                                                                    localMetadataCollectionId,
+                                                                                    auditLog,
+                                                                                    repositoryValidator,
+                                                                                    methodName);
+
+        federationControl.executeCommand(executor);
+
+        /*
+         * Merge the pages returned by each repository in sequencing order until the page is full.
+         */
+        return executor.getPagedResults(enterpriseParentConnector, repositoryHelper);
+    }
+
+
     /**
      * Return a count of the relationships that match the requested conditions.  This has the same search semantics
      * as findRelationships(), fanning the request out to every repository in the cohort and summing the counts
@@ -2333,7 +2574,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl          federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl          federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         CountRelationshipsExecutor executor          = new CountRelationshipsExecutor(userId,
                                                                                        relationshipTypeGUID,
                                                                                        relationshipSubtypeGUIDs,
@@ -2440,7 +2681,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         FindRelationshipsByPropertyExecutor executor          = new FindRelationshipsByPropertyExecutor(userId,
                                                                                                         relationshipTypeGUID,
                                                                                                         matchProperties,
@@ -2550,7 +2791,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                        federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                        federationControl = new ParallelFederationControl(userId, cohortConnectors, enterpriseParentConnector.getFederationThreadPool(), auditLog, methodName);
         FindRelationshipsByPropertyValueExecutor executor          = new FindRelationshipsByPropertyValueExecutor(userId,
                                                                                                                   relationshipTypeGUID,
                                                                                                                   searchString,
@@ -14,6 +14,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorConsumer;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationThreadPool;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeException;
@@ -440,6 +441,23 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     }
 
 
+    /**
+     * Return the worker threads used to call the repositories in the cohort in parallel.  The pool is shared by
+     * all the enterprise connectors in the server.
+     *
+     * @return thread pool or null to call the repositories one after another
+     */
+    FederationThreadPool getFederationThreadPool()
+    {
+        if (connectorManager != null)
+        {
+            return connectorManager.getFederationThreadPool();
+        }
+
+        return null;
+    }
+
+
     /**
      * Returns the list of repository connectors that the EnterpriseOMRSRepositoryConnector is federating queries across.
      *
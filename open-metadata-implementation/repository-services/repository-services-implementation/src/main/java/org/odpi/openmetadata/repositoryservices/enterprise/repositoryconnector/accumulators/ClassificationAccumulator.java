@@ -77,7 +77,7 @@ public abstract class ClassificationAccumulator extends MaintenanceAccumulator
      */
     public synchronized List<String> getContributingMetadataCollections()
     {
-        return contributingMetadataCollections;
+        return new ArrayList<>(contributingMetadataCollections);
     }
 
 
@@ -94,7 +94,7 @@ public abstract class ClassificationAccumulator extends MaintenanceAccumulator
      *
      * @param retrievedClassifications classifications from a repository
      */
-    public void saveClassifications(List<Classification> retrievedClassifications)
+    public synchronized void saveClassifications(List<Classification> retrievedClassifications)
     {
         if (retrievedClassifications != null)
         {
@@ -124,7 +124,7 @@ public abstract class ClassificationAccumulator extends MaintenanceAccumulator
      * @param returnDeletedClassifications should classifications in deleted status be returned?
      * @return null or list of classifications
      */
-    List<Classification> getClassifications(boolean returnDeletedClassifications)
+    synchronized List<Classification> getClassifications(boolean returnDeletedClassifications)
     {
         if (allClassifications.isEmpty())
         {
@@ -111,7 +111,7 @@ public class ClassificationHistoryAccumulator extends QueryInstanceAccumulatorBa
      * @param returnDeletedClassifications should classifications in deleted status be returned?
      * @return null or list of classifications
      */
-    List<Classification> getClassifications(boolean returnDeletedClassifications)
+    synchronized List<Classification> getClassifications(boolean returnDeletedClassifications)
     {
         if (accumulatedClassifications.isEmpty())
         {
@@ -4,9 +4,12 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
 
@@ -36,6 +39,12 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
     private final Map<String, List<Classification>> accumulatedClassifications = new HashMap<>();
     private final Map<String, List<String>>         accumulatedEntitySources   = new HashMap<>();
 
+    /*
+     * The page returned by each repository, in the order the repository returned it.  These are merged by
+     * getResults() when the caller is paging with a continuation token.
+     */
+    private final List<List<EntityDetail>>          accumulatedPages           = new ArrayList<>();
+
 
     /**
      * Construct an entity accumulator.  Its base class manages the common variables needed to
@@ -119,11 +128,20 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
     {
         if (entities != null)
         {
+            List<EntityDetail> repositoryPage = new ArrayList<>();
+
             for (EntityDetail entity : entities)
             {
                 this.addEntity(entity, metadataCollectionId);
+
+                if ((entity != null) && (entity.getGUID() != null))
+                {
+                    repositoryPage.add(entity);
+                }
             }
 
+            accumulatedPages.add(repositoryPage);
+
             /*
              * Record that this repository has returned results from the request.
              */
@@ -221,9 +239,16 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
      * @param entityGUID unique identifier for entity of interest
      * @return null or list of metadata collection ids
      */
-    public List<String> getContributingMetadataCollections(String entityGUID)
+    public synchronized List<String> getContributingMetadataCollections(String entityGUID)
     {
-        return accumulatedEntitySources.get(entityGUID);
+        List<String> entitySources = accumulatedEntitySources.get(entityGUID);
+
+        if (entitySources != null)
+        {
+            return new ArrayList<>(entitySources);
+        }
+
+        return null;
     }
 
 
@@ -232,7 +257,7 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
      *
      * @return null or list of GUIDs
      */
-    public List<String> getResultsForAugmentation()
+    public synchronized List<String> getResultsForAugmentation()
     {
         if (! accumulatedEntities.isEmpty())
         {
@@ -271,11 +296,7 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
                 {
                     if (accumulatedEntity != null)
                     {
-                        EntityDetail resultEntity = new EntityDetail(accumulatedEntity);
-
-                        resultEntity.setClassifications(accumulatedClassifications.get(accumulatedEntity.getGUID()));
-
-                        results.add(resultEntity);
+                        results.add(this.getResultEntity(accumulatedEntity));
                     }
                 }
             }
@@ -292,6 +313,76 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
     }
 
 
+    /**
+     * Extract a page of results for a request that is paged with a continuation token.  The pages returned by
+     * each repository are merged in continuation order, removing duplicates, until the page is full.  Each
+     * repository returns at most a page of results, so only the entities that make it onto the page are copied.
+     * It should be called once all the executors have completed processing their request(s).
+     *
+     * @param repositoryConnector enterprise connector
+     * @param repositoryHelper helper providing the continuation order
+     * @param continuationToken decoded token or null for the first page
+     * @param sequencingProperty name of the property that the results are sequenced on
+     * @param sequencingOrder requested sequencing order
+     * @param pageSize maximum number of results - zero means unrestricted
+     * @return list of entities or null
+     */
+    public synchronized List<EntityDetail> getResults(EnterpriseOMRSRepositoryConnector repositoryConnector,
+                                                      OMRSRepositoryHelper              repositoryHelper,
+                                                      ContinuationToken                 continuationToken,
+                                                      String                            sequencingProperty,
+                                                      SequencingOrder                   sequencingOrder,
+                                                      int                               pageSize)
+    {
+        if (accumulatedEntities.isEmpty())
+        {
+            return null;
+        }
+
+        this.makeRefreshRecommendations(repositoryConnector);
+
+        List<EntityDetail> results = new ArrayList<>();
+
+        for (String entityGUID : super.mergeRepositoryPages(accumulatedPages,
+                                                            repositoryHelper,
+                                                            continuationToken,
+                                                            sequencingProperty,
+                                                            sequencingOrder,
+                                                            pageSize))
+        {
+            EntityDetail accumulatedEntity = accumulatedEntities.get(entityGUID);
+
+            if (accumulatedEntity != null)
+            {
+                results.add(this.getResultEntity(accumulatedEntity));
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Return a copy of the best version of an entity with the best of the classifications from all repositories.
+     *
+     * @param accumulatedEntity saved entity
+     * @return entity to return to the caller
+     */
+    private EntityDetail getResultEntity(EntityDetail accumulatedEntity)
+    {
+        EntityDetail resultEntity = new EntityDetail(accumulatedEntity);
+
+        resultEntity.setClassifications(accumulatedClassifications.get(accumulatedEntity.getGUID()));
+
+        return resultEntity;
+    }
+
+
     /**
      * Return the list of entities that where retrieved from other repositories and not stored in the local repository.
      * The local repository may use this list to send out refresh requests on the OMRS Topic.  If the rules allow, and
@@ -82,7 +82,7 @@ public class EntitySummaryAccumulator extends ClassificationAccumulator
      *
      * @return null or list of GUIDs
      */
-    public List<String> getResultsForAugmentation()
+    public synchronized List<String> getResultsForAugmentation()
     {
         if (currentSavedEntity != null)
         {
@@ -102,7 +102,7 @@ public class EntitySummaryAccumulator extends ClassificationAccumulator
      *
      * @return list of entities
      */
-    public  EntitySummary getResult()
+    public synchronized EntitySummary getResult()
     {
         if (currentSavedEntity != null)
         {
@@ -184,7 +184,7 @@ public class MaintenanceAccumulator extends ExceptionAccumulatorBase
      *
      * @param exception  exception from remote call
      */
-    public void captureException(TypeDefConflictException exception)
+    public synchronized void captureException(TypeDefConflictException exception)
     {
         typeDefConflictException = exception;
     }
@@ -195,7 +195,7 @@ public class MaintenanceAccumulator extends ExceptionAccumulatorBase
      *
      * @param exception  exception from remote call
      */
-    public void captureException(TypeDefNotSupportedException exception)
+    public synchronized void captureException(TypeDefNotSupportedException exception)
     {
         typeDefNotSupportedException = exception;
     }
@@ -206,7 +206,7 @@ public class MaintenanceAccumulator extends ExceptionAccumulatorBase
      *
      * @param exception  exception from remote call
      */
-    public void captureException(TypeDefNotKnownException exception)
+    public synchronized void captureException(TypeDefNotKnownException exception)
     {
         typeDefNotKnownException = exception;
     }
@@ -217,7 +217,7 @@ public class MaintenanceAccumulator extends ExceptionAccumulatorBase
      *
      * @param exception  exception from remote call
      */
-    public void captureException(TypeErrorException exception)
+    public synchronized void captureException(TypeErrorException exception)
     {
         typeErrorException = exception;
     }
@@ -228,7 +228,7 @@ public class MaintenanceAccumulator extends ExceptionAccumulatorBase
      *
      * @param exception  exception from remote call
      */
-    public void captureException(UserNotAuthorizedException exception)
+    public synchronized void captureException(UserNotAuthorizedException exception)
     {
         userNotAuthorizedException = exception;
     }
@@ -4,10 +4,18 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
 
 /**
  * QueryAccumulatorBase acts as a base class to the accumulators that need to visit each repository and
@@ -38,7 +46,7 @@ public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
      *
      * @param locallyStoredInstancesGUID guid of an instance that is best of breed and stored locally
      */
-    void captureLocalInstance(String   locallyStoredInstancesGUID)
+    synchronized void captureLocalInstance(String   locallyStoredInstancesGUID)
     {
         this.locallyStoredInstancesGUIDs.add(locallyStoredInstancesGUID);
     }
@@ -50,8 +58,122 @@ public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
      * @param instanceGUID unique identifier (guid) of instance
      * @return boolean true if entity is NOT stored in local repository
      */
-    boolean notLocal(String   instanceGUID)
+    synchronized boolean notLocal(String   instanceGUID)
     {
         return ! (locallyStoredInstancesGUIDs.contains(instanceGUID));
     }
+
+
+    /**
+     * Merge the pages returned by each repository into a single page in continuation order.  Each repository's
+     * page is already (or nearly) in order, so the pages are merged by repeatedly taking the lowest of the
+     * instances at the head of each page.  Instances returned by more than one repository are only included once.
+     * The merge stops as soon as the page is full.
+     * <br><br>
+     * Each repository returns its first pageSize instances after the token's position - repositories that can
+     * seek start at the position and the others skip the instances at or before it (see
+     * OMRSMetadataCollection.findEntities()).  A repository that returns a full page therefore has no instance
+     * missing from its page that sorts before its last instance, and the merged page, which holds the first
+     * pageSize distinct instances, can not reach past that last instance.  This is why the merged page is the same
+     * as the page from a single repository holding all the instances, and nothing is lost between pages.
+     * Instances at or before the position are still skipped here in case a repository returns them.
+     *
+     * @param repositoryPages list of pages - one for each repository that returned results
+     * @param repositoryHelper helper providing the continuation order
+     * @param continuationToken decoded token or null for the first page
+     * @param sequencingProperty name of the property that the results are sequenced on
+     * @param sequencingOrder requested sequencing order
+     * @param pageSize maximum number of results - zero means unrestricted
+     * @return ordered list of the guids of the instances on the page
+     */
+    List<String> mergeRepositoryPages(List<? extends List<? extends InstanceHeader>> repositoryPages,
+                                      OMRSRepositoryHelper                           repositoryHelper,
+                                      ContinuationToken                              continuationToken,
+                                      String                                         sequencingProperty,
+                                      SequencingOrder                                sequencingOrder,
+                                      int                                            pageSize)
+    {
+        Comparator<InstanceHeader> comparator = repositoryHelper.getContinuationComparator(sequencingProperty, sequencingOrder);
+        PriorityQueue<PageCursor>  cursors    = new PriorityQueue<>((one, two) -> comparator.compare(one.getCurrent(), two.getCurrent()));
+
+        for (List<? extends InstanceHeader> repositoryPage : repositoryPages)
+        {
+            if (! repositoryPage.isEmpty())
+            {
+                List<InstanceHeader> sortedPage = new ArrayList<>(repositoryPage);
+
+                /*
+                 * The repository should have returned its page in this order, so the sort is a single pass.
+                 * It protects the merge from repositories that interpret the sequencing order differently.
+                 */
+                sortedPage.sort(comparator);
+                cursors.add(new PageCursor(sortedPage));
+            }
+        }
+
+        Set<String> mergedGUIDs = new LinkedHashSet<>();
+
+        while ((! cursors.isEmpty()) && ((pageSize == 0) || (mergedGUIDs.size() < pageSize)))
+        {
+            PageCursor     cursor   = cursors.poll();
+            InstanceHeader instance = cursor.getCurrent();
+
+            if (repositoryHelper.isAfterContinuationPosition(instance, continuationToken, sequencingProperty, sequencingOrder))
+            {
+                mergedGUIDs.add(instance.getGUID());
+            }
+
+            if (cursor.next())
+            {
+                cursors.add(cursor);
+            }
+        }
+
+        return new ArrayList<>(mergedGUIDs);
+    }
+
+
+    /**
+     * PageCursor records the position reached in one repository's page during a merge.
+     */
+    private static class PageCursor
+    {
+        private final List<InstanceHeader> page;
+        private       int                  position = 0;
+
+
+        /**
+         * Create a cursor positioned at the start of the page.
+         *
+         * @param page non-empty list of instances
+         */
+        PageCursor(List<InstanceHeader> page)
+        {
+            this.page = page;
+        }
+
+
+        /**
+         * Return the instance at the current position.
+         *
+         * @return instance
+         */
+        InstanceHeader getCurrent()
+        {
+            return page.get(position);
+        }
+
+
+        /**
+         * Move to the next instance.
+         *
+         * @return false if the end of the page has been reached
+         */
+        boolean next()
+        {
+            position++;
+
+            return position < page.size();
+        }
+    }
 }
@@ -3,7 +3,10 @@
 package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
 
@@ -25,6 +28,10 @@ public class RelationshipsAccumulator extends QueryInstanceAccumulatorBase
     // (see the equivalent comment in EntitiesAccumulator).
     private final Map<String, Relationship> accumulatedRelationships   = new LinkedHashMap<>();
 
+    // The page returned by each repository, in the order the repository returned it.  These are merged by
+    // getResults() when the caller is paging with a continuation token.
+    private final List<List<Relationship>>  accumulatedPages           = new ArrayList<>();
+
 
     /**
      * Construct a relationship accumulator.  Its base class manages the common variables needed to
@@ -90,11 +97,20 @@ public class RelationshipsAccumulator extends QueryInstanceAccumulatorBase
     {
         if (relationships != null)
         {
+            List<Relationship> repositoryPage = new ArrayList<>();
+
             for (Relationship relationship : relationships)
             {
                 this.addRelationship(relationship, metadataCollectionId);
+
+                if ((relationship != null) && (relationship.getGUID() != null))
+                {
+                    repositoryPage.add(relationship);
+                }
             }
 
+            accumulatedPages.add(repositoryPage);
+
             /*
              * Record that this repository has returned results from the request.
              */
@@ -132,6 +148,59 @@ public class RelationshipsAccumulator extends QueryInstanceAccumulatorBase
     }
 
 
+    /**
+     * Extract a page of results for a request that is paged with a continuation token.  The pages returned by
+     * each repository are merged in continuation order, removing duplicates, until the page is full.
+     * It should be called once all the executors have completed processing their request(s).
+     *
+     * @param repositoryConnector enterprise connector
+     * @param repositoryHelper helper providing the continuation order
+     * @param continuationToken decoded token or null for the first page
+     * @param sequencingProperty name of the property that the results are sequenced on
+     * @param sequencingOrder requested sequencing order
+     * @param pageSize maximum number of results - zero means unrestricted
+     * @return list of relationships or null
+     */
+    public synchronized List<Relationship>  getResults(EnterpriseOMRSRepositoryConnector repositoryConnector,
+                                                       OMRSRepositoryHelper              repositoryHelper,
+                                                       ContinuationToken                 continuationToken,
+                                                       String                            sequencingProperty,
+                                                       SequencingOrder                   sequencingOrder,
+                                                       int                               pageSize)
+    {
+        if (accumulatedRelationships.isEmpty())
+        {
+            return null;
+        }
+
+        this.makeRefreshRecommendations(repositoryConnector);
+
+        List<Relationship> results = new ArrayList<>();
+
+        for (String relationshipGUID : super.mergeRepositoryPages(accumulatedPages,
+                                                                  repositoryHelper,
+                                                                  continuationToken,
+                                                                  sequencingProperty,
+                                                                  sequencingOrder,
+                                                                  pageSize))
+        {
+            Relationship accumulatedRelationship = accumulatedRelationships.get(relationshipGUID);
+
+            if (accumulatedRelationship != null)
+            {
+                results.add(accumulatedRelationship);
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
     /**
      * Return the list of relationships that where retrieved from other repositories and not stored in the local repository.
      * The local repository may use this list to send out refresh requests on the OMRS Topic.  If the rules allow, and
@@ -0,0 +1,112 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FederationThreadPool provides the worker threads that the ParallelFederationControl uses to call the members
+ * of the cohort(s) at the same time.  There is one pool for each server, shared by all the enterprise connectors
+ * that the server's services use, so the number of outstanding calls to remote repositories is bounded however
+ * many requests are being processed.
+ * <br><br>
+ * When all the worker threads are busy and the queue is full, the request's own thread makes the call.  This
+ * slows the new request down rather than failing it, and means a request never waits for a worker thread that
+ * is itself waiting for the request.
+ */
+public class FederationThreadPool
+{
+    /**
+     * Default number of worker threads in the pool.
+     */
+    public static final int  DEFAULT_MAXIMUM_THREADS    = 32;
+
+    /**
+     * Default time in milliseconds that a federated request waits for a repository to respond.
+     */
+    public static final long DEFAULT_REPOSITORY_TIMEOUT = 60000L;
+
+    private static final int  QUEUED_REQUESTS_PER_THREAD = 4;
+    private static final long IDLE_THREAD_TIMEOUT        = 60L;
+    private static final String THREAD_NAME_PREFIX       = "EnterpriseRepositoryFederation-";
+
+    private final ThreadPoolExecutor threadPool;
+    private final long               repositoryTimeout;
+
+
+    /**
+     * Create a thread pool with the default settings.
+     */
+    public FederationThreadPool()
+    {
+        this(DEFAULT_MAXIMUM_THREADS, DEFAULT_REPOSITORY_TIMEOUT);
+    }
+
+
+    /**
+     * Create a thread pool.
+     *
+     * @param maximumThreads maximum number of worker threads
+     * @param repositoryTimeout time in milliseconds that a federated request waits for a repository to respond
+     */
+    public FederationThreadPool(int  maximumThreads,
+                                long repositoryTimeout)
+    {
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+
+        this.repositoryTimeout = repositoryTimeout;
+        this.threadPool        = new ThreadPoolExecutor(maximumThreads,
+                                                        maximumThreads,
+                                                        IDLE_THREAD_TIMEOUT,
+                                                        TimeUnit.SECONDS,
+                                                        new ArrayBlockingQueue<>(maximumThreads * QUEUED_REQUESTS_PER_THREAD),
+                                                        runnable ->
+                                                        {
+                                                            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadNumber.incrementAndGet());
+
+                                                            thread.setDaemon(true);
+                                                            return thread;
+                                                        },
+                                                        (runnable, executor) -> runnable.run());
+
+        /*
+         * Idle servers do not hold on to threads.
+         */
+        this.threadPool.allowCoreThreadTimeOut(true);
+    }
+
+
+    /**
+     * Return the executor service that runs the calls to the repositories.
+     *
+     * @return executor service
+     */
+    ExecutorService getExecutorService()
+    {
+        return threadPool;
+    }
+
+
+    /**
+     * Return the time in milliseconds that a federated request waits for a repository to respond.
+     *
+     * @return milliseconds
+     */
+    long getRepositoryTimeout()
+    {
+        return repositoryTimeout;
+    }
+
+
+    /**
+     * Stop the worker threads.  Any calls still in progress are interrupted.
+     */
+    public void shutdown()
+    {
+        threadPool.shutdownNow();
+    }
+}
@@ -3,36 +3,55 @@
 package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.CloneableRepositoryExecutor;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.RepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ParallelFederationControl uses multiple worker threads to perform the calls to different systems in parallel.
+ * The request completes when every repository has responded, when one of the repositories returns the
+ * complete result (for example, the relationship that was asked for) or when the repository timeout expires -
+ * whichever comes first.  Requests to repositories that are still outstanding at this point are cancelled.
+ * <br><br>
+ * Executors that are cloneable have a clone created for each repository.  Other executors are shared between
+ * the worker threads and must be thread-safe.  Either way, the results are gathered by the executor's
+ * accumulator, which is synchronized.
  */
 public class ParallelFederationControl extends FederationControlBase
 {
-    // todo at this point the parallel federation control uses the sequential federation control since the worker threads are not implemented.
-    private final SequentialFederationControl sequentialFederationControl;
+    private final FederationThreadPool threadPool;
+
 
     /**
      * Constructor for a federated query
      *
      * @param userId calling user
      * @param cohortConnectors list of connectors to call
+     * @param threadPool worker threads for the server - null means call the repositories one after another
      * @param auditLog logging destination
      * @param methodName calling method
      */
     public ParallelFederationControl(String                        userId,
                                      List<OMRSRepositoryConnector> cohortConnectors,
+                                     FederationThreadPool          threadPool,
                                      AuditLog                      auditLog,
                                      String                        methodName)
     {
         super(userId, cohortConnectors, auditLog, methodName);
 
-        sequentialFederationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        this.threadPool = threadPool;
     }
 
 
@@ -45,6 +64,167 @@ public class ParallelFederationControl extends FederationControlBase
      */
     public void executeCommand(RepositoryExecutor executor) throws RepositoryErrorException
     {
-        sequentialFederationControl.executeCommand(executor);
+        if (threadPool == null)
+        {
+            SequentialFederationControl sequentialFederationControl = new SequentialFederationControl(userId,
+                                                                                                      cohortConnectors,
+                                                                                                      auditLog,
+                                                                                                      methodName);
+            sequentialFederationControl.executeCommand(executor);
+            return;
+        }
+
+        if (super.cohortConnectors != null)
+        {
+            /*
+             * This is the first sweep of the repositories - used to gather the results.
+             */
+            CompletionService<Boolean>  completionService  = new ExecutorCompletionService<>(threadPool.getExecutorService());
+            Map<Future<Boolean>, String> outstandingRequests = new HashMap<>();
+
+            for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+            {
+                if (cohortConnector != null)
+                {
+                    OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+
+                    String metadataCollectionId = this.validateMetadataCollection(cohortConnector, metadataCollection, methodName);
+
+                    if (metadataCollectionId != null)
+                    {
+                        RepositoryExecutor repositoryExecutor = executor;
+
+                        if (executor instanceof CloneableRepositoryExecutor)
+                        {
+                            repositoryExecutor = (RepositoryExecutor) ((CloneableRepositoryExecutor) executor).getClone();
+                        }
+
+                        final RepositoryExecutor requestExecutor = repositoryExecutor;
+
+                        outstandingRequests.put(completionService.submit(() -> requestExecutor.issueRequestToRepository(metadataCollectionId,
+                                                                                                                         metadataCollection)),
+                                                cohortConnector.getRepositoryName());
+                    }
+                }
+            }
+
+            /*
+             * The executor returns true if it has all the results it needs.  There is then no need to wait for
+             * the other repositories.
+             */
+            this.waitForRequests(completionService, outstandingRequests, true);
+
+            /*
+             * All repositories have been called.
+             * The executor may choose to augment each result element by making another sweep of the repositories.
+             * Each repository is called in its own thread and works through all the results.
+             */
+            List<String> resultGUIDs = executor.getResultsForAugmentation();
+
+            if (resultGUIDs != null)
+            {
+                CompletionService<Boolean> augmentationService = new ExecutorCompletionService<>(threadPool.getExecutorService());
+
+                for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+                {
+                    if (cohortConnector != null)
+                    {
+                        OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+
+                        String metadataCollectionId = this.validateMetadataCollection(cohortConnector, metadataCollection, methodName);
+
+                        if (metadataCollectionId != null)
+                        {
+                            outstandingRequests.put(augmentationService.submit(() ->
+                                                                               {
+                                                                                   for (String resultGUID : resultGUIDs)
+                                                                                   {
+                                                                                       executor.augmentResultFromRepository(resultGUID,
+                                                                                                                            metadataCollectionId,
+                                                                                                                            metadataCollection);
+                                                                                   }
+
+                                                                                   return false;
+                                                                               }),
+                                                    cohortConnector.getRepositoryName());
+                        }
+                    }
+                }
+
+                this.waitForRequests(augmentationService, outstandingRequests, false);
+            }
+        }
+    }
+
+
+    /**
+     * Wait for the outstanding requests to complete.  Any requests still running when the repository timeout
+     * expires, or when a request reports that the executor has all the results it needs, are cancelled.
+     *
+     * @param completionService service that returns the requests as they complete
+     * @param outstandingRequests requests that have been submitted, mapped to the name of the repository called
+     * @param stopOnCompleteResult should the remaining requests be cancelled when one returns true
+     */
+    private void waitForRequests(CompletionService<Boolean>    completionService,
+                                 Map<Future<Boolean>, String>  outstandingRequests,
+                                 boolean                       stopOnCompleteResult)
+    {
+        long deadline = System.currentTimeMillis() + threadPool.getRepositoryTimeout();
+
+        try
+        {
+            while (! outstandingRequests.isEmpty())
+            {
+                Future<Boolean> completedRequest = completionService.poll(deadline - System.currentTimeMillis(),
+                                                                          TimeUnit.MILLISECONDS);
+
+                if (completedRequest == null)
+                {
+                    /*
+                     * The timeout has expired.
+                     */
+                    for (String repositoryName : outstandingRequests.values())
+                    {
+                        auditLog.logMessage(methodName,
+                                            OMRSAuditCode.FEDERATED_REQUEST_TIMED_OUT.getMessageDefinition(repositoryName,
+                                                                                                          methodName,
+                                                                                                          Long.toString(threadPool.getRepositoryTimeout())));
+                    }
+
+                    break;
+                }
+
+                String repositoryName = outstandingRequests.remove(completedRequest);
+
+                try
+                {
+                    if ((stopOnCompleteResult) && (Boolean.TRUE.equals(completedRequest.get())))
+                    {
+                        break;
+                    }
+                }
+                catch (ExecutionException error)
+                {
+                    Throwable cause = error.getCause();
+
+                    auditLog.logException(methodName,
+                                          OMRSAuditCode.SKIPPING_METADATA_COLLECTION.getMessageDefinition(repositoryName,
+                                                                                                          cause.getClass().getName(),
+                                                                                                          cause.getMessage()),
+                                          cause);
+                }
+            }
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        for (Future<Boolean> outstandingRequest : outstandingRequests.keySet())
+        {
+            outstandingRequest.cancel(true);
+        }
+
+        outstandingRequests.clear();
     }
 }
@@ -5,13 +5,16 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.EntitiesAccumulator;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
@@ -28,6 +31,7 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
     private final SearchClassifications matchClassifications;
     private final List<String>          instanceSubtypeGUIDs;
     private final boolean               skipSubtypes;
+    private final String                continuationToken;
 
     /**
      * Create the executor.  The parameters provide the parameters for issuing the requests and
@@ -43,6 +47,8 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
      * @param fromEntityElement the starting element number of the entities to return.
      *                                This is used when retrieving elements
      *                                beyond the first page of results. Zero means start from the first element.
+     * @param continuationToken token returned with the previous page of results.  If not null, it is passed to each
+     *                          repository in place of fromEntityElement.
      * @param limitResultsByStatus By default, entities in all statuses are returned.  However, it is possible
      *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
      *                             status values.
@@ -64,6 +70,7 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
                                 boolean                 skipSubtypes,
                                 SearchProperties        matchProperties,
                                 int                     fromEntityElement,
+                                String                  continuationToken,
                                 List<InstanceStatus>    limitResultsByStatus,
                                 SearchClassifications   matchClassifications,
                                 Date                    asOfTime,
@@ -81,6 +88,7 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
              skipSubtypes,
              matchProperties,
              fromEntityElement,
+             continuationToken,
              limitResultsByStatus,
              matchClassifications,
              asOfTime,
@@ -106,6 +114,8 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
      * @param fromEntityElement the starting element number of the entities to return.
      *                                This is used when retrieving elements
      *                                beyond the first page of results. Zero means start from the first element.
+     * @param continuationToken token returned with the previous page of results.  If not null, it is passed to each
+     *                          repository in place of fromEntityElement.
      * @param limitResultsByStatus By default, entities in all statuses are returned.  However, it is possible
      *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
      *                             status values.
@@ -125,6 +135,7 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
                                  boolean               skipSubtypes,
                                  SearchProperties      matchProperties,
                                  int                   fromEntityElement,
+                                 String                continuationToken,
                                  List<InstanceStatus>  limitResultsByStatus,
                                  SearchClassifications matchClassifications,
                                  Date                  asOfTime,
@@ -149,6 +160,7 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
         this.matchClassifications = matchClassifications;
         this.instanceSubtypeGUIDs = entitySubtypeGUIDs;
         this.skipSubtypes = skipSubtypes;
+        this.continuationToken = continuationToken;
         this.accumulator = accumulator;
 
     }
@@ -169,6 +181,7 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
                                         skipSubtypes,
                                         matchProperties,
                                         startingElement,
+                                        continuationToken,
                                         limitResultsByStatus,
                                         matchClassifications,
                                         asOfTime,
@@ -193,20 +206,43 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
         try
         {
             /*
-             * Issue the request
+             * Issue the request.  Every repository is passed the same continuation token since the token
+             * records a position in the sequencing order rather than in any one repository's results.  A
+             * repository that can not seek uses the element number in the token as an upper bound on the number
+             * of its own results that come before the position (see OMRSMetadataCollection).
              */
-            List<EntityDetail> results = metadataCollection.findEntities(userId,
-                                                                         instanceTypeGUID,
-                                                                         instanceSubtypeGUIDs,
-                                                                         skipSubtypes,
-                                                                         matchProperties,
-                                                                         startingElement,
-                                                                         limitResultsByStatus,
-                                                                         matchClassifications,
-                                                                         asOfTime,
-                                                                         sequencingProperty,
-                                                                         sequencingOrder,
-                                                                         pageSize);
+            List<EntityDetail> results;
+
+            if (continuationToken == null)
+            {
+                results = metadataCollection.findEntities(userId,
+                                                          instanceTypeGUID,
+                                                          instanceSubtypeGUIDs,
+                                                          skipSubtypes,
+                                                          matchProperties,
+                                                          startingElement,
+                                                          limitResultsByStatus,
+                                                          matchClassifications,
+                                                          asOfTime,
+                                                          sequencingProperty,
+                                                          sequencingOrder,
+                                                          pageSize);
+            }
+            else
+            {
+                results = metadataCollection.findEntities(userId,
+                                                          instanceTypeGUID,
+                                                          instanceSubtypeGUIDs,
+                                                          skipSubtypes,
+                                                          matchProperties,
+                                                          continuationToken,
+                                                          limitResultsByStatus,
+                                                          matchClassifications,
+                                                          asOfTime,
+                                                          sequencingProperty,
+                                                          sequencingOrder,
+                                                          pageSize);
+            }
 
             accumulator.addEntities(results, metadataCollectionId);
         }
@@ -245,4 +281,46 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
 
         return false;
     }
+
+    /**
+     * Return a page of the combined results for a request that is paged with a continuation token.  The pages
+     * returned by each repository are merged in continuation order until the page is full.
+     *
+     * @param repositoryConnector enterprise connector
+     * @param repositoryHelper helper providing the continuation order
+     * @return a list of entities.  Null means no more matching entities.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  entity.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support the asOfTime parameter.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<EntityDetail>  getPagedResults(EnterpriseOMRSRepositoryConnector repositoryConnector,
+                                     OMRSRepositoryHelper              repositoryHelper) throws InvalidParameterException,
+                                                                                                TypeErrorException,
+                                                                                                RepositoryErrorException,
+                                                                                                PropertyErrorException,
+                                                                                                PagingErrorException,
+                                                                                                FunctionNotSupportedException,
+                                                                                                UserNotAuthorizedException
+    {
+        if (accumulator.resultsReturned())
+        {
+            return accumulator.getResults(repositoryConnector,
+                                          repositoryHelper,
+                                          ContinuationToken.getContinuationToken(continuationToken, "continuationToken", methodName),
+                                          sequencingProperty,
+                                          sequencingOrder,
+                                          pageSize);
+        }
+
+        handleCommonPagingRequestExceptions();
+
+        return null;
+    }
 }
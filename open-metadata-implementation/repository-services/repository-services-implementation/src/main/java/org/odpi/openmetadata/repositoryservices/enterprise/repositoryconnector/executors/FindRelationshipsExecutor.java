@@ -5,12 +5,14 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.EndMatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.RelationshipsAccumulator;
@@ -32,6 +34,7 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
     private final List<String>     end1EntityGUIDs;
     private final List<String>     end2EntityGUIDs;
     private final EndMatchCriteria endMatchCriteria;
+    private final String           continuationToken;
     private final RelationshipsAccumulator accumulator;
 
     /**
@@ -53,6 +56,8 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
      * @param fromRelationshipElement the starting element number of the entities to return.
      *                                This is used when retrieving elements
      *                                beyond the first page of results. Zero means start from the first element.
+     * @param continuationToken token returned with the previous page of results.  If not null, it is passed to each
+     *                          repository in place of fromRelationshipElement.
      * @param limitResultsByStatus By default, relationships in all statuses are returned.  However, it is possible
      *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
      *                             status values.
@@ -77,6 +82,7 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
                                      EndMatchCriteria        endMatchCriteria,
                                      SearchProperties        matchProperties,
                                      int                     fromRelationshipElement,
+                                     String                  continuationToken,
                                      List<InstanceStatus>    limitResultsByStatus,
                                      Date                    asOfTime,
                                      String                  sequencingProperty,
@@ -96,6 +102,7 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
              endMatchCriteria,
              matchProperties,
              fromRelationshipElement,
+             continuationToken,
              limitResultsByStatus,
              asOfTime,
              sequencingProperty,
@@ -125,6 +132,8 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
      * @param fromRelationshipElement the starting element number of the entities to return.
      *                                This is used when retrieving elements
      *                                beyond the first page of results. Zero means start from the first element.
+     * @param continuationToken token returned with the previous page of results.  If not null, it is passed to each
+     *                          repository in place of fromRelationshipElement.
      * @param limitResultsByStatus By default, relationships in all statuses are returned.  However, it is possible
      *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
      *                             status values.
@@ -147,6 +156,7 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
                                       EndMatchCriteria        endMatchCriteria,
                                       SearchProperties        matchProperties,
                                       int                     fromRelationshipElement,
+                                      String                  continuationToken,
                                       List<InstanceStatus>    limitResultsByStatus,
                                       Date                    asOfTime,
                                       String                  sequencingProperty,
@@ -172,6 +182,7 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
         this.end1EntityGUIDs = end1EntityGUIDs;
         this.end2EntityGUIDs = end2EntityGUIDs;
         this.endMatchCriteria = endMatchCriteria;
+        this.continuationToken = continuationToken;
 
         this.accumulator = accumulator;
     }
@@ -195,6 +206,7 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
                                              endMatchCriteria,
                                              matchProperties,
                                              startingElement,
+                                             continuationToken,
                                              limitResultsByStatus,
                                              asOfTime,
                                              sequencingProperty,
@@ -218,22 +230,47 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
         try
         {
             /*
-             * Issue the request
+             * Issue the request.  Every repository is passed the same continuation token since the token
+             * records a position in the sequencing order rather than in any one repository's results.  A
+             * repository that can not seek uses the element number in the token as an upper bound on the number
+             * of its own results that come before the position (see OMRSMetadataCollection).
              */
-            List<Relationship> results = metadataCollection.findRelationships(userId,
-                                                                              instanceTypeGUID,
-                                                                              instanceSubtypeGUIDs,
-                                                                              skipSubtypes,
-                                                                              end1EntityGUIDs,
-                                                                              end2EntityGUIDs,
-                                                                              endMatchCriteria,
-                                                                              matchProperties,
-                                                                              startingElement,
-                                                                              limitResultsByStatus,
-                                                                              asOfTime,
-                                                                              sequencingProperty,
-                                                                              sequencingOrder,
-                                                                              pageSize);
+            List<Relationship> results;
+
+            if (continuationToken == null)
+            {
+                results = metadataCollection.findRelationships(userId,
+                                                               instanceTypeGUID,
+                                                               instanceSubtypeGUIDs,
+                                                               skipSubtypes,
+                                                               end1EntityGUIDs,
+                                                               end2EntityGUIDs,
+                                                               endMatchCriteria,
+                                                               matchProperties,
+                                                               startingElement,
+                                                               limitResultsByStatus,
+                                                               asOfTime,
+                                                               sequencingProperty,
+                                                               sequencingOrder,
+                                                               pageSize);
+            }
+            else
+            {
+                results = metadataCollection.findRelationships(userId,
+                                                               instanceTypeGUID,
+                                                               instanceSubtypeGUIDs,
+                                                               skipSubtypes,
+                                                               end1EntityGUIDs,
+                                                               end2EntityGUIDs,
+                                                               endMatchCriteria,
+                                                               matchProperties,
+                                                               continuationToken,
+                                                               limitResultsByStatus,
+                                                               asOfTime,
+                                                               sequencingProperty,
+                                                               sequencingOrder,
+                                                               pageSize);
+            }
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
@@ -307,4 +344,46 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
 
         return null;
     }
+
+    /**
+     * Return a page of the combined results for a request that is paged with a continuation token.  The pages
+     * returned by each repository are merged in continuation order until the page is full.
+     *
+     * @param repositoryConnector enterprise connector
+     * @param repositoryHelper helper providing the continuation order
+     * @return a list of relationships.  Null means no more matching relationships.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  relationships.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support the asOfTime parameter.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public List<Relationship>  getPagedResults(EnterpriseOMRSRepositoryConnector repositoryConnector,
+                                     OMRSRepositoryHelper              repositoryHelper) throws InvalidParameterException,
+                                                                                                TypeErrorException,
+                                                                                                RepositoryErrorException,
+                                                                                                PropertyErrorException,
+                                                                                                PagingErrorException,
+                                                                                                FunctionNotSupportedException,
+                                                                                                UserNotAuthorizedException
+    {
+        if (accumulator.resultsReturned())
+        {
+            return accumulator.getResults(repositoryConnector,
+                                          repositoryHelper,
+                                          ContinuationToken.getContinuationToken(continuationToken, "continuationToken", methodName),
+                                          sequencingProperty,
+                                          sequencingOrder,
+                                          pageSize);
+        }
+
+        handleCommonPagingRequestExceptions();
+
+        return null;
+    }
 }
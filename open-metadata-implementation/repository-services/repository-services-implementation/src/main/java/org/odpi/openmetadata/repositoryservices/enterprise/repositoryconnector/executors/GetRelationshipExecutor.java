@@ -25,7 +25,7 @@ public class GetRelationshipExecutor extends RepositoryExecutorBase
 
 
     private Date                   asOfTime              = null;
-    private Relationship           retrievedRelationship = null;
+    private volatile Relationship  retrievedRelationship = null;
 
 
 
@@ -95,16 +95,19 @@ public class GetRelationshipExecutor extends RepositoryExecutorBase
             /*
              * Issue the request and return if it succeeds
              */
+            Relationship relationship;
+
             if (asOfTime == null)
             {
-                retrievedRelationship = metadataCollection.isRelationshipKnown(userId, relationshipGUID);
+                relationship = metadataCollection.isRelationshipKnown(userId, relationshipGUID);
             }
             else
             {
-                retrievedRelationship = metadataCollection.getRelationship(userId, relationshipGUID, asOfTime);
+                relationship = metadataCollection.getRelationship(userId, relationshipGUID, asOfTime);
             }
-            if (retrievedRelationship != null)
+            if (relationship != null)
             {
+                saveRelationship(relationship);
                 result = true;
             }
         }
@@ -135,6 +138,21 @@ public class GetRelationshipExecutor extends RepositoryExecutorBase
     }
 
 
+    /**
+     * Save the retrieved relationship.  The repositories are called in parallel so the first repository
+     * to return the relationship supplies the result.
+     *
+     * @param relationship relationship from a repository
+     */
+    private synchronized void saveRelationship(Relationship relationship)
+    {
+        if (retrievedRelationship == null)
+        {
+            retrievedRelationship = relationship;
+        }
+    }
+
+
     /**
      * Returns a boolean indicating if the relationship is stored in the metadata collection.
      *
@@ -24,6 +24,10 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.eventmanagement.*;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 
@@ -32,7 +36,9 @@ import java.util.UUID;
  * entities and relationships in other repositories in the connected cohorts.
  * It uses the save exchange rule to decide which events to process and which to ignore.
  * Events that are to be processed are converted into reference copies of their respective entities and
- * relationships and stored in the local repository.
+ * relationships and stored in the local repository.  The reference copies from new, updated and refreshed
+ * instance events may be saved in batches (see LocalOMRSReferenceCopyBatcher).  Any queued copies are saved
+ * before an event of another type is processed.
  */
 public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor implements OMRSInstanceRetrievalEventProcessor
 {
@@ -40,6 +46,16 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
 
     private final static MessageFormatter messageFormatter = new MessageFormatter();
 
+    /*
+     * These are the events whose reference copies are saved in batches.
+     */
+    private final static Set<OMRSInstanceEventType> batchedEventTypes = EnumSet.of(OMRSInstanceEventType.NEW_ENTITY_EVENT,
+                                                                                   OMRSInstanceEventType.UPDATED_ENTITY_EVENT,
+                                                                                   OMRSInstanceEventType.REFRESHED_ENTITY_EVENT,
+                                                                                   OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT,
+                                                                                   OMRSInstanceEventType.UPDATED_RELATIONSHIP_EVENT,
+                                                                                   OMRSInstanceEventType.REFRESHED_RELATIONSHIP_EVENT);
+
     private final String                          localMetadataCollectionId;
     private final String                          localServerName;
     private final OMRSRepositoryConnector         localRepositoryConnector;
@@ -50,6 +66,7 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
     private final OMRSRepositoryEventProcessor    outboundRepositoryEventProcessor;
 
     private OMRSMetadataCollection          localMetadataCollection = null;
+    private LocalOMRSReferenceCopyBatcher   referenceCopyBatcher    = null;
 
     /*
      * The audit log provides a verifiable record of the open metadata archives that have been loaded into
@@ -72,6 +89,9 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
      * @param saveExchangeRule                 rule that determines which events to process.
      * @param produceRefreshEvents             flag indicating whether the local connector should respond to refresh events
      * @param outboundRepositoryEventProcessor event processor
+     * @param referenceCopyBatchSize           maximum number of reference copies saved together (1 or less saves
+     *                                         each reference copy as its event arrives)
+     * @param referenceCopyBatchDelay          maximum time (in milliseconds) that a reference copy waits to be saved
      * @param auditLog                         audit log for this component.
      */
     LocalOMRSInstanceEventProcessor(String                          localMetadataCollectionId,
@@ -82,6 +102,8 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                                     OMRSRepositoryEventExchangeRule saveExchangeRule,
                                     boolean                         produceRefreshEvents,
                                     OMRSRepositoryEventProcessor    outboundRepositoryEventProcessor,
+                                    int                             referenceCopyBatchSize,
+                                    int                             referenceCopyBatchDelay,
                                     AuditLog                        auditLog)
     {
         super(localOMRSInstanceEventProcessorName);
@@ -114,6 +136,48 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
         }
 
         this.verifyEventProcessor(methodName);
+
+        if ((referenceCopyBatchSize > 1) && (referenceCopyBatchDelay > 0))
+        {
+            this.referenceCopyBatcher = new LocalOMRSReferenceCopyBatcher(this::saveReferenceCopyBatch,
+                                                                          referenceCopyBatchSize,
+                                                                          referenceCopyBatchDelay);
+
+            if (auditLog != null)
+            {
+                auditLog.logMessage(methodName,
+                                    OMRSAuditCode.REFERENCE_COPY_BATCHING.getMessageDefinition(Integer.toString(referenceCopyBatchSize),
+                                                                                               Integer.toString(referenceCopyBatchDelay)));
+            }
+        }
+    }
+
+
+    /**
+     * Save any reference copies that are waiting to be saved in a batch.  This is called before processing
+     * an event that may depend on the reference copies, and by components that call the process methods directly
+     * before they move on to other types of event.
+     */
+    @Override
+    public void flushReferenceCopies()
+    {
+        if (referenceCopyBatcher != null)
+        {
+            referenceCopyBatcher.flush();
+        }
+    }
+
+
+    /**
+     * Save any reference copies that are waiting to be saved and stop saving reference copies in batches.
+     * This is called when the local repository is disconnecting.
+     */
+    void shutdown()
+    {
+        if (referenceCopyBatcher != null)
+        {
+            referenceCopyBatcher.shutdown();
+        }
     }
 
 
@@ -190,6 +254,11 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
 
         if ((instanceEventType != null) && (instanceEventOriginator != null))
         {
+            if (! batchedEventTypes.contains(instanceEventType))
+            {
+                this.flushReferenceCopies();
+            }
+
             switch (instanceEventType)
             {
                 case NEW_ENTITY_EVENT:
@@ -2290,6 +2359,8 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                                         String        processedEntityGUID,
                                         InstanceType  processedEntityType)
     {
+        this.flushReferenceCopies();
+
         try
         {
             if (localMetadataCollection.isEntityKnown(localRepositoryConnector.getServerUserId(),
@@ -2338,6 +2409,8 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                                               String        processedRelationshipGUID,
                                               InstanceType  processedRelationshipType)
     {
+        this.flushReferenceCopies();
+
         try
         {
             if (localMetadataCollection.isRelationshipKnown(localRepositoryConnector.getServerUserId(),
@@ -2560,8 +2633,28 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                                                                 auditLog,
                                                                 methodName);
 
-            EntityDetail storedEntity = localMetadataCollection.isEntityKnown(localRepositoryConnector.getServerUserId(),
-                                                                              entity.getGUID());
+            boolean batched = (referenceCopyBatcher != null) && (batchedEventTypes.contains(eventType));
+
+            if (! batched)
+            {
+                this.flushReferenceCopies();
+            }
+
+            /*
+             * A copy that is waiting to be saved is newer than the stored copy.
+             */
+            EntityDetail storedEntity = null;
+
+            if (batched)
+            {
+                storedEntity = referenceCopyBatcher.getQueuedEntity(entity.getGUID());
+            }
+
+            if (storedEntity == null)
+            {
+                storedEntity = localMetadataCollection.isEntityKnown(localRepositoryConnector.getServerUserId(),
+                                                                     entity.getGUID());
+            }
 
             /*
              * Verify that the incoming instance is compatible with the stored instance.
@@ -2579,7 +2672,14 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                  */
                 if ((verifyEventToSave(sourceName, entity)) || (verifyEventToLearn(sourceName, entity)))
                 {
-                    localMetadataCollection.saveEntityReferenceCopy(localRepositoryConnector.getServerUserId(), entity);
+                    if ((! batched) ||
+                        (! referenceCopyBatcher.queueEntity(new LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<>(entity,
+                                                                                                                    methodName,
+                                                                                                                    originatorServerName,
+                                                                                                                    originatorMetadataCollectionId))))
+                    {
+                        localMetadataCollection.saveEntityReferenceCopy(localRepositoryConnector.getServerUserId(), entity);
+                    }
                 }
             }
         }
@@ -2868,8 +2968,28 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                                                                 auditLog,
                                                                 methodName);
 
-            Relationship storedRelationship = localMetadataCollection.isRelationshipKnown(localRepositoryConnector.getServerUserId(),
-                                                                                          relationship.getGUID());
+            boolean batched = (referenceCopyBatcher != null) && (batchedEventTypes.contains(eventType));
+
+            if (! batched)
+            {
+                this.flushReferenceCopies();
+            }
+
+            /*
+             * A copy that is waiting to be saved is newer than the stored copy.
+             */
+            Relationship storedRelationship = null;
+
+            if (batched)
+            {
+                storedRelationship = referenceCopyBatcher.getQueuedRelationship(relationship.getGUID());
+            }
+
+            if (storedRelationship == null)
+            {
+                storedRelationship = localMetadataCollection.isRelationshipKnown(localRepositoryConnector.getServerUserId(),
+                                                                                 relationship.getGUID());
+            }
 
             /*
              * Verify that the incoming instance is compatible with the stored instance.
@@ -2886,8 +3006,15 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                  */
                 if ((verifyEventToSave(sourceName, relationship)) || (verifyEventToLearn(sourceName, relationship)))
                 {
-                    localMetadataCollection.saveRelationshipReferenceCopy(localRepositoryConnector.getServerUserId(),
-                                                                          relationship);
+                    if ((! batched) ||
+                        (! referenceCopyBatcher.queueRelationship(new LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<>(relationship,
+                                                                                                                          methodName,
+                                                                                                                          originatorServerName,
+                                                                                                                          originatorMetadataCollectionId))))
+                    {
+                        localMetadataCollection.saveRelationshipReferenceCopy(localRepositoryConnector.getServerUserId(),
+                                                                              relationship);
+                    }
                 }
             }
         }
@@ -2903,6 +3030,99 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
     }
 
 
+    /**
+     * Save a batch of validated reference copies.  The entities are saved before the relationships so that the
+     * relationships can link to them.  If the repository rejects the batch, each instance is saved on its own
+     * so that any error is reported against the event that supplied the instance.
+     *
+     * @param entities entities to save
+     * @param relationships relationships to save
+     */
+    void saveReferenceCopyBatch(List<LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<EntityDetail>> entities,
+                                List<LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<Relationship>> relationships)
+    {
+        final String methodName = "saveReferenceCopyBatch";
+
+        String userId = localRepositoryConnector.getServerUserId();
+
+        if (! entities.isEmpty())
+        {
+            List<EntityDetail> entityList = new ArrayList<>();
+
+            for (LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<EntityDetail> queuedEntity : entities)
+            {
+                entityList.add(queuedEntity.getInstance());
+            }
+
+            try
+            {
+                localMetadataCollection.saveEntityReferenceCopies(userId, entityList);
+            }
+            catch (Exception error)
+            {
+                auditLog.logMessage(methodName,
+                                    OMRSAuditCode.REFERENCE_COPY_BATCH_FAILED.getMessageDefinition(Integer.toString(entities.size()),
+                                                                                                   "0",
+                                                                                                   error.getClass().getName(),
+                                                                                                   error.getMessage()));
+
+                for (LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<EntityDetail> queuedEntity : entities)
+                {
+                    try
+                    {
+                        localMetadataCollection.saveEntityReferenceCopy(userId, queuedEntity.getInstance());
+                    }
+                    catch (Exception entityError)
+                    {
+                        handleUnexpectedErrorFromEvent(entityError,
+                                                       queuedEntity.getMethodName(),
+                                                       queuedEntity.getOriginatorServerName(),
+                                                       queuedEntity.getOriginatorMetadataCollectionId());
+                    }
+                }
+            }
+        }
+
+        if (! relationships.isEmpty())
+        {
+            List<Relationship> relationshipList = new ArrayList<>();
+
+            for (LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<Relationship> queuedRelationship : relationships)
+            {
+                relationshipList.add(queuedRelationship.getInstance());
+            }
+
+            try
+            {
+                localMetadataCollection.saveRelationshipReferenceCopies(userId, relationshipList);
+            }
+            catch (Exception error)
+            {
+                auditLog.logMessage(methodName,
+                                    OMRSAuditCode.REFERENCE_COPY_BATCH_FAILED.getMessageDefinition("0",
+                                                                                                   Integer.toString(relationships.size()),
+                                                                                                   error.getClass().getName(),
+                                                                                                   error.getMessage()));
+
+                for (LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<Relationship> queuedRelationship : relationships)
+                {
+                    try
+                    {
+                        localMetadataCollection.saveRelationshipReferenceCopy(userId, queuedRelationship.getInstance());
+                    }
+                    catch (Exception relationshipError)
+                    {
+                        handleUnexpectedErrorFromEvent(relationshipError,
+                                                       queuedRelationship.getMethodName(),
+                                                       queuedRelationship.getOriginatorServerName(),
+                                                       queuedRelationship.getOriginatorMetadataCollectionId());
+                    }
+                }
+            }
+        }
+    }
+
+
     /**
      * Validate that this event processor is correctly initialized.
      *
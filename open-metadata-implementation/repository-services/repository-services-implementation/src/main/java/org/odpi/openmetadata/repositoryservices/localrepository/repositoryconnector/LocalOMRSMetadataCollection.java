@@ -2253,6 +2253,104 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return a list of entities that match the supplied criteria, paged with a continuation token.  The token is
+     * passed to the real metadata collection so that a repository that can seek starts the page at the token's
+     * position.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID String unique identifier for the entity type of interest (null means any entity type).
+     * @param entitySubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the entityTypeGUID to
+     *                           include in (or, if skipSubtypes is true, exclude from) the search results. Null means all subtypes.
+     * @param skipSubtypes if true, entitySubtypeGUIDs is treated as the list of subtypes to exclude from the search
+     *                     results rather than the only subtypes to include.  Ignored if entitySubtypeGUIDs is null.
+     * @param searchProperties Optional list of entity property conditions to match.
+     * @param continuationToken token returned with the previous page of results.  Null means start from the first element.
+     * @param limitResultsByStatus By default, entities in all non-DELETED statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values except DELETED.
+     * @param searchClassifications Optional list of entity classifications to match.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the entity property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result entities that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return a list of entities matching the supplied criteria; null means no matching entities in the metadata
+     * collection.
+     * @throws InvalidParameterException a parameter is invalid or null, or the continuation token is not valid.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  entity.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support this optional method.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public List<EntityDetail> findEntities(String                    userId,
+                                           String                    entityTypeGUID,
+                                           List<String>              entitySubtypeGUIDs,
+                                           boolean                   skipSubtypes,
+                                           SearchProperties          searchProperties,
+                                           String                    continuationToken,
+                                           List<InstanceStatus>      limitResultsByStatus,
+                                           SearchClassifications     searchClassifications,
+                                           Date                      asOfTime,
+                                           String                    sequencingProperty,
+                                           SequencingOrder           sequencingOrder,
+                                           int                       pageSize) throws InvalidParameterException,
+                                                                                      RepositoryErrorException,
+                                                                                      TypeErrorException,
+                                                                                      PropertyErrorException,
+                                                                                      PagingErrorException,
+                                                                                      FunctionNotSupportedException,
+                                                                                      UserNotAuthorizedException
+    {
+        /*
+         * Validate parameters - the token is validated by the real metadata collection.
+         */
+        super.findEntitiesParameterValidation(userId,
+                                              entityTypeGUID,
+                                              entitySubtypeGUIDs,
+                                              searchProperties,
+                                              0,
+                                              limitResultsByStatus,
+                                              searchClassifications,
+                                              asOfTime,
+                                              sequencingProperty,
+                                              sequencingOrder,
+                                              pageSize);
+
+        /*
+         * Perform operation
+         */
+        List<EntityDetail> resultList = realMetadataCollection.findEntities(userId,
+                                                                            entityTypeGUID,
+                                                                            entitySubtypeGUIDs,
+                                                                            skipSubtypes,
+                                                                            searchProperties,
+                                                                            continuationToken,
+                                                                            limitResultsByStatus,
+                                                                            searchClassifications,
+                                                                            asOfTime,
+                                                                            sequencingProperty,
+                                                                            sequencingOrder,
+                                                                            pageSize);
+
+        try
+        {
+            return this.securityVerifyReadEntityList(userId, setLocalProvenanceInEntityList(resultList));
+        }
+        catch (PropertyServerException error)
+        {
+            throw new RepositoryErrorException(error);
+        }
+    }
+
+
     /**
      * Return a count of the entities that match the supplied criteria.  This has the same search semantics as
      * findEntities(), delegating directly to the real metadata collection's countEntities() implementation.
@@ -2814,6 +2912,107 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Return a list of relationships that match the requested conditions, paged with a continuation token.  The
+     * token is passed to the real metadata collection so that a repository that can seek starts the page at the
+     * token's position.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types
+     *                             (but may be slow so not recommended).
+     * @param relationshipSubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the
+     *                                 relationshipTypeGUID to include in (or, if skipSubtypes is true, exclude from) the search results.
+     *                                 Null means all subtypes.
+     * @param skipSubtypes if true, relationshipSubtypeGUIDs is treated as the list of subtypes to exclude from the
+     *                     search results rather than the only subtypes to include.  Ignored if relationshipSubtypeGUIDs is null.
+     * @param end1EntityGUIDs optional list of the unique identifiers (guids) for entities that must be at end 1 of the relationship.
+     * @param end2EntityGUIDs optional list of the unique identifiers (guids) for entities that must be at end 2 of the relationship.
+     * @param endMatchCriteria criteria for matching the ends of the relationship.
+     * @param matchProperties Optional list of relationship property conditions to match.
+     * @param continuationToken token returned with the previous page of results.  Null means start from the first element.
+     * @param limitResultsByStatus By default, relationships in all non-DELETED statuses are returned.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                             status values except DELETED.
+     * @param asOfTime Requests a historical query of the relationships for the entity.  Null means return the
+     *                 present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return a list of relationships.  Null means no matching relationships.
+     * @throws InvalidParameterException one of the parameters is invalid or null, or the continuation token is not valid.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  relationships.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support one of the provided parameters.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public  List<Relationship> findRelationships(String                    userId,
+                                                 String                    relationshipTypeGUID,
+                                                 List<String>              relationshipSubtypeGUIDs,
+                                                 boolean                   skipSubtypes,
+                                                 List<String>              end1EntityGUIDs,
+                                                 List<String>              end2EntityGUIDs,
+                                                 EndMatchCriteria          endMatchCriteria,
+                                                 SearchProperties          matchProperties,
+                                                 String                    continuationToken,
+                                                 List<InstanceStatus>      limitResultsByStatus,
+                                                 Date                      asOfTime,
+                                                 String                    sequencingProperty,
+                                                 SequencingOrder           sequencingOrder,
+                                                 int                       pageSize) throws InvalidParameterException,
+                                                                                            TypeErrorException,
+                                                                                            RepositoryErrorException,
+                                                                                            PropertyErrorException,
+                                                                                            PagingErrorException,
+                                                                                            FunctionNotSupportedException,
+                                                                                            UserNotAuthorizedException
+    {
+        /*
+         * Validate parameters - the token is validated by the real metadata collection.
+         */
+        super.findRelationshipsParameterValidation(userId,
+                                                   relationshipTypeGUID,
+                                                   relationshipSubtypeGUIDs,
+                                                   end1EntityGUIDs,
+                                                   end2EntityGUIDs,
+                                                   endMatchCriteria,
+                                                   matchProperties,
+                                                   0,
+                                                   limitResultsByStatus,
+                                                   asOfTime,
+                                                   sequencingProperty,
+                                                   sequencingOrder,
+                                                   pageSize);
+
+        /*
+         * Perform operation
+         */
+        List<Relationship> resultList = realMetadataCollection.findRelationships(userId,
+                                                                                 relationshipTypeGUID,
+                                                                                 relationshipSubtypeGUIDs,
+                                                                                 skipSubtypes,
+                                                                                 end1EntityGUIDs,
+                                                                                 end2EntityGUIDs,
+                                                                                 endMatchCriteria,
+                                                                                 matchProperties,
+                                                                                 continuationToken,
+                                                                                 limitResultsByStatus,
+                                                                                 asOfTime,
+                                                                                 sequencingProperty,
+                                                                                 sequencingOrder,
+                                                                                 pageSize);
+
+        return this.securityVerifyReadRelationshipList(userId, setLocalProvenanceInRelationshipList(resultList));
+    }
+
+
     /**
      * Return a count of the relationships that match the requested conditions.  This has the same search
      * semantics as findRelationships(), delegating directly to the real metadata collection's
@@ -6176,6 +6375,80 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Save a list of entities as reference copies.  Each entity is validated and checked by the security verifier
+     * in the same way as saveEntityReferenceCopy and the entities that pass are passed to the real repository
+     * in a single request.
+     *
+     * @param userId unique identifier for requesting server.
+     * @param entities details of the entities to save
+     * @throws InvalidParameterException one of the entities is invalid.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for an entity's type.
+     * @throws HomeEntityException one of the entities belongs to the local repository so creating a reference
+     *                               copy would be invalid.
+     * @throws EntityConflictException a new entity conflicts with an existing entity.
+     * @throws InvalidEntityException a new entity has invalid contents.
+     * @throws FunctionNotSupportedException the repository does not support reference copies of instances.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public void saveEntityReferenceCopies(String             userId,
+                                          List<EntityDetail> entities) throws InvalidParameterException,
+                                                                              RepositoryErrorException,
+                                                                              TypeErrorException,
+                                                                              PropertyErrorException,
+                                                                              HomeEntityException,
+                                                                              EntityConflictException,
+                                                                              InvalidEntityException,
+                                                                              FunctionNotSupportedException,
+                                                                              UserNotAuthorizedException
+    {
+        final String  methodName = "saveEntityReferenceCopies";
+        final String  instanceParameterName = "entities";
+
+        if ((entities == null) || (entities.isEmpty()))
+        {
+            return;
+        }
+
+        List<EntityDetail> validatedEntities = new ArrayList<>();
+
+        try
+        {
+            for (EntityDetail entity : entities)
+            {
+                /*
+                 * Validate parameters
+                 */
+                super.referenceInstanceParameterValidation(userId, entity, instanceParameterName, methodName);
+
+                /*
+                 * Only save instances from the same or past version of the OMRS.
+                 */
+                if ((entity.getHeaderVersion() <= InstanceAuditHeader.CURRENT_AUDIT_HEADER_VERSION) &&
+                    (securityVerifier.validateEntityReferenceCopySave(userId, entity)))
+                {
+                    validatedEntities.add(entity);
+                }
+            }
+        }
+        catch (PropertyServerException error)
+        {
+            throw new RepositoryErrorException(error);
+        }
+
+        if (! validatedEntities.isEmpty())
+        {
+            realMetadataCollection.saveEntityReferenceCopies(userId, validatedEntities);
+        }
+    }
+
+
 
     /**
      * Retrieve any locally homed classifications assigned to the requested entity.  This method is implemented by repository connectors that are able
@@ -6865,6 +7138,83 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
     }
 
 
+    /**
+     * Save a list of relationships as reference copies.  Each relationship is validated and checked by the
+     * security verifier in the same way as saveRelationshipReferenceCopy and the relationships that pass are
+     * passed to the real repository in a single request.
+     *
+     * @param userId unique identifier for requesting server.
+     * @param relationships relationships to save
+     * @throws InvalidParameterException one of the relationships is invalid.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws EntityNotKnownException one of the entities identified by a relationship is not found in the
+     *                                   metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for a relationship's type.
+     * @throws HomeRelationshipException one of the relationships belongs to the local repository so creating a
+     *                                     reference copy would be invalid.
+     * @throws RelationshipConflictException a new relationship conflicts with an existing relationship.
+     * @throws InvalidRelationshipException a new relationship has invalid contents.
+     * @throws FunctionNotSupportedException the repository does not support reference copies of instances.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public void saveRelationshipReferenceCopies(String             userId,
+                                                List<Relationship> relationships) throws InvalidParameterException,
+                                                                                         RepositoryErrorException,
+                                                                                         TypeErrorException,
+                                                                                         EntityNotKnownException,
+                                                                                         PropertyErrorException,
+                                                                                         HomeRelationshipException,
+                                                                                         RelationshipConflictException,
+                                                                                         InvalidRelationshipException,
+                                                                                         FunctionNotSupportedException,
+                                                                                         UserNotAuthorizedException
+    {
+        final String  methodName = "saveRelationshipReferenceCopies";
+        final String  instanceParameterName = "relationships";
+
+        if ((relationships == null) || (relationships.isEmpty()))
+        {
+            return;
+        }
+
+        List<Relationship> validatedRelationships = new ArrayList<>();
+
+        try
+        {
+            for (Relationship relationship : relationships)
+            {
+                /*
+                 * Validate parameters
+                 */
+                super.referenceInstanceParameterValidation(userId, relationship, instanceParameterName, methodName);
+
+                /*
+                 * Only save instances from the same or past version of the OMRS.
+                 */
+                if ((relationship.getHeaderVersion() <= InstanceAuditHeader.CURRENT_AUDIT_HEADER_VERSION) &&
+                    (securityVerifier.validateRelationshipReferenceCopySave(userId, relationship)))
+                {
+                    validatedRelationships.add(relationship);
+                }
+            }
+        }
+        catch (PropertyServerException error)
+        {
+            throw new RepositoryErrorException(error);
+        }
+
+        if (! validatedRelationships.isEmpty())
+        {
+            realMetadataCollection.saveRelationshipReferenceCopies(userId, validatedRelationships);
+        }
+    }
+
+
     /**
      * Remove the reference copy of the relationship from the local repository. This method can be used to
      * remove reference copies from the local cohort, repositories that have left the cohort,
@@ -0,0 +1,414 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSEventProcessingContext;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * LocalOMRSReferenceCopyBatcher collects the reference copies that the LocalOMRSInstanceEventProcessor has
+ * validated and saves them to the local repository in batches.  The queued copies are keyed by instance GUID,
+ * so when a newer version of an instance arrives before the batch is saved, it replaces the queued version
+ * and only the latest version is saved.  A batch is saved when it reaches the maximum batch size, or when the
+ * first copy in the batch has waited for the maximum batch delay, whichever is sooner.  The entities in
+ * a batch are saved before the relationships.
+ * <br><br>
+ * Each event that queues a copy registers the batch as asynchronous processing with the
+ * OMRSEventProcessingContext so that the event is not marked as consumed until its batch is saved.
+ */
+class LocalOMRSReferenceCopyBatcher
+{
+    private static final Logger log = LoggerFactory.getLogger(LocalOMRSReferenceCopyBatcher.class);
+
+    private final BatchSaver               batchSaver;
+    private final int                      maxBatchSize;
+    private final long                     maxBatchDelay;
+    private final ScheduledExecutorService flushTimer;
+
+    /*
+     * Only one batch is saved at a time so that the batches reach the repository in the order they were queued.
+     */
+    private final Object flushLock = new Object();
+
+    private Batch              queuedBatch     = new Batch();
+    private Batch              savingBatch     = null;
+    private ScheduledFuture<?> scheduledFlush  = null;
+    private boolean            active          = true;
+    private long               supersededCount = 0;
+
+
+    /**
+     * Constructor supplies the batch limits.
+     *
+     * @param batchSaver saves each batch (this is the event processor's saveReferenceCopyBatch method)
+     * @param maxBatchSize maximum number of instances in a batch
+     * @param maxBatchDelay maximum time (in milliseconds) that an instance waits to be saved
+     */
+    LocalOMRSReferenceCopyBatcher(BatchSaver batchSaver,
+                                  int        maxBatchSize,
+                                  long       maxBatchDelay)
+    {
+        this.batchSaver     = batchSaver;
+        this.maxBatchSize   = maxBatchSize;
+        this.maxBatchDelay  = maxBatchDelay;
+        this.flushTimer     = Executors.newSingleThreadScheduledExecutor(runnable ->
+                                                                         {
+                                                                             Thread thread = new Thread(runnable, "OMRS-Reference-Copy-Batcher");
+
+                                                                             thread.setDaemon(true);
+                                                                             return thread;
+                                                                         });
+    }
+
+
+    /**
+     * Return the queued copy of an entity that has not yet been saved.
+     *
+     * @param guid unique identifier of the entity
+     * @return entity or null if no copy of this entity is waiting to be saved
+     */
+    synchronized EntityDetail getQueuedEntity(String guid)
+    {
+        QueuedReferenceCopy<EntityDetail> queuedCopy = queuedBatch.entities.get(guid);
+
+        if ((queuedCopy == null) && (savingBatch != null))
+        {
+            queuedCopy = savingBatch.entities.get(guid);
+        }
+
+        if (queuedCopy != null)
+        {
+            return queuedCopy.getInstance();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the queued copy of a relationship that has not yet been saved.
+     *
+     * @param guid unique identifier of the relationship
+     * @return relationship or null if no copy of this relationship is waiting to be saved
+     */
+    synchronized Relationship getQueuedRelationship(String guid)
+    {
+        QueuedReferenceCopy<Relationship> queuedCopy = queuedBatch.relationships.get(guid);
+
+        if ((queuedCopy == null) && (savingBatch != null))
+        {
+            queuedCopy = savingBatch.relationships.get(guid);
+        }
+
+        if (queuedCopy != null)
+        {
+            return queuedCopy.getInstance();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Queue an entity to be saved.  The caller has already validated that this is a later version than
+     * any queued copy.
+     *
+     * @param queuedCopy entity and details of the event that it came from
+     * @return false if the batcher has been shut down and the caller must save the entity itself
+     */
+    boolean queueEntity(QueuedReferenceCopy<EntityDetail> queuedCopy)
+    {
+        boolean flushNow;
+
+        synchronized (this)
+        {
+            if (! active)
+            {
+                return false;
+            }
+
+            if (queuedBatch.entities.put(queuedCopy.getInstance().getGUID(), queuedCopy) != null)
+            {
+                supersededCount++;
+            }
+
+            flushNow = this.queued();
+        }
+
+        if (flushNow)
+        {
+            this.flush();
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Queue a relationship to be saved.  The caller has already validated that this is a later version than
+     * any queued copy.
+     *
+     * @param queuedCopy relationship and details of the event that it came from
+     * @return false if the batcher has been shut down and the caller must save the relationship itself
+     */
+    boolean queueRelationship(QueuedReferenceCopy<Relationship> queuedCopy)
+    {
+        boolean flushNow;
+
+        synchronized (this)
+        {
+            if (! active)
+            {
+                return false;
+            }
+
+            if (queuedBatch.relationships.put(queuedCopy.getInstance().getGUID(), queuedCopy) != null)
+            {
+                supersededCount++;
+            }
+
+            flushNow = this.queued();
+        }
+
+        if (flushNow)
+        {
+            this.flush();
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Register the queued batch with the event that is being processed and decide when to save the batch.
+     * This is called while synchronized.
+     *
+     * @return true if the batch is full and should be saved straight away
+     */
+    private boolean queued()
+    {
+        if (OMRSEventProcessingContext.getCurrentMessageId() != null)
+        {
+            OMRSEventProcessingContext.addAsyncProcessingResult(queuedBatch.saved);
+        }
+
+        if (queuedBatch.size() >= maxBatchSize)
+        {
+            return true;
+        }
+
+        if (scheduledFlush == null)
+        {
+            scheduledFlush = flushTimer.schedule(this::flush, maxBatchDelay, TimeUnit.MILLISECONDS);
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Save any queued copies.  This returns once they are saved (or have failed to save).
+     */
+    void flush()
+    {
+        synchronized (flushLock)
+        {
+            Batch batch;
+
+            synchronized (this)
+            {
+                if (scheduledFlush != null)
+                {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+
+                if (queuedBatch.size() == 0)
+                {
+                    return;
+                }
+
+                batch       = queuedBatch;
+                queuedBatch = new Batch();
+                savingBatch = batch;
+            }
+
+            try
+            {
+                log.debug("Saving batch of " + batch.entities.size() + " entities and " + batch.relationships.size() +
+                                  " relationships; " + supersededCount + " queued copies superseded so far");
+
+                batchSaver.saveReferenceCopyBatch(new ArrayList<>(batch.entities.values()),
+                                                  new ArrayList<>(batch.relationships.values()));
+            }
+            finally
+            {
+                synchronized (this)
+                {
+                    savingBatch = null;
+                }
+
+                batch.saved.complete(null);
+            }
+        }
+    }
+
+
+    /**
+     * Save any queued copies and stop batching.  Any copies that arrive after this call are saved by the caller.
+     */
+    void shutdown()
+    {
+        synchronized (this)
+        {
+            active = false;
+        }
+
+        this.flush();
+        flushTimer.shutdownNow();
+    }
+
+
+    /**
+     * Return the number of queued copies that have been replaced by a later version before they were saved.
+     *
+     * @return count
+     */
+    synchronized long getSupersededCount()
+    {
+        return supersededCount;
+    }
+
+
+    /**
+     * Saves a batch of reference copies to the local repository.
+     */
+    interface BatchSaver
+    {
+        /**
+         * Save a batch of reference copies.  The entities are saved before the relationships.
+         *
+         * @param entities entities to save
+         * @param relationships relationships to save
+         */
+        void saveReferenceCopyBatch(List<QueuedReferenceCopy<EntityDetail>> entities,
+                                    List<QueuedReferenceCopy<Relationship>> relationships);
+    }
+
+
+    /**
+     * The entities and relationships waiting to be saved together.
+     */
+    private static class Batch
+    {
+        private final Map<String, QueuedReferenceCopy<EntityDetail>> entities      = new LinkedHashMap<>();
+        private final Map<String, QueuedReferenceCopy<Relationship>> relationships = new LinkedHashMap<>();
+        private final CompletableFuture<Void>                        saved         = new CompletableFuture<>();
+
+
+        /**
+         * Return the number of instances in the batch.
+         *
+         * @return int
+         */
+        private int size()
+        {
+            return entities.size() + relationships.size();
+        }
+    }
+
+
+    /**
+     * A validated instance waiting to be saved, along with the details of the event that it came from
+     * so that errors from the repository can be reported against the event.
+     *
+     * @param <T> entity or relationship
+     */
+    static class QueuedReferenceCopy<T extends InstanceHeader>
+    {
+        private final T      instance;
+        private final String methodName;
+        private final String originatorServerName;
+        private final String originatorMetadataCollectionId;
+
+
+        /**
+         * Constructor supplies all the values.
+         *
+         * @param instance instance to save
+         * @param methodName name of the event method
+         * @param originatorServerName name of the server that the event came from
+         * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server
+         *                                       that sent the event
+         */
+        QueuedReferenceCopy(T      instance,
+                            String methodName,
+                            String originatorServerName,
+                            String originatorMetadataCollectionId)
+        {
+            this.instance                       = instance;
+            this.methodName                     = methodName;
+            this.originatorServerName           = originatorServerName;
+            this.originatorMetadataCollectionId = originatorMetadataCollectionId;
+        }
+
+
+        /**
+         * Return the instance to save.
+         *
+         * @return entity or relationship
+         */
+        T getInstance()
+        {
+            return instance;
+        }
+
+
+        /**
+         * Return the name of the event method.
+         *
+         * @return string
+         */
+        String getMethodName()
+        {
+            return methodName;
+        }
+
+
+        /**
+         * Return the name of the server that the event came from.
+         *
+         * @return string
+         */
+        String getOriginatorServerName()
+        {
+            return originatorServerName;
+        }
+
+
+        /**
+         * Return the unique identifier for the metadata collection hosted by the server that sent the event.
+         *
+         * @return string
+         */
+        String getOriginatorMetadataCollectionId()
+        {
+            return originatorMetadataCollectionId;
+        }
+    }
+}
@@ -40,6 +40,23 @@ public class LocalOMRSRepositoryConnector extends OMRSRepositoryConnector implem
     private static final String   repositoryEventMapperName = "LocalRepositoryEventMapper";
     private static final String   defaultRepositoryName     = "LocalRepository";
 
+    /**
+     * Configuration property of the real local connector's connection that sets the maximum number of reference
+     * copies from incoming instance events that are saved together.  Batching is off unless this is set to a value
+     * greater than 1 (and referenceCopyBatchDelay is set); otherwise each reference copy is saved as its event arrives.
+     */
+    public static final String REFERENCE_COPY_BATCH_SIZE_PROPERTY_NAME  = "referenceCopyBatchSize";
+
+    /**
+     * Configuration property of the real local connector's connection that sets the maximum time (in milliseconds)
+     * that a reference copy from an incoming instance event waits to be saved.  It must be set, along with
+     * referenceCopyBatchSize, to turn batching on.
+     */
+    public static final String REFERENCE_COPY_BATCH_DELAY_PROPERTY_NAME = "referenceCopyBatchDelay";
+
+    private static final int defaultReferenceCopyBatchSize  = 0;
+    private static final int defaultReferenceCopyBatchDelay = 0;
+
     /*
      * The repository content manager is the TypeDefManager for the Local OMRS Metadata Collection,
      * and the incoming TypeDef Event Processor for the Archive Manager and EventListener
@@ -195,6 +212,14 @@ public class LocalOMRSRepositoryConnector extends OMRSRepositoryConnector implem
     {
         super.disconnect();
 
+        /*
+         * Save any reference copies that are waiting in a batch before the real connector is disconnected.
+         */
+        if (incomingInstanceEventProcessor != null)
+        {
+            incomingInstanceEventProcessor.shutdown();
+        }
+
         if (realLocalConnector  != null)
         {
             realLocalConnector.disconnect();
@@ -491,6 +516,10 @@ public class LocalOMRSRepositoryConnector extends OMRSRepositoryConnector implem
                                                           saveExchangeRule,
                                                           produceEventsForRealConnector,
                                                           outboundRepositoryEventManager,
+                                                          this.getIntegerProperty(REFERENCE_COPY_BATCH_SIZE_PROPERTY_NAME,
+                                                                                  defaultReferenceCopyBatchSize),
+                                                          this.getIntegerProperty(REFERENCE_COPY_BATCH_DELAY_PROPERTY_NAME,
+                                                                                  defaultReferenceCopyBatchDelay),
                                                           auditLog.createNewAuditLog(OMRSAuditingComponent.INSTANCE_EVENT_PROCESSOR));
 
             this.incomingInstanceEventProcessor = localOMRSInstanceEventProcessor;
@@ -506,6 +535,39 @@ public class LocalOMRSRepositoryConnector extends OMRSRepositoryConnector implem
     }
 
 
+    /**
+     * Return the value of an integer configuration property from the real local connector's connection.
+     *
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is missing or not a number
+     * @return int
+     */
+    private int getIntegerProperty(String propertyName,
+                                   int    defaultValue)
+    {
+        if ((realLocalConnector != null) &&
+            (realLocalConnector.getConnection() != null) &&
+            (realLocalConnector.getConnection().getConfigurationProperties() != null))
+        {
+            Object propertyValue = realLocalConnector.getConnection().getConfigurationProperties().get(propertyName);
+
+            if (propertyValue != null)
+            {
+                try
+                {
+                    return Integer.parseInt(propertyValue.toString().trim());
+                }
+                catch (NumberFormatException error)
+                {
+                    return defaultValue;
+                }
+            }
+        }
+
+        return defaultValue;
+    }
+
+
     /**
      * Explicitly set up the metadata collection name.
      *
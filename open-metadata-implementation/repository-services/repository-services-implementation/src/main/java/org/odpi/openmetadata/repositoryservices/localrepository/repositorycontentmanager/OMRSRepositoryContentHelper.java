@@ -5,6 +5,7 @@ package org.odpi.openmetadata.repositoryservices.localrepository.repositoryconte
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.auditlog.requestid.RequestId;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
@@ -600,64 +601,19 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
 
         validateRepositoryContentManager(methodName);
 
-        List<String>  subTypeNames = new ArrayList<>();
-        List<TypeDef> typeDefs = repositoryContentManager.getKnownTypeDefs();
-
-        if ((typeDefs != null) && (superTypeName != null))
+        if (superTypeName == null)
         {
-            /*
-             * There are types to check - step through is one
-             */
-            for (TypeDef typeDef : typeDefs)
-            {
-                if ((typeDef != null) && (typeDef.getSuperType() != null))
-                {
-                    /*
-                     * Does the super type name match?
-                     */
-                    if (superTypeName.equals(typeDef.getSuperType().getName()))
-                    {
-                        /*
-                         * This type is a direct descendent of the requested type
-                         */
-                        subTypeNames.add(typeDef.getName());
-                    }
-                    else
-                    {
-                        /*
-                         * Each type definition only contains the immediate super type.  We need
-                         * to check the super type's super types.
-                         */
-                        List<TypeDefLink> superTypes = repositoryContentManager.getSuperTypes(sourceName,
-                                                                                              typeDef.getSuperType().getName(),
-                                                                                              methodName);
-
-                        if (superTypes != null)
-                        {
-                            for (TypeDefLink typeDefLink : superTypes)
-                            {
-                                if (typeDefLink != null)
-                                {
-                                    if (superTypeName.equals(typeDefLink.getName()))
-                                    {
-                                        subTypeNames.add(typeDef.getName());
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+            return null;
         }
 
-        if (subTypeNames.isEmpty())
+        List<String> subTypeNames = repositoryContentManager.getSubTypesOf(superTypeName);
+
+        if (subTypeNames == null)
         {
             return null;
         }
-        else
-        {
-            return subTypeNames;
-        }
+
+        return new ArrayList<>(subTypeNames);
     }
 
 
@@ -2383,6 +2339,436 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
     }
 
 
+    /**
+     * Use the sequencing parameters and continuation token to format the results for a repository call that returns
+     * a list of entity instances.
+     *
+     * @param fullResults - the full list of results in an arbitrary order
+     * @param continuationToken - decoded token returned with the previous page.  Null means start from the first element.
+     * @param sequencingProperty - String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder - Enum defining how the results should be ordered.
+     * @param pageSize - the maximum number of result entities that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return results array as requested
+     */
+    @Override
+    public List<EntityDetail>  formatEntityResults(List<EntityDetail>   fullResults,
+                                                   ContinuationToken    continuationToken,
+                                                   String               sequencingProperty,
+                                                   SequencingOrder      sequencingOrder,
+                                                   int                  pageSize)
+    {
+        return this.formatContinuationResults(fullResults, continuationToken, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
+    /**
+     * Use the sequencing parameters and continuation token to format the results for a repository call that returns
+     * a list of relationship instances.
+     *
+     * @param fullResults - the full list of results in an arbitrary order
+     * @param continuationToken - decoded token returned with the previous page.  Null means start from the first element.
+     * @param sequencingProperty - String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder - Enum defining how the results should be ordered.
+     * @param pageSize - the maximum number of result relationships that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return results array as requested
+     */
+    @Override
+    public List<Relationship>  formatRelationshipResults(List<Relationship>   fullResults,
+                                                         ContinuationToken    continuationToken,
+                                                         String               sequencingProperty,
+                                                         SequencingOrder      sequencingOrder,
+                                                         int                  pageSize)
+    {
+        return this.formatContinuationResults(fullResults, continuationToken, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
+    /**
+     * Return the continuation token that retrieves the page of results that follows the supplied page.
+     *
+     * @param continuationToken token that was used to retrieve the supplied page - null for the first page
+     * @param page instances returned for the page in the order they were returned
+     * @param sequencingProperty String name of the property that the results are sequenced on
+     * @param sequencingOrder Enum defining how the results are ordered
+     * @param pageSize the maximum number of instances that could be returned in the page
+     * @return token string or null if there are no more results
+     * @throws InvalidParameterException the supplied continuation token is not valid
+     */
+    @Override
+    public String getNextContinuationToken(String                         continuationToken,
+                                           List<? extends InstanceHeader> page,
+                                           String                         sequencingProperty,
+                                           SequencingOrder                sequencingOrder,
+                                           int                            pageSize) throws InvalidParameterException
+    {
+        final String methodName = "getNextContinuationToken";
+        final String continuationTokenParameterName = "continuationToken";
+
+        ContinuationToken previousToken = ContinuationToken.getContinuationToken(continuationToken,
+                                                                                 continuationTokenParameterName,
+                                                                                 methodName);
+
+        /*
+         * A short page means the results are exhausted.
+         */
+        if ((page == null) || (page.isEmpty()) || (pageSize == 0) || (page.size() < pageSize))
+        {
+            return null;
+        }
+
+        InstanceHeader lastInstance = page.get(page.size() - 1);
+        int            nextElement  = page.size();
+
+        if (previousToken != null)
+        {
+            nextElement = nextElement + previousToken.getNextElement();
+        }
+
+        Object lastSequencingValue = getContinuationSequencingValue(lastInstance,
+                                                                    sequencingProperty,
+                                                                    getContinuationSequencingOrder(sequencingOrder));
+
+        return new ContinuationToken(nextElement,
+                                     lastInstance.getGUID(),
+                                     getContinuationSequencingValueString(lastSequencingValue)).getToken();
+    }
+
+
+    /**
+     * Return a comparator that orders instances in continuation order - that is the requested sequencing order
+     * followed by guid.
+     *
+     * @param sequencingProperty String name of the property that the results are sequenced on
+     * @param sequencingOrder Enum defining how the results are ordered
+     * @return comparator
+     */
+    @Override
+    public Comparator<InstanceHeader> getContinuationComparator(String          sequencingProperty,
+                                                                SequencingOrder sequencingOrder)
+    {
+        SequencingOrder continuationOrder = getContinuationSequencingOrder(sequencingOrder);
+
+        return (one, two) -> compareContinuationPositions(getContinuationSequencingValue(one, sequencingProperty, continuationOrder),
+                                                          one.getGUID(),
+                                                          getContinuationSequencingValue(two, sequencingProperty, continuationOrder),
+                                                          two.getGUID(),
+                                                          continuationOrder);
+    }
+
+
+    /**
+     * Return whether an instance comes after the position recorded in a continuation token.  A token without a
+     * guid does not record a position (the results are paged by element number) so every instance is after it.
+     *
+     * @param instance instance to test
+     * @param continuationToken decoded token - null means the first page
+     * @param sequencingProperty String name of the property that the results are sequenced on
+     * @param sequencingOrder Enum defining how the results are ordered
+     * @return boolean
+     */
+    @Override
+    public boolean isAfterContinuationPosition(InstanceHeader    instance,
+                                               ContinuationToken continuationToken,
+                                               String            sequencingProperty,
+                                               SequencingOrder   sequencingOrder)
+    {
+        if ((continuationToken == null) || (continuationToken.getLastGUID() == null))
+        {
+            return true;
+        }
+
+        SequencingOrder continuationOrder = getContinuationSequencingOrder(sequencingOrder);
+
+        return compareContinuationPositions(getContinuationSequencingValue(instance, sequencingProperty, continuationOrder),
+                                            instance.getGUID(),
+                                            continuationToken.getLastSequencingValue(),
+                                            continuationToken.getLastGUID(),
+                                            continuationOrder) > 0;
+    }
+
+
+    /**
+     * Sort the results into continuation order (the sequencing key followed by the guid) and extract the page that
+     * follows the position in the continuation token.  The position is located by comparing sequencing keys rather
+     * than by finding the last instance of the previous page, so the page is correct even if that instance has
+     * since been deleted or the results came from a repository that has already skipped past it.
+     *
+     * @param fullResults the full list of results in an arbitrary order
+     * @param continuationToken decoded token or null
+     * @param sequencingProperty name of the property that is to be used to sequence the results
+     * @param sequencingOrder requested sequencing order
+     * @param pageSize maximum number of results - zero means unrestricted
+     * @return page of results or null
+     * @param <T> type of instance
+     */
+    private <T extends InstanceHeader> List<T> formatContinuationResults(List<T>           fullResults,
+                                                                         ContinuationToken continuationToken,
+                                                                         String            sequencingProperty,
+                                                                         SequencingOrder   sequencingOrder,
+                                                                         int               pageSize)
+    {
+        if ((fullResults == null) || (fullResults.isEmpty()))
+        {
+            return null;
+        }
+
+        fullResults.sort(this.getContinuationComparator(sequencingProperty, sequencingOrder));
+
+        int fullResultsSize = fullResults.size();
+        int fromElement     = 0;
+
+        if (continuationToken != null)
+        {
+            if (continuationToken.getLastGUID() == null)
+            {
+                fromElement = continuationToken.getNextElement();
+            }
+            else
+            {
+                /*
+                 * The results are sorted, so the instances before the position form a prefix of the list and the
+                 * first instance after the position is found with a binary search.
+                 */
+                int toElement = fullResultsSize;
+
+                while (fromElement < toElement)
+                {
+                    int middleElement = (fromElement + toElement) >>> 1;
+
+                    if (this.isAfterContinuationPosition(fullResults.get(middleElement),
+                                                         continuationToken,
+                                                         sequencingProperty,
+                                                         sequencingOrder))
+                    {
+                        toElement = middleElement;
+                    }
+                    else
+                    {
+                        fromElement = middleElement + 1;
+                    }
+                }
+            }
+        }
+
+        if (fromElement >= fullResultsSize)
+        {
+            return null;
+        }
+
+        int toIndex = fullResultsSize;
+
+        if (pageSize != 0)
+        {
+            toIndex = getToIndex(fromElement, pageSize, fullResultsSize);
+        }
+
+        return new ArrayList<>(fullResults.subList(fromElement, toIndex));
+    }
+
+
+    /**
+     * Return the sequencing order used for continuation.  ANY is replaced by CREATION_DATE_RECENT since paging
+     * through results with continuation tokens needs the same order on every page.
+     *
+     * @param sequencingOrder requested order
+     * @return order to use
+     */
+    private static SequencingOrder getContinuationSequencingOrder(SequencingOrder sequencingOrder)
+    {
+        if ((sequencingOrder == null) || (sequencingOrder == SequencingOrder.ANY))
+        {
+            return SequencingOrder.CREATION_DATE_RECENT;
+        }
+
+        return sequencingOrder;
+    }
+
+
+    /**
+     * Return the value of the sequencing key for an instance.  This is the create time unless the instance is
+     * sequenced by update time, guid (no separate key) or a primitive property.
+     *
+     * @param instance instance to sequence
+     * @param sequencingProperty name of the property that is used to sequence the results
+     * @param sequencingOrder continuation sequencing order
+     * @return value or null
+     */
+    private static Object getContinuationSequencingValue(InstanceHeader  instance,
+                                                         String          sequencingProperty,
+                                                         SequencingOrder sequencingOrder)
+    {
+        switch (sequencingOrder)
+        {
+            case LAST_UPDATE_RECENT, LAST_UPDATE_OLDEST ->
+            {
+                return instance.getUpdateTime();
+            }
+            case GUID ->
+            {
+                return null;
+            }
+            case PROPERTY_ASCENDING, PROPERTY_DESCENDING ->
+            {
+                if (sequencingProperty != null)
+                {
+                    InstanceProperties properties = null;
+
+                    if (instance instanceof EntityDetail entityDetail)
+                    {
+                        properties = entityDetail.getProperties();
+                    }
+                    else if (instance instanceof Relationship relationship)
+                    {
+                        properties = relationship.getProperties();
+                    }
+
+                    if (properties != null)
+                    {
+                        InstancePropertyValue propertyValue = properties.getPropertyValue(sequencingProperty);
+
+                        if (propertyValue instanceof PrimitivePropertyValue primitivePropertyValue)
+                        {
+                            return primitivePropertyValue.getPrimitiveValue();
+                        }
+                    }
+
+                    return null;
+                }
+            }
+        }
+
+        return instance.getCreateTime();
+    }
+
+
+    /**
+     * Format a sequencing value for a continuation token.  Dates are stored as milliseconds since the epoch.
+     *
+     * @param sequencingValue value of the sequencing key
+     * @return string or null
+     */
+    private static String getContinuationSequencingValueString(Object sequencingValue)
+    {
+        if (sequencingValue == null)
+        {
+            return null;
+        }
+        else if (sequencingValue instanceof Date dateValue)
+        {
+            return Long.toString(dateValue.getTime());
+        }
+        else if (sequencingValue instanceof BigDecimal bigDecimalValue)
+        {
+            return bigDecimalValue.toPlainString();
+        }
+
+        return sequencingValue.toString();
+    }
+
+
+    /**
+     * Compare two positions in continuation order - the sequencing key (with instances that have no value at the end
+     * of the ascending order) followed by the guid.  One of the keys may be the string formatted value from a
+     * continuation token.
+     *
+     * @param value1 sequencing key of the first position
+     * @param guid1 guid of the first position
+     * @param value2 sequencing key of the second position
+     * @param guid2 guid of the second position
+     * @param sequencingOrder continuation sequencing order
+     * @return sort result
+     */
+    private static int compareContinuationPositions(Object          value1,
+                                                    String          guid1,
+                                                    Object          value2,
+                                                    String          guid2,
+                                                    SequencingOrder sequencingOrder)
+    {
+        int sortResult = 0;
+
+        if (sequencingOrder != SequencingOrder.GUID)
+        {
+            if (value1 == null)
+            {
+                sortResult = (value2 == null) ? 0 : 1;
+            }
+            else if (value2 == null)
+            {
+                sortResult = -1;
+            }
+            else
+            {
+                sortResult = compareContinuationValues(value1, value2);
+            }
+        }
+
+        if (sortResult == 0)
+        {
+            sortResult = String.valueOf(guid1).compareTo(String.valueOf(guid2));
+        }
+
+        return switch (sequencingOrder)
+        {
+            case CREATION_DATE_RECENT, LAST_UPDATE_RECENT, PROPERTY_DESCENDING -> -sortResult;
+            default -> sortResult;
+        };
+    }
+
+
+    /**
+     * Compare two sequencing values.  Numbers and dates are compared numerically - this includes comparing them
+     * with the string formatted value from a continuation token.  Other values are compared as strings.
+     *
+     * @param value1 first value
+     * @param value2 second value
+     * @return sort result
+     */
+    private static int compareContinuationValues(Object value1,
+                                                 Object value2)
+    {
+        if ((value1 instanceof Number) || (value1 instanceof Date) || (value2 instanceof Number) || (value2 instanceof Date))
+        {
+            BigDecimal number1 = getContinuationNumericValue(value1);
+            BigDecimal number2 = getContinuationNumericValue(value2);
+
+            if ((number1 != null) && (number2 != null))
+            {
+                return number1.compareTo(number2);
+            }
+        }
+
+        return getContinuationSequencingValueString(value1).compareTo(getContinuationSequencingValueString(value2));
+    }
+
+
+    /**
+     * Convert a sequencing value to a number for comparison.
+     *
+     * @param value number, date or string formatted number
+     * @return number or null if the value is not numeric
+     */
+    private static BigDecimal getContinuationNumericValue(Object value)
+    {
+        if (value instanceof Date dateValue)
+        {
+            return BigDecimal.valueOf(dateValue.getTime());
+        }
+
+        try
+        {
+            return new BigDecimal(value.toString());
+        }
+        catch (NumberFormatException notNumeric)
+        {
+            return null;
+        }
+    }
+
+
     /**
      * Compare the two instances and determine the sort order based on the nominated non-property sort order.
      *
@@ -62,10 +62,16 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     private final Map<String, TypeDef>            activeTypeDefNames             = new HashMap<>();
     private final Map<String, AttributeTypeDef>   activeAttributeTypeDefGUIDs    = new HashMap<>();
     private final Map<String, AttributeTypeDef>   activeAttributeTypeDefNames    = new HashMap<>();
-    private final Map<String, List<TypeDefLink>>  typeDefSuperTypes              = new HashMap<>();
     private final Map<String, InstanceType>       knownInstanceTypes             = new HashMap<>();
     private final Map<String, String>             metadataCollectionNames        = new HashMap<>();
-    private final Map<String, Set<String>>        knownPropertyToTypeDefNames    = new HashMap<>();
+
+    /*
+     * The type hierarchy compiled from knownTypeDefNames.  Every change to knownTypeDefNames is made while holding
+     * typeDefLatticeLock, and builds a new snapshot that replaces this one before the lock is released.  Readers
+     * just take the current snapshot, so they never wait for a rebuild.
+     */
+    private final Object                          typeDefLatticeLock             = new Object();
+    private volatile TypeDefLattice               typeDefLattice                 = new TypeDefLattice(new HashMap<>());
 
 
     /*
@@ -154,8 +160,12 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
      */
     private void cacheTypeDef(String  sourceName, TypeDef      newTypeDef, boolean isLocallySupported)
     {
-        knownTypeDefGUIDs.put(newTypeDef.getGUID(), newTypeDef);
-        knownTypeDefNames.put(newTypeDef.getName(), newTypeDef);
+        synchronized (typeDefLatticeLock)
+        {
+            knownTypeDefGUIDs.put(newTypeDef.getGUID(), newTypeDef);
+            knownTypeDefNames.put(newTypeDef.getName(), newTypeDef);
+            typeDefLattice = new TypeDefLattice(knownTypeDefNames);
+        }
 
         if (isLocallySupported)
         {
@@ -168,7 +178,6 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
         {
             log.debug("New Known Type {} from {}. Full TypeDef: {}", newTypeDef.getName(), sourceName, newTypeDef);
         }
-        cacheTypeDefPropertyLookup(sourceName, newTypeDef);
     }
 
 
@@ -198,33 +207,6 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     }
 
 
-    /**
-     * Cache a lookup of the TypeDef's properties by their name, to the names of the TypeDefs in which a property by
-     * that name is defined.
-     *
-     * @param sourceName source of the request (used for logging)
-     * @param typeDef TypeDef structure describing the new TypeDef.
-     */
-    private void cacheTypeDefPropertyLookup(String sourceName, TypeDef typeDef)
-    {
-        // retrieve all properties on the newTypeDef
-        String                     typeDefName                   = typeDef.getName();
-        List<TypeDefAttribute>     propertiesDefinition          = typeDef.getPropertiesDefinition();
-
-        if (propertiesDefinition != null)
-        {
-            // for each property, add this typeDef's GUID as one that defines a property with this name
-            for (TypeDefAttribute property : propertiesDefinition)
-            {
-                String propertyName = property.getAttributeName();
-                knownPropertyToTypeDefNames.computeIfAbsent(propertyName, k -> new HashSet<>());
-                knownPropertyToTypeDefNames.get(propertyName).add(typeDefName);
-                log.debug("Cached property '{}' from {}, for lookup under TypeDef: {}", propertyName, sourceName, typeDefName);
-            }
-        }
-    }
-
-
     /**
      * Remove a definition of a TypeDef.
      *
@@ -238,8 +220,12 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
                                 String  obsoleteTypeDefName,
                                 boolean isLocallySupported)
     {
-        knownTypeDefGUIDs.remove(obsoleteTypeDefGUID);
-        knownTypeDefNames.remove(obsoleteTypeDefName);
+        synchronized (typeDefLatticeLock)
+        {
+            knownTypeDefGUIDs.remove(obsoleteTypeDefGUID);
+            knownTypeDefNames.remove(obsoleteTypeDefName);
+            typeDefLattice = new TypeDefLattice(knownTypeDefNames);
+        }
 
         if (isLocallySupported)
         {
@@ -248,28 +234,6 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
         }
 
         log.debug("Removed Type {} from {}", obsoleteTypeDefName, sourceName);
-        uncacheTypeDefPropertyLookup(sourceName, obsoleteTypeDefName);
-    }
-
-
-    /**
-     * Remove a TypeDef from the reverse property lookup.
-     *
-     * @param sourceName source of the request (used for logging)
-     * @param typeDefName unique name for the type.
-     */
-    private void uncacheTypeDefPropertyLookup(String sourceName, String typeDefName)
-    {
-        // Not much choice but to iterate through the entire Map...
-        for (String propertyName : knownPropertyToTypeDefNames.keySet())
-        {
-            // ... but the removal operation at least is idempotent (no need to first check it is present in the Set)
-            boolean removed = knownPropertyToTypeDefNames.get(propertyName).remove(typeDefName);
-            if (removed)
-            {
-                log.debug("Removed Type {} from {}, from reverse-lookup of property: {}", typeDefName, sourceName, propertyName);
-            }
-        }
     }
 
 
@@ -345,8 +309,12 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     {
         if (this.validTypeId(sourceName, obsoleteTypeDefGUID, obsoleteTypeDefName))
         {
-            knownTypeDefGUIDs.remove(obsoleteTypeDefGUID);
-            knownTypeDefNames.remove(obsoleteTypeDefName);
+            synchronized (typeDefLatticeLock)
+            {
+                knownTypeDefGUIDs.remove(obsoleteTypeDefGUID);
+                knownTypeDefNames.remove(obsoleteTypeDefName);
+                typeDefLattice = new TypeDefLattice(knownTypeDefNames);
+            }
 
             if (localRepositoryConnector != null)
             {
@@ -503,7 +471,19 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
 
 
     /**
-     * Evaluate the superTypes for a type.  The results are cached in typeDefSuperTypes.
+     * Return the type lattice for the known TypeDefs.  It is rebuilt whenever the TypeDefs change, so this
+     * never blocks.
+     *
+     * @return compiled type hierarchy
+     */
+    private TypeDefLattice getTypeDefLattice()
+    {
+        return typeDefLattice;
+    }
+
+
+    /**
+     * Evaluate the superTypes for a type.  The results come from the type lattice.
      *
      * @param sourceName source of the request (used for logging)
      * @param typeName name of type to process
@@ -516,82 +496,42 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     {
         final String  thisMethodName = "getSuperTypes";
 
-        List<TypeDefLink>   typeHierarchy = typeDefSuperTypes.get(typeName);
+        TypeDefLattice lattice = this.getTypeDefLattice();
 
-        if (typeHierarchy == null)
+        if (lattice.isKnownType(typeName))
         {
-            /*
-             * The type hierarchy is not known at this time (it is evaluated lazily).
-             */
-            typeHierarchy = new ArrayList<>();
-
-            TypeDef typeDef = knownTypeDefNames.get(typeName);
-
-            if (typeDef != null)
-            {
-                TypeDefLink superTypeLink = typeDef.getSuperType();
-
-                while (superTypeLink != null)
-                {
-                    String superTypeName = superTypeLink.getName();
-
-                    if (superTypeName != null)
-                    {
-                        log.debug(typeName + " has super type " + superTypeName);
-
-                        typeHierarchy.add(superTypeLink);
-
-                        /*
-                         * Retrieve the TypeDef for this super type
-                         */
-                        TypeDef superTypeDef = knownTypeDefNames.get(superTypeName);
-
-                        if (superTypeDef != null)
-                        {
-                            /*
-                             * Retrieve the super type for this super typeDef.  It will be null if the type is top-level.
-                             */
-                            superTypeLink = superTypeDef.getSuperType();
-                        }
-                        else
-                        {
-                            log.error(superTypeName + " supertype is not known in TypeDef cache");
-                            throwContentManagerLogicError(sourceName, methodName, thisMethodName);
-                        }
-                    }
-                    else
-                    {
-                        log.error("Corrupted TypeDef cache, no name for " + superTypeLink);
-                        throwContentManagerLogicError(sourceName, methodName, thisMethodName);
-                    }
-                }
-
-                /*
-                 * Cache the resulting superType list
-                 */
-                typeDefSuperTypes.put(typeName, typeHierarchy);
-            }
-            else
-            {
-                log.error(typeName + " type is not known in TypeDef cache");
-                throwContentManagerLogicError(sourceName, methodName, thisMethodName + "(" + typeName + ")");
-            }
+            return lattice.getSuperTypes(typeName);
         }
 
-        if (typeHierarchy.isEmpty())
+        /*
+         * The type, or one of its supertypes, is not known.
+         */
+        TypeDef typeDef = knownTypeDefNames.get(typeName);
+
+        if (typeDef != null)
         {
-            /*
-             * The type hierarchy has been evaluated and this type has no supertypes.
-             */
-            return null;
+            log.error(typeName + " type has a broken supertype chain in TypeDef cache");
+            throwContentManagerLogicError(sourceName, methodName, thisMethodName);
         }
         else
         {
-            /*
-             * The type hierarchy is known and can be returned directly.
-             */
-            return typeHierarchy;
+            log.error(typeName + " type is not known in TypeDef cache");
+            throwContentManagerLogicError(sourceName, methodName, thisMethodName + "(" + typeName + ")");
         }
+
+        return null;
+    }
+
+
+    /**
+     * Return the names of all the subtypes of a type - at any depth.  The results come from the type lattice.
+     *
+     * @param superTypeName name of the super type - this value is not included in the result.
+     * @return list of type names (a null means the type is not known, or it has no subtypes)
+     */
+    List<String> getSubTypesOf(String superTypeName)
+    {
+        return this.getTypeDefLattice().getSubTypeNames(superTypeName);
     }
 
 
@@ -610,8 +550,6 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     {
         final String methodName = "isTypeOf";
 
-        log.debug("isTypeOf: sourceName = " + sourceName + "; actualTypeName = " + actualTypeName + "; expectedTypeName = " + expectedTypeName);
-
         if (expectedTypeName == null)
         {
             /*
@@ -634,36 +572,24 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
          */
         if (actualTypeName.equals(expectedTypeName))
         {
-            log.debug("Simple match success");
             return true;
         }
 
         /*
          * Looking for a match in the superTypes.
          */
-        List<TypeDefLink>   typeHierarchy = this.getSuperTypes(sourceName, actualTypeName, methodName);
+        TypeDefLattice lattice = this.getTypeDefLattice();
 
-        if (typeHierarchy != null)
+        if (! lattice.isKnownType(actualTypeName))
         {
-            for (TypeDefLink superType : typeHierarchy)
-            {
-                if (superType != null)
-                {
-                    if (expectedTypeName.equals(superType.getName()))
-                    {
-                        log.debug("SuperType match success");
-                        return true;
-                    }
-
-                    log.debug("No match with " + superType.getName());
-                }
-            }
+            /*
+             * Reports the unknown type.
+             */
+            this.getSuperTypes(sourceName, actualTypeName, methodName);
+            return false;
         }
 
-        /*
-         * No match found
-         */
-        return false;
+        return lattice.isTypeOf(actualTypeName, expectedTypeName);
     }
 
 
@@ -684,14 +610,11 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     {
         final String methodName = "isTypeOfByGUID";
 
-        log.debug("IsTypeOfByGUID: sourceName = " + sourceName + "; actualTypeName = " + actualTypeName + "; expectedTypeGUID = " + expectedTypeGUID);
-
         if (expectedTypeGUID == null)
         {
             /*
              * If the expected type GUID is null, it means that any type is allowed.
              */
-            log.debug("Any type will do");
             return true;
         }
 
@@ -701,7 +624,6 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
          */
         if (actualTypeGUID == null)
         {
-            log.debug("No type to test against");
             return false;
         }
 
@@ -710,32 +632,24 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
          */
         if (actualTypeGUID.equals(expectedTypeGUID))
         {
-            log.debug("Simple match success");
             return true;
         }
 
         /*
          * Looking for a match in the superTypes.
          */
-       List<TypeDefLink>   typeHierarchy = this.getSuperTypes(sourceName, actualTypeName, methodName);
+        TypeDefLattice lattice = this.getTypeDefLattice();
 
-        if (typeHierarchy != null)
+        if (! lattice.isKnownType(actualTypeName))
         {
-            for (TypeDefLink superType : typeHierarchy)
-            {
-                if (superType != null)
-                {
-                    if (expectedTypeGUID.equals(superType.getGUID()))
-                    {
-                        log.debug("SuperType match success");
-                        return true;
-                    }
-                    log.debug("No match with " + superType.getGUID());
-                }
-            }
+            /*
+             * Reports the unknown type.
+             */
+            this.getSuperTypes(sourceName, actualTypeName, methodName);
+            return false;
         }
 
-        return false;
+        return lattice.isTypeOfByGUID(actualTypeName, expectedTypeGUID);
     }
 
 
@@ -1534,7 +1448,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             return null;
         }
 
-        return knownPropertyToTypeDefNames.getOrDefault(propertyName, null);
+        return this.getTypeDefLattice().getTypeDefNamesForProperty(propertyName);
     }
 
 
@@ -1560,7 +1474,11 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             {
                 if (!isKnownType(sourceName, typeDef.getGUID(), typeDef.getName()))
                 {
-                    knownTypeDefNames.put(typeDef.getName(), typeDef);
+                    synchronized (typeDefLatticeLock)
+                    {
+                        knownTypeDefNames.put(typeDef.getName(), typeDef);
+                        typeDefLattice = new TypeDefLattice(knownTypeDefNames);
+                    }
                 }
             }
             else
@@ -0,0 +1,269 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TypeDefLattice is an immutable snapshot of the type hierarchy of the TypeDefs known to the
+ * OMRSRepositoryContentManager.  Each type is given an integer identifier and its supertypes are recorded in
+ * a bit set so testing whether one type is a subtype of another is a single bit lookup, however deep the
+ * hierarchy.  The supertype chains, subtype closures and the property name to type name lookup are worked
+ * out when the snapshot is built.
+ * <br><br>
+ * The content manager builds a new snapshot each time the TypeDefs change and publishes it in place of the
+ * old one, so the snapshot can be read by any number of threads without locking.  The lists and sets it returns
+ * are copies.  Types whose supertype chain is broken (a supertype is not known, or the
+ * chain loops) are left out of the snapshot so that the content manager can report the error as it did before.
+ */
+class TypeDefLattice
+{
+    private final Map<String, Integer>       typeIdsByName          = new HashMap<>();
+    private final Map<String, Integer>       typeIdsByGUID          = new HashMap<>();
+    private final List<String>               typeNames              = new ArrayList<>();
+    private final List<List<TypeDefLink>>    superTypes             = new ArrayList<>();
+    private final List<BitSet>               ancestorIds            = new ArrayList<>();
+    private final List<List<String>>         subTypeNames           = new ArrayList<>();
+    private final Map<String, Set<String>>   propertyToTypeDefNames = new HashMap<>();
+
+
+    /**
+     * Compile the type hierarchy for the supplied TypeDefs.
+     *
+     * @param knownTypeDefs TypeDefs mapped from their type name
+     */
+    TypeDefLattice(Map<String, TypeDef> knownTypeDefs)
+    {
+        /*
+         * Work out the supertype chain of each type.  Only types with a complete chain are given an identifier.
+         */
+        Map<String, List<TypeDefLink>> superTypeChains = new HashMap<>();
+
+        for (TypeDef typeDef : knownTypeDefs.values())
+        {
+            if ((typeDef != null) && (typeDef.getName() != null))
+            {
+                List<TypeDefLink> superTypeChain = this.getSuperTypeChain(typeDef, knownTypeDefs);
+
+                if (superTypeChain != null)
+                {
+                    superTypeChains.put(typeDef.getName(), superTypeChain);
+
+                    int typeId = typeNames.size();
+
+                    typeIdsByName.put(typeDef.getName(), typeId);
+                    if (typeDef.getGUID() != null)
+                    {
+                        typeIdsByGUID.put(typeDef.getGUID(), typeId);
+                    }
+                    typeNames.add(typeDef.getName());
+                }
+
+                this.addPropertyLookup(typeDef);
+            }
+        }
+
+        /*
+         * Now every type in a complete chain has an identifier, the ancestor sets can be built.
+         */
+        List<List<String>> subTypes = new ArrayList<>();
+
+        for (String typeName : typeNames)
+        {
+            List<TypeDefLink> superTypeChain = superTypeChains.get(typeName);
+            BitSet            ancestors      = new BitSet(typeNames.size());
+
+            ancestors.set(typeIdsByName.get(typeName));
+
+            for (TypeDefLink superTypeLink : superTypeChain)
+            {
+                ancestors.set(typeIdsByName.get(superTypeLink.getName()));
+            }
+
+            superTypes.add(superTypeChain.isEmpty() ? null : Collections.unmodifiableList(superTypeChain));
+            ancestorIds.add(ancestors);
+            subTypes.add(new ArrayList<>());
+        }
+
+        for (String typeName : typeNames)
+        {
+            for (TypeDefLink superTypeLink : superTypeChains.get(typeName))
+            {
+                subTypes.get(typeIdsByName.get(superTypeLink.getName())).add(typeName);
+            }
+        }
+
+        for (List<String> typeSubTypes : subTypes)
+        {
+            subTypeNames.add(typeSubTypes.isEmpty() ? null : Collections.unmodifiableList(typeSubTypes));
+        }
+    }
+
+
+    /**
+     * Return the chain of supertypes for a type, starting with its immediate supertype.
+     *
+     * @param typeDef type to evaluate
+     * @param knownTypeDefs TypeDefs mapped from their type name
+     * @return list of supertype links (empty for a top-level type) or null if the chain is broken
+     */
+    private List<TypeDefLink> getSuperTypeChain(TypeDef              typeDef,
+                                                Map<String, TypeDef> knownTypeDefs)
+    {
+        List<TypeDefLink> superTypeChain = new ArrayList<>();
+        Set<String>       visitedTypes   = new HashSet<>();
+        TypeDefLink       superTypeLink  = typeDef.getSuperType();
+
+        visitedTypes.add(typeDef.getName());
+
+        while (superTypeLink != null)
+        {
+            String  superTypeName = superTypeLink.getName();
+            TypeDef superTypeDef  = (superTypeName == null) ? null : knownTypeDefs.get(superTypeName);
+
+            if ((superTypeDef == null) || (! visitedTypes.add(superTypeName)))
+            {
+                return null;
+            }
+
+            superTypeChain.add(superTypeLink);
+            superTypeLink = superTypeDef.getSuperType();
+        }
+
+        return superTypeChain;
+    }
+
+
+    /**
+     * Record the properties that the TypeDef defines (not including those it inherits).
+     *
+     * @param typeDef type to evaluate
+     */
+    private void addPropertyLookup(TypeDef typeDef)
+    {
+        List<TypeDefAttribute> propertiesDefinition = typeDef.getPropertiesDefinition();
+
+        if (propertiesDefinition != null)
+        {
+            for (TypeDefAttribute property : propertiesDefinition)
+            {
+                if ((property != null) && (property.getAttributeName() != null))
+                {
+                    propertyToTypeDefNames.computeIfAbsent(property.getAttributeName(), k -> new HashSet<>()).add(typeDef.getName());
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return whether the type has a complete hierarchy in this snapshot.
+     *
+     * @param typeName name of the type
+     * @return boolean
+     */
+    boolean isKnownType(String typeName)
+    {
+        return typeIdsByName.containsKey(typeName);
+    }
+
+
+    /**
+     * Return the supertypes of a known type, starting with its immediate supertype.
+     *
+     * @param typeName name of a known type
+     * @return list of supertype links or null if the type is top-level
+     */
+    List<TypeDefLink> getSuperTypes(String typeName)
+    {
+        return superTypes.get(typeIdsByName.get(typeName));
+    }
+
+
+    /**
+     * Return whether a known type is the expected type or one of its subtypes.
+     *
+     * @param actualTypeName name of a known type
+     * @param expectedTypeName name of the expected type
+     * @return boolean
+     */
+    boolean isTypeOf(String actualTypeName,
+                     String expectedTypeName)
+    {
+        Integer expectedTypeId = typeIdsByName.get(expectedTypeName);
+
+        return (expectedTypeId != null) && (ancestorIds.get(typeIdsByName.get(actualTypeName)).get(expectedTypeId));
+    }
+
+
+    /**
+     * Return whether a known type is the expected type or one of its subtypes.
+     *
+     * @param actualTypeName name of a known type
+     * @param expectedTypeGUID unique identifier of the expected type
+     * @return boolean
+     */
+    boolean isTypeOfByGUID(String actualTypeName,
+                           String expectedTypeGUID)
+    {
+        Integer expectedTypeId = typeIdsByGUID.get(expectedTypeGUID);
+
+        return (expectedTypeId != null) && (ancestorIds.get(typeIdsByName.get(actualTypeName)).get(expectedTypeId));
+    }
+
+
+    /**
+     * Return the names of all the subtypes of a type - at any depth.
+     *
+     * @param superTypeName name of the type
+     * @return new list of type names (the caller may change it) or null if the type is not known or has no subtypes
+     */
+    List<String> getSubTypeNames(String superTypeName)
+    {
+        Integer superTypeId = typeIdsByName.get(superTypeName);
+
+        if (superTypeId == null)
+        {
+            return null;
+        }
+
+        List<String> typeSubTypes = subTypeNames.get(superTypeId);
+
+        if (typeSubTypes == null)
+        {
+            return null;
+        }
+
+        return new ArrayList<>(typeSubTypes);
+    }
+
+
+    /**
+     * Return the names of the TypeDefs that define a property with the supplied name.
+     *
+     * @param propertyName name of the property
+     * @return new set of type names (the caller may change it) or null if no type defines the property
+     */
+    Set<String> getTypeDefNamesForProperty(String propertyName)
+    {
+        Set<String> typeDefNames = propertyToTypeDefNames.get(propertyName);
+
+        if (typeDefNames == null)
+        {
+            return null;
+        }
+
+        return new HashSet<>(typeDefNames);
+    }
+}
@@ -0,0 +1,502 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollectionBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.EndMatchCriteria;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests the merge of the pages returned by each member of the cohort when the enterprise connector is paging
+ * with a continuation token.
+ */
+public class EntitiesAccumulatorTest
+{
+    private static final String repositoryA = "repositoryA";
+    private static final String repositoryB = "repositoryB";
+
+    private static final OMRSRepositoryHelper repositoryHelper = new OMRSRepositoryContentHelper(null);
+
+
+    /**
+     * The pages are interleaved in sequencing order with the guid breaking ties, and the merge stops when the
+     * page is full.
+     */
+    @Test
+    public void testMergeOrdering()
+    {
+        EntitiesAccumulator accumulator = new EntitiesAccumulator(null, null, null);
+
+        accumulator.addEntities(Arrays.asList(getEntity("a9", 9, 1),
+                                              getEntity("a7", 7, 1),
+                                              getEntity("a5", 5, 1),
+                                              getEntity("a3", 3, 1)), repositoryA);
+        accumulator.addEntities(Arrays.asList(getEntity("b8", 8, 1),
+                                              getEntity("b7", 7, 1),
+                                              getEntity("b6", 6, 1)), repositoryB);
+
+        List<EntityDetail> results = accumulator.getResults(null, repositoryHelper, null, null, SequencingOrder.CREATION_DATE_RECENT, 5);
+
+        assertEquals(getGUIDs(results), Arrays.asList("a9", "b8", "b7", "a7", "b6"));
+
+        results = accumulator.getResults(null, repositoryHelper, null, null, SequencingOrder.CREATION_DATE_OLDEST, 0);
+
+        assertEquals(getGUIDs(results), Arrays.asList("a3", "a5", "b6", "a7", "b7", "b8", "a9"));
+    }
+
+
+    /**
+     * A page that is returned out of order by a repository is sorted before it is merged.
+     */
+    @Test
+    public void testMergeUnorderedPage()
+    {
+        EntitiesAccumulator accumulator = new EntitiesAccumulator(null, null, null);
+
+        accumulator.addEntities(Arrays.asList(getEntity("a1", 1, 1),
+                                              getEntity("a3", 3, 1),
+                                              getEntity("a2", 2, 1)), repositoryA);
+        accumulator.addEntities(Arrays.asList(getEntity("b4", 4, 1)), repositoryB);
+
+        List<EntityDetail> results = accumulator.getResults(null, repositoryHelper, null, null, SequencingOrder.CREATION_DATE_OLDEST, 3);
+
+        assertEquals(getGUIDs(results), Arrays.asList("a1", "a2", "a3"));
+    }
+
+
+    /**
+     * An entity returned by more than one repository appears once, in its position, and the latest version is
+     * returned.  Duplicates do not take up space on the page.
+     */
+    @Test
+    public void testDuplicateGUIDs()
+    {
+        EntitiesAccumulator accumulator = new EntitiesAccumulator(null, null, null);
+
+        accumulator.addEntities(Arrays.asList(getEntity("e4", 4, 1),
+                                              getEntity("e3", 3, 1),
+                                              getEntity("e2", 2, 1)), repositoryA);
+        accumulator.addEntities(Arrays.asList(getEntity("e4", 4, 1),
+                                              getEntity("e3", 3, 2),
+                                              getEntity("e1", 1, 1)), repositoryB);
+
+        List<EntityDetail> results = accumulator.getResults(null, repositoryHelper, null, null, SequencingOrder.CREATION_DATE_RECENT, 3);
+
+        assertEquals(getGUIDs(results), Arrays.asList("e4", "e3", "e2"));
+        assertEquals(results.get(1).getVersion(), 2L);
+
+        results = accumulator.getResults(null, repositoryHelper, null, null, SequencingOrder.CREATION_DATE_RECENT, 0);
+
+        assertEquals(getGUIDs(results), Arrays.asList("e4", "e3", "e2", "e1"));
+    }
+
+
+    /**
+     * Entities at or before the token's position (returned by a repository that did not skip them) are skipped.
+     */
+    @Test
+    public void testContinuationPosition()
+    {
+        EntitiesAccumulator accumulator = new EntitiesAccumulator(null, null, null);
+        ContinuationToken   token       = new ContinuationToken(2, "b7", "7");
+
+        accumulator.addEntities(Arrays.asList(getEntity("a9", 9, 1),
+                                              getEntity("b7", 7, 1),
+                                              getEntity("a7", 7, 1),
+                                              getEntity("a5", 5, 1)), repositoryA);
+        accumulator.addEntities(Arrays.asList(getEntity("b6", 6, 1),
+                                              getEntity("a5", 5, 1)), repositoryB);
+
+        List<EntityDetail> results = accumulator.getResults(null, repositoryHelper, token, null, SequencingOrder.CREATION_DATE_RECENT, 10);
+
+        assertEquals(getGUIDs(results), Arrays.asList("a7", "b6", "a5"));
+    }
+
+
+    /**
+     * Nothing after the token's position means no more results.
+     */
+    @Test
+    public void testNoMoreResults()
+    {
+        EntitiesAccumulator accumulator = new EntitiesAccumulator(null, null, null);
+        ContinuationToken   token       = new ContinuationToken(2, "a1", "1");
+
+        accumulator.addEntities(Arrays.asList(getEntity("a2", 2, 1),
+                                              getEntity("a1", 1, 1)), repositoryA);
+
+        assertNull(accumulator.getResults(null, repositoryHelper, token, null, SequencingOrder.CREATION_DATE_RECENT, 10));
+    }
+
+
+    /**
+     * Relationships are merged in the same way as entities.
+     */
+    @Test
+    public void testRelationshipMerge()
+    {
+        RelationshipsAccumulator accumulator = new RelationshipsAccumulator(null, null, null);
+
+        accumulator.addRelationships(Arrays.asList(getRelationship("r1", 1, 1),
+                                                   getRelationship("r3", 3, 1)), repositoryA);
+        accumulator.addRelationships(Arrays.asList(getRelationship("r2", 2, 1),
+                                                   getRelationship("r3", 3, 4)), repositoryB);
+
+        List<Relationship> results = accumulator.getResults(null, repositoryHelper, null, null, SequencingOrder.CREATION_DATE_OLDEST, 0);
+
+        List<String> guids = new ArrayList<>();
+        for (Relationship relationship : results)
+        {
+            guids.add(relationship.getGUID());
+        }
+
+        assertEquals(guids, Arrays.asList("r1", "r2", "r3"));
+        assertEquals(results.get(2).getVersion(), 4L);
+    }
+
+
+    /**
+     * One repository seeks to the token's position and the other can not, so it uses the default implementation
+     * of the continuation token version of findEntities().  Its entities all come after the first page, so it
+     * has returned none of them when the second page is requested.  Every entity is returned once and in order.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test
+    public void testMergeWithNonSeekingRepository() throws Exception
+    {
+        NonSeekingMetadataCollection nonSeekingRepository = new NonSeekingMetadataCollection(repositoryB);
+        List<EntityDetail>           seekingEntities      = new ArrayList<>();
+        List<String>                 expectedGUIDs        = new ArrayList<>();
+
+        for (int createTime = 0; createTime < 12; createTime++)
+        {
+            EntityDetail entity = getEntity(String.format("e%02d", createTime), createTime, 1);
+
+            if ((createTime < 5) || (createTime == 9))
+            {
+                seekingEntities.add(entity);
+            }
+            else
+            {
+                nonSeekingRepository.entities.add(entity);
+            }
+
+            expectedGUIDs.add(entity.getGUID());
+        }
+
+        List<String> receivedGUIDs     = new ArrayList<>();
+        String       continuationToken = null;
+        int          pageNumber        = 0;
+
+        do
+        {
+            EntitiesAccumulator accumulator = new EntitiesAccumulator(null, null, null);
+            ContinuationToken   token       = ContinuationToken.getContinuationToken(continuationToken, "continuationToken", "test");
+
+            accumulator.addEntities(repositoryHelper.formatEntityResults(new ArrayList<>(seekingEntities),
+                                                                         token,
+                                                                         null,
+                                                                         SequencingOrder.CREATION_DATE_OLDEST,
+                                                                         3), repositoryA);
+            accumulator.addEntities(nonSeekingRepository.findEntities("testUser",
+                                                                      null,
+                                                                      null,
+                                                                      false,
+                                                                      null,
+                                                                      continuationToken,
+                                                                      null,
+                                                                      null,
+                                                                      null,
+                                                                      null,
+                                                                      SequencingOrder.CREATION_DATE_OLDEST,
+                                                                      3), repositoryB);
+
+            List<EntityDetail> results = accumulator.getResults(null, repositoryHelper, token, null, SequencingOrder.CREATION_DATE_OLDEST, 3);
+
+            if (results != null)
+            {
+                receivedGUIDs.addAll(getGUIDs(results));
+            }
+
+            if (pageNumber == 1)
+            {
+                assertEquals(getGUIDs(results), Arrays.asList("e03", "e04", "e05"));
+            }
+
+            pageNumber++;
+            continuationToken = repositoryHelper.getNextContinuationToken(continuationToken, results, null, SequencingOrder.CREATION_DATE_OLDEST, 3);
+        }
+        while (continuationToken != null);
+
+        assertEquals(receivedGUIDs, expectedGUIDs);
+    }
+
+
+    /**
+     * Relationships from a repository that can not seek are merged in the same way as entities.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test
+    public void testRelationshipMergeWithNonSeekingRepository() throws Exception
+    {
+        NonSeekingMetadataCollection nonSeekingRepository = new NonSeekingMetadataCollection(repositoryB);
+        List<Relationship>           seekingRelationships = new ArrayList<>();
+
+        for (int createTime = 0; createTime < 4; createTime++)
+        {
+            seekingRelationships.add(getRelationship(String.format("r%02d", createTime), createTime, 1));
+            nonSeekingRepository.relationships.add(getRelationship(String.format("r%02d", createTime + 4), createTime + 4, 1));
+        }
+
+        /*
+         * The second page starts after r01.  The repository that can not seek has none of its relationships
+         * on the first page, so its first three relationships must still be available.
+         */
+        ContinuationToken        token       = new ContinuationToken(2, "r01", "1");
+        RelationshipsAccumulator accumulator = new RelationshipsAccumulator(null, null, null);
+
+        accumulator.addRelationships(repositoryHelper.formatRelationshipResults(new ArrayList<>(seekingRelationships),
+                                                                                token,
+                                                                                null,
+                                                                                SequencingOrder.CREATION_DATE_OLDEST,
+                                                                                3), repositoryA);
+        accumulator.addRelationships(nonSeekingRepository.findRelationships("testUser",
+                                                                            null,
+                                                                            null,
+                                                                            false,
+                                                                            null,
+                                                                            null,
+                                                                            null,
+                                                                            null,
+                                                                            token.getToken(),
+                                                                            null,
+                                                                            null,
+                                                                            null,
+                                                                            SequencingOrder.CREATION_DATE_OLDEST,
+                                                                            3), repositoryB);
+
+        List<Relationship> results = accumulator.getResults(null, repositoryHelper, token, null, SequencingOrder.CREATION_DATE_OLDEST, 3);
+
+        List<String> guids = new ArrayList<>();
+        for (Relationship relationship : results)
+        {
+            guids.add(relationship.getGUID());
+        }
+
+        assertEquals(guids, Arrays.asList("r02", "r03", "r04"));
+    }
+
+
+    /**
+     * Create an entity.
+     *
+     * @param guid unique identifier
+     * @param createTime create time in milliseconds
+     * @param version version
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid,
+                                   long   createTime,
+                                   long   version)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setCreateTime(new Date(createTime));
+        entity.setVersion(version);
+
+        return entity;
+    }
+
+
+    /**
+     * Create a relationship.
+     *
+     * @param guid unique identifier
+     * @param createTime create time in milliseconds
+     * @param version version
+     * @return relationship
+     */
+    private Relationship getRelationship(String guid,
+                                         long   createTime,
+                                         long   version)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setCreateTime(new Date(createTime));
+        relationship.setVersion(version);
+
+        return relationship;
+    }
+
+
+    /**
+     * Return the guids of the entities in order.
+     *
+     * @param entities list of entities
+     * @return list of guids
+     */
+    private List<String> getGUIDs(List<EntityDetail> entities)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (EntityDetail entity : entities)
+        {
+            guids.add(entity.getGUID());
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Return a page of instances, in continuation order, starting at an element number.
+     *
+     * @param instances all instances
+     * @param fromElement starting element number
+     * @param sequencingOrder sequencing order
+     * @param pageSize maximum number of instances - zero means unrestricted
+     * @return page or null
+     * @param <T> type of instance
+     */
+    private static <T extends InstanceHeader> List<T> getPage(List<T>         instances,
+                                                              int             fromElement,
+                                                              SequencingOrder sequencingOrder,
+                                                              int             pageSize)
+    {
+        List<T> sortedInstances = new ArrayList<>(instances);
+
+        sortedInstances.sort(repositoryHelper.getContinuationComparator(null, sequencingOrder));
+
+        if (fromElement >= sortedInstances.size())
+        {
+            return null;
+        }
+
+        int toElement = sortedInstances.size();
+
+        if ((pageSize != 0) && (fromElement + pageSize < toElement))
+        {
+            toElement = fromElement + pageSize;
+        }
+
+        return new ArrayList<>(sortedInstances.subList(fromElement, toElement));
+    }
+
+
+    /**
+     * A repository that can only page by element number.  It uses the default implementations of the continuation
+     * token versions of findEntities() and findRelationships().
+     */
+    private static class NonSeekingMetadataCollection extends OMRSMetadataCollectionBase
+    {
+        final List<EntityDetail> entities      = new ArrayList<>();
+        final List<Relationship> relationships = new ArrayList<>();
+
+
+        /**
+         * Constructor.
+         *
+         * @param metadataCollectionId unique identifier of the repository
+         */
+        NonSeekingMetadataCollection(String metadataCollectionId)
+        {
+            super(null, metadataCollectionId, EntitiesAccumulatorTest.repositoryHelper, null, metadataCollectionId);
+        }
+
+
+        /**
+         * Return a page of entities in the requested order starting at an element number.
+         *
+         * @param userId calling user
+         * @param entityTypeGUID ignored
+         * @param entitySubtypeGUIDs ignored
+         * @param skipSubtypes ignored
+         * @param searchProperties ignored
+         * @param fromEntityElement starting element number
+         * @param limitResultsByStatus ignored
+         * @param searchClassifications ignored
+         * @param asOfTime ignored
+         * @param sequencingProperty ignored
+         * @param sequencingOrder sequencing order
+         * @param pageSize maximum number of entities - zero means unrestricted
+         * @return page of entities or null
+         */
+        @Override
+        public List<EntityDetail> findEntities(String                userId,
+                                               String                entityTypeGUID,
+                                               List<String>          entitySubtypeGUIDs,
+                                               boolean               skipSubtypes,
+                                               SearchProperties      searchProperties,
+                                               int                   fromEntityElement,
+                                               List<InstanceStatus>  limitResultsByStatus,
+                                               SearchClassifications searchClassifications,
+                                               Date                  asOfTime,
+                                               String                sequencingProperty,
+                                               SequencingOrder       sequencingOrder,
+                                               int                   pageSize)
+        {
+            return getPage(entities, fromEntityElement, sequencingOrder, pageSize);
+        }
+
+
+        /**
+         * Return a page of relationships in the requested order starting at an element number.
+         *
+         * @param userId calling user
+         * @param relationshipTypeGUID ignored
+         * @param relationshipSubtypeGUIDs ignored
+         * @param skipSubtypes ignored
+         * @param end1EntityGUIDs ignored
+         * @param end2EntityGUIDs ignored
+         * @param endMatchCriteria ignored
+         * @param matchProperties ignored
+         * @param fromRelationshipElement starting element number
+         * @param limitResultsByStatus ignored
+         * @param asOfTime ignored
+         * @param sequencingProperty ignored
+         * @param sequencingOrder sequencing order
+         * @param pageSize maximum number of relationships - zero means unrestricted
+         * @return page of relationships or null
+         */
+        @Override
+        public List<Relationship> findRelationships(String               userId,
+                                                    String               relationshipTypeGUID,
+                                                    List<String>         relationshipSubtypeGUIDs,
+                                                    boolean              skipSubtypes,
+                                                    List<String>         end1EntityGUIDs,
+                                                    List<String>         end2EntityGUIDs,
+                                                    EndMatchCriteria     endMatchCriteria,
+                                                    SearchProperties     matchProperties,
+                                                    int                  fromRelationshipElement,
+                                                    List<InstanceStatus> limitResultsByStatus,
+                                                    Date                 asOfTime,
+                                                    String               sequencingProperty,
+                                                    SequencingOrder      sequencingOrder,
+                                                    int                  pageSize)
+        {
+            return getPage(relationships, fromRelationshipElement, sequencingOrder, pageSize);
+        }
+    }
+}
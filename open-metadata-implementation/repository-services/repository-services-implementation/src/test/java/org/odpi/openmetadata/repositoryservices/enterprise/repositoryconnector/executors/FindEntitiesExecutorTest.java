@@ -0,0 +1,422 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
+
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollectionBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Pages through the results of findEntities() from two members of the cohort using continuation tokens.  One
+ * member seeks to the token's position and the other can only page by element number.
+ */
+public class FindEntitiesExecutorTest
+{
+    private static final String               userId           = "testUser";
+    private static final String               methodName       = "findEntities";
+    private static final SequencingOrder      sequencingOrder  = SequencingOrder.CREATION_DATE_OLDEST;
+    private static final OMRSRepositoryHelper repositoryHelper = new OMRSRepositoryContentHelper(null);
+
+
+    /**
+     * Every entity from both members is returned exactly once and in order, even though most of the non-seeking
+     * member's entities come after the first few pages.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test
+    public void testNoEntitiesLostBetweenPages() throws Exception
+    {
+        TestMetadataCollection seekingMember    = new SeekingTestMetadataCollection("seekingMember");
+        TestMetadataCollection nonSeekingMember = new TestMetadataCollection("nonSeekingMember");
+        List<String>           expectedGUIDs    = new ArrayList<>();
+
+        for (int createTime = 0; createTime < 25; createTime++)
+        {
+            if (createTime < 10)
+            {
+                seekingMember.addEntity(getEntity(createTime, "a"));
+                expectedGUIDs.add(getGUID(createTime, "a"));
+            }
+
+            if (createTime >= 5)
+            {
+                nonSeekingMember.addEntity(getEntity(createTime, "b"));
+                expectedGUIDs.add(getGUID(createTime, "b"));
+            }
+        }
+
+        /*
+         * An entity that both members hold (eg a reference copy) is only returned once.
+         */
+        seekingMember.addEntity(getEntity(7, "c"));
+        nonSeekingMember.addEntity(getEntity(7, "c"));
+        expectedGUIDs.add(expectedGUIDs.indexOf(getGUID(7, "b")) + 1, getGUID(7, "c"));
+
+        assertEquals(this.getAllPages(seekingMember, nonSeekingMember, 3), expectedGUIDs);
+        assertEquals(this.getAllPages(seekingMember, nonSeekingMember, 4), expectedGUIDs);
+        assertEquals(this.getAllPages(nonSeekingMember, seekingMember, 7), expectedGUIDs);
+    }
+
+
+    /**
+     * Entities removed from the non-seeking member ahead of the position, and entities added behind it, do not
+     * cause any of its remaining entities to be skipped.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test
+    public void testChangesAheadOfPosition() throws Exception
+    {
+        TestMetadataCollection seekingMember    = new SeekingTestMetadataCollection("seekingMember");
+        TestMetadataCollection nonSeekingMember = new TestMetadataCollection("nonSeekingMember");
+
+        for (int createTime = 0; createTime < 6; createTime++)
+        {
+            seekingMember.addEntity(getEntity(createTime * 2, "a"));
+            nonSeekingMember.addEntity(getEntity(createTime * 2 + 1, "b"));
+        }
+
+        List<String>       receivedGUIDs = new ArrayList<>();
+        List<EntityDetail> page          = this.getPage(null, 4, seekingMember, nonSeekingMember);
+
+        receivedGUIDs.addAll(getGUIDs(page));
+        assertEquals(receivedGUIDs, List.of("a00", "b01", "a02", "b03"));
+
+        String continuationToken = repositoryHelper.getNextContinuationToken(null, page, null, sequencingOrder, 4);
+
+        nonSeekingMember.removeEntity("b01");
+        nonSeekingMember.removeEntity("b03");
+        nonSeekingMember.addEntity(getEntity(2, "d"));
+
+        while (continuationToken != null)
+        {
+            page = this.getPage(continuationToken, 4, seekingMember, nonSeekingMember);
+
+            if (page != null)
+            {
+                receivedGUIDs.addAll(getGUIDs(page));
+            }
+
+            continuationToken = repositoryHelper.getNextContinuationToken(continuationToken, page, null, sequencingOrder, 4);
+        }
+
+        assertEquals(receivedGUIDs, List.of("a00", "b01", "a02", "b03", "a04", "b05", "a06", "b07", "a08", "b09", "a10", "b11"));
+    }
+
+
+    /**
+     * A token that is not valid is rejected.
+     *
+     * @throws Exception unexpected error
+     */
+    @Test(expectedExceptions = InvalidParameterException.class)
+    public void testInvalidToken() throws Exception
+    {
+        this.getPage("not a token", 3, new TestMetadataCollection("nonSeekingMember"));
+    }
+
+
+    /**
+     * Page through all the results from the two members.
+     *
+     * @param firstMember member called first
+     * @param secondMember member called second
+     * @param pageSize maximum number of entities on each page
+     * @return guids of the entities in the order they were returned
+     * @throws Exception unexpected error
+     */
+    private List<String> getAllPages(TestMetadataCollection firstMember,
+                                     TestMetadataCollection secondMember,
+                                     int                    pageSize) throws Exception
+    {
+        List<String> receivedGUIDs     = new ArrayList<>();
+        String       continuationToken = null;
+
+        do
+        {
+            List<EntityDetail> page = this.getPage(continuationToken, pageSize, firstMember, secondMember);
+
+            if (page != null)
+            {
+                receivedGUIDs.addAll(getGUIDs(page));
+            }
+
+            continuationToken = repositoryHelper.getNextContinuationToken(continuationToken, page, null, sequencingOrder, pageSize);
+        }
+        while (continuationToken != null);
+
+        return receivedGUIDs;
+    }
+
+
+    /**
+     * Retrieve one page through the executor in the same way as the enterprise connector.
+     *
+     * @param continuationToken token for the page or null for the first page
+     * @param pageSize maximum number of entities on the page
+     * @param members members of the cohort
+     * @return merged page
+     * @throws Exception unexpected error
+     */
+    private List<EntityDetail> getPage(String                    continuationToken,
+                                       int                       pageSize,
+                                       TestMetadataCollection... members) throws Exception
+    {
+        FindEntitiesExecutor executor = new FindEntitiesExecutor(userId,
+                                                                 null,
+                                                                 null,
+                                                                 false,
+                                                                 null,
+                                                                 0,
+                                                                 continuationToken,
+                                                                 null,
+                                                                 null,
+                                                                 null,
+                                                                 null,
+                                                                 sequencingOrder,
+                                                                 pageSize,
+                                                                 null,
+                                                                 null,
+                                                                 null,
+                                                                 methodName);
+
+        for (TestMetadataCollection member : members)
+        {
+            executor.issueRequestToRepository(member.getMetadataCollectionId(userId), member);
+        }
+
+        return executor.getPagedResults(null, repositoryHelper);
+    }
+
+
+    /**
+     * Return the guid of a test entity.
+     *
+     * @param createTime create time in milliseconds
+     * @param prefix identifies the member
+     * @return guid
+     */
+    private static String getGUID(int    createTime,
+                                  String prefix)
+    {
+        return String.format("%s%02d", prefix, createTime);
+    }
+
+
+    /**
+     * Create an entity.
+     *
+     * @param createTime create time in milliseconds
+     * @param prefix identifies the member
+     * @return entity
+     */
+    private static EntityDetail getEntity(int    createTime,
+                                          String prefix)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(getGUID(createTime, prefix));
+        entity.setCreateTime(new Date(createTime));
+        entity.setVersion(1L);
+
+        return entity;
+    }
+
+
+    /**
+     * Return the guids of the entities in order.
+     *
+     * @param entities list of entities
+     * @return list of guids
+     */
+    private static List<String> getGUIDs(List<EntityDetail> entities)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (EntityDetail entity : entities)
+        {
+            guids.add(entity.getGUID());
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * A member of the cohort that can only page by element number.  It uses the default implementation of the
+     * continuation token version of findEntities().
+     */
+    private static class TestMetadataCollection extends OMRSMetadataCollectionBase
+    {
+        final List<EntityDetail> entities = new ArrayList<>();
+
+
+        /**
+         * Constructor.
+         *
+         * @param metadataCollectionId unique identifier of the member
+         */
+        TestMetadataCollection(String metadataCollectionId)
+        {
+            super(null, metadataCollectionId, FindEntitiesExecutorTest.repositoryHelper, null, metadataCollectionId);
+        }
+
+
+        /**
+         * Store an entity.
+         *
+         * @param entity entity
+         */
+        void addEntity(EntityDetail entity)
+        {
+            entities.add(entity);
+        }
+
+
+        /**
+         * Remove an entity.
+         *
+         * @param guid unique identifier of the entity
+         */
+        void removeEntity(String guid)
+        {
+            entities.removeIf(entity -> guid.equals(entity.getGUID()));
+        }
+
+
+        /**
+         * Return the id of the metadata collection.
+         *
+         * @param userId calling user
+         * @return metadata collection id
+         */
+        @Override
+        public String getMetadataCollectionId(String userId)
+        {
+            return metadataCollectionId;
+        }
+
+
+        /**
+         * Return a page of entities in the requested order starting at an element number.
+         *
+         * @param userId calling user
+         * @param entityTypeGUID ignored
+         * @param entitySubtypeGUIDs ignored
+         * @param skipSubtypes ignored
+         * @param searchProperties ignored
+         * @param fromEntityElement starting element number
+         * @param limitResultsByStatus ignored
+         * @param searchClassifications ignored
+         * @param asOfTime ignored
+         * @param sequencingProperty name of the sequencing property
+         * @param sequencingOrder sequencing order
+         * @param pageSize maximum number of entities - zero means unrestricted
+         * @return page of entities or null
+         */
+        @Override
+        public List<EntityDetail> findEntities(String                userId,
+                                               String                entityTypeGUID,
+                                               List<String>          entitySubtypeGUIDs,
+                                               boolean               skipSubtypes,
+                                               SearchProperties      searchProperties,
+                                               int                   fromEntityElement,
+                                               List<InstanceStatus>  limitResultsByStatus,
+                                               SearchClassifications searchClassifications,
+                                               Date                  asOfTime,
+                                               String                sequencingProperty,
+                                               SequencingOrder       sequencingOrder,
+                                               int                   pageSize)
+        {
+            List<EntityDetail> sortedEntities = new ArrayList<>(entities);
+
+            sortedEntities.sort(repositoryHelper.getContinuationComparator(sequencingProperty, sequencingOrder));
+
+            if (fromEntityElement >= sortedEntities.size())
+            {
+                return null;
+            }
+
+            int toElement = sortedEntities.size();
+
+            if ((pageSize != 0) && (fromEntityElement + pageSize < toElement))
+            {
+                toElement = fromEntityElement + pageSize;
+            }
+
+            return new ArrayList<>(sortedEntities.subList(fromEntityElement, toElement));
+        }
+    }
+
+
+    /**
+     * A member of the cohort that seeks to the token's position.
+     */
+    private static class SeekingTestMetadataCollection extends TestMetadataCollection
+    {
+        /**
+         * Constructor.
+         *
+         * @param metadataCollectionId unique identifier of the member
+         */
+        SeekingTestMetadataCollection(String metadataCollectionId)
+        {
+            super(metadataCollectionId);
+        }
+
+
+        /**
+         * Return the page of entities that follows the token's position.
+         *
+         * @param userId calling user
+         * @param entityTypeGUID ignored
+         * @param entitySubtypeGUIDs ignored
+         * @param skipSubtypes ignored
+         * @param searchProperties ignored
+         * @param continuationToken token from the previous page
+         * @param limitResultsByStatus ignored
+         * @param searchClassifications ignored
+         * @param asOfTime ignored
+         * @param sequencingProperty name of the sequencing property
+         * @param sequencingOrder sequencing order
+         * @param pageSize maximum number of entities - zero means unrestricted
+         * @return page of entities or null
+         * @throws InvalidParameterException the token is not valid
+         */
+        @Override
+        public List<EntityDetail> findEntities(String                userId,
+                                               String                entityTypeGUID,
+                                               List<String>          entitySubtypeGUIDs,
+                                               boolean               skipSubtypes,
+                                               SearchProperties      searchProperties,
+                                               String                continuationToken,
+                                               List<InstanceStatus>  limitResultsByStatus,
+                                               SearchClassifications searchClassifications,
+                                               Date                  asOfTime,
+                                               String                sequencingProperty,
+                                               SequencingOrder       sequencingOrder,
+                                               int                   pageSize) throws InvalidParameterException
+        {
+            return repositoryHelper.formatEntityResults(new ArrayList<>(entities),
+                                                        ContinuationToken.getContinuationToken(continuationToken, "continuationToken", methodName),
+                                                        sequencingProperty,
+                                                        sequencingOrder,
+                                                        pageSize);
+        }
+    }
+}
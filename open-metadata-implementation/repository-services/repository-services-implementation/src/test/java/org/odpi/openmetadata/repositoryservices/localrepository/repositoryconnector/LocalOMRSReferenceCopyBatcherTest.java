@@ -0,0 +1,439 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector;
+
+import org.odpi.openmetadata.adminservices.configuration.properties.OpenMetadataExchangeRule;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.auditlog.ComponentDevelopmentStatus;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollectionBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProvenanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventExchangeRule;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentManager;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentValidator;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the batching of reference copy saves by LocalOMRSReferenceCopyBatcher and LocalOMRSInstanceEventProcessor.
+ */
+public class LocalOMRSReferenceCopyBatcherTest
+{
+    private static final String sourceName                = "unittest";
+    private static final String localMetadataCollectionId = "local-metadata-collection";
+    private static final String remoteMetadataCollectionId = "remote-metadata-collection";
+    private static final String entityTypeName           = "BatchTestEntity";
+
+
+    /**
+     * A batch is saved as soon as it is full, without waiting for the timer.
+     */
+    @Test
+    public void testFlushOnSize()
+    {
+        List<List<String>>            batches = Collections.synchronizedList(new ArrayList<>());
+        LocalOMRSReferenceCopyBatcher batcher = new LocalOMRSReferenceCopyBatcher((entities, relationships) -> batches.add(getGUIDs(entities)),
+                                                                                  3,
+                                                                                  60000);
+
+        try
+        {
+            EntityDetail entityOne = getEntity(null, "entity-1");
+
+            batcher.queueEntity(queued(entityOne));
+            batcher.queueEntity(queued(getEntity(null, "entity-2")));
+            assertTrue(batches.isEmpty());
+
+            /*
+             * A later version of a queued entity replaces it rather than adding to the batch.
+             */
+            EntityDetail updatedEntityOne = getEntity(null, "entity-1");
+
+            updatedEntityOne.setVersion(2L);
+            batcher.queueEntity(queued(updatedEntityOne));
+            assertTrue(batches.isEmpty());
+            assertEquals(batcher.getSupersededCount(), 1L);
+            assertEquals(batcher.getQueuedEntity("entity-1").getVersion(), 2L);
+
+            batcher.queueEntity(queued(getEntity(null, "entity-3")));
+
+            assertEquals(batches.size(), 1);
+            assertEquals(batches.get(0), List.of("entity-1", "entity-2", "entity-3"));
+            assertEquals(batcher.getQueuedEntity("entity-1"), null);
+        }
+        finally
+        {
+            batcher.shutdown();
+        }
+    }
+
+
+    /**
+     * A batch that does not fill up is saved when its first copy has waited for the maximum delay.
+     *
+     * @throws InterruptedException interrupted while waiting for the timer
+     */
+    @Test
+    public void testFlushOnTimer() throws InterruptedException
+    {
+        List<List<String>>            batches = Collections.synchronizedList(new ArrayList<>());
+        LocalOMRSReferenceCopyBatcher batcher = new LocalOMRSReferenceCopyBatcher((entities, relationships) -> batches.add(getGUIDs(entities)),
+                                                                                  100,
+                                                                                  50);
+
+        try
+        {
+            batcher.queueEntity(queued(getEntity(null, "entity-1")));
+            batcher.queueEntity(queued(getEntity(null, "entity-2")));
+
+            long deadline = System.currentTimeMillis() + 10000;
+
+            while ((batches.isEmpty()) && (System.currentTimeMillis() < deadline))
+            {
+                Thread.sleep(10);
+            }
+
+            assertEquals(batches.size(), 1);
+            assertEquals(batches.get(0), List.of("entity-1", "entity-2"));
+        }
+        finally
+        {
+            batcher.shutdown();
+        }
+    }
+
+
+    /**
+     * Queued copies are saved before an event that is not batched is processed.
+     *
+     * @throws Exception problem setting up the event processor
+     */
+    @Test
+    public void testFlushBeforeNonBatchedEvent() throws Exception
+    {
+        TestMetadataCollection          metadataCollection = new TestMetadataCollection();
+        OMRSRepositoryContentManager    contentManager     = getContentManager();
+        LocalOMRSInstanceEventProcessor eventProcessor     = getEventProcessor(contentManager, metadataCollection, 100, 60000);
+
+        try
+        {
+            eventProcessor.processNewEntityEvent(sourceName,
+                                                 remoteMetadataCollectionId,
+                                                 "remoteServer",
+                                                 null,
+                                                 null,
+                                                 getEntity(contentManager, "entity-1"));
+
+            assertTrue(metadataCollection.saves.isEmpty());
+
+            eventProcessor.processRestoredEntityEvent(sourceName,
+                                                      remoteMetadataCollectionId,
+                                                      "remoteServer",
+                                                      null,
+                                                      null,
+                                                      getEntity(contentManager, "entity-2"));
+
+            assertEquals(metadataCollection.saves, List.of("batch:[entity-1]", "single:entity-2"));
+        }
+        finally
+        {
+            eventProcessor.shutdown();
+        }
+    }
+
+
+    /**
+     * If the repository rejects a batch, each copy is saved on its own so that one bad copy does not lose the rest.
+     *
+     * @throws Exception problem setting up the event processor
+     */
+    @Test
+    public void testFallbackWhenBatchFails() throws Exception
+    {
+        TestMetadataCollection          metadataCollection = new TestMetadataCollection();
+        OMRSRepositoryContentManager    contentManager     = getContentManager();
+        LocalOMRSInstanceEventProcessor eventProcessor     = getEventProcessor(contentManager, metadataCollection, 3, 60000);
+
+        metadataCollection.failBatches = true;
+        metadataCollection.rejectedGUIDs.add("entity-2");
+
+        try
+        {
+            for (String guid : new String[]{"entity-1", "entity-2", "entity-3"})
+            {
+                eventProcessor.processNewEntityEvent(sourceName,
+                                                     remoteMetadataCollectionId,
+                                                     "remoteServer",
+                                                     null,
+                                                     null,
+                                                     getEntity(contentManager, guid));
+            }
+
+            assertEquals(metadataCollection.saves, List.of("single:entity-1", "rejected:entity-2", "single:entity-3"));
+        }
+        finally
+        {
+            eventProcessor.shutdown();
+        }
+    }
+
+
+    /**
+     * Return a content manager that knows the entity type used in the tests.
+     *
+     * @return content manager
+     */
+    private OMRSRepositoryContentManager getContentManager()
+    {
+        AuditLog                     auditLog       = new AuditLog(null, 1, ComponentDevelopmentStatus.IN_DEVELOPMENT, null, null, null);
+        OMRSRepositoryContentManager contentManager = new OMRSRepositoryContentManager("testserver", auditLog);
+        EntityDef                    entityDef      = new EntityDef();
+
+        entityDef.setName(entityTypeName);
+        entityDef.setGUID(UUID.randomUUID().toString());
+        entityDef.setVersion(1);
+        entityDef.setVersionName("1.0");
+        entityDef.setValidInstanceStatusList(List.of(InstanceStatus.ACTIVE, InstanceStatus.DELETED));
+
+        contentManager.addTypeDef(sourceName, entityDef);
+
+        return contentManager;
+    }
+
+
+    /**
+     * Return an event processor that saves reference copies to the test metadata collection.
+     *
+     * @param contentManager content manager with the test types
+     * @param metadataCollection test metadata collection
+     * @param batchSize maximum batch size
+     * @param batchDelay maximum batch delay
+     * @return event processor
+     */
+    private LocalOMRSInstanceEventProcessor getEventProcessor(OMRSRepositoryContentManager contentManager,
+                                                              TestMetadataCollection       metadataCollection,
+                                                              int                          batchSize,
+                                                              int                          batchDelay)
+    {
+        OMRSRepositoryContentHelper    repositoryHelper    = new OMRSRepositoryContentHelper(contentManager);
+        OMRSRepositoryContentValidator repositoryValidator = new OMRSRepositoryContentValidator(contentManager);
+        TestRepositoryConnector        repositoryConnector = new TestRepositoryConnector(metadataCollection);
+
+        return new LocalOMRSInstanceEventProcessor(localMetadataCollectionId,
+                                                   "testserver",
+                                                   repositoryConnector,
+                                                   repositoryHelper,
+                                                   repositoryValidator,
+                                                   new OMRSRepositoryEventExchangeRule(OpenMetadataExchangeRule.ALL, null, null, null, null, sourceName),
+                                                   false,
+                                                   null,
+                                                   batchSize,
+                                                   batchDelay,
+                                                   new AuditLog(null, 1, ComponentDevelopmentStatus.IN_DEVELOPMENT, null, null, null));
+    }
+
+
+    /**
+     * Return a reference copy of an entity.
+     *
+     * @param contentManager content manager used to look up the type, or null if the type is not needed
+     * @param guid unique identifier of the entity
+     * @return entity
+     * @throws RuntimeException the type is not known
+     */
+    private EntityDetail getEntity(OMRSRepositoryContentManager contentManager,
+                                   String                       guid)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setMetadataCollectionId(remoteMetadataCollectionId);
+        entity.setInstanceProvenanceType(InstanceProvenanceType.LOCAL_COHORT);
+        entity.setStatus(InstanceStatus.ACTIVE);
+        entity.setVersion(1L);
+
+        if (contentManager != null)
+        {
+            try
+            {
+                entity.setType(contentManager.getInstanceType(sourceName, TypeDefCategory.ENTITY_DEF, entityTypeName, "getEntity"));
+            }
+            catch (Exception error)
+            {
+                throw new RuntimeException(error);
+            }
+        }
+
+        return entity;
+    }
+
+
+    /**
+     * Wrap an entity as a queued reference copy.
+     *
+     * @param entity entity
+     * @return queued copy
+     */
+    private LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<EntityDetail> queued(EntityDetail entity)
+    {
+        return new LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<>(entity, "test", "remoteServer", remoteMetadataCollectionId);
+    }
+
+
+    /**
+     * Return the unique identifiers of the queued entities.
+     *
+     * @param entities queued entities
+     * @return list of guids
+     */
+    private static List<String> getGUIDs(List<LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<EntityDetail>> entities)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (LocalOMRSReferenceCopyBatcher.QueuedReferenceCopy<EntityDetail> entity : entities)
+        {
+            guids.add(entity.getInstance().getGUID());
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Repository connector that returns the test metadata collection.
+     */
+    private static class TestRepositoryConnector extends OMRSRepositoryConnector
+    {
+        /**
+         * Constructor supplies the metadata collection.
+         *
+         * @param metadataCollection test metadata collection
+         */
+        TestRepositoryConnector(TestMetadataCollection metadataCollection)
+        {
+            super.metadataCollection = metadataCollection;
+            super.serverUserId       = "testUser";
+        }
+    }
+
+
+    /**
+     * Metadata collection that records the reference copies it is asked to save.
+     */
+    private static class TestMetadataCollection extends OMRSMetadataCollectionBase
+    {
+        private final List<String> saves         = Collections.synchronizedList(new ArrayList<>());
+        private final Set<String>  rejectedGUIDs = ConcurrentHashMap.newKeySet();
+        private volatile boolean   failBatches   = false;
+
+
+        /**
+         * Default constructor.
+         */
+        TestMetadataCollection()
+        {
+            super(null, "testRepository", null, null, localMetadataCollectionId);
+        }
+
+
+        /**
+         * No entities are stored.
+         *
+         * @param userId calling user
+         * @param guid unique identifier of the entity
+         * @return null
+         */
+        @Override
+        public EntityDetail isEntityKnown(String userId,
+                                          String guid)
+        {
+            return null;
+        }
+
+
+        /**
+         * Record the save of a single entity, or reject it.
+         *
+         * @param userId calling user
+         * @param entity entity to save
+         * @throws InvalidParameterException the test has asked for this entity to be rejected
+         */
+        @Override
+        public void saveEntityReferenceCopy(String       userId,
+                                            EntityDetail entity) throws InvalidParameterException
+        {
+            if (rejectedGUIDs.contains(entity.getGUID()))
+            {
+                saves.add("rejected:" + entity.getGUID());
+
+                throw new InvalidParameterException(OMRSErrorCode.NULL_REFERENCE_INSTANCE.getMessageDefinition(sourceName, "saveEntityReferenceCopy"),
+                                                    this.getClass().getName(),
+                                                    "saveEntityReferenceCopy",
+                                                    "entity");
+            }
+
+            saves.add("single:" + entity.getGUID());
+        }
+
+
+        /**
+         * Record the save of a batch of entities, or reject it.
+         *
+         * @param userId calling user
+         * @param entities entities to save
+         * @throws RepositoryErrorException the test has asked for batches to be rejected
+         */
+        @Override
+        public void saveEntityReferenceCopies(String             userId,
+                                              List<EntityDetail> entities) throws RepositoryErrorException
+        {
+            if (failBatches)
+            {
+                throw new RepositoryErrorException(OMRSErrorCode.NULL_METADATA_COLLECTION.getMessageDefinition("testRepository"),
+                                                   this.getClass().getName(),
+                                                   "saveEntityReferenceCopies");
+            }
+
+            List<String> guids = new ArrayList<>();
+
+            for (EntityDetail entity : entities)
+            {
+                guids.add(entity.getGUID());
+            }
+
+            saves.add("batch:" + guids);
+        }
+
+
+        /**
+         * Record the save of a batch of relationships.
+         *
+         * @param userId calling user
+         * @param relationships relationships to save
+         */
+        @Override
+        public void saveRelationshipReferenceCopies(String             userId,
+                                                    List<Relationship> relationships)
+        {
+            saves.add("relationships:" + relationships.size());
+        }
+    }
+}
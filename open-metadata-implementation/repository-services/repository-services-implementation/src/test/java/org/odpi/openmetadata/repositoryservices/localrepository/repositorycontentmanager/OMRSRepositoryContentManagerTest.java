@@ -7,15 +7,23 @@ import org.odpi.openmetadata.frameworks.auditlog.ComponentDevelopmentStatus;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 public class OMRSRepositoryContentManagerTest
 {
@@ -45,4 +53,162 @@ public class OMRSRepositoryContentManagerTest
         assertEquals(instanceType.getTypeDefName(), "EntityType1");
         assertEquals(instanceType.getTypeDefGUID(), entityDefGUID);
     }
+
+
+    /**
+     * Build an entity type and add it to the content manager.
+     *
+     * @param contentManager content manager to add to
+     * @param typeName name of the type
+     * @param superType supertype or null for a top-level type
+     * @param propertyNames names of the properties the type defines
+     * @return new type
+     */
+    private EntityDef addEntityDef(OMRSRepositoryContentManager contentManager,
+                                   String                       typeName,
+                                   EntityDef                    superType,
+                                   String...                    propertyNames)
+    {
+        EntityDef entityDef = new EntityDef();
+        entityDef.setName(typeName);
+        entityDef.setVersion(1);
+        entityDef.setVersionName("1.0");
+        entityDef.setGUID(UUID.randomUUID().toString());
+        entityDef.setValidInstanceStatusList(List.of(InstanceStatus.ACTIVE, InstanceStatus.DELETED));
+
+        if (superType != null)
+        {
+            TypeDefLink superTypeLink = new TypeDefLink();
+            superTypeLink.setGUID(superType.getGUID());
+            superTypeLink.setName(superType.getName());
+            entityDef.setSuperType(superTypeLink);
+        }
+
+        List<TypeDefAttribute> properties = new ArrayList<>();
+
+        for (String propertyName : propertyNames)
+        {
+            TypeDefAttribute property = new TypeDefAttribute();
+            property.setAttributeName(propertyName);
+            properties.add(property);
+        }
+
+        entityDef.setPropertiesDefinition(properties);
+
+        contentManager.addTypeDef("unittest", entityDef);
+
+        return entityDef;
+    }
+
+
+    /**
+     * Return the names of the supertypes of a type, nearest first.
+     *
+     * @param contentManager content manager
+     * @param typeName name of the type
+     * @return list of names
+     */
+    private List<String> getSuperTypeNames(OMRSRepositoryContentManager contentManager,
+                                           String                       typeName)
+    {
+        List<String> superTypeNames = new ArrayList<>();
+
+        for (TypeDefLink superType : contentManager.getSuperTypes("unittest", typeName, "getSuperTypeNames"))
+        {
+            superTypeNames.add(superType.getName());
+        }
+
+        return superTypeNames;
+    }
+
+
+    @Test
+    public void testSubTypeClosure()
+    {
+        AuditLog auditLog = new AuditLog(null, 1, ComponentDevelopmentStatus.IN_DEVELOPMENT, null, null, null);
+        OMRSRepositoryContentManager testSubject = new OMRSRepositoryContentManager("testserver", auditLog);
+
+        EntityDef referenceable = addEntityDef(testSubject, "Referenceable", null);
+        EntityDef asset         = addEntityDef(testSubject, "Asset", referenceable);
+        EntityDef dataSet       = addEntityDef(testSubject, "DataSet", asset);
+        addEntityDef(testSubject, "Glossary", referenceable);
+        addEntityDef(testSubject, "Unrelated", null);
+
+        assertEquals(new HashSet<>(testSubject.getSubTypesOf("Referenceable")), Set.of("Asset", "DataSet", "Glossary"));
+        assertEquals(testSubject.getSubTypesOf("Asset"), List.of("DataSet"));
+        assertNull(testSubject.getSubTypesOf("DataSet"));
+        assertNull(testSubject.getSubTypesOf("NotAType"));
+
+        assertEquals(getSuperTypeNames(testSubject, "DataSet"), List.of("Asset", "Referenceable"));
+
+        assertTrue(testSubject.isTypeOf("unittest", "DataSet", "Referenceable"));
+        assertTrue(testSubject.isTypeOf("unittest", "DataSet", "DataSet"));
+        assertFalse(testSubject.isTypeOf("unittest", "Referenceable", "DataSet"));
+        assertFalse(testSubject.isTypeOf("unittest", "Glossary", "Asset"));
+        assertFalse(testSubject.isTypeOf("unittest", "Unrelated", "Referenceable"));
+        assertTrue(testSubject.isTypeOfByGUID("unittest", dataSet.getGUID(), "DataSet", referenceable.getGUID()));
+
+        /*
+         * The caller owns the returned list.
+         */
+        testSubject.getSubTypesOf("Referenceable").clear();
+        assertEquals(testSubject.getSubTypesOf("Referenceable").size(), 3);
+    }
+
+
+    @Test
+    public void testPropertyLookup()
+    {
+        AuditLog auditLog = new AuditLog(null, 1, ComponentDevelopmentStatus.IN_DEVELOPMENT, null, null, null);
+        OMRSRepositoryContentManager testSubject = new OMRSRepositoryContentManager("testserver", auditLog);
+
+        EntityDef referenceable = addEntityDef(testSubject, "Referenceable", null, "qualifiedName");
+        EntityDef asset         = addEntityDef(testSubject, "Asset", referenceable, "name", "description");
+        addEntityDef(testSubject, "Glossary", referenceable, "name");
+
+        assertEquals(testSubject.getAllTypeDefsForProperty("unittest", "name", "testPropertyLookup"), Set.of("Asset", "Glossary"));
+        assertEquals(testSubject.getAllTypeDefsForProperty("unittest", "qualifiedName", "testPropertyLookup"), Set.of("Referenceable"));
+        assertEquals(testSubject.getAllTypeDefsForProperty("unittest", "description", "testPropertyLookup"), Set.of(asset.getName()));
+        assertNull(testSubject.getAllTypeDefsForProperty("unittest", "notAProperty", "testPropertyLookup"));
+
+        /*
+         * The caller owns the returned set.
+         */
+        Set<String> typeDefNames = testSubject.getAllTypeDefsForProperty("unittest", "name", "testPropertyLookup");
+
+        typeDefNames.add("Extra");
+        assertEquals(testSubject.getAllTypeDefsForProperty("unittest", "name", "testPropertyLookup"), Set.of("Asset", "Glossary"));
+    }
+
+
+    @Test
+    public void testLatticeRebuiltAfterAddingType()
+    {
+        AuditLog auditLog = new AuditLog(null, 1, ComponentDevelopmentStatus.IN_DEVELOPMENT, null, null, null);
+        OMRSRepositoryContentManager testSubject = new OMRSRepositoryContentManager("testserver", auditLog);
+
+        EntityDef referenceable = addEntityDef(testSubject, "Referenceable", null, "qualifiedName");
+        EntityDef asset         = addEntityDef(testSubject, "Asset", referenceable, "name");
+
+        assertEquals(testSubject.getSubTypesOf("Referenceable"), List.of("Asset"));
+        assertNull(testSubject.getSubTypesOf("Asset"));
+
+        addEntityDef(testSubject, "DataSet", asset, "name", "formula");
+
+        assertEquals(new HashSet<>(testSubject.getSubTypesOf("Referenceable")), Set.of("Asset", "DataSet"));
+        assertEquals(testSubject.getSubTypesOf("Asset"), List.of("DataSet"));
+        assertTrue(testSubject.isTypeOf("unittest", "DataSet", "Referenceable"));
+        assertEquals(getSuperTypeNames(testSubject, "DataSet"), List.of("Asset", "Referenceable"));
+        assertEquals(testSubject.getAllTypeDefsForProperty("unittest", "name", "testLatticeRebuiltAfterAddingType"), Set.of("Asset", "DataSet"));
+        assertEquals(testSubject.getAllTypeDefsForProperty("unittest", "formula", "testLatticeRebuiltAfterAddingType"), Set.of("DataSet"));
+
+        /*
+         * An updated type replaces the old definition in the lattice.
+         */
+        EntityDef updatedAsset = new EntityDef(asset);
+        updatedAsset.setPropertiesDefinition(new ArrayList<>());
+        testSubject.updateTypeDef("unittest", updatedAsset);
+
+        assertEquals(testSubject.getAllTypeDefsForProperty("unittest", "name", "testLatticeRebuiltAfterAddingType"), Set.of("DataSet"));
+    }
 }
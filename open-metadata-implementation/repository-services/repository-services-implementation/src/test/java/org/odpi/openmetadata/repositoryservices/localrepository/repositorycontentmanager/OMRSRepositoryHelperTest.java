@@ -2,6 +2,8 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
 
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
+import org.odpi.openmetadata.frameworks.openmetadata.search.ContinuationToken;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
@@ -113,6 +115,112 @@ public class OMRSRepositoryHelperTest
     }
 
 
+    @Test
+    void testContinuationPaging() throws InvalidParameterException {
+        OMRSRepositoryHelper helper = createHelper();
+
+        // several entities share a create time so the guid decides their order
+        List<EntityDetail> fullResults = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            fullResults.add(getTestEntityDetail("guid-" + i, i / 3, i));
+        }
+
+        List<EntityDetail> expectedResults = new ArrayList<>(fullResults);
+        expectedResults.sort(helper.getContinuationComparator(null, SequencingOrder.CREATION_DATE_RECENT));
+
+        List<String> pagedGUIDs = getPagedGUIDs(helper, fullResults, null, SequencingOrder.CREATION_DATE_RECENT, 3);
+        assertEquals(pagedGUIDs, getGUIDs(expectedResults));
+        assertEquals(new HashSet<>(pagedGUIDs).size(), 10);
+
+        // an exact multiple of the page size ends with an empty page and no token
+        pagedGUIDs = getPagedGUIDs(helper, fullResults, null, SequencingOrder.CREATION_DATE_RECENT, 5);
+        assertEquals(pagedGUIDs, getGUIDs(expectedResults));
+
+        // ANY is paged in creation date order
+        pagedGUIDs = getPagedGUIDs(helper, fullResults, null, SequencingOrder.ANY, 4);
+        assertEquals(pagedGUIDs, getGUIDs(expectedResults));
+
+        // GUID order
+        pagedGUIDs = getPagedGUIDs(helper, fullResults, null, SequencingOrder.GUID, 3);
+        List<String> sortedGUIDs = getGUIDs(fullResults);
+        Collections.sort(sortedGUIDs);
+        assertEquals(pagedGUIDs, sortedGUIDs);
+    }
+
+    @Test
+    void testContinuationPagingByPropertyValue() throws InvalidParameterException {
+        OMRSRepositoryHelper helper = createHelper();
+
+        // numbers are compared numerically with the string form of the value in the token
+        int[] values = {300, 5, 40, 1000, 5, 40, 9};
+        List<EntityDetail> fullResults = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            fullResults.add(getTestEntityDetail("guid-" + i, 1, values[i]));
+        }
+
+        List<String> pagedGUIDs = getPagedGUIDs(helper, fullResults, "count", SequencingOrder.PROPERTY_ASCENDING, 2);
+        assertEquals(pagedGUIDs, Arrays.asList("guid-1", "guid-4", "guid-6", "guid-2", "guid-5", "guid-0", "guid-3"));
+
+        pagedGUIDs = getPagedGUIDs(helper, fullResults, "count", SequencingOrder.PROPERTY_DESCENDING, 2);
+        assertEquals(pagedGUIDs, Arrays.asList("guid-3", "guid-0", "guid-5", "guid-2", "guid-6", "guid-4", "guid-1"));
+    }
+
+    @Test
+    void testContinuationPagingWithChangingResults() throws InvalidParameterException {
+        OMRSRepositoryHelper helper = createHelper();
+
+        List<EntityDetail> fullResults = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            fullResults.add(getTestEntityDetail("guid-" + i, i, i));
+        }
+
+        // oldest first: guid-0, guid-1, guid-2 then guid-3 ...
+        List<EntityDetail> page = helper.formatEntityResults(new ArrayList<>(fullResults), null, null, SequencingOrder.CREATION_DATE_OLDEST, 3);
+        assertEquals(getGUIDs(page), Arrays.asList("guid-0", "guid-1", "guid-2"));
+        String token = helper.getNextContinuationToken(null, page, null, SequencingOrder.CREATION_DATE_OLDEST, 3);
+
+        // elements removed from the previous page, including the last one, do not cause elements to be skipped
+        fullResults.removeIf(entityDetail -> entityDetail.getGUID().equals("guid-1") || entityDetail.getGUID().equals("guid-2"));
+        page = helper.formatEntityResults(new ArrayList<>(fullResults),
+                                          ContinuationToken.getContinuationToken(token, "token", "test"),
+                                          null,
+                                          SequencingOrder.CREATION_DATE_OLDEST,
+                                          3);
+        assertEquals(getGUIDs(page), Arrays.asList("guid-3", "guid-4", "guid-5"));
+        token = helper.getNextContinuationToken(token, page, null, SequencingOrder.CREATION_DATE_OLDEST, 3);
+        assertEquals(ContinuationToken.getContinuationToken(token, "token", "test").getNextElement(), 6);
+
+        // an element added ahead of the position is not repeated on the next page
+        fullResults.add(getTestEntityDetail("guid-new", 0, 0));
+        page = helper.formatEntityResults(new ArrayList<>(fullResults),
+                                          ContinuationToken.getContinuationToken(token, "token", "test"),
+                                          null,
+                                          SequencingOrder.CREATION_DATE_OLDEST,
+                                          3);
+        assertEquals(getGUIDs(page), Arrays.asList("guid-6", "guid-7", "guid-8"));
+
+        // a token without a position pages by element number
+        page = helper.formatEntityResults(new ArrayList<>(fullResults),
+                                          new ContinuationToken(2, null, null),
+                                          null,
+                                          SequencingOrder.CREATION_DATE_OLDEST,
+                                          2);
+        assertEquals(getGUIDs(page), Arrays.asList("guid-3", "guid-4"));
+    }
+
+    @Test
+    void testInvalidContinuationToken() {
+        OMRSRepositoryHelper helper = createHelper();
+        List<EntityDetail> page = Collections.singletonList(getTestEntityDetail("guid-1", 1, 1));
+
+        try {
+            helper.getNextContinuationToken("tampered!", page, null, SequencingOrder.ANY, 1);
+            fail("Invalid continuation token accepted");
+        } catch (InvalidParameterException error) {
+            assertEquals(error.getParameterName(), "continuationToken");
+        }
+    }
+
     @Test
     void testCommonDifferencesAcrossInstances() {
 
@@ -379,6 +487,45 @@ public class OMRSRepositoryHelperTest
         return entityDetail;
     }
 
+    private EntityDetail getTestEntityDetail(String guid, long createTime, int count) {
+        EntityDetail entityDetail = getTestEntityDetail();
+        entityDetail.setGUID(guid);
+        entityDetail.setCreateTime(new Date(createTime));
+        InstanceProperties ip = createHelper().addIntPropertyToInstance("test", null, "count", count, "getTestEntityDetail");
+        entityDetail.setProperties(ip);
+        return entityDetail;
+    }
+
+    private List<String> getPagedGUIDs(OMRSRepositoryHelper helper,
+                                       List<EntityDetail> fullResults,
+                                       String sequencingProperty,
+                                       SequencingOrder sequencingOrder,
+                                       int pageSize) throws InvalidParameterException {
+        List<String> guids = new ArrayList<>();
+        String token = null;
+        do {
+            List<EntityDetail> page = helper.formatEntityResults(new ArrayList<>(fullResults),
+                                                                 ContinuationToken.getContinuationToken(token, "token", "getPagedGUIDs"),
+                                                                 sequencingProperty,
+                                                                 sequencingOrder,
+                                                                 pageSize);
+            if (page != null) {
+                assertTrue(page.size() <= pageSize);
+                guids.addAll(getGUIDs(page));
+            }
+            token = helper.getNextContinuationToken(token, page, sequencingProperty, sequencingOrder, pageSize);
+        } while (token != null);
+        return guids;
+    }
+
+    private List<String> getGUIDs(List<EntityDetail> instances) {
+        List<String> guids = new ArrayList<>();
+        for (EntityDetail instance : instances) {
+            guids.add(instance.getGUID());
+        }
+        return guids;
+    }
+
     private EntityProxy getTestEntityProxy() {
         EntityProxy entityProxy = new EntityProxy();
         setupEntitySummary(entityProxy);
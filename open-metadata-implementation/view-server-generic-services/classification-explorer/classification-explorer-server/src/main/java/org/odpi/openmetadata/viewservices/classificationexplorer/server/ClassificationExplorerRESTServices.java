@@ -4499,6 +4499,55 @@ public class ClassificationExplorerRESTServices extends TokenController
     }
 
 
+    /**
+     * Retrieve one of the mermaid diagrams for a metadata element.  Lists of elements are returned without the
+     * diagrams for each element, so this request is used when the diagram is to be displayed.
+     *
+     * @param serverName     name of server instance to route request to
+     * @param urlMarker  view service URL marker
+     * @param elementGUID unique identifier for the metadata element
+     * @param diagramName name of the diagram to render
+     * @param requestBody only return the element if it is effective at this time. Null means anytime. Use "new Date()" for now.
+     *
+     * @return mermaid markdown (null if the diagram does not apply to the element) or
+     *  InvalidParameterException the unique identifier is null or not known, or the diagram name is not recognized.
+     *  UserNotAuthorizedException the governance action service is not able to access the element
+     *  PropertyServerException a problem accessing the metadata store
+     */
+    public StringResponse getMermaidDiagram(String             serverName,
+                                            String             urlMarker,
+                                            String             elementGUID,
+                                            String             diagramName,
+                                            ResultsRequestBody requestBody)
+    {
+        final String methodName = "getMermaidDiagram";
+
+        RESTCallToken token = restCallLogger.logRESTCall(serverName, methodName, requestBody);
+
+        StringResponse response = new StringResponse();
+        AuditLog       auditLog = null;
+
+        try
+        {
+            String userId = super.getUser(instanceHandler.getServiceName(), methodName);
+
+            restCallLogger.setUserId(token, userId);
+
+            auditLog = instanceHandler.getAuditLog(userId, serverName, methodName);
+            StewardshipManagementHandler handler = instanceHandler.getStewardshipManagementHandler(userId, serverName, urlMarker, methodName);
+
+            response.setResultString(handler.getMermaidDiagram(userId, elementGUID, diagramName, requestBody, methodName));
+        }
+        catch (Throwable error)
+        {
+            restExceptionHandler.captureRuntimeExceptions(response, error, methodName, auditLog);
+        }
+
+        restCallLogger.logRESTCallReturn(token, response);
+        return response;
+    }
+
+
     /**
      * Retrieve the metadata element using its unique name (typically the qualified name).
      *
@@ -2386,6 +2386,40 @@ public class ClassificationExplorerResource
     }
 
 
+    /**
+     * Retrieve one of the mermaid diagrams for a metadata element.  Lists of elements are returned without the
+     * diagrams for each element, so this request is used when the diagram is to be displayed.
+     *
+     * @param serverName     name of server instance to route request to
+     * @param urlMarker  view service URL marker
+     * @param elementGUID unique identifier for the metadata element
+     * @param diagramName name of the diagram to render, such as root-graph or zone-profile
+     * @param requestBody only return the element if it is effective at this time. Null means anytime. Use "new Date()" for now.
+     *
+     * @return mermaid markdown (null if the diagram does not apply to the element) or
+     *  InvalidParameterException the unique identifier is null or not known, or the diagram name is not recognized.
+     *  UserNotAuthorizedException the governance action service is not able to access the element
+     *  PropertyServerException a problem accessing the metadata store
+     */
+    @PostMapping(path = "/elements/{elementGUID}/mermaid/{diagramName}")
+    @SecurityRequirement(name = "BearerAuthorization")
+
+    @Operation(summary="getMermaidDiagram",
+            description="Retrieve one of the mermaid diagrams for a metadata element.",
+            externalDocs=@ExternalDocumentation(description="Further Information",
+                    url="https://egeria-project.org/services/gaf-metadata-management/"))
+
+    public StringResponse getMermaidDiagram(@PathVariable String             serverName,
+                                            @PathVariable String             urlMarker,
+                                            @PathVariable String             elementGUID,
+                                            @PathVariable String             diagramName,
+                                            @RequestBody  (required = false)
+                                                          ResultsRequestBody requestBody)
+    {
+        return restAPI.getMermaidDiagram(serverName, urlMarker, elementGUID, diagramName, requestBody);
+    }
+
+
     /**
      * Retrieve the metadata element using its unique name (typically the qualified name).
      *
@@ -73,7 +73,25 @@ public enum AssetCatalogAuditCode implements AuditLogMessageSet
                          AuditLogRecordSeverityLevel.EXCEPTION,
                          "The Open Metadata Service has generated an unexpected {0} exception during method {1}.  The message was: {2}",
                          "The request returned an Exception.",
-                         "This is probably a logic error. Review the stack trace to identify where the error occurred and work to resolve the cause.")
+                         "This is probably a logic error. Review the stack trace to identify where the error occurred and work to resolve the cause."),
+
+    /**
+     * OMVS-ASSET-CATALOG-0007 The Asset Catalog Open Metadata View Service (OMVS) in server {0} is caching lineage graphs and listening for changes to open metadata from server {1}
+     */
+    LINEAGE_CACHE_CONNECTED("OMVS-ASSET-CATALOG-0007",
+                            AuditLogRecordSeverityLevel.INFO,
+                            "The Asset Catalog Open Metadata View Service (OMVS) in server {0} is caching lineage graphs and listening for changes to open metadata from server {1}",
+                            "The view service has registered its lineage cache with the out topic of the metadata access server.  Repeated lineage graph requests are answered from the cache, and entries are removed as the metadata changes.",
+                            "No action is required.  This is part of the normal operation of the service."),
+
+    /**
+     * OMVS-ASSET-CATALOG-0008 The Asset Catalog Open Metadata View Service (OMVS) in server {0} is unable to listen for changes to open metadata from server {1}; the {2} exception was returned with message {3}
+     */
+    LINEAGE_CACHE_NOT_CONNECTED("OMVS-ASSET-CATALOG-0008",
+                                AuditLogRecordSeverityLevel.ERROR,
+                                "The Asset Catalog Open Metadata View Service (OMVS) in server {0} is unable to listen for changes to open metadata from server {1}; the {2} exception was returned with message {3}",
+                                "The view service is not able to register its lineage cache with the out topic of the metadata access server.  Lineage graphs are retrieved from the metadata access server on every request.  The view service retries the registration periodically.",
+                                "Check that the metadata access server is running and that its out topic is configured.  Once the registration succeeds, message OMVS-ASSET-CATALOG-0007 is logged.")
     ;
 
     private final String                      logMessageId;
@@ -10,10 +10,13 @@ import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterExcept
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.PropertyServerException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
 import org.odpi.openmetadata.frameworks.openmetadata.handlers.AssetHandler;
+import org.odpi.openmetadata.frameworks.openmetadata.handlers.AssetLineageCache;
 import org.odpi.openmetadata.frameworks.openmetadata.properties.TypeDefList;
 import org.odpi.openmetadata.frameworks.openmetadata.types.OpenMetadataType;
 import org.odpi.openmetadata.frameworks.openmetadata.properties.OpenMetadataTypeDef;
+import org.odpi.openmetadata.frameworkservices.omf.client.EgeriaOpenMetadataEventClient;
 import org.odpi.openmetadata.frameworkservices.omf.client.EgeriaOpenMetadataStoreClient;
+import org.odpi.openmetadata.viewservices.assetcatalog.ffdc.AssetCatalogAuditCode;
 import org.odpi.openmetadata.viewservices.assetcatalog.rest.Type;
 
 import java.util.ArrayList;
@@ -30,9 +33,19 @@ public class AssetCatalogInstance extends OMVSServiceInstance
 {
     private static final ViewServiceDescription myDescription = ViewServiceDescription.ASSET_CATALOG;
 
-    private final AssetHandler       assetHandler;
-    private final OpenMetadataClient openMetadataClient;
-    private final List<Type>         supportedAssetTypes;
+    /*
+     * Time in milliseconds between attempts to register the lineage cache with the metadata access server.
+     */
+    private static final long lineageCacheRetryInterval = 60000L;
+
+    private final AssetHandler                  assetHandler;
+    private final OpenMetadataClient            openMetadataClient;
+    private final List<Type>                    supportedAssetTypes;
+    private final EgeriaOpenMetadataEventClient eventClient;
+    private final AssetLineageCache             lineageCache          = new AssetLineageCache();
+    private volatile boolean                    lineageCacheConnected = false;
+    private long                                nextLineageCacheRetry = 0L;
+    private boolean                             lineageCacheFailureLogged = false;
 
 
     /**
@@ -76,10 +89,62 @@ public class AssetCatalogInstance extends OMVSServiceInstance
 
         this.assetHandler = new AssetHandler(serverName, auditLog, myDescription.getViewServiceFullName(), openMetadataClient);
 
+        this.eventClient = new EgeriaOpenMetadataEventClient(remoteServerName,
+                                                             remoteServerURL,
+                                                             localServerUserId,
+                                                             localServerSecretsStoreProvider,
+                                                             localServerSecretsStoreLocation,
+                                                             localServerSecretsStoreCollection,
+                                                             maxPageSize,
+                                                             auditLog,
+                                                             myDescription.getViewServiceFullName() + ":" + serverName);
+
         this.supportedAssetTypes = this.setupSupportedAssetTypes(supportedAssetTypeNames);
     }
 
 
+    /**
+     * Register the lineage cache with the out topic of the metadata access server and, if this succeeds, pass
+     * it to the asset handler.  The lineage cache is only used once it is told about changes to open metadata.
+     * The metadata access server may not be running when this view service starts, so the registration is
+     * retried periodically as requests arrive.
+     */
+    private synchronized void connectLineageCache()
+    {
+        final String methodName = "connectLineageCache";
+
+        if ((! lineageCacheConnected) && (System.currentTimeMillis() >= nextLineageCacheRetry))
+        {
+            try
+            {
+                eventClient.registerListener(localServerUserId, lineageCache);
+
+                assetHandler.setLineageCache(lineageCache);
+                lineageCacheConnected = true;
+
+                auditLog.logMessage(methodName,
+                                    AssetCatalogAuditCode.LINEAGE_CACHE_CONNECTED.getMessageDefinition(serverName,
+                                                                                                       remoteServerName));
+            }
+            catch (Exception error)
+            {
+                nextLineageCacheRetry = System.currentTimeMillis() + lineageCacheRetryInterval;
+
+                if (! lineageCacheFailureLogged)
+                {
+                    lineageCacheFailureLogged = true;
+
+                    auditLog.logMessage(methodName,
+                                        AssetCatalogAuditCode.LINEAGE_CACHE_NOT_CONNECTED.getMessageDefinition(serverName,
+                                                                                                               remoteServerName,
+                                                                                                               error.getClass().getName(),
+                                                                                                               error.getMessage()));
+                }
+            }
+        }
+    }
+
+
     /**
      * Determine the full list of types request  for this view service search requests.
      *
@@ -210,6 +275,25 @@ public class AssetCatalogInstance extends OMVSServiceInstance
      */
     public AssetHandler getAssetHandler()
     {
+        if (! lineageCacheConnected)
+        {
+            this.connectLineageCache();
+        }
+
         return assetHandler;
     }
+
+
+    /**
+     * Stop listening for changes to open metadata and unregister the instance.
+     */
+    @Override
+    public void shutdown()
+    {
+        assetHandler.setLineageCache(null);
+        lineageCache.clear();
+        eventClient.disconnect();
+
+        super.shutdown();
+    }
 }
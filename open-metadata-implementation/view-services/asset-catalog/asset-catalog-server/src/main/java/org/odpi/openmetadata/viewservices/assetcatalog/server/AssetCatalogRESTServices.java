@@ -8,6 +8,7 @@ import org.odpi.openmetadata.commonservices.ffdc.RESTExceptionHandler;
 import org.odpi.openmetadata.commonservices.ffdc.rest.*;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.openmetadata.handlers.AssetHandler;
+import org.odpi.openmetadata.frameworks.openmetadata.handlers.AssetLineageTraversalControl;
 import org.odpi.openmetadata.frameworks.openmetadata.search.QueryOptions;
 import org.odpi.openmetadata.tokencontroller.TokenController;
 import org.odpi.openmetadata.viewservices.assetcatalog.rest.AssetCatalogSupportedTypes;
@@ -89,7 +90,7 @@ public class AssetCatalogRESTServices extends TokenController
      *
      * @param serverName name of the server instances for this request
      * @param assetGUID  unique identifier for the asset
-     * @param requestBody list of relationship type names to use in the search
+     * @param requestBody list of relationship type names to use in the search, and limits on the size of the graph
 
      *
      * @return graph of elements or
@@ -125,6 +126,8 @@ public class AssetCatalogRESTServices extends TokenController
                                                                  requestBody.getLimitToISCQualifiedName(),
                                                                  requestBody.getHighlightISCQualifiedName(),
                                                                  requestBody.getAllAnchors(),
+                                                                 new AssetLineageTraversalControl(requestBody.getMaxLineageDepth(),
+                                                                                                  requestBody.getMaxLineageNodes()),
                                                                  requestBody));
             }
             else